@@ -5,10 +5,7 @@ package com.arbergashi.charts.api.forensic;
   * @author Arber Gashi
   * @version 2.0.0
  */
-public interface PlaybackDrive extends AutoCloseable {
+public interface PlaybackDrive extends PlaybackTransport {
     void load(double[] x, double[] y, double[] min, double[] max, double[] weight,
               String[] labels, byte[] flags, short[] sourceIds, long[] timestamps);
-    void start();
-    void stop();
-    boolean isRunning();
 }
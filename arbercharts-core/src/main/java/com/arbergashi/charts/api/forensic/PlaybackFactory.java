@@ -4,7 +4,10 @@ import com.arbergashi.charts.model.CircularChartModel;
 import com.arbergashi.charts.model.DefaultChartModel;
 import com.arbergashi.charts.util.ChartAssets;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
 /**
  * Factory for forensic playback components.
   * @since 1.5.0
@@ -15,6 +18,7 @@ public final class PlaybackFactory {
     private static final String MANAGER_CLASS = "com.arbergashi.charts.engine.forensic.DeterministicPlaybackManager";
     private static final String DRIVE_CLASS = "com.arbergashi.charts.engine.forensic.ChronosPlaybackDrive";
     private static final String STREAM_DRIVE_CLASS = "com.arbergashi.charts.engine.forensic.StreamPlaybackDriveImpl";
+    private static final String CAPTURE_DRIVE_CLASS = "com.arbergashi.charts.engine.forensic.CapturePlaybackDrive";
     private static final String STREAM_CAPACITY_KEY = "Chart.stream.buffer.default_capacity";
 
     private PlaybackFactory() {
@@ -32,9 +36,7 @@ public final class PlaybackFactory {
     }
 
     public static PlaybackDrive ofChronosDrive(DefaultChartModel model, PlaybackController controller) {
-        PlaybackSink sink = (x, y, min, max, weight, label, flag, sourceId, ts) ->
-                model.setPoint(x, y, min, max, weight, label, flag, sourceId, ts);
-        return ofDrive(controller, sink);
+        return ofDrive(controller, sinkFor(model));
     }
 
     public static PlaybackDrive ofChronosDrive(CircularChartModel model, PlaybackController controller) {
@@ -44,9 +46,7 @@ public final class PlaybackFactory {
     }
 
     public static StreamPlaybackDrive ofStreamDrive(DefaultChartModel model, PlaybackController controller) {
-        PlaybackSink sink = (x, y, min, max, weight, label, flag, sourceId, ts) ->
-                model.setPoint(x, y, min, max, weight, label, flag, sourceId, ts);
-        return ofStreamDrive(controller, sink, -1);
+        return ofStreamDrive(controller, sinkFor(model), -1);
     }
 
     public static StreamPlaybackDrive ofStreamDrive(CircularChartModel model, PlaybackController controller) {
@@ -57,9 +57,7 @@ public final class PlaybackFactory {
 
     public static StreamPlaybackDrive ofStreamDrive(DefaultChartModel model, PlaybackController controller,
                                                         int capacity) {
-        PlaybackSink sink = (x, y, min, max, weight, label, flag, sourceId, ts) ->
-                model.setPoint(x, y, min, max, weight, label, flag, sourceId, ts);
-        return ofStreamDrive(controller, sink, capacity);
+        return ofStreamDrive(controller, sinkFor(model), capacity);
     }
 
     public static StreamPlaybackDrive ofStreamDrive(CircularChartModel model, PlaybackController controller,
@@ -69,6 +67,58 @@ public final class PlaybackFactory {
         return ofStreamDrive(controller, sink, capacity);
     }
 
+    /**
+     * Creates a seekable drive that replays a capture recorded with
+     * {@link StreamPlaybackDrive#startRecording(Path)} into the given model.
+     *
+     * @since 2.1.0
+     */
+    public static SeekablePlaybackDrive ofCaptureDrive(Path capture, DefaultChartModel model,
+                                                       PlaybackController controller) throws IOException {
+        if (model == null) throw new IllegalArgumentException("model required");
+        return ofCaptureDrive(capture, controller, sinkFor(model));
+    }
+
+    /**
+     * Creates a seekable drive that replays a capture recorded with
+     * {@link StreamPlaybackDrive#startRecording(Path)} into an arbitrary sink.
+     *
+     * @since 2.1.0
+     */
+    public static SeekablePlaybackDrive ofCaptureDrive(Path capture, PlaybackController controller,
+                                                       PlaybackSink sink) throws IOException {
+        if (capture == null) throw new IllegalArgumentException("capture required");
+        if (controller == null) throw new IllegalArgumentException("controller required");
+        if (sink == null) throw new IllegalArgumentException("sink required");
+        try {
+            Class<?> driveClass = Class.forName(CAPTURE_DRIVE_CLASS);
+            Constructor<?> ctor = driveClass.getDeclaredConstructor(PlaybackController.class, PlaybackSink.class, Path.class);
+            ctor.setAccessible(true);
+            return (SeekablePlaybackDrive) ctor.newInstance(controller, sink, capture);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IllegalStateException("Unable to create capture playback drive", e.getCause());
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to create capture playback drive", e);
+        }
+    }
+
+    private static PlaybackSink sinkFor(DefaultChartModel model) {
+        return new PlaybackSink() {
+            @Override
+            public void setPoint(double x, double y, double min, double max, double weight, String label,
+                                 byte flag, short sourceId, long ts) {
+                model.setPoint(x, y, min, max, weight, label, flag, sourceId, ts);
+            }
+
+            @Override
+            public void setPoints(double[] x, double[] y, double[] min, double[] max, double[] weight,
+                                  byte[] flags, short[] sourceIds, long[] ts, int offset, int length) {
+                model.appendPoints(x, y, min, max, weight, null, flags, sourceIds, ts, offset, length);
+            }
+        };
+    }
+
     private static PlaybackDrive ofDrive(PlaybackController controller, PlaybackSink sink) {
         if (controller == null) throw new IllegalArgumentException("controller required");
         if (sink == null) throw new IllegalArgumentException("sink required");
@@ -9,4 +9,17 @@ package com.arbergashi.charts.api.forensic;
 public interface PlaybackSink {
     void setPoint(double x, double y, double min, double max, double weight, String label,
                   byte flag, short sourceId, long timestampNanos);
+
+    /**
+     * Delivers a batch of unlabeled points. The default forwards each point to
+     * {@link #setPoint}; sinks backed by a bulk-capable model should override it.
+     *
+     * @since 2.1.0
+     */
+    default void setPoints(double[] x, double[] y, double[] min, double[] max, double[] weight,
+                           byte[] flags, short[] sourceIds, long[] timestampNanos, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            setPoint(x[i], y[i], min[i], max[i], weight[i], null, flags[i], sourceIds[i], timestampNanos[i]);
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package com.arbergashi.charts.api.forensic;
+/**
+ * Transport controls shared by every playback drive, independent of where the replayed data
+ * comes from: {@link PlaybackDrive} replays arrays handed to it, {@link SeekablePlaybackDrive}
+ * replays a recorded capture.
+  * @since 2.1.0
+  * @author Arber Gashi
+  * @version 2.1.0
+ */
+public interface PlaybackTransport extends AutoCloseable {
+    void start();
+    void stop();
+    boolean isRunning();
+}
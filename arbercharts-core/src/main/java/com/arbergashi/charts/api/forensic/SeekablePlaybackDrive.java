@@ -0,0 +1,44 @@
+package com.arbergashi.charts.api.forensic;
+/**
+ * Playback drive over a recorded capture that can jump to a timestamp.
+ *
+ * <p>Rows are streamed from the capture in windows and delivered to the sink in batches through
+ * {@link PlaybackSink#setPoints}; the recording is never materialized on the heap.</p>
+  * @since 2.1.0
+  * @author Arber Gashi
+  * @version 2.1.0
+ */
+public interface SeekablePlaybackDrive extends PlaybackTransport {
+    /**
+     * Moves the replay cursor to the first sample at or after {@code timestampNanos} in
+     * {@code O(log n)}; playback continues from there if running.
+     */
+    void seek(long timestampNanos);
+
+    /**
+     * Returns the timestamp of the next sample to be delivered, or of the last sample once the
+     * capture is exhausted.
+     */
+    long getPositionNanos();
+
+    /**
+     * Returns the timestamp of the first sample, or {@code 0} if the capture is empty.
+     */
+    long getStartTimestampNanos();
+
+    /**
+     * Returns the timestamp of the last sample, or {@code 0} if the capture is empty.
+     */
+    long getEndTimestampNanos();
+
+    /**
+     * Returns the number of samples in the capture.
+     */
+    int getSampleCount();
+
+    /**
+     * Stops playback and releases the capture; never throws a checked exception.
+     */
+    @Override
+    void close();
+}
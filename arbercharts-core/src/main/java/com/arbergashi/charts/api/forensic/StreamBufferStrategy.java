@@ -6,8 +6,12 @@ package com.arbergashi.charts.api.forensic;
   * @version 2.0.0
  */
 public enum StreamBufferStrategy {
+    /** Overwrites the oldest buffered sample. */
     DROP_OLDEST,
+    /** Rejects the incoming sample. */
     DROP_NEWEST,
+    /** Merges samples into min/max/last aggregates per time bucket so peaks survive. */
     COALESCE,
+    /** Makes the producer wait, up to a timeout, for the consumer to free space. */
     BLOCK
 }
@@ -1,4 +1,8 @@
 package com.arbergashi.charts.api.forensic;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
  * Interface for live stream playback drives (TCP/UDP/WebSocket ingestion).
   * @since 1.5.0
@@ -14,6 +18,81 @@ public interface StreamPlaybackDrive extends AutoCloseable {
     StreamPlaybackDrive setBufferStrategy(StreamBufferStrategy strategy);
     StreamBufferStrategy getBufferStrategy();
     long getDroppedCount();
+
+    /**
+     * Starts recording every delivered sample to an append-only columnar capture file that
+     * {@link PlaybackFactory#ofCaptureDrive} can replay and seek. Labels are not recorded.
+     *
+     * @since 2.1.0
+     */
+    default void startRecording(Path file) throws IOException {
+        throw new UnsupportedOperationException("Recording is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Stops recording and closes the capture file.
+     *
+     * @since 2.1.0
+     */
+    default void stopRecording() {
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    default boolean isRecording() {
+        return false;
+    }
+
+    /**
+     * Returns how many samples were merged into an existing buffered sample under
+     * {@link StreamBufferStrategy#COALESCE}.
+     *
+     * @since 2.1.0
+     */
+    default long getCoalescedCount() {
+        return 0L;
+    }
+
+    /**
+     * Returns the total time producers spent waiting for space under {@link StreamBufferStrategy#BLOCK}.
+     *
+     * @since 2.1.0
+     */
+    default long getBlockedNanos() {
+        return 0L;
+    }
+
+    /**
+     * Sets how long {@link #offer} may wait for space under {@link StreamBufferStrategy#BLOCK}
+     * before the sample is dropped.
+     *
+     * @since 2.1.0
+     */
+    default StreamPlaybackDrive setBlockTimeoutNanos(long timeoutNanos) {
+        return this;
+    }
+
+    /**
+     * Sets the time bucket within which overflowing samples are merged into one min/max/last
+     * aggregate under {@link StreamBufferStrategy#COALESCE}.
+     *
+     * @since 2.1.0
+     */
+    default StreamPlaybackDrive setCoalesceWindowNanos(long windowNanos) {
+        return this;
+    }
+
+    /**
+     * Waits until every accepted sample has been delivered to the sink.
+     *
+     * @return {@code true} if the buffer drained within the timeout
+     * @since 2.1.0
+     */
+    default boolean awaitDrained(long timeoutNanos) throws InterruptedException {
+        return true;
+    }
+
     boolean offer(double x, double y, double min, double max, double weight,
                   String label, byte flag, short sourceId, long timestampNanos);
 }
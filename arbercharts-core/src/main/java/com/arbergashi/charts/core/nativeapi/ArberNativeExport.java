@@ -1,22 +1,13 @@
 package com.arbergashi.charts.core.nativeapi;
 
-import com.arbergashi.charts.api.ChartRenderHints;
-import com.arbergashi.charts.api.ChartTheme;
-import com.arbergashi.charts.api.ChartThemes;
-import com.arbergashi.charts.api.DefaultPlotContext;
-import com.arbergashi.charts.core.geometry.ArberRect;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
-import com.arbergashi.charts.model.ChartModel;
-import com.arbergashi.charts.model.DefaultChartModel;
-import com.arbergashi.charts.model.DefaultFinancialChartModel;
-import com.arbergashi.charts.render.ChartRenderer;
-import com.arbergashi.charts.render.financial.CandlestickRenderer;
-import com.arbergashi.charts.render.standard.LineRenderer;
+import com.arbergashi.charts.model.OffHeapRingChartModel;
 import org.graalvm.nativeimage.IsolateThread;
 import org.graalvm.nativeimage.c.function.CEntryPoint;
 import org.graalvm.nativeimage.c.type.CCharPointer;
 import org.graalvm.nativeimage.c.type.CDoublePointer;
 
+import java.lang.foreign.MemorySegment;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -34,8 +25,18 @@ public final class ArberNativeExport {
     public static final int TYPE_LINE = 0;
     public static final int TYPE_FINANCIAL = 1;
 
+    /** {@link #ringColumn} column: X values. */
+    public static final int COLUMN_X = 0;
+    /** {@link #ringColumn} column: Y values. */
+    public static final int COLUMN_Y = 1;
+
+    /** {@link #encodeFrame} flag: reset palettes and layer caches on both sides. */
+    public static final int STREAM_KEYFRAME = 1;
+    /** {@link #encodeFrame} flag: send layers unchanged since the previous frame as a reuse marker. */
+    public static final int STREAM_DIFF = 2;
+
     private static final AtomicLong NEXT_ID = new AtomicLong(1);
-    private static final Map<Long, ChartSession> CHARTS = new ConcurrentHashMap<>();
+    private static final Map<Long, NativeChartSession> CHARTS = new ConcurrentHashMap<>();
     private static final Map<Long, ArberCanvas> CANVASES = new ConcurrentHashMap<>();
 
     private ArberNativeExport() {
@@ -43,79 +44,126 @@ public final class ArberNativeExport {
 
     @CEntryPoint(name = "arber_create_chart")
     public static long createChart(IsolateThread thread, int type) {
-        ChartSession session = switch (type) {
-            case TYPE_FINANCIAL -> ChartSession.financial();
-            case TYPE_LINE -> ChartSession.line();
-            default -> ChartSession.line();
+        NativeChartSession session = switch (type) {
+            case TYPE_FINANCIAL -> NativeChartSession.financial();
+            case TYPE_LINE -> NativeChartSession.line();
+            default -> NativeChartSession.line();
         };
-        long id = NEXT_ID.getAndIncrement();
-        CHARTS.put(id, session);
-        return id;
+        return register(session);
+    }
+
+    /**
+     * Creates a line chart over an off-heap ring of {@code capacity} rows (rounded up to a power of
+     * two) that the host writes directly; see {@link #ringColumn} and {@link #ringPublish}.
+     *
+     * @return chart handle, or {@code -1} for an invalid capacity
+     * @since 2.1.0
+     */
+    @CEntryPoint(name = "arber_create_ring_chart")
+    public static long createRingChart(IsolateThread thread, int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) return -1;
+        return register(NativeChartSession.ring(capacity));
     }
 
     @CEntryPoint(name = "arber_destroy_chart")
     public static int destroyChart(IsolateThread thread, long handle) {
-        return CHARTS.remove(handle) != null ? 0 : -1;
+        NativeChartSession session = CHARTS.remove(handle);
+        if (session == null) return -1;
+        session.close();
+        return 0;
     }
 
     @CEntryPoint(name = "arber_set_viewport")
     public static int setViewport(IsolateThread thread, long handle, double x, double y, double w, double h) {
-        ChartSession session = CHARTS.get(handle);
+        NativeChartSession session = CHARTS.get(handle);
         if (session == null) return -1;
-        session.bounds = new ArberRect(x, y, w, h);
+        session.setViewport(x, y, w, h);
         return 0;
     }
 
+    /**
+     * Appends interleaved rows: {@code x, y} pairs for line charts, {@code t, o, h, l, c} tuples
+     * for financial charts. The whole call is one model update.
+     */
     @CEntryPoint(name = "arber_update_data")
     public static int updateData(IsolateThread thread, long handle, CDoublePointer data, int length) {
-        ChartSession session = CHARTS.get(handle);
+        NativeChartSession session = CHARTS.get(handle);
         if (session == null) return -1;
         if (data.isNull() || length <= 0) return -2;
+        return session.appendInterleaved(doubles(data, length), length);
+    }
 
-        if (session.model instanceof DefaultFinancialChartModel fin) {
-            int step = 5;
-            for (int i = 0; i + 4 < length; i += step) {
-                double t = data.read(i);
-                double open = data.read(i + 1);
-                double high = data.read(i + 2);
-                double low = data.read(i + 3);
-                double close = data.read(i + 4);
-                fin.setOHLC(t, open, high, low, close);
-            }
-            return 0;
-        }
+    /**
+     * Appends {@code length} points from separate X and Y columns with one bulk copy per column.
+     *
+     * @return {@code 0}, or a negative error code ({@code -3}: not a line chart)
+     * @since 2.1.0
+     */
+    @CEntryPoint(name = "arber_append_xy")
+    public static int appendXY(IsolateThread thread, long handle, CDoublePointer xs, CDoublePointer ys, int length) {
+        NativeChartSession session = CHARTS.get(handle);
+        if (session == null) return -1;
+        if (xs.isNull() || ys.isNull() || length <= 0) return -2;
+        return session.appendXY(doubles(xs, length), doubles(ys, length), length);
+    }
 
-        if (session.model instanceof DefaultChartModel xy) {
-            for (int i = 0; i + 1 < length; i += 2) {
-                double x = data.read(i);
-                double y = data.read(i + 1);
-                xy.setXY(x, y);
-            }
-            return 0;
-        }
+    /**
+     * Appends {@code length} bars from separate columns with one bulk copy per column.
+     *
+     * @param volume volume column, or null for zero volume
+     * @return {@code 0}, or a negative error code ({@code -3}: not a financial chart)
+     * @since 2.1.0
+     */
+    @CEntryPoint(name = "arber_append_ohlc")
+    public static int appendOHLC(IsolateThread thread, long handle, CDoublePointer time, CDoublePointer open,
+                                 CDoublePointer high, CDoublePointer low, CDoublePointer close,
+                                 CDoublePointer volume, int length) {
+        NativeChartSession session = CHARTS.get(handle);
+        if (session == null) return -1;
+        if (time.isNull() || open.isNull() || high.isNull() || low.isNull() || close.isNull() || length <= 0) return -2;
+        return session.appendOHLC(doubles(time, length), doubles(open, length), doubles(high, length),
+                doubles(low, length), doubles(close, length), volume.isNull() ? null : doubles(volume, length), length);
+    }
 
-        return -3;
+    /**
+     * Returns the address of a ring column ({@link #COLUMN_X} or {@link #COLUMN_Y}) of a chart
+     * made by {@link #createRingChart}. Row {@code r} goes to element {@code r & (capacity - 1)}
+     * as a native-order double; publish with {@link #ringPublish}.
+     *
+     * @return column address, or {@code 0} if the chart is unknown or has no ring
+     * @since 2.1.0
+     */
+    @CEntryPoint(name = "arber_ring_column")
+    public static long ringColumn(IsolateThread thread, long handle, int column) {
+        NativeChartSession session = CHARTS.get(handle);
+        if (session == null || (column != COLUMN_X && column != COLUMN_Y)) return 0L;
+        MemorySegment segment = session.ringColumn(column == COLUMN_X
+                ? OffHeapRingChartModel.Column.X : OffHeapRingChartModel.Column.Y);
+        return segment != null ? segment.address() : 0L;
+    }
+
+    /**
+     * Publishes ring rows: {@code rowsWritten} is the total number written since creation.
+     *
+     * @return {@code 0}, or a negative error code ({@code -2}: count went backwards,
+     * {@code -3}: not a ring chart)
+     * @since 2.1.0
+     */
+    @CEntryPoint(name = "arber_ring_publish")
+    public static int ringPublish(IsolateThread thread, long handle, long rowsWritten) {
+        NativeChartSession session = CHARTS.get(handle);
+        if (session == null) return -1;
+        return session.publish(rowsWritten);
     }
 
     @CEntryPoint(name = "arber_render")
     public static int render(IsolateThread thread, long chartHandle, long canvasHandle) {
-        ChartSession session = CHARTS.get(chartHandle);
+        NativeChartSession session = CHARTS.get(chartHandle);
         if (session == null) return -1;
         ArberCanvas canvas = CANVASES.get(canvasHandle);
         if (canvas == null) return -2;
         try {
-            ArberRect bounds = session.bounds != null ? session.bounds : new ArberRect(0, 0, 0, 0);
-            DefaultPlotContext context = new DefaultPlotContext(
-                    bounds,
-                    session.model,
-                    Double.NaN,
-                    Double.NaN,
-                    Double.NaN,
-                    Double.NaN,
-                    session.theme,
-                    session.hints
-            );
-            session.renderer.render(canvas, session.model, context);
+            session.render(canvas);
             return 0;
         } catch (Exception e) {
             return -3;
@@ -124,7 +172,7 @@ public final class ArberNativeExport {
 
     @CEntryPoint(name = "arber_render_to_buffer")
     public static int renderToBuffer(IsolateThread thread, long chartHandle, CCharPointer buffer, int capacity) {
-        ChartSession session = CHARTS.get(chartHandle);
+        NativeChartSession session = CHARTS.get(chartHandle);
         if (session == null) return -1;
         if (buffer.isNull() || capacity <= 8) return -2;
 
@@ -135,18 +183,7 @@ public final class ArberNativeExport {
 
         CommandStreamCanvas canvas = new CommandStreamCanvas(writer);
         try {
-            ArberRect bounds = session.bounds != null ? session.bounds : new ArberRect(0, 0, 0, 0);
-            DefaultPlotContext context = new DefaultPlotContext(
-                    bounds,
-                    session.model,
-                    Double.NaN,
-                    Double.NaN,
-                    Double.NaN,
-                    Double.NaN,
-                    session.theme,
-                    session.hints
-            );
-            session.renderer.render(canvas, session.model, context);
+            session.render(canvas);
         } catch (Exception e) {
             return -3;
         }
@@ -156,6 +193,51 @@ public final class ArberNativeExport {
         return byteCount;
     }
 
+    /**
+     * Encodes one frame of the chart as a version-2 command stream (see
+     * {@link DeltaCommandStreamCanvas}) into a session-owned growable buffer.
+     *
+     * <p>The frame is read with {@link #readFrame} in chunks of any size. The chart renders as
+     * layer 0, quantized relative to the viewport origin.</p>
+     *
+     * @param flags {@link #STREAM_KEYFRAME} and/or {@link #STREAM_DIFF}
+     * @return total frame size in bytes, or a negative error code
+     * @since 2.1.0
+     */
+    @CEntryPoint(name = "arber_encode_frame")
+    public static int encodeFrame(IsolateThread thread, long chartHandle, int flags) {
+        NativeChartSession session = CHARTS.get(chartHandle);
+        if (session == null) return -1;
+        return session.encodeFrame((flags & STREAM_KEYFRAME) != 0, (flags & STREAM_DIFF) != 0);
+    }
+
+    /**
+     * Copies the next chunk of the frame produced by {@link #encodeFrame} into {@code buffer}.
+     *
+     * @return bytes copied, {@code 0} once the frame is drained, or a negative error code
+     * @since 2.1.0
+     */
+    @CEntryPoint(name = "arber_read_frame")
+    public static int readFrame(IsolateThread thread, long chartHandle, CCharPointer buffer, int capacity) {
+        NativeChartSession session = CHARTS.get(chartHandle);
+        if (session == null) return -1;
+        if (buffer.isNull() || capacity <= 0) return -2;
+        return session.readFrame(MemorySegment.ofAddress(buffer.rawValue()).reinterpret(capacity));
+    }
+
+    private static long register(NativeChartSession session) {
+        long id = NEXT_ID.getAndIncrement();
+        CHARTS.put(id, session);
+        return id;
+    }
+
+    /**
+     * Views {@code length} native doubles without copying.
+     */
+    private static MemorySegment doubles(CDoublePointer pointer, int length) {
+        return MemorySegment.ofAddress(pointer.rawValue()).reinterpret((long) length * Double.BYTES);
+    }
+
     /**
      * Registers a canvas handle for native rendering.
      * This is intended for bridge-side Java code, not C callers.
@@ -168,29 +250,6 @@ public final class ArberNativeExport {
         }
     }
 
-    private static final class ChartSession {
-        final ChartModel model;
-        final ChartRenderer renderer;
-        final ChartTheme theme;
-        final ChartRenderHints hints;
-        ArberRect bounds;
-
-        private ChartSession(ChartModel model, ChartRenderer renderer, ChartTheme theme, ChartRenderHints hints) {
-            this.model = model;
-            this.renderer = renderer;
-            this.theme = theme;
-            this.hints = hints;
-        }
-
-        static ChartSession line() {
-            return new ChartSession(new DefaultChartModel("Series"), new LineRenderer(), ChartThemes.getDarkTheme(), null);
-        }
-
-        static ChartSession financial() {
-            return new ChartSession(new DefaultFinancialChartModel("Financial"), new CandlestickRenderer(), ChartThemes.getDarkTheme(), null);
-        }
-    }
-
     private static final class PointerWriter implements CommandStreamWriter {
         private final CCharPointer buffer;
         private final int capacity;
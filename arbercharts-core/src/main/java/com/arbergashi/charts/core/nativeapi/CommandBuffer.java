@@ -0,0 +1,137 @@
+package com.arbergashi.charts.core.nativeapi;
+
+import java.util.Arrays;
+
+/**
+ * Growable little-endian {@link CommandStreamWriter} backed by a heap array.
+ *
+ * <p>Writes never fail; the array doubles when full and is kept on {@link #reset()}, so a
+ * session that encodes one frame after another stops allocating once the largest frame fits.
+ * Callers hand the result to fixed-size native buffers in chunks via {@link #copy}.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+final class CommandBuffer implements CommandStreamWriter {
+    private byte[] data;
+    private int pos;
+
+    CommandBuffer(int initialCapacity) {
+        this.data = new byte[Math.max(16, initialCapacity)];
+    }
+
+    void reset() {
+        pos = 0;
+    }
+
+    /**
+     * Discards everything written after {@code position}.
+     */
+    void truncate(int position) {
+        if (position < 0 || position > pos) throw new IllegalArgumentException("position: " + position);
+        pos = position;
+    }
+
+    byte[] array() {
+        return data;
+    }
+
+    int capacity() {
+        return data.length;
+    }
+
+    @Override
+    public boolean putByte(int value) {
+        ensure(1);
+        data[pos++] = (byte) value;
+        return true;
+    }
+
+    @Override
+    public void putInt(int value) {
+        ensure(4);
+        data[pos++] = (byte) value;
+        data[pos++] = (byte) (value >>> 8);
+        data[pos++] = (byte) (value >>> 16);
+        data[pos++] = (byte) (value >>> 24);
+    }
+
+    @Override
+    public void putFloat(float value) {
+        putInt(Float.floatToIntBits(value));
+    }
+
+    @Override
+    public void putShort(short value) {
+        ensure(2);
+        data[pos++] = (byte) value;
+        data[pos++] = (byte) (value >>> 8);
+    }
+
+    @Override
+    public void putBytes(byte[] bytes, int length) {
+        if (bytes == null || length <= 0) return;
+        int n = Math.min(length, bytes.length);
+        ensure(n);
+        System.arraycopy(bytes, 0, data, pos, n);
+        pos += n;
+    }
+
+    @Override
+    public void putIntAt(int offset, int value) {
+        if (offset < 0 || offset + 4 > pos) throw new IndexOutOfBoundsException("offset: " + offset);
+        data[offset] = (byte) value;
+        data[offset + 1] = (byte) (value >>> 8);
+        data[offset + 2] = (byte) (value >>> 16);
+        data[offset + 3] = (byte) (value >>> 24);
+    }
+
+    @Override
+    public int position() {
+        return pos;
+    }
+
+    /**
+     * Writes an unsigned LEB128 varint (1-5 bytes).
+     */
+    void putVarint(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            data[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[pos++] = (byte) value;
+    }
+
+    /**
+     * Writes a signed value as a zig-zag varint, so small magnitudes of either sign stay short.
+     */
+    void putZigZag(int value) {
+        putVarint((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Copies up to {@code length} bytes starting at {@code from} into {@code dst}.
+     *
+     * @return number of bytes copied
+     */
+    int copy(int from, byte[] dst, int dstOffset, int length) {
+        int n = Math.max(0, Math.min(length, pos - from));
+        if (n > 0) System.arraycopy(data, from, dst, dstOffset, n);
+        return n;
+    }
+
+    /**
+     * Returns whether {@code [from, position())} equals {@code other[0, length)}.
+     */
+    boolean tailEquals(int from, byte[] other, int length) {
+        return pos - from == length && Arrays.equals(data, from, pos, other, 0, length);
+    }
+
+    private void ensure(int n) {
+        if (pos + n > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, pos + n));
+        }
+    }
+}
@@ -22,6 +22,8 @@ final class CommandStreamCanvas implements ArberCanvas {
     static final int OP_SET_CLIP = 0x09;
     static final int OP_CLEAR_CLIP = 0x0A;
     static final int OP_DRAW_TEXT = 0x0B;
+    // v1 commands carry no length prefix, so this opcode set is frozen: batched ArberCanvas calls
+    // fall back to the single-shape defaults. DeltaCommandStreamCanvas (v2) encodes batches.
 
     private final CommandStreamWriter writer;
 
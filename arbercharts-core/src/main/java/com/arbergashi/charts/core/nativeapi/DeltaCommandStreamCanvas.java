@@ -0,0 +1,493 @@
+package com.arbergashi.charts.core.nativeapi;
+
+import com.arbergashi.charts.api.types.ArberColor;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.core.rendering.ArberMatrices;
+import com.arbergashi.charts.core.rendering.ArberMatrix;
+import com.arbergashi.charts.core.rendering.MarkerShape;
+import com.arbergashi.charts.core.rendering.VoxelBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Version-2 command stream: a compact, stateful encoding of {@link ArberCanvas} calls for remote
+ * and native front-ends.
+ *
+ * <p>Frame layout (little-endian): {@code u32 version, u32 byteCount, u8 flags, u8 fractionBits,
+ * f32 originX, f32 originY}, followed by commands until {@code byteCount}. Every command starts
+ * with a varint opcode. Encoding rules:</p>
+ * <ul>
+ *   <li>Coordinates are fixed point relative to the viewport origin:
+ *   {@code q = round((v - origin) * 2^fractionBits)}.</li>
+ *   <li>Every point is written as a zig-zag varint delta of {@code qx} and {@code qy} from the
+ *   cursor and then becomes the cursor; polyline vertices therefore cost one or two bytes each.
+ *   Widths and heights are zig-zag varints of their quantized value. The cursor is {@code (0, 0)}
+ *   at frame start and at every layer boundary.</li>
+ *   <li>Colors and strokes are palettes learned on both sides: a literal appends itself to the
+ *   palette while it has room, later uses send the index. Palettes only grow and are cleared by
+ *   keyframes.</li>
+ *   <li>Batched elements carry a color token: {@code 0} repeats the previous element's color,
+ *   {@code 1} is followed by a literal {@code u32} argb, {@code 2 + i} is palette index {@code i}.</li>
+ *   <li>Commands between {@code LAYER_BEGIN id} and {@code LAYER_END} form a layer. With diffing
+ *   enabled, a layer whose bytes equal the previous frame's is replaced by {@code LAYER_REUSE id},
+ *   which replays the cached bytes. Decoders cache every layer body they receive. A layer that
+ *   taught the palette new entries is reused from the frame after next, once its palette
+ *   references are stable.</li>
+ * </ul>
+ *
+ * <p>A keyframe ({@code flags & 1}) resets palettes and layer caches; the first frame and any frame
+ * after {@link #requestKeyframe()} is one. Decoders keep palettes and layer caches between frames,
+ * so a host that drops a frame must request a keyframe. Instances are persistent per session and
+ * not thread-safe.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+final class DeltaCommandStreamCanvas implements ArberCanvas {
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 18;
+    static final int FLAG_KEYFRAME = 1;
+    static final int DEFAULT_FRACTION_BITS = 4;
+    static final int MAX_COLORS = 1024;
+    static final int MAX_STROKES = 64;
+
+    // Opcodes (varint)
+    static final int OP_COLOR = 0x01;            // varint index
+    static final int OP_COLOR_LITERAL = 0x02;    // u32 argb
+    static final int OP_STROKE = 0x03;           // varint index
+    static final int OP_STROKE_LITERAL = 0x04;   // f32 width
+    static final int OP_MOVE_TO = 0x05;          // point
+    static final int OP_LINE_TO = 0x06;          // point
+    static final int OP_POLYLINE = 0x07;         // varint count, points
+    static final int OP_DRAW_RECT = 0x08;        // point, w, h
+    static final int OP_FILL_RECT = 0x09;        // point, w, h
+    static final int OP_FILL_POLYGON = 0x0A;     // varint count, points
+    static final int OP_SET_CLIP = 0x0B;         // point, w, h
+    static final int OP_CLEAR_CLIP = 0x0C;
+    static final int OP_DRAW_TEXT = 0x0D;        // point, varint length, UTF-8 bytes
+    // Batches: varint count, u8 hasColors, then per element [color token] + geometry.
+    static final int OP_FILL_RECTS = 0x0E;       // point, w, h
+    static final int OP_DRAW_SEGMENTS = 0x0F;    // point, point
+    static final int OP_DRAW_MARKERS = 0x10;     // preceded by u8 shape ordinal and f32 size; point
+    static final int OP_FILL_QUADS = 0x11;       // four points
+    static final int OP_LAYER_BEGIN = 0x20;      // varint id
+    static final int OP_LAYER_END = 0x21;
+    static final int OP_LAYER_REUSE = 0x22;      // varint id
+
+    static final int TOKEN_REPEAT = 0;
+    static final int TOKEN_LITERAL = 1;
+    static final int TOKEN_PALETTE = 2;
+
+    private static final int COLOR_SLOTS = MAX_COLORS * 2;
+
+    private final CommandBuffer out;
+    private final int fractionBits;
+    private final float scale;
+    private float originX;
+    private float originY;
+    private boolean diffing;
+    private boolean keyframePending = true;
+
+    private final int[] colorKeys = new int[COLOR_SLOTS];
+    private final int[] colorSlots = new int[COLOR_SLOTS]; // palette index + 1, 0 = empty
+    private int colorCount;
+    private final int[] strokeBits = new int[MAX_STROKES];
+    private int strokeCount;
+
+    private boolean colorKnown;
+    private int currentColor;
+    private boolean strokeKnown;
+    private int currentStroke;
+    private int cursorX;
+    private int cursorY;
+
+    private final Map<Integer, LayerCache> layers = new HashMap<>();
+    private boolean inLayer;
+    private int layerId;
+    private int layerStart;
+    private int bodyStart;
+
+    DeltaCommandStreamCanvas(CommandBuffer out) {
+        this(out, DEFAULT_FRACTION_BITS);
+    }
+
+    /**
+     * @param fractionBits sub-pixel precision, {@code 0..8}; 4 gives 1/16 pixel
+     */
+    DeltaCommandStreamCanvas(CommandBuffer out, int fractionBits) {
+        if (fractionBits < 0 || fractionBits > 8) throw new IllegalArgumentException("fractionBits: " + fractionBits);
+        this.out = out;
+        this.fractionBits = fractionBits;
+        this.scale = 1 << fractionBits;
+    }
+
+    CommandBuffer buffer() {
+        return out;
+    }
+
+    /**
+     * Enables replacing unchanged layers with {@code LAYER_REUSE}.
+     */
+    void setDiffing(boolean diffing) {
+        this.diffing = diffing;
+    }
+
+    /**
+     * Makes the next frame a keyframe.
+     */
+    void requestKeyframe() {
+        keyframePending = true;
+    }
+
+    /**
+     * Resets the buffer and writes a frame header. Layer reuse is disabled for this frame when the
+     * origin moved, since cached bodies are relative to it.
+     */
+    void beginFrame(float originX, float originY, boolean keyframe) {
+        if (inLayer) throw new IllegalStateException("layer " + layerId + " still open");
+        int flags = 0;
+        if (keyframe || keyframePending) {
+            flags |= FLAG_KEYFRAME;
+            keyframePending = false;
+            colorCount = 0;
+            Arrays.fill(colorSlots, 0);
+            strokeCount = 0;
+            layers.clear();
+        } else if (Float.compare(originX, this.originX) != 0 || Float.compare(originY, this.originY) != 0) {
+            for (LayerCache cache : layers.values()) cache.length = -1;
+        }
+        this.originX = originX;
+        this.originY = originY;
+        out.reset();
+        out.putInt(VERSION);
+        out.putInt(0);
+        out.putByte(flags);
+        out.putByte(fractionBits);
+        out.putFloat(originX);
+        out.putFloat(originY);
+        resetState();
+    }
+
+    /**
+     * Patches the byte count into the header.
+     *
+     * @return total frame size in bytes
+     */
+    int endFrame() {
+        if (inLayer) throw new IllegalStateException("layer " + layerId + " still open");
+        int size = out.position();
+        out.putIntAt(4, size);
+        return size;
+    }
+
+    /**
+     * Discards a partially encoded frame. Palettes may have learned entries the decoder never
+     * received, so the next frame is a keyframe.
+     */
+    void abortFrame() {
+        inLayer = false;
+        keyframePending = true;
+        out.reset();
+        resetState();
+    }
+
+    void beginLayer(int id) {
+        if (inLayer) throw new IllegalStateException("layer " + layerId + " still open");
+        inLayer = true;
+        layerId = id;
+        layerStart = out.position();
+        out.putVarint(OP_LAYER_BEGIN);
+        out.putVarint(id);
+        bodyStart = out.position();
+        resetState();
+    }
+
+    void endLayer() {
+        if (!inLayer) throw new IllegalStateException("no open layer");
+        inLayer = false;
+        LayerCache cache = layers.get(layerId);
+        if (cache == null) {
+            cache = new LayerCache();
+            layers.put(layerId, cache);
+        }
+        if (diffing && cache.length >= 0 && out.tailEquals(bodyStart, cache.data, cache.length)) {
+            out.truncate(layerStart);
+            out.putVarint(OP_LAYER_REUSE);
+            out.putVarint(layerId);
+        } else {
+            cache.store(out, bodyStart);
+            out.putVarint(OP_LAYER_END);
+        }
+        resetState();
+    }
+
+    @Override
+    public void setColor(ArberColor color) {
+        if (color == null) return;
+        int argb = color.argb();
+        if (colorKnown && argb == currentColor) return;
+        int index = colorIndex(argb);
+        if (index >= 0) {
+            out.putVarint(OP_COLOR);
+            out.putVarint(index);
+        } else {
+            out.putVarint(OP_COLOR_LITERAL);
+            out.putInt(argb);
+            learnColor(argb);
+        }
+        colorKnown = true;
+        currentColor = argb;
+    }
+
+    @Override
+    public void setStroke(float width) {
+        int bits = Float.floatToIntBits(width);
+        if (strokeKnown && bits == currentStroke) return;
+        int index = -1;
+        for (int i = 0; i < strokeCount; i++) {
+            if (strokeBits[i] == bits) {
+                index = i;
+                break;
+            }
+        }
+        if (index >= 0) {
+            out.putVarint(OP_STROKE);
+            out.putVarint(index);
+        } else {
+            out.putVarint(OP_STROKE_LITERAL);
+            out.putFloat(width);
+            if (strokeCount < MAX_STROKES) strokeBits[strokeCount++] = bits;
+        }
+        strokeKnown = true;
+        currentStroke = bits;
+    }
+
+    @Override
+    public void moveTo(float x, float y) {
+        out.putVarint(OP_MOVE_TO);
+        putPoint(x, y);
+    }
+
+    @Override
+    public void lineTo(float x, float y) {
+        out.putVarint(OP_LINE_TO);
+        putPoint(x, y);
+    }
+
+    @Override
+    public void drawPolyline(float[] xs, float[] ys, int count) {
+        if (xs == null || ys == null || count <= 1) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length));
+        if (n <= 1) return;
+        putPoints(OP_POLYLINE, xs, ys, n);
+    }
+
+    @Override
+    public void drawRect(float x, float y, float w, float h) {
+        out.putVarint(OP_DRAW_RECT);
+        putPoint(x, y);
+        putSize(w);
+        putSize(h);
+    }
+
+    @Override
+    public void fillRect(float x, float y, float w, float h) {
+        out.putVarint(OP_FILL_RECT);
+        putPoint(x, y);
+        putSize(w);
+        putSize(h);
+    }
+
+    @Override
+    public void fillPolygon(float[] xs, float[] ys, int count) {
+        if (xs == null || ys == null || count <= 2) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length));
+        if (n <= 2) return;
+        putPoints(OP_FILL_POLYGON, xs, ys, n);
+    }
+
+    @Override
+    public void drawVoxelField(VoxelBuffer buffer) {
+        // Not encoded (caller may pre-expand into primitives), as in v1.
+    }
+
+    @Override
+    public ArberMatrix getTransform() {
+        return ArberMatrices.identity();
+    }
+
+    @Override
+    public void setClip(ArberRect clip) {
+        if (clip == null) {
+            out.putVarint(OP_CLEAR_CLIP);
+            return;
+        }
+        out.putVarint(OP_SET_CLIP);
+        putPoint((float) clip.x(), (float) clip.y());
+        putSize((float) clip.width());
+        putSize((float) clip.height());
+    }
+
+    @Override
+    public ArberRect getClip() {
+        return null;
+    }
+
+    @Override
+    public void drawText(float x, float y, String text) {
+        if (text == null || text.isEmpty()) return;
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.putVarint(OP_DRAW_TEXT);
+        putPoint(x, y);
+        out.putVarint(bytes.length);
+        out.putBytes(bytes, bytes.length);
+    }
+
+    @Override
+    public void fillRects(float[] x, float[] y, float[] w, float[] h, int[] argb, int count) {
+        if (x == null || y == null || w == null || h == null || count <= 0) return;
+        int n = Math.min(Math.min(count, x.length), Math.min(y.length, Math.min(w.length, h.length)));
+        if (argb != null) n = Math.min(n, argb.length);
+        if (n <= 0) return;
+        putBatchHeader(OP_FILL_RECTS, n, argb);
+        for (int i = 0; i < n; i++) {
+            if (argb != null) putColorToken(argb, i);
+            putPoint(x[i], y[i]);
+            putSize(w[i]);
+            putSize(h[i]);
+        }
+    }
+
+    @Override
+    public void drawSegments(float[] x0, float[] y0, float[] x1, float[] y1, int[] argb, int count) {
+        if (x0 == null || y0 == null || x1 == null || y1 == null || count <= 0) return;
+        int n = Math.min(Math.min(count, x0.length), Math.min(y0.length, Math.min(x1.length, y1.length)));
+        if (argb != null) n = Math.min(n, argb.length);
+        if (n <= 0) return;
+        putBatchHeader(OP_DRAW_SEGMENTS, n, argb);
+        for (int i = 0; i < n; i++) {
+            if (argb != null) putColorToken(argb, i);
+            putPoint(x0[i], y0[i]);
+            putPoint(x1[i], y1[i]);
+        }
+    }
+
+    @Override
+    public void drawMarkers(MarkerShape shape, float[] xs, float[] ys, float size, int[] argb, int count) {
+        if (shape == null || xs == null || ys == null || count <= 0 || !(size > 0f)) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length));
+        if (argb != null) n = Math.min(n, argb.length);
+        if (n <= 0) return;
+        out.putVarint(OP_DRAW_MARKERS);
+        out.putByte(shape.ordinal());
+        out.putFloat(size);
+        putBatchHeader(-1, n, argb);
+        for (int i = 0; i < n; i++) {
+            if (argb != null) putColorToken(argb, i);
+            putPoint(xs[i], ys[i]);
+        }
+    }
+
+    @Override
+    public void fillQuads(float[] xs, float[] ys, int[] argb, int count) {
+        if (xs == null || ys == null || count <= 0) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length) / 4);
+        if (argb != null) n = Math.min(n, argb.length);
+        if (n <= 0) return;
+        putBatchHeader(OP_FILL_QUADS, n, argb);
+        for (int i = 0; i < n; i++) {
+            if (argb != null) putColorToken(argb, i);
+            for (int k = i * 4, end = k + 4; k < end; k++) {
+                putPoint(xs[k], ys[k]);
+            }
+        }
+    }
+
+    private void putPoints(int op, float[] xs, float[] ys, int n) {
+        out.putVarint(op);
+        out.putVarint(n);
+        for (int i = 0; i < n; i++) {
+            putPoint(xs[i], ys[i]);
+        }
+    }
+
+    private void putPoint(float x, float y) {
+        int qx = Math.round((x - originX) * scale);
+        int qy = Math.round((y - originY) * scale);
+        out.putZigZag(qx - cursorX);
+        out.putZigZag(qy - cursorY);
+        cursorX = qx;
+        cursorY = qy;
+    }
+
+    private void putSize(float v) {
+        out.putZigZag(Math.round(v * scale));
+    }
+
+    /** Writes the opcode (unless negative), count and color flag; per-element colors leave the current color unknown. */
+    private void putBatchHeader(int op, int count, int[] argb) {
+        if (op >= 0) out.putVarint(op);
+        out.putVarint(count);
+        out.putByte(argb != null ? 1 : 0);
+        if (argb != null) colorKnown = false;
+    }
+
+    private void putColorToken(int[] argb, int i) {
+        int c = argb[i];
+        if (i > 0 && argb[i - 1] == c) {
+            out.putVarint(TOKEN_REPEAT);
+            return;
+        }
+        int index = colorIndex(c);
+        if (index >= 0) {
+            out.putVarint(TOKEN_PALETTE + index);
+        } else {
+            out.putVarint(TOKEN_LITERAL);
+            out.putInt(c);
+            learnColor(c);
+        }
+    }
+
+    private int colorIndex(int argb) {
+        for (int slot = colorHash(argb); ; slot = (slot + 1) & (COLOR_SLOTS - 1)) {
+            int v = colorSlots[slot];
+            if (v == 0) return -1;
+            if (colorKeys[slot] == argb) return v - 1;
+        }
+    }
+
+    private void learnColor(int argb) {
+        if (colorCount == MAX_COLORS) return;
+        int slot = colorHash(argb);
+        while (colorSlots[slot] != 0) slot = (slot + 1) & (COLOR_SLOTS - 1);
+        colorKeys[slot] = argb;
+        colorSlots[slot] = ++colorCount;
+    }
+
+    private static int colorHash(int argb) {
+        return (argb * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(COLOR_SLOTS));
+    }
+
+    private void resetState() {
+        colorKnown = false;
+        strokeKnown = false;
+        cursorX = 0;
+        cursorY = 0;
+    }
+
+    private static final class LayerCache {
+        byte[] data = new byte[0];
+        int length = -1;
+
+        void store(CommandBuffer src, int from) {
+            int n = src.position() - from;
+            if (data.length < n) data = new byte[Math.max(n, data.length * 2)];
+            length = src.copy(from, data, 0, n);
+        }
+    }
+}
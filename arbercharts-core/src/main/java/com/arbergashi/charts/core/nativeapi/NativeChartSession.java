@@ -0,0 +1,308 @@
+package com.arbergashi.charts.core.nativeapi;
+
+import com.arbergashi.charts.api.ChartRenderHints;
+import com.arbergashi.charts.api.ChartTheme;
+import com.arbergashi.charts.api.ChartThemes;
+import com.arbergashi.charts.api.DefaultPlotContext;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.model.ChartModel;
+import com.arbergashi.charts.model.DefaultChartModel;
+import com.arbergashi.charts.model.DefaultFinancialChartModel;
+import com.arbergashi.charts.model.FinancialChartModel;
+import com.arbergashi.charts.model.OffHeapRingChartModel;
+import com.arbergashi.charts.render.ChartRenderer;
+import com.arbergashi.charts.render.financial.CandlestickRenderer;
+import com.arbergashi.charts.render.standard.LineRenderer;
+import com.arbergashi.charts.util.NiceScale;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Chart state behind one native handle, kept across frames.
+ *
+ * <p>Besides model and renderer, a session caches its plot context and the data range it was
+ * built from. The range is folded in incrementally as rows are appended, so a frame after an
+ * append scans only the new rows and a frame without changes scans nothing; for finite data the
+ * result matches what {@link DefaultPlotContext} computes from scratch. The last row is always rescanned
+ * because bars may be revised in place. Ring models slide, so their range is recomputed from the
+ * model's single-pass {@link ChartModel#getDataRange()}.</p>
+ *
+ * <p>Not thread-safe; native hosts drive one session from one thread at a time.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+final class NativeChartSession implements AutoCloseable {
+    private static final ValueLayout.OfDouble F64 = ValueLayout.JAVA_DOUBLE_UNALIGNED;
+    private static final ArberRect EMPTY_BOUNDS = new ArberRect(0, 0, 0, 0);
+
+    final ChartModel model;
+    final ChartRenderer renderer;
+    final ChartTheme theme;
+    final ChartRenderHints hints;
+    private final boolean financial;
+    ArberRect bounds = EMPTY_BOUNDS;
+
+    private DefaultPlotContext context;
+    private long contextStamp;
+    private ArberRect contextBounds;
+
+    // Extrema of rows [0, settled), excluding the revisable last row.
+    private int settled;
+    private double settledMinX;
+    private double settledMaxX;
+    private double settledMinY;
+    private double settledMaxY;
+
+    private double[][] scratch = new double[0][];
+
+    private DeltaCommandStreamCanvas stream;
+    private int streamSize;
+    private int streamRead;
+
+    private NativeChartSession(ChartModel model, ChartRenderer renderer) {
+        this.model = model;
+        this.renderer = renderer;
+        this.theme = ChartThemes.getDarkTheme();
+        this.hints = null;
+        this.financial = model instanceof FinancialChartModel;
+        resetRange();
+    }
+
+    static NativeChartSession line() {
+        return new NativeChartSession(new DefaultChartModel("Series"), new LineRenderer());
+    }
+
+    static NativeChartSession financial() {
+        return new NativeChartSession(new DefaultFinancialChartModel("Financial"), new CandlestickRenderer());
+    }
+
+    static NativeChartSession ring(int capacity) {
+        return new NativeChartSession(new OffHeapRingChartModel("Series", capacity), new LineRenderer());
+    }
+
+    void setViewport(double x, double y, double w, double h) {
+        bounds = new ArberRect(x, y, w, h);
+    }
+
+    /**
+     * Appends interleaved rows ({@code x, y} or {@code t, o, h, l, c}) as used by
+     * {@code arber_update_data}. Rows are split into reusable scratch columns and handed to the
+     * model's bulk append, so the whole call fires one notification.
+     *
+     * @return {@code 0}, or {@code -3} if the model does not take interleaved rows
+     */
+    int appendInterleaved(MemorySegment data, int length) {
+        int stride = model instanceof DefaultFinancialChartModel ? 5 : model instanceof DefaultChartModel ? 2 : 0;
+        if (stride == 0) return -3;
+        int rows = length / stride;
+        if (rows <= 0) return 0;
+        double[][] cols = scratch(stride, rows);
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = 0; c < stride; c++, i++) {
+                cols[c][r] = data.getAtIndex(F64, i);
+            }
+        }
+        if (stride == 5) {
+            ((DefaultFinancialChartModel) model).appendOHLC(MemorySegment.ofArray(cols[0]), MemorySegment.ofArray(cols[1]),
+                    MemorySegment.ofArray(cols[2]), MemorySegment.ofArray(cols[3]), MemorySegment.ofArray(cols[4]), null, rows);
+        } else {
+            ((DefaultChartModel) model).appendPoints(cols[0], cols[1], null, null, null, null, null, null, null, 0, rows);
+        }
+        return 0;
+    }
+
+    /**
+     * @return {@code 0}, or {@code -3} if this is not an XY session
+     */
+    int appendXY(MemorySegment xs, MemorySegment ys, int length) {
+        if (!(model instanceof DefaultChartModel xy)) return -3;
+        xy.appendPoints(xs, ys, length);
+        return 0;
+    }
+
+    /**
+     * @return {@code 0}, or {@code -3} if this is not a financial session
+     */
+    int appendOHLC(MemorySegment time, MemorySegment open, MemorySegment high, MemorySegment low,
+                   MemorySegment close, MemorySegment volume, int length) {
+        if (!(model instanceof DefaultFinancialChartModel fin)) return -3;
+        fin.appendOHLC(time, open, high, low, close, volume, length);
+        return 0;
+    }
+
+    /**
+     * Returns a ring column for direct writes, or {@code null} if this is not a ring session.
+     */
+    MemorySegment ringColumn(OffHeapRingChartModel.Column column) {
+        return model instanceof OffHeapRingChartModel ring ? ring.column(column) : null;
+    }
+
+    /**
+     * @return {@code 0}, {@code -3} if this is not a ring session, {@code -2} if rows went backwards
+     */
+    int publish(long rowsWritten) {
+        if (!(model instanceof OffHeapRingChartModel ring)) return -3;
+        if (rowsWritten < ring.getPublishedRows()) return -2;
+        ring.publish(rowsWritten);
+        return 0;
+    }
+
+    void render(ArberCanvas canvas) {
+        if (!(model instanceof OffHeapRingChartModel ring)) {
+            renderer.render(canvas, model, context());
+            return;
+        }
+        // One published row count for the range and every read of this frame.
+        ring.beginFrame();
+        try {
+            renderer.render(canvas, model, context());
+        } finally {
+            ring.endFrame();
+        }
+    }
+
+    /**
+     * Returns the cached plot context, refreshed if the model or viewport changed.
+     */
+    DefaultPlotContext context() {
+        long stamp = model.getUpdateStamp();
+        if (context != null && stamp == contextStamp && bounds == contextBounds) return context;
+        double minX, maxX, minY, maxY;
+        if (model instanceof OffHeapRingChartModel) {
+            double[] range = model.getDataRange();
+            minX = range[0];
+            maxX = range[1];
+            minY = range[2] > 0 ? 0.0 : range[2];
+            maxY = range[3] * 1.1;
+        } else {
+            int count = model.getPointCount();
+            if (count < settled) resetRange();
+            for (; settled < count - 1; settled++) {
+                fold(settled);
+            }
+            double lastX = count > 0 ? model.getX(count - 1) : Double.NaN;
+            double lastMin = count > 0 ? model.getMin(count - 1) : Double.NaN;
+            double lastMax = count > 0 ? model.getMax(count - 1) : Double.NaN;
+            minX = minFolded(settledMinX, lastX);
+            maxX = maxFolded(settledMaxX, lastX);
+            minY = minFolded(settledMinY, lastMin);
+            maxY = maxFolded(settledMaxY, lastMax);
+            if (count == 0 || minX == Double.MAX_VALUE || minY == Double.MAX_VALUE) {
+                // Empty or non-finite data: defer to the reference computation.
+                DefaultPlotContext fresh = new DefaultPlotContext(bounds, model, Double.NaN, Double.NaN,
+                        Double.NaN, Double.NaN, theme, hints);
+                minX = fresh.getMinX();
+                maxX = fresh.getMaxX();
+                minY = fresh.getMinY();
+                maxY = fresh.getMaxY();
+            } else if (financial) {
+                double pad = Math.max(1e-9, maxY - minY) * 0.05;
+                minY -= pad;
+                maxY += pad;
+            } else {
+                minY = minY > 0 ? 0.0 : minY;
+                maxY = maxY * 1.1;
+            }
+        }
+        if (context == null) {
+            context = new DefaultPlotContext(bounds, minX, maxX, minY, maxY, false, false, false,
+                    NiceScale.ScaleMode.LINEAR, NiceScale.ScaleMode.LINEAR, theme, hints, null, null);
+        } else {
+            context.setPlotBounds(bounds).setMinX(minX).setMaxX(maxX).setMinY(minY).setMaxY(maxY);
+        }
+        contextStamp = stamp;
+        contextBounds = bounds;
+        return context;
+    }
+
+    DeltaCommandStreamCanvas stream() {
+        if (stream == null) stream = new DeltaCommandStreamCanvas(new CommandBuffer(64 * 1024));
+        return stream;
+    }
+
+    /**
+     * Encodes one frame as layer 0 of a version-2 stream; see {@code arber_encode_frame}.
+     *
+     * @return frame size in bytes, or {@code -3} if rendering failed
+     */
+    int encodeFrame(boolean keyframe, boolean diff) {
+        DeltaCommandStreamCanvas canvas = stream();
+        streamRead = 0;
+        try {
+            canvas.setDiffing(diff);
+            canvas.beginFrame((float) bounds.x(), (float) bounds.y(), keyframe);
+            canvas.beginLayer(0);
+            render(canvas);
+            canvas.endLayer();
+            streamSize = canvas.endFrame();
+            return streamSize;
+        } catch (Exception e) {
+            canvas.abortFrame();
+            streamSize = 0;
+            return -3;
+        }
+    }
+
+    /**
+     * Copies the next chunk of the encoded frame into {@code dst} in one bulk copy.
+     *
+     * @return bytes copied, {@code 0} once drained
+     */
+    int readFrame(MemorySegment dst) {
+        if (stream == null) return 0;
+        int n = (int) Math.min(dst.byteSize(), streamSize - streamRead);
+        if (n <= 0) return 0;
+        MemorySegment.copy(MemorySegment.ofArray(stream.buffer().array()), streamRead, dst, 0L, n);
+        streamRead += n;
+        return n;
+    }
+
+    @Override
+    public void close() {
+        if (model instanceof OffHeapRingChartModel ring) ring.close();
+    }
+
+    private void fold(int i) {
+        double x = model.getX(i);
+        double lo = model.getMin(i);
+        double hi = model.getMax(i);
+        if (!financial || Double.isFinite(x)) {
+            if (x < settledMinX) settledMinX = x;
+            if (x > settledMaxX) settledMaxX = x;
+        }
+        if (!financial || Double.isFinite(lo)) {
+            if (lo < settledMinY) settledMinY = lo;
+        }
+        if (!financial || Double.isFinite(hi)) {
+            if (hi > settledMaxY) settledMaxY = hi;
+        }
+    }
+
+    private double minFolded(double folded, double last) {
+        return (financial ? Double.isFinite(last) : !Double.isNaN(last)) && last < folded ? last : folded;
+    }
+
+    private double maxFolded(double folded, double last) {
+        return (financial ? Double.isFinite(last) : !Double.isNaN(last)) && last > folded ? last : folded;
+    }
+
+    private void resetRange() {
+        settled = 0;
+        settledMinX = Double.MAX_VALUE;
+        settledMaxX = -Double.MAX_VALUE;
+        settledMinY = Double.MAX_VALUE;
+        settledMaxY = -Double.MAX_VALUE;
+    }
+
+    private double[][] scratch(int columns, int rows) {
+        if (scratch.length < columns) scratch = new double[columns][0];
+        for (int c = 0; c < columns; c++) {
+            if (scratch[c].length < rows) scratch[c] = new double[Math.max(rows, scratch[c].length * 2)];
+        }
+        return scratch;
+    }
+}
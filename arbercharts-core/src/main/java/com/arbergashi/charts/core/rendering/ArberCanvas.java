@@ -2,6 +2,7 @@ package com.arbergashi.charts.core.rendering;
 
 import com.arbergashi.charts.api.types.ArberColor;
 import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.util.ColorRegistry;
 
 /**
  * Core rendering abstraction. No UI framework dependencies.
@@ -52,6 +53,82 @@ public interface ArberCanvas {
         lineTo(x2, y2);
     }
 
+    /**
+     * Draws a {@link RasterBuffer} with its top-left corner at {@code (x, y)}; transparent pixels
+     * are skipped.
+     *
+     * <p>The default implementation emits one {@code fillRect} per run of equal pixels in a row,
+     * which is correct on every backend but slow; pixel-based bridges should override it with a
+     * blit.</p>
+     *
+     * @since 2.1.0
+     */
+    default void drawRaster(RasterBuffer raster, float x, float y) {
+        if (raster == null) return;
+        int w = raster.getWidth();
+        int h = raster.getHeight();
+        int[] px = raster.getPixels();
+        for (int row = 0; row < h; row++) {
+            int base = row * w;
+            int run = 0;
+            for (int col = 1; col <= w; col++) {
+                if (col < w && px[base + col] == px[base + run]) continue;
+                int argb = px[base + run];
+                if ((argb >>> 24) != 0) {
+                    setColor(ColorRegistry.ofArgb(argb));
+                    fillRect(x + run, y + row, col - run, 1f);
+                }
+                run = col;
+            }
+        }
+    }
+
+    /*
+     * Batched primitives. Each draws count elements from parallel arrays in one call. When argb
+     * is non-null, element i uses color argb[i] and the current color is unspecified afterwards;
+     * when null, all elements use the current color. Counts are clamped to the array lengths.
+     * Defaults fall back to the single-shape calls and only switch colors on change; backends
+     * should override them to amortize per-call state validation or encoding.
+     */
+
+    /**
+     * Fills {@code count} axis-aligned rectangles {@code (x[i], y[i], w[i], h[i])}.
+     *
+     * @since 2.1.0
+     */
+    default void fillRects(float[] x, float[] y, float[] w, float[] h, int[] argb, int count) {
+        CanvasBatchSupport.fillRects(this, x, y, w, h, argb, count);
+    }
+
+    /**
+     * Strokes {@code count} independent line segments from {@code (x0[i], y0[i])} to
+     * {@code (x1[i], y1[i])} with the current stroke width.
+     *
+     * @since 2.1.0
+     */
+    default void drawSegments(float[] x0, float[] y0, float[] x1, float[] y1, int[] argb, int count) {
+        CanvasBatchSupport.drawSegments(this, x0, y0, x1, y1, argb, count);
+    }
+
+    /**
+     * Draws {@code count} markers of one shape and size centered on {@code (xs[i], ys[i])}.
+     *
+     * @since 2.1.0
+     */
+    default void drawMarkers(MarkerShape shape, float[] xs, float[] ys, float size, int[] argb, int count) {
+        CanvasBatchSupport.drawMarkers(this, shape, xs, ys, size, argb, count);
+    }
+
+    /**
+     * Fills {@code count} quadrilaterals; quad {@code i} has its vertices at indices
+     * {@code 4i .. 4i+3} of {@code xs}/{@code ys}.
+     *
+     * @since 2.1.0
+     */
+    default void fillQuads(float[] xs, float[] ys, int[] argb, int count) {
+        CanvasBatchSupport.fillQuads(this, xs, ys, argb, count);
+    }
+
     default void drawRect(ArberRect rect) {
         if (rect == null) return;
         drawRect((float) rect.x(), (float) rect.y(), (float) rect.width(), (float) rect.height());
@@ -0,0 +1,98 @@
+package com.arbergashi.charts.core.rendering;
+
+import com.arbergashi.charts.util.ColorRegistry;
+
+/**
+ * Portable implementations of the batched {@link ArberCanvas} primitives in terms of the
+ * single-shape calls. Color changes are only issued when the color actually changes.
+ */
+final class CanvasBatchSupport {
+    private static final ThreadLocal<float[][]> SCRATCH =
+            ThreadLocal.withInitial(() -> new float[2][MarkerShape.MAX_OUTLINE_VERTICES]);
+
+    private CanvasBatchSupport() {
+    }
+
+    static void fillRects(ArberCanvas canvas, float[] x, float[] y, float[] w, float[] h, int[] argb, int count) {
+        int n = count(count, x, y, w, h, argb);
+        int last = 0;
+        for (int i = 0; i < n; i++) {
+            if (argb != null && (i == 0 || argb[i] != last)) {
+                last = argb[i];
+                canvas.setColor(ColorRegistry.ofArgb(last));
+            }
+            canvas.fillRect(x[i], y[i], w[i], h[i]);
+        }
+    }
+
+    static void drawSegments(ArberCanvas canvas, float[] x0, float[] y0, float[] x1, float[] y1, int[] argb, int count) {
+        int n = count(count, x0, y0, x1, y1, argb);
+        int last = 0;
+        for (int i = 0; i < n; i++) {
+            if (argb != null && (i == 0 || argb[i] != last)) {
+                last = argb[i];
+                canvas.setColor(ColorRegistry.ofArgb(last));
+            }
+            canvas.moveTo(x0[i], y0[i]);
+            canvas.lineTo(x1[i], y1[i]);
+        }
+    }
+
+    static void fillQuads(ArberCanvas canvas, float[] xs, float[] ys, int[] argb, int count) {
+        if (xs == null || ys == null || count <= 0) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length) / 4);
+        if (argb != null) n = Math.min(n, argb.length);
+        float[][] scratch = SCRATCH.get();
+        float[] qx = scratch[0];
+        float[] qy = scratch[1];
+        int last = 0;
+        for (int i = 0; i < n; i++) {
+            if (argb != null && (i == 0 || argb[i] != last)) {
+                last = argb[i];
+                canvas.setColor(ColorRegistry.ofArgb(last));
+            }
+            int base = i * 4;
+            System.arraycopy(xs, base, qx, 0, 4);
+            System.arraycopy(ys, base, qy, 0, 4);
+            canvas.fillPolygon(qx, qy, 4);
+        }
+    }
+
+    static void drawMarkers(ArberCanvas canvas, MarkerShape shape, float[] xs, float[] ys, float size,
+                            int[] argb, int count) {
+        if (shape == null || xs == null || ys == null || count <= 0 || !(size > 0f)) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length));
+        if (argb != null) n = Math.min(n, argb.length);
+        float r = size * 0.5f;
+        float[][] scratch = SCRATCH.get();
+        float[] px = scratch[0];
+        float[] py = scratch[1];
+        int last = 0;
+        for (int i = 0; i < n; i++) {
+            if (argb != null && (i == 0 || argb[i] != last)) {
+                last = argb[i];
+                canvas.setColor(ColorRegistry.ofArgb(last));
+            }
+            float cx = xs[i];
+            float cy = ys[i];
+            switch (shape) {
+                case SQUARE -> canvas.fillRect(cx - r, cy - r, size, size);
+                case CROSS -> {
+                    canvas.drawLine(cx - r, cy - r, cx + r, cy + r);
+                    canvas.drawLine(cx - r, cy + r, cx + r, cy - r);
+                }
+                case PLUS -> {
+                    canvas.drawLine(cx - r, cy, cx + r, cy);
+                    canvas.drawLine(cx, cy - r, cx, cy + r);
+                }
+                default -> canvas.fillPolygon(px, py, shape.outline(cx, cy, r, px, py));
+            }
+        }
+    }
+
+    private static int count(int count, float[] a, float[] b, float[] c, float[] d, int[] argb) {
+        if (a == null || b == null || c == null || d == null || count <= 0) return 0;
+        int n = Math.min(Math.min(count, a.length), Math.min(Math.min(b.length, c.length), d.length));
+        return argb != null ? Math.min(n, argb.length) : n;
+    }
+}
@@ -0,0 +1,88 @@
+package com.arbergashi.charts.core.rendering;
+
+/**
+ * Marker symbols for {@link ArberCanvas#drawMarkers}.
+ *
+ * <p>Markers are centered on their anchor point; {@code size} is the diameter or edge length in
+ * pixels. {@link #CROSS} and {@link #PLUS} are stroked with the current stroke width, all other
+ * shapes are filled.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public enum MarkerShape {
+    CIRCLE,
+    SQUARE,
+    DIAMOND,
+    TRIANGLE_UP,
+    TRIANGLE_DOWN,
+    CROSS,
+    PLUS;
+
+    /** Largest vertex count written by {@link #outline}; circles are 12-gons. */
+    public static final int MAX_OUTLINE_VERTICES = 12;
+    private static final float[] UNIT_COS = new float[MAX_OUTLINE_VERTICES];
+    private static final float[] UNIT_SIN = new float[MAX_OUTLINE_VERTICES];
+
+    static {
+        for (int i = 0; i < MAX_OUTLINE_VERTICES; i++) {
+            double a = 2.0 * Math.PI * i / MAX_OUTLINE_VERTICES;
+            UNIT_COS[i] = (float) Math.cos(a);
+            UNIT_SIN[i] = (float) Math.sin(a);
+        }
+    }
+
+    /**
+     * Returns whether the shape is drawn with lines rather than filled.
+     */
+    public boolean isStroked() {
+        return this == CROSS || this == PLUS;
+    }
+
+    /**
+     * Writes the polygon outline of a filled marker centered at {@code (cx, cy)} with half-size
+     * {@code r} into {@code px}/{@code py} and returns its vertex count, or {@code 0} for
+     * stroked shapes. Both arrays need room for {@link #MAX_OUTLINE_VERTICES} entries.
+     */
+    public int outline(float cx, float cy, float r, float[] px, float[] py) {
+        switch (this) {
+            case CIRCLE -> {
+                for (int k = 0; k < MAX_OUTLINE_VERTICES; k++) {
+                    px[k] = cx + r * UNIT_COS[k];
+                    py[k] = cy + r * UNIT_SIN[k];
+                }
+                return MAX_OUTLINE_VERTICES;
+            }
+            case SQUARE -> {
+                px[0] = cx - r; py[0] = cy - r;
+                px[1] = cx + r; py[1] = cy - r;
+                px[2] = cx + r; py[2] = cy + r;
+                px[3] = cx - r; py[3] = cy + r;
+                return 4;
+            }
+            case DIAMOND -> {
+                px[0] = cx;     py[0] = cy - r;
+                px[1] = cx + r; py[1] = cy;
+                px[2] = cx;     py[2] = cy + r;
+                px[3] = cx - r; py[3] = cy;
+                return 4;
+            }
+            case TRIANGLE_UP -> {
+                px[0] = cx;     py[0] = cy - r;
+                px[1] = cx + r; py[1] = cy + r;
+                px[2] = cx - r; py[2] = cy + r;
+                return 3;
+            }
+            case TRIANGLE_DOWN -> {
+                px[0] = cx - r; py[0] = cy - r;
+                px[1] = cx + r; py[1] = cy - r;
+                px[2] = cx;     py[2] = cy + r;
+                return 3;
+            }
+            default -> {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.arbergashi.charts.core.rendering;
+
+import com.arbergashi.charts.api.types.ArberColor;
+
+import java.util.Arrays;
+
+/**
+ * Reusable, growable collector for the batched {@link ArberCanvas} primitives.
+ *
+ * <p>Renderers keep one batch per primitive kind as a field, {@link #clear()} it at the start of
+ * a frame, add elements while walking the data and submit them with a single canvas call. Arrays
+ * grow geometrically and are kept between frames, so steady-state rendering does not allocate.
+ * Not thread-safe.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class PrimitiveBatch {
+    private float[] c0 = new float[64];
+    private float[] c1 = new float[64];
+    private float[] c2 = new float[64];
+    private float[] c3 = new float[64];
+    private float[] qx = new float[0];
+    private float[] qy = new float[0];
+    private int[] argb = new int[64];
+    private int count;
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** Adds a rectangle for {@link #fillRects}. */
+    public void addRect(float x, float y, float w, float h, ArberColor color) {
+        add(x, y, w, h, color.argb());
+    }
+
+    /** Adds a segment for {@link #drawSegments}. */
+    public void addSegment(float x0, float y0, float x1, float y1, ArberColor color) {
+        add(x0, y0, x1, y1, color.argb());
+    }
+
+    /** Adds the four edges of a rectangle outline for {@link #drawSegments}. */
+    public void addRectOutline(float x, float y, float w, float h, ArberColor color) {
+        int c = color.argb();
+        float x1 = x + w;
+        float y1 = y + h;
+        add(x, y, x1, y, c);
+        add(x1, y, x1, y1, c);
+        add(x1, y1, x, y1, c);
+        add(x, y1, x, y, c);
+    }
+
+    /** Adds a marker anchor for {@link #drawMarkers}. */
+    public void addPoint(float x, float y, ArberColor color) {
+        add(x, y, 0f, 0f, color.argb());
+    }
+
+    /** Adds a quadrilateral for {@link #fillQuads}. */
+    public void addQuad(float x0, float y0, float x1, float y1, float x2, float y2, float x3, float y3,
+                        ArberColor color) {
+        int k = count * 4;
+        if (qx.length < k + 4) {
+            int len = Math.max(64, (k + 4) * 2);
+            qx = Arrays.copyOf(qx, len);
+            qy = Arrays.copyOf(qy, len);
+        }
+        qx[k] = x0; qy[k] = y0;
+        qx[k + 1] = x1; qy[k + 1] = y1;
+        qx[k + 2] = x2; qy[k + 2] = y2;
+        qx[k + 3] = x3; qy[k + 3] = y3;
+        add(0f, 0f, 0f, 0f, color.argb());
+    }
+
+    public void fillRects(ArberCanvas canvas) {
+        if (count > 0) canvas.fillRects(c0, c1, c2, c3, argb, count);
+    }
+
+    public void drawSegments(ArberCanvas canvas) {
+        if (count > 0) canvas.drawSegments(c0, c1, c2, c3, argb, count);
+    }
+
+    public void drawMarkers(ArberCanvas canvas, MarkerShape shape, float size) {
+        if (count > 0) canvas.drawMarkers(shape, c0, c1, size, argb, count);
+    }
+
+    public void fillQuads(ArberCanvas canvas) {
+        if (count > 0) canvas.fillQuads(qx, qy, argb, count);
+    }
+
+    private void add(float a, float b, float c, float d, int color) {
+        if (count == argb.length) {
+            int len = count * 2;
+            c0 = Arrays.copyOf(c0, len);
+            c1 = Arrays.copyOf(c1, len);
+            c2 = Arrays.copyOf(c2, len);
+            c3 = Arrays.copyOf(c3, len);
+            argb = Arrays.copyOf(argb, len);
+        }
+        c0[count] = a;
+        c1[count] = b;
+        c2[count] = c;
+        c3[count] = d;
+        argb[count] = color;
+        count++;
+    }
+}
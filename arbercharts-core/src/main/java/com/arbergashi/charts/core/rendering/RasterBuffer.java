@@ -0,0 +1,125 @@
+package com.arbergashi.charts.core.rendering;
+
+import java.util.Arrays;
+
+/**
+ * Persistent ARGB pixel layer owned by a renderer and blitted with
+ * {@link ArberCanvas#drawRaster(RasterBuffer, float, float)}.
+ *
+ * <p>Lets renderers with mostly static output (sweep monitors, accumulating plots) update only the
+ * pixels that changed instead of re-stroking everything every frame. Pixels are straight
+ * (non-premultiplied) ARGB; {@code 0} is transparent. Drawing overwrites, so repainting the same
+ * geometry in the same color is idempotent.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class RasterBuffer {
+    private int width;
+    private int height;
+    private int[] pixels = new int[0];
+    private long revision;
+
+    /**
+     * Resizes the buffer; on any size change the content is cleared.
+     *
+     * @return {@code true} if the size changed
+     */
+    public boolean resize(int width, int height) {
+        width = Math.max(0, width);
+        height = Math.max(0, height);
+        if (width == this.width && height == this.height) return false;
+        this.width = width;
+        this.height = height;
+        int len = width * height;
+        if (pixels.length < len || pixels.length > 2 * len) pixels = new int[len];
+        else Arrays.fill(pixels, 0, len, 0);
+        revision++;
+        return true;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Backing array, row-major with stride {@link #getWidth()}; may be longer than
+     * {@code width * height}.
+     */
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    /**
+     * Incremented on every modification, so bridges can tell whether an uploaded copy is stale.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    public void clear() {
+        Arrays.fill(pixels, 0, width * height, 0);
+        revision++;
+    }
+
+    /**
+     * Clears the columns {@code [x0, x1]} (inclusive, clamped) over the full height.
+     */
+    public void clearColumns(int x0, int x1) {
+        x0 = Math.max(0, x0);
+        x1 = Math.min(width - 1, x1);
+        if (x0 > x1) return;
+        for (int y = 0, row = 0; y < height; y++, row += width) {
+            Arrays.fill(pixels, row + x0, row + x1 + 1, 0);
+        }
+        revision++;
+    }
+
+    /**
+     * Draws a line {@code lineWidth} pixels thick (measured along the minor axis), clipped to the
+     * buffer.
+     */
+    public void drawLine(float x0, float y0, float x1, float y1, int argb, float lineWidth) {
+        if (!Float.isFinite(x0) || !Float.isFinite(y0) || !Float.isFinite(x1) || !Float.isFinite(y1)) return;
+        int w = Math.max(1, Math.round(lineWidth));
+        int before = (w - 1) / 2;
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        if (Math.abs(dx) >= Math.abs(dy)) {
+            if (x0 > x1) {
+                float t = x0; x0 = x1; x1 = t;
+                t = y0; y0 = y1; y1 = t;
+            }
+            float slope = dx == 0f ? 0f : (y1 - y0) / (x1 - x0);
+            int xs = Math.max(0, Math.round(x0));
+            int xe = Math.min(width - 1, Math.round(x1));
+            for (int x = xs; x <= xe; x++) {
+                int yc = Math.round(y0 + (x - x0) * slope) - before;
+                int ys = Math.max(0, yc);
+                int ye = Math.min(height - 1, yc + w - 1);
+                for (int y = ys; y <= ye; y++) pixels[y * width + x] = argb;
+            }
+        } else {
+            if (y0 > y1) {
+                float t = x0; x0 = x1; x1 = t;
+                t = y0; y0 = y1; y1 = t;
+            }
+            float slope = (x1 - x0) / (y1 - y0);
+            int ys = Math.max(0, Math.round(y0));
+            int ye = Math.min(height - 1, Math.round(y1));
+            for (int y = ys; y <= ye; y++) {
+                int xc = Math.round(x0 + (y - y0) * slope) - before;
+                int from = Math.max(0, xc);
+                int to = Math.min(width - 1, xc + w - 1);
+                int row = y * width;
+                for (int x = from; x <= to; x++) pixels[row + x] = argb;
+            }
+        }
+        revision++;
+    }
+}
@@ -3,9 +3,9 @@ package com.arbergashi.charts.engine.allocation;
 /**
  * Allocation statistics for Zero-GC monitoring.
  *
- * <p>This class holds cache hit/miss statistics for the {@link ZeroAllocPool}.
+ * <p>This class holds cache hit/miss/eviction statistics for the {@link ZeroAllocPool}.
  * Used to monitor the effectiveness of object pooling and identify potential
- * optimization opportunities.
+ * optimization opportunities. The caches are shared, so the counters cover all threads.
  *
  * <h2>Usage Example</h2>
  * <pre>{@code
@@ -28,25 +28,62 @@ public final class AllocationStats {
     /** Number of stroke cache misses (new object created). */
     public final long strokeMisses;
 
+    /**
+     * Number of stroke cache entries replaced because their probe window was full.
+     *
+     * @since 2.1.0
+     */
+    public final long strokeEvictions;
+
+    /**
+     * Number of strokes currently cached.
+     *
+     * @since 2.1.0
+     */
+    public final int strokeEntries;
+
     /** Number of successful color cache lookups. */
     public final long colorHits;
 
     /** Number of color cache misses (new object created). */
     public final long colorMisses;
 
+    /**
+     * Number of color cache entries replaced because their probe window was full.
+     *
+     * @since 2.1.0
+     */
+    public final long colorEvictions;
+
+    /**
+     * Number of colors currently cached.
+     *
+     * @since 2.1.0
+     */
+    public final int colorEntries;
+
     /**
      * Creates allocation statistics.
      *
      * @param strokeHits stroke cache hits
      * @param strokeMisses stroke cache misses
+     * @param strokeEvictions stroke cache evictions
+     * @param strokeEntries cached strokes
      * @param colorHits color cache hits
      * @param colorMisses color cache misses
+     * @param colorEvictions color cache evictions
+     * @param colorEntries cached colors
      */
-    AllocationStats(long strokeHits, long strokeMisses, long colorHits, long colorMisses) {
+    AllocationStats(long strokeHits, long strokeMisses, long strokeEvictions, int strokeEntries,
+                    long colorHits, long colorMisses, long colorEvictions, int colorEntries) {
         this.strokeHits = strokeHits;
         this.strokeMisses = strokeMisses;
+        this.strokeEvictions = strokeEvictions;
+        this.strokeEntries = strokeEntries;
         this.colorHits = colorHits;
         this.colorMisses = colorMisses;
+        this.colorEvictions = colorEvictions;
+        this.colorEntries = colorEntries;
     }
 
     /**
@@ -83,9 +120,10 @@ public final class AllocationStats {
 
     @Override
     public String toString() {
-        return String.format("Stroke: %.1f%% hit rate (%d/%d), Color: %.1f%% hit rate (%d/%d)",
-            getStrokeHitRate() * 100, strokeHits, strokeHits + strokeMisses,
-            getColorHitRate() * 100, colorHits, colorHits + colorMisses);
+        return String.format("Stroke: %.1f%% hit rate (%d/%d, %d evicted, %d cached), "
+                + "Color: %.1f%% hit rate (%d/%d, %d evicted, %d cached)",
+            getStrokeHitRate() * 100, strokeHits, strokeHits + strokeMisses, strokeEvictions, strokeEntries,
+            getColorHitRate() * 100, colorHits, colorHits + colorMisses, colorEvictions, colorEntries);
     }
 }
 
@@ -2,7 +2,9 @@ package com.arbergashi.charts.engine.allocation;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Zero-Allocation Object Pool for ArberCharts v2.0.
@@ -13,7 +15,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * <h2>Design Principles</h2>
  * <ul>
  *   <li><strong>Pre-allocated Pools</strong> - All objects created at startup</li>
- *   <li><strong>Thread-Local Caching</strong> - Zero contention in hot paths</li>
+ *   <li><strong>Shared Lock-Free Caches</strong> - Bounded open-addressing tables keyed by
+ *       primitive values; lookups neither lock nor allocate</li>
  *   <li><strong>Reuse Everything</strong> - Strokes, Colors, Arrays, Buffers</li>
  *   <li><strong>No GC Pressure</strong> - Steady-state heap usage</li>
  * </ul>
@@ -60,17 +63,14 @@ import java.util.concurrent.ConcurrentHashMap;
 public final class ZeroAllocPool {
 
     /**
-     * Thread-local stroke cache to avoid contention.
-     * Each thread gets its own cache for zero-lock overhead.
+     * Shared stroke cache. Bounded, so virtual threads cannot multiply it.
      */
-    private static final ThreadLocal<StrokeCache> STROKE_CACHE =
-        ThreadLocal.withInitial(StrokeCache::new);
+    private static final StrokeCache STROKE_CACHE = new StrokeCache();
 
     /**
-     * Thread-local color cache for zero-contention access.
+     * Shared color cache keyed by the primitive ARGB value.
      */
-    private static final ThreadLocal<ColorCache> COLOR_CACHE =
-        ThreadLocal.withInitial(ColorCache::new);
+    private static final ColorCache COLOR_CACHE = new ColorCache();
 
     /**
      * Global reusable buffer pool for geometry operations.
@@ -91,7 +91,7 @@ public final class ZeroAllocPool {
      * @return cached BasicStroke instance
      */
     public static BasicStroke getStroke(float width) {
-        return STROKE_CACHE.get().getStroke(width);
+        return STROKE_CACHE.getStroke(width);
     }
 
     /**
@@ -102,7 +102,7 @@ public final class ZeroAllocPool {
      * @return cached BasicStroke instance
      */
     public static BasicStroke getStroke(float width, float[] dashPattern) {
-        return STROKE_CACHE.get().getStroke(width, dashPattern);
+        return STROKE_CACHE.getStroke(width, dashPattern);
     }
 
     /**
@@ -116,7 +116,7 @@ public final class ZeroAllocPool {
      * @return cached Color instance
      */
     public static Color getColor(int r, int g, int b) {
-        return COLOR_CACHE.get().getColor(r, g, b);
+        return COLOR_CACHE.getColor(0xFF000000 | (r & 0xFF) << 16 | (g & 0xFF) << 8 | (b & 0xFF));
     }
 
     /**
@@ -129,7 +129,18 @@ public final class ZeroAllocPool {
      * @return cached Color instance
      */
     public static Color getColor(int r, int g, int b, int a) {
-        return COLOR_CACHE.get().getColor(r, g, b, a);
+        return COLOR_CACHE.getColor((a & 0xFF) << 24 | (r & 0xFF) << 16 | (g & 0xFF) << 8 | (b & 0xFF));
+    }
+
+    /**
+     * Gets a cached Color from a packed ARGB value.
+     *
+     * @param argb packed color, alpha in the high byte
+     * @return cached Color instance
+     * @since 2.1.0
+     */
+    public static Color getColor(int argb) {
+        return COLOR_CACHE.getColor(argb);
     }
 
     /**
@@ -166,16 +177,20 @@ public final class ZeroAllocPool {
     }
 
     /**
-     * Returns allocation statistics for monitoring.
+     * Returns allocation statistics for monitoring, aggregated over all threads.
      *
      * @return stats object with hit/miss ratios
      */
     public static AllocationStats getStats() {
         return new AllocationStats(
-            STROKE_CACHE.get().getHitCount(),
-            STROKE_CACHE.get().getMissCount(),
-            COLOR_CACHE.get().getHitCount(),
-            COLOR_CACHE.get().getMissCount()
+            STROKE_CACHE.getHitCount(),
+            STROKE_CACHE.getMissCount(),
+            STROKE_CACHE.getEvictionCount(),
+            STROKE_CACHE.size(),
+            COLOR_CACHE.getHitCount(),
+            COLOR_CACHE.getMissCount(),
+            COLOR_CACHE.getEvictionCount(),
+            COLOR_CACHE.size()
         );
     }
 
@@ -186,123 +201,156 @@ public final class ZeroAllocPool {
      * Only call during initialization or in tests.
      */
     public static void reset() {
-        STROKE_CACHE.remove();
-        COLOR_CACHE.remove();
+        STROKE_CACHE.clear();
+        COLOR_CACHE.clear();
         BUFFER_POOL.reset();
     }
 }
 
 /**
- * Thread-local stroke cache for zero-allocation rendering.
+ * Shared, bounded, lock-free stroke cache for zero-allocation rendering.
+ *
+ * <p>Open addressing over an {@link AtomicReferenceArray} of immutable entries, keyed by the width's
+ * float bits and the dash pattern's contents. A lookup probes at most {@link #PROBES} slots and
+ * compares in place, so hits allocate nothing. A miss claims the first empty slot of the probe
+ * window or, when the window is full, replaces its home slot (counted as an eviction). Racing
+ * misses may each create a stroke; only one is kept, which is harmless since strokes are
+ * immutable.</p>
  */
-class StrokeCache {
-    private final ConcurrentHashMap<StrokeKey, BasicStroke> cache = new ConcurrentHashMap<>();
-    private long hitCount = 0;
-    private long missCount = 0;
+final class StrokeCache {
+    static final int CAPACITY = 256;
+    private static final int PROBES = 8;
 
-    BasicStroke getStroke(float width) {
-        StrokeKey key = new StrokeKey(width);
-        BasicStroke stroke = cache.get(key);
-
-        if (stroke == null) {
-            stroke = new BasicStroke(width);
-            cache.put(key, stroke);
-            missCount++;
-        } else {
-            hitCount++;
-        }
+    private final AtomicReferenceArray<Entry> table = new AtomicReferenceArray<>(CAPACITY);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
 
-        return stroke;
+    BasicStroke getStroke(float width) {
+        return getStroke(width, null);
     }
 
     BasicStroke getStroke(float width, float[] dashPattern) {
-        StrokeKey key = new StrokeKey(width, dashPattern);
-        BasicStroke stroke = cache.get(key);
-
-        if (stroke == null) {
-            stroke = new BasicStroke(width, BasicStroke.CAP_BUTT,
-                BasicStroke.JOIN_MITER, 10.0f, dashPattern, 0.0f);
-            cache.put(key, stroke);
-            missCount++;
-        } else {
-            hitCount++;
+        int bits = Float.floatToIntBits(width);
+        int hash = ColorCache.mix(bits * 31 + (dashPattern != null ? Arrays.hashCode(dashPattern) : 0));
+        int mask = CAPACITY - 1;
+        int empty = -1;
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (hash + i) & mask;
+            Entry e = table.get(slot);
+            if (e == null) {
+                if (empty < 0) empty = slot;
+            } else if (e.widthBits == bits && Arrays.equals(e.dash, dashPattern)) {
+                hits.increment();
+                return e.stroke;
+            }
         }
 
+        misses.increment();
+        BasicStroke stroke = dashPattern == null
+            ? new BasicStroke(width)
+            : new BasicStroke(width, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10.0f, dashPattern, 0.0f);
+        Entry entry = new Entry(bits, dashPattern == null ? null : dashPattern.clone(), stroke);
+        if (empty < 0 || !table.compareAndSet(empty, null, entry)) {
+            table.set(hash & mask, entry);
+            evictions.increment();
+        }
         return stroke;
     }
 
-    long getHitCount() { return hitCount; }
-    long getMissCount() { return missCount; }
-
-    private static class StrokeKey {
-        final float width;
-        final float[] dash;
-        final int hash;
+    long getHitCount() { return hits.sum(); }
+    long getMissCount() { return misses.sum(); }
+    long getEvictionCount() { return evictions.sum(); }
 
-        StrokeKey(float width) {
-            this(width, null);
-        }
-
-        StrokeKey(float width, float[] dash) {
-            this.width = width;
-            this.dash = dash;
-            this.hash = Float.hashCode(width) * 31 + (dash != null ? java.util.Arrays.hashCode(dash) : 0);
+    int size() {
+        int n = 0;
+        for (int i = 0; i < CAPACITY; i++) {
+            if (table.get(i) != null) n++;
         }
+        return n;
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (!(o instanceof StrokeKey)) return false;
-            StrokeKey k = (StrokeKey) o;
-            return width == k.width && java.util.Arrays.equals(dash, k.dash);
-        }
+    void clear() {
+        for (int i = 0; i < CAPACITY; i++) table.set(i, null);
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
 
-        @Override
-        public int hashCode() {
-            return hash;
-        }
+    private record Entry(int widthBits, float[] dash, BasicStroke stroke) {
     }
 }
 
 /**
- * Thread-local color cache for zero-allocation rendering.
+ * Shared, bounded, lock-free color cache keyed by the primitive ARGB value.
+ *
+ * <p>Same open-addressing scheme as {@link StrokeCache}; no key is ever boxed.</p>
  */
-class ColorCache {
-    private final ConcurrentHashMap<Integer, Color> cache = new ConcurrentHashMap<>();
-    private long hitCount = 0;
-    private long missCount = 0;
-
-    Color getColor(int r, int g, int b) {
-        int key = (r << 16) | (g << 8) | b;
-        Color color = cache.get(key);
-
-        if (color == null) {
-            color = new Color(r, g, b);
-            cache.put(key, color);
-            missCount++;
-        } else {
-            hitCount++;
+final class ColorCache {
+    static final int CAPACITY = 4096;
+    private static final int PROBES = 8;
+
+    private final AtomicReferenceArray<Entry> table = new AtomicReferenceArray<>(CAPACITY);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    Color getColor(int argb) {
+        int hash = mix(argb);
+        int mask = CAPACITY - 1;
+        int empty = -1;
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (hash + i) & mask;
+            Entry e = table.get(slot);
+            if (e == null) {
+                if (empty < 0) empty = slot;
+            } else if (e.argb == argb) {
+                hits.increment();
+                return e.color;
+            }
         }
 
+        misses.increment();
+        Color color = new Color(argb, true);
+        Entry entry = new Entry(argb, color);
+        if (empty < 0 || !table.compareAndSet(empty, null, entry)) {
+            table.set(hash & mask, entry);
+            evictions.increment();
+        }
         return color;
     }
 
-    Color getColor(int r, int g, int b, int a) {
-        int key = (a << 24) | (r << 16) | (g << 8) | b;
-        Color color = cache.get(key);
+    long getHitCount() { return hits.sum(); }
+    long getMissCount() { return misses.sum(); }
+    long getEvictionCount() { return evictions.sum(); }
 
-        if (color == null) {
-            color = new Color(r, g, b, a);
-            cache.put(key, color);
-            missCount++;
-        } else {
-            hitCount++;
+    int size() {
+        int n = 0;
+        for (int i = 0; i < CAPACITY; i++) {
+            if (table.get(i) != null) n++;
         }
+        return n;
+    }
 
-        return color;
+    void clear() {
+        for (int i = 0; i < CAPACITY; i++) table.set(i, null);
+        hits.reset();
+        misses.reset();
+        evictions.reset();
     }
 
-    long getHitCount() { return hitCount; }
-    long getMissCount() { return missCount; }
+    /** Murmur3 finalizer; spreads nearby ARGB values and float bits across the table. */
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private record Entry(int argb, Color color) {
+    }
 }
 
 /**
@@ -1,5 +1,16 @@
 package com.arbergashi.charts.engine.concurrent;
 
+import com.arbergashi.charts.api.ChartThemes;
+import com.arbergashi.charts.api.DefaultPlotContext;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.export.SvgCanvas;
+import com.arbergashi.charts.model.ChartModel;
+import com.arbergashi.charts.model.FinancialChartModel;
+import com.arbergashi.charts.render.ChartRenderer;
+import com.arbergashi.charts.render.financial.CandlestickRenderer;
+import com.arbergashi.charts.render.standard.LineRenderer;
+
+import java.io.StringWriter;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -132,18 +143,51 @@ public final class VirtualThreadRenderer {
     }
 
     /**
-     * Renders a chart asynchronously and returns an SVG string.
+     * Renders a chart asynchronously at 800&times;600 and returns an SVG string.
+     *
+     * <p>Uses a {@link CandlestickRenderer} for financial models and a {@link LineRenderer}
+     * otherwise; see {@link #renderSvgAsync(ChartModel, ChartRenderer, int, int)}.</p>
      *
      * @param model the chart model to render
-     * @return CompletableFuture with SVG string
-     * @throws UnsupportedOperationException rendering not yet implemented in v2.0.0
+     * @return CompletableFuture with SVG string; completes exceptionally with
+     *         {@link IllegalArgumentException} if {@code model} is not a {@link ChartModel}
      */
     public CompletableFuture<String> renderSvgAsync(Object model) {
+        if (!(model instanceof ChartModel chartModel)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "SVG rendering requires a ChartModel, got " + (model == null ? "null" : model.getClass().getName())));
+        }
+        ChartRenderer renderer = chartModel instanceof FinancialChartModel ? new CandlestickRenderer() : new LineRenderer();
+        return renderSvgAsync(chartModel, renderer, 800, 600);
+    }
+
+    /**
+     * Renders a chart asynchronously into an SVG string with {@link SvgCanvas}; headless and
+     * without AWT.
+     *
+     * @param model the chart model to render
+     * @param renderer the renderer to draw with
+     * @param width output width in pixels
+     * @param height output height in pixels
+     * @return CompletableFuture with SVG string
+     * @since 2.1.0
+     */
+    public CompletableFuture<String> renderSvgAsync(ChartModel model, ChartRenderer renderer, int width, int height) {
+        if (model == null || renderer == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("model and renderer are required"));
+        }
         return CompletableFuture.supplyAsync(() -> {
-            throw new UnsupportedOperationException(
-                "Async SVG rendering is not available in ArberCharts 2.0.0. " +
-                "Use Charts.lineChart().show() for interactive display."
-            );
+            int w = Math.max(1, width);
+            int h = Math.max(1, height);
+            StringWriter out = new StringWriter();
+            SvgCanvas canvas = new SvgCanvas(out, w, h);
+            DefaultPlotContext context = new DefaultPlotContext(new ArberRect(0, 0, w, h), model,
+                    Double.NaN, Double.NaN, Double.NaN, Double.NaN, ChartThemes.getDarkTheme());
+            canvas.beginLayer("data");
+            renderer.render(canvas, model, context);
+            canvas.endLayer();
+            canvas.finish();
+            return out.toString();
         }, executor);
     }
 
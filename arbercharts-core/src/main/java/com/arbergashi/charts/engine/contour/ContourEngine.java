@@ -0,0 +1,283 @@
+package com.arbergashi.charts.engine.contour;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Marching-squares iso-line extraction.
+ *
+ * <p>Each cell is classified per level by its four corners; the two ambiguous saddle cases are
+ * resolved with the cell-centre average. Segments are identified by the grid edges they cross,
+ * so stitching them into polylines is exact (no floating point endpoint matching) and linear in
+ * the segment count. Row bands are classified in parallel on the common fork-join pool once the
+ * grid exceeds {@link #PARALLEL_CELLS} cells.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class ContourEngine {
+
+    /** Cell count (times levels) from which row bands are processed in parallel. */
+    public static final int PARALLEL_CELLS = 1 << 16;
+
+    private static final int BAND_ROWS = 32;
+
+    /*
+     * Edge pairs per case; edges: 0 bottom, 1 right, 2 top, 3 left. Corner bits:
+     * 1 = (c, r), 2 = (c+1, r), 4 = (c+1, r+1), 8 = (c, r+1). Saddles 5 and 10 are handled in code.
+     */
+    private static final int[][] CASES = {
+            {}, {3, 0}, {0, 1}, {3, 1}, {1, 2}, {}, {0, 2}, {3, 2},
+            {2, 3}, {0, 2}, {}, {1, 2}, {1, 3}, {0, 1}, {3, 0}, {}
+    };
+
+    private ContourEngine() {
+    }
+
+    /**
+     * Returns {@code count} levels evenly spaced strictly inside {@code (min, max)}.
+     */
+    public static double[] evenLevels(double min, double max, int count) {
+        if (count <= 0 || !(max > min)) return new double[0];
+        double[] levels = new double[count];
+        double step = (max - min) / (count + 1);
+        for (int i = 0; i < count; i++) {
+            levels[i] = min + step * (i + 1);
+        }
+        return levels;
+    }
+
+    /**
+     * Extracts and stitches the iso-lines of {@code grid} at the given levels.
+     */
+    public static ContourSet extract(ContourGrid grid, double[] levels) {
+        int rows = grid.getRows();
+        int cellRows = rows - 1;
+        int bands = (cellRows + BAND_ROWS - 1) / BAND_ROWS;
+        Band[] out = new Band[bands];
+        long work = (long) (grid.getCols() - 1) * cellRows * Math.max(1, levels.length);
+        if (work >= PARALLEL_CELLS && bands > 1) {
+            IntStream.range(0, bands).parallel().forEach(b -> out[b] = classify(grid, levels, b));
+        } else {
+            for (int b = 0; b < bands; b++) out[b] = classify(grid, levels, b);
+        }
+        return stitch(grid, levels, out);
+    }
+
+    // ---- classification --------------------------------------------------------------------
+
+    private static Band classify(ContourGrid grid, double[] levels, int band) {
+        int cols = grid.getCols();
+        int rows = grid.getRows();
+        int hEdges = rows * (cols - 1);
+        double[] v = grid.getValues();
+        int r0 = band * BAND_ROWS;
+        int r1 = Math.min(rows - 1, r0 + BAND_ROWS);
+        Band out = new Band(levels.length);
+        for (int li = 0; li < levels.length; li++) {
+            double level = levels[li];
+            out.levelStart[li] = out.size;
+            for (int r = r0; r < r1; r++) {
+                for (int c = 0; c < cols - 1; c++) {
+                    int k = r * cols + c;
+                    double v00 = v[k];
+                    double v10 = v[k + 1];
+                    double v01 = v[k + cols];
+                    double v11 = v[k + cols + 1];
+                    if (Double.isNaN(v00) || Double.isNaN(v10) || Double.isNaN(v01) || Double.isNaN(v11)) continue;
+                    int idx = (v00 >= level ? 1 : 0) | (v10 >= level ? 2 : 0) | (v11 >= level ? 4 : 0)
+                            | (v01 >= level ? 8 : 0);
+                    if (idx == 0 || idx == 15) continue;
+                    int bottom = r * (cols - 1) + c;
+                    int top = (r + 1) * (cols - 1) + c;
+                    int left = hEdges + r * cols + c;
+                    int right = left + 1;
+                    if (idx == 5 || idx == 10) {
+                        boolean centreHigh = (v00 + v10 + v01 + v11) * 0.25 >= level;
+                        if ((idx == 5) == centreHigh) {
+                            out.add(bottom, right);
+                            out.add(top, left);
+                        } else {
+                            out.add(left, bottom);
+                            out.add(right, top);
+                        }
+                        continue;
+                    }
+                    int[] pair = CASES[idx];
+                    out.add(edge(pair[0], bottom, right, top, left), edge(pair[1], bottom, right, top, left));
+                }
+            }
+        }
+        out.levelStart[levels.length] = out.size;
+        return out;
+    }
+
+    private static int edge(int which, int bottom, int right, int top, int left) {
+        return switch (which) {
+            case 0 -> bottom;
+            case 1 -> right;
+            case 2 -> top;
+            default -> left;
+        };
+    }
+
+    // ---- stitching -------------------------------------------------------------------------
+
+    private static ContourSet stitch(ContourGrid grid, double[] levels, Band[] bands) {
+        int cols = grid.getCols();
+        int rows = grid.getRows();
+        int edgeCount = rows * (cols - 1) + (rows - 1) * cols;
+        int[] adjA = new int[edgeCount];
+        int[] adjB = new int[edgeCount];
+        Arrays.fill(adjA, -1);
+        Arrays.fill(adjB, -1);
+
+        Builder builder = new Builder();
+        int[] segA = new int[64];
+        int[] segB = new int[64];
+        for (int li = 0; li < levels.length; li++) {
+            int n = 0;
+            for (Band band : bands) {
+                int from = band.levelStart[li];
+                int to = band.levelStart[li + 1];
+                int len = to - from;
+                if (n + len > segA.length) {
+                    int cap = Math.max(n + len, segA.length * 2);
+                    segA = Arrays.copyOf(segA, cap);
+                    segB = Arrays.copyOf(segB, cap);
+                }
+                System.arraycopy(band.a, from, segA, n, len);
+                System.arraycopy(band.b, from, segB, n, len);
+                n += len;
+            }
+            if (n == 0) continue;
+            for (int s = 0; s < n; s++) {
+                link(adjA, adjB, segA[s], s);
+                link(adjA, adjB, segB[s], s);
+            }
+            boolean[] used = new boolean[n];
+            double level = levels[li];
+            // open chains first: start at segments touching a boundary edge (single neighbour)
+            for (int s = 0; s < n; s++) {
+                if (used[s]) continue;
+                int start;
+                if (adjB[segA[s]] < 0) start = segA[s];
+                else if (adjB[segB[s]] < 0) start = segB[s];
+                else continue;
+                walk(grid, level, li, s, start, segA, segB, adjA, adjB, used, builder);
+            }
+            for (int s = 0; s < n; s++) {
+                if (!used[s]) walk(grid, level, li, s, segA[s], segA, segB, adjA, adjB, used, builder);
+            }
+            for (int s = 0; s < n; s++) {
+                adjA[segA[s]] = -1;
+                adjB[segA[s]] = -1;
+                adjA[segB[s]] = -1;
+                adjB[segB[s]] = -1;
+            }
+        }
+        return builder.build(levels);
+    }
+
+    private static void link(int[] adjA, int[] adjB, int edge, int seg) {
+        if (adjA[edge] < 0) adjA[edge] = seg;
+        else adjB[edge] = seg;
+    }
+
+    private static void walk(ContourGrid grid, double level, int li, int seg, int entry, int[] segA, int[] segB,
+                             int[] adjA, int[] adjB, boolean[] used, Builder out) {
+        out.beginLine(li);
+        out.point(grid, level, entry);
+        int s = seg;
+        int e = entry;
+        while (s >= 0 && !used[s]) {
+            used[s] = true;
+            int exit = segA[s] == e ? segB[s] : segA[s];
+            out.point(grid, level, exit);
+            int next = adjA[exit] == s ? adjB[exit] : adjA[exit];
+            e = exit;
+            s = next;
+        }
+    }
+
+    /**
+     * Segments of one row band, grouped by level.
+     */
+    private static final class Band {
+        final int[] levelStart;
+        int[] a = new int[256];
+        int[] b = new int[256];
+        int size;
+
+        Band(int levels) {
+            levelStart = new int[levels + 1];
+        }
+
+        void add(int edgeA, int edgeB) {
+            if (size == a.length) {
+                a = Arrays.copyOf(a, size * 2);
+                b = Arrays.copyOf(b, size * 2);
+            }
+            a[size] = edgeA;
+            b[size] = edgeB;
+            size++;
+        }
+    }
+
+    private static final class Builder {
+        double[] xs = new double[1024];
+        double[] ys = new double[1024];
+        int points;
+        int[] lineStart = new int[64];
+        int[] lineLevel = new int[64];
+        int lines;
+
+        void beginLine(int level) {
+            if (lines + 1 >= lineStart.length) {
+                lineStart = Arrays.copyOf(lineStart, lineStart.length * 2);
+                lineLevel = Arrays.copyOf(lineLevel, lineLevel.length * 2);
+            }
+            lineStart[lines] = points;
+            lineLevel[lines] = level;
+            lines++;
+        }
+
+        void point(ContourGrid grid, double level, int edge) {
+            if (points == xs.length) {
+                xs = Arrays.copyOf(xs, points * 2);
+                ys = Arrays.copyOf(ys, points * 2);
+            }
+            int cols = grid.getCols();
+            int hEdges = grid.getRows() * (cols - 1);
+            int c0;
+            int r0;
+            int c1;
+            int r1;
+            if (edge < hEdges) {
+                r0 = edge / (cols - 1);
+                c0 = edge - r0 * (cols - 1);
+                c1 = c0 + 1;
+                r1 = r0;
+            } else {
+                int k = edge - hEdges;
+                r0 = k / cols;
+                c0 = k - r0 * cols;
+                c1 = c0;
+                r1 = r0 + 1;
+            }
+            double va = grid.get(c0, r0);
+            double vb = grid.get(c1, r1);
+            double t = vb == va ? 0.5 : (level - va) / (vb - va);
+            double xa = grid.getNodeX(c0);
+            double ya = grid.getNodeY(r0);
+            xs[points] = xa + (grid.getNodeX(c1) - xa) * t;
+            ys[points] = ya + (grid.getNodeY(r1) - ya) * t;
+            points++;
+        }
+
+        ContourSet build(double[] levels) {
+            return new ContourSet(levels, xs, ys, points, lineStart, lineLevel, lines);
+        }
+    }
+}
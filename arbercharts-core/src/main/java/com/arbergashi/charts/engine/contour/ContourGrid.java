@@ -0,0 +1,228 @@
+package com.arbergashi.charts.engine.contour;
+
+import java.util.Arrays;
+
+/**
+ * Regular scalar grid used as input for {@link ContourEngine}.
+ *
+ * <p>Node {@code (c, r)} sits at {@code (x0 + c * dx, y0 + r * dy)} and its value is stored
+ * row-major at {@code r * cols + c}. {@code NaN} marks a node without data (or outside a mask);
+ * cells touching such a node produce no contour.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class ContourGrid {
+
+    private final int cols;
+    private final int rows;
+    private final double x0;
+    private final double y0;
+    private final double dx;
+    private final double dy;
+    private final double[] values;
+
+    public ContourGrid(int cols, int rows, double x0, double y0, double dx, double dy) {
+        if (cols < 2 || rows < 2) throw new IllegalArgumentException("grid needs at least 2x2 nodes");
+        this.cols = cols;
+        this.rows = rows;
+        this.x0 = x0;
+        this.y0 = y0;
+        this.dx = dx;
+        this.dy = dy;
+        this.values = new double[cols * rows];
+        Arrays.fill(values, Double.NaN);
+    }
+
+    /**
+     * Wraps a cell matrix ({@code [row][col]}, row = y) as used by heatmaps; nodes sit at the
+     * cell centres.
+     */
+    public static ContourGrid fromCells(double[][] cells, double minX, double maxX, double minY, double maxY) {
+        int rows = cells.length;
+        int cols = cells[0].length;
+        double dx = (maxX - minX) / cols;
+        double dy = (maxY - minY) / rows;
+        ContourGrid grid = new ContourGrid(Math.max(2, cols), Math.max(2, rows), minX + dx * 0.5, minY + dy * 0.5, dx, dy);
+        for (int r = 0; r < rows; r++) {
+            System.arraycopy(cells[r], 0, grid.values, r * grid.cols, Math.min(cols, cells[r].length));
+        }
+        return grid;
+    }
+
+    /**
+     * Grids scattered samples onto {@code cols x rows} nodes spanning the given bounds.
+     *
+     * <p>Each sample is splatted bilinearly onto its four surrounding nodes; nodes that receive
+     * no weight are filled by Laplace relaxation from their neighbours, so sparse input yields
+     * smooth surfaces instead of holes.</p>
+     */
+    public static ContourGrid fromScattered(double[] xs, double[] ys, double[] zs, int count, int cols, int rows,
+                                            double minX, double maxX, double minY, double maxY) {
+        double dx = (maxX - minX) / (cols - 1);
+        double dy = (maxY - minY) / (rows - 1);
+        if (!(dx > 0) || !(dy > 0)) throw new IllegalArgumentException("empty bounds");
+        ContourGrid grid = new ContourGrid(cols, rows, minX, minY, dx, dy);
+        double[] sum = new double[cols * rows];
+        double[] weight = new double[cols * rows];
+        for (int i = 0; i < count; i++) {
+            double z = zs[i];
+            if (!Double.isFinite(z)) continue;
+            double gx = (xs[i] - minX) / dx;
+            double gy = (ys[i] - minY) / dy;
+            if (!(gx >= 0 && gx <= cols - 1 && gy >= 0 && gy <= rows - 1)) continue;
+            int c = Math.min((int) gx, cols - 2);
+            int r = Math.min((int) gy, rows - 2);
+            double fx = gx - c;
+            double fy = gy - r;
+            int k = r * cols + c;
+            splat(sum, weight, k, z, (1 - fx) * (1 - fy));
+            splat(sum, weight, k + 1, z, fx * (1 - fy));
+            splat(sum, weight, k + cols, z, (1 - fx) * fy);
+            splat(sum, weight, k + cols + 1, z, fx * fy);
+        }
+        boolean any = false;
+        for (int k = 0; k < sum.length; k++) {
+            if (weight[k] > 1e-12) {
+                grid.values[k] = sum[k] / weight[k];
+                any = true;
+            }
+        }
+        if (any) grid.fillHoles(weight);
+        return grid;
+    }
+
+    /**
+     * Grids the sample density (optionally weighted) onto {@code cols x rows} nodes; every node
+     * receives a value, so the surface has no holes.
+     *
+     * @param ws per-sample weights, or {@code null} for unit weights
+     */
+    public static ContourGrid fromDensity(double[] xs, double[] ys, double[] ws, int count, int cols, int rows,
+                                          double minX, double maxX, double minY, double maxY) {
+        double dx = (maxX - minX) / (cols - 1);
+        double dy = (maxY - minY) / (rows - 1);
+        if (!(dx > 0) || !(dy > 0)) throw new IllegalArgumentException("empty bounds");
+        ContourGrid grid = new ContourGrid(cols, rows, minX, minY, dx, dy);
+        double[] v = grid.values;
+        Arrays.fill(v, 0.0);
+        for (int i = 0; i < count; i++) {
+            double w = ws == null ? 1.0 : ws[i];
+            if (!Double.isFinite(w)) continue;
+            double gx = (xs[i] - minX) / dx;
+            double gy = (ys[i] - minY) / dy;
+            if (!(gx >= 0 && gx <= cols - 1 && gy >= 0 && gy <= rows - 1)) continue;
+            int c = Math.min((int) gx, cols - 2);
+            int r = Math.min((int) gy, rows - 2);
+            double fx = gx - c;
+            double fy = gy - r;
+            int k = r * cols + c;
+            v[k] += w * (1 - fx) * (1 - fy);
+            v[k + 1] += w * fx * (1 - fy);
+            v[k + cols] += w * (1 - fx) * fy;
+            v[k + cols + 1] += w * fx * fy;
+        }
+        return grid;
+    }
+
+    private static void splat(double[] sum, double[] weight, int k, double z, double w) {
+        sum[k] += z * w;
+        weight[k] += w;
+    }
+
+    /**
+     * Gauss–Seidel relaxation of the nodes without samples towards the mean of their neighbours.
+     */
+    private void fillHoles(double[] weight) {
+        double mean = 0;
+        int known = 0;
+        for (int k = 0; k < values.length; k++) {
+            if (weight[k] > 1e-12) {
+                mean += values[k];
+                known++;
+            }
+        }
+        mean /= known;
+        if (known == values.length) return;
+        for (int k = 0; k < values.length; k++) {
+            if (!(weight[k] > 1e-12)) values[k] = mean;
+        }
+        double range = 0;
+        for (double v : values) range = Math.max(range, Math.abs(v - mean));
+        double eps = Math.max(1e-12, range * 1e-4);
+        int maxIter = 4 * Math.max(cols, rows);
+        for (int it = 0; it < maxIter; it++) {
+            double change = 0;
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    int k = r * cols + c;
+                    if (weight[k] > 1e-12) continue;
+                    double s = 0;
+                    int n = 0;
+                    if (c > 0) { s += values[k - 1]; n++; }
+                    if (c < cols - 1) { s += values[k + 1]; n++; }
+                    if (r > 0) { s += values[k - cols]; n++; }
+                    if (r < rows - 1) { s += values[k + cols]; n++; }
+                    double v = s / n;
+                    change = Math.max(change, Math.abs(v - values[k]));
+                    values[k] = v;
+                }
+            }
+            if (change < eps) break;
+        }
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public double getNodeX(int col) {
+        return x0 + col * dx;
+    }
+
+    public double getNodeY(int row) {
+        return y0 + row * dy;
+    }
+
+    public double getDx() {
+        return dx;
+    }
+
+    public double getDy() {
+        return dy;
+    }
+
+    public double get(int col, int row) {
+        return values[row * cols + col];
+    }
+
+    public void set(int col, int row, double value) {
+        values[row * cols + col] = value;
+    }
+
+    /**
+     * Direct access to the row-major node values.
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Writes the finite {@code min, max} node values into {@code out}; {@code NaN} if none.
+     */
+    public void getValueRange(double[] out) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double v : values) {
+            if (v < min) min = v;
+            if (v > max) max = v;
+        }
+        out[0] = min <= max ? min : Double.NaN;
+        out[1] = min <= max ? max : Double.NaN;
+    }
+}
@@ -0,0 +1,73 @@
+package com.arbergashi.charts.engine.contour;
+
+import java.util.Arrays;
+
+/**
+ * Immutable result of {@link ContourEngine#extract}: stitched iso-lines in data coordinates.
+ *
+ * <p>Points of all lines are stored in one flat array; line {@code i} covers the points
+ * {@code [getLineStart(i), getLineEnd(i))}. Closed rings repeat their first point at the end.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class ContourSet {
+
+    private final double[] levels;
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] lineStart;
+    private final int[] lineLevel;
+    private final int lineCount;
+
+    ContourSet(double[] levels, double[] xs, double[] ys, int pointCount, int[] lineStart, int[] lineLevel,
+               int lineCount) {
+        this.levels = levels.clone();
+        this.xs = Arrays.copyOf(xs, pointCount);
+        this.ys = Arrays.copyOf(ys, pointCount);
+        this.lineStart = Arrays.copyOf(lineStart, lineCount + 1);
+        this.lineStart[lineCount] = pointCount;
+        this.lineLevel = Arrays.copyOf(lineLevel, lineCount);
+        this.lineCount = lineCount;
+    }
+
+    public int getLevelCount() {
+        return levels.length;
+    }
+
+    public double getLevel(int index) {
+        return levels[index];
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Returns the index into the level array of line {@code line}.
+     */
+    public int getLineLevel(int line) {
+        return lineLevel[line];
+    }
+
+    public int getLineStart(int line) {
+        return lineStart[line];
+    }
+
+    public int getLineEnd(int line) {
+        return lineStart[line + 1];
+    }
+
+    public int getPointCount() {
+        return xs.length;
+    }
+
+    public double getX(int point) {
+        return xs[point];
+    }
+
+    public double getY(int point) {
+        return ys[point];
+    }
+}
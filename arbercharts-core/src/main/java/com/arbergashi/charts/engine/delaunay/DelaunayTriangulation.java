@@ -0,0 +1,536 @@
+package com.arbergashi.charts.engine.delaunay;
+
+import java.util.Arrays;
+
+/**
+ * Incremental Delaunay triangulation (Bowyer–Watson) with its Voronoi dual.
+ *
+ * <p>Points are inserted one at a time: the containing triangle is found by a visibility walk
+ * from the last inserted triangle, the cavity of triangles whose circumcircle contains the point
+ * is grown by a flood over the adjacency, and re-triangulated as a fan. Each insertion therefore
+ * only touches the neighbourhood of the new point, which keeps appends to a live series cheap.
+ * Orientation and in-circle tests are exact ({@link GeometryPredicates}).</p>
+ *
+ * <p>Triangles live in flat arrays: vertices {@code 3t..3t+2} in counter-clockwise order and
+ * the neighbour opposite each vertex. Vertices {@code 0..2} form an enclosing super triangle sized
+ * from the bounds passed to the constructor; edges and cells touching it are never reported. Point
+ * {@code i} (in insertion order) is vertex {@code i + 3}. Points outside the super triangle are
+ * rejected by {@link #insert}; callers rebuild with wider bounds.</p>
+ *
+ * <p>Insertions record the points whose Voronoi cell changed (the new point and every vertex of
+ * its cavity), so derived per-cell data can be refreshed locally; see {@link #getChangedPoints()}.</p>
+ *
+ * <p>Not thread-safe; build on one thread and publish the finished instance.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class DelaunayTriangulation {
+
+    private static final int SUPER = 3;
+    private static final double SUPER_SCALE = 4096.0;
+
+    private double[] vx;
+    private double[] vy;
+    private int[] vertexTriangle;
+    private int vertexCount;
+
+    private int[] tv;
+    private int[] tn;
+    private int triangleSlots;
+    private int liveTriangles;
+    private int[] free = new int[16];
+    private int freeCount;
+    private int lastTriangle;
+
+    // points whose cell changed since clearChanges(), deduplicated by an epoch mark per vertex
+    private int[] changeMark;
+    private int changeEpoch = 1;
+    private int[] changed = new int[32];
+    private int changedCount;
+
+    // cavity scratch, marks are epoch-stamped so they never need clearing
+    private int[] mark;
+    private int epoch;
+    private int[] stack = new int[64];
+    private int[] cavity = new int[64];
+    private int[] boundaryA = new int[32];
+    private int[] boundaryB = new int[32];
+    private int[] boundaryOuter = new int[32];
+    private int[] created = new int[32];
+    private double[] clipA = new double[64];
+    private double[] clipB = new double[64];
+
+    /**
+     * Creates an empty triangulation whose super triangle encloses the given bounds generously.
+     */
+    public DelaunayTriangulation(double minX, double minY, double maxX, double maxY, int expectedPoints) {
+        int cap = Math.max(16, expectedPoints + SUPER);
+        vx = new double[cap];
+        vy = new double[cap];
+        vertexTriangle = new int[cap];
+        changeMark = new int[cap];
+        int triCap = 2 * cap + 1;
+        tv = new int[3 * triCap];
+        tn = new int[3 * triCap];
+        mark = new int[triCap];
+
+        double cx = (minX + maxX) * 0.5;
+        double cy = (minY + maxY) * 0.5;
+        double d = Math.max(Math.max(maxX - minX, maxY - minY), 1e-9) * SUPER_SCALE;
+        addVertex(cx - 2 * d, cy - d);
+        addVertex(cx + 2 * d, cy - d);
+        addVertex(cx, cy + 2 * d);
+        int t = newTriangle(0, 1, 2);
+        tn[3 * t] = -1;
+        tn[3 * t + 1] = -1;
+        tn[3 * t + 2] = -1;
+        lastTriangle = t;
+    }
+
+    /**
+     * Builds the triangulation of the first {@code count} points.
+     */
+    public static DelaunayTriangulation of(double[] xs, double[] ys, int count) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        if (!(minX <= maxX)) {
+            minX = minY = 0;
+            maxX = maxY = 1;
+        }
+        DelaunayTriangulation dt = new DelaunayTriangulation(minX, minY, maxX, maxY, count);
+        for (int i = 0; i < count; i++) dt.addVertex(xs[i], ys[i]);
+        // Insert along a Hilbert curve so each walk starts next to its target.
+        double sx = 65535.0 / Math.max(maxX - minX, 1e-300);
+        double sy = 65535.0 / Math.max(maxY - minY, 1e-300);
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            int hx = (int) Math.clamp((xs[i] - minX) * sx, 0, 65535);
+            int hy = (int) Math.clamp((ys[i] - minY) * sy, 0, 65535);
+            order[i] = (hilbert(hx, hy) << 32) | i;
+        }
+        Arrays.sort(order);
+        for (long key : order) dt.insertVertex((int) key + SUPER);
+        dt.clearChanges();
+        return dt;
+    }
+
+    private static long hilbert(int x, int y) {
+        long d = 0;
+        for (int s = 1 << 15; s > 0; s >>= 1) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = s - 1 - x;
+                    y = s - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Returns the number of points inserted so far (including duplicates and rejected points).
+     */
+    public int getPointCount() {
+        return vertexCount - SUPER;
+    }
+
+    public double getX(int point) {
+        return vx[point + SUPER];
+    }
+
+    public double getY(int point) {
+        return vy[point + SUPER];
+    }
+
+    /**
+     * Returns whether {@code (x, y)} lies inside the super triangle and can be inserted.
+     */
+    public boolean accepts(double x, double y) {
+        if (!Double.isFinite(x) || !Double.isFinite(y)) return false;
+        return GeometryPredicates.orient(vx[0], vy[0], vx[1], vy[1], x, y) > 0
+                && GeometryPredicates.orient(vx[1], vy[1], vx[2], vy[2], x, y) > 0
+                && GeometryPredicates.orient(vx[2], vy[2], vx[0], vy[0], x, y) > 0;
+    }
+
+    /**
+     * Inserts a point and returns its index. Points that duplicate an existing vertex or lie
+     * outside the super triangle still get an index (so indices stay aligned with the caller's
+     * data) but take no part in the triangulation.
+     */
+    public int insert(double x, double y) {
+        int v = addVertex(x, y);
+        insertVertex(v);
+        return v - SUPER;
+    }
+
+    private void insertVertex(int v) {
+        double x = vx[v], y = vy[v];
+        vertexTriangle[v] = -1;
+        if (!accepts(x, y)) return;
+        int t = locate(x, y);
+        if (isVertexOf(t, x, y)) return;
+        carve(t, v);
+    }
+
+    /**
+     * Returns the points whose Voronoi cell changed since the last {@link #clearChanges()}: every
+     * inserted point plus the vertices of the triangles its insertion replaced.
+     */
+    public int[] getChangedPoints() {
+        return Arrays.copyOf(changed, changedCount);
+    }
+
+    /**
+     * Starts a new change set for {@link #getChangedPoints()}.
+     */
+    public void clearChanges() {
+        changedCount = 0;
+        if (++changeEpoch == Integer.MAX_VALUE) {
+            Arrays.fill(changeMark, 0);
+            changeEpoch = 1;
+        }
+    }
+
+    /**
+     * Returns the number of live triangles that do not touch the super triangle.
+     */
+    public int getTriangleCount() {
+        int count = 0;
+        for (int t = 0; t < triangleSlots; t++) {
+            if (tv[3 * t] >= SUPER && tv[3 * t + 1] >= SUPER && tv[3 * t + 2] >= SUPER) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the Delaunay edges as point index pairs {@code [a0, b0, a1, b1, ...]}.
+     */
+    public int[] getEdges() {
+        int[] out = new int[Math.max(2, 6 * liveTriangles)];
+        int n = 0;
+        for (int t = 0; t < triangleSlots; t++) {
+            if (tv[3 * t] < 0) continue;
+            for (int i = 0; i < 3; i++) {
+                int nb = tn[3 * t + i];
+                if (nb >= 0 && nb < t) continue;
+                int a = tv[3 * t + (i + 1) % 3];
+                int b = tv[3 * t + (i + 2) % 3];
+                if (a < SUPER || b < SUPER) continue;
+                out[n++] = a - SUPER;
+                out[n++] = b - SUPER;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Returns the triangles as point index triples, counter-clockwise.
+     */
+    public int[] getTriangles() {
+        int[] out = new int[3 * getTriangleCount()];
+        int n = 0;
+        for (int t = 0; t < triangleSlots; t++) {
+            int a = tv[3 * t], b = tv[3 * t + 1], c = tv[3 * t + 2];
+            if (a < SUPER || b < SUPER || c < SUPER) continue;
+            out[n++] = a - SUPER;
+            out[n++] = b - SUPER;
+            out[n++] = c - SUPER;
+        }
+        return out;
+    }
+
+    /**
+     * Writes the Voronoi cell of {@code point}, clipped to the given rectangle, into {@code out}
+     * as interleaved {@code x, y} pairs in counter-clockwise order.
+     *
+     * @return the number of cell vertices ({@code 0} if the point is not part of the
+     * triangulation), or {@code -required} if {@code out} is shorter than the required length
+     */
+    public int voronoiCell(int point, double minX, double minY, double maxX, double maxY, double[] out) {
+        int v = point + SUPER;
+        int start = vertexTriangle[v];
+        if (start < 0) return 0;
+        int n = 0;
+        int t = start;
+        int guard = liveTriangles;
+        do {
+            if (2 * n + 2 > clipA.length) clipA = Arrays.copyOf(clipA, clipA.length * 2);
+            circumcentre(t, clipA, 2 * n);
+            n++;
+            int i = localIndex(t, v);
+            t = tn[3 * t + (i + 1) % 3];
+        } while (t != start && t >= 0 && --guard > 0);
+
+        n = clip(n, 0, minX, false);
+        n = clip(n, 1, minY, false);
+        n = clip(n, 0, maxX, true);
+        n = clip(n, 1, maxY, true);
+        if (2 * n > out.length) return -2 * n;
+        System.arraycopy(clipA, 0, out, 0, 2 * n);
+        return n;
+    }
+
+    // ---- insertion -------------------------------------------------------------------------
+
+    private int locate(double x, double y) {
+        int t = lastTriangle;
+        if (t < 0 || tv[3 * t] < 0) t = anyLiveTriangle();
+        int guard = 4 * (liveTriangles + 4);
+        int skip = 0;
+        walk:
+        while (guard-- > 0) {
+            for (int k = 0; k < 3; k++) {
+                int i = (k + skip) % 3;
+                int a = tv[3 * t + (i + 1) % 3];
+                int b = tv[3 * t + (i + 2) % 3];
+                if (GeometryPredicates.orient(vx[a], vy[a], vx[b], vy[b], x, y) < 0) {
+                    int nb = tn[3 * t + i];
+                    if (nb < 0) break;
+                    t = nb;
+                    skip = (skip + 1) % 3;
+                    continue walk;
+                }
+            }
+            return t;
+        }
+        // Degenerate walk (should not happen with exact predicates): fall back to a scan.
+        for (int s = 0; s < triangleSlots; s++) {
+            if (tv[3 * s] >= 0 && contains(s, x, y)) return s;
+        }
+        return t;
+    }
+
+    private boolean contains(int t, double x, double y) {
+        for (int i = 0; i < 3; i++) {
+            int a = tv[3 * t + (i + 1) % 3];
+            int b = tv[3 * t + (i + 2) % 3];
+            if (GeometryPredicates.orient(vx[a], vy[a], vx[b], vy[b], x, y) < 0) return false;
+        }
+        return true;
+    }
+
+    private boolean isVertexOf(int t, double x, double y) {
+        for (int i = 0; i < 3; i++) {
+            int a = tv[3 * t + i];
+            if (vx[a] == x && vy[a] == y) return true;
+        }
+        return false;
+    }
+
+    private void carve(int seed, int v) {
+        double x = vx[v], y = vy[v];
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            epoch = 1;
+        }
+        int cavityCount = 0;
+        int sp = 0;
+        stack[sp++] = seed;
+        mark[seed] = epoch;
+        while (sp > 0) {
+            int t = stack[--sp];
+            cavity = ensure(cavity, cavityCount + 1);
+            cavity[cavityCount++] = t;
+            for (int i = 0; i < 3; i++) {
+                int nb = tn[3 * t + i];
+                if (nb < 0 || mark[nb] == epoch) continue;
+                if (inCircumcircle(nb, x, y)) {
+                    mark[nb] = epoch;
+                    stack = ensure(stack, sp + 1);
+                    stack[sp++] = nb;
+                }
+            }
+        }
+
+        int boundary = 0;
+        for (int c = 0; c < cavityCount; c++) {
+            int t = cavity[c];
+            for (int i = 0; i < 3; i++) {
+                int nb = tn[3 * t + i];
+                if (nb >= 0 && mark[nb] == epoch) continue;
+                if (boundary == boundaryA.length) {
+                    boundaryA = Arrays.copyOf(boundaryA, boundary * 2);
+                    boundaryB = Arrays.copyOf(boundaryB, boundary * 2);
+                    boundaryOuter = Arrays.copyOf(boundaryOuter, boundary * 2);
+                }
+                boundaryA[boundary] = tv[3 * t + (i + 1) % 3];
+                boundaryB[boundary] = tv[3 * t + (i + 2) % 3];
+                boundaryOuter[boundary] = nb;
+                boundary++;
+            }
+        }
+        for (int c = 0; c < cavityCount; c++) releaseTriangle(cavity[c]);
+        markChanged(v);
+        for (int e = 0; e < boundary; e++) markChanged(boundaryA[e]);
+
+        created = ensure(created, boundary);
+        for (int e = 0; e < boundary; e++) {
+            int a = boundaryA[e], b = boundaryB[e], outer = boundaryOuter[e];
+            int nt = newTriangle(a, b, v);
+            created[e] = nt;
+            tn[3 * nt + 2] = outer;
+            tn[3 * nt] = -1;
+            tn[3 * nt + 1] = -1;
+            if (outer >= 0) {
+                for (int i = 0; i < 3; i++) {
+                    int oa = tv[3 * outer + (i + 1) % 3];
+                    int ob = tv[3 * outer + (i + 2) % 3];
+                    if (oa == b && ob == a) {
+                        tn[3 * outer + i] = nt;
+                        break;
+                    }
+                }
+            }
+        }
+        // Fan triangles (a, b, v): the edge (b, v) is shared with the fan triangle starting at b.
+        for (int e = 0; e < boundary; e++) {
+            int nt = created[e];
+            int b = boundaryB[e];
+            for (int f = 0; f < boundary; f++) {
+                if (boundaryA[f] == b) {
+                    int other = created[f];
+                    tn[3 * nt] = other;
+                    tn[3 * other + 1] = nt;
+                    break;
+                }
+            }
+        }
+        lastTriangle = created[0];
+    }
+
+    private boolean inCircumcircle(int t, double x, double y) {
+        int a = tv[3 * t], b = tv[3 * t + 1], c = tv[3 * t + 2];
+        return GeometryPredicates.inCircle(vx[a], vy[a], vx[b], vy[b], vx[c], vy[c], x, y) > 0;
+    }
+
+    private void markChanged(int v) {
+        if (v < SUPER || changeMark[v] == changeEpoch) return;
+        changeMark[v] = changeEpoch;
+        changed = ensure(changed, changedCount + 1);
+        changed[changedCount++] = v - SUPER;
+    }
+
+    private int addVertex(double x, double y) {
+        if (vertexCount == vx.length) {
+            int cap = vx.length * 2;
+            vx = Arrays.copyOf(vx, cap);
+            vy = Arrays.copyOf(vy, cap);
+            vertexTriangle = Arrays.copyOf(vertexTriangle, cap);
+            changeMark = Arrays.copyOf(changeMark, cap);
+        }
+        vx[vertexCount] = x;
+        vy[vertexCount] = y;
+        return vertexCount++;
+    }
+
+    private int newTriangle(int a, int b, int c) {
+        int t;
+        if (freeCount > 0) {
+            t = free[--freeCount];
+        } else {
+            if (3 * (triangleSlots + 1) > tv.length) {
+                int cap = tv.length * 2;
+                tv = Arrays.copyOf(tv, cap);
+                tn = Arrays.copyOf(tn, cap);
+                mark = Arrays.copyOf(mark, cap / 3);
+            }
+            t = triangleSlots++;
+        }
+        tv[3 * t] = a;
+        tv[3 * t + 1] = b;
+        tv[3 * t + 2] = c;
+        vertexTriangle[a] = t;
+        vertexTriangle[b] = t;
+        vertexTriangle[c] = t;
+        liveTriangles++;
+        return t;
+    }
+
+    private void releaseTriangle(int t) {
+        tv[3 * t] = -1;
+        tv[3 * t + 1] = -1;
+        tv[3 * t + 2] = -1;
+        free = ensure(free, freeCount + 1);
+        free[freeCount++] = t;
+        liveTriangles--;
+    }
+
+    private int anyLiveTriangle() {
+        for (int t = 0; t < triangleSlots; t++) {
+            if (tv[3 * t] >= 0) return t;
+        }
+        return 0;
+    }
+
+    private int localIndex(int t, int v) {
+        if (tv[3 * t] == v) return 0;
+        if (tv[3 * t + 1] == v) return 1;
+        return 2;
+    }
+
+    private static int[] ensure(int[] a, int size) {
+        return size <= a.length ? a : Arrays.copyOf(a, Math.max(size, a.length * 2));
+    }
+
+    // ---- Voronoi ---------------------------------------------------------------------------
+
+    private void circumcentre(int t, double[] out, int offset) {
+        int a = tv[3 * t], b = tv[3 * t + 1], c = tv[3 * t + 2];
+        double ax = vx[a], ay = vy[a];
+        double bx = vx[b] - ax, by = vy[b] - ay;
+        double cx = vx[c] - ax, cy = vy[c] - ay;
+        double d = 2.0 * (bx * cy - by * cx);
+        double b2 = bx * bx + by * by;
+        double c2 = cx * cx + cy * cy;
+        out[offset] = ax + (cy * b2 - by * c2) / d;
+        out[offset + 1] = ay + (bx * c2 - cx * b2) / d;
+    }
+
+    /**
+     * One Sutherland–Hodgman pass of the polygon in {@code clipA} against an axis-aligned
+     * half-plane; the result is swapped back into {@code clipA}.
+     */
+    private int clip(int n, int axis, double limit, boolean upper) {
+        if (n == 0) return 0;
+        if (clipB.length < clipA.length + 4) clipB = new double[clipA.length + 4];
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            double pi = clipA[2 * i + axis];
+            double pj = clipA[2 * j + axis];
+            boolean inI = upper ? pi <= limit : pi >= limit;
+            boolean inJ = upper ? pj <= limit : pj >= limit;
+            if (inI) {
+                clipB[2 * m] = clipA[2 * i];
+                clipB[2 * m + 1] = clipA[2 * i + 1];
+                m++;
+            }
+            if (inI != inJ) {
+                double t = (limit - pi) / (pj - pi);
+                double x = clipA[2 * i] + (clipA[2 * j] - clipA[2 * i]) * t;
+                double y = clipA[2 * i + 1] + (clipA[2 * j + 1] - clipA[2 * i + 1]) * t;
+                clipB[2 * m] = axis == 0 ? limit : x;
+                clipB[2 * m + 1] = axis == 1 ? limit : y;
+                m++;
+            }
+        }
+        double[] swap = clipA;
+        clipA = clipB;
+        clipB = swap;
+        return m;
+    }
+}
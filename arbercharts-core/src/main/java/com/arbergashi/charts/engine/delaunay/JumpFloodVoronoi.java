@@ -0,0 +1,101 @@
+package com.arbergashi.charts.engine.delaunay;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Raster Voronoi diagram by jump flooding.
+ *
+ * <p>Every site seeds the cell it falls into; then {@code log2(max(w, h))} passes propagate the
+ * nearest known site with halving step sizes, each cell looking at its eight neighbours at the
+ * current step. The cost is {@code O(w * h * log(max(w, h)))} regardless of the site count, which
+ * makes it the fallback for site counts where building exact cell polygons is not worth it. The
+ * result can deviate from the exact diagram in a few cells along borders.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class JumpFloodVoronoi {
+
+    /** Cell count from which passes run rows in parallel. */
+    public static final int PARALLEL_CELLS = 1 << 16;
+
+    private int[] front = new int[0];
+    private int[] back = new int[0];
+
+    /**
+     * Computes the nearest site per cell of a {@code w x h} raster.
+     *
+     * @param sx site x in raster units (cell {@code c} spans {@code [c, c + 1)})
+     * @param sy site y in raster units
+     * @param n  number of sites
+     * @return the owning site per cell (row-major), or {@code -1} where no site exists; the array
+     * is reused by the next call
+     */
+    public int[] compute(double[] sx, double[] sy, int n, int w, int h) {
+        int total = w * h;
+        if (front.length < total) {
+            front = new int[total];
+            back = new int[total];
+        }
+        int[] cur = front;
+        int[] next = back;
+        Arrays.fill(cur, 0, total, -1);
+        for (int i = 0; i < n; i++) {
+            int c = (int) Math.floor(sx[i]);
+            int r = (int) Math.floor(sy[i]);
+            if (c < 0 || c >= w || r < 0 || r >= h) continue;
+            int k = r * w + c;
+            int prev = cur[k];
+            if (prev < 0 || dist2(sx, sy, i, c, r) < dist2(sx, sy, prev, c, r)) cur[k] = i;
+        }
+        int step = Integer.highestOneBit(Math.max(1, Math.max(w, h) - 1));
+        boolean parallel = total >= PARALLEL_CELLS;
+        while (step >= 1) {
+            final int s = step;
+            final int[] src = cur;
+            final int[] dst = next;
+            if (parallel) {
+                IntStream.range(0, h).parallel().forEach(r -> pass(src, dst, sx, sy, w, h, r, s));
+            } else {
+                for (int r = 0; r < h; r++) pass(src, dst, sx, sy, w, h, r, s);
+            }
+            cur = dst;
+            next = src;
+            step >>= 1;
+        }
+        front = cur;
+        back = next;
+        return cur;
+    }
+
+    private static void pass(int[] src, int[] dst, double[] sx, double[] sy, int w, int h, int r, int step) {
+        for (int c = 0; c < w; c++) {
+            int best = src[r * w + c];
+            double bestD = best < 0 ? Double.POSITIVE_INFINITY : dist2(sx, sy, best, c, r);
+            for (int dy = -step; dy <= step; dy += step) {
+                int rr = r + dy;
+                if (rr < 0 || rr >= h) continue;
+                for (int dx = -step; dx <= step; dx += step) {
+                    int cc = c + dx;
+                    if (cc < 0 || cc >= w || (dx | dy) == 0) continue;
+                    int site = src[rr * w + cc];
+                    if (site < 0 || site == best) continue;
+                    double d = dist2(sx, sy, site, c, r);
+                    if (d < bestD) {
+                        bestD = d;
+                        best = site;
+                    }
+                }
+            }
+            dst[r * w + c] = best;
+        }
+    }
+
+    private static double dist2(double[] sx, double[] sy, int site, int c, int r) {
+        double dx = sx[site] - (c + 0.5);
+        double dy = sy[site] - (r + 0.5);
+        return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,236 @@
+package com.arbergashi.charts.engine.delaunay;
+
+import com.arbergashi.charts.model.ChartModel;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the Delaunay triangulation of a {@link ChartModel} current across model revisions.
+ *
+ * <p>The triangulation is built in data space normalized by the data extent, so it survives pan
+ * and zoom. It is keyed by model identity, update stamp and point count: when a new revision only
+ * appended points (the stored prefix still matches), they are inserted incrementally and the
+ * snapshot lists the points whose cells changed ({@link Snapshot#getChangedPoints()}); any other
+ * change rebuilds. Rebuilds above {@link #getSyncLimit()} points run on a virtual thread while
+ * {@link #ensure} keeps returning the previous snapshot.</p>
+ *
+ * <p>Intended for a single render thread; snapshots are safe to read from it while a background
+ * rebuild is in flight.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class ModelTriangulation {
+
+    private static final Logger LOGGER = Logger.getLogger(ModelTriangulation.class.getName());
+    private static final ExecutorService BACKGROUND = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().factory());
+
+    private final AtomicBoolean computing = new AtomicBoolean(false);
+    private final AtomicLong ticket = new AtomicLong();
+    private volatile Snapshot current;
+    private int syncLimit = 20_000;
+
+    public int getSyncLimit() {
+        return syncLimit;
+    }
+
+    /**
+     * Sets the largest point count that is rebuilt synchronously on the calling thread.
+     */
+    public ModelTriangulation setSyncLimit(int syncLimit) {
+        this.syncLimit = Math.max(0, syncLimit);
+        return this;
+    }
+
+    /**
+     * Returns the latest snapshot, or {@code null} before the first build completed.
+     */
+    public Snapshot getSnapshot() {
+        return current;
+    }
+
+    /**
+     * Brings the triangulation up to date with the first {@code n} points of {@code model}.
+     *
+     * @return the current snapshot; it may belong to an older revision (or another model) while a
+     * background rebuild is running, or be {@code null}
+     */
+    public Snapshot ensure(ChartModel model, int n) {
+        Snapshot snap = current;
+        long stamp = model.getUpdateStamp();
+        if (snap != null && snap.model == model && snap.stamp == stamp && snap.count == n) return snap;
+        if (computing.get()) return snap;
+
+        if (snap != null && snap.model == model && n >= snap.count && snap.hasPrefixOf(model)) {
+            DelaunayTriangulation dt = snap.triangulation;
+            boolean inside = true;
+            for (int i = snap.count; i < n && inside; i++) {
+                inside = dt.accepts(snap.normX(model.getX(i)), snap.normY(model.getY(i)));
+            }
+            if (inside) {
+                dt.clearChanges();
+                for (int i = snap.count; i < n; i++) {
+                    dt.insert(snap.normX(model.getX(i)), snap.normY(model.getY(i)));
+                }
+                snap = new Snapshot(model, stamp, n, dt, snap.x0, snap.y0, snap.sx, snap.sy,
+                        snap.count, dt.getChangedPoints());
+                current = snap;
+                return snap;
+            }
+        }
+
+        double[] px = new double[n];
+        double[] py = new double[n];
+        for (int i = 0; i < n; i++) {
+            px[i] = model.getX(i);
+            py[i] = model.getY(i);
+        }
+        if (n <= syncLimit) {
+            snap = build(model, stamp, n, px, py);
+            current = snap;
+            return snap;
+        }
+        if (computing.compareAndSet(false, true)) {
+            final long mine = ticket.incrementAndGet();
+            BACKGROUND.submit(() -> {
+                try {
+                    Snapshot built = build(model, stamp, n, px, py);
+                    if (mine == ticket.get()) current = built;
+                } catch (RuntimeException ex) {
+                    // keep the previous snapshot; the next revision retries
+                    LOGGER.log(Level.WARNING, "Background triangulation failed; keeping the previous snapshot", ex);
+                } finally {
+                    computing.set(false);
+                }
+            });
+        }
+        return snap;
+    }
+
+    private static Snapshot build(ChartModel model, long stamp, int n, double[] px, double[] py) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, px[i]);
+            maxX = Math.max(maxX, px[i]);
+            minY = Math.min(minY, py[i]);
+            maxY = Math.max(maxY, py[i]);
+        }
+        double sx = maxX > minX ? 1.0 / (maxX - minX) : 1.0;
+        double sy = maxY > minY ? 1.0 / (maxY - minY) : 1.0;
+        if (!(minX <= maxX)) minX = 0;
+        if (!(minY <= maxY)) minY = 0;
+        for (int i = 0; i < n; i++) {
+            px[i] = (px[i] - minX) * sx;
+            py[i] = (py[i] - minY) * sy;
+        }
+        return new Snapshot(model, stamp, n, DelaunayTriangulation.of(px, py, n), minX, minY, sx, sy, -1, null);
+    }
+
+    /**
+     * Triangulation of one model revision plus its normalization. Appends may extend the
+     * underlying triangulation in place, so derived data should be keyed by {@link #getStamp()}
+     * and {@link #getCount()}.
+     */
+    public static final class Snapshot {
+        private final ChartModel model;
+        private final long stamp;
+        private final int count;
+        private final DelaunayTriangulation triangulation;
+        private final double x0, y0, sx, sy;
+        private final int baseCount;
+        private final int[] changedPoints;
+        private int[] edges;
+
+        Snapshot(ChartModel model, long stamp, int count, DelaunayTriangulation triangulation,
+                 double x0, double y0, double sx, double sy, int baseCount, int[] changedPoints) {
+            this.model = model;
+            this.stamp = stamp;
+            this.count = count;
+            this.triangulation = triangulation;
+            this.x0 = x0;
+            this.y0 = y0;
+            this.sx = sx;
+            this.sy = sy;
+            this.baseCount = baseCount;
+            this.changedPoints = changedPoints;
+        }
+
+        public ChartModel getModel() {
+            return model;
+        }
+
+        public long getStamp() {
+            return stamp;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * The triangulation in normalized coordinates (data extent mapped to {@code [0, 1]}).
+         */
+        public DelaunayTriangulation getTriangulation() {
+            return triangulation;
+        }
+
+        /**
+         * Returns the point count of the snapshot this one extended in place (same
+         * triangulation), or {@code -1} if the triangulation was built from scratch.
+         */
+        public int getBaseCount() {
+            return baseCount;
+        }
+
+        /**
+         * Returns the points whose Voronoi cell differs from the snapshot this one extended, or
+         * {@code null} after a full build. Appended points that were not inserted (duplicates)
+         * are not listed; their cells are empty.
+         */
+        public int[] getChangedPoints() {
+            return changedPoints;
+        }
+
+        /**
+         * Delaunay edges as point index pairs, computed once per snapshot.
+         */
+        public int[] getEdges() {
+            int[] e = edges;
+            if (e == null) {
+                e = triangulation.getEdges();
+                edges = e;
+            }
+            return e;
+        }
+
+        public double normX(double x) {
+            return (x - x0) * sx;
+        }
+
+        public double normY(double y) {
+            return (y - y0) * sy;
+        }
+
+        public double dataX(double nx) {
+            return x0 + nx / sx;
+        }
+
+        public double dataY(double ny) {
+            return y0 + ny / sy;
+        }
+
+        boolean hasPrefixOf(ChartModel m) {
+            for (int i = 0; i < count; i++) {
+                if (normX(m.getX(i)) != triangulation.getX(i) || normY(m.getY(i)) != triangulation.getY(i)) return false;
+            }
+            return true;
+        }
+    }
+}
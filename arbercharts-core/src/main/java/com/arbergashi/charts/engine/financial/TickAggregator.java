@@ -0,0 +1,234 @@
+package com.arbergashi.charts.engine.financial;
+
+import com.arbergashi.charts.model.DefaultFinancialChartModel;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resamples raw trades/ticks into OHLCV bars at several timeframes at once.
+ *
+ * <p><b>Ingest:</b> any number of producer threads call {@link #offer(double, double, long)}.
+ * Ticks land in a bounded, lock-free multi-producer ring (per-slot sequence numbers, no locks,
+ * no allocation). A full ring rejects the tick and counts it in {@link #getRejectedCount()}.</p>
+ *
+ * <p><b>Aggregation:</b> a single consumer thread calls {@link #drain()} (for example once per
+ * frame or from a scheduled task). Every drained tick is folded into each registered timeframe.
+ * Buckets are aligned to the epoch, i.e. a tick at {@code t} belongs to the bar starting at
+ * {@code floor(t / period) * period}. The bar's X value is that start time in epoch
+ * milliseconds.</p>
+ *
+ * <p><b>Notification:</b> per drain and timeframe, the forming bar is written at most once via
+ * {@link DefaultFinancialChartModel#updateLastOHLC}; a bucket rollover appends the new bar via
+ * {@code setOHLC}. Each write fires exactly one targeted bar notification, so a burst of ten
+ * thousand ticks inside one bar costs one repaint rather than ten thousand.</p>
+ *
+ * <p>Ticks older than the forming bar of a timeframe cannot be merged into an already published
+ * bar and are counted in {@link #getLateCount()}.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class TickAggregator {
+
+    private static final VarHandle SEQ = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            TAIL = MethodHandles.lookup().findVarHandle(TickAggregator.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int mask;
+    private final long[] sequences;
+    private final double[] prices;
+    private final double[] sizes;
+    private final long[] stamps;
+
+    @SuppressWarnings("unused") // accessed via TAIL
+    private volatile long tail;
+    private long head;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private long late;
+
+    private Timeframe[] timeframes = new Timeframe[0];
+
+    /**
+     * Creates an aggregator with the given ring capacity (rounded up to a power of two).
+     */
+    public TickAggregator(int capacity) {
+        if (capacity < 2) throw new IllegalArgumentException("capacity must be >= 2");
+        int cap = Integer.highestOneBit(capacity - 1) << 1;
+        if (cap <= 0) throw new IllegalArgumentException("capacity too large");
+        this.mask = cap - 1;
+        this.sequences = new long[cap];
+        this.prices = new double[cap];
+        this.sizes = new double[cap];
+        this.stamps = new long[cap];
+        for (int i = 0; i < cap; i++) {
+            sequences[i] = i;
+        }
+    }
+
+    /**
+     * Registers a timeframe feeding the given model. Must be called from the consumer thread
+     * (or before ingest starts).
+     *
+     * @param period bar length, at least one nanosecond
+     * @param target model receiving the bars
+     * @return this aggregator for chaining
+     */
+    public TickAggregator addTimeframe(Duration period, DefaultFinancialChartModel target) {
+        Objects.requireNonNull(target, "target");
+        long nanos = period.toNanos();
+        if (nanos <= 0) throw new IllegalArgumentException("period must be positive");
+        Timeframe[] next = new Timeframe[timeframes.length + 1];
+        System.arraycopy(timeframes, 0, next, 0, timeframes.length);
+        next[timeframes.length] = new Timeframe(nanos, target);
+        timeframes = next;
+        return this;
+    }
+
+    /**
+     * Publishes a tick. Lock-free and allocation-free; safe from any thread.
+     *
+     * @param price          trade price
+     * @param size           trade size (added to the bar volume)
+     * @param timestampNanos trade time in epoch nanoseconds
+     * @return {@code false} if the ring was full and the tick was rejected
+     */
+    public boolean offer(double price, double size, long timestampNanos) {
+        long pos = (long) TAIL.getOpaque(this);
+        for (; ; ) {
+            int slot = (int) (pos & mask);
+            long seq = (long) SEQ.getAcquire(sequences, slot);
+            long dif = seq - pos;
+            if (dif == 0) {
+                if (TAIL.weakCompareAndSet(this, pos, pos + 1)) {
+                    prices[slot] = price;
+                    sizes[slot] = size;
+                    stamps[slot] = timestampNanos;
+                    SEQ.setRelease(sequences, slot, pos + 1);
+                    return true;
+                }
+                pos = (long) TAIL.getOpaque(this);
+            } else if (dif < 0) {
+                rejected.incrementAndGet();
+                return false;
+            } else {
+                pos = (long) TAIL.getOpaque(this);
+            }
+        }
+    }
+
+    /**
+     * Drains all published ticks and pushes the affected bars to their models.
+     * Single consumer only.
+     *
+     * @return number of ticks consumed
+     */
+    public int drain() {
+        Timeframe[] tfs = timeframes;
+        int consumed = 0;
+        long pos = head;
+        for (; ; ) {
+            int slot = (int) (pos & mask);
+            if ((long) SEQ.getAcquire(sequences, slot) != pos + 1) break;
+            double price = prices[slot];
+            double size = sizes[slot];
+            long ts = stamps[slot];
+            SEQ.setRelease(sequences, slot, pos + mask + 1);
+            pos++;
+            consumed++;
+            for (Timeframe tf : tfs) {
+                if (!tf.accept(price, size, ts)) late++;
+            }
+        }
+        head = pos;
+        for (Timeframe tf : tfs) {
+            tf.flush();
+        }
+        return consumed;
+    }
+
+    /**
+     * Returns the number of ticks rejected because the ring was full.
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Returns how many (tick, timeframe) pairs were dropped because the tick predates the
+     * forming bar. Consumer-thread view.
+     */
+    public long getLateCount() {
+        return late;
+    }
+
+    /**
+     * Returns the ring capacity.
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    private static final class Timeframe {
+        private final long periodNanos;
+        private final DefaultFinancialChartModel target;
+        private long bucket = Long.MIN_VALUE;
+        private double open;
+        private double high;
+        private double low;
+        private double close;
+        private double volume;
+        private boolean dirty;
+        private boolean pendingAppend;
+
+        Timeframe(long periodNanos, DefaultFinancialChartModel target) {
+            this.periodNanos = periodNanos;
+            this.target = target;
+        }
+
+        boolean accept(double price, double size, long ts) {
+            long start = Math.floorDiv(ts, periodNanos) * periodNanos;
+            if (start == bucket) {
+                if (price > high) high = price;
+                if (price < low) low = price;
+                close = price;
+                volume += size;
+                dirty = true;
+                return true;
+            }
+            if (bucket != Long.MIN_VALUE && start < bucket) {
+                return false;
+            }
+            flush();
+            bucket = start;
+            open = high = low = close = price;
+            volume = size;
+            dirty = true;
+            pendingAppend = true;
+            return true;
+        }
+
+        void flush() {
+            if (!dirty) return;
+            dirty = false;
+            if (pendingAppend) {
+                pendingAppend = false;
+                target.setOHLC(bucket / 1_000_000.0, open, high, low, close, volume, null);
+            } else {
+                target.updateLastOHLC(open, high, low, close, volume);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.arbergashi.charts.engine.forensic;
+
+import com.arbergashi.charts.api.forensic.PlaybackController;
+import com.arbergashi.charts.api.forensic.PlaybackSink;
+import com.arbergashi.charts.api.forensic.SeekablePlaybackDrive;
+import com.arbergashi.charts.model.MappedChartModel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a memory-mapped capture (as written by stream drive recording) into a sink.
+ *
+ * <p>Unlike {@link ChronosPlaybackDrive}, the recording stays in the mapped file: each tick looks
+ * up the rows due at the current playback time with the capture's timestamp index, copies them
+ * window by window into reusable column buffers and hands each window to
+ * {@link PlaybackSink#setPoints} as one batch. Seeking is a binary search over the block
+ * summaries, so a 24-hour capture can be entered anywhere without reading what precedes it.</p>
+ */
+final class CapturePlaybackDrive implements SeekablePlaybackDrive {
+    private static final long DEFAULT_TICK_INTERVAL_NANOS = 1_000_000L; // 1 ms
+    private static final int WINDOW_ROWS = 4096;
+
+    private final PlaybackController playbackManager;
+    private final PlaybackSink sink;
+    private final MappedChartModel capture;
+
+    private final double[] xBuf = new double[WINDOW_ROWS];
+    private final double[] yBuf = new double[WINDOW_ROWS];
+    private final double[] minBuf = new double[WINDOW_ROWS];
+    private final double[] maxBuf = new double[WINDOW_ROWS];
+    private final double[] weightBuf = new double[WINDOW_ROWS];
+    private final byte[] flagBuf = new byte[WINDOW_ROWS];
+    private final short[] sourceBuf = new short[WINDOW_ROWS];
+    private final long[] tsBuf = new long[WINDOW_ROWS];
+
+    private int cursor;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    private long lastWallNanos;
+
+    CapturePlaybackDrive(PlaybackController playbackManager, PlaybackSink sink, Path file) throws IOException {
+        this.playbackManager = Objects.requireNonNull(playbackManager, "playbackManager");
+        this.sink = Objects.requireNonNull(sink, "sink");
+        this.capture = MappedChartModel.openReadOnly(Objects.requireNonNull(file, "file"));
+    }
+
+    /**
+     * Starts playback from the current cursor using a high-resolution scheduler.
+     */
+    @Override
+    public synchronized void start() {
+        if (running || cursor >= capture.getPointCount()) return;
+        running = true;
+        playbackManager.setDeterministic(true);
+        playbackManager.reset(capture.getTimestampNanos(cursor));
+        lastWallNanos = System.nanoTime();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "capture-playback");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::tick, 0L, DEFAULT_TICK_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops playback and shuts down the scheduler; the cursor is kept.
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public synchronized void seek(long timestampNanos) {
+        cursor = capture.lowerBoundTimestamp(timestampNanos);
+        if (running && cursor < capture.getPointCount()) {
+            playbackManager.reset(capture.getTimestampNanos(cursor));
+            lastWallNanos = System.nanoTime();
+        }
+    }
+
+    @Override
+    public synchronized long getPositionNanos() {
+        int n = capture.getPointCount();
+        if (n == 0) return 0L;
+        return capture.getTimestampNanos(Math.min(cursor, n - 1));
+    }
+
+    @Override
+    public long getStartTimestampNanos() {
+        if (capture.getPointCount() == 0) return 0L;
+        return capture.getTimestampNanos(0);
+    }
+
+    @Override
+    public long getEndTimestampNanos() {
+        int n = capture.getPointCount();
+        if (n == 0) return 0L;
+        return capture.getTimestampNanos(n - 1);
+    }
+
+    @Override
+    public int getSampleCount() {
+        return capture.getPointCount();
+    }
+
+    @Override
+    public void close() {
+        stop();
+        synchronized (this) {
+            capture.close();
+        }
+    }
+
+    private synchronized void tick() {
+        if (!running) return;
+        long startNanos = System.nanoTime();
+        long delta = Math.max(0L, startNanos - lastWallNanos);
+        lastWallNanos = startNanos;
+
+        playbackManager.advanceByNanos(delta);
+        long playbackNow = playbackManager.getResolvedNowNanos(0L);
+        int n = capture.getPointCount();
+        int due = playbackNow == Long.MAX_VALUE ? n : capture.lowerBoundTimestamp(playbackNow + 1);
+        while (cursor < due) {
+            emitWindow(Math.min(WINDOW_ROWS, due - cursor));
+        }
+        if (cursor >= n) {
+            stop();
+        }
+        if (playbackManager instanceof DeterministicPlaybackManager manager) {
+            manager.recordLatency(System.nanoTime() - startNanos);
+        }
+    }
+
+    private void emitWindow(int rows) {
+        int from = cursor;
+        int len = capture.read(MappedChartModel.Column.X, from, xBuf, 0, rows);
+        capture.read(MappedChartModel.Column.Y, from, yBuf, 0, len);
+        capture.read(MappedChartModel.Column.MIN, from, minBuf, 0, len);
+        capture.read(MappedChartModel.Column.MAX, from, maxBuf, 0, len);
+        capture.read(MappedChartModel.Column.WEIGHT, from, weightBuf, 0, len);
+        capture.readFlags(from, flagBuf, 0, len);
+        capture.readSourceIds(from, sourceBuf, 0, len);
+        capture.readTimestamps(from, tsBuf, 0, len);
+        sink.setPoints(xBuf, yBuf, minBuf, maxBuf, weightBuf, flagBuf, sourceBuf, tsBuf, 0, len);
+        playbackManager.stepTo(tsBuf[len - 1]);
+        cursor = from + len;
+    }
+}
@@ -4,17 +4,46 @@ import com.arbergashi.charts.api.forensic.PlaybackController;
 import com.arbergashi.charts.api.forensic.PlaybackSink;
 import com.arbergashi.charts.api.forensic.StreamBufferStrategy;
 import com.arbergashi.charts.api.forensic.StreamPlaybackDrive;
+import com.arbergashi.charts.model.MappedChartModel;
 import com.arbergashi.charts.model.ProvenanceFlags;
 import com.arbergashi.charts.util.ChartAssets;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Lightweight stream playback drive with a zero-allocation ring buffer.
+ *
+ * <p>Producers enqueue under a {@link ReentrantLock}, so a producer parked by
+ * {@link StreamBufferStrategy#BLOCK} does not pin a virtual thread's carrier. A dedicated daemon
+ * consumer drains the ring into the {@link PlaybackSink} in batches, outside the lock, and appends
+ * each batch to the capture file while {@link #startRecording(Path) recording}.</p>
+ *
+ * <p>On overflow, {@link StreamBufferStrategy#COALESCE} merges the incoming sample into the newest
+ * buffered sample when both fall into the same time bucket, otherwise it merges the two oldest
+ * samples; merged samples keep the min/max envelope, the last x/y/timestamp and the summed weight,
+ * and are flagged {@link ProvenanceFlags#SMOOTHED} unless they already carry a non-original flag.</p>
  */
 final class StreamPlaybackDriveImpl implements StreamPlaybackDrive {
+    private static final Logger LOGGER = Logger.getLogger(StreamPlaybackDriveImpl.class.getName());
+
+    private static final int ACCEPT = 0;
+    private static final int REJECT = 1;
+    private static final int MERGED = 2;
+
     private final PlaybackController controller;
     private final PlaybackSink sink;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private final ReentrantLock recordLock = new ReentrantLock();
+
     private double[] xData;
     private double[] yData;
     private double[] minData;
@@ -24,32 +53,75 @@ final class StreamPlaybackDriveImpl implements StreamPlaybackDrive {
     private byte[] flags;
     private short[] sourceIds;
     private long[] timestamps;
+    private long[] bucketStarts;
 
     private StreamBufferStrategy strategy = StreamBufferStrategy.DROP_OLDEST;
     private String source;
-    private boolean connected;
+    private volatile boolean connected;
     private int head;
     private int tail;
     private int size;
+    private int inFlight;
+    private long blockTimeoutNanos = ChartAssets.getInt("Chart.stream.buffer.block_timeout_ms", 100) * 1_000_000L;
+    private long coalesceWindowNanos = ChartAssets.getInt("Chart.stream.buffer.coalesce_window_us", 1000) * 1_000L;
+    private final int drainBatch = Math.max(1, ChartAssets.getInt("Chart.stream.buffer.drain_batch", 256));
+    private Thread consumer;
+    private volatile MappedChartModel recording;
     private volatile long dropped;
+    private volatile long coalesced;
+    private volatile long blockedNanos;
     private long lastDropPublish = -1;
+    private long lastCoalescePublish = -1;
 
     StreamPlaybackDriveImpl(PlaybackController controller, PlaybackSink sink) {
         this.controller = Objects.requireNonNull(controller, "controller");
         this.sink = Objects.requireNonNull(sink, "sink");
-        resizeBuffers(4096);
+        setCapacity(4096);
     }
 
     @Override
     public void connect(String source) {
-        this.source = source;
-        connected = true;
+        lock.lock();
+        try {
+            this.source = source;
+            connected = true;
+            if (consumer == null || !consumer.isAlive()) {
+                consumer = new Thread(this::drainLoop, "stream-playback-drain");
+                consumer.setDaemon(true);
+                consumer.start();
+            }
+        } finally {
+            lock.unlock();
+        }
         ChartAssets.setProperty("Chart.stream.buffer.strategy", strategy.name());
     }
 
+    /**
+     * Replaces the ring. Under {@link StreamBufferStrategy#BLOCK} a resize that discards buffered
+     * samples also disconnects, so blocked producers fail instead of silently losing data; the
+     * consumer is then retired and a later {@link #connect(String)} starts a fresh one.
+     */
     @Override
     public StreamPlaybackDriveImpl setCapacity(int capacity) {
-        resizeBuffers(capacity);
+        Thread retired = null;
+        lock.lock();
+        try {
+            resizeBuffers(capacity);
+            if (!connected) {
+                retired = consumer;
+                consumer = null;
+                notEmpty.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (retired != null && retired != Thread.currentThread()) {
+            try {
+                retired.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         return this;
     }
 
@@ -58,11 +130,68 @@ final class StreamPlaybackDriveImpl implements StreamPlaybackDrive {
         return xData.length;
     }
 
+    /**
+     * Stops accepting samples, lets the consumer deliver what is already buffered and stops it.
+     */
     @Override
     public void disconnect() {
-        connected = false;
+        Thread worker;
+        lock.lock();
+        try {
+            connected = false;
+            worker = consumer;
+            consumer = null;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (worker != null && worker != Thread.currentThread()) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         ChartAssets.setProperty("Chart.stream.buffer.dropped", Long.toString(dropped));
-        clear();
+        ChartAssets.setProperty("Chart.stream.buffer.coalesced", Long.toString(coalesced));
+        ChartAssets.setProperty("Chart.stream.buffer.blocked_ms", Long.toString(blockedNanos / 1_000_000L));
+        lock.lock();
+        try {
+            clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void startRecording(Path file) throws IOException {
+        MappedChartModel capture = MappedChartModel.create(file);
+        recordLock.lock();
+        try {
+            if (recording != null) recording.close();
+            recording = capture;
+        } finally {
+            recordLock.unlock();
+        }
+    }
+
+    @Override
+    public void stopRecording() {
+        recordLock.lock();
+        try {
+            if (recording != null) {
+                recording.close();
+                recording = null;
+            }
+        } finally {
+            recordLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRecording() {
+        return recording != null;
     }
 
     @Override
@@ -87,15 +216,58 @@ final class StreamPlaybackDriveImpl implements StreamPlaybackDrive {
         return dropped;
     }
 
+    @Override
+    public long getCoalescedCount() {
+        return coalesced;
+    }
+
+    @Override
+    public long getBlockedNanos() {
+        return blockedNanos;
+    }
+
+    @Override
+    public StreamPlaybackDriveImpl setBlockTimeoutNanos(long timeoutNanos) {
+        this.blockTimeoutNanos = Math.max(0L, timeoutNanos);
+        return this;
+    }
+
+    @Override
+    public StreamPlaybackDriveImpl setCoalesceWindowNanos(long windowNanos) {
+        this.coalesceWindowNanos = Math.max(0L, windowNanos);
+        return this;
+    }
+
+    @Override
+    public boolean awaitDrained(long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = timeoutNanos;
+            while (size > 0 || inFlight > 0) {
+                if (remaining <= 0L) return false;
+                remaining = drained.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     @Override
     public boolean offer(double x, double y, double min, double max, double weight,
                          String label, byte flag, short sourceId, long timestampNanos) {
         if (!connected) return false;
         long startNanos = System.nanoTime();
-        synchronized (this) {
+        byte resolvedFlag = (flag != 0) ? flag : ProvenanceFlags.ORIGINAL;
+        lock.lock();
+        try {
+            if (!connected) return false;
             if (size == xData.length) {
-                if (!handleOverflow()) {
-                    return false;
+                int outcome = handleOverflow(x, y, min, max, weight, label, resolvedFlag, sourceId, timestampNanos);
+                if (outcome == REJECT) return false;
+                if (outcome == MERGED) {
+                    recordLatency(startNanos);
+                    return true;
                 }
             }
             int idx = tail;
@@ -105,46 +277,120 @@ final class StreamPlaybackDriveImpl implements StreamPlaybackDrive {
             maxData[idx] = max;
             weightData[idx] = weight;
             labels[idx] = label;
-            flags[idx] = (flag != 0) ? flag : ProvenanceFlags.ORIGINAL;
+            flags[idx] = resolvedFlag;
             sourceIds[idx] = sourceId;
             timestamps[idx] = timestampNanos;
+            bucketStarts[idx] = timestampNanos;
             tail = (tail + 1) % xData.length;
             size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
         }
-        drain();
-        if (controller instanceof DeterministicPlaybackManager manager) {
-            long elapsed = System.nanoTime() - startNanos;
-            manager.recordLatency(elapsed);
-        }
+        recordLatency(startNanos);
         return true;
     }
 
     @Override
     public void close() {
         disconnect();
+        stopRecording();
     }
 
-    private boolean handleOverflow() {
+    private void recordLatency(long startNanos) {
+        if (controller instanceof DeterministicPlaybackManager manager) {
+            manager.recordLatency(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Resolves a full ring; called with the lock held. Returns {@link #ACCEPT} when a slot was
+     * freed, {@link #MERGED} when the sample was absorbed into a buffered one, {@link #REJECT}
+     * when it was dropped.
+     */
+    private int handleOverflow(double x, double y, double min, double max, double weight,
+                               String label, byte flag, short sourceId, long ts) {
+        int capacity = xData.length;
         return switch (strategy) {
             case DROP_OLDEST -> {
-                head = (head + 1) % xData.length;
+                labels[head] = null;
+                head = (head + 1) % capacity;
                 size--;
-                dropped++;
-                publishDropCount();
-                yield true;
+                countDrop();
+                yield ACCEPT;
+            }
+            case DROP_NEWEST -> {
+                countDrop();
+                yield REJECT;
             }
-            case DROP_NEWEST -> false;
             case COALESCE -> {
-                head = (head + 1) % xData.length;
+                int newest = (tail - 1 + capacity) % capacity;
+                long start = bucketStarts[newest];
+                if (ts >= start && ts - start < coalesceWindowNanos) {
+                    merge(newest, x, y, min, max, weight, label, flag, sourceId, ts);
+                    countCoalesced();
+                    yield MERGED;
+                }
+                int oldest = head;
+                int next = (head + 1) % capacity;
+                long oldestStart = bucketStarts[oldest];
+                merge(next, xData[oldest], yData[oldest], minData[oldest], maxData[oldest], weightData[oldest],
+                        labels[oldest], flags[oldest], sourceIds[oldest], Long.MIN_VALUE);
+                bucketStarts[next] = oldestStart;
+                labels[oldest] = null;
+                head = next;
                 size--;
-                dropped++;
-                publishDropCount();
-                yield true;
+                countCoalesced();
+                yield ACCEPT;
             }
-            case BLOCK -> false;
+            case BLOCK -> awaitSpace() ? ACCEPT : REJECT;
         };
     }
 
+    /**
+     * Folds a sample into {@code slot}. A {@code ts} of {@link Long#MIN_VALUE} marks an older
+     * sample, whose x/y/timestamp must not replace the slot's later values.
+     */
+    private void merge(int slot, double x, double y, double min, double max, double weight,
+                       String label, byte flag, short sourceId, long ts) {
+        boolean newer = ts != Long.MIN_VALUE;
+        minData[slot] = Math.min(minData[slot], Math.min(min, y));
+        maxData[slot] = Math.max(maxData[slot], Math.max(max, y));
+        weightData[slot] += weight;
+        if (newer) {
+            xData[slot] = x;
+            yData[slot] = y;
+            timestamps[slot] = ts;
+            sourceIds[slot] = sourceId;
+            if (label != null) labels[slot] = label;
+        } else if (labels[slot] == null) {
+            labels[slot] = label;
+        }
+        byte current = flags[slot];
+        if (newer && flag != ProvenanceFlags.ORIGINAL) {
+            flags[slot] = flag;
+        } else if (current == ProvenanceFlags.ORIGINAL) {
+            flags[slot] = flag != ProvenanceFlags.ORIGINAL ? flag : ProvenanceFlags.SMOOTHED;
+        }
+    }
+
+    private boolean awaitSpace() {
+        long begin = System.nanoTime();
+        long remaining = blockTimeoutNanos;
+        try {
+            while (size == xData.length && connected && remaining > 0L) {
+                remaining = notFull.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            blockedNanos += System.nanoTime() - begin;
+        }
+        if (size < xData.length && connected) return true;
+        countDrop();
+        return false;
+    }
+
     private void resizeBuffers(int capacity) {
         int next = Math.max(64, capacity);
         boolean hadData = size > 0;
@@ -157,60 +403,143 @@ final class StreamPlaybackDriveImpl implements StreamPlaybackDrive {
         flags = new byte[next];
         sourceIds = new short[next];
         timestamps = new long[next];
+        bucketStarts = new long[next];
         head = 0;
         tail = 0;
         size = 0;
         dropped = 0;
+        coalesced = 0;
+        blockedNanos = 0;
         lastDropPublish = -1;
+        lastCoalescePublish = -1;
         if (hadData && strategy == StreamBufferStrategy.BLOCK) {
             connected = false;
+            notEmpty.signalAll();
         }
+        notFull.signalAll();
+        drained.signalAll();
     }
 
-    private void publishDropCount() {
+    private void countDrop() {
+        dropped++;
         if ((dropped & 0xFF) == 0 && dropped != lastDropPublish) {
             lastDropPublish = dropped;
             ChartAssets.setProperty("Chart.stream.buffer.dropped", Long.toString(dropped));
         }
     }
 
-    private void drain() {
+    private void countCoalesced() {
+        coalesced++;
+        if ((coalesced & 0xFF) == 0 && coalesced != lastCoalescePublish) {
+            lastCoalescePublish = coalesced;
+            ChartAssets.setProperty("Chart.stream.buffer.coalesced", Long.toString(coalesced));
+        }
+    }
+
+    /**
+     * Consumer loop: takes up to {@code drainBatch} samples per lock acquisition and delivers them
+     * to the sink without holding the lock. Exits once disconnected and empty.
+     */
+    private void drainLoop() {
+        double[] bx = new double[drainBatch];
+        double[] by = new double[drainBatch];
+        double[] bMin = new double[drainBatch];
+        double[] bMax = new double[drainBatch];
+        double[] bWeight = new double[drainBatch];
+        String[] bLabels = new String[drainBatch];
+        Thread self = Thread.currentThread();
+        byte[] bFlags = new byte[drainBatch];
+        short[] bSources = new short[drainBatch];
+        long[] bTs = new long[drainBatch];
         while (true) {
-            int idx;
-            double x;
-            double y;
-            double min;
-            double max;
-            double weight;
-            String label;
-            byte flag;
-            short sourceId;
-            long ts;
-            synchronized (this) {
-                if (size == 0) {
+            int n;
+            boolean labeled;
+            lock.lock();
+            try {
+                while (size == 0 && connected && consumer == self) {
+                    notEmpty.await();
+                }
+                // exit once disconnected and empty, or when a reconnect started a replacement
+                if (size == 0 || (connected && consumer != self)) {
+                    drained.signalAll();
                     return;
                 }
-                idx = head;
-                x = xData[idx];
-                y = yData[idx];
-                min = minData[idx];
-                max = maxData[idx];
-                weight = weightData[idx];
-                label = labels[idx];
-                flag = flags[idx];
-                sourceId = sourceIds[idx];
-                ts = timestamps[idx];
-                head = (head + 1) % xData.length;
-                size--;
+                n = Math.min(size, drainBatch);
+                labeled = false;
+                int capacity = xData.length;
+                for (int i = 0; i < n; i++) {
+                    int idx = head;
+                    bx[i] = xData[idx];
+                    by[i] = yData[idx];
+                    bMin[i] = minData[idx];
+                    bMax[i] = maxData[idx];
+                    bWeight[i] = weightData[idx];
+                    bLabels[i] = labels[idx];
+                    labeled |= bLabels[i] != null;
+                    bFlags[i] = flags[idx];
+                    bSources[i] = sourceIds[idx];
+                    bTs[i] = timestamps[idx];
+                    labels[idx] = null;
+                    head = (head + 1) % capacity;
+                }
+                size -= n;
+                inFlight = n;
+                notFull.signalAll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            if (labeled) {
+                for (int i = 0; i < n; i++) {
+                    try {
+                        sink.setPoint(bx[i], by[i], bMin[i], bMax[i], bWeight[i], bLabels[i], bFlags[i], bSources[i], bTs[i]);
+                        controller.stepTo(bTs[i]);
+                    } catch (RuntimeException ex) {
+                        LOGGER.log(Level.WARNING, "Playback sink failed and the sample was skipped", ex);
+                    }
+                    bLabels[i] = null;
+                }
+            } else {
+                try {
+                    sink.setPoints(bx, by, bMin, bMax, bWeight, bFlags, bSources, bTs, 0, n);
+                    controller.stepTo(bTs[n - 1]);
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Playback sink failed and the batch was skipped", ex);
+                }
             }
-            sink.setPoint(x, y, min, max, weight, label, flag, sourceId, ts);
-            controller.stepTo(ts);
+            record(bx, by, bMin, bMax, bWeight, bFlags, bSources, bTs, n);
+            lock.lock();
+            try {
+                inFlight = 0;
+                if (size == 0) drained.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void record(double[] x, double[] y, double[] min, double[] max, double[] weight,
+                        byte[] flag, short[] sourceId, long[] ts, int n) {
+        if (recording == null) return;
+        recordLock.lock();
+        try {
+            if (recording != null) recording.appendRows(x, y, min, max, weight, flag, sourceId, ts, 0, n);
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Capture append failed; recording stopped", ex);
+            recording.close();
+            recording = null;
+        } finally {
+            recordLock.unlock();
         }
     }
 
     private void clear() {
+        for (int i = 0; i < size; i++) labels[(head + i) % labels.length] = null;
         head = 0;
         tail = 0;
         size = 0;
+        drained.signalAll();
     }
 }
@@ -0,0 +1,517 @@
+package com.arbergashi.charts.engine.graph;
+
+import com.arbergashi.charts.model.FlowChartModel;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Incremental force-directed layout for {@link FlowChartModel} graphs.
+ *
+ * <p>Runs Fruchterman–Reingold iterations with degree-weighted repulsion (as in ForceAtlas2)
+ * and a weak central gravity that keeps disconnected components together. Repulsion is
+ * approximated with a Barnes–Hut quadtree ({@code O(n log n)} per iteration) and evaluated in
+ * parallel over node chunks once the graph exceeds {@link #setParallelThreshold(int)} nodes.</p>
+ *
+ * <p>{@link #sync(FlowChartModel)} resolves link endpoints through an id→index map once per
+ * topology change. Nodes that survive a change keep their positions and the layout restarts
+ * warm (low temperature), so adding nodes does not reshuffle the whole picture; new nodes are
+ * seeded next to an already placed neighbour. Positions are kept until the next topology change,
+ * so a converged layout costs nothing per frame.</p>
+ *
+ * <p>Positions live in layout space (ideal edge length {@code 1}); renderers fit
+ * {@link #getBounds(double[])} to the plot. Not thread-safe: one owner drives {@code sync} and
+ * {@code step}.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class ForceDirectedLayout {
+
+    private static final int MAX_DEPTH = 48;
+    private static final double COOLING = 0.97;
+    private static final double MIN_TEMPERATURE = 0.005;
+    private static final double WARM_FACTOR = 0.05;
+
+    private double theta = 0.8;
+    private double gravity = 0.01;
+    private int parallelThreshold = 2048;
+
+    // topology
+    private final Map<String, Integer> index = new HashMap<>();
+    private FlowChartModel cachedModel;
+    private long cachedStamp;
+    private int cachedLinks = -1;
+    private int n;
+    private int edgeCount;
+    private String[] ids = new String[0];
+    private int[] edgeSrc = new int[0];
+    private int[] edgeDst = new int[0];
+    private double[] mass = new double[0];
+
+    // state
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private double[] dispX = new double[0];
+    private double[] dispY = new double[0];
+    private double temperature;
+    private boolean converged = true;
+    private int iterations;
+
+    // Barnes–Hut quadtree (flat arrays, reused across iterations)
+    private int cellCount;
+    private int[] firstChild = new int[0];
+    private int[] cellBody = new int[0];
+    private double[] cellMass = new double[0];
+    private double[] comX = new double[0];
+    private double[] comY = new double[0];
+    private double[] cellCx = new double[0];
+    private double[] cellCy = new double[0];
+    private double[] cellHalf = new double[0];
+
+    /**
+     * Sets the Barnes–Hut opening angle; smaller is more exact, {@code 0} is brute force.
+     */
+    public ForceDirectedLayout setTheta(double theta) {
+        this.theta = Math.max(0.0, theta);
+        return this;
+    }
+
+    /**
+     * Sets the strength of the pull towards the origin.
+     */
+    public ForceDirectedLayout setGravity(double gravity) {
+        this.gravity = Math.max(0.0, gravity);
+        return this;
+    }
+
+    /**
+     * Sets the node count from which repulsion is computed on the common fork-join pool.
+     */
+    public ForceDirectedLayout setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+        return this;
+    }
+
+    /**
+     * Synchronizes nodes and edges with the model.
+     *
+     * @return {@code true} if the topology changed and the layout was (re)started
+     */
+    public boolean sync(FlowChartModel model) {
+        List<? extends FlowChartModel.Node> nodes = model.getNodes();
+        List<? extends FlowChartModel.Link> links = model.getLinks();
+        long stamp = model.getUpdateStamp();
+        if (model == cachedModel && stamp == cachedStamp && nodes.size() == n && links.size() == cachedLinks
+                && sameIds(nodes)) {
+            return false;
+        }
+
+        int newN = nodes.size();
+        String[] newIds = new String[newN];
+        double[] newX = new double[newN];
+        double[] newY = new double[newN];
+        boolean[] placed = new boolean[newN];
+        int kept = 0;
+        for (int i = 0; i < newN; i++) {
+            String id = nodes.get(i).getId();
+            newIds[i] = id;
+            Integer old = index.get(id);
+            if (old != null && old < n) {
+                newX[i] = x[old];
+                newY[i] = y[old];
+                placed[i] = true;
+                kept++;
+            }
+        }
+        index.clear();
+        for (int i = 0; i < newN; i++) {
+            index.putIfAbsent(newIds[i], i);
+        }
+
+        int[] src = new int[links.size()];
+        int[] dst = new int[links.size()];
+        double[] newMass = new double[newN];
+        Arrays.fill(newMass, 1.0);
+        int e = 0;
+        for (FlowChartModel.Link link : links) {
+            Integer s = index.get(link.getSource());
+            Integer t = index.get(link.getTarget());
+            if (s == null || t == null || s.intValue() == t.intValue()) continue;
+            src[e] = s;
+            dst[e] = t;
+            newMass[s] += 1.0;
+            newMass[t] += 1.0;
+            e++;
+        }
+
+        double radius = Math.sqrt(Math.max(1, newN));
+        for (int pass = 0; pass < 2 && kept > 0 && kept < newN; pass++) {
+            for (int i = 0; i < e; i++) {
+                seedNextTo(src[i], dst[i], newIds, newX, newY, placed);
+                seedNextTo(dst[i], src[i], newIds, newX, newY, placed);
+            }
+        }
+        for (int i = 0; i < newN; i++) {
+            if (placed[i]) continue;
+            long h = mix(newIds[i] == null ? i : newIds[i].hashCode());
+            double angle = (h & 0xFFFF) / 65536.0 * Math.PI * 2.0;
+            double r = Math.sqrt(((h >>> 16) & 0xFFFF) / 65536.0) * radius * 0.5;
+            newX[i] = Math.cos(angle) * r;
+            newY[i] = Math.sin(angle) * r;
+        }
+
+        ids = newIds;
+        x = newX;
+        y = newY;
+        mass = newMass;
+        edgeSrc = src;
+        edgeDst = dst;
+        edgeCount = e;
+        n = newN;
+        dispX = new double[newN];
+        dispY = new double[newN];
+        cachedModel = model;
+        cachedStamp = stamp;
+        cachedLinks = links.size();
+
+        double cold = radius;
+        temperature = kept > 0 ? Math.max(cold * WARM_FACTOR, MIN_TEMPERATURE * 4) : cold;
+        converged = newN < 2;
+        iterations = 0;
+        return true;
+    }
+
+    /**
+     * Runs iterations until converged, {@code maxIterations} is reached or {@code budgetNanos}
+     * is spent (checked between iterations; {@code <= 0} means unlimited).
+     *
+     * @return number of iterations performed
+     */
+    public int run(int maxIterations, long budgetNanos) {
+        long deadline = budgetNanos > 0 ? System.nanoTime() + budgetNanos : Long.MAX_VALUE;
+        int done = 0;
+        while (done < maxIterations && !converged) {
+            step();
+            done++;
+            if (budgetNanos > 0 && System.nanoTime() - deadline > 0) break;
+        }
+        return done;
+    }
+
+    /**
+     * Performs a single iteration.
+     *
+     * @return {@code true} if the layout has converged
+     */
+    public boolean step() {
+        if (converged) return true;
+        buildTree();
+        if (n >= parallelThreshold) {
+            int chunks = Math.max(1, Math.min(n / 512, Runtime.getRuntime().availableProcessors() * 4));
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] stack = new int[4 * MAX_DEPTH + 8];
+                int from = (int) ((long) n * c / chunks);
+                int to = (int) ((long) n * (c + 1) / chunks);
+                for (int i = from; i < to; i++) repel(i, stack);
+            });
+        } else {
+            int[] stack = new int[4 * MAX_DEPTH + 8];
+            for (int i = 0; i < n; i++) repel(i, stack);
+        }
+
+        for (int e = 0; e < edgeCount; e++) {
+            int s = edgeSrc[e];
+            int t = edgeDst[e];
+            double dx = x[s] - x[t];
+            double dy = y[s] - y[t];
+            double d = Math.sqrt(dx * dx + dy * dy);
+            // Fruchterman–Reingold attraction d^2 / k with k = 1
+            double fx = dx * d;
+            double fy = dy * d;
+            dispX[s] -= fx;
+            dispY[s] -= fy;
+            dispX[t] += fx;
+            dispY[t] += fy;
+        }
+
+        double maxMove = 0.0;
+        double t = temperature;
+        for (int i = 0; i < n; i++) {
+            double dx = dispX[i] - gravity * mass[i] * x[i];
+            double dy = dispY[i] - gravity * mass[i] * y[i];
+            double len = Math.sqrt(dx * dx + dy * dy);
+            if (len > 0.0 && Double.isFinite(len)) {
+                double move = Math.min(len, t);
+                x[i] += dx / len * move;
+                y[i] += dy / len * move;
+                if (move > maxMove) maxMove = move;
+            }
+            dispX[i] = 0.0;
+            dispY[i] = 0.0;
+        }
+        temperature = t * COOLING;
+        iterations++;
+        converged = temperature < MIN_TEMPERATURE || maxMove < MIN_TEMPERATURE;
+        return converged;
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+
+    /**
+     * Returns the iterations performed since the last topology change.
+     */
+    public int getIterationCount() {
+        return iterations;
+    }
+
+    public int getNodeCount() {
+        return n;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the index of the node with the given id, or {@code -1}.
+     */
+    public int indexOf(String id) {
+        Integer i = index.get(id);
+        return i == null ? -1 : i;
+    }
+
+    public String getId(int node) {
+        return ids[node];
+    }
+
+    public double getX(int node) {
+        return x[node];
+    }
+
+    public double getY(int node) {
+        return y[node];
+    }
+
+    public int getEdgeSource(int edge) {
+        return edgeSrc[edge];
+    }
+
+    public int getEdgeTarget(int edge) {
+        return edgeDst[edge];
+    }
+
+    /**
+     * Writes {@code minX, maxX, minY, maxY} of the current positions into {@code out}.
+     */
+    public void getBounds(double[] out) {
+        double minX = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            if (x[i] < minX) minX = x[i];
+            if (x[i] > maxX) maxX = x[i];
+            if (y[i] < minY) minY = y[i];
+            if (y[i] > maxY) maxY = y[i];
+        }
+        if (n == 0) {
+            minX = maxX = minY = maxY = 0.0;
+        }
+        out[0] = minX;
+        out[1] = maxX;
+        out[2] = minY;
+        out[3] = maxY;
+    }
+
+    private boolean sameIds(List<? extends FlowChartModel.Node> nodes) {
+        for (int i = 0; i < n; i++) {
+            if (!nodes.get(i).getId().equals(ids[i])) return false;
+        }
+        return true;
+    }
+
+    private static void seedNextTo(int node, int neighbour, String[] ids, double[] xs, double[] ys, boolean[] placed) {
+        if (placed[node] || !placed[neighbour]) return;
+        long h = mix(ids[node] == null ? node : ids[node].hashCode());
+        double angle = (h & 0xFFFF) / 65536.0 * Math.PI * 2.0;
+        xs[node] = xs[neighbour] + Math.cos(angle) * 0.5;
+        ys[node] = ys[neighbour] + Math.sin(angle) * 0.5;
+        placed[node] = true;
+    }
+
+    private static long mix(long v) {
+        v = (v ^ (v >>> 33)) * 0xff51afd7ed558ccdL;
+        v = (v ^ (v >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return v ^ (v >>> 33);
+    }
+
+    // ---- Barnes–Hut ----------------------------------------------------------------------
+
+    private void buildTree() {
+        double minX = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            if (x[i] < minX) minX = x[i];
+            if (x[i] > maxX) maxX = x[i];
+            if (y[i] < minY) minY = y[i];
+            if (y[i] > maxY) maxY = y[i];
+        }
+        cellCount = 0;
+        ensureCells(Math.max(64, n * 2));
+        double half = Math.max(maxX - minX, maxY - minY) * 0.5 + 1e-9;
+        newCell((minX + maxX) * 0.5, (minY + maxY) * 0.5, half);
+        for (int i = 0; i < n; i++) insert(i);
+        // children are always created after their parent, so a reverse sweep aggregates bottom-up
+        for (int c = cellCount - 1; c >= 0; c--) {
+            int fc = firstChild[c];
+            if (fc >= 0) {
+                double m = 0.0;
+                double sx = 0.0;
+                double sy = 0.0;
+                for (int q = fc; q < fc + 4; q++) {
+                    double cm = cellMass[q];
+                    if (cm == 0.0) continue;
+                    m += cm;
+                    sx += comX[q] * cm;
+                    sy += comY[q] * cm;
+                }
+                cellMass[c] = m;
+                comX[c] = m > 0.0 ? sx / m : cellCx[c];
+                comY[c] = m > 0.0 ? sy / m : cellCy[c];
+            } else if (cellMass[c] > 0.0) {
+                comX[c] /= cellMass[c];
+                comY[c] /= cellMass[c];
+            }
+        }
+    }
+
+    private void insert(int b) {
+        int c = 0;
+        int depth = 0;
+        double bx = x[b];
+        double by = y[b];
+        double m = mass[b];
+        for (; ; ) {
+            int fc = firstChild[c];
+            if (fc >= 0) {
+                c = fc + quadrant(c, bx, by);
+                depth++;
+                continue;
+            }
+            if (cellMass[c] == 0.0) {
+                cellBody[c] = b;
+                cellMass[c] = m;
+                comX[c] = bx * m;
+                comY[c] = by * m;
+                return;
+            }
+            if (depth >= MAX_DEPTH) {
+                // coincident bodies: aggregate instead of subdividing forever
+                cellBody[c] = -1;
+                cellMass[c] += m;
+                comX[c] += bx * m;
+                comY[c] += by * m;
+                return;
+            }
+            int existing = cellBody[c];
+            double h = cellHalf[c] * 0.5;
+            double cx = cellCx[c];
+            double cy = cellCy[c];
+            int first = newCell(cx - h, cy - h, h);
+            newCell(cx + h, cy - h, h);
+            newCell(cx - h, cy + h, h);
+            newCell(cx + h, cy + h, h);
+            firstChild[c] = first;
+            int q = first + quadrant(c, x[existing], y[existing]);
+            cellBody[q] = existing;
+            cellMass[q] = cellMass[c];
+            comX[q] = comX[c];
+            comY[q] = comY[c];
+            cellBody[c] = -1;
+            cellMass[c] = 0.0;
+            comX[c] = 0.0;
+            comY[c] = 0.0;
+        }
+    }
+
+    private int quadrant(int c, double px, double py) {
+        return (px >= cellCx[c] ? 1 : 0) | (py >= cellCy[c] ? 2 : 0);
+    }
+
+    private int newCell(double cx, double cy, double half) {
+        if (cellCount == firstChild.length) ensureCells(cellCount * 2);
+        int c = cellCount++;
+        firstChild[c] = -1;
+        cellBody[c] = -1;
+        cellMass[c] = 0.0;
+        comX[c] = 0.0;
+        comY[c] = 0.0;
+        cellCx[c] = cx;
+        cellCy[c] = cy;
+        cellHalf[c] = half;
+        return c;
+    }
+
+    private void ensureCells(int capacity) {
+        if (firstChild.length >= capacity) return;
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        cellBody = Arrays.copyOf(cellBody, capacity);
+        cellMass = Arrays.copyOf(cellMass, capacity);
+        comX = Arrays.copyOf(comX, capacity);
+        comY = Arrays.copyOf(comY, capacity);
+        cellCx = Arrays.copyOf(cellCx, capacity);
+        cellCy = Arrays.copyOf(cellCy, capacity);
+        cellHalf = Arrays.copyOf(cellHalf, capacity);
+    }
+
+    /**
+     * Accumulates the approximate repulsion on body {@code i} (repulsion {@code k^2 m_i m_j / d}).
+     */
+    private void repel(int i, int[] stack) {
+        double px = x[i];
+        double py = y[i];
+        double mi = mass[i];
+        double theta2 = theta * theta;
+        double fx = 0.0;
+        double fy = 0.0;
+        int sp = 0;
+        stack[sp++] = 0;
+        while (sp > 0) {
+            int c = stack[--sp];
+            double cm = cellMass[c];
+            if (cm == 0.0 || cellBody[c] == i) continue;
+            double dx = px - comX[c];
+            double dy = py - comY[c];
+            double d2 = dx * dx + dy * dy;
+            int fc = firstChild[c];
+            double size = cellHalf[c] * 2.0;
+            if (fc < 0 || size * size < theta2 * d2) {
+                if (d2 < 1e-12) {
+                    // coincident: push apart along a deterministic direction
+                    dx = ((i * 0x9E3779B9L) & 1) == 0 ? 1e-3 : -1e-3;
+                    dy = ((i * 0x85EBCA6BL) & 2) == 0 ? 1e-3 : -1e-3;
+                    d2 = 2e-6;
+                }
+                double f = mi * cm / d2;
+                fx += dx * f;
+                fy += dy * f;
+            } else {
+                stack[sp++] = fc;
+                stack[sp++] = fc + 1;
+                stack[sp++] = fc + 2;
+                stack[sp++] = fc + 3;
+            }
+        }
+        dispX[i] = fx;
+        dispY[i] = fy;
+    }
+}
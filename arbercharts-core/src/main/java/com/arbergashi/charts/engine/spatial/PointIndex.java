@@ -0,0 +1,432 @@
+package com.arbergashi.charts.engine.spatial;
+
+import com.arbergashi.charts.api.PlotContext;
+import com.arbergashi.charts.model.ChartModel;
+
+import java.util.Arrays;
+import java.util.WeakHashMap;
+
+/**
+ * Data-space point index for hit testing (hover, tooltips, crosshair snapping, selection).
+ *
+ * <p>Series whose x values are non-decreasing are answered by binary search on x and need no
+ * extra memory. Other series get a uniform grid in compressed-row layout (about four points per
+ * cell), so a query only visits the cells under the pixel radius.</p>
+ *
+ * <p>The index follows the model incrementally. It is keyed by update stamp, point count and
+ * {@link ChartModel#getFirstSequence()}: appended points are checked for monotonicity or parked in
+ * an overflow list, evicted points (a sliding window advancing its first sequence) are skipped by
+ * sequence number, and the grid is rebuilt only once the overflow or the evicted share grows past
+ * a fraction of the live points. A handful of sampled points guards against in-place rewrites;
+ * any mismatch rebuilds.</p>
+ *
+ * <p>Queries take the model and the plot context, sync first, and measure distances in pixels
+ * through {@link PlotContext#mapToPixel}, so logarithmic and inverted axes need no special care.
+ * All methods are synchronized; one index is usually shared per model via {@link #forModel}.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class PointIndex {
+
+    private static final WeakHashMap<ChartModel, PointIndex> SHARED = new WeakHashMap<>();
+
+    private static final int POINTS_PER_CELL = 4;
+    private static final int MAX_DIM = 2048;
+    private static final int MIN_OVERFLOW = 1024;
+    private static final int SAMPLES = 8;
+
+    // indexed window: absolute sequences [first, end)
+    private boolean valid;
+    private long stamp;
+    private long first;
+    private long end;
+    private boolean monotonic;
+    private double lastX;
+
+    // grid, only when not monotonic; items are sequence - gridBase
+    private long gridBase;
+    private int cols;
+    private int rows;
+    private double gx0;
+    private double gy0;
+    private double invW;
+    private double invH;
+    private int gridItems;
+    private int[] cellStart = new int[0];
+    private int[] cellItems = new int[0];
+    private int[] cellOf = new int[0];
+    private int[] overflow = new int[64];
+    private int overflowCount;
+
+    private final long[] sampleSeq = new long[SAMPLES];
+    private final double[] sampleX = new double[SAMPLES];
+    private final double[] sampleY = new double[SAMPLES];
+    private int sampleCount;
+
+    // query state
+    private final double[] pix = new double[2];
+    private double qx0, qx1, qy0, qy1, qpx, qpy, qr2;
+    private int bestIndex;
+    private double bestDist;
+    private int[] hits;
+    private int hitCount;
+
+    /**
+     * Returns the index shared by everything that hit-tests {@code model}. The model is weakly
+     * referenced.
+     */
+    public static PointIndex forModel(ChartModel model) {
+        synchronized (SHARED) {
+            return SHARED.computeIfAbsent(model, k -> new PointIndex());
+        }
+    }
+
+    /**
+     * Returns the point closest to the pixel location, or {@code -1} when none lies strictly
+     * within {@code radius} pixels.
+     */
+    public synchronized int nearest(ChartModel model, PlotContext context, double px, double py, double radius) {
+        hits = null;
+        return search(model, context, px, py, radius) ? bestIndex : -1;
+    }
+
+    /**
+     * Collects the points strictly within {@code radius} pixels, in no particular order.
+     *
+     * @param out receives up to {@code out.length} point indices
+     * @return the number of points found, which may exceed {@code out.length}
+     */
+    public synchronized int withinRadius(ChartModel model, PlotContext context, double px, double py, double radius, int[] out) {
+        hits = out;
+        hitCount = 0;
+        boolean ok = search(model, context, px, py, radius);
+        hits = null;
+        return ok ? hitCount : 0;
+    }
+
+    /**
+     * Returns the point whose x value is closest to {@code x}, or {@code -1} for an empty model.
+     */
+    public synchronized int nearestX(ChartModel model, double x) {
+        try {
+            sync(model);
+            int n = (int) (end - first);
+            if (n == 0 || Double.isNaN(x)) return -1;
+            if (monotonic) {
+                int i = lowerBound(model, n, x);
+                if (i == n) return n - 1;
+                if (i == 0) return 0;
+                return x - model.getX(i - 1) <= model.getX(i) - x ? i - 1 : i;
+            }
+            return nearestXInGrid(model, x);
+        } catch (IndexOutOfBoundsException concurrentShrink) {
+            valid = false;
+            return -1;
+        }
+    }
+
+    /**
+     * For series with non-decreasing x, stores the index range {@code [range[0], range[1])} of the
+     * points with {@code x0 <= x <= x1} and returns {@code true}; returns {@code false} otherwise.
+     * Lets callers that read other channels than {@link ChartModel#getY} narrow their own scan.
+     */
+    public synchronized boolean xWindow(ChartModel model, double x0, double x1, int[] range) {
+        try {
+            sync(model);
+            if (!monotonic) return false;
+            int n = (int) (end - first);
+            range[0] = lowerBound(model, n, Math.min(x0, x1));
+            range[1] = upperBound(model, n, Math.max(x0, x1));
+            return true;
+        } catch (IndexOutOfBoundsException concurrentShrink) {
+            valid = false;
+            return false;
+        }
+    }
+
+    /**
+     * True when the last sync found the x values non-decreasing.
+     */
+    public synchronized boolean isMonotonic() {
+        return monotonic;
+    }
+
+    private boolean search(ChartModel model, PlotContext context, double px, double py, double radius) {
+        try {
+            sync(model);
+            int n = (int) (end - first);
+            bestIndex = -1;
+            if (n == 0 || !(radius > 0)) return false;
+            bestDist = radius * radius;
+            qr2 = bestDist;
+            qpx = px;
+            qpy = py;
+            // data-space box of the pixel square, one pixel wider against rounding
+            double r = radius + 1.0;
+            context.mapToData(px - r, py - r, pix);
+            double ax = pix[0], ay = pix[1];
+            context.mapToData(px + r, py + r, pix);
+            qx0 = Math.min(ax, pix[0]);
+            qx1 = Math.max(ax, pix[0]);
+            qy0 = Math.min(ay, pix[1]);
+            qy1 = Math.max(ay, pix[1]);
+            if (!(qx0 <= qx1)) {
+                qx0 = Double.NEGATIVE_INFINITY;
+                qx1 = Double.POSITIVE_INFINITY;
+            }
+            if (!(qy0 <= qy1)) {
+                qy0 = Double.NEGATIVE_INFINITY;
+                qy1 = Double.POSITIVE_INFINITY;
+            }
+
+            if (monotonic) {
+                int hi = upperBound(model, n, qx1);
+                for (int i = lowerBound(model, n, qx0); i < hi; i++) consider(model, context, i);
+                return true;
+            }
+            if (gridItems > 0 && qx1 >= gx0 && qy1 >= gy0) {
+                int c0 = column(qx0), c1 = column(qx1);
+                int r0 = row(qy0), r1 = row(qy1);
+                for (int row = r0; row <= r1; row++) {
+                    int base = row * cols;
+                    for (int k = cellStart[base + c0], e = cellStart[base + c1 + 1]; k < e; k++) {
+                        long seq = gridBase + cellItems[k];
+                        if (seq >= first) consider(model, context, (int) (seq - first));
+                    }
+                }
+            }
+            for (int k = 0; k < overflowCount; k++) {
+                long seq = gridBase + overflow[k];
+                if (seq >= first) consider(model, context, (int) (seq - first));
+            }
+            return true;
+        } catch (IndexOutOfBoundsException concurrentShrink) {
+            valid = false;
+            return false;
+        }
+    }
+
+    private void consider(ChartModel model, PlotContext context, int i) {
+        double x = model.getX(i);
+        double y = model.getY(i);
+        if (!(x >= qx0 && x <= qx1 && y >= qy0 && y <= qy1)) return;
+        context.mapToPixel(x, y, pix);
+        double dx = pix[0] - qpx;
+        double dy = pix[1] - qpy;
+        double d = dx * dx + dy * dy;
+        if (hits != null) {
+            if (d < qr2) {
+                if (hitCount < hits.length) hits[hitCount] = i;
+                hitCount++;
+            }
+        } else if (d < bestDist) {
+            bestDist = d;
+            bestIndex = i;
+        }
+    }
+
+    private int nearestXInGrid(ChartModel model, double x) {
+        int best = -1;
+        double bestDx = Double.POSITIVE_INFINITY;
+        for (int k = 0; k < overflowCount; k++) {
+            long seq = gridBase + overflow[k];
+            if (seq < first) continue;
+            int i = (int) (seq - first);
+            double dx = Math.abs(model.getX(i) - x);
+            if (dx < bestDx) {
+                bestDx = dx;
+                best = i;
+            }
+        }
+        if (gridItems == 0) return best;
+        int c = column(x);
+        double cellW = invW > 0 ? 1.0 / invW : 0.0;
+        for (int ring = 0; ring < cols; ring++) {
+            // every column farther out than this ring is at least ring * cellW away
+            if (best >= 0 && bestDx <= ring * cellW) break;
+            for (int side = 0; side < 2; side++) {
+                int col = side == 0 ? c - ring : c + ring;
+                if (col < 0 || col >= cols || (side == 1 && ring == 0)) continue;
+                for (int row = 0; row < rows; row++) {
+                    int cell = row * cols + col;
+                    for (int k = cellStart[cell], e = cellStart[cell + 1]; k < e; k++) {
+                        long seq = gridBase + cellItems[k];
+                        if (seq < first) continue;
+                        int i = (int) (seq - first);
+                        double dx = Math.abs(model.getX(i) - x);
+                        if (dx < bestDx) {
+                            bestDx = dx;
+                            best = i;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private void sync(ChartModel model) {
+        long s = model.getUpdateStamp();
+        int n = model.getPointCount();
+        long f = model.getFirstSequence();
+        if (valid && s == stamp && f == first && f + n == end) return;
+        if (!valid || f < first || f + n < end || f > end || !samplesMatch(model, f, n)) {
+            rebuild(model, f, n);
+        } else {
+            first = f;
+            if (f + n > end && !append(model, f, n)) {
+                rebuild(model, f, n);
+            } else if (!monotonic && (overflowCount > Math.max(MIN_OVERFLOW, n >> 3) || first - gridBase > n)) {
+                rebuild(model, f, n);
+            }
+        }
+        stamp = s;
+        takeSamples(model, f, n);
+    }
+
+    private boolean append(ChartModel model, long f, int n) {
+        long newEnd = f + n;
+        if (monotonic) {
+            double prev = lastX;
+            for (long seq = end; seq < newEnd; seq++) {
+                double x = model.getX((int) (seq - f));
+                if (!(x >= prev)) return false;
+                prev = x;
+            }
+            lastX = prev;
+        } else {
+            if (newEnd - gridBase > Integer.MAX_VALUE) return false;
+            int add = (int) (newEnd - end);
+            if (overflowCount + add > overflow.length) {
+                overflow = Arrays.copyOf(overflow, Math.max(overflowCount + add, overflow.length * 2));
+            }
+            for (long seq = end; seq < newEnd; seq++) overflow[overflowCount++] = (int) (seq - gridBase);
+        }
+        end = newEnd;
+        return true;
+    }
+
+    private void rebuild(ChartModel model, long f, int n) {
+        valid = true;
+        first = f;
+        end = f + n;
+        gridBase = f;
+        overflowCount = 0;
+        gridItems = 0;
+        monotonic = true;
+        double prev = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double x = model.getX(i);
+            if (!(x >= prev)) {
+                monotonic = false;
+                break;
+            }
+            prev = x;
+        }
+        lastX = prev;
+        if (!monotonic) buildGrid(model, n);
+    }
+
+    private void buildGrid(ChartModel model, int n) {
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        int live = 0;
+        for (int i = 0; i < n; i++) {
+            double x = model.getX(i), y = model.getY(i);
+            if (!Double.isFinite(x) || !Double.isFinite(y)) continue;
+            if (x < minX) minX = x;
+            if (x > maxX) maxX = x;
+            if (y < minY) minY = y;
+            if (y > maxY) maxY = y;
+            live++;
+        }
+        if (live == 0) return;
+        int dim = (int) Math.min(MAX_DIM, Math.max(1, Math.ceil(Math.sqrt(live / (double) POINTS_PER_CELL))));
+        cols = dim;
+        rows = dim;
+        gx0 = minX;
+        gy0 = minY;
+        invW = maxX > minX ? cols / (maxX - minX) : 0.0;
+        invH = maxY > minY ? rows / (maxY - minY) : 0.0;
+        int cells = cols * rows;
+        if (cellStart.length < cells + 1) cellStart = new int[cells + 1];
+        else Arrays.fill(cellStart, 0, cells + 1, 0);
+        if (cellOf.length < n) cellOf = new int[n];
+        if (cellItems.length < live) cellItems = new int[live];
+
+        for (int i = 0; i < n; i++) {
+            double x = model.getX(i), y = model.getY(i);
+            if (!Double.isFinite(x) || !Double.isFinite(y)) {
+                cellOf[i] = -1;
+                continue;
+            }
+            int c = row(y) * cols + column(x);
+            cellOf[i] = c;
+            cellStart[c]++;
+        }
+        // inclusive prefix sums, then a reverse fill moves each entry back to its cell's start
+        for (int c = 1; c < cells; c++) cellStart[c] += cellStart[c - 1];
+        cellStart[cells] = live;
+        for (int i = n - 1; i >= 0; i--) {
+            int c = cellOf[i];
+            if (c >= 0) cellItems[--cellStart[c]] = i;
+        }
+        gridItems = live;
+    }
+
+    private int column(double x) {
+        double c = (x - gx0) * invW;
+        if (!(c > 0)) return 0;
+        return c >= cols ? cols - 1 : (int) c;
+    }
+
+    private int row(double y) {
+        double r = (y - gy0) * invH;
+        if (!(r > 0)) return 0;
+        return r >= rows ? rows - 1 : (int) r;
+    }
+
+    private boolean samplesMatch(ChartModel model, long f, int n) {
+        for (int k = 0; k < sampleCount; k++) {
+            long seq = sampleSeq[k];
+            if (seq < f || seq >= f + n) continue;
+            int i = (int) (seq - f);
+            if (Double.compare(model.getX(i), sampleX[k]) != 0 || Double.compare(model.getY(i), sampleY[k]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void takeSamples(ChartModel model, long f, int n) {
+        sampleCount = Math.min(SAMPLES, n);
+        for (int k = 0; k < sampleCount; k++) {
+            int i = sampleCount == 1 ? n - 1 : (int) ((long) (n - 1) * k / (sampleCount - 1));
+            sampleSeq[k] = f + i;
+            sampleX[k] = model.getX(i);
+            sampleY[k] = model.getY(i);
+        }
+    }
+
+    private static int lowerBound(ChartModel model, int n, double key) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (model.getX(mid) < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int upperBound(ChartModel model, int n, double key) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (model.getX(mid) <= key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
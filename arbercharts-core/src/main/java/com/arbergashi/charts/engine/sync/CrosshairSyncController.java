@@ -1,5 +1,8 @@
 package com.arbergashi.charts.engine.sync;
 
+import com.arbergashi.charts.engine.spatial.PointIndex;
+import com.arbergashi.charts.model.ChartModel;
+
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 /**
@@ -36,6 +39,20 @@ public class CrosshairSyncController {
         return this;
     }
 
+    /**
+     * Returns the index of the point in {@code model} whose x is closest to the crosshair, for
+     * snapping tooltips and markers. Uses the model's shared {@link PointIndex}.
+     *
+     * @param model series to snap to
+     * @return point index, or -1 when the crosshair is unset or the model is empty
+     * @since 2.1.0
+     */
+    public int nearestIndex(ChartModel model) {
+        double x = xPosition;
+        if (model == null || Double.isNaN(x)) return -1;
+        return PointIndex.forModel(model).nearestX(model, x);
+    }
+
     /**
      * Registers a listener for crosshair updates.
      *
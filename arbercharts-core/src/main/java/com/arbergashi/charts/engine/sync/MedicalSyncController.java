@@ -31,16 +31,44 @@ public class MedicalSyncController {
 
     /**
      * Pushes a new sample across all channels at the same timestamp.
+     * All models are written first and published together; listeners are notified only once
+     * every model holds the sample.
      *
      * @param x    The timestamp shared across all models.
      * @param data A 2D array: {@code [modelIndex][channelIndex]}.
      */
     public void tick(double x, double[][] data) {
         // Iteration over CopyOnWriteArrayList is safe and efficient for read-heavy scenarios
-        for (int i = 0; i < models.size(); i++) {
-            if (i < data.length) {
-                models.get(i).add(x, data[i]);
-            }
+        int n = Math.min(models.size(), data.length);
+        for (int i = 0; i < n; i++) {
+            models.get(i).stage(x, data[i]);
+        }
+        publishAll(n);
+    }
+
+    /**
+     * Pushes {@code len} samples per model in one batched publish.
+     *
+     * @param x    timestamps shared across all models, read from {@code off}
+     * @param data {@code [modelIndex][channelIndex][sample]}
+     * @param off  first sample to read
+     * @param len  number of samples
+     * @since 2.1.0
+     */
+    public void tickFrame(double[] x, double[][][] data, int off, int len) {
+        int n = Math.min(models.size(), data.length);
+        for (int i = 0; i < n; i++) {
+            models.get(i).stageFrame(x, data[i], off, len);
+        }
+        publishAll(n);
+    }
+
+    private void publishAll(int n) {
+        for (int i = 0; i < n; i++) {
+            models.get(i).publishQuietly();
+        }
+        for (int i = 0; i < n; i++) {
+            models.get(i).notifyChanged();
         }
     }
 
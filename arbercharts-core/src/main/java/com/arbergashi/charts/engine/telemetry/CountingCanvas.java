@@ -0,0 +1,147 @@
+package com.arbergashi.charts.engine.telemetry;
+
+import com.arbergashi.charts.api.types.ArberColor;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.core.rendering.ArberMatrix;
+import com.arbergashi.charts.core.rendering.MarkerShape;
+import com.arbergashi.charts.core.rendering.RasterBuffer;
+import com.arbergashi.charts.core.rendering.VoxelBuffer;
+
+/**
+ * Delegating canvas that counts emitted primitives for the active frame.
+ *
+ * <p>Every method is forwarded, including interface defaults, so the delegate's own fast paths
+ * (e.g. raster blits) stay in use. A primitive is one draw call: a line segment, polyline,
+ * rectangle, polygon, text run, raster or voxel field; batched calls count each element. State
+ * changes are not counted.</p>
+ */
+final class CountingCanvas implements ArberCanvas {
+    private ArberCanvas delegate;
+    long primitives;
+
+    CountingCanvas wrap(ArberCanvas canvas) {
+        this.delegate = canvas;
+        return this;
+    }
+
+    @Override
+    public void setColor(ArberColor color) {
+        delegate.setColor(color);
+    }
+
+    @Override
+    public void setStroke(float width) {
+        delegate.setStroke(width);
+    }
+
+    @Override
+    public void moveTo(float x, float y) {
+        delegate.moveTo(x, y);
+    }
+
+    @Override
+    public void lineTo(float x, float y) {
+        primitives++;
+        delegate.lineTo(x, y);
+    }
+
+    @Override
+    public void drawPolyline(float[] xs, float[] ys, int count) {
+        primitives++;
+        delegate.drawPolyline(xs, ys, count);
+    }
+
+    @Override
+    public void drawRect(float x, float y, float w, float h) {
+        primitives++;
+        delegate.drawRect(x, y, w, h);
+    }
+
+    @Override
+    public void fillRect(float x, float y, float w, float h) {
+        primitives++;
+        delegate.fillRect(x, y, w, h);
+    }
+
+    @Override
+    public void fillPolygon(float[] xs, float[] ys, int count) {
+        primitives++;
+        delegate.fillPolygon(xs, ys, count);
+    }
+
+    @Override
+    public void drawVoxelField(VoxelBuffer buffer) {
+        primitives++;
+        delegate.drawVoxelField(buffer);
+    }
+
+    @Override
+    public ArberMatrix getTransform() {
+        return delegate.getTransform();
+    }
+
+    @Override
+    public void setClip(ArberRect clip) {
+        delegate.setClip(clip);
+    }
+
+    @Override
+    public ArberRect getClip() {
+        return delegate.getClip();
+    }
+
+    @Override
+    public void drawText(float x, float y, String text) {
+        primitives++;
+        delegate.drawText(x, y, text);
+    }
+
+    @Override
+    public void drawLine(float x1, float y1, float x2, float y2) {
+        primitives++;
+        delegate.drawLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawRaster(RasterBuffer raster, float x, float y) {
+        primitives++;
+        delegate.drawRaster(raster, x, y);
+    }
+
+    @Override
+    public void drawRect(ArberRect rect) {
+        primitives++;
+        delegate.drawRect(rect);
+    }
+
+    @Override
+    public void fillRect(ArberRect rect) {
+        primitives++;
+        delegate.fillRect(rect);
+    }
+
+    @Override
+    public void fillRects(float[] x, float[] y, float[] w, float[] h, int[] argb, int count) {
+        primitives += Math.max(0, count);
+        delegate.fillRects(x, y, w, h, argb, count);
+    }
+
+    @Override
+    public void drawSegments(float[] x0, float[] y0, float[] x1, float[] y1, int[] argb, int count) {
+        primitives += Math.max(0, count);
+        delegate.drawSegments(x0, y0, x1, y1, argb, count);
+    }
+
+    @Override
+    public void drawMarkers(MarkerShape shape, float[] xs, float[] ys, float size, int[] argb, int count) {
+        primitives += Math.max(0, count);
+        delegate.drawMarkers(shape, xs, ys, size, argb, count);
+    }
+
+    @Override
+    public void fillQuads(float[] xs, float[] ys, int[] argb, int count) {
+        primitives += Math.max(0, count);
+        delegate.fillQuads(xs, ys, argb, count);
+    }
+}
@@ -0,0 +1,102 @@
+package com.arbergashi.charts.engine.telemetry;
+
+import java.util.Arrays;
+
+/**
+ * Immutable timing breakdown of one rendered frame.
+ *
+ * <p>Stages are listed in the order they finished; nested stages (e.g. decimation within a data
+ * layer) therefore appear before their enclosing stage.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class FrameBreakdown {
+    private static final RenderStage[] STAGES = RenderStage.values();
+
+    private final long frameId;
+    private final long startNanos;
+    private final long totalNanos;
+    private final byte[] stages;
+    private final String[] labels;
+    private final long[] durations;
+    private final long[] points;
+    private final long[] primitives;
+
+    FrameBreakdown(long frameId, long startNanos, long totalNanos, int count, byte[] stages, String[] labels,
+                   long[] durations, long[] points, long[] primitives) {
+        this.frameId = frameId;
+        this.startNanos = startNanos;
+        this.totalNanos = totalNanos;
+        this.stages = Arrays.copyOf(stages, count);
+        this.labels = Arrays.copyOf(labels, count);
+        this.durations = Arrays.copyOf(durations, count);
+        this.points = Arrays.copyOf(points, count);
+        this.primitives = Arrays.copyOf(primitives, count);
+    }
+
+    /** Sequence number of the frame within its profiler. */
+    public long getFrameId() {
+        return frameId;
+    }
+
+    /** {@link System#nanoTime()} at frame start. */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /** Wall time of the whole frame. */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public int getStageCount() {
+        return stages.length;
+    }
+
+    public RenderStage getStage(int index) {
+        return STAGES[stages[index]];
+    }
+
+    /** Layer label (usually the renderer name), or {@code null} for unlabeled stages. */
+    public String getLabel(int index) {
+        return labels[index];
+    }
+
+    public long getDurationNanos(int index) {
+        return durations[index];
+    }
+
+    public long getPoints(int index) {
+        return points[index];
+    }
+
+    public long getPrimitives(int index) {
+        return primitives[index];
+    }
+
+    /**
+     * Returns the summed duration of all entries of {@code stage}.
+     */
+    public long getStageNanos(RenderStage stage) {
+        long sum = 0L;
+        for (int i = 0; i < stages.length; i++) {
+            if (stages[i] == stage.ordinal()) sum += durations[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(64 + stages.length * 40);
+        sb.append("Frame ").append(frameId).append(": ").append(totalNanos / 1_000L).append("us");
+        for (int i = 0; i < stages.length; i++) {
+            sb.append("\n  ").append(STAGES[stages[i]]);
+            if (labels[i] != null) sb.append(' ').append(labels[i]);
+            sb.append(' ').append(durations[i] / 1_000L).append("us points=").append(points[i])
+                    .append(" primitives=").append(primitives[i]);
+        }
+        return sb.toString();
+    }
+}
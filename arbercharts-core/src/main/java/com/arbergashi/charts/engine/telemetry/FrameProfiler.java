@@ -0,0 +1,300 @@
+package com.arbergashi.charts.engine.telemetry;
+
+import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.util.ChartAssets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects per-stage timings for the frames of one render surface.
+ *
+ * <p>A surface (a chart panel, a server render service) owns one profiler and brackets each
+ * frame with {@link #beginFrame()} and {@link Frame#end()}; stages inside are bracketed with
+ * {@link Frame#enter()} and {@link Frame#exit(RenderStage, String, long)}. Completed frames go to
+ * a fixed-size ring readable with {@link #getRecentFrames()} (when {@linkplain #setEnabled
+ * enabled}) and to Flight Recorder events (while a recording runs).</p>
+ *
+ * <p>When both sinks are off, {@code beginFrame()} returns a shared inert frame whose methods
+ * return immediately. Frames are per thread, so one profiler may serve concurrent renders.</p>
+ *
+ * <p>Code without access to the frame, such as decimation utilities, reports through
+ * {@link #currentFrame()}.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class FrameProfiler {
+    private static final boolean JFR_AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+    private static final ThreadLocal<Frame> CURRENT = new ThreadLocal<>();
+    private static final AtomicInteger OPEN_FRAMES = new AtomicInteger();
+
+    private final String surface;
+    private final ThreadLocal<Frame> frames = ThreadLocal.withInitial(() -> new Frame(this));
+    private final AtomicLong frameIds = new AtomicLong();
+    private final Frame[] ring;
+    private long published;
+    private volatile boolean enabled;
+
+    /**
+     * Creates a profiler configured by {@code Chart.telemetry.enabled} and
+     * {@code Chart.telemetry.history}.
+     *
+     * @param surface name reported with every event, e.g. the panel or service name
+     */
+    public FrameProfiler(String surface) {
+        this(surface, ChartAssets.getInt("Chart.telemetry.history", 120));
+        this.enabled = ChartAssets.getBoolean("Chart.telemetry.enabled", false);
+    }
+
+    /**
+     * @param surface name reported with every event
+     * @param history number of recent frames kept for {@link #getRecentFrames()}
+     */
+    public FrameProfiler(String surface, int history) {
+        this.surface = surface == null ? "chart" : surface;
+        this.ring = new Frame[Math.max(1, history)];
+        for (int i = 0; i < ring.length; i++) ring[i] = new Frame(null);
+    }
+
+    /**
+     * Returns the frame open on the calling thread, or an inert frame if there is none.
+     */
+    public static Frame currentFrame() {
+        if (OPEN_FRAMES.get() == 0) return Frame.INERT;
+        Frame f = CURRENT.get();
+        return f != null ? f : Frame.INERT;
+    }
+
+    public String getSurface() {
+        return surface;
+    }
+
+    /**
+     * Enables or disables the in-process ring. Flight Recorder events are emitted whenever a
+     * recording runs, regardless of this flag.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns whether frames are currently being measured.
+     */
+    public boolean isActive() {
+        return enabled || (JFR_AVAILABLE && JfrRenderEvents.isRecording());
+    }
+
+    /**
+     * Opens a frame on the calling thread. Must be paired with {@link Frame#end()}, typically in
+     * a {@code finally} block. Nested calls on the same thread return the inert frame.
+     */
+    public Frame beginFrame() {
+        if (!isActive()) return Frame.INERT;
+        Frame f = frames.get();
+        if (f.open) return Frame.INERT;
+        f.begin(frameIds.incrementAndGet());
+        CURRENT.set(f);
+        OPEN_FRAMES.incrementAndGet();
+        return f;
+    }
+
+    /**
+     * Records a stage measured outside {@code enter}/{@code exit}. Stages recorded while no frame
+     * is open on this thread (e.g. hit tests on mouse movement) are reported with the next frame.
+     */
+    public void recordStage(RenderStage stage, String label, long durationNanos, long points, long primitives) {
+        if (!isActive()) return;
+        frames.get().add(stage, label, durationNanos, points, primitives);
+    }
+
+    /**
+     * Returns the retained frame breakdowns, oldest first.
+     */
+    public List<FrameBreakdown> getRecentFrames() {
+        synchronized (ring) {
+            int n = (int) Math.min(published, ring.length);
+            List<FrameBreakdown> out = new ArrayList<>(n);
+            for (long seq = published - n; seq < published; seq++) {
+                out.add(ring[(int) (seq % ring.length)].toBreakdown());
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Returns the most recent frame breakdown, or {@code null} if none has been retained.
+     */
+    public FrameBreakdown getLastFrame() {
+        synchronized (ring) {
+            return published == 0L ? null : ring[(int) ((published - 1L) % ring.length)].toBreakdown();
+        }
+    }
+
+    /**
+     * Drops all retained frames.
+     */
+    public void clear() {
+        synchronized (ring) {
+            published = 0L;
+        }
+    }
+
+    private void publish(Frame f) {
+        long total = System.nanoTime() - f.start;
+        if (JFR_AVAILABLE && JfrRenderEvents.isRecording()) {
+            JfrRenderEvents.frame(surface, f.id, total, f.count, f.layerPoints(), f.counter.primitives);
+        }
+        if (enabled) {
+            synchronized (ring) {
+                ring[(int) (published % ring.length)].copyFrom(f, total);
+                published++;
+            }
+        }
+    }
+
+    /**
+     * Stage recorder for one frame on one thread.
+     */
+    public static final class Frame {
+        static final Frame INERT = new Frame(null);
+        private static final int MAX_DEPTH = 8;
+        private static final int MAX_STAGES = 256;
+
+        private final FrameProfiler owner;
+        private final CountingCanvas counter = new CountingCanvas();
+        private final long[] enterNanos = new long[MAX_DEPTH];
+        private final long[] enterPrimitives = new long[MAX_DEPTH];
+        private final byte[] stages = new byte[MAX_STAGES];
+        private final String[] labels = new String[MAX_STAGES];
+        private final long[] durations = new long[MAX_STAGES];
+        private final long[] points = new long[MAX_STAGES];
+        private final long[] primitives = new long[MAX_STAGES];
+        private boolean open;
+        private int depth;
+        private int count;
+        private long id;
+        private long start;
+        private long total;
+
+        private Frame(FrameProfiler owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * Returns whether this frame is measuring; use it to skip building labels.
+         */
+        public boolean isRecording() {
+            return open;
+        }
+
+        /**
+         * Returns a canvas that counts primitives for this frame, or {@code canvas} itself when
+         * not recording. The returned wrapper is reused and only valid until {@link #end()}.
+         */
+        public ArberCanvas wrap(ArberCanvas canvas) {
+            return open && canvas != null ? counter.wrap(canvas) : canvas;
+        }
+
+        /**
+         * Marks the start of a stage. Stages nest up to eight levels deep.
+         */
+        public void enter() {
+            if (!open) return;
+            if (depth < MAX_DEPTH) {
+                enterNanos[depth] = System.nanoTime();
+                enterPrimitives[depth] = counter.primitives;
+            }
+            depth++;
+        }
+
+        /**
+         * Ends the innermost stage started with {@link #enter()}.
+         *
+         * @param stage  stage kind
+         * @param label  layer label or {@code null}
+         * @param points data points the stage processed
+         */
+        public void exit(RenderStage stage, String label, long points) {
+            if (!open || depth == 0) return;
+            depth--;
+            if (depth >= MAX_DEPTH) return;
+            add(stage, label, System.nanoTime() - enterNanos[depth], points, counter.primitives - enterPrimitives[depth]);
+        }
+
+        /**
+         * Closes the frame and publishes it.
+         */
+        public void end() {
+            if (!open) return;
+            try {
+                owner.publish(this);
+            } finally {
+                open = false;
+                count = 0;
+                depth = 0;
+                counter.wrap(null);
+                CURRENT.remove();
+                OPEN_FRAMES.decrementAndGet();
+            }
+        }
+
+        private void begin(long frameId) {
+            id = frameId;
+            start = System.nanoTime();
+            depth = 0;
+            counter.primitives = 0L;
+            open = true;
+        }
+
+        private void add(RenderStage stage, String label, long nanos, long pointCount, long primitiveCount) {
+            if (count < MAX_STAGES) {
+                stages[count] = (byte) stage.ordinal();
+                labels[count] = label;
+                durations[count] = nanos;
+                points[count] = pointCount;
+                primitives[count] = primitiveCount;
+                count++;
+            }
+            if (JFR_AVAILABLE && JfrRenderEvents.isRecording()) {
+                long frameId = open ? id : owner.frameIds.get() + 1L;
+                JfrRenderEvents.stage(owner.surface, frameId, stage, label, nanos, pointCount, primitiveCount);
+            }
+        }
+
+        private long layerPoints() {
+            long sum = 0L;
+            for (int i = 0; i < count; i++) {
+                int s = stages[i];
+                if (s == RenderStage.PRE_DATA_LAYER.ordinal() || s == RenderStage.DATA_LAYER.ordinal()
+                        || s == RenderStage.OVERLAY_LAYER.ordinal()) {
+                    sum += points[i];
+                }
+            }
+            return sum;
+        }
+
+        private void copyFrom(Frame f, long totalNanos) {
+            id = f.id;
+            start = f.start;
+            total = totalNanos;
+            count = f.count;
+            System.arraycopy(f.stages, 0, stages, 0, count);
+            System.arraycopy(f.labels, 0, labels, 0, count);
+            System.arraycopy(f.durations, 0, durations, 0, count);
+            System.arraycopy(f.points, 0, points, 0, count);
+            System.arraycopy(f.primitives, 0, primitives, 0, count);
+        }
+
+        private FrameBreakdown toBreakdown() {
+            return new FrameBreakdown(id, start, total, count, stages, labels, durations, points, primitives);
+        }
+    }
+}
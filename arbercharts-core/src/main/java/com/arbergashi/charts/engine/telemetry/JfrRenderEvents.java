@@ -0,0 +1,128 @@
+package com.arbergashi.charts.engine.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder integration. Only loaded when the {@code jdk.jfr} module is present.
+ *
+ * <p>A recorder listener keeps {@link #isRecording()} current, so instrumented code can skip
+ * event construction entirely while no recording runs.</p>
+ */
+final class JfrRenderEvents {
+    private static volatile boolean recording;
+
+    static {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recorderInitialized(FlightRecorder recorder) {
+                refresh();
+            }
+
+            @Override
+            public void recordingStateChanged(Recording changed) {
+                refresh();
+            }
+        });
+        refresh();
+    }
+
+    private JfrRenderEvents() {
+    }
+
+    static boolean isRecording() {
+        return recording;
+    }
+
+    static void stage(String surface, long frameId, RenderStage stage, String label,
+                      long durationNanos, long points, long primitives) {
+        StageEvent event = new StageEvent();
+        if (!event.shouldCommit()) return;
+        event.surface = surface;
+        event.frameId = frameId;
+        event.stage = stage.name();
+        event.label = label;
+        event.stageTime = durationNanos;
+        event.points = points;
+        event.primitives = primitives;
+        event.commit();
+    }
+
+    static void frame(String surface, long frameId, long durationNanos, int stages, long points, long primitives) {
+        FrameEvent event = new FrameEvent();
+        if (!event.shouldCommit()) return;
+        event.surface = surface;
+        event.frameId = frameId;
+        event.frameTime = durationNanos;
+        event.stages = stages;
+        event.points = points;
+        event.primitives = primitives;
+        event.commit();
+    }
+
+    private static void refresh() {
+        boolean running = false;
+        if (FlightRecorder.isInitialized()) {
+            for (Recording r : FlightRecorder.getFlightRecorder().getRecordings()) {
+                if (r.getState() == RecordingState.RUNNING) {
+                    running = true;
+                    break;
+                }
+            }
+        }
+        recording = running;
+    }
+
+    @Name("com.arbergashi.charts.RenderFrame")
+    @Label("Chart Frame")
+    @Description("One rendered chart frame")
+    @Category({"ArberCharts", "Rendering"})
+    @StackTrace(false)
+    static final class FrameEvent extends Event {
+        @Label("Surface")
+        String surface;
+        @Label("Frame")
+        long frameId;
+        @Label("Frame Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long frameTime;
+        @Label("Stages")
+        int stages;
+        @Label("Points")
+        long points;
+        @Label("Primitives")
+        long primitives;
+    }
+
+    @Name("com.arbergashi.charts.RenderStage")
+    @Label("Chart Render Stage")
+    @Description("One stage of a rendered chart frame")
+    @Category({"ArberCharts", "Rendering"})
+    @StackTrace(false)
+    static final class StageEvent extends Event {
+        @Label("Surface")
+        String surface;
+        @Label("Frame")
+        long frameId;
+        @Label("Stage")
+        String stage;
+        @Label("Layer")
+        String label;
+        @Label("Stage Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long stageTime;
+        @Label("Points")
+        long points;
+        @Label("Primitives")
+        long primitives;
+    }
+}
@@ -0,0 +1,33 @@
+package com.arbergashi.charts.engine.telemetry;
+
+/**
+ * Pipeline stages reported by {@link FrameProfiler}.
+ *
+ * <p>{@link #DECIMATION} is measured inside the layer that requested it, so its time is also part
+ * of that layer's stage. {@link #HIT_TEST} usually runs between frames and is reported with the
+ * next frame.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public enum RenderStage {
+    /** Building or refreshing the plot context (view matrix, bounds). */
+    CONTEXT,
+    /** Background grid. */
+    GRID,
+    /** A layer drawn beneath the data series. */
+    PRE_DATA_LAYER,
+    /** A data series layer. */
+    DATA_LAYER,
+    /** A layer drawn on top of the primary series with its model. */
+    OVERLAY_LAYER,
+    /** Axis ticks and labels. */
+    AXES,
+    /** Point reduction for display. */
+    DECIMATION,
+    /** Nearest-point lookup for crosshair and tooltips. */
+    HIT_TEST,
+    /** Converting the rendered surface into an image or an encoded format. */
+    ENCODE
+}
@@ -0,0 +1,18 @@
+/**
+ * Per-frame render instrumentation.
+ *
+ * <p>A {@link com.arbergashi.charts.engine.telemetry.FrameProfiler} breaks each frame into
+ * {@link com.arbergashi.charts.engine.telemetry.RenderStage stages} (context build, grid, each
+ * layer, decimation, hit-test, encode) with their duration, points processed and primitives
+ * emitted. Breakdowns are kept in an in-process ring for API queries and published as JDK Flight
+ * Recorder events ({@code com.arbergashi.charts.RenderFrame} and
+ * {@code com.arbergashi.charts.RenderStage}) while a recording is running.</p>
+ *
+ * <p>When neither the ring nor a recording is active, instrumented code only pays for a field
+ * read per stage.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+package com.arbergashi.charts.engine.telemetry;
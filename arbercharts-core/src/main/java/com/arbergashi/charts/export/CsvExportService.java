@@ -1,18 +1,23 @@
 package com.arbergashi.charts.export;
 
 import com.arbergashi.charts.model.ChartModel;
+import com.arbergashi.charts.model.DefaultChartModel;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.util.Locale;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Exports chart data to CSV format.
@@ -27,8 +32,11 @@ import java.util.Objects;
  *   <li>Configurable decimal separator</li>
  *   <li>Optional header row</li>
  *   <li>UTF-8 encoding with optional BOM for Excel compatibility</li>
+ *   <li>Chunked bulk formatting, optionally parallel, and lossless round-trip numbers</li>
  * </ul>
  *
+ * <p>Files can be read back with {@link CsvImportService}.</p>
+ *
  * <h2>Usage Example</h2>
  * <pre>{@code
  * // Simple export
@@ -48,6 +56,15 @@ import java.util.Objects;
  */
 public final class CsvExportService {
 
+    private static final int CHUNK_ROWS = 16_384;
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L
+    };
+    // Below 2^53, so the rounded scaled value is an exact long.
+    private static final double MAX_EXACT_SCALED = 9.0e15;
+
     private CsvExportService() {
         // Utility class
     }
@@ -114,6 +131,8 @@ public final class CsvExportService {
         private boolean excelCompatible = false;
         private String lineEnding = System.lineSeparator();
         private int precision = 6;
+        private boolean roundTrip = false;
+        private int parallelism = 1;
 
         private Builder() {
         }
@@ -193,6 +212,33 @@ public final class CsvExportService {
             return this;
         }
 
+        /**
+         * Writes every value as the shortest decimal that parses back to the same double
+         * (scientific notation for very large or small magnitudes) instead of rounding to
+         * {@link #precision(int)} decimals.
+         *
+         * @param enabled true for lossless round-trip output (default: false)
+         * @return this builder
+         * @since 2.1.0
+         */
+        public Builder roundTrip(boolean enabled) {
+            this.roundTrip = enabled;
+            return this;
+        }
+
+        /**
+         * Formats chunks on up to {@code threads} common-pool workers; output order and content
+         * are the same as with one thread.
+         *
+         * @param threads number of concurrent chunk formatters (default: 1)
+         * @return this builder
+         * @since 2.1.0
+         */
+        public Builder parallelism(int threads) {
+            this.parallelism = Math.max(1, threads);
+            return this;
+        }
+
         /**
          * Exports the chart data to a file.
          *
@@ -219,6 +265,11 @@ public final class CsvExportService {
         /**
          * Exports the chart data to a writer.
          *
+         * <p>Rows are read in chunks of {@value #CHUNK_ROWS} (one lock per chunk on
+         * {@link DefaultChartModel}, bulk array views otherwise), formatted into a reusable
+         * buffer and written with one call per chunk. With {@link #parallelism(int)} above one,
+         * chunks are formatted concurrently and written in order.</p>
+         *
          * @param model the chart model
          * @param writer the output writer
          * @throws IOException if writing fails
@@ -232,55 +283,157 @@ public final class CsvExportService {
                 writer.write('\uFEFF');
             }
 
-            // Create number formatter
-            DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.US);
-            symbols.setDecimalSeparator(decimalSeparator);
-            StringBuilder pattern = new StringBuilder("0");
-            if (precision > 0) {
-                pattern.append('.');
-                pattern.append("#".repeat(precision));
-            }
-            DecimalFormat format = new DecimalFormat(pattern.toString(), symbols);
-
             // Write header
             if (includeHeader && headerNames != null && headerNames.length > 0) {
+                StringBuilder header = new StringBuilder();
                 for (int i = 0; i < headerNames.length; i++) {
-                    if (i > 0) writer.write(delimiter);
-                    writeEscaped(writer, headerNames[i]);
+                    if (i > 0) header.append(delimiter);
+                    appendEscaped(header, headerNames[i]);
                 }
-                writer.write(lineEnding);
+                writer.write(header.append(lineEnding).toString());
             }
 
             // Write data rows
-            int size = model.getPointCount();
-            for (int i = 0; i < size; i++) {
-                double x = model.getX(i);
-                double y = model.getY(i);
-                double weight = model.getWeight(i);
-                String label = model.getLabel(i);
+            Rows rows = new Rows(model);
+            char[] chars = new char[0];
+            if (parallelism <= 1 || rows.size <= CHUNK_ROWS) {
+                Chunk chunk = new Chunk();
+                for (int from = 0; from < rows.size; from += CHUNK_ROWS) {
+                    format(rows, from, chunk);
+                    chars = write(writer, chunk.text, chars);
+                }
+            } else {
+                int window = parallelism * 2;
+                ArrayDeque<CompletableFuture<Chunk>> inFlight = new ArrayDeque<>(window);
+                int next = 0;
+                try {
+                    while (next < rows.size || !inFlight.isEmpty()) {
+                        while (next < rows.size && inFlight.size() < window) {
+                            int from = next;
+                            next += CHUNK_ROWS;
+                            inFlight.add(CompletableFuture.supplyAsync(() -> format(rows, from, new Chunk()),
+                                    ForkJoinPool.commonPool()));
+                        }
+                        chars = write(writer, inFlight.poll().join().text, chars);
+                    }
+                } catch (CompletionException e) {
+                    inFlight.forEach(f -> f.cancel(false));
+                    if (e.getCause() instanceof RuntimeException re) throw re;
+                    throw e;
+                }
+            }
 
-                // X value
-                writer.write(format.format(x));
-                writer.write(delimiter);
+            writer.flush();
+        }
 
-                // Y value
-                writer.write(format.format(y));
-                writer.write(delimiter);
+        private Chunk format(Rows rows, int from, Chunk chunk) {
+            int n = rows.read(from, chunk);
+            StringBuilder sb = chunk.text;
+            sb.setLength(0);
+            for (int i = 0; i < n; i++) {
+                appendNumber(sb, chunk.x[i]);
+                sb.append(delimiter);
+                appendNumber(sb, chunk.y[i]);
+                sb.append(delimiter);
+                appendNumber(sb, chunk.weight[i]);
+                sb.append(delimiter);
+                appendEscaped(sb, chunk.label[i]);
+                sb.append(lineEnding);
+            }
+            return chunk;
+        }
+
+        private static char[] write(Writer writer, StringBuilder text, char[] chars) throws IOException {
+            int len = text.length();
+            if (chars.length < len) chars = new char[len];
+            text.getChars(0, len, chars, 0);
+            writer.write(chars, 0, len);
+            return chars;
+        }
 
-                // Weight
-                writer.write(format.format(weight));
-                writer.write(delimiter);
+        private void appendNumber(StringBuilder sb, double v) {
+            if (!Double.isFinite(v)) {
+                sb.append(Double.isNaN(v) ? "NaN" : v > 0 ? "Infinity" : "-Infinity");
+            } else if (roundTrip) {
+                appendShortest(sb, v);
+            } else {
+                appendFixed(sb, v);
+            }
+        }
 
-                // Label (escaped)
-                writeEscaped(writer, label != null ? label : "");
+        /**
+         * Appends the shortest decimal that parses back to {@code v} (the JDK algorithm, written
+         * straight into the builder), without a trailing {@code .0}.
+         */
+        private void appendShortest(StringBuilder sb, double v) {
+            int start = sb.length();
+            sb.append(v);
+            int mantissaEnd = sb.length();
+            for (int i = start; i < sb.length(); i++) {
+                if (sb.charAt(i) == 'E') {
+                    mantissaEnd = i;
+                    break;
+                }
+            }
+            if (sb.charAt(mantissaEnd - 1) == '0' && sb.charAt(mantissaEnd - 2) == '.') {
+                sb.delete(mantissaEnd - 2, mantissaEnd);
+            } else if (decimalSeparator != '.') {
+                for (int i = start; i < mantissaEnd; i++) {
+                    if (sb.charAt(i) == '.') {
+                        sb.setCharAt(i, decimalSeparator);
+                        break;
+                    }
+                }
+            }
+        }
 
-                writer.write(lineEnding);
+        /**
+         * Appends {@code v} rounded half-even on its exact binary value to {@code precision}
+         * decimals, without trailing zeros, matching {@code DecimalFormat("0.######")} including
+         * the {@code -0} it prints for negative values that round to zero. The long-arithmetic
+         * path is used only when the rounded product cannot be on the other side of a tie;
+         * near-ties and values too large for exact long arithmetic take the {@link BigDecimal}
+         * path.
+         */
+        private void appendFixed(StringBuilder sb, double v) {
+            boolean negative = Double.doubleToRawLongBits(v) < 0;
+            double magnitude = Math.abs(v);
+            long scale = POW10[precision];
+            double scaled = magnitude * scale;
+            if (scaled >= MAX_EXACT_SCALED || nearTie(scaled)) {
+                String plain = new BigDecimal(magnitude).setScale(precision, RoundingMode.HALF_EVEN)
+                        .stripTrailingZeros().toPlainString();
+                if (negative) sb.append('-');
+                sb.append(decimalSeparator == '.' ? plain : plain.replace('.', decimalSeparator));
+                return;
+            }
+            long q = (long) Math.rint(scaled);
+            if (negative) sb.append('-');
+            sb.append(q / scale);
+            long frac = q % scale;
+            if (frac == 0) return;
+            int width = precision;
+            while (frac % 10 == 0) {
+                frac /= 10;
+                width--;
             }
+            sb.append(decimalSeparator);
+            for (long div = POW10[width - 1]; div > 0; div /= 10) {
+                sb.append((char) ('0' + (frac / div) % 10));
+            }
+        }
 
-            writer.flush();
+        /**
+         * Whether the floating-point product may have landed on the wrong side of a .5 tie: the
+         * product is off by at most half an ulp, so anything farther away rounds the same as the
+         * exact value.
+         */
+        private static boolean nearTie(double scaled) {
+            double fraction = scaled - Math.floor(scaled);
+            return Math.abs(fraction - 0.5) <= 2 * Math.ulp(scaled);
         }
 
-        private void writeEscaped(Writer writer, String value) throws IOException {
+        private void appendEscaped(StringBuilder sb, String value) {
             if (value == null || value.isEmpty()) {
                 return;
             }
@@ -291,20 +444,85 @@ public final class CsvExportService {
                     || value.indexOf('\r') >= 0;
 
             if (needsQuotes) {
-                writer.write('"');
+                sb.append('"');
                 for (int i = 0; i < value.length(); i++) {
                     char c = value.charAt(i);
                     if (c == '"') {
-                        writer.write("\"\"");
+                        sb.append("\"\"");
                     } else {
-                        writer.write(c);
+                        sb.append(c);
                     }
                 }
-                writer.write('"');
+                sb.append('"');
             } else {
-                writer.write(value);
+                sb.append(value);
             }
         }
     }
-}
 
+    /**
+     * Reusable per-chunk buffers.
+     */
+    private static final class Chunk {
+        final double[] x = new double[CHUNK_ROWS];
+        final double[] y = new double[CHUNK_ROWS];
+        final double[] weight = new double[CHUNK_ROWS];
+        final String[] label = new String[CHUNK_ROWS];
+        final StringBuilder text = new StringBuilder(CHUNK_ROWS * 32);
+    }
+
+    /**
+     * Bulk row access: chunk copies under one lock for {@link DefaultChartModel}, array views
+     * fetched once for other models (per-index getters for columns without a full array).
+     */
+    private static final class Rows {
+        private final ChartModel model;
+        private final DefaultChartModel bulk;
+        private final double[] xs;
+        private final double[] ys;
+        private final double[] weights;
+        final int size;
+
+        Rows(ChartModel model) {
+            this.model = model;
+            this.size = Math.max(0, model.getPointCount());
+            if (model instanceof DefaultChartModel defaultModel) {
+                this.bulk = defaultModel;
+                this.xs = null;
+                this.ys = null;
+                this.weights = null;
+            } else {
+                this.bulk = null;
+                this.xs = view(model.getXData(), size);
+                this.ys = view(model.getYData(), size);
+                this.weights = view(model.getWeightData(), size);
+            }
+        }
+
+        int read(int from, Chunk chunk) {
+            int n = Math.min(CHUNK_ROWS, size - from);
+            if (bulk != null) {
+                int copied = bulk.copyRows(from, chunk.x, chunk.y, null, null, chunk.weight, chunk.label,
+                        null, null, null, n);
+                // Shrunk since the export started: same values per-index reads return.
+                Arrays.fill(chunk.x, copied, n, 0.0);
+                Arrays.fill(chunk.y, copied, n, 0.0);
+                Arrays.fill(chunk.weight, copied, n, 0.0);
+                Arrays.fill(chunk.label, copied, n, null);
+                return n;
+            }
+            for (int i = 0; i < n; i++) {
+                int row = from + i;
+                chunk.x[i] = xs != null ? xs[row] : model.getX(row);
+                chunk.y[i] = ys != null ? ys[row] : model.getY(row);
+                chunk.weight[i] = weights != null ? weights[row] : model.getWeight(row);
+                chunk.label[i] = model.getLabel(row);
+            }
+            return n;
+        }
+
+        private static double[] view(double[] data, int size) {
+            return data != null && data.length >= size ? data : null;
+        }
+    }
+}
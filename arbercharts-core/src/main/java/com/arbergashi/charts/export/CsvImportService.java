@@ -0,0 +1,594 @@
+package com.arbergashi.charts.export;
+
+import com.arbergashi.charts.model.DefaultChartModel;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Imports X/Y(/weight) columns from CSV files into a {@link DefaultChartModel}.
+ *
+ * <p>The file is memory-mapped and parsed byte by byte; numbers are decoded without creating
+ * strings (exact for up to 15 significant digits and exponents within ±22, otherwise via
+ * {@link Double#parseDouble}). With {@link Builder#parallelism(int)} above one, the file is split
+ * at record boundaries outside quoted fields and the parts are parsed concurrently, then
+ * appended in file order with one model notification per part.</p>
+ *
+ * <p>Reads what {@link CsvExportService} writes: optional UTF-8 BOM and header row, CRLF or LF
+ * line endings, quoted fields with doubled quotes and embedded delimiters or newlines. Empty or
+ * malformed X/Y values become {@code NaN}; a missing or empty weight becomes {@code 1.0}.
+ * Labels and other columns are skipped.</p>
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * DefaultChartModel model = CsvImportService.importXY(Path.of("data.csv"));
+ *
+ * CsvImportService.builder()
+ *     .delimiter(';')
+ *     .decimalSeparator(',')
+ *     .parallelism(Runtime.getRuntime().availableProcessors())
+ *     .importInto(model, Path.of("more.csv"));
+ * }</pre>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class CsvImportService {
+
+    private static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+    private static final long MIN_PART_BYTES = 1L << 20;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private CsvImportService() {
+        // Utility class
+    }
+
+    /**
+     * Imports a CSV file written with default settings (comma, period, header row).
+     *
+     * @param file the CSV file
+     * @return a new model named after the file
+     * @throws IOException if reading fails
+     */
+    public static DefaultChartModel importXY(Path file) throws IOException {
+        return builder().importXY(file);
+    }
+
+    /**
+     * Creates a new CSV import builder for custom configuration.
+     *
+     * @return a new builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for configuring CSV import options.
+     */
+    public static final class Builder {
+        private byte delimiter = ',';
+        private byte decimalSeparator = '.';
+        private boolean includeHeader = true;
+        private int xColumn = 0;
+        private int yColumn = 1;
+        private int weightColumn = 2;
+        private int parallelism = 1;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the field delimiter.
+         *
+         * @param delimiter an ASCII delimiter character (default: ',')
+         * @return this builder
+         */
+        public Builder delimiter(char delimiter) {
+            this.delimiter = ascii(delimiter, "delimiter");
+            return this;
+        }
+
+        /**
+         * Sets the decimal separator.
+         *
+         * @param separator an ASCII separator character (default: '.')
+         * @return this builder
+         */
+        public Builder decimalSeparator(char separator) {
+            this.decimalSeparator = ascii(separator, "decimalSeparator");
+            return this;
+        }
+
+        /**
+         * Sets whether the first record is a header row and skipped.
+         *
+         * @param include true if the file starts with a header (default: true)
+         * @return this builder
+         */
+        public Builder includeHeader(boolean include) {
+            this.includeHeader = include;
+            return this;
+        }
+
+        /**
+         * Selects the zero-based X and Y columns.
+         *
+         * @param x X column (default: 0)
+         * @param y Y column (default: 1)
+         * @return this builder
+         */
+        public Builder columns(int x, int y) {
+            if (x < 0 || y < 0) throw new IllegalArgumentException("columns must be >= 0");
+            this.xColumn = x;
+            this.yColumn = y;
+            return this;
+        }
+
+        /**
+         * Selects the zero-based weight column, or {@code -1} to use {@code 1.0} for every row.
+         *
+         * @param column weight column (default: 2)
+         * @return this builder
+         */
+        public Builder weightColumn(int column) {
+            this.weightColumn = Math.max(-1, column);
+            return this;
+        }
+
+        /**
+         * Parses up to {@code threads} parts of the file concurrently on the common pool.
+         *
+         * @param threads number of concurrent parsers (default: 1)
+         * @return this builder
+         */
+        public Builder parallelism(int threads) {
+            this.parallelism = Math.max(1, threads);
+            return this;
+        }
+
+        /**
+         * Imports the file into a new model named after the file.
+         *
+         * @param file the CSV file
+         * @return the populated model
+         * @throws IOException if reading fails
+         */
+        public DefaultChartModel importXY(Path file) throws IOException {
+            Objects.requireNonNull(file, "file must not be null");
+            Path fileName = file.getFileName();
+            DefaultChartModel model = new DefaultChartModel(fileName == null ? null : fileName.toString());
+            importInto(model, file);
+            return model;
+        }
+
+        /**
+         * Appends the rows of the file to {@code model}.
+         *
+         * @param model the target model
+         * @param file the CSV file
+         * @return number of rows appended
+         * @throws IOException if reading fails
+         */
+        public int importInto(DefaultChartModel model, Path file) throws IOException {
+            Objects.requireNonNull(model, "model must not be null");
+            Objects.requireNonNull(file, "file must not be null");
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                 Arena arena = Arena.ofShared()) {
+                long size = channel.size();
+                if (size == 0) return 0;
+                MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0L, size, arena);
+
+                long start = 0;
+                if (size >= 3 && data.get(BYTE, 0) == (byte) 0xEF && data.get(BYTE, 1) == (byte) 0xBB
+                        && data.get(BYTE, 2) == (byte) 0xBF) {
+                    start = 3;
+                }
+                if (includeHeader) {
+                    Parser header = new Parser(this, data, start, size);
+                    header.skipRecord();
+                    start = header.pos;
+                }
+
+                long[] bounds = split(data, start, size);
+                if (bounds.length == 2) {
+                    return append(model, parse(data, bounds[0], bounds[1]));
+                }
+                int rows = 0;
+                int window = parallelism * 2;
+                ArrayDeque<CompletableFuture<Parsed>> inFlight = new ArrayDeque<>(window);
+                int next = 0;
+                try {
+                    while (next < bounds.length - 1 || !inFlight.isEmpty()) {
+                        while (next < bounds.length - 1 && inFlight.size() < window) {
+                            long from = bounds[next];
+                            long to = bounds[++next];
+                            inFlight.add(CompletableFuture.supplyAsync(() -> parse(data, from, to),
+                                    ForkJoinPool.commonPool()));
+                        }
+                        rows += append(model, inFlight.poll().join());
+                    }
+                } catch (CompletionException e) {
+                    inFlight.forEach(f -> f.cancel(false));
+                    // Let running parsers finish before the mapping is released.
+                    inFlight.forEach(f -> f.handle((r, t) -> null).join());
+                    if (e.getCause() instanceof RuntimeException re) throw re;
+                    throw e;
+                }
+                return rows;
+            }
+        }
+
+        /**
+         * Returns part boundaries {@code [start, ..., end]} that fall right after a line break
+         * outside quoted fields. Quote parity at each nominal cut comes from a parallel count of
+         * the quotes before it.
+         */
+        private long[] split(MemorySegment data, long start, long end) {
+            long length = end - start;
+            int parts = (int) Math.min(parallelism * 4L, length / MIN_PART_BYTES);
+            if (parallelism <= 1 || parts < 2) return new long[]{start, end};
+
+            long[] cuts = new long[parts + 1];
+            for (int i = 0; i <= parts; i++) {
+                cuts[i] = start + length * i / parts;
+            }
+            // Only the parts before the last cut decide quote parity; all of them are joined below,
+            // so no count is still reading the segment once the caller's arena closes.
+            List<CompletableFuture<Long>> counts = new ArrayList<>(parts - 1);
+            for (int i = 0; i < parts - 1; i++) {
+                long from = cuts[i];
+                long to = cuts[i + 1];
+                counts.add(CompletableFuture.supplyAsync(() -> countQuotes(data, from, to), ForkJoinPool.commonPool()));
+            }
+
+            long[] bounds = new long[parts + 1];
+            int n = 0;
+            bounds[n++] = start;
+            long quotes = 0;
+            for (int i = 1; i < parts; i++) {
+                quotes += counts.get(i - 1).join();
+                long cut = Math.max(cuts[i], bounds[n - 1]);
+                long boundary = nextRecord(data, cut, end, (quotes & 1) != 0 && cut == cuts[i]);
+                if (boundary > bounds[n - 1] && boundary < end) bounds[n++] = boundary;
+            }
+            bounds[n++] = end;
+            return Arrays.copyOf(bounds, n);
+        }
+
+        private static long countQuotes(MemorySegment data, long from, long to) {
+            long count = 0;
+            for (long p = from; p < to; p++) {
+                if (data.get(BYTE, p) == '"') count++;
+            }
+            return count;
+        }
+
+        private static long nextRecord(MemorySegment data, long from, long end, boolean inQuotes) {
+            for (long p = from; p < end; p++) {
+                byte b = data.get(BYTE, p);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes) {
+                    return p + 1;
+                }
+            }
+            return end;
+        }
+
+        private Parsed parse(MemorySegment data, long from, long to) {
+            Parser parser = new Parser(this, data, from, to);
+            Parsed out = new Parsed((int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, (to - from) / 24)));
+            while (parser.pos < to) {
+                parser.record(out);
+            }
+            return out;
+        }
+
+        private static int append(DefaultChartModel model, Parsed parsed) {
+            model.appendPoints(parsed.x, parsed.y, null, null, parsed.weight, null, null, null, null, 0, parsed.count);
+            return parsed.count;
+        }
+
+        private static byte ascii(char c, String name) {
+            if (c == 0 || c > 0x7F || c == '"' || c == '\r' || c == '\n') {
+                throw new IllegalArgumentException(name + " must be a printable ASCII character");
+            }
+            return (byte) c;
+        }
+    }
+
+    /**
+     * Parsed columns of one part.
+     */
+    private static final class Parsed {
+        double[] x;
+        double[] y;
+        double[] weight;
+        int count;
+
+        Parsed(int capacity) {
+            x = new double[capacity];
+            y = new double[capacity];
+            weight = new double[capacity];
+        }
+
+        void add(double xv, double yv, double wv) {
+            if (count == x.length) {
+                int capacity = Math.max(16, count + (count >> 1));
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            x[count] = xv;
+            y[count] = yv;
+            weight[count] = wv;
+            count++;
+        }
+    }
+
+    /**
+     * Cursor over one part of the mapped file.
+     */
+    private static final class Parser {
+        private final MemorySegment data;
+        private final long end;
+        private final byte delimiter;
+        private final byte decimalSeparator;
+        private final int xColumn;
+        private final int yColumn;
+        private final int weightColumn;
+        private final int lastColumn;
+        long pos;
+
+        Parser(Builder options, MemorySegment data, long from, long to) {
+            this.data = data;
+            this.end = to;
+            this.pos = from;
+            this.delimiter = options.delimiter;
+            this.decimalSeparator = options.decimalSeparator;
+            this.xColumn = options.xColumn;
+            this.yColumn = options.yColumn;
+            this.weightColumn = options.weightColumn;
+            this.lastColumn = Math.max(Math.max(xColumn, yColumn), weightColumn);
+        }
+
+        /**
+         * Parses one record into {@code out}; blank lines are skipped.
+         */
+        void record(Parsed out) {
+            if (endOfRecord()) return;
+            double x = Double.NaN;
+            double y = Double.NaN;
+            double w = 1.0;
+            for (int column = 0; ; column++) {
+                if (column > lastColumn) {
+                    skipField();
+                } else if (column == xColumn || column == yColumn || column == weightColumn) {
+                    double v = number();
+                    if (column == xColumn) x = v;
+                    if (column == yColumn) y = v;
+                    if (column == weightColumn && !Double.isNaN(v)) w = v;
+                } else {
+                    skipField();
+                }
+                if (pos < end && data.get(BYTE, pos) == delimiter) {
+                    pos++;
+                    continue;
+                }
+                endOfRecord();
+                break;
+            }
+            out.add(x, y, w);
+        }
+
+        void skipRecord() {
+            while (pos < end) {
+                skipField();
+                if (pos < end && data.get(BYTE, pos) == delimiter) {
+                    pos++;
+                } else {
+                    endOfRecord();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Consumes a line break at the cursor, if any.
+         *
+         * @return true if the cursor was at a line break or the end
+         */
+        private boolean endOfRecord() {
+            if (pos >= end) return true;
+            byte b = data.get(BYTE, pos);
+            if (b == '\r') {
+                pos++;
+                if (pos < end && data.get(BYTE, pos) == '\n') pos++;
+                return true;
+            }
+            if (b == '\n') {
+                pos++;
+                return true;
+            }
+            // Anything else in front of a record end is leftover content of the field.
+            return false;
+        }
+
+        private void skipField() {
+            if (pos < end && data.get(BYTE, pos) == '"') {
+                pos++;
+                while (pos < end) {
+                    byte b = data.get(BYTE, pos++);
+                    if (b == '"') {
+                        if (pos < end && data.get(BYTE, pos) == '"') {
+                            pos++;
+                        } else {
+                            break;
+                        }
+                    }
+                }
+            }
+            while (pos < end) {
+                byte b = data.get(BYTE, pos);
+                if (b == delimiter || b == '\n' || b == '\r') return;
+                pos++;
+            }
+        }
+
+        /**
+         * Parses the field at the cursor as a number and leaves the cursor at its end.
+         */
+        private double number() {
+            long fieldStart = pos;
+            long p = pos;
+            boolean quoted = p < end && data.get(BYTE, p) == '"';
+            if (quoted) p++;
+            p = skipBlanks(p);
+            long numberStart = p;
+
+            boolean negative = false;
+            if (p < end) {
+                byte b = data.get(BYTE, p);
+                if (b == '-' || b == '+') {
+                    negative = b == '-';
+                    p++;
+                }
+            }
+
+            double value;
+            if (matches(p, "NaN")) {
+                value = Double.NaN;
+                p += 3;
+            } else if (matches(p, "Infinity")) {
+                value = negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+                p += 8;
+            } else {
+                long mantissa = 0;
+                int significant = 0;
+                int exponent = 0;
+                boolean digits = false;
+                boolean truncated = false;
+                byte b;
+                while (p < end && (b = data.get(BYTE, p)) >= '0' && b <= '9') {
+                    digits = true;
+                    if (significant < 18) {
+                        mantissa = mantissa * 10 + (b - '0');
+                        if (mantissa != 0) significant++;
+                    } else {
+                        exponent++;
+                        truncated |= b != '0';
+                    }
+                    p++;
+                }
+                if (p < end && data.get(BYTE, p) == decimalSeparator) {
+                    p++;
+                    while (p < end && (b = data.get(BYTE, p)) >= '0' && b <= '9') {
+                        digits = true;
+                        if (significant < 18) {
+                            mantissa = mantissa * 10 + (b - '0');
+                            if (mantissa != 0) significant++;
+                            exponent--;
+                        } else {
+                            truncated |= b != '0';
+                        }
+                        p++;
+                    }
+                }
+                if (!digits) return field(fieldStart, Double.NaN);
+                if (p < end && ((b = data.get(BYTE, p)) == 'e' || b == 'E')) {
+                    p++;
+                    boolean negativeExponent = false;
+                    if (p < end && ((b = data.get(BYTE, p)) == '-' || b == '+')) {
+                        negativeExponent = b == '-';
+                        p++;
+                    }
+                    int e = 0;
+                    boolean expDigits = false;
+                    while (p < end && (b = data.get(BYTE, p)) >= '0' && b <= '9') {
+                        expDigits = true;
+                        if (e < 100_000) e = e * 10 + (b - '0');
+                        p++;
+                    }
+                    if (!expDigits) return field(fieldStart, Double.NaN);
+                    exponent += negativeExponent ? -e : e;
+                }
+                if (!truncated && mantissa < MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+                    // Both operands are exact doubles, so one correctly rounded operation is exact.
+                    value = exponent >= 0 ? mantissa * POW10[exponent] : mantissa / POW10[-exponent];
+                } else {
+                    value = Math.abs(slow(numberStart, p));
+                }
+                if (negative) value = -value;
+            }
+
+            p = skipBlanks(p);
+            if (quoted) {
+                if (p >= end || data.get(BYTE, p) != '"') return field(fieldStart, Double.NaN);
+                p++;
+            }
+            if (p < end) {
+                byte b = data.get(BYTE, p);
+                if (b != delimiter && b != '\n' && b != '\r') return field(fieldStart, Double.NaN);
+            }
+            pos = p;
+            return value;
+        }
+
+        private double field(long fieldStart, double value) {
+            pos = fieldStart;
+            skipField();
+            return value;
+        }
+
+        private double slow(long from, long to) {
+            byte[] bytes = new byte[(int) (to - from)];
+            MemorySegment.copy(data, BYTE, from, bytes, 0, bytes.length);
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] == decimalSeparator) bytes[i] = '.';
+            }
+            try {
+                return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+
+        private long skipBlanks(long p) {
+            while (p < end) {
+                byte b = data.get(BYTE, p);
+                if ((b != ' ' && b != '\t') || b == delimiter) break;
+                p++;
+            }
+            return p;
+        }
+
+        private boolean matches(long p, String token) {
+            if (end - p < token.length()) return false;
+            for (int i = 0; i < token.length(); i++) {
+                if (data.get(BYTE, p + i) != token.charAt(i)) return false;
+            }
+            return true;
+        }
+    }
+}
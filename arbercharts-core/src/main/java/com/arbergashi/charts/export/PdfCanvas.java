@@ -0,0 +1,425 @@
+package com.arbergashi.charts.export;
+
+import com.arbergashi.charts.api.types.ArberColor;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.core.rendering.ArberMatrices;
+import com.arbergashi.charts.core.rendering.ArberMatrix;
+import com.arbergashi.charts.core.rendering.VoxelBuffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * {@link ArberCanvas} that writes one PDF page content stream; obtained from
+ * {@link PdfDocumentWriter}.
+ *
+ * <p>Drawing maps to path operators in chart coordinates (origin top-left, y down; the page
+ * matrix flips once). Consecutive lines, polylines and stroked rectangles of one style share a
+ * single path and one {@code S}; opaque rectangle fills of one color share one {@code f}.
+ * Color and line width are emitted only when they change, alpha goes through document-wide
+ * {@code ExtGState} resources named after the alpha value, so pages can be rendered
+ * independently and still share them. Numbers are written with two decimals at most.</p>
+ *
+ * <p>Text uses the standard Helvetica font with WinAnsi encoding; other characters become
+ * {@code ?}. Clips are applied with {@code q}/{@code W n}/{@code Q}. I/O errors surface as
+ * {@link UncheckedIOException}. Not thread-safe.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class PdfCanvas implements ArberCanvas {
+    private static final int SCALE = 100;
+    private static final float FONT_SIZE = 12f;
+
+    private final OutputStream out;
+    private final byte[] buf = new byte[8192];
+    private int len;
+
+    private int argb = 0xFF000000;
+    private float strokeWidth = 1f;
+
+    // What the content stream currently has in effect; -1/NaN when unknown.
+    private int strokeRgb = -1;
+    private int fillRgb = -1;
+    private int strokeAlpha = 0xFF;
+    private int fillAlpha = 0xFF;
+    private float lineWidth = Float.NaN;
+
+    private final long[] usedAlphas = new long[4];
+    private boolean usedFont;
+
+    // Open path: 0 none, 'S' stroke, 'f' fill.
+    private char pathOp;
+    private boolean hasCur;
+    private boolean penAtCur;
+    private float curX;
+    private float curY;
+
+    private ArberRect clip;
+    private boolean finished;
+
+    PdfCanvas(OutputStream out, int width, int height) {
+        this.out = out;
+        put("1 0 0 -1 0 ");
+        num(height);
+        put(" cm 2 J 1 w 0 g 0 G\n");
+        lineWidth = 1f;
+        strokeRgb = 0;
+        fillRgb = 0;
+    }
+
+    @Override
+    public void setColor(ArberColor color) {
+        if (color != null) argb = color.argb();
+    }
+
+    @Override
+    public void setStroke(float width) {
+        strokeWidth = Float.isFinite(width) ? Math.max(0f, width) : 1f;
+    }
+
+    @Override
+    public void moveTo(float x, float y) {
+        penAtCur = false;
+        hasCur = finite(x, y);
+        curX = x;
+        curY = y;
+    }
+
+    @Override
+    public void lineTo(float x, float y) {
+        if (!hasCur || !finite(x, y)) {
+            moveTo(x, y);
+            return;
+        }
+        if (beginPath('S')) penAtCur = false;
+        if (!penAtCur) {
+            num(curX);
+            put(' ');
+            num(curY);
+            put(" m\n");
+        }
+        num(x);
+        put(' ');
+        num(y);
+        put(" l\n");
+        curX = x;
+        curY = y;
+        penAtCur = true;
+    }
+
+    @Override
+    public void drawPolyline(float[] xs, float[] ys, int count) {
+        if (xs == null || ys == null) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length));
+        if (n < 2) return;
+        moveTo(xs[0], ys[0]);
+        for (int i = 1; i < n; i++) {
+            lineTo(xs[i], ys[i]);
+        }
+    }
+
+    @Override
+    public void drawRect(float x, float y, float w, float h) {
+        if (!finite(x, y) || !(w >= 0f) || !(h >= 0f) || !finite(w, h)) return;
+        beginPath('S');
+        rect(x, y, w, h);
+        penAtCur = false;
+    }
+
+    @Override
+    public void fillRect(float x, float y, float w, float h) {
+        if (!finite(x, y) || !(w > 0f) || !(h > 0f) || !finite(w, h)) return;
+        beginPath('f');
+        rect(x, y, w, h);
+        if ((argb >>> 24) != 0xFF) endPath();
+    }
+
+    @Override
+    public void fillPolygon(float[] xs, float[] ys, int count) {
+        if (xs == null || ys == null) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length));
+        if (n < 3) return;
+        for (int i = 0; i < n; i++) {
+            if (!finite(xs[i], ys[i])) return;
+        }
+        endPath();
+        beginPath('f');
+        for (int i = 0; i < n; i++) {
+            num(xs[i]);
+            put(' ');
+            num(ys[i]);
+            put(i == 0 ? " m\n" : " l\n");
+        }
+        put("h\n");
+        endPath();
+    }
+
+    @Override
+    public void drawVoxelField(VoxelBuffer buffer) {
+        if (buffer == null) return;
+        float[] xs = buffer.x();
+        float[] ys = buffer.y();
+        int[] colors = buffer.argb();
+        int n = Math.min(buffer.count(), Math.min(xs.length, ys.length));
+        int base = argb;
+        for (int i = 0; i < n; i++) {
+            argb = colors != null && i < colors.length ? colors[i] : base;
+            fillRect(xs[i] - 0.5f, ys[i] - 0.5f, 1f, 1f);
+        }
+        argb = base;
+    }
+
+    @Override
+    public ArberMatrix getTransform() {
+        return ArberMatrices.identity();
+    }
+
+    @Override
+    public void setClip(ArberRect clip) {
+        if (clip == null ? this.clip == null : clip.equals(this.clip)) return;
+        checkOpen();
+        endPath();
+        if (this.clip != null) {
+            put("Q\n");
+            // Q restores the state saved with the clip; forget what was set since.
+            strokeRgb = -1;
+            fillRgb = -1;
+            strokeAlpha = -1;
+            fillAlpha = -1;
+            lineWidth = Float.NaN;
+        }
+        this.clip = clip;
+        if (clip != null) {
+            put("q ");
+            rect((float) clip.x(), (float) clip.y(), (float) Math.max(0, clip.width()), (float) Math.max(0, clip.height()));
+            put("W n\n");
+        }
+    }
+
+    @Override
+    public ArberRect getClip() {
+        return clip;
+    }
+
+    @Override
+    public void drawText(float x, float y, String text) {
+        if (text == null || text.isEmpty() || !finite(x, y)) return;
+        checkOpen();
+        endPath();
+        fillStyle();
+        usedFont = true;
+        put("BT /F1 ");
+        num(FONT_SIZE);
+        put(" Tf 1 0 0 -1 ");
+        num(x);
+        put(' ');
+        num(y);
+        put(" Tm (");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                put('\\');
+                put((byte) c);
+            } else if (c < 0x20 || c > 0xFF || (c >= 0x7F && c < 0xA0)) {
+                put('?');
+            } else {
+                put((byte) c);
+            }
+        }
+        put(") Tj ET\n");
+    }
+
+    /**
+     * Ends the content stream: closes the open path and clip and flushes to the sink.
+     */
+    void finishPage() {
+        if (finished) return;
+        endPath();
+        if (clip != null) {
+            put("Q\n");
+            clip = null;
+        }
+        finished = true;
+        drain();
+    }
+
+    /**
+     * Returns a 256-bit set of the alpha values used by this page.
+     */
+    long[] usedAlphas() {
+        return usedAlphas;
+    }
+
+    boolean usedFont() {
+        return usedFont;
+    }
+
+    /**
+     * Makes sure a path of the given kind and the current style is open.
+     *
+     * @return whether a new path was started
+     */
+    private boolean beginPath(char op) {
+        checkOpen();
+        boolean styleChanged = op == 'S'
+                ? (argb & 0xFFFFFF) != strokeRgb || (argb >>> 24) != strokeAlpha || strokeWidth != lineWidth
+                : (argb & 0xFFFFFF) != fillRgb || (argb >>> 24) != fillAlpha;
+        if (pathOp == op && !styleChanged) return false;
+        endPath();
+        if (op == 'S') strokeStyle();
+        else fillStyle();
+        pathOp = op;
+        return true;
+    }
+
+    private void endPath() {
+        if (pathOp == 0) return;
+        put(pathOp);
+        put('\n');
+        pathOp = 0;
+        penAtCur = false;
+    }
+
+    private void strokeStyle() {
+        int rgb = argb & 0xFFFFFF;
+        if (rgb != strokeRgb) {
+            rgb(rgb);
+            put(" RG\n");
+            strokeRgb = rgb;
+        }
+        int alpha = argb >>> 24;
+        if (alpha != strokeAlpha) {
+            alpha(alpha);
+            strokeAlpha = alpha;
+            fillAlpha = alpha;
+        }
+        if (strokeWidth != lineWidth) {
+            num(strokeWidth);
+            put(" w\n");
+            lineWidth = strokeWidth;
+        }
+    }
+
+    private void fillStyle() {
+        int rgb = argb & 0xFFFFFF;
+        if (rgb != fillRgb) {
+            rgb(rgb);
+            put(" rg\n");
+            fillRgb = rgb;
+        }
+        int alpha = argb >>> 24;
+        if (alpha != fillAlpha) {
+            alpha(alpha);
+            strokeAlpha = alpha;
+            fillAlpha = alpha;
+        }
+    }
+
+    /**
+     * Selects the shared graphics state for {@code alpha}; it sets both stroke and fill alpha.
+     */
+    private void alpha(int alpha) {
+        usedAlphas[alpha >>> 6] |= 1L << (alpha & 63);
+        put('/');
+        put(PdfDocumentWriter.alphaStateName(alpha));
+        put(" gs\n");
+    }
+
+    private void rgb(int rgb) {
+        component((rgb >>> 16) & 0xFF);
+        put(' ');
+        component((rgb >>> 8) & 0xFF);
+        put(' ');
+        component(rgb & 0xFF);
+    }
+
+    private void component(int c) {
+        if (c == 0) put('0');
+        else if (c == 255) put('1');
+        else num(c / 255f);
+    }
+
+    private void rect(float x, float y, float w, float h) {
+        num(x);
+        put(' ');
+        num(y);
+        put(' ');
+        num(w);
+        put(' ');
+        num(h);
+        put(" re\n");
+    }
+
+    private void checkOpen() {
+        if (finished) throw new IllegalStateException("PDF page already finished");
+    }
+
+    private static boolean finite(float x, float y) {
+        return Float.isFinite(x) && Float.isFinite(y);
+    }
+
+    /**
+     * Writes {@code v} in fixed point with at most two decimals and no trailing zeros.
+     */
+    private void num(float v) {
+        long q = Math.round((double) v * SCALE);
+        if (q < 0) {
+            put('-');
+            q = -q;
+        }
+        putLong(q / SCALE);
+        long frac = q % SCALE;
+        if (frac != 0) {
+            put('.');
+            put((char) ('0' + frac / 10));
+            if (frac % 10 != 0) put((char) ('0' + frac % 10));
+        }
+    }
+
+    private void putLong(long v) {
+        if (v < 10) {
+            put((char) ('0' + v));
+            return;
+        }
+        if (len + 20 > buf.length) drain();
+        int start = len;
+        while (v > 0) {
+            buf[len++] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        for (int i = start, j = len - 1; i < j; i++, j--) {
+            byte t = buf[i];
+            buf[i] = buf[j];
+            buf[j] = t;
+        }
+    }
+
+    private void put(char c) {
+        put((byte) c);
+    }
+
+    private void put(byte b) {
+        if (len == buf.length) drain();
+        buf[len++] = b;
+    }
+
+    private void put(String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            put((byte) ascii.charAt(i));
+        }
+    }
+
+    private void drain() {
+        if (len == 0) return;
+        try {
+            out.write(buf, 0, len);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        len = 0;
+    }
+}
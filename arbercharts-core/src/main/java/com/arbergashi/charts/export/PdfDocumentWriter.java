@@ -0,0 +1,339 @@
+package com.arbergashi.charts.export;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Streams a multi-page vector PDF to an {@link OutputStream}; no AWT and no PDF library.
+ *
+ * <p>Each page is a {@link PdfCanvas} whose content stream is Flate-compressed. Pages opened with
+ * {@link #beginPage(int, int)} compress straight into the output; their length is written as a
+ * separate object afterwards, so nothing is buffered. Pages can also be rendered elsewhere with
+ * {@link #renderPage(int, int, Consumer)} and appended in order with {@link #addPage(Page)};
+ * {@link #writeReport} does that on an executor with a bounded number of pages in flight.</p>
+ *
+ * <p>All pages share one resource dictionary (Helvetica and one {@code ExtGState} per alpha
+ * value used), written by {@link #finish()} together with the page tree and cross-reference
+ * table. Beyond the current page, memory is a few bytes per object. Not thread-safe.</p>
+ *
+ * <pre>{@code
+ * try (PdfDocumentWriter pdf = new PdfDocumentWriter(Files.newOutputStream(path))) {
+ *     PdfCanvas page = pdf.beginPage(800, 600);
+ *     renderer.render(page, model, context);
+ *     pdf.endPage();
+ * }
+ * }</pre>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class PdfDocumentWriter implements Closeable {
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int RESOURCES = 3;
+    private static final int FIRST_FREE = 4;
+
+    private final CountingStream out;
+    private long[] offsets = new long[64];
+    private int nextObject = FIRST_FREE;
+    private int[] pageObjects = new int[16];
+    private int pageCount;
+    private final long[] usedAlphas = new long[4];
+    private boolean usedFont;
+
+    private PdfCanvas openPage;
+    private Deflater openDeflater;
+    private DeflaterOutputStream openStream;
+    private long openStart;
+    private int openLengthObject;
+    private boolean finished;
+
+    public PdfDocumentWriter(OutputStream out) throws IOException {
+        if (out == null) throw new IllegalArgumentException("out is required");
+        this.out = new CountingStream(new BufferedOutputStream(out, 16 * 1024));
+        write("%PDF-1.4\n%âãÏÓ\n");
+    }
+
+    /**
+     * Starts a page of {@code width x height} points and returns its canvas; the content is
+     * compressed into the output as it is drawn. Finish it with {@link #endPage()}.
+     */
+    public PdfCanvas beginPage(int width, int height) throws IOException {
+        checkOpen();
+        if (openPage != null) throw new IllegalStateException("page already open");
+        int w = Math.max(1, width);
+        int h = Math.max(1, height);
+        int contents = nextObject++;
+        openLengthObject = nextObject++;
+        beginPageObject(w, h, contents);
+        beginObject(contents);
+        write("<< /Length " + openLengthObject + " 0 R /Filter /FlateDecode >>\nstream\n");
+        openStart = out.count;
+        openDeflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        openStream = new DeflaterOutputStream(out, openDeflater, 8192);
+        openPage = new PdfCanvas(openStream, w, h);
+        return openPage;
+    }
+
+    /**
+     * Completes the page opened by {@link #beginPage(int, int)}.
+     */
+    public void endPage() throws IOException {
+        if (openPage == null) throw new IllegalStateException("no open page");
+        PdfCanvas page = openPage;
+        openPage = null;
+        try {
+            page.finishPage();
+            openStream.finish();
+        } finally {
+            openDeflater.end();
+        }
+        long length = out.count - openStart;
+        write("\nendstream\nendobj\n");
+        beginObject(openLengthObject);
+        write(length + "\nendobj\n");
+        merge(page);
+    }
+
+    /**
+     * Renders one page into a compressed, self-contained {@link Page} without touching a writer;
+     * safe to call from many threads at once.
+     */
+    public static Page renderPage(int width, int height, Consumer<? super PdfCanvas> painter) {
+        int w = Math.max(1, width);
+        int h = Math.max(1, height);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (DeflaterOutputStream stream = new DeflaterOutputStream(bytes, deflater, 8192)) {
+            PdfCanvas canvas = new PdfCanvas(stream, w, h);
+            painter.accept(canvas);
+            canvas.finishPage();
+            stream.finish();
+            return new Page(w, h, bytes.toByteArray(), canvas.usedAlphas().clone(), canvas.usedFont());
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not fail; keep the checked signature out of painters.
+            throw new IllegalStateException(e);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Appends a page produced by {@link #renderPage(int, int, Consumer)}.
+     */
+    public void addPage(Page page) throws IOException {
+        checkOpen();
+        if (openPage != null) throw new IllegalStateException("page already open");
+        int contents = nextObject++;
+        beginPageObject(page.width, page.height, contents);
+        beginObject(contents);
+        write("<< /Length " + page.content.length + " /Filter /FlateDecode >>\nstream\n");
+        out.write(page.content);
+        write("\nendstream\nendobj\n");
+        for (int i = 0; i < usedAlphas.length; i++) usedAlphas[i] |= page.usedAlphas[i];
+        usedFont |= page.usedFont;
+    }
+
+    /**
+     * Writes a {@code pages}-page document to {@code out}, painting pages on {@code executor}
+     * (for example one virtual thread per task) and writing them in order. At most
+     * {@code maxInFlight} rendered pages wait in memory; {@code out} is flushed but not closed.
+     *
+     * @param painter receives each page canvas and its zero-based index
+     */
+    public static void writeReport(OutputStream out, int pages, int width, int height,
+                                   ObjIntConsumer<? super PdfCanvas> painter, Executor executor,
+                                   int maxInFlight) throws IOException {
+        PdfDocumentWriter pdf = new PdfDocumentWriter(out);
+        int window = Math.max(1, maxInFlight);
+        ArrayDeque<CompletableFuture<Page>> inFlight = new ArrayDeque<>(window);
+        int submitted = 0;
+        try {
+            while (submitted < pages || !inFlight.isEmpty()) {
+                while (submitted < pages && inFlight.size() < window) {
+                    int index = submitted++;
+                    inFlight.add(CompletableFuture.supplyAsync(
+                            () -> renderPage(width, height, canvas -> painter.accept(canvas, index)), executor));
+                }
+                pdf.addPage(inFlight.poll().join());
+            }
+        } catch (CompletionException e) {
+            inFlight.forEach(f -> f.cancel(false));
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+        pdf.finish();
+    }
+
+    /**
+     * Completes the document and flushes it without closing the stream; repeated calls are
+     * no-ops. An open page is ended first.
+     */
+    public void finish() throws IOException {
+        if (finished) return;
+        if (openPage != null) endPage();
+        beginObject(PAGES);
+        StringBuilder kids = new StringBuilder(pageCount * 8 + 64);
+        kids.append("<< /Type /Pages /Count ").append(pageCount).append(" /Kids [");
+        for (int i = 0; i < pageCount; i++) {
+            kids.append(i == 0 ? "" : " ").append(pageObjects[i]).append(" 0 R");
+            if (kids.length() > 4096) {
+                write(kids.toString());
+                kids.setLength(0);
+            }
+        }
+        write(kids.append("] >>\nendobj\n").toString());
+
+        beginObject(RESOURCES);
+        StringBuilder res = new StringBuilder("<< /ExtGState <<");
+        for (int alpha = 0; alpha < 256; alpha++) {
+            if ((usedAlphas[alpha >>> 6] & (1L << (alpha & 63))) == 0) continue;
+            String a = Float.toString(Math.round(alpha / 255f * 1000f) / 1000f);
+            res.append(" /").append(alphaStateName(alpha))
+                    .append(" << /Type /ExtGState /CA ").append(a).append(" /ca ").append(a).append(" >>");
+        }
+        res.append(" >>");
+        if (usedFont) {
+            res.append(" /Font << /F1 << /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >> >>");
+        }
+        write(res.append(" >>\nendobj\n").toString());
+
+        beginObject(CATALOG);
+        write("<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n");
+
+        long xref = out.count;
+        StringBuilder table = new StringBuilder(64 + nextObject * 20);
+        table.append("xref\n0 ").append(nextObject).append("\n0000000000 65535 f \n");
+        for (int i = 1; i < nextObject; i++) {
+            String offset = Long.toString(offsets[i]);
+            table.append("0".repeat(10 - offset.length())).append(offset).append(" 00000 n \n");
+            if (table.length() > 8192) {
+                write(table.toString());
+                table.setLength(0);
+            }
+        }
+        table.append("trailer\n<< /Size ").append(nextObject).append(" /Root ").append(CATALOG)
+                .append(" 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+        write(table.toString());
+        finished = true;
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    static String alphaStateName(int alpha) {
+        return "A" + alpha;
+    }
+
+    private void beginPageObject(int width, int height, int contents) throws IOException {
+        int page = nextObject++;
+        if (pageCount == pageObjects.length) pageObjects = Arrays.copyOf(pageObjects, pageCount * 2);
+        pageObjects[pageCount++] = page;
+        beginObject(page);
+        write("<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 " + width + " " + height
+                + "] /Resources " + RESOURCES + " 0 R /Contents " + contents + " 0 R >>\nendobj\n");
+    }
+
+    private void beginObject(int number) throws IOException {
+        if (number >= offsets.length) offsets = Arrays.copyOf(offsets, Math.max(number + 1, offsets.length * 2));
+        offsets[number] = out.count;
+        write(number + " 0 obj\n");
+    }
+
+    private void merge(PdfCanvas page) {
+        long[] alphas = page.usedAlphas();
+        for (int i = 0; i < usedAlphas.length; i++) usedAlphas[i] |= alphas[i];
+        usedFont |= page.usedFont();
+    }
+
+    private void checkOpen() {
+        if (finished) throw new IllegalStateException("PDF document already finished");
+    }
+
+    private void write(String ascii) throws IOException {
+        out.write(ascii.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * A page rendered by {@link #renderPage(int, int, Consumer)}: compressed content plus the
+     * shared resources it refers to.
+     */
+    public static final class Page {
+        private final int width;
+        private final int height;
+        private final byte[] content;
+        private final long[] usedAlphas;
+        private final boolean usedFont;
+
+        private Page(int width, int height, byte[] content, long[] usedAlphas, boolean usedFont) {
+            this.width = width;
+            this.height = height;
+            this.content = content;
+            this.usedAlphas = usedAlphas;
+            this.usedFont = usedFont;
+        }
+
+        /**
+         * Compressed size of the content stream in bytes.
+         */
+        public int getContentLength() {
+            return content.length;
+        }
+    }
+
+    private static final class CountingStream extends OutputStream {
+        private final OutputStream target;
+        private long count;
+
+        CountingStream(OutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            target.close();
+        }
+    }
+}
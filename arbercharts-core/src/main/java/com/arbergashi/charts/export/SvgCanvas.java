@@ -0,0 +1,653 @@
+package com.arbergashi.charts.export;
+
+import com.arbergashi.charts.api.types.ArberColor;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.core.rendering.ArberMatrices;
+import com.arbergashi.charts.core.rendering.ArberMatrix;
+import com.arbergashi.charts.core.rendering.MarkerShape;
+import com.arbergashi.charts.core.rendering.VoxelBuffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link ArberCanvas} that streams SVG to a {@link Writer}; no AWT and no DOM.
+ *
+ * <p>Output is written through a small internal buffer as draw calls arrive, so memory use does
+ * not grow with the chart. To keep documents compact:</p>
+ * <ul>
+ *   <li>consecutive {@code moveTo}/{@code lineTo}, polylines, segments and stroked rectangles of
+ *   one style are merged into a single {@code <path>} with relative commands;</li>
+ *   <li>coordinates are quantized to {@code 10^-decimals} pixels and written by a fixed-point
+ *   formatter without trailing zeros; relative steps are taken between quantized points, so
+ *   rounding does not accumulate along a path;</li>
+ *   <li>each distinct color/stroke combination becomes a CSS class, declared once on first use;</li>
+ *   <li>filled markers are defined once per shape and size and placed with {@code <use>}.</li>
+ * </ul>
+ *
+ * <p>Opaque rectangle fills of one color are merged as well; translucent fills and polygons stay
+ * separate elements so overlaps blend as on raster backends. {@link #beginLayer(String)} opens a
+ * {@code <g>} per layer, clips become shared {@code <clipPath>} groups. I/O errors surface as
+ * {@link UncheckedIOException}. Call {@link #finish()} or {@link #close()} to complete the
+ * document. Not thread-safe.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class SvgCanvas implements ArberCanvas, Closeable {
+    /** Default coordinate precision: a tenth of a pixel. */
+    public static final int DEFAULT_DECIMALS = 1;
+    private static final int MAX_DECIMALS = 4;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    private final char[] buf = new char[8192];
+    private int len;
+    private final long scale;
+
+    private int argb = 0xFF000000;
+    private float strokeWidth = 1f;
+
+    private final Map<Long, Integer> strokeClasses = new HashMap<>();
+    private final Map<Integer, Integer> fillClasses = new HashMap<>();
+    private final Map<Long, Integer> markerDefs = new HashMap<>();
+    private final Map<ArberRect, Integer> clipIds = new HashMap<>();
+    private int nextClass;
+    private long cachedStrokeKey = Long.MIN_VALUE;
+    private int cachedStrokeClass;
+    private int cachedFillArgb;
+    private int cachedFillClass = -1;
+
+    // Open <path> element, -1 if none; pen is its current point in grid units.
+    private int pathClass = -1;
+    private long penX;
+    private long penY;
+    private char lastCmd;
+    private boolean needSep;
+
+    // Canvas current point in grid units; penAtCur is set while a stroked run continues from it.
+    private long curX;
+    private long curY;
+    private boolean hasCur;
+    private boolean penAtCur;
+
+    private ArberRect clip;
+    private boolean clipOpen;
+    private int layerDepth;
+    private boolean finished;
+    private final float[] markerX = new float[MarkerShape.MAX_OUTLINE_VERTICES];
+    private final float[] markerY = new float[MarkerShape.MAX_OUTLINE_VERTICES];
+
+    public SvgCanvas(Writer out, int width, int height) {
+        this(out, width, height, DEFAULT_DECIMALS);
+    }
+
+    /**
+     * @param decimals coordinate precision in decimal places, clamped to {@code [0, 4]}
+     */
+    public SvgCanvas(Writer out, int width, int height, int decimals) {
+        if (out == null) throw new IllegalArgumentException("out is required");
+        this.out = out;
+        int d = Math.max(0, Math.min(decimals, MAX_DECIMALS));
+        long s = 1;
+        for (int i = 0; i < d; i++) s *= 10;
+        this.scale = s;
+        put("<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\" width=\"");
+        putLong(Math.max(1, width));
+        put("\" height=\"");
+        putLong(Math.max(1, height));
+        put("\" viewBox=\"0 0 ");
+        putLong(Math.max(1, width));
+        put(' ');
+        putLong(Math.max(1, height));
+        put("\">\n<style>path{stroke-linecap:square}text{font:12px sans-serif}</style>\n");
+    }
+
+    /**
+     * Streams UTF-8 to {@code out}; {@link #close()} closes the stream.
+     */
+    public SvgCanvas(OutputStream out, int width, int height) {
+        this(new OutputStreamWriter(out, StandardCharsets.UTF_8), width, height, DEFAULT_DECIMALS);
+    }
+
+    /**
+     * Opens a {@code <g>} for one layer; layers nest. The id is written as given (escaped).
+     */
+    public void beginLayer(String id) {
+        checkOpen();
+        closePath();
+        closeClipGroup();
+        put("<g");
+        if (id != null && !id.isEmpty()) {
+            put(" id=\"");
+            putEscaped(id);
+            put('"');
+        }
+        put(">\n");
+        layerDepth++;
+        openClipGroup();
+    }
+
+    /**
+     * Closes the innermost layer.
+     *
+     * @throws IllegalStateException if no layer is open
+     */
+    public void endLayer() {
+        if (layerDepth == 0) throw new IllegalStateException("no open layer");
+        closePath();
+        closeClipGroup();
+        put("</g>\n");
+        layerDepth--;
+        openClipGroup();
+    }
+
+    /**
+     * Completes the document and flushes it to the writer without closing it. Further drawing
+     * fails with {@link IllegalStateException}; repeated calls are no-ops.
+     */
+    public void finish() {
+        if (finished) return;
+        closePath();
+        closeClipGroup();
+        while (layerDepth > 0) {
+            put("</g>\n");
+            layerDepth--;
+        }
+        put("</svg>\n");
+        finished = true;
+        drain();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    @Override
+    public void setColor(ArberColor color) {
+        if (color != null) argb = color.argb();
+    }
+
+    @Override
+    public void setStroke(float width) {
+        strokeWidth = width;
+    }
+
+    @Override
+    public void moveTo(float x, float y) {
+        penAtCur = false;
+        hasCur = finite(x, y);
+        if (!hasCur) return;
+        curX = grid(x);
+        curY = grid(y);
+    }
+
+    @Override
+    public void lineTo(float x, float y) {
+        if (!hasCur || !finite(x, y)) {
+            moveTo(x, y);
+            return;
+        }
+        checkOpen();
+        long gx = grid(x);
+        long gy = grid(y);
+        if (openPath(strokeClass())) penAtCur = false;
+        if (!penAtCur) moveRel(curX, curY);
+        if (gx != penX || gy != penY) {
+            cmd('l');
+            num(gx - penX);
+            num(gy - penY);
+            penX = gx;
+            penY = gy;
+        }
+        curX = gx;
+        curY = gy;
+        penAtCur = true;
+    }
+
+    @Override
+    public void drawPolyline(float[] xs, float[] ys, int count) {
+        if (xs == null || ys == null) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length));
+        if (n < 2) return;
+        moveTo(xs[0], ys[0]);
+        for (int i = 1; i < n; i++) {
+            lineTo(xs[i], ys[i]);
+        }
+    }
+
+    @Override
+    public void drawRect(float x, float y, float w, float h) {
+        if (!finite(x, y) || !(w >= 0f) || !(h >= 0f) || !finite(w, h)) return;
+        checkOpen();
+        openPath(strokeClass());
+        rectPath(x, y, w, h);
+    }
+
+    @Override
+    public void fillRect(float x, float y, float w, float h) {
+        if (!finite(x, y) || !(w > 0f) || !(h > 0f) || !finite(w, h)) return;
+        checkOpen();
+        openPath(fillClass());
+        rectPath(x, y, w, h);
+        if ((argb >>> 24) != 0xFF) closePath();
+    }
+
+    @Override
+    public void fillPolygon(float[] xs, float[] ys, int count) {
+        if (xs == null || ys == null) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length));
+        if (n < 3) return;
+        for (int i = 0; i < n; i++) {
+            if (!finite(xs[i], ys[i])) return;
+        }
+        checkOpen();
+        int cls = fillClass();
+        closePath();
+        openPath(cls);
+        polygonPath(xs, ys, n);
+        closePath();
+    }
+
+    @Override
+    public void drawVoxelField(VoxelBuffer buffer) {
+        if (buffer == null) return;
+        float[] xs = buffer.x();
+        float[] ys = buffer.y();
+        int[] colors = buffer.argb();
+        int n = Math.min(buffer.count(), Math.min(xs.length, ys.length));
+        int base = argb;
+        for (int i = 0; i < n; i++) {
+            argb = colors != null && i < colors.length ? colors[i] : base;
+            fillRect(xs[i] - 0.5f, ys[i] - 0.5f, 1f, 1f);
+        }
+        argb = base;
+    }
+
+    @Override
+    public ArberMatrix getTransform() {
+        return ArberMatrices.identity();
+    }
+
+    @Override
+    public void setClip(ArberRect clip) {
+        if (clip == null ? this.clip == null : clip.equals(this.clip)) return;
+        checkOpen();
+        closePath();
+        closeClipGroup();
+        this.clip = clip;
+        openClipGroup();
+    }
+
+    @Override
+    public ArberRect getClip() {
+        return clip;
+    }
+
+    @Override
+    public void drawText(float x, float y, String text) {
+        if (text == null || text.isEmpty() || !finite(x, y)) return;
+        checkOpen();
+        int cls = fillClass();
+        closePath();
+        put("<text x=\"");
+        putFixed(grid(x));
+        put("\" y=\"");
+        putFixed(grid(y));
+        put("\" class=\"s");
+        putLong(cls);
+        put("\">");
+        putEscaped(text);
+        put("</text>\n");
+    }
+
+    @Override
+    public void drawMarkers(MarkerShape shape, float[] xs, float[] ys, float size, int[] argb, int count) {
+        if (shape == null || shape.isStroked()) {
+            ArberCanvas.super.drawMarkers(shape, xs, ys, size, argb, count);
+            return;
+        }
+        if (xs == null || ys == null || count <= 0 || !(size > 0f) || !Float.isFinite(size)) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length));
+        if (argb != null) n = Math.min(n, argb.length);
+        checkOpen();
+        closePath();
+        int def = markerDef(shape, size);
+        for (int i = 0; i < n; i++) {
+            if (!finite(xs[i], ys[i])) continue;
+            if (argb != null) this.argb = argb[i];
+            int cls = fillClass();
+            put("<use xlink:href=\"#m");
+            putLong(def);
+            put("\" x=\"");
+            putFixed(grid(xs[i]));
+            put("\" y=\"");
+            putFixed(grid(ys[i]));
+            put("\" class=\"s");
+            putLong(cls);
+            put("\"/>\n");
+        }
+    }
+
+    private int markerDef(MarkerShape shape, float size) {
+        long key = ((long) shape.ordinal() << 32) | (Float.floatToIntBits(size) & 0xFFFFFFFFL);
+        Integer id = markerDefs.get(key);
+        if (id != null) return id;
+        int def = markerDefs.size();
+        markerDefs.put(key, def);
+        int n = shape.outline(0f, 0f, size * 0.5f, markerX, markerY);
+        put("<defs><path id=\"m");
+        putLong(def);
+        put("\" d=\"");
+        penX = 0;
+        penY = 0;
+        lastCmd = 0;
+        needSep = false;
+        polygonPath(markerX, markerY, n);
+        put("\"/></defs>\n");
+        return def;
+    }
+
+    private void rectPath(float x, float y, float w, float h) {
+        long gx = grid(x);
+        long gy = grid(y);
+        long gw = grid(x + w) - gx;
+        long gh = grid(y + h) - gy;
+        moveRel(gx, gy);
+        cmd('h');
+        num(gw);
+        cmd('v');
+        num(gh);
+        cmd('h');
+        num(-gw);
+        cmd('z');
+        penAtCur = false;
+    }
+
+    private void polygonPath(float[] xs, float[] ys, int n) {
+        moveRel(grid(xs[0]), grid(ys[0]));
+        for (int i = 1; i < n; i++) {
+            long gx = grid(xs[i]);
+            long gy = grid(ys[i]);
+            if (gx == penX && gy == penY) continue;
+            cmd('l');
+            num(gx - penX);
+            num(gy - penY);
+            penX = gx;
+            penY = gy;
+        }
+        cmd('z');
+    }
+
+    /**
+     * Appends a relative move; after {@code z} the pen is back at the last move target, which is
+     * where it is left here.
+     */
+    private void moveRel(long gx, long gy) {
+        cmd('m');
+        num(gx - penX);
+        num(gy - penY);
+        penX = gx;
+        penY = gy;
+        // Pairs following an "m" are implicit line-tos.
+        lastCmd = 'l';
+    }
+
+    private void cmd(char c) {
+        if (c == lastCmd && c != 'm' && c != 'z') return;
+        put(c);
+        lastCmd = c;
+        needSep = false;
+    }
+
+    private void num(long q) {
+        if (needSep && q >= 0) put(' ');
+        putFixed(q);
+        needSep = true;
+    }
+
+    /**
+     * Opens a path element of the given class unless one is already open.
+     *
+     * @return whether a new element was started
+     */
+    private boolean openPath(int cls) {
+        if (pathClass == cls) return false;
+        closePath();
+        put("<path class=\"s");
+        putLong(cls);
+        put("\" d=\"");
+        pathClass = cls;
+        penX = 0;
+        penY = 0;
+        lastCmd = 0;
+        needSep = false;
+        return true;
+    }
+
+    private void closePath() {
+        if (pathClass < 0) return;
+        put("\"/>\n");
+        pathClass = -1;
+        penAtCur = false;
+    }
+
+    private int strokeClass() {
+        long key = ((long) Float.floatToIntBits(strokeWidth) << 32) | (argb & 0xFFFFFFFFL);
+        if (key == cachedStrokeKey) return cachedStrokeClass;
+        Integer cls = strokeClasses.get(key);
+        if (cls == null) {
+            cls = nextClass++;
+            strokeClasses.put(key, cls);
+            closePath();
+            put("<style>.s");
+            putLong(cls);
+            put("{fill:none;stroke:");
+            putColor(argb, "stroke-opacity");
+            put(";stroke-width:");
+            putDecimal(strokeWidth);
+            put("}</style>\n");
+        }
+        cachedStrokeKey = key;
+        cachedStrokeClass = cls;
+        return cls;
+    }
+
+    private int fillClass() {
+        if (cachedFillClass >= 0 && argb == cachedFillArgb) return cachedFillClass;
+        Integer cls = fillClasses.get(argb);
+        if (cls == null) {
+            cls = nextClass++;
+            fillClasses.put(argb, cls);
+            closePath();
+            put("<style>.s");
+            putLong(cls);
+            put("{fill:");
+            putColor(argb, "fill-opacity");
+            put("}</style>\n");
+        }
+        cachedFillArgb = argb;
+        cachedFillClass = cls;
+        return cls;
+    }
+
+    private void openClipGroup() {
+        if (clip == null) return;
+        Integer id = clipIds.get(clip);
+        if (id == null) {
+            id = clipIds.size();
+            clipIds.put(clip, id);
+            put("<clipPath id=\"c");
+            putLong(id);
+            put("\"><rect x=\"");
+            putDecimal(clip.x());
+            put("\" y=\"");
+            putDecimal(clip.y());
+            put("\" width=\"");
+            putDecimal(Math.max(0, clip.width()));
+            put("\" height=\"");
+            putDecimal(Math.max(0, clip.height()));
+            put("\"/></clipPath>\n");
+        }
+        put("<g clip-path=\"url(#c");
+        putLong(id);
+        put(")\">\n");
+        clipOpen = true;
+    }
+
+    private void closeClipGroup() {
+        if (!clipOpen) return;
+        put("</g>\n");
+        clipOpen = false;
+    }
+
+    private void checkOpen() {
+        if (finished) throw new IllegalStateException("SVG document already finished");
+    }
+
+    private long grid(float v) {
+        return Math.round((double) v * scale);
+    }
+
+    private static boolean finite(float x, float y) {
+        return Float.isFinite(x) && Float.isFinite(y);
+    }
+
+    private void putColor(int argb, String opacityProperty) {
+        put('#');
+        for (int shift = 20; shift >= 0; shift -= 4) {
+            put(HEX[(argb >>> shift) & 0xF]);
+        }
+        int alpha = argb >>> 24;
+        if (alpha != 0xFF) {
+            put(';');
+            put(opacityProperty);
+            put(':');
+            putDecimal(alpha / 255.0);
+        }
+    }
+
+    /**
+     * Writes a non-coordinate value with three decimals at most.
+     */
+    private void putDecimal(double v) {
+        long q = Double.isFinite(v) ? Math.round(v * 1000) : 0L;
+        if (q < 0) {
+            put('-');
+            q = -q;
+        }
+        putLong(q / 1000);
+        putFraction(q % 1000, 100);
+    }
+
+    /**
+     * Writes {@code q / scale} in fixed point, dropping trailing zeros.
+     */
+    private void putFixed(long q) {
+        if (q < 0) {
+            put('-');
+            q = -q;
+        }
+        putLong(q / scale);
+        putFraction(q % scale, scale / 10);
+    }
+
+    private void putFraction(long frac, long divisor) {
+        if (frac == 0) return;
+        put('.');
+        while (frac != 0) {
+            put((char) ('0' + frac / divisor));
+            frac %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    private void putLong(long v) {
+        if (v < 10) {
+            put((char) ('0' + v));
+            return;
+        }
+        if (len + 20 > buf.length) drain();
+        int start = len;
+        while (v > 0) {
+            buf[len++] = (char) ('0' + v % 10);
+            v /= 10;
+        }
+        for (int i = start, j = len - 1; i < j; i++, j--) {
+            char t = buf[i];
+            buf[i] = buf[j];
+            buf[j] = t;
+        }
+    }
+
+    private void putEscaped(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '&' -> put("&amp;");
+                case '<' -> put("&lt;");
+                case '>' -> put("&gt;");
+                case '"' -> put("&quot;");
+                default -> {
+                    // Control characters are not allowed in XML 1.0.
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') put(c);
+                }
+            }
+        }
+    }
+
+    private void put(char c) {
+        if (len == buf.length) drain();
+        buf[len++] = c;
+    }
+
+    private void put(String s) {
+        int n = s.length();
+        if (len + n > buf.length) {
+            drain();
+            if (n > buf.length) {
+                write(s);
+                return;
+            }
+        }
+        s.getChars(0, n, buf, len);
+        len += n;
+    }
+
+    private void write(String s) {
+        try {
+            out.write(s);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void drain() {
+        if (len == 0) return;
+        try {
+            out.write(buf, 0, len);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        len = 0;
+    }
+}
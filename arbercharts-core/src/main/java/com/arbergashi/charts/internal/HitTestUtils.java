@@ -1,6 +1,7 @@
 package com.arbergashi.charts.internal;
 
 import com.arbergashi.charts.api.PlotContext;
+import com.arbergashi.charts.engine.spatial.PointIndex;
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.util.ChartScale;
 
@@ -20,7 +21,8 @@ public final class HitTestUtils {
 
     /**
      * Finds the index of the nearest data point to a given pixel location.
-     * This method is zero-allocation and works directly on the model's primitive data.
+     * Backed by the model's shared {@link PointIndex}, so a hover costs a binary search (monotonic
+     * x) or a few grid cells instead of re-projecting every point.
      *
      * @param pixel   The pixel coordinate to test against.
      * @param model   The data model.
@@ -28,34 +30,12 @@ public final class HitTestUtils {
      * @return An Optional containing the index of the nearest point, or empty if not found.
      */
     public static Optional<Integer> nearestPointIndex(ArberPoint pixel, ChartModel model, PlotContext context) {
-        final int n = model.getPointCount();
-        if (n == 0) {
+        if (model.getPointCount() == 0) {
             return Optional.empty();
         }
-
-        double minDistanceSq = Double.MAX_VALUE;
-        int bestIndex = -1;
-        double[] pointPixel = new double[2];
-
-        for (int i = 0; i < n; i++) {
-            context.mapToPixel(model.getX(i), model.getY(i), pointPixel);
-
-            double dx = pixel.x() - pointPixel[0];
-            double dy = pixel.y() - pointPixel[1];
-            double distSq = dx * dx + dy * dy;
-
-            if (distSq < minDistanceSq) {
-                minDistanceSq = distSq;
-                bestIndex = i;
-            }
-        }
-
-        // Check if the nearest point is within a reasonable threshold
+        // Only points within a reasonable threshold count as hits
         double threshold = ChartScale.scale(15.0);
-        if (bestIndex != -1 && minDistanceSq < threshold * threshold) {
-            return Optional.of(bestIndex);
-        }
-
-        return Optional.empty();
+        int index = PointIndex.forModel(model).nearest(model, context, pixel.x(), pixel.y(), threshold);
+        return index >= 0 ? Optional.of(index) : Optional.empty();
     }
 }
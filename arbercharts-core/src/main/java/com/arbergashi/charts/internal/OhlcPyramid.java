@@ -0,0 +1,483 @@
+package com.arbergashi.charts.internal;
+
+import com.arbergashi.charts.api.PlotContext;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.model.ChartModel;
+import com.arbergashi.charts.model.FinancialChartModel;
+
+import java.util.Arrays;
+
+/**
+ * Financial-aware level-of-detail stage for candle-family renderers.
+ *
+ * <p>When more than one bar falls into a pixel column, the bars of that column are merged into a
+ * single synthetic OHLC bar: first open, max high, min low, last close, summed volume. Unlike the
+ * min/max reduction of {@link PixelDecimator}, open and close keep their temporal meaning.</p>
+ *
+ * <p>Merging runs over a cached pyramid: level {@code k} holds pre-merged runs of {@code 2^k}
+ * bars. A frame picks the coarsest level whose runs are still narrower than a pixel, so the cost
+ * is proportional to the plot width, not the bar count.</p>
+ *
+ * <p><b>Update contract:</b> between two frames a model is expected to append bars and/or revise
+ * its last bar, as {@link com.arbergashi.charts.model.DefaultFinancialChartModel} does; only the
+ * tail path is then recomputed. A shrinking bar count, or a change to the first bar or to the
+ * newest bar the tail path does not revisit, is detected and forces a full rebuild. Edits deeper
+ * in the history cannot be seen cheaply; callers that make them must call {@link #invalidate()}.</p>
+ *
+ * <p>Instances are owned by a single renderer and are not thread-safe. Data is read as
+ * {@code weight=open, max=high, min=low, y=close} unless the model is a
+ * {@link FinancialChartModel}.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class OhlcPyramid {
+
+    private final double[] px = new double[2];
+
+    // level 0 (either the model's backing arrays or a private copy)
+    private double[] srcX;
+    private double[] srcO;
+    private double[] srcH;
+    private double[] srcL;
+    private double[] srcC;
+    private double[] srcV;
+    private double[] copyX = ChartModel.EMPTY_DOUBLE;
+    private double[] copyO = ChartModel.EMPTY_DOUBLE;
+    private double[] copyH = ChartModel.EMPTY_DOUBLE;
+    private double[] copyL = ChartModel.EMPTY_DOUBLE;
+    private double[] copyC = ChartModel.EMPTY_DOUBLE;
+    private double[] copyV = ChartModel.EMPTY_DOUBLE;
+
+    // levels >= 1, concatenated
+    private int[] levelOffset = new int[1];
+    private int[] levelSize = new int[1];
+    private int levels;
+    private int capacity;
+    private double[] nodeX = ChartModel.EMPTY_DOUBLE;
+    private double[] nodeO = ChartModel.EMPTY_DOUBLE;
+    private double[] nodeH = ChartModel.EMPTY_DOUBLE;
+    private double[] nodeL = ChartModel.EMPTY_DOUBLE;
+    private double[] nodeC = ChartModel.EMPTY_DOUBLE;
+    private double[] nodeV = ChartModel.EMPTY_DOUBLE;
+
+    private Object cachedKey;
+    private long cachedStamp = Long.MIN_VALUE;
+    private int count;
+    private boolean monotonic;
+
+    // x, open, high, low, close of bar 0 and of bar count - 2 as of the last sync
+    private final double[] firstBar = new double[5];
+    private final double[] settledBar = new double[5];
+    private final double[] probe = new double[5];
+
+    // merged output
+    private int binCount;
+    private double[] binPx = ChartModel.EMPTY_DOUBLE;
+    private double[] binX = ChartModel.EMPTY_DOUBLE;
+    private double[] binO = ChartModel.EMPTY_DOUBLE;
+    private double[] binH = ChartModel.EMPTY_DOUBLE;
+    private double[] binL = ChartModel.EMPTY_DOUBLE;
+    private double[] binC = ChartModel.EMPTY_DOUBLE;
+    private double[] binV = ChartModel.EMPTY_DOUBLE;
+    private int[] binFirst = new int[0];
+
+    /**
+     * Synchronizes the pyramid with the model and merges the visible bars per pixel column.
+     *
+     * @param uniform {@code true} if bars are laid out by index ({@code x + (i + 0.5) * width / n})
+     *                instead of by their X value
+     * @return {@code true} if bars overlap pixel columns and merged bins are available;
+     * {@code false} if the caller should draw individual bars
+     */
+    public boolean merge(ChartModel model, PlotContext context, boolean uniform) {
+        int n = model.getPointCount();
+        if (n <= 0 || !dense(context, n)) return false;
+        sync(model, n);
+        return bin(context, uniform);
+    }
+
+    /**
+     * Variant for renderers that derive their own OHLC series (e.g. Heikin-Ashi).
+     *
+     * <p>The caller advances {@code stamp} by one per revision of the series and reports the first
+     * bar that revision touched. When the pyramid last saw the directly preceding stamp, only the
+     * tail from {@code dirtyFrom} is recomputed; otherwise (a skipped revision, another key, a
+     * shrinking series) every level is rebuilt. The arrays may be reallocated between calls as
+     * long as the bars before {@code dirtyFrom} keep their values.</p>
+     *
+     * @param key       identity of the derived series; together with {@code stamp} decides reuse
+     * @param stamp     version of the derived series
+     * @param dirtyFrom first bar changed by revision {@code stamp}; {@code 0} rebuilds every level
+     */
+    public boolean merge(Object key, long stamp, int n, int dirtyFrom, double[] x, double[] open, double[] high,
+                         double[] low, double[] close, PlotContext context, boolean uniform) {
+        if (n <= 0 || !dense(context, n)) return false;
+        if (key != cachedKey || stamp != cachedStamp || n != count) {
+            if (key != cachedKey || stamp != cachedStamp + 1 || n < count || dirtyFrom < 0) dirtyFrom = 0;
+            srcX = x;
+            srcO = open;
+            srcH = high;
+            srcL = low;
+            srcC = close;
+            srcV = null;
+            cachedKey = key;
+            cachedStamp = stamp;
+            rebuild(dirtyFrom, n);
+        }
+        return bin(context, uniform);
+    }
+
+    /**
+     * Forces the next {@link #merge(ChartModel, PlotContext, boolean)} to rebuild every level,
+     * for models that edited bars before their last one.
+     */
+    public void invalidate() {
+        cachedKey = null;
+        cachedStamp = Long.MIN_VALUE;
+    }
+
+    public int getBinCount() {
+        return binCount;
+    }
+
+    /** Pixel X (column centre) of bin {@code i}. */
+    public double getBinPixelX(int i) {
+        return binPx[i];
+    }
+
+    /** Data X of the first bar merged into bin {@code i}. */
+    public double getBinX(int i) {
+        return binX[i];
+    }
+
+    public double getBinOpen(int i) {
+        return binO[i];
+    }
+
+    public double getBinHigh(int i) {
+        return binH[i];
+    }
+
+    public double getBinLow(int i) {
+        return binL[i];
+    }
+
+    public double getBinClose(int i) {
+        return binC[i];
+    }
+
+    public double getBinVolume(int i) {
+        return binV[i];
+    }
+
+    /** Model index of the first bar merged into bin {@code i}. */
+    public int getBinFirstIndex(int i) {
+        return binFirst[i];
+    }
+
+    /** Number of pyramid levels above the raw bars (for diagnostics and tests). */
+    public int getLevelCount() {
+        return levels;
+    }
+
+    private static boolean dense(PlotContext context, int n) {
+        ArberRect bounds = context.getPlotBounds();
+        return bounds != null && bounds.width() >= 1.0 && n > bounds.width();
+    }
+
+    private void sync(ChartModel model, int n) {
+        long stamp = model.getUpdateStamp();
+        if (model == cachedKey && stamp == cachedStamp && n == count && stamp != 0L) return;
+
+        int dirtyFrom = 0;
+        if (model == cachedKey && n >= count && count > 1
+                && unchanged(model, 0, firstBar) && unchanged(model, count - 2, settledBar)) {
+            dirtyFrom = count - 1;
+        }
+        if (model instanceof FinancialChartModel fin && fits(fin.getXData(), n) && fits(fin.getOpenData(), n)
+                && fits(fin.getHighData(), n) && fits(fin.getLowData(), n) && fits(fin.getCloseData(), n)) {
+            srcX = fin.getXData();
+            srcO = fin.getOpenData();
+            srcH = fin.getHighData();
+            srcL = fin.getLowData();
+            srcC = fin.getCloseData();
+            double[] v = fin.getVolumeData();
+            srcV = fits(v, n) ? v : null;
+        } else {
+            if (srcX != copyX) dirtyFrom = 0; // the copies are stale if the model was array-backed
+            if (copyX.length < n) {
+                int cap = Math.max(n, copyX.length * 2);
+                copyX = Arrays.copyOf(copyX, cap);
+                copyO = Arrays.copyOf(copyO, cap);
+                copyH = Arrays.copyOf(copyH, cap);
+                copyL = Arrays.copyOf(copyL, cap);
+                copyC = Arrays.copyOf(copyC, cap);
+                copyV = Arrays.copyOf(copyV, cap);
+            }
+            FinancialChartModel fin = model instanceof FinancialChartModel f ? f : null;
+            for (int i = dirtyFrom; i < n; i++) {
+                copyX[i] = model.getX(i);
+                copyO[i] = fin != null ? fin.getOpen(i) : model.getWeight(i);
+                copyH[i] = fin != null ? fin.getHigh(i) : model.getMax(i);
+                copyL[i] = fin != null ? fin.getLow(i) : model.getMin(i);
+                copyC[i] = fin != null ? fin.getClose(i) : model.getY(i);
+                copyV[i] = fin != null ? fin.getVolume(i) : 0.0;
+            }
+            srcX = copyX;
+            srcO = copyO;
+            srcH = copyH;
+            srcL = copyL;
+            srcC = copyC;
+            srcV = copyV;
+        }
+        cachedKey = model;
+        cachedStamp = stamp;
+        rebuild(dirtyFrom, n);
+        remember(0, firstBar);
+        remember(Math.max(0, n - 2), settledBar);
+    }
+
+    private static boolean fits(double[] a, int n) {
+        return a != null && a.length >= n;
+    }
+
+    private void remember(int i, double[] bar) {
+        bar[0] = srcX[i];
+        bar[1] = srcO[i];
+        bar[2] = srcH[i];
+        bar[3] = srcL[i];
+        bar[4] = srcC[i];
+    }
+
+    /** Compares bar {@code i} of the model bit-for-bit with a remembered bar. */
+    private boolean unchanged(ChartModel model, int i, double[] bar) {
+        if (model instanceof FinancialChartModel fin) {
+            probe[1] = fin.getOpen(i);
+            probe[2] = fin.getHigh(i);
+            probe[3] = fin.getLow(i);
+            probe[4] = fin.getClose(i);
+        } else {
+            probe[1] = model.getWeight(i);
+            probe[2] = model.getMax(i);
+            probe[3] = model.getMin(i);
+            probe[4] = model.getY(i);
+        }
+        probe[0] = model.getX(i);
+        return Arrays.equals(probe, bar);
+    }
+
+    /**
+     * Recomputes every node that covers a bar at or after {@code dirtyFrom}.
+     */
+    private void rebuild(int dirtyFrom, int n) {
+        if (dirtyFrom == 0 || dirtyFrom > count) {
+            dirtyFrom = 0;
+            monotonic = true;
+        } else if (dirtyFrom > 0 && srcX[dirtyFrom] < srcX[dirtyFrom - 1]) {
+            monotonic = false;
+        }
+        for (int i = Math.max(1, dirtyFrom); i < n && monotonic; i++) {
+            if (srcX[i] < srcX[i - 1]) monotonic = false;
+        }
+        count = n;
+        int from = layoutLevels(n) ? 0 : dirtyFrom;
+        for (int level = 1; level <= levels; level++) {
+            from >>= 1;
+            int base = levelOffset[level];
+            int size = levelSize[level];
+            int childSize = levelSize[level - 1];
+            for (int j = from; j < size; j++) {
+                int a = 2 * j;
+                int b = a + 1;
+                int dst = base + j;
+                if (level == 1) {
+                    nodeX[dst] = srcX[a];
+                    nodeO[dst] = srcO[a];
+                    double h = srcH[a];
+                    double l = srcL[a];
+                    double c = srcC[a];
+                    double v = srcV != null ? srcV[a] : 0.0;
+                    if (b < childSize) {
+                        if (srcH[b] > h || Double.isNaN(h)) h = srcH[b];
+                        if (srcL[b] < l || Double.isNaN(l)) l = srcL[b];
+                        c = srcC[b];
+                        if (srcV != null) v += srcV[b];
+                    }
+                    nodeH[dst] = h;
+                    nodeL[dst] = l;
+                    nodeC[dst] = c;
+                    nodeV[dst] = v;
+                } else {
+                    int child = levelOffset[level - 1];
+                    int ca = child + a;
+                    nodeX[dst] = nodeX[ca];
+                    nodeO[dst] = nodeO[ca];
+                    double h = nodeH[ca];
+                    double l = nodeL[ca];
+                    double c = nodeC[ca];
+                    double v = nodeV[ca];
+                    if (b < childSize) {
+                        int cb = child + b;
+                        if (nodeH[cb] > h || Double.isNaN(h)) h = nodeH[cb];
+                        if (nodeL[cb] < l || Double.isNaN(l)) l = nodeL[cb];
+                        c = nodeC[cb];
+                        v += nodeV[cb];
+                    }
+                    nodeH[dst] = h;
+                    nodeL[dst] = l;
+                    nodeC[dst] = c;
+                    nodeV[dst] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sizes the level table for a power-of-two capacity so node positions stay stable while the
+     * series grows. Returns {@code true} if the layout moved and every node must be recomputed.
+     */
+    private boolean layoutLevels(int n) {
+        int cap = Math.max(64, Integer.highestOneBit(Math.max(1, n - 1)) << 1);
+        int lv = 0;
+        for (int s = n; s > 1; s = (s + 1) >> 1) lv++;
+        levels = lv;
+        if (cap == capacity) {
+            for (int level = 0, s = n; level <= lv; level++, s = (s + 1) >> 1) levelSize[level] = s;
+            return false;
+        }
+        capacity = cap;
+        int maxLevels = Integer.numberOfTrailingZeros(cap);
+        levelOffset = new int[maxLevels + 1];
+        levelSize = new int[maxLevels + 1];
+        int total = 0;
+        for (int level = 1; level <= maxLevels; level++) {
+            levelOffset[level] = total;
+            total += cap >> level;
+        }
+        for (int level = 0, s = n; level <= lv; level++, s = (s + 1) >> 1) levelSize[level] = s;
+        nodeX = new double[total];
+        nodeO = new double[total];
+        nodeH = new double[total];
+        nodeL = new double[total];
+        nodeC = new double[total];
+        nodeV = new double[total];
+        return true;
+    }
+
+    private boolean bin(PlotContext context, boolean uniform) {
+        ArberRect bounds = context.getPlotBounds();
+        double width = bounds.width();
+        int n = count;
+        int from = 0;
+        int to = n;
+        if (!uniform && monotonic) {
+            from = Math.max(0, lowerBound(context.getMinX()) - 1);
+            to = Math.min(n, upperBound(context.getMaxX()) + 1);
+        }
+        int visible = to - from;
+        if (visible <= width) {
+            binCount = 0;
+            return false;
+        }
+
+        int level = 31 - Integer.numberOfLeadingZeros((int) Math.max(1.0, visible / width));
+        if (level > levels) level = levels;
+        int jFrom = from >> level;
+        int jTo = ((to - 1) >> level) + 1;
+        ensureBins(jTo - jFrom);
+
+        double step = width / n;
+        int bins = 0;
+        int lastCol = Integer.MIN_VALUE;
+        for (int j = jFrom; j < jTo; j++) {
+            int first = j << level;
+            double x;
+            double o;
+            double h;
+            double l;
+            double c;
+            double v;
+            if (level == 0) {
+                x = srcX[j];
+                o = srcO[j];
+                h = srcH[j];
+                l = srcL[j];
+                c = srcC[j];
+                v = srcV != null ? srcV[j] : 0.0;
+            } else {
+                int k = levelOffset[level] + j;
+                x = nodeX[k];
+                o = nodeO[k];
+                h = nodeH[k];
+                l = nodeL[k];
+                c = nodeC[k];
+                v = nodeV[k];
+            }
+            double pixel;
+            if (uniform) {
+                pixel = bounds.x() + (first + 0.5) * step;
+            } else {
+                context.mapToPixel(x, 0.0, px);
+                pixel = px[0];
+            }
+            int col = (int) Math.floor(pixel);
+            if (col == lastCol) {
+                int b = bins - 1;
+                if (h > binH[b] || Double.isNaN(binH[b])) binH[b] = h;
+                if (l < binL[b] || Double.isNaN(binL[b])) binL[b] = l;
+                binC[b] = c;
+                binV[b] += v;
+            } else {
+                binPx[bins] = col + 0.5;
+                binX[bins] = x;
+                binO[bins] = o;
+                binH[bins] = h;
+                binL[bins] = l;
+                binC[bins] = c;
+                binV[bins] = v;
+                binFirst[bins] = first;
+                bins++;
+                lastCol = col;
+            }
+        }
+        binCount = bins;
+        return true;
+    }
+
+    private int lowerBound(double x) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (srcX[mid] < x) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private int upperBound(double x) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (srcX[mid] <= x) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private void ensureBins(int required) {
+        if (binPx.length >= required) return;
+        int cap = Math.max(required, binPx.length * 2);
+        binPx = new double[cap];
+        binX = new double[cap];
+        binO = new double[cap];
+        binH = new double[cap];
+        binL = new double[cap];
+        binC = new double[cap];
+        binV = new double[cap];
+        binFirst = new int[cap];
+    }
+}
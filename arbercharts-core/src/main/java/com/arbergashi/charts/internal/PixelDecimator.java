@@ -1,6 +1,8 @@
 package com.arbergashi.charts.internal;
 
 import com.arbergashi.charts.api.PlotContext;
+import com.arbergashi.charts.engine.telemetry.FrameProfiler;
+import com.arbergashi.charts.engine.telemetry.RenderStage;
 /**
  * Algorithm for data reduction for display purposes.
  *
@@ -29,6 +31,14 @@ public final class PixelDecimator {
      * @return Number of points in the output buffer
      */
     public static int decimate(double[] xIn, double[] yIn, int count, PlotContext context, double[] outX, double[] outY) {
+        FrameProfiler.Frame frame = FrameProfiler.currentFrame();
+        frame.enter();
+        int out = decimateColumns(xIn, yIn, count, context, outX, outY);
+        frame.exit(RenderStage.DECIMATION, null, count);
+        return out;
+    }
+
+    private static int decimateColumns(double[] xIn, double[] yIn, int count, PlotContext context, double[] outX, double[] outY) {
         double width = context.getPlotBounds().width();
         if (width <= 0 || count < 2) return 0;
 
@@ -306,6 +306,17 @@ public interface ChartModel {
         return 0L;
     }
 
+    /**
+     * Sequence number of the point at index 0. Append-only models keep it at 0; sliding-window
+     * models advance it by the number of evicted points, so derived structures (hit-test indices,
+     * caches) can tell an eviction from an arbitrary rewrite.
+     *
+     * @since 2.1.0
+     */
+    default long getFirstSequence() {
+        return 0L;
+    }
+
     /**
      * Optional visual color for a series; default is null.
      */
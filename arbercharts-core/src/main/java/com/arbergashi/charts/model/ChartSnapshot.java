@@ -0,0 +1,1021 @@
+package com.arbergashi.charts.model;
+
+import com.arbergashi.charts.api.types.ArberColor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned, columnar binary snapshots of chart models, for saving and restoring sessions.
+ *
+ * <p>Supported models: {@link DefaultChartModel}, {@link DefaultFinancialChartModel},
+ * {@link DefaultSignalChartModel}, {@link CircularChartModel}, {@link DefaultMatrixChartModel},
+ * {@link DefaultHierarchicalChartModel} and {@link DefaultFlowChartModel}, matched on the exact
+ * class: subclasses are rejected because they would be restored as the base type. Name, color and
+ * subtitle are kept where the model has them; listeners and dispatch settings are not.</p>
+ *
+ * <h2>Layout</h2>
+ * <p>Everything is little-endian. A 32-byte file header ({@code "ACSN"}, version, flags, model
+ * count) is followed by one section per model: a 16-byte model header (kind, column count,
+ * point count) and its columns. Each column has a 40-byte header (id, element type, codec,
+ * element count, stored and raw byte length, CRC32C of the stored bytes) and a payload padded
+ * to 8 bytes, so raw numeric columns stay aligned in the mapping. Unknown column ids are
+ * skipped on read.</p>
+ *
+ * <p>Columns are stored raw unless {@link Builder#compress(boolean)} is set; then doubles use
+ * the Gorilla XOR or delta-of-delta encoding and other columns Deflate, whichever is smaller
+ * than raw. Writes gather each column header and payload into one {@link FileChannel} write;
+ * reads map the file and bulk-copy raw columns straight into the arrays the restored models
+ * adopt, so there is no intermediate buffer.</p>
+ *
+ * <pre>{@code
+ * ChartSnapshot.write(path, List.of(prices, signal));
+ * List<ChartModel> restored = ChartSnapshot.read(path);
+ * }</pre>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class ChartSnapshot {
+    static final int MAGIC = 0x4E534341; // "ACSN"
+    static final int VERSION = 1;
+    private static final int FLAG_CHECKSUMS = 1;
+    private static final int FILE_HEADER_BYTES = 32;
+    private static final int MODEL_HEADER_BYTES = 16;
+    private static final int COLUMN_HEADER_BYTES = 40;
+    private static final int CHUNK_BYTES = 32 << 20;
+    private static final int MAX_ELEMENTS = Integer.MAX_VALUE - 8;
+
+    // Model kinds.
+    private static final int KIND_DEFAULT = 1;
+    private static final int KIND_FINANCIAL = 2;
+    private static final int KIND_SIGNAL = 3;
+    private static final int KIND_CIRCULAR = 4;
+    private static final int KIND_MATRIX = 5;
+    private static final int KIND_HIERARCHICAL = 6;
+    private static final int KIND_FLOW = 7;
+
+    // Element types.
+    private static final byte T_DOUBLE = 1;
+    private static final byte T_LONG = 2;
+    private static final byte T_INT = 3;
+    private static final byte T_SHORT = 4;
+    private static final byte T_BYTE = 5;
+    private static final byte T_STRING = 6;
+
+    // Codecs.
+    private static final byte C_RAW = 0;
+    private static final byte C_DEFLATE = 1;
+    private static final byte C_GORILLA_XOR = 2;
+    private static final byte C_GORILLA_DOD = 3;
+
+    // Column ids.
+    private static final int COL_META_STRINGS = 0; // name, subtitle
+    private static final int COL_META_LONGS = 1;   // see META_*
+    private static final int COL_X = 2;
+    private static final int COL_Y = 3;
+    private static final int COL_MIN = 4;
+    private static final int COL_MAX = 5;
+    private static final int COL_WEIGHT = 6;
+    private static final int COL_FLAGS = 7;
+    private static final int COL_SOURCE_IDS = 8;
+    private static final int COL_TIMESTAMPS = 9;
+    private static final int COL_LABELS = 10;
+    private static final int COL_OPEN = 11;
+    private static final int COL_HIGH = 12;
+    private static final int COL_LOW = 13;
+    private static final int COL_CLOSE = 14;
+    private static final int COL_VOLUME = 15;
+    private static final int COL_MATRIX = 20;
+    private static final int COL_NODE_IDS = 21;
+    private static final int COL_NODE_LABELS = 22;
+    private static final int COL_NODE_VALUES = 23;
+    private static final int COL_NODE_CHILDREN = 24;
+    private static final int COL_LINK_SOURCES = 25;
+    private static final int COL_LINK_TARGETS = 26;
+    private static final int COL_LINK_VALUES = 27;
+    private static final int COL_CHANNEL_BASE = 100;
+
+    // Positions in the COL_META_LONGS column.
+    private static final int META_COLOR = 0;
+    private static final int META_HAS_COLOR = 1;
+    private static final int META_CAPACITY = 2;
+    private static final int META_CHANNELS = 3;
+    private static final int META_SAMPLE_RATE = 4;
+    private static final int META_OPTIONS = 5;
+    private static final int META_LENGTH = 6;
+    private static final long OPTION_CIRCULAR = 1L;
+    private static final long OPTION_LABELS = 2L;
+
+    private static final ValueLayout.OfDouble LE_DOUBLE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LE_LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfInt LE_INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfShort LE_SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+
+    private ChartSnapshot() {
+    }
+
+    /**
+     * Writes {@code models} to {@code file} with default settings (raw columns, checksums).
+     *
+     * @throws IllegalArgumentException if a model type is not supported
+     */
+    public static void write(Path file, List<? extends ChartModel> models) throws IOException {
+        builder().write(file, models);
+    }
+
+    /**
+     * Restores the models of a snapshot, in the order they were written.
+     *
+     * @throws IOException if the file cannot be read, is not a snapshot, or a checksum fails
+     */
+    public static List<ChartModel> read(Path file) throws IOException {
+        if (file == null) throw new IllegalArgumentException("file must not be null");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             Arena arena = Arena.ofConfined()) {
+            long size = channel.size();
+            if (size < FILE_HEADER_BYTES) throw new IOException("Not a chart snapshot: " + file);
+            MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0L, size, arena);
+            if (data.get(LE_INT, 0) != MAGIC) throw new IOException("Not a chart snapshot: " + file);
+            int version = data.get(LE_SHORT, 4);
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+            boolean checksums = (data.get(LE_SHORT, 6) & FLAG_CHECKSUMS) != 0;
+            int modelCount = data.get(LE_INT, 8);
+            if (modelCount < 0) throw new IOException("Corrupt snapshot header");
+
+            Reader reader = new Reader(data, checksums);
+            reader.pos = FILE_HEADER_BYTES;
+            List<ChartModel> models = new ArrayList<>(Math.min(modelCount, 1024));
+            for (int i = 0; i < modelCount; i++) {
+                models.add(reader.model());
+            }
+            return models;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Truncated chart snapshot: " + file, e);
+        }
+    }
+
+    /**
+     * Returns whether {@code model} can be written to a snapshot, i.e. whether its class is exactly
+     * one of the supported model classes.
+     */
+    public static boolean isSupported(ChartModel model) {
+        return kindOf(model) != 0;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Snapshot write options.
+     */
+    public static final class Builder {
+        private boolean compress;
+        private boolean checksums = true;
+
+        private Builder() {
+        }
+
+        /**
+         * Compresses columns where that makes them smaller (default: false, fastest restore).
+         */
+        public Builder compress(boolean enabled) {
+            this.compress = enabled;
+            return this;
+        }
+
+        /**
+         * Stores a CRC32C per column and verifies it on read (default: true).
+         */
+        public Builder checksums(boolean enabled) {
+            this.checksums = enabled;
+            return this;
+        }
+
+        /**
+         * Writes {@code models} to {@code file}, replacing it; parent directories are created.
+         *
+         * @throws IllegalArgumentException if a model type is not supported, or a matrix model's
+         *                                  labels and rows do not match its size
+         */
+        public void write(Path file, List<? extends ChartModel> models) throws IOException {
+            if (file == null) throw new IllegalArgumentException("file must not be null");
+            if (models == null) throw new IllegalArgumentException("models must not be null");
+            for (ChartModel model : models) {
+                if (!isSupported(model)) {
+                    throw new IllegalArgumentException("Unsupported model for snapshots: "
+                            + (model == null ? "null" : model.getClass().getName()));
+                }
+                if (model instanceof DefaultMatrixChartModel matrix) checkMatrix(matrix);
+            }
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer header = le(FILE_HEADER_BYTES);
+                header.putInt(MAGIC).putShort((short) VERSION).putShort((short) (checksums ? FLAG_CHECKSUMS : 0))
+                        .putInt(models.size()).rewind();
+                writeFully(channel, new ByteBuffer[]{header});
+                for (ChartModel model : models) {
+                    writeModel(channel, model);
+                }
+                channel.force(false);
+            }
+        }
+
+        private void writeModel(FileChannel channel, ChartModel model) throws IOException {
+            int kind = kindOf(model);
+            List<Column> columns = columnsOf(kind, model);
+            ByteBuffer header = le(MODEL_HEADER_BYTES);
+            header.putInt(kind).putInt(columns.size()).putInt(Math.max(0, model.getPointCount())).putInt(0).rewind();
+            writeFully(channel, new ByteBuffer[]{header});
+            for (int i = 0; i < columns.size(); i++) {
+                writeColumn(channel, columns.get(i));
+                columns.set(i, null); // release the source array before encoding the next one
+            }
+        }
+
+        private void writeColumn(FileChannel channel, Column column) throws IOException {
+            List<ByteBuffer> raw = rawChunks(column);
+            long rawBytes = remaining(raw);
+            byte codec = C_RAW;
+            List<ByteBuffer> stored = raw;
+            if (compress && rawBytes > 0) {
+                List<ByteBuffer> packed = null;
+                byte packedCodec = C_RAW;
+                if (column.type == T_DOUBLE) {
+                    double[] values = (double[]) column.data;
+                    boolean integral = GorillaCodec.isIntegral(values, 0, column.length);
+                    GorillaCodec.BitWriter bits = new GorillaCodec.BitWriter();
+                    if (integral) GorillaCodec.encodeDeltaOfDelta(values, 0, column.length, bits);
+                    else GorillaCodec.encodeXor(values, 0, column.length, bits);
+                    long[] words = bits.toArray();
+                    if ((long) words.length * Long.BYTES < rawBytes) {
+                        packed = rawChunks(new Column(0, T_LONG, words, words.length));
+                        packedCodec = integral ? C_GORILLA_DOD : C_GORILLA_XOR;
+                    }
+                } else {
+                    packed = deflate(raw);
+                    packedCodec = C_DEFLATE;
+                }
+                if (packed != null && remaining(packed) < rawBytes) {
+                    stored = packed;
+                    codec = packedCodec;
+                }
+            }
+            long storedBytes = remaining(stored);
+            int crc = 0;
+            if (checksums) {
+                CRC32C checksum = new CRC32C();
+                for (ByteBuffer b : stored) {
+                    checksum.update(b.duplicate());
+                }
+                crc = (int) checksum.getValue();
+            }
+
+            ByteBuffer header = le(COLUMN_HEADER_BYTES);
+            header.putInt(column.id).put(column.type).put(codec).putShort((short) 0)
+                    .putLong(column.length).putLong(storedBytes).putLong(rawBytes).putInt(crc).putInt(0).rewind();
+            int pad = (int) (-storedBytes & 7);
+            ByteBuffer[] gather = new ByteBuffer[stored.size() + 2];
+            gather[0] = header;
+            for (int i = 0; i < stored.size(); i++) gather[i + 1] = stored.get(i);
+            gather[gather.length - 1] = ByteBuffer.allocate(pad);
+            writeFully(channel, gather);
+        }
+    }
+
+    // --- Writing ----------------------------------------------------------------------------
+
+    private static int kindOf(ChartModel model) {
+        if (model == null) return 0;
+        Class<?> type = model.getClass();
+        if (type == DefaultChartModel.class) return KIND_DEFAULT;
+        if (type == DefaultFinancialChartModel.class) return KIND_FINANCIAL;
+        if (type == DefaultSignalChartModel.class) return KIND_SIGNAL;
+        if (type == CircularChartModel.class) return KIND_CIRCULAR;
+        if (type == DefaultMatrixChartModel.class) return KIND_MATRIX;
+        if (type == DefaultHierarchicalChartModel.class) return KIND_HIERARCHICAL;
+        if (type == DefaultFlowChartModel.class) return KIND_FLOW;
+        return 0;
+    }
+
+    /**
+     * The reader sizes a matrix by its label count, so labels and rows must both match it.
+     */
+    private static void checkMatrix(DefaultMatrixChartModel model) {
+        double[][] matrix = model.getMatrix();
+        int n = matrix == null ? 0 : matrix.length;
+        int labels = model.getEntityLabels().size();
+        if (labels != n) {
+            throw new IllegalArgumentException("Matrix model has " + labels + " labels for " + n + " rows");
+        }
+        for (int r = 0; r < n; r++) {
+            if (matrix[r] == null || matrix[r].length < n) {
+                throw new IllegalArgumentException("Matrix row " + r + " is shorter than " + n);
+            }
+        }
+    }
+
+    private static List<Column> columnsOf(int kind, ChartModel model) {
+        List<Column> columns = new ArrayList<>();
+        long[] meta = new long[META_LENGTH];
+        ArberColor color = model.getColor();
+        if (color != null) {
+            meta[META_COLOR] = color.argb();
+            meta[META_HAS_COLOR] = 1;
+        }
+        String subtitle = null;
+        switch (kind) {
+            case KIND_DEFAULT -> {
+                DefaultChartModel m = (DefaultChartModel) model;
+                subtitle = m.getSubtitle();
+                addPointColumns(columns, pointColumns(m));
+            }
+            case KIND_FINANCIAL -> {
+                DefaultFinancialChartModel m = (DefaultFinancialChartModel) model;
+                int n = m.getPointCount();
+                doubles(columns, COL_X, m.getXData(), n);
+                doubles(columns, COL_OPEN, m.getOpenData(), n);
+                doubles(columns, COL_HIGH, m.getHighData(), n);
+                doubles(columns, COL_LOW, m.getLowData(), n);
+                doubles(columns, COL_CLOSE, m.getCloseData(), n);
+                doubles(columns, COL_VOLUME, m.getVolumeData(), n);
+                columns.add(new Column(COL_FLAGS, T_BYTE, Arrays.copyOf(m.getProvenanceFlagsData(), n), n));
+                columns.add(new Column(COL_SOURCE_IDS, T_SHORT, Arrays.copyOf(m.getSourceIdsData(), n), n));
+                columns.add(new Column(COL_TIMESTAMPS, T_LONG, Arrays.copyOf(m.getTimestampNanosData(), n), n));
+                columns.add(new Column(COL_LABELS, T_STRING, labels(m, n), n));
+            }
+            case KIND_SIGNAL -> {
+                DefaultSignalChartModel m = (DefaultSignalChartModel) model;
+                int n = m.getPointCount();
+                int capacity = m.getCapacity();
+                int start = m.isCircular() ? Math.floorMod(m.getWriteIndex() - n, capacity) : 0;
+                meta[META_CAPACITY] = capacity;
+                meta[META_CHANNELS] = m.getChannelCount();
+                meta[META_SAMPLE_RATE] = Double.doubleToRawLongBits(m.getSampleRateHz());
+                meta[META_OPTIONS] = m.isCircular() ? OPTION_CIRCULAR : 0L;
+                double[] x = new double[n];
+                unwrap(m.getXData(), start, x, n);
+                columns.add(new Column(COL_X, T_DOUBLE, x, n));
+                for (int c = 0; c < m.getChannelCount(); c++) {
+                    double[] values = new double[n];
+                    unwrap(m.getChannelData(c), start, values, n);
+                    columns.add(new Column(COL_CHANNEL_BASE + c, T_DOUBLE, values, n));
+                }
+                long[] timestamps = new long[n];
+                long[] physical = m.getTimestampNanosData();
+                for (int i = 0; i < n; i++) timestamps[i] = physical[(start + i) % capacity];
+                columns.add(new Column(COL_TIMESTAMPS, T_LONG, timestamps, n));
+                columns.add(new Column(COL_LABELS, T_STRING, labels(m, n), n));
+            }
+            case KIND_CIRCULAR -> {
+                CircularChartModel m = (CircularChartModel) model;
+                subtitle = m.getSubtitle();
+                meta[META_CAPACITY] = m.getCapacity();
+                meta[META_OPTIONS] = m.isLabelsEnabled() ? OPTION_LABELS : 0L;
+                int n = m.getPointCount();
+                byte[] flags = new byte[n];
+                short[] sourceIds = new short[n];
+                long[] timestamps = new long[n];
+                for (int i = 0; i < n; i++) {
+                    flags[i] = m.getProvenanceFlag(i);
+                    sourceIds[i] = m.getSourceId(i);
+                    timestamps[i] = m.getTimestampNanos(i);
+                }
+                addPointColumns(columns, new PointColumns(n,
+                        Arrays.copyOf(m.getXData(), n), Arrays.copyOf(m.getYData(), n),
+                        Arrays.copyOf(m.getLowData(), n), Arrays.copyOf(m.getHighData(), n),
+                        Arrays.copyOf(m.getWeightData(), n), flags, sourceIds, timestamps, labels(m, n)));
+            }
+            case KIND_MATRIX -> {
+                DefaultMatrixChartModel m = (DefaultMatrixChartModel) model;
+                double[][] matrix = m.getMatrix();
+                int n = matrix == null ? 0 : matrix.length;
+                double[] flat = new double[Math.multiplyExact(n, n)];
+                for (int r = 0; r < n; r++) System.arraycopy(matrix[r], 0, flat, r * n, n);
+                columns.add(new Column(COL_NODE_LABELS, T_STRING, m.getEntityLabels().toArray(new String[0]), n));
+                columns.add(new Column(COL_MATRIX, T_DOUBLE, flat, flat.length));
+            }
+            case KIND_HIERARCHICAL -> {
+                List<String> labels = new ArrayList<>();
+                DoubleList values = new DoubleList();
+                IntList children = new IntList();
+                HierarchicalChartModel.Node<?> root = ((DefaultHierarchicalChartModel) model).getRootNode();
+                if (root != null) flatten(root, labels, values, children);
+                columns.add(new Column(COL_NODE_LABELS, T_STRING, labels.toArray(new String[0]), labels.size()));
+                columns.add(new Column(COL_NODE_VALUES, T_DOUBLE, values.toArray(), values.size));
+                columns.add(new Column(COL_NODE_CHILDREN, T_INT, children.toArray(), children.size));
+            }
+            case KIND_FLOW -> {
+                DefaultFlowChartModel m = (DefaultFlowChartModel) model;
+                List<? extends FlowChartModel.Node> nodes = m.getNodes();
+                List<? extends FlowChartModel.Link> links = m.getLinks();
+                String[] ids = new String[nodes.size()];
+                String[] nodeLabels = new String[nodes.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = nodes.get(i).getId();
+                    nodeLabels[i] = nodes.get(i).getLabel();
+                }
+                String[] sources = new String[links.size()];
+                String[] targets = new String[links.size()];
+                double[] values = new double[links.size()];
+                for (int i = 0; i < values.length; i++) {
+                    sources[i] = links.get(i).getSource();
+                    targets[i] = links.get(i).getTarget();
+                    values[i] = links.get(i).getValue();
+                }
+                columns.add(new Column(COL_NODE_IDS, T_STRING, ids, ids.length));
+                columns.add(new Column(COL_NODE_LABELS, T_STRING, nodeLabels, nodeLabels.length));
+                columns.add(new Column(COL_LINK_SOURCES, T_STRING, sources, sources.length));
+                columns.add(new Column(COL_LINK_TARGETS, T_STRING, targets, targets.length));
+                columns.add(new Column(COL_LINK_VALUES, T_DOUBLE, values, values.length));
+            }
+            default -> throw new IllegalArgumentException("Unsupported model kind " + kind);
+        }
+        columns.add(0, new Column(COL_META_STRINGS, T_STRING, new String[]{model.getName(), subtitle}, 2));
+        columns.add(1, new Column(COL_META_LONGS, T_LONG, meta, meta.length));
+        return columns;
+    }
+
+    private static void addPointColumns(List<Column> columns, PointColumns c) {
+        int n = c.size();
+        columns.add(new Column(COL_X, T_DOUBLE, c.x(), n));
+        columns.add(new Column(COL_Y, T_DOUBLE, c.y(), n));
+        columns.add(new Column(COL_MIN, T_DOUBLE, c.min(), n));
+        columns.add(new Column(COL_MAX, T_DOUBLE, c.max(), n));
+        columns.add(new Column(COL_WEIGHT, T_DOUBLE, c.weight(), n));
+        columns.add(new Column(COL_FLAGS, T_BYTE, c.flags(), n));
+        columns.add(new Column(COL_SOURCE_IDS, T_SHORT, c.sourceIds(), n));
+        columns.add(new Column(COL_TIMESTAMPS, T_LONG, c.timestamps(), n));
+        columns.add(new Column(COL_LABELS, T_STRING, c.labels(), n));
+    }
+
+    private static void doubles(List<Column> columns, int id, double[] values, int n) {
+        columns.add(new Column(id, T_DOUBLE, Arrays.copyOf(values, n), n));
+    }
+
+    private static String[] labels(ChartModel model, int n) {
+        String[] labels = new String[n];
+        for (int i = 0; i < n; i++) labels[i] = model.getLabel(i);
+        return labels;
+    }
+
+    private static void unwrap(double[] physical, int start, double[] out, int n) {
+        int first = Math.min(n, physical.length - start);
+        System.arraycopy(physical, start, out, 0, first);
+        System.arraycopy(physical, 0, out, first, n - first);
+    }
+
+    /**
+     * Writes the tree in pre-order with per-node child counts; iterative, so depth is unbounded.
+     */
+    private static void flatten(HierarchicalChartModel.Node<?> root, List<String> labels, DoubleList values,
+                                IntList children) {
+        ArrayDeque<HierarchicalChartModel.Node<?>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            HierarchicalChartModel.Node<?> node = stack.pop();
+            labels.add(node.getLabel());
+            values.add(node instanceof DefaultHierarchicalChartModel.DefaultNode d ? d.ownValue() : node.getValue());
+            List<? extends HierarchicalChartModel.Node<?>> kids = node.getChildren();
+            int count = 0;
+            if (kids != null) {
+                for (int c = kids.size() - 1; c >= 0; c--) {
+                    if (kids.get(c) == null) continue;
+                    stack.push(kids.get(c));
+                    count++;
+                }
+            }
+            children.add(count);
+        }
+    }
+
+    /**
+     * Little-endian raw bytes of a column, in chunks of at most {@link #CHUNK_BYTES}.
+     */
+    private static List<ByteBuffer> rawChunks(Column column) {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        int n = column.length;
+        switch (column.type) {
+            case T_DOUBLE -> {
+                double[] a = (double[]) column.data;
+                for (int i = 0, step = CHUNK_BYTES / Double.BYTES; i < n; i += step) {
+                    int k = Math.min(step, n - i);
+                    ByteBuffer b = le(k * Double.BYTES);
+                    b.asDoubleBuffer().put(a, i, k);
+                    chunks.add(b);
+                }
+            }
+            case T_LONG -> {
+                long[] a = (long[]) column.data;
+                for (int i = 0, step = CHUNK_BYTES / Long.BYTES; i < n; i += step) {
+                    int k = Math.min(step, n - i);
+                    ByteBuffer b = le(k * Long.BYTES);
+                    b.asLongBuffer().put(a, i, k);
+                    chunks.add(b);
+                }
+            }
+            case T_INT -> {
+                int[] a = (int[]) column.data;
+                for (int i = 0, step = CHUNK_BYTES / Integer.BYTES; i < n; i += step) {
+                    int k = Math.min(step, n - i);
+                    ByteBuffer b = le(k * Integer.BYTES);
+                    b.asIntBuffer().put(a, i, k);
+                    chunks.add(b);
+                }
+            }
+            case T_SHORT -> {
+                short[] a = (short[]) column.data;
+                for (int i = 0, step = CHUNK_BYTES / Short.BYTES; i < n; i += step) {
+                    int k = Math.min(step, n - i);
+                    ByteBuffer b = le(k * Short.BYTES);
+                    b.asShortBuffer().put(a, i, k);
+                    chunks.add(b);
+                }
+            }
+            case T_BYTE -> {
+                byte[] a = (byte[]) column.data;
+                for (int i = 0; i < n; i += CHUNK_BYTES) {
+                    chunks.add(ByteBuffer.wrap(a, i, Math.min(CHUNK_BYTES, n - i)).slice());
+                }
+            }
+            case T_STRING -> {
+                // int length per entry (-1 for null), then the UTF-8 bytes of all entries.
+                String[] a = (String[]) column.data;
+                ByteBuffer lengths = le(n * Integer.BYTES);
+                ByteArrayOutputStream text = new ByteArrayOutputStream();
+                for (int i = 0; i < n; i++) {
+                    String s = a[i];
+                    if (s == null) {
+                        lengths.putInt(-1);
+                    } else {
+                        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+                        lengths.putInt(utf8.length);
+                        text.writeBytes(utf8);
+                    }
+                }
+                chunks.add(lengths.flip());
+                chunks.add(ByteBuffer.wrap(text.toByteArray()));
+            }
+            default -> throw new IllegalStateException("Unknown column type " + column.type);
+        }
+        return chunks;
+    }
+
+    private static List<ByteBuffer> deflate(List<ByteBuffer> raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            List<ByteBuffer> out = new ArrayList<>();
+            byte[] buffer = new byte[1 << 16];
+            ByteArrayOutputStream packed = new ByteArrayOutputStream();
+            for (ByteBuffer chunk : raw) {
+                deflater.setInput(chunk.duplicate());
+                while (!deflater.needsInput()) {
+                    packed.write(buffer, 0, deflater.deflate(buffer));
+                }
+                if (packed.size() >= CHUNK_BYTES) {
+                    out.add(ByteBuffer.wrap(packed.toByteArray()));
+                    packed.reset();
+                }
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                packed.write(buffer, 0, deflater.deflate(buffer));
+            }
+            out.add(ByteBuffer.wrap(packed.toByteArray()));
+            return out;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer[] buffers) throws IOException {
+        long left = 0;
+        for (ByteBuffer b : buffers) left += b.remaining();
+        while (left > 0) {
+            left -= channel.write(buffers);
+        }
+    }
+
+    private static long remaining(List<ByteBuffer> buffers) {
+        long n = 0;
+        for (ByteBuffer b : buffers) n += b.remaining();
+        return n;
+    }
+
+    private static ByteBuffer le(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // --- Reading ----------------------------------------------------------------------------
+
+    private static final class Reader {
+        private final MemorySegment data;
+        private final boolean checksums;
+        long pos;
+
+        Reader(MemorySegment data, boolean checksums) {
+            this.data = data;
+            this.checksums = checksums;
+        }
+
+        ChartModel model() throws IOException {
+            int kind = data.get(LE_INT, pos);
+            int columnCount = data.get(LE_INT, pos + 4);
+            pos += MODEL_HEADER_BYTES;
+            if (columnCount < 0) throw new IOException("Corrupt model header at " + (pos - MODEL_HEADER_BYTES));
+            Map<Integer, Object> columns = new HashMap<>();
+            for (int i = 0; i < columnCount; i++) {
+                int id = data.get(LE_INT, pos);
+                columns.put(id, column());
+            }
+            String[] strings = get(columns, COL_META_STRINGS, String[].class, new String[2]);
+            long[] meta = get(columns, COL_META_LONGS, long[].class, new long[META_LENGTH]);
+            if (meta.length < META_LENGTH) meta = Arrays.copyOf(meta, META_LENGTH);
+            String name = strings.length > 0 ? strings[0] : null;
+            String subtitle = strings.length > 1 ? strings[1] : null;
+
+            ChartModel model = switch (kind) {
+                case KIND_DEFAULT -> {
+                    DefaultChartModel m = new DefaultChartModel(name);
+                    m.setSubtitle(subtitle);
+                    PointColumns c = pointColumns(columns);
+                    m.appendPoints(c.x(), c.y(), c.min(), c.max(), c.weight(), c.labels(), c.flags(),
+                            c.sourceIds(), c.timestamps(), 0, c.size());
+                    yield m;
+                }
+                case KIND_FINANCIAL -> {
+                    DefaultFinancialChartModel m = new DefaultFinancialChartModel(name);
+                    double[] x = get(columns, COL_X, double[].class, new double[0]);
+                    int n = x.length;
+                    m.restoreColumns(n, x, doubles(columns, COL_OPEN, n), doubles(columns, COL_HIGH, n),
+                            doubles(columns, COL_LOW, n), doubles(columns, COL_CLOSE, n),
+                            doubles(columns, COL_VOLUME, n),
+                            fit(get(columns, COL_FLAGS, byte[].class, null), n),
+                            fit(get(columns, COL_SOURCE_IDS, short[].class, null), n),
+                            fit(get(columns, COL_TIMESTAMPS, long[].class, null), n),
+                            fit(get(columns, COL_LABELS, String[].class, null), n));
+                    yield m;
+                }
+                case KIND_SIGNAL -> {
+                    int channels = (int) meta[META_CHANNELS];
+                    double[] x = get(columns, COL_X, double[].class, new double[0]);
+                    int n = x.length;
+                    int capacity = (int) Math.max(Math.max(1, n), meta[META_CAPACITY]);
+                    if (channels <= 0) throw new IOException("Corrupt signal model: no channels");
+                    DefaultSignalChartModel m = new DefaultSignalChartModel(channels, capacity,
+                            (meta[META_OPTIONS] & OPTION_CIRCULAR) != 0);
+                    m.setName(name);
+                    m.setSampleRateHz(Double.longBitsToDouble(meta[META_SAMPLE_RATE]));
+                    double[][] values = new double[channels][];
+                    for (int c = 0; c < channels; c++) values[c] = doubles(columns, COL_CHANNEL_BASE + c, capacity);
+                    m.restoreColumns(n, fit(x, capacity), values,
+                            fit(get(columns, COL_TIMESTAMPS, long[].class, null), capacity),
+                            fit(get(columns, COL_LABELS, String[].class, null), capacity));
+                    yield m;
+                }
+                case KIND_CIRCULAR -> {
+                    int capacity = (int) Math.max(1, meta[META_CAPACITY]);
+                    CircularChartModel m = new CircularChartModel(name, capacity);
+                    m.setSubtitle(subtitle);
+                    if ((meta[META_OPTIONS] & OPTION_LABELS) == 0) m.setLabelsEnabled(false);
+                    PointColumns c = pointColumns(columns);
+                    for (int i = Math.max(0, c.size() - m.getCapacity()); i < c.size(); i++) {
+                        m.setPoint(c.x()[i], c.y()[i], c.min()[i], c.max()[i], c.weight()[i], c.labels()[i],
+                                c.flags()[i], c.sourceIds()[i], c.timestamps()[i]);
+                    }
+                    yield m;
+                }
+                case KIND_MATRIX -> {
+                    String[] labels = get(columns, COL_NODE_LABELS, String[].class, new String[0]);
+                    double[] flat = get(columns, COL_MATRIX, double[].class, new double[0]);
+                    int n = labels.length;
+                    if ((long) n * n != flat.length) throw new IOException("Corrupt matrix model");
+                    double[][] matrix = new double[n][];
+                    for (int r = 0; r < n; r++) matrix[r] = Arrays.copyOfRange(flat, r * n, r * n + n);
+                    DefaultMatrixChartModel m = new DefaultMatrixChartModel(matrix, new ArrayList<>(Arrays.asList(labels)));
+                    m.setName(name);
+                    yield m;
+                }
+                case KIND_HIERARCHICAL -> {
+                    String[] labels = get(columns, COL_NODE_LABELS, String[].class, new String[0]);
+                    double[] values = doubles(columns, COL_NODE_VALUES, labels.length);
+                    int[] children = fit(get(columns, COL_NODE_CHILDREN, int[].class, null), labels.length);
+                    DefaultHierarchicalChartModel.DefaultNode root = null;
+                    if (labels.length > 0) root = unflatten(labels, values, children);
+                    DefaultHierarchicalChartModel m = new DefaultHierarchicalChartModel(root);
+                    m.setName(name);
+                    yield m;
+                }
+                case KIND_FLOW -> {
+                    String[] ids = get(columns, COL_NODE_IDS, String[].class, new String[0]);
+                    String[] nodeLabels = fit(get(columns, COL_NODE_LABELS, String[].class, null), ids.length);
+                    String[] sources = get(columns, COL_LINK_SOURCES, String[].class, new String[0]);
+                    String[] targets = fit(get(columns, COL_LINK_TARGETS, String[].class, null), sources.length);
+                    double[] values = doubles(columns, COL_LINK_VALUES, sources.length);
+                    List<DefaultFlowChartModel.DefaultNode> nodes = new ArrayList<>(ids.length);
+                    for (int i = 0; i < ids.length; i++) nodes.add(new DefaultFlowChartModel.DefaultNode(ids[i], nodeLabels[i]));
+                    List<DefaultFlowChartModel.DefaultLink> links = new ArrayList<>(sources.length);
+                    for (int i = 0; i < sources.length; i++) {
+                        links.add(new DefaultFlowChartModel.DefaultLink(sources[i], targets[i], values[i]));
+                    }
+                    DefaultFlowChartModel m = new DefaultFlowChartModel(nodes, links);
+                    m.setName(name);
+                    yield m;
+                }
+                default -> throw new IOException("Unsupported model kind " + kind);
+            };
+            if (meta[META_HAS_COLOR] != 0) model.setColor(new ArberColor((int) meta[META_COLOR]));
+            return model;
+        }
+
+        /**
+         * Decodes the column at the cursor into a primitive or {@code String} array and moves
+         * past its padding.
+         */
+        private Object column() throws IOException {
+            long at = pos;
+            int id = data.get(LE_INT, at);
+            byte type = data.get(BYTE, at + 4);
+            byte codec = data.get(BYTE, at + 5);
+            long count = data.get(LE_LONG, at + 8);
+            long stored = data.get(LE_LONG, at + 16);
+            long raw = data.get(LE_LONG, at + 24);
+            int crc = data.get(LE_INT, at + 32);
+            long payload = at + COLUMN_HEADER_BYTES;
+            if (count < 0 || count > MAX_ELEMENTS || stored < 0 || raw < 0 || payload + stored > data.byteSize()) {
+                throw new IOException("Corrupt column " + id + " at " + at);
+            }
+            pos = payload + stored + (-stored & 7);
+            if (checksums && crc(payload, stored) != crc) {
+                throw new IOException("Checksum mismatch in column " + id + " at " + at);
+            }
+
+            int n = (int) count;
+            MemorySegment source = data;
+            long offset = payload;
+            if (codec == C_DEFLATE) {
+                if (raw > MAX_ELEMENTS) throw new IOException("Column " + id + " too large to inflate");
+                source = MemorySegment.ofArray(inflate(payload, stored, (int) raw, id));
+                offset = 0;
+            } else if (codec == C_GORILLA_XOR || codec == C_GORILLA_DOD) {
+                if (type != T_DOUBLE || (stored & 7) != 0) throw new IOException("Corrupt column " + id);
+                long[] words = new long[(int) (stored / Long.BYTES) + 1];
+                MemorySegment.copy(data, LE_LONG, payload, words, 0, words.length - 1);
+                double[] out = new double[n];
+                GorillaCodec.BitReader reader = new GorillaCodec.BitReader().reset(words, 0L);
+                if (codec == C_GORILLA_DOD) GorillaCodec.decodeDeltaOfDelta(reader, n, out, 0);
+                else GorillaCodec.decodeXor(reader, n, out, 0);
+                return out;
+            } else if (codec != C_RAW) {
+                throw new IOException("Unknown codec " + codec + " in column " + id);
+            }
+
+            return switch (type) {
+                case T_DOUBLE -> {
+                    double[] out = new double[n];
+                    MemorySegment.copy(source, LE_DOUBLE, offset, out, 0, n);
+                    yield out;
+                }
+                case T_LONG -> {
+                    long[] out = new long[n];
+                    MemorySegment.copy(source, LE_LONG, offset, out, 0, n);
+                    yield out;
+                }
+                case T_INT -> {
+                    int[] out = new int[n];
+                    MemorySegment.copy(source, LE_INT, offset, out, 0, n);
+                    yield out;
+                }
+                case T_SHORT -> {
+                    short[] out = new short[n];
+                    MemorySegment.copy(source, LE_SHORT, offset, out, 0, n);
+                    yield out;
+                }
+                case T_BYTE -> {
+                    byte[] out = new byte[n];
+                    MemorySegment.copy(source, BYTE, offset, out, 0, n);
+                    yield out;
+                }
+                case T_STRING -> strings(source, offset, n, id);
+                default -> throw new IOException("Unknown type " + type + " in column " + id);
+            };
+        }
+
+        private String[] strings(MemorySegment source, long offset, int n, int id) throws IOException {
+            String[] out = new String[n];
+            long text = offset + (long) n * Integer.BYTES;
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < n; i++) {
+                int len = source.get(LE_INT, offset + (long) i * Integer.BYTES);
+                if (len < -1) throw new IOException("Corrupt string column " + id);
+                if (len < 0) continue;
+                if (len > scratch.length) scratch = new byte[Math.max(len, scratch.length * 2)];
+                MemorySegment.copy(source, BYTE, text, scratch, 0, len);
+                out[i] = new String(scratch, 0, len, StandardCharsets.UTF_8);
+                text += len;
+            }
+            return out;
+        }
+
+        private int crc(long offset, long length) {
+            CRC32C checksum = new CRC32C();
+            for (long done = 0; done < length; ) {
+                long step = Math.min(CHUNK_BYTES, length - done);
+                checksum.update(data.asSlice(offset + done, step).asByteBuffer());
+                done += step;
+            }
+            return (int) checksum.getValue();
+        }
+
+        /**
+         * Inflates into an array one byte longer than {@code rawBytes}, so a complete stream can
+         * be told apart from a truncated or oversized one.
+         */
+        private byte[] inflate(long offset, long length, int rawBytes, int id) throws IOException {
+            byte[] out = new byte[rawBytes + 1];
+            Inflater inflater = new Inflater();
+            try {
+                int written = 0;
+                for (long done = 0; done < length && !inflater.finished(); ) {
+                    long step = Math.min(CHUNK_BYTES, length - done);
+                    inflater.setInput(data.asSlice(offset + done, step).asByteBuffer());
+                    done += step;
+                    while (!inflater.finished() && !inflater.needsInput()) {
+                        int k = inflater.inflate(out, written, out.length - written);
+                        written += k;
+                        if (k == 0 && (written == out.length || inflater.needsDictionary())) break;
+                    }
+                }
+                if (written != rawBytes || !inflater.finished()) {
+                    throw new IOException("Corrupt compressed column " + id);
+                }
+                return out;
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt compressed column " + id, e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * Copies every column of a default model under its lock, trimmed to the rows present then.
+     */
+    private static PointColumns pointColumns(DefaultChartModel m) {
+        int n = m.getPointCount();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] min = new double[n];
+        double[] max = new double[n];
+        double[] weight = new double[n];
+        String[] labels = new String[n];
+        byte[] flags = new byte[n];
+        short[] sourceIds = new short[n];
+        long[] timestamps = new long[n];
+        int copied = m.copyRows(0, x, y, min, max, weight, labels, flags, sourceIds, timestamps, n);
+        if (copied == n) return new PointColumns(n, x, y, min, max, weight, flags, sourceIds, timestamps, labels);
+        return new PointColumns(copied, Arrays.copyOf(x, copied), Arrays.copyOf(y, copied),
+                Arrays.copyOf(min, copied), Arrays.copyOf(max, copied), Arrays.copyOf(weight, copied),
+                Arrays.copyOf(flags, copied), Arrays.copyOf(sourceIds, copied),
+                Arrays.copyOf(timestamps, copied), Arrays.copyOf(labels, copied));
+    }
+
+    private static PointColumns pointColumns(Map<Integer, Object> columns) {
+        double[] x = get(columns, COL_X, double[].class, new double[0]);
+        int n = x.length;
+        return new PointColumns(n, x, doubles(columns, COL_Y, n), doubles(columns, COL_MIN, n),
+                doubles(columns, COL_MAX, n), doubles(columns, COL_WEIGHT, n),
+                fit(get(columns, COL_FLAGS, byte[].class, null), n),
+                fit(get(columns, COL_SOURCE_IDS, short[].class, null), n),
+                fit(get(columns, COL_TIMESTAMPS, long[].class, null), n),
+                fit(get(columns, COL_LABELS, String[].class, null), n));
+    }
+
+    /**
+     * Rebuilds a pre-order tree written by {@link #flatten}; iterative, so depth is unbounded.
+     */
+    private static DefaultHierarchicalChartModel.DefaultNode unflatten(String[] labels, double[] values, int[] children)
+            throws IOException {
+        DefaultHierarchicalChartModel.DefaultNode root = new DefaultHierarchicalChartModel.DefaultNode(labels[0], values[0]);
+        ArrayDeque<DefaultHierarchicalChartModel.DefaultNode> parents = new ArrayDeque<>();
+        IntList pending = new IntList();
+        parents.push(root);
+        pending.add(children[0]);
+        int next = 1;
+        while (!parents.isEmpty()) {
+            int top = pending.size - 1;
+            if (pending.values[top] <= 0) {
+                if (pending.values[top] < 0) throw new IOException("Corrupt hierarchy");
+                parents.pop();
+                pending.size--;
+                continue;
+            }
+            pending.values[top]--;
+            int i = next++;
+            if (i >= labels.length) throw new IOException("Corrupt hierarchy");
+            DefaultHierarchicalChartModel.DefaultNode node = new DefaultHierarchicalChartModel.DefaultNode(labels[i], values[i]);
+            parents.peek().setChild(node);
+            parents.push(node);
+            pending.add(children[i]);
+        }
+        return root;
+    }
+
+    private static <T> T get(Map<Integer, Object> columns, int id, Class<T> type, T fallback) {
+        Object value = columns.get(id);
+        return type.isInstance(value) ? type.cast(value) : fallback;
+    }
+
+    private static double[] doubles(Map<Integer, Object> columns, int id, int n) {
+        return fit(get(columns, id, double[].class, null), n);
+    }
+
+    private static double[] fit(double[] a, int n) {
+        return a != null && a.length == n ? a : a == null ? new double[n] : Arrays.copyOf(a, n);
+    }
+
+    private static long[] fit(long[] a, int n) {
+        return a != null && a.length == n ? a : a == null ? new long[n] : Arrays.copyOf(a, n);
+    }
+
+    private static int[] fit(int[] a, int n) {
+        return a != null && a.length == n ? a : a == null ? new int[n] : Arrays.copyOf(a, n);
+    }
+
+    private static short[] fit(short[] a, int n) {
+        return a != null && a.length == n ? a : a == null ? new short[n] : Arrays.copyOf(a, n);
+    }
+
+    private static byte[] fit(byte[] a, int n) {
+        return a != null && a.length == n ? a : a == null ? new byte[n] : Arrays.copyOf(a, n);
+    }
+
+    private static String[] fit(String[] a, int n) {
+        return a != null && a.length == n ? a : a == null ? new String[n] : Arrays.copyOf(a, n);
+    }
+
+    /**
+     * The per-point columns of {@link DefaultChartModel} and {@link CircularChartModel}, all of
+     * length {@code size}.
+     */
+    record PointColumns(int size, double[] x, double[] y, double[] min, double[] max, double[] weight,
+                        byte[] flags, short[] sourceIds, long[] timestamps, String[] labels) {
+    }
+
+    private record Column(int id, byte type, Object data, int length) {
+    }
+
+    private static final class DoubleList {
+        double[] values = new double[16];
+        int size;
+
+        void add(double v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        double[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[16];
+        int size;
+
+        void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
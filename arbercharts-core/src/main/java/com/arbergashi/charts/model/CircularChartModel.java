@@ -334,6 +334,18 @@ public final class CircularChartModel implements ChartModel {
         return updateStamp.get();
     }
 
+    /**
+     * The sequence of the oldest retained point; it advances as the ring evicts.
+     *
+     * @since 2.1.0
+     */
+    @Override
+    public long getFirstSequence() {
+        long h = (long) HEAD.getAcquire(this);
+        long t = (long) TAIL.getAcquire(this);
+        return Math.max(t, h - capacity);
+    }
+
     public void clear() {
         long h = (long) HEAD.getAcquire(this);
         TAIL.setRelease(this, h);
@@ -1,34 +1,65 @@
 package com.arbergashi.charts.model;
 import com.arbergashi.charts.api.types.ArberColor;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.concurrent.atomic.AtomicLong;
 /**
  * Circular buffer implementation for high-performance real-time medical data (e.g. ECG, Spirometry).
  * Provides zero-copy, zero-GC access for FastMedicalModel.
  * <p>
- * <b>Design:</b> No ChangeListeners, no legacy API (setPoint, setPoints, etc.).
- * Optimized for DSP and real-time rendering.
+ * <b>Design:</b> No legacy API (setPoint, setPoints, etc.). Optimized for DSP and real-time rendering.
+ * <p>
+ * <b>Threading contract:</b> single producer, multiple consumers. One thread calls {@link #add},
+ * {@link #addFrame}, {@link #stage}/{@link #publish} and {@link #clear}; any thread may read.
+ * Samples are written first and then made visible by a release store of the write sequence, so a
+ * reader that acquires the sequence sees complete rows. Before overwriting old slots the producer
+ * announces the claimed range, which lets {@link #readSnapshot} drop slots that were overwritten
+ * while it was copying. Individual getters are safe but may observe different revisions when called
+ * separately; renderers should use a {@link Snapshot}.
+ * <p>
+ * Listeners registered via {@link #setChangeListener} are notified once per publish (one
+ * {@link #add}, one {@link #addFrame} or one batched {@link #publish}), on the producer thread.
  * <p>
  * <b>Important for Renderers:</b> For sweep-erase/monitor visualization, use getSweepIndex() to identify the current write position and avoid drawing a line across the buffer start.
  *
  * @author Arber Gashi
- * @version 1.0.0
+ * @version 2.1.0
  * @since 2025-12-30
  */
 public class CircularFastMedicalModel extends FastMedicalModel {
+
+    private static final VarHandle WRITTEN;
+    private static final VarHandle CLAIMED;
+    private static final VarHandle BASE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            WRITTEN = lookup.findVarHandle(CircularFastMedicalModel.class, "written", long.class);
+            CLAIMED = lookup.findVarHandle(CircularFastMedicalModel.class, "claimed", long.class);
+            BASE = lookup.findVarHandle(CircularFastMedicalModel.class, "base", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final int capacity;
     private final double[] x;
     private final double[][] y; // [channel][capacity]
     private final int channels;
     private final AtomicLong updateStamp = new AtomicLong(0);
-    private int head = 0;
-    private int size = 0;
-    private int sweepIndex = 0;
+    // sequences: published end, claimed end (>= written) and first sequence after the last clear
+    private long written;
+    private long claimed;
+    private long base;
+    // producer-only: end of the staged (unpublished) rows
+    private long pending;
     private String name = "MedicalSeries";
     private ArberColor color = null;
 
     public CircularFastMedicalModel(int capacity, int channels) {
-        super("CircularMedical", capacity);
+        super("CircularMedical", 1);
         this.capacity = capacity;
         this.channels = channels;
         this.x = new double[capacity];
@@ -42,28 +73,158 @@ public class CircularFastMedicalModel extends FastMedicalModel {
      * @param yVals Y values for all channels (e.g., pressure, flow, volume)
      */
     public void add(double xVal, double[] yVals) {
+        stage(xVal, yVals);
+        publish();
+    }
+
+    /**
+     * Adds {@code len} rows in one publish: {@code xs[off..off+len)} and the same range of every
+     * {@code channelData[c]}. Only the last {@code capacity} rows are kept when {@code len} exceeds
+     * the capacity.
+     *
+     * @since 2.1.0
+     */
+    public void addFrame(double[] xs, double[][] channelData, int off, int len) {
+        stageFrame(xs, channelData, off, len);
+        publish();
+    }
+
+    /**
+     * Writes one row without making it visible; call {@link #publish()} afterwards. Used to advance
+     * several models in lockstep.
+     *
+     * @since 2.1.0
+     */
+    public void stage(double xVal, double[] yVals) {
         if (yVals == null || yVals.length != channels)
             throw new IllegalArgumentException("yVals must have length=" + channels);
-        x[head] = xVal;
+        claim(pending + 1);
+        int slot = slot(pending);
+        x[slot] = xVal;
+        for (int c = 0; c < channels; c++) {
+            y[c][slot] = yVals[c];
+        }
+        pending++;
+    }
+
+    /**
+     * Bulk variant of {@link #stage(double, double[])}.
+     *
+     * @since 2.1.0
+     */
+    public void stageFrame(double[] xs, double[][] channelData, int off, int len) {
+        if (xs == null || channelData == null || channelData.length != channels)
+            throw new IllegalArgumentException("channelData must have length=" + channels);
+        if (off < 0 || len < 0 || off + len > xs.length)
+            throw new IndexOutOfBoundsException("Range: " + off + "+" + len + ", Length: " + xs.length);
+        for (int c = 0; c < channels; c++) {
+            if (channelData[c] == null || off + len > channelData[c].length)
+                throw new IllegalArgumentException("channelData[" + c + "] is shorter than off+len");
+        }
+        if (len == 0) return;
+        if (len > capacity) {
+            off += len - capacity;
+            len = capacity;
+        }
+        claim(pending + len);
+        int slot = slot(pending);
+        int first = Math.min(len, capacity - slot);
+        System.arraycopy(xs, off, x, slot, first);
+        System.arraycopy(xs, off + first, x, 0, len - first);
         for (int c = 0; c < channels; c++) {
-            y[c][head] = yVals[c];
+            System.arraycopy(channelData[c], off, y[c], slot, first);
+            System.arraycopy(channelData[c], off + first, y[c], 0, len - first);
         }
-        head = (head + 1) % capacity;
-        if (size < capacity) size++;
-        sweepIndex = head;
+        pending += len;
+    }
+
+    /**
+     * Makes all staged rows visible to readers and notifies listeners.
+     *
+     * @since 2.1.0
+     */
+    public void publish() {
+        if (publishQuietly()) fireDataChanged();
+    }
+
+    /**
+     * Makes all staged rows visible without notifying listeners; pair with {@link #notifyChanged()}
+     * when several models are published as one batch.
+     *
+     * @return whether any rows were published
+     * @since 2.1.0
+     */
+    public boolean publishQuietly() {
+        if (pending == (long) WRITTEN.getOpaque(this)) return false;
+        WRITTEN.setRelease(this, pending);
         updateStamp.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Notifies listeners on the calling thread.
+     *
+     * @since 2.1.0
+     */
+    public void notifyChanged() {
+        fireDataChanged();
+    }
+
+    private void claim(long end) {
+        CLAIMED.setOpaque(this, end);
+        // the claim must be visible before any slot it covers is overwritten
+        VarHandle.storeStoreFence();
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    /**
+     * Copies the x values and channels {@code [firstChannel, firstChannel + channelCount)} into
+     * {@code into}, keeping the ring layout. The copy is consistent: slots the producer overwrote
+     * while it was being taken are excluded from {@link Snapshot#getSize()}.
+     *
+     * @return {@code into}
+     * @since 2.1.0
+     */
+    public Snapshot readSnapshot(Snapshot into, int firstChannel, int channelCount) {
+        validateChannel(firstChannel);
+        if (channelCount > 0) validateChannel(firstChannel + channelCount - 1);
+        into.ensure(capacity, channels);
+        long w = (long) WRITTEN.getAcquire(this);
+        long b = (long) BASE.getAcquire(this);
+        long lo = Math.max(b, w - capacity);
+        if (lo < w) {
+            int from = slot(lo);
+            int len = (int) (w - lo);
+            int first = Math.min(len, capacity - from);
+            System.arraycopy(x, from, into.x, from, first);
+            System.arraycopy(x, 0, into.x, 0, len - first);
+            for (int c = firstChannel; c < firstChannel + channelCount; c++) {
+                System.arraycopy(y[c], from, into.y[c], from, first);
+                System.arraycopy(y[c], 0, into.y[c], 0, len - first);
+            }
+            VarHandle.loadLoadFence();
+            long c = (long) CLAIMED.getOpaque(this);
+            lo = Math.max(lo, Math.min(w, c - capacity));
+        }
+        into.head = slot(w);
+        into.size = (int) (w - lo);
+        into.firstSequence = lo;
+        into.stamp = updateStamp.get();
+        return into;
     }
 
     @Override
     public int getPointCount() {
-        return size;
+        long w = (long) WRITTEN.getAcquire(this);
+        return (int) Math.min(w - (long) BASE.getAcquire(this), capacity);
     }
 
     @Override
     public double getX(int index) {
-        validateIndex(index);
-        int idx = (head - size + index + capacity) % capacity;
-        return x[idx];
+        return x[logicalSlot(index)];
     }
 
     /**
@@ -79,10 +240,8 @@ public class CircularFastMedicalModel extends FastMedicalModel {
      */
     @Override
     public double getY(int index, int channel) {
-        validateIndex(index);
         validateChannel(channel);
-        int idx = (head - size + index + capacity) % capacity;
-        return y[channel][idx];
+        return y[channel][logicalSlot(index)];
     }
 
     /**
@@ -91,9 +250,9 @@ public class CircularFastMedicalModel extends FastMedicalModel {
      */
     @Override
     public double getValue(int index, int component) {
-        validateIndex(index);
         if (component == 0) return getX(index);
         if (component >= 1 && component <= channels) return getY(index, component - 1);
+        validateIndex(index);
         return 0.0;
     }
 
@@ -102,8 +261,20 @@ public class CircularFastMedicalModel extends FastMedicalModel {
         return updateStamp.get();
     }
 
+    /**
+     * The sequence of the oldest retained sample; it advances as the ring overwrites.
+     *
+     * @since 2.1.0
+     */
+    @Override
+    public long getFirstSequence() {
+        long w = (long) WRITTEN.getAcquire(this);
+        return w - Math.min(w - (long) BASE.getAcquire(this), capacity);
+    }
+
     /**
      * Returns the internal array for a channel (DSP/filter operations, Read-Only!).
+     * Slots may be overwritten concurrently; see {@link #readSnapshot}.
      */
     public double[] getRawChannelArray(int channel) {
         validateChannel(channel);
@@ -111,7 +282,7 @@ public class CircularFastMedicalModel extends FastMedicalModel {
     }
 
     public int getHeadIndex() {
-        return head;
+        return getRawHeadIndex();
     }
 
     public int getCapacity() {
@@ -119,7 +290,7 @@ public class CircularFastMedicalModel extends FastMedicalModel {
     }
 
     public int getSweepIndex() {
-        return sweepIndex;
+        return getRawHeadIndex();
     }
 
     @Override
@@ -143,26 +314,28 @@ public class CircularFastMedicalModel extends FastMedicalModel {
         return this;
     }
 
-
+    /**
+     * Drops all samples (producer thread). Staged rows are published first and then discarded.
+     */
     @Override
     public void clear() {
-        head = 0;
-        size = 0;
+        WRITTEN.setRelease(this, pending);
+        BASE.setRelease(this, pending);
         updateStamp.incrementAndGet();
+        fireDataChanged();
     }
 
-    @Override
-    public void setChangeListener(ChartModelListener listener) {
-        // No listener support (design decision for real-time performance)
-    }
-
-    @Override
-    public void removeChangeListener(ChartModelListener listener) {
-        // No listener support
+    // --- Utility: Defensive index checks ---
+    private int logicalSlot(int index) {
+        long w = (long) WRITTEN.getAcquire(this);
+        int size = (int) Math.min(w - (long) BASE.getAcquire(this), capacity);
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return slot(w - size + index);
     }
 
-    // --- Utility: Defensive index checks ---
     private void validateIndex(int index) {
+        int size = getPointCount();
         if (index < 0 || index >= size)
             throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
     }
@@ -186,14 +359,14 @@ public class CircularFastMedicalModel extends FastMedicalModel {
      * Returns the current head index (sweep position).
      */
     public int getRawHeadIndex() {
-        return head;
+        return slot((long) WRITTEN.getAcquire(this));
     }
 
     /**
      * Returns the current logical size (number of valid points).
      */
     public int getRawSize() {
-        return size;
+        return getPointCount();
     }
 
     /**
@@ -216,6 +389,8 @@ public class CircularFastMedicalModel extends FastMedicalModel {
 
     @Override
     public double[] getDataRange() {
+        long w = (long) WRITTEN.getAcquire(this);
+        int size = (int) Math.min(w - (long) BASE.getAcquire(this), capacity);
         if (size == 0) return new double[]{0, 0, 0, 0};
 
         double minX = Double.MAX_VALUE;
@@ -224,17 +399,78 @@ public class CircularFastMedicalModel extends FastMedicalModel {
         double maxY = -Double.MAX_VALUE;
 
         // Iterate over valid points only
-        for (int i = 0; i < size; i++) {
-            double xv = getX(i);
+        for (long s = w - size; s < w; s++) {
+            int slot = slot(s);
+            double xv = x[slot];
             if (xv < minX) minX = xv;
             if (xv > maxX) maxX = xv;
 
             for (int c = 0; c < channels; c++) {
-                double yv = getY(i, c);
+                double yv = y[c][slot];
                 if (yv < minY) minY = yv;
                 if (yv > maxY) maxY = yv;
             }
         }
         return new double[]{minX, maxX, minY, maxY};
     }
+
+    /**
+     * Reusable, renderer-owned copy of the ring filled by {@link #readSnapshot}. Arrays keep the
+     * ring layout of the model: the newest sample sits just before {@link #getHead()}.
+     *
+     * @since 2.1.0
+     */
+    public static final class Snapshot {
+        private double[] x = EMPTY_DOUBLE;
+        private double[][] y = new double[0][];
+        private int head;
+        private int size;
+        private long firstSequence;
+        private long stamp = -1;
+
+        private void ensure(int capacity, int channels) {
+            if (x.length != capacity) x = new double[capacity];
+            if (y.length != channels || (channels > 0 && y[0].length != capacity)) y = new double[channels][capacity];
+        }
+
+        /** X values in ring layout. */
+        public double[] getX() {
+            return x;
+        }
+
+        /** Values of {@code channel} in ring layout; only copied channels are current. */
+        public double[] getY(int channel) {
+            return y[channel];
+        }
+
+        /** Slot the next sample will be written to. */
+        public int getHead() {
+            return head;
+        }
+
+        /** Number of consistent samples, ending just before {@link #getHead()}. */
+        public int getSize() {
+            return size;
+        }
+
+        public int getCapacity() {
+            return x.length;
+        }
+
+        /** Sequence of the oldest consistent sample. */
+        public long getFirstSequence() {
+            return firstSequence;
+        }
+
+        /** Model update stamp observed after the copy. */
+        public long getStamp() {
+            return stamp;
+        }
+
+        /** True when {@code slot} holds one of the {@link #getSize()} consistent samples. */
+        public boolean isValid(int slot) {
+            int capacity = x.length;
+            return capacity > 0 && ((slot - head + capacity) % capacity) >= capacity - size;
+        }
+    }
 }
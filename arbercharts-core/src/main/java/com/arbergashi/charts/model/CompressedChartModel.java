@@ -0,0 +1,731 @@
+package com.arbergashi.charts.model;
+
+import com.arbergashi.charts.api.types.ArberColor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+/**
+ * Compressed in-memory XY model for long retention windows.
+ *
+ * <p>Points are appended into an uncompressed hot tail. Once the tail holds
+ * {@link #getBlockRows()} points it is sealed into an immutable block: X is stored with
+ * delta-of-delta encoding when every value in the block is integral (timestamps, sample
+ * counters) and with Gorilla XOR encoding otherwise; Y always uses XOR encoding. Slowly changing
+ * telemetry typically compresses to one or two bytes per point.</p>
+ *
+ * <p>Every sealed block keeps an uncompressed header with its X and Y extrema. Visible-range
+ * lookups and {@link #getDataRange()} use only these headers, and renderers can query
+ * {@link #getBlockMinX(int)} and friends to skip blocks outside the viewport or draw a block
+ * narrower than one pixel as a single envelope without decoding it.</p>
+ *
+ * <p>Decoding is lazy and block-wise: {@link #decodeBlock(int, double[], double[], int)} writes
+ * straight into caller-owned scratch buffers, and per-point accessors share a small fixed pool of
+ * decoded blocks, so the decode memory stays bounded however many threads read.</p>
+ *
+ * <p><b>Threading contract:</b> writers and the block index are guarded by an internal lock;
+ * sealed blocks are immutable and decoded outside of it. Sealed blocks are only ever discarded
+ * by {@link #clear()}, which starts a new {@link #getGeneration() generation}; block indices
+ * obtained in an earlier generation must not be reused, and
+ * {@link #readBlockEnvelope(int, long, double[])} checks this for the caller.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public class CompressedChartModel implements IndexedRangeModel {
+    private static final Logger LOGGER = Logger.getLogger(CompressedChartModel.class.getName());
+
+    /** Default number of points per sealed block. */
+    public static final int DEFAULT_BLOCK_ROWS = 1024;
+
+    private final AtomicLong updateStamp = new AtomicLong(0);
+    private final Object dataLock = new Object();
+    private final List<ChartModelListener> listeners = new CopyOnWriteArrayList<>();
+    private final int blockRows;
+    private final GorillaCodec.BitWriter writer = new GorillaCodec.BitWriter();
+
+    private String name = "Series";
+    private ArberColor color;
+    private boolean dispatchOnEdt;
+    private Executor dispatchExecutor;
+
+    private Block[] blocks = new Block[16];
+    private int blockCount;
+    private final double[] tailX;
+    private final double[] tailY;
+    private int tailSize;
+    private int size;
+    private double lastX = Double.NEGATIVE_INFINITY;
+    private boolean monotonicX = true;
+    private long generation;
+
+    // Decoded blocks shared by all readers; a reader takes one out of its slot while using it.
+    private static final int READ_CACHE_SLOTS = 4;
+    private final AtomicReferenceArray<ReadCache> readCaches = new AtomicReferenceArray<>(READ_CACHE_SLOTS);
+
+    public CompressedChartModel() {
+        this("Series", DEFAULT_BLOCK_ROWS);
+    }
+
+    /**
+     * Creates a model with a custom series name and block size.
+     *
+     * @param name      series name
+     * @param blockRows points per sealed block (&gt;= 16)
+     */
+    public CompressedChartModel(String name, int blockRows) {
+        if (blockRows < 16) throw new IllegalArgumentException("blockRows must be >= 16");
+        this.name = (name == null || name.isBlank()) ? "Series" : name;
+        this.blockRows = blockRows;
+        this.tailX = new double[blockRows];
+        this.tailY = new double[blockRows];
+    }
+
+    // === DATA INGESTION ===
+
+    /**
+     * Appends a single XY point.
+     *
+     * @param x X value
+     * @param y Y value
+     */
+    public void setXY(double x, double y) {
+        synchronized (dataLock) {
+            appendLocked(x, y);
+        }
+        invalidate();
+    }
+
+    /**
+     * Appends XY points from parallel arrays with a single change notification.
+     *
+     * @param xs     X values
+     * @param ys     Y values
+     * @param offset first source index
+     * @param length number of points
+     */
+    public void appendXY(double[] xs, double[] ys, int offset, int length) {
+        if (xs == null || ys == null || length <= 0) return;
+        if (offset < 0 || offset + length > xs.length || offset + length > ys.length) {
+            throw new IndexOutOfBoundsException("offset/length out of bounds");
+        }
+        synchronized (dataLock) {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                appendLocked(xs[i], ys[i]);
+            }
+        }
+        invalidate();
+    }
+
+    private void appendLocked(double x, double y) {
+        if (x < lastX) monotonicX = false;
+        lastX = x;
+        tailX[tailSize] = x;
+        tailY[tailSize] = y;
+        tailSize++;
+        size++;
+        if (tailSize == blockRows) {
+            sealTail();
+        }
+    }
+
+    private void sealTail() {
+        int n = tailSize;
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        int minRow = 0;
+        int maxRow = 0;
+        for (int i = 0; i < n; i++) {
+            double x = tailX[i];
+            double y = tailY[i];
+            if (Double.isFinite(x)) {
+                if (x < minX) minX = x;
+                if (x > maxX) maxX = x;
+            }
+            if (Double.isFinite(y)) {
+                if (y < minY) {
+                    minY = y;
+                    minRow = i;
+                }
+                if (y > maxY) {
+                    maxY = y;
+                    maxRow = i;
+                }
+            }
+        }
+        boolean integralX = GorillaCodec.isIntegral(tailX, 0, n);
+        writer.reset();
+        if (integralX) {
+            GorillaCodec.encodeDeltaOfDelta(tailX, 0, n, writer);
+        } else {
+            GorillaCodec.encodeXor(tailX, 0, n, writer);
+        }
+        long yStart = writer.bitLength();
+        GorillaCodec.encodeXor(tailY, 0, n, writer);
+
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+        }
+        int early = Math.min(minRow, maxRow);
+        int late = Math.max(minRow, maxRow);
+        double[] envelope = {tailX[0], tailY[0], tailX[early], tailY[early], tailX[late], tailY[late],
+                tailX[n - 1], tailY[n - 1]};
+        blocks[blockCount++] = new Block(size - n, n, integralX, yStart, writer.toArray(), minX, maxX, minY, maxY,
+                envelope);
+        tailSize = 0;
+    }
+
+    /**
+     * Removes all points.
+     */
+    public void clear() {
+        synchronized (dataLock) {
+            // readers that already hold a block keep decoding it; new lookups see the new generation
+            blocks = new Block[16];
+            blockCount = 0;
+            generation++;
+            tailSize = 0;
+            size = 0;
+            lastX = Double.NEGATIVE_INFINITY;
+            monotonicX = true;
+        }
+        invalidate();
+    }
+
+    // === BLOCK API ===
+
+    /**
+     * Returns the number of points per sealed block.
+     */
+    public int getBlockRows() {
+        return blockRows;
+    }
+
+    /**
+     * Returns the number of sealed (compressed) blocks. The hot tail is not included.
+     */
+    public int getSealedBlockCount() {
+        synchronized (dataLock) {
+            return blockCount;
+        }
+    }
+
+    /**
+     * Returns the smallest finite X of a sealed block.
+     */
+    public double getBlockMinX(int block) {
+        return block(block).minX;
+    }
+
+    /**
+     * Returns the largest finite X of a sealed block.
+     */
+    public double getBlockMaxX(int block) {
+        return block(block).maxX;
+    }
+
+    /**
+     * Returns the smallest finite Y of a sealed block.
+     */
+    public double getBlockMinY(int block) {
+        return block(block).minY;
+    }
+
+    /**
+     * Returns the largest finite Y of a sealed block.
+     */
+    public double getBlockMaxY(int block) {
+        return block(block).maxY;
+    }
+
+    /**
+     * Returns the current block generation. It changes whenever {@link #clear()} discards the
+     * sealed blocks, which invalidates every block index handed out before.
+     *
+     * @since 2.1.0
+     */
+    public long getGeneration() {
+        synchronized (dataLock) {
+            return generation;
+        }
+    }
+
+    /**
+     * Copies the M4 envelope of a sealed block as four x/y pairs in time order: the first point,
+     * the earlier and the later of the Y extrema, and the last point.
+     *
+     * <p>A line through these points matches the pixel column extent of a line through every
+     * point of the block, including whether the trace rises or falls inside it.</p>
+     *
+     * @param block      sealed block index
+     * @param generation {@link #getGeneration()} the index was obtained in
+     * @param out        destination with length &gt;= 8
+     * @return {@code false} if the block no longer exists in that generation or has no finite Y
+     * @since 2.1.0
+     */
+    public boolean readBlockEnvelope(int block, long generation, double[] out) {
+        Block b;
+        synchronized (dataLock) {
+            if (generation != this.generation || block < 0 || block >= blockCount) return false;
+            b = blocks[block];
+        }
+        if (!(b.minY <= b.maxY)) return false;
+        System.arraycopy(b.envelope, 0, out, 0, b.envelope.length);
+        return true;
+    }
+
+    /**
+     * Returns the first logical index of a sealed block.
+     */
+    public int getBlockStart(int block) {
+        return block(block).start;
+    }
+
+    /**
+     * Decodes a sealed block into caller-owned scratch buffers.
+     *
+     * @param block  sealed block index
+     * @param xs     X destination (nullable to skip X)
+     * @param ys     Y destination (nullable to skip Y)
+     * @param offset destination offset
+     * @return number of decoded points
+     */
+    public int decodeBlock(int block, double[] xs, double[] ys, int offset) {
+        Block b = block(block);
+        ReadCache cache = acquireCache(null);
+        try {
+            if (xs != null) b.decodeX(cache.reader, xs, offset);
+            if (ys != null) b.decodeY(cache.reader, ys, offset);
+        } finally {
+            releaseCache(cache);
+        }
+        return b.count;
+    }
+
+    /**
+     * Decodes the logical range {@code [from, toExclusive)} into caller-owned buffers.
+     *
+     * @return number of points written
+     */
+    public int decodeRange(int from, int toExclusive, double[] xs, double[] ys, int offset) {
+        int start = Math.max(0, from);
+        int written = 0;
+        ReadCache cache = acquireCache(null);
+        try {
+            synchronized (dataLock) {
+                int end = Math.min(size, toExclusive);
+                int i = start;
+                while (i < end) {
+                    int blockIndex = i / blockRows;
+                    if (blockIndex < blockCount) {
+                        Block b = blocks[blockIndex];
+                        cache.load(b);
+                        int row = i - b.start;
+                        int n = Math.min(end - i, b.count - row);
+                        if (xs != null) System.arraycopy(cache.xs, row, xs, offset + written, n);
+                        if (ys != null) System.arraycopy(cache.ys, row, ys, offset + written, n);
+                        i += n;
+                        written += n;
+                    } else {
+                        int row = i - blockCount * blockRows;
+                        int n = end - i;
+                        if (xs != null) System.arraycopy(tailX, row, xs, offset + written, n);
+                        if (ys != null) System.arraycopy(tailY, row, ys, offset + written, n);
+                        i += n;
+                        written += n;
+                    }
+                }
+            }
+        } finally {
+            releaseCache(cache);
+        }
+        return written;
+    }
+
+    @Override
+    public int readXY(int from, int toExclusive, double[] xs, double[] ys, int offset) {
+        return decodeRange(from, toExclusive, xs, ys, offset);
+    }
+
+    /**
+     * Returns the approximate retained size of all point data in bytes.
+     */
+    public long getCompressedBytes() {
+        synchronized (dataLock) {
+            long bytes = 2L * blockRows * Double.BYTES;
+            for (int i = 0; i < blockCount; i++) {
+                bytes += blocks[i].bits.length * (long) Long.BYTES + Block.HEADER_BYTES;
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Returns the size the same points would occupy as uncompressed X/Y columns.
+     */
+    public long getUncompressedBytes() {
+        synchronized (dataLock) {
+            return 2L * size * Double.BYTES;
+        }
+    }
+
+    private Block block(int index) {
+        synchronized (dataLock) {
+            if (index < 0 || index >= blockCount) throw new IndexOutOfBoundsException("block " + index);
+            return blocks[index];
+        }
+    }
+
+    // === ChartModel ===
+
+    @Override
+    public int getPointCount() {
+        synchronized (dataLock) {
+            return size;
+        }
+    }
+
+    @Override
+    public double getX(int index) {
+        return read(index, true);
+    }
+
+    @Override
+    public double getY(int index) {
+        return read(index, false);
+    }
+
+    @Override
+    public double getValue(int index, int component) {
+        return switch (component) {
+            case 0 -> getX(index);
+            case 1, 3, 4 -> getY(index);
+            case 2 -> index >= 0 && index < getPointCount() ? 1.0 : 0.0;
+            default -> 0.0;
+        };
+    }
+
+    @Override
+    public double getWeight(int index) {
+        return index >= 0 && index < getPointCount() ? 1.0 : 0.0;
+    }
+
+    private double read(int index, boolean x) {
+        Block b;
+        synchronized (dataLock) {
+            if (index < 0 || index >= size) return 0.0;
+            int blockIndex = index / blockRows;
+            if (blockIndex >= blockCount) {
+                int row = index - blockCount * blockRows;
+                return x ? tailX[row] : tailY[row];
+            }
+            b = blocks[blockIndex];
+        }
+        ReadCache cache = acquireCache(b);
+        try {
+            cache.load(b);
+            int row = index - b.start;
+            return x ? cache.xs[row] : cache.ys[row];
+        } finally {
+            releaseCache(cache);
+        }
+    }
+
+    @Override
+    public double[] getXData() {
+        int n = getPointCount();
+        double[] out = new double[n];
+        decodeRange(0, n, out, null, 0);
+        return out;
+    }
+
+    @Override
+    public double[] getYData() {
+        int n = getPointCount();
+        double[] out = new double[n];
+        decodeRange(0, n, null, out, 0);
+        return out;
+    }
+
+    @Override
+    public double[] getWeightData() {
+        double[] out = new double[getPointCount()];
+        Arrays.fill(out, 1.0);
+        return out;
+    }
+
+    @Override
+    public double[] getDataRange() {
+        synchronized (dataLock) {
+            if (size == 0) return new double[]{0, 0, 0, 0};
+            double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+            double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < blockCount; i++) {
+                Block b = blocks[i];
+                if (b.minX < minX) minX = b.minX;
+                if (b.maxX > maxX) maxX = b.maxX;
+                if (b.minY < minY) minY = b.minY;
+                if (b.maxY > maxY) maxY = b.maxY;
+            }
+            for (int i = 0; i < tailSize; i++) {
+                double x = tailX[i];
+                double y = tailY[i];
+                if (Double.isFinite(x)) {
+                    if (x < minX) minX = x;
+                    if (x > maxX) maxX = x;
+                }
+                if (Double.isFinite(y)) {
+                    if (y < minY) minY = y;
+                    if (y > maxY) maxY = y;
+                }
+            }
+            if (minX == Double.MAX_VALUE || minY == Double.MAX_VALUE) return new double[]{0, 0, 0, 0};
+            return new double[]{minX, maxX, minY, maxY};
+        }
+    }
+
+    // === IndexedRangeModel ===
+
+    @Override
+    public boolean isMonotonicX() {
+        synchronized (dataLock) {
+            return monotonicX;
+        }
+    }
+
+    @Override
+    public int lowerBoundX(double x) {
+        return bound(x, false);
+    }
+
+    @Override
+    public int upperBoundX(double x) {
+        return bound(x, true);
+    }
+
+    private int bound(double x, boolean upper) {
+        Block b;
+        synchronized (dataLock) {
+            if (size == 0) return 0;
+            if (!monotonicX) return upper ? size : 0;
+            int lo = 0;
+            int hi = blockCount;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                double bx = blocks[mid].maxX;
+                if (upper ? bx <= x : bx < x) lo = mid + 1;
+                else hi = mid;
+            }
+            if (lo == blockCount) {
+                int rowLo = 0;
+                int rowHi = tailSize;
+                while (rowLo < rowHi) {
+                    int mid = (rowLo + rowHi) >>> 1;
+                    double v = tailX[mid];
+                    if (upper ? v <= x : v < x) rowLo = mid + 1;
+                    else rowHi = mid;
+                }
+                return blockCount * blockRows + rowLo;
+            }
+            b = blocks[lo];
+        }
+        ReadCache cache = acquireCache(b);
+        try {
+            cache.load(b);
+            int rowLo = 0;
+            int rowHi = b.count;
+            while (rowLo < rowHi) {
+                int mid = (rowLo + rowHi) >>> 1;
+                double v = cache.xs[mid];
+                if (upper ? v <= x : v < x) rowLo = mid + 1;
+                else rowHi = mid;
+            }
+            return b.start + rowLo;
+        } finally {
+            releaseCache(cache);
+        }
+    }
+
+    // === BOILERPLATE ===
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public CompressedChartModel setName(String name) {
+        this.name = (name == null || name.isBlank()) ? "Series" : name;
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public ArberColor getColor() {
+        return color;
+    }
+
+    @Override
+    public CompressedChartModel setColor(ArberColor color) {
+        this.color = color;
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public long getUpdateStamp() {
+        return updateStamp.get();
+    }
+
+    /**
+     * Controls whether change listeners are notified via a configured dispatch executor.
+     */
+    public CompressedChartModel setDispatchOnEdt(boolean enabled) {
+        this.dispatchOnEdt = enabled;
+        return this;
+    }
+
+    /**
+     * Sets the executor used when {@code dispatchOnEdt} is enabled.
+     *
+     * @param executor executor for listener dispatch (nullable)
+     * @return this model for chaining
+     */
+    public CompressedChartModel setDispatchExecutor(Executor executor) {
+        this.dispatchExecutor = executor;
+        return this;
+    }
+
+    @Override
+    public void setChangeListener(ChartModelListener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ChartModelListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void invalidate() {
+        updateStamp.incrementAndGet();
+        fireModelChanged();
+    }
+
+    protected void fireModelChanged() {
+        if (dispatchOnEdt && dispatchExecutor != null) {
+            try {
+                dispatchExecutor.execute(this::notifyListeners);
+                return;
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "Dispatch executor rejected listener notification; falling back to caller thread", ex);
+            }
+            notifyListeners();
+            return;
+        }
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        for (ChartModelListener listener : listeners) {
+            try {
+                listener.modelChanged();
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "ChartModel listener failed and was isolated", ex);
+            }
+        }
+    }
+
+    /**
+     * Immutable sealed block: uncompressed header plus one bit stream holding X then Y.
+     */
+    private static final class Block {
+        static final int HEADER_BYTES = 64 + 8 * Double.BYTES + 16; // fields plus the envelope array
+
+        final int start;
+        final int count;
+        final boolean integralX;
+        final long yStartBit;
+        final long[] bits;
+        final double minX;
+        final double maxX;
+        final double minY;
+        final double maxY;
+        final double[] envelope; // first, earlier extremum, later extremum, last as x/y pairs
+
+        Block(int start, int count, boolean integralX, long yStartBit, long[] bits,
+              double minX, double maxX, double minY, double maxY, double[] envelope) {
+            this.start = start;
+            this.count = count;
+            this.integralX = integralX;
+            this.yStartBit = yStartBit;
+            this.bits = bits;
+            this.minX = minX;
+            this.maxX = maxX;
+            this.minY = minY;
+            this.maxY = maxY;
+            this.envelope = envelope;
+        }
+
+        void decodeX(GorillaCodec.BitReader reader, double[] out, int offset) {
+            reader.reset(bits, 0L);
+            if (integralX) {
+                GorillaCodec.decodeDeltaOfDelta(reader, count, out, offset);
+            } else {
+                GorillaCodec.decodeXor(reader, count, out, offset);
+            }
+        }
+
+        void decodeY(GorillaCodec.BitReader reader, double[] out, int offset) {
+            reader.reset(bits, yStartBit);
+            GorillaCodec.decodeXor(reader, count, out, offset);
+        }
+    }
+
+    /**
+     * Takes a decoded block out of the shared pool, preferring one that already holds {@code wanted}.
+     * When every slot is in use a fresh cache is returned; it is pooled on release only if a slot
+     * has become free, so the pool never holds more than {@link #READ_CACHE_SLOTS} blocks.
+     */
+    private ReadCache acquireCache(Block wanted) {
+        if (wanted != null) {
+            for (int i = 0; i < READ_CACHE_SLOTS; i++) {
+                ReadCache c = readCaches.get(i);
+                if (c != null && c.block == wanted && readCaches.compareAndSet(i, c, null)) return c;
+            }
+        }
+        for (int i = 0; i < READ_CACHE_SLOTS; i++) {
+            ReadCache c = readCaches.get(i);
+            if (c != null && readCaches.compareAndSet(i, c, null)) return c;
+        }
+        return new ReadCache();
+    }
+
+    private void releaseCache(ReadCache cache) {
+        for (int i = 0; i < READ_CACHE_SLOTS; i++) {
+            if (readCaches.get(i) == null && readCaches.compareAndSet(i, null, cache)) return;
+        }
+    }
+
+    /**
+     * Decoded block used by the point accessors; owned by one reader between acquire and release.
+     */
+    private final class ReadCache {
+        final GorillaCodec.BitReader reader = new GorillaCodec.BitReader();
+        final double[] xs = new double[blockRows];
+        final double[] ys = new double[blockRows];
+        Block block;
+
+        void load(Block b) {
+            if (block == b) return;
+            b.decodeX(reader, xs, 0);
+            b.decodeY(reader, ys, 0);
+            block = b;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.arbergashi.charts.model;
 import com.arbergashi.charts.api.types.ArberColor;
 
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -277,6 +279,95 @@ public class DefaultChartModel implements ChartModel {
         invalidate();
     }
 
+    /**
+     * Appends {@code length} points from parallel columns starting at {@code offset}, with a single
+     * change notification. Only {@code xs} and {@code ys} are required; a {@code null} column takes
+     * the default of {@link #setXY(double, double)}: min and max follow Y, weight is {@code 1.0},
+     * labels are empty and provenance is {@link ProvenanceFlags#ORIGINAL} with no source or
+     * timestamp.
+     *
+     * @since 2.1.0
+     */
+    public void appendPoints(double[] xs, double[] ys, double[] mins, double[] maxs, double[] weights,
+                             String[] labels, byte[] flags, short[] sourceIds, long[] timestamps,
+                             int offset, int length) {
+        if (length <= 0) return;
+        synchronized (dataLock) {
+            ensureCapacity(size + length);
+            System.arraycopy(xs, offset, xData, size, length);
+            System.arraycopy(ys, offset, yData, size, length);
+            appendMetadataLocked(mins, maxs, weights, labels, flags, sourceIds, timestamps, offset, length);
+        }
+        invalidate();
+    }
+
+    /**
+     * Appends {@code length} XY points straight from two native-order {@code double} columns,
+     * for example native memory wrapped by a bridge; every other column takes its default as in the
+     * array overload.
+     *
+     * @since 2.1.0
+     */
+    public void appendPoints(MemorySegment xs, MemorySegment ys, int length) {
+        if (length <= 0) return;
+        synchronized (dataLock) {
+            ensureCapacity(size + length);
+            MemorySegment.copy(xs, ValueLayout.JAVA_DOUBLE_UNALIGNED, 0L, xData, size, length);
+            MemorySegment.copy(ys, ValueLayout.JAVA_DOUBLE_UNALIGNED, 0L, yData, size, length);
+            appendMetadataLocked(null, null, null, null, null, null, null, 0, length);
+        }
+        invalidate();
+    }
+
+    /**
+     * Fills every column but X and Y for the {@code length} rows after {@code size}, then commits them.
+     */
+    private void appendMetadataLocked(double[] mins, double[] maxs, double[] weights, String[] labels,
+                                      byte[] flags, short[] sourceIds, long[] timestamps, int offset, int length) {
+        int end = size + length;
+        if (mins != null) System.arraycopy(mins, offset, minData, size, length);
+        else System.arraycopy(yData, size, minData, size, length);
+        if (maxs != null) System.arraycopy(maxs, offset, maxData, size, length);
+        else System.arraycopy(yData, size, maxData, size, length);
+        if (weights != null) System.arraycopy(weights, offset, weightData, size, length);
+        else Arrays.fill(weightData, size, end, 1.0);
+        if (labels != null) System.arraycopy(labels, offset, this.labels, size, length);
+        else Arrays.fill(this.labels, size, end, null);
+        if (flags != null) System.arraycopy(flags, offset, provenanceFlags, size, length);
+        else Arrays.fill(provenanceFlags, size, end, ProvenanceFlags.ORIGINAL);
+        if (sourceIds != null) System.arraycopy(sourceIds, offset, this.sourceIds, size, length);
+        else Arrays.fill(this.sourceIds, size, end, (short) 0);
+        if (timestamps != null) System.arraycopy(timestamps, offset, timestampNanos, size, length);
+        else Arrays.fill(timestampNanos, size, end, 0L);
+        size = end;
+    }
+
+    /**
+     * Copies up to {@code length} rows starting at {@code from} into the given columns under a
+     * single lock, for bulk readers such as exporters and snapshots. Any column may be
+     * {@code null} to skip it.
+     *
+     * @return number of rows copied
+     * @since 2.1.0
+     */
+    public int copyRows(int from, double[] xs, double[] ys, double[] mins, double[] maxs, double[] weights,
+                        String[] labels, byte[] flags, short[] sourceIds, long[] timestamps, int length) {
+        synchronized (dataLock) {
+            int n = Math.min(length, size - from);
+            if (from < 0 || n <= 0) return 0;
+            if (xs != null) System.arraycopy(xData, from, xs, 0, n);
+            if (ys != null) System.arraycopy(yData, from, ys, 0, n);
+            if (mins != null) System.arraycopy(minData, from, mins, 0, n);
+            if (maxs != null) System.arraycopy(maxData, from, maxs, 0, n);
+            if (weights != null) System.arraycopy(weightData, from, weights, 0, n);
+            if (labels != null) System.arraycopy(this.labels, from, labels, 0, n);
+            if (flags != null) System.arraycopy(provenanceFlags, from, flags, 0, n);
+            if (sourceIds != null) System.arraycopy(this.sourceIds, from, sourceIds, 0, n);
+            if (timestamps != null) System.arraycopy(timestampNanos, from, timestamps, 0, n);
+            return n;
+        }
+    }
+
     /**
      * Updates provenance metadata for an existing index.
      */
@@ -1,5 +1,7 @@
 package com.arbergashi.charts.model;
 
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -23,6 +25,7 @@ public class DefaultFinancialChartModel implements FinancialChartModel {
 
     private final AtomicLong updateStamp = new AtomicLong(0);
     private final List<ChartModelListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<BarChangeListener> barListeners = new CopyOnWriteArrayList<>();
     private String name = "Financial Series";
     private boolean dispatchOnEdt = false;
     private Executor dispatchExecutor;
@@ -174,7 +177,7 @@ public class DefaultFinancialChartModel implements FinancialChartModel {
         labels[size] = label;
         size++;
         updateStamp.incrementAndGet();
-        fireModelChanged();
+        fireBarChanged(size - 1, true);
     }
 
     public void setOHLC(double time, double open, double high, double low, double close, double volume, String label) {
@@ -188,7 +191,80 @@ public class DefaultFinancialChartModel implements FinancialChartModel {
         labels[size] = label;
         size++;
         updateStamp.incrementAndGet();
-        fireModelChanged();
+        fireBarChanged(size - 1, true);
+    }
+
+    /**
+     * Appends {@code length} bars straight from native-order {@code double} columns, for example
+     * native memory wrapped by a bridge. Each column is bulk-copied once.
+     *
+     * <p>Bar listeners are told about every appended index, then model listeners fire once.</p>
+     *
+     * @param volume volume column, or {@code null} for zero volume
+     * @since 2.1.0
+     */
+    public void appendOHLC(MemorySegment time, MemorySegment open, MemorySegment high, MemorySegment low,
+                           MemorySegment close, MemorySegment volume, int length) {
+        if (length <= 0) return;
+        ensureCapacity(size + length);
+        int start = size;
+        MemorySegment.copy(time, ValueLayout.JAVA_DOUBLE_UNALIGNED, 0L, xData, start, length);
+        MemorySegment.copy(open, ValueLayout.JAVA_DOUBLE_UNALIGNED, 0L, openData, start, length);
+        MemorySegment.copy(high, ValueLayout.JAVA_DOUBLE_UNALIGNED, 0L, highData, start, length);
+        MemorySegment.copy(low, ValueLayout.JAVA_DOUBLE_UNALIGNED, 0L, lowData, start, length);
+        MemorySegment.copy(close, ValueLayout.JAVA_DOUBLE_UNALIGNED, 0L, closeData, start, length);
+        if (volume != null) {
+            MemorySegment.copy(volume, ValueLayout.JAVA_DOUBLE_UNALIGNED, 0L, volumeData, start, length);
+        } else {
+            Arrays.fill(volumeData, start, start + length, 0.0);
+        }
+        Arrays.fill(labels, start, start + length, null);
+        size += length;
+        updateStamp.incrementAndGet();
+        fireBarsAppended(start, size);
+    }
+
+    /**
+     * Revises the forming (last) bar in place instead of appending a new one.
+     *
+     * <p>Time, label and provenance of the bar are kept. Exactly one notification is fired per
+     * call: bar listeners receive the index of the last bar with {@code appended == false},
+     * followed by the regular model listeners.</p>
+     *
+     * @return {@code false} if the model holds no bar yet
+     */
+    public boolean updateLastOHLC(double open, double high, double low, double close, double volume) {
+        if (size == 0) return false;
+        int last = size - 1;
+        openData[last] = open;
+        highData[last] = high;
+        lowData[last] = low;
+        closeData[last] = close;
+        volumeData[last] = volume;
+        updateStamp.incrementAndGet();
+        fireBarChanged(last, false);
+        return true;
+    }
+
+    /**
+     * Replaces all bars by adopting the restored columns without copying (all of one length,
+     * at least {@code size}); for {@link ChartSnapshot}.
+     */
+    void restoreColumns(int size, double[] x, double[] open, double[] high, double[] low, double[] close,
+                        double[] volume, byte[] flags, short[] sourceIds, long[] timestamps, String[] labels) {
+        this.xData = x;
+        this.openData = open;
+        this.highData = high;
+        this.lowData = low;
+        this.closeData = close;
+        this.volumeData = volume;
+        this.provenanceFlags = flags;
+        this.sourceIds = sourceIds;
+        this.timestampNanos = timestamps;
+        this.labels = labels;
+        this.size = size;
+        updateStamp.incrementAndGet();
+        fireBarsAppended(0, size);
     }
 
     private void ensureCapacity(int required) {
@@ -216,6 +292,64 @@ public class DefaultFinancialChartModel implements FinancialChartModel {
         listeners.remove(listener);
     }
 
+    @Override
+    public void addBarChangeListener(BarChangeListener listener) {
+        if (listener != null) barListeners.add(listener);
+    }
+
+    @Override
+    public void removeBarChangeListener(BarChangeListener listener) {
+        barListeners.remove(listener);
+    }
+
+    /**
+     * Notifies bar listeners about a single bar, then fires the regular model change.
+     */
+    protected void fireBarChanged(int index, boolean appended) {
+        if (!barListeners.isEmpty()) {
+            if (dispatchOnEdt && dispatchExecutor != null) {
+                try {
+                    dispatchExecutor.execute(() -> notifyBarListeners(index, appended));
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Dispatch executor rejected listener notification; falling back to caller thread", ex);
+                    notifyBarListeners(index, appended);
+                }
+            } else {
+                notifyBarListeners(index, appended);
+            }
+        }
+        fireModelChanged();
+    }
+
+    private void fireBarsAppended(int from, int to) {
+        if (!barListeners.isEmpty()) {
+            Runnable notify = () -> {
+                for (int i = from; i < to; i++) notifyBarListeners(i, true);
+            };
+            if (dispatchOnEdt && dispatchExecutor != null) {
+                try {
+                    dispatchExecutor.execute(notify);
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Dispatch executor rejected listener notification; falling back to caller thread", ex);
+                    notify.run();
+                }
+            } else {
+                notify.run();
+            }
+        }
+        fireModelChanged();
+    }
+
+    private void notifyBarListeners(int index, boolean appended) {
+        for (var l : barListeners) {
+            try {
+                l.barChanged(index, appended);
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "ChartModel listener failed and was isolated", ex);
+            }
+        }
+    }
+
     private void fireChanged() {
         fireModelChanged();
     }
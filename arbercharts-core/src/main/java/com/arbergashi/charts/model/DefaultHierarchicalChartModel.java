@@ -133,6 +133,13 @@ public class DefaultHierarchicalChartModel implements HierarchicalChartModel<Def
             return Collections.unmodifiableList(children);
         }
 
+        /**
+         * Returns the value given at construction, without the sum over children.
+         */
+        double ownValue() {
+            return value;
+        }
+
         public void setChild(DefaultNode child) {
             this.children.add(child);
         }
@@ -192,6 +192,24 @@ public class DefaultSignalChartModel implements SignalChartModel {
         fireModelChanged();
     }
 
+    /**
+     * Replaces all samples by adopting restored columns of capacity length whose first
+     * {@code size} entries are in logical order; for {@link ChartSnapshot}.
+     */
+    void restoreColumns(int size, double[] x, double[][] channels, long[] timestamps, String[] labels) {
+        if (channels.length != channelData.length || x.length != xData.length) {
+            throw new IllegalArgumentException("restored columns do not match the model shape");
+        }
+        this.xData = x;
+        this.channelData = channels;
+        this.timestampNanos = timestamps;
+        this.labels = labels;
+        this.size = size;
+        this.writeIndex = circular ? size % x.length : 0;
+        updateStamp.incrementAndGet();
+        fireModelChanged();
+    }
+
     private int allocateIndex() {
         if (!circular) {
             if (size >= xData.length) {
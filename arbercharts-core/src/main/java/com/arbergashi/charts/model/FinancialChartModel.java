@@ -95,6 +95,21 @@ public interface FinancialChartModel extends ChartModel {
         return arr[index];
     }
 
+    /**
+     * Registers a listener that is told which bar was appended or revised.
+     *
+     * <p>Implementations without targeted notifications ignore the call; the listener then only
+     * learns about changes through {@link #setChangeListener(ChartModelListener)}.</p>
+     */
+    default void addBarChangeListener(BarChangeListener listener) {
+    }
+
+    /**
+     * Removes a previously registered bar listener.
+     */
+    default void removeBarChangeListener(BarChangeListener listener) {
+    }
+
     @Override
     default double[] getYData() {
         return getCloseData();
@@ -122,4 +137,16 @@ public interface FinancialChartModel extends ChartModel {
         if (arr == null || index >= arr.length) return 0.0;
         return arr[index];
     }
+
+    /**
+     * Targeted change callback for incremental indicators and renderers.
+     */
+    @FunctionalInterface
+    interface BarChangeListener {
+        /**
+         * @param index    index of the bar that changed
+         * @param appended {@code true} if the bar was appended, {@code false} if it was revised in place
+         */
+        void barChanged(int index, boolean appended);
+    }
 }
@@ -0,0 +1,221 @@
+package com.arbergashi.charts.model;
+
+import java.util.Arrays;
+/**
+ * Bit-level time-series codec after the Gorilla scheme (Pelkonen et al., VLDB 2015).
+ *
+ * <p>Two encodings are provided:</p>
+ * <ul>
+ *   <li><b>XOR</b> for arbitrary doubles: each value is XOR-ed with its predecessor and only the
+ *   meaningful bits are written, reusing the previous leading/trailing-zero window when it fits.</li>
+ *   <li><b>Delta-of-delta</b> for integral sequences such as timestamps: the second difference is
+ *   zig-zag encoded into 1, 9, 12, 16 or 68 bits.</li>
+ * </ul>
+ *
+ * <p>Streams are plain {@code long[]} words written MSB-first; no objects are allocated while
+ * decoding.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+final class GorillaCodec {
+
+    private GorillaCodec() {
+    }
+
+    /**
+     * Returns whether every value in the range is an integer representable without loss as a long.
+     */
+    static boolean isIntegral(double[] values, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            double v = values[i];
+            if (v != Math.rint(v) || Math.abs(v) > 0x1p53) return false;
+            if (v == 0.0 && Double.doubleToRawLongBits(v) != 0L) return false; // keep -0.0 exact
+        }
+        return true;
+    }
+
+    static void encodeXor(double[] values, int offset, int length, BitWriter out) {
+        if (length <= 0) return;
+        long prev = Double.doubleToRawLongBits(values[offset]);
+        out.write(prev, 64);
+        int prevLeading = -1;
+        int prevTrailing = 0;
+        for (int i = offset + 1, end = offset + length; i < end; i++) {
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ prev;
+            prev = bits;
+            if (xor == 0L) {
+                out.write(0L, 1);
+                continue;
+            }
+            out.write(1L, 1);
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (prevLeading >= 0 && leading >= prevLeading && trailing >= prevTrailing) {
+                out.write(0L, 1);
+                out.write(xor >>> prevTrailing, 64 - prevLeading - prevTrailing);
+            } else {
+                int meaningful = 64 - leading - trailing;
+                out.write(1L, 1);
+                out.write(leading, 5);
+                out.write(meaningful & 0x3F, 6); // 64 is stored as 0
+                out.write(xor >>> trailing, meaningful);
+                prevLeading = leading;
+                prevTrailing = trailing;
+            }
+        }
+    }
+
+    static void decodeXor(BitReader in, int length, double[] out, int offset) {
+        if (length <= 0) return;
+        long prev = in.read(64);
+        out[offset] = Double.longBitsToDouble(prev);
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < length; i++) {
+            if (in.read(1) != 0L) {
+                if (in.read(1) != 0L) {
+                    leading = (int) in.read(5);
+                    int meaningful = (int) in.read(6);
+                    if (meaningful == 0) meaningful = 64;
+                    trailing = 64 - leading - meaningful;
+                }
+                prev ^= in.read(64 - leading - trailing) << trailing;
+            }
+            out[offset + i] = Double.longBitsToDouble(prev);
+        }
+    }
+
+    static void encodeDeltaOfDelta(double[] values, int offset, int length, BitWriter out) {
+        if (length <= 0) return;
+        long prev = (long) values[offset];
+        out.write(prev, 64);
+        long prevDelta = 0L;
+        for (int i = offset + 1, end = offset + length; i < end; i++) {
+            long v = (long) values[i];
+            long delta = v - prev;
+            long dod = delta - prevDelta;
+            prev = v;
+            prevDelta = delta;
+            long zz = (dod << 1) ^ (dod >> 63);
+            if (zz == 0L) {
+                out.write(0L, 1);
+            } else if (zz < (1L << 7)) {
+                out.write(0b10L, 2);
+                out.write(zz, 7);
+            } else if (zz < (1L << 9)) {
+                out.write(0b110L, 3);
+                out.write(zz, 9);
+            } else if (zz < (1L << 12)) {
+                out.write(0b1110L, 4);
+                out.write(zz, 12);
+            } else {
+                out.write(0b1111L, 4);
+                out.write(zz, 64);
+            }
+        }
+    }
+
+    static void decodeDeltaOfDelta(BitReader in, int length, double[] out, int offset) {
+        if (length <= 0) return;
+        long prev = in.read(64);
+        out[offset] = prev;
+        long prevDelta = 0L;
+        for (int i = 1; i < length; i++) {
+            long zz;
+            if (in.read(1) == 0L) {
+                zz = 0L;
+            } else if (in.read(1) == 0L) {
+                zz = in.read(7);
+            } else if (in.read(1) == 0L) {
+                zz = in.read(9);
+            } else if (in.read(1) == 0L) {
+                zz = in.read(12);
+            } else {
+                zz = in.read(64);
+            }
+            long dod = (zz >>> 1) ^ -(zz & 1L);
+            prevDelta += dod;
+            prev += prevDelta;
+            out[offset + i] = prev;
+        }
+    }
+
+    /**
+     * Growable MSB-first bit sink.
+     */
+    static final class BitWriter {
+        private long[] words = new long[64];
+        private long bitLength;
+
+        void reset() {
+            Arrays.fill(words, 0, (int) ((bitLength + 63) >>> 6), 0L);
+            bitLength = 0L;
+        }
+
+        long bitLength() {
+            return bitLength;
+        }
+
+        void write(long value, int bits) {
+            if (bits <= 0) return;
+            if (bits < 64) value &= (1L << bits) - 1L;
+            int word = (int) (bitLength >>> 6);
+            int used = (int) (bitLength & 63);
+            ensureWords(word + 2);
+            int free = 64 - used;
+            if (bits <= free) {
+                words[word] |= value << (free - bits);
+            } else {
+                int spill = bits - free;
+                words[word] |= value >>> spill;
+                words[word + 1] |= value << (64 - spill);
+            }
+            bitLength += bits;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(words, (int) ((bitLength + 63) >>> 6));
+        }
+
+        private void ensureWords(int required) {
+            if (required > words.length) {
+                words = Arrays.copyOf(words, Math.max(required, words.length * 2));
+            }
+        }
+    }
+
+    /**
+     * Cursor over an MSB-first bit stream.
+     */
+    static final class BitReader {
+        private long[] words;
+        private long position;
+
+        BitReader() {
+        }
+
+        BitReader reset(long[] words, long startBit) {
+            this.words = words;
+            this.position = startBit;
+            return this;
+        }
+
+        long read(int bits) {
+            int word = (int) (position >>> 6);
+            int used = (int) (position & 63);
+            int avail = 64 - used;
+            long value;
+            if (bits <= avail) {
+                value = words[word] >>> (avail - bits);
+            } else {
+                int spill = bits - avail;
+                value = (words[word] << spill) | (words[word + 1] >>> (64 - spill));
+            }
+            position += bits;
+            return bits == 64 ? value : value & ((1L << bits) - 1L);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.arbergashi.charts.model;
+/**
+ * Optional capability for models that can resolve an X interval to an index range
+ * without scanning every point.
+ *
+ * <p>Renderers check for this interface with {@code instanceof} and, when present,
+ * iterate only {@code [start, endExclusive)} of the visible X window instead of the full
+ * series. Implementations that cannot guarantee non-decreasing X values must report
+ * {@link #isMonotonicX()} as {@code false}; callers then fall back to the full range.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public interface IndexedRangeModel extends ChartModel {
+
+    /**
+     * Returns whether X values are non-decreasing in index order.
+     *
+     * @return {@code true} when binary range lookups are valid
+     */
+    boolean isMonotonicX();
+
+    /**
+     * Returns the first index whose X value is {@code >= x}.
+     *
+     * @param x data-space X value
+     * @return index in {@code [0, getPointCount()]}
+     */
+    int lowerBoundX(double x);
+
+    /**
+     * Returns the first index whose X value is {@code > x}.
+     *
+     * @param x data-space X value
+     * @return index in {@code [0, getPointCount()]}
+     */
+    int upperBoundX(double x);
+
+    /**
+     * Resolves the index range covering {@code [minX, maxX]}, widened by one point on each
+     * side so connected renderers can draw the segments entering and leaving the window.
+     *
+     * <p>Output order: start, endExclusive. The widening is clamped to {@code [0, getPointCount()]},
+     * so a window that covers the first or last point adds no neighbour on that side. When every
+     * point lies on one side of the window, no segment crosses it and the range is empty. Models
+     * without monotonic X, and inverted or NaN windows, resolve to the full series.</p>
+     *
+     * @param minX visible minimum X
+     * @param maxX visible maximum X
+     * @param out  output buffer with length &gt;= 2
+     */
+    default void getVisibleRange(double minX, double maxX, int[] out) {
+        int count = getPointCount();
+        if (count <= 0 || !isMonotonicX() || !(minX <= maxX)) {
+            out[0] = 0;
+            out[1] = Math.max(0, count);
+            return;
+        }
+        int lower = Math.max(0, Math.min(count, lowerBoundX(minX)));
+        int upper = Math.max(0, Math.min(count, upperBoundX(maxX)));
+        if (lower == count || upper == 0) {
+            out[0] = 0;
+            out[1] = 0;
+            return;
+        }
+        out[0] = lower > 0 ? lower - 1 : 0;
+        out[1] = upper < count ? upper + 1 : count;
+    }
+
+    /**
+     * Copies the X and Y values of {@code [from, toExclusive)} into caller-owned buffers.
+     *
+     * <p>The default reads point by point; storage-backed models override it with a bulk copy so
+     * renderers can walk the visible window in chunks.</p>
+     *
+     * @param from        first index
+     * @param toExclusive end index (exclusive)
+     * @param xs          X destination
+     * @param ys          Y destination
+     * @param offset      destination offset
+     * @return number of points written (clamped to the point count and both buffers)
+     * @since 2.1.0
+     */
+    default int readXY(int from, int toExclusive, double[] xs, double[] ys, int offset) {
+        int start = Math.max(0, from);
+        int end = Math.min(getPointCount(), toExclusive);
+        int n = Math.min(end - start, Math.min(xs.length, ys.length) - offset);
+        for (int i = 0; i < n; i++) {
+            xs[offset + i] = getX(start + i);
+            ys[offset + i] = getY(start + i);
+        }
+        return Math.max(0, n);
+    }
+}
@@ -0,0 +1,1078 @@
+package com.arbergashi.charts.model;
+
+import com.arbergashi.charts.api.types.ArberColor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+/**
+ * Off-heap {@link ChartModel} backed by a memory-mapped columnar file.
+ *
+ * <p>Designed for browsing captures that do not fit on the heap. Rows are stored in fixed-size
+ * blocks; each block holds a small summary header (X and Y extrema, the running maximum
+ * timestamp and the number of untimed rows) followed by one contiguous column per field: X, Y,
+ * min, max, weight, timestamp, source id and provenance flags, plus a bitmap of untimed rows.
+ * Blocks are grouped into extents that are mapped lazily on first access, so only the pages that
+ * are actually read or written are paged in by the operating system.</p>
+ *
+ * <p><b>Layout:</b> a 64-byte little-endian file header (magic, version, block rows, flags,
+ * committed row count) followed by the blocks. Appends never relocate existing rows.</p>
+ *
+ * <p><b>Visible range:</b> while X is non-decreasing, {@link #lowerBoundX(double)} and
+ * {@link #upperBoundX(double)} binary-search the on-heap block summaries first and then a single
+ * block, which keeps viewport lookups at {@code O(log n)} touched pages.
+ * {@link #lowerBoundTimestamp(long)} does the same over the timestamp summaries, which makes the
+ * file usable as a seekable replay capture.</p>
+ *
+ * <p><b>Threading contract:</b> single writer, many readers. Appends are serialized; readers are
+ * lock-free and observe rows only after the committed count has been published.
+ * {@link #getXData()} and {@link #getYData()} return heap copies that are built on first use and
+ * extended by the newly appended rows only; a viewport that does not need the whole file should
+ * use the per-point accessors, {@link #read(Column, int, double[], int, int)} or
+ * {@link #columnSegment(Column, int)} instead.</p>
+ *
+ * <p><b>Timestamps:</b> rows appended through {@link #setXY(double, double)} or
+ * {@link #appendXY(double[], double[], int, int)} carry no timestamp; their column holds zero, they
+ * are flagged in the block's untimed bitmap and left out of the timestamp summaries, so
+ * {@link #isMonotonicTimestamps()} and {@link #lowerBoundTimestamp(long)} describe the timed rows
+ * only.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class MappedChartModel implements IndexedRangeModel, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(MappedChartModel.class.getName());
+
+    /**
+     * Columns stored per block.
+     */
+    public enum Column {
+        X, Y, MIN, MAX, WEIGHT, TIMESTAMP, SOURCE_ID, FLAGS
+    }
+
+    /** Default rows per block (64 Ki). */
+    public static final int DEFAULT_BLOCK_ROWS = 1 << 16;
+
+    static final int MAGIC = 0x4152424D; // "ARBM"
+    static final int VERSION = 1;
+
+    private static final long HEADER_BYTES = 64L;
+    private static final long BLOCK_HEADER_BYTES = 64L;
+    private static final long EXTENT_TARGET_BYTES = 64L << 20;
+    private static final int FLAG_MONOTONIC_X = 1;
+    private static final int FLAG_MONOTONIC_TIMESTAMPS = 2;
+
+    private static final ValueLayout.OfDouble F64 = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong I64 = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfInt I32 = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfShort I16 = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Arena arena;
+    private final boolean writable;
+    private final MemorySegment header;
+
+    private final int blockRows;
+    private final int blockShift;
+    private final int blockMask;
+    private final long blockBytes;
+    private final int blocksPerExtent;
+    private final long extentBytes;
+
+    private final Object writeLock = new Object();
+    private final AtomicLong updateStamp = new AtomicLong(0);
+    private final List<ChartModelListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile MemorySegment[] extents = new MemorySegment[0];
+    private volatile int count;
+    private volatile boolean monotonicX = true;
+    private volatile boolean monotonicTimestamps = true;
+    private volatile boolean closed;
+
+    // On-heap block summaries; published to readers through the volatile count.
+    private double[] blockMinX = new double[16];
+    private double[] blockMaxX = new double[16];
+    private double[] blockMinY = new double[16];
+    private double[] blockMaxY = new double[16];
+    private long[] blockMaxTimestamp = new long[16]; // running maximum up to the end of the block
+    private int[] blockUntimed = new int[16];
+    private double lastX = Double.NEGATIVE_INFINITY;
+    private long maxTimestamp = Long.MIN_VALUE;
+
+    private String name = "Series";
+    private ArberColor color;
+    private boolean dispatchOnEdt;
+    private Executor dispatchExecutor;
+
+    // Heap copies behind getXData()/getYData(); rows are append-only, so only the tail is copied.
+    private final Object viewLock = new Object();
+    private double[] xView = EMPTY_DOUBLE;
+    private double[] yView = EMPTY_DOUBLE;
+    private int viewCount;
+
+    private MappedChartModel(Path file, FileChannel channel, boolean writable, int blockRows) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.writable = writable;
+        this.arena = Arena.ofShared();
+        this.blockRows = blockRows;
+        this.blockShift = Integer.numberOfTrailingZeros(blockRows);
+        this.blockMask = blockRows - 1;
+        this.blockBytes = BLOCK_HEADER_BYTES + (long) blockRows * (6L * Double.BYTES + Short.BYTES + Byte.BYTES)
+                + blockRows / Byte.SIZE;
+        this.blocksPerExtent = (int) Math.max(1L, EXTENT_TARGET_BYTES / blockBytes);
+        this.extentBytes = blocksPerExtent * blockBytes;
+        this.header = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                0L, HEADER_BYTES, arena);
+    }
+
+    /**
+     * Creates (or truncates) a capture file using {@link #DEFAULT_BLOCK_ROWS}.
+     *
+     * @param file target file
+     * @return writable model
+     * @throws IOException when the file cannot be created or mapped
+     */
+    public static MappedChartModel create(Path file) throws IOException {
+        return create(file, DEFAULT_BLOCK_ROWS);
+    }
+
+    /**
+     * Creates (or truncates) a capture file.
+     *
+     * @param file      target file
+     * @param blockRows rows per block; power of two in {@code [64, 2^20]}
+     * @return writable model
+     * @throws IOException when the file cannot be created or mapped
+     */
+    public static MappedChartModel create(Path file, int blockRows) throws IOException {
+        if (file == null) throw new IllegalArgumentException("file must not be null");
+        if (blockRows < 64 || blockRows > (1 << 20) || Integer.bitCount(blockRows) != 1) {
+            throw new IllegalArgumentException("blockRows must be a power of two in [64, 1048576]");
+        }
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            MappedChartModel model = new MappedChartModel(file, ch, true, blockRows);
+            model.header.set(I32, 0, MAGIC);
+            model.header.set(I32, 4, VERSION);
+            model.header.set(I32, 8, blockRows);
+            model.header.set(I32, 12, FLAG_MONOTONIC_X | FLAG_MONOTONIC_TIMESTAMPS);
+            model.header.set(I64, 16, 0L);
+            return model;
+        } catch (IOException | RuntimeException ex) {
+            ch.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Opens an existing capture file for reading and further appends.
+     *
+     * @param file capture file
+     * @return writable model positioned after the last committed row
+     * @throws IOException when the file cannot be opened or is not a capture file
+     */
+    public static MappedChartModel open(Path file) throws IOException {
+        return open(file, true);
+    }
+
+    /**
+     * Opens an existing capture file without write access.
+     *
+     * @param file capture file
+     * @return read-only model
+     * @throws IOException when the file cannot be opened or is not a capture file
+     */
+    public static MappedChartModel openReadOnly(Path file) throws IOException {
+        return open(file, false);
+    }
+
+    private static MappedChartModel open(Path file, boolean writable) throws IOException {
+        if (file == null) throw new IllegalArgumentException("file must not be null");
+        FileChannel ch = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (ch.size() < HEADER_BYTES) throw new IOException("Not a mapped chart capture: " + file);
+            try (Arena probe = Arena.ofConfined()) {
+                MemorySegment h = ch.map(FileChannel.MapMode.READ_ONLY, 0L, HEADER_BYTES, probe);
+                if (h.get(I32, 0) != MAGIC) throw new IOException("Not a mapped chart capture: " + file);
+                int version = h.get(I32, 4);
+                if (version != VERSION) throw new IOException("Unsupported capture version " + version);
+                int rows = h.get(I32, 8);
+                if (rows < 64 || Integer.bitCount(rows) != 1) throw new IOException("Corrupt block size " + rows);
+                MappedChartModel model = new MappedChartModel(file, ch, writable, rows);
+                int flags = h.get(I32, 12);
+                model.restore(h.get(I64, 16), (flags & FLAG_MONOTONIC_X) != 0, (flags & FLAG_MONOTONIC_TIMESTAMPS) != 0);
+                return model;
+            }
+        } catch (IOException | RuntimeException ex) {
+            ch.close();
+            throw ex;
+        }
+    }
+
+    private void restore(long committed, boolean monotonic, boolean monotonicTs) throws IOException {
+        if (committed < 0 || committed > Integer.MAX_VALUE) throw new IOException("Corrupt row count " + committed);
+        int n = (int) committed;
+        int blocks = blockCountFor(n);
+        if (HEADER_BYTES + (long) blocks * blockBytes > channel.size()) {
+            throw new IOException("Capture truncated: " + file);
+        }
+        ensureSummaryCapacity(blocks);
+        for (int b = 0; b < blocks; b++) {
+            MemorySegment seg = extent(b / blocksPerExtent);
+            long base = blockBase(b);
+            blockMinX[b] = seg.get(F64, base);
+            blockMaxX[b] = seg.get(F64, base + 8);
+            blockMinY[b] = seg.get(F64, base + 16);
+            blockMaxY[b] = seg.get(F64, base + 24);
+            blockMaxTimestamp[b] = seg.get(I64, base + 32);
+            blockUntimed[b] = seg.get(I32, base + 40);
+        }
+        if (n > 0) {
+            lastX = readDouble(Column.X, n - 1);
+            maxTimestamp = blockMaxTimestamp[blocks - 1];
+        }
+        this.monotonicX = monotonic;
+        this.monotonicTimestamps = monotonicTs;
+        this.count = n;
+    }
+
+    // === APPEND PATH ===
+
+    /**
+     * Appends a simple XY point (min = max = y, weight = 1) without a timestamp.
+     */
+    public void setXY(double x, double y) {
+        appendRow(x, y, y, y, 1.0, ProvenanceFlags.ORIGINAL, (short) 0, 0L, false);
+    }
+
+    /**
+     * Appends a fully described row.
+     *
+     * @param x              X value
+     * @param y              Y value
+     * @param min            per-point minimum
+     * @param max            per-point maximum
+     * @param weight         weight value
+     * @param provenanceFlag provenance flag
+     * @param sourceId       source identifier
+     * @param timestampNanos timestamp in nanoseconds
+     */
+    public void append(double x, double y, double min, double max, double weight,
+                       byte provenanceFlag, short sourceId, long timestampNanos) {
+        appendRow(x, y, min, max, weight, provenanceFlag, sourceId, timestampNanos, true);
+    }
+
+    private void appendRow(double x, double y, double min, double max, double weight,
+                           byte provenanceFlag, short sourceId, long timestampNanos, boolean timed) {
+        synchronized (writeLock) {
+            ensureWritable();
+            int n = count;
+            if (n == Integer.MAX_VALUE) throw new IllegalStateException("Capture row limit reached");
+            int block = n >>> blockShift;
+            int row = n & blockMask;
+            MemorySegment seg = extentForWrite(block);
+            long base = blockBase(block) + BLOCK_HEADER_BYTES;
+            seg.set(F64, base + columnOffset(Column.X) + (long) row * Double.BYTES, x);
+            seg.set(F64, base + columnOffset(Column.Y) + (long) row * Double.BYTES, y);
+            seg.set(F64, base + columnOffset(Column.MIN) + (long) row * Double.BYTES, min);
+            seg.set(F64, base + columnOffset(Column.MAX) + (long) row * Double.BYTES, max);
+            seg.set(F64, base + columnOffset(Column.WEIGHT) + (long) row * Double.BYTES, weight);
+            seg.set(I64, base + columnOffset(Column.TIMESTAMP) + (long) row * Long.BYTES, timestampNanos);
+            seg.set(I16, base + columnOffset(Column.SOURCE_ID) + (long) row * Short.BYTES, sourceId);
+            seg.set(ValueLayout.JAVA_BYTE, base + columnOffset(Column.FLAGS) + row, provenanceFlag);
+            if (row == 0) resetSummary(block);
+            markUntimed(seg, block, row, 1, !timed);
+            accumulate(block, x, min, max);
+            if (timed) accumulateTimestamp(block, timestampNanos);
+            updateSummaryHeader(seg, block);
+            commit(n + 1);
+        }
+        invalidate();
+    }
+
+    /**
+     * Appends XY columns in bulk with a single change notification.
+     *
+     * <p>Values are copied block-wise straight into the mapped columns; min and max mirror Y,
+     * weight is 1 and metadata columns are zero. The rows carry no timestamp and leave the
+     * timestamp summaries untouched.</p>
+     *
+     * @param xs     X values
+     * @param ys     Y values
+     * @param offset first source index
+     * @param length number of rows
+     */
+    public void appendXY(double[] xs, double[] ys, int offset, int length) {
+        if (xs == null || ys == null) return;
+        if (offset < 0 || length < 0 || offset + length > xs.length || offset + length > ys.length) {
+            throw new IndexOutOfBoundsException("offset/length out of bounds");
+        }
+        if (length == 0) return;
+        synchronized (writeLock) {
+            ensureWritable();
+            int n = count;
+            if ((long) n + length > Integer.MAX_VALUE) throw new IllegalStateException("Capture row limit reached");
+            int src = offset;
+            int remaining = length;
+            while (remaining > 0) {
+                int block = n >>> blockShift;
+                int row = n & blockMask;
+                int chunk = Math.min(remaining, blockRows - row);
+                MemorySegment seg = extentForWrite(block);
+                long base = blockBase(block) + BLOCK_HEADER_BYTES;
+                long rowOff = (long) row * Double.BYTES;
+                MemorySegment.copy(xs, src, seg, F64, base + columnOffset(Column.X) + rowOff, chunk);
+                MemorySegment.copy(ys, src, seg, F64, base + columnOffset(Column.Y) + rowOff, chunk);
+                MemorySegment.copy(ys, src, seg, F64, base + columnOffset(Column.MIN) + rowOff, chunk);
+                MemorySegment.copy(ys, src, seg, F64, base + columnOffset(Column.MAX) + rowOff, chunk);
+                long weightBase = base + columnOffset(Column.WEIGHT) + rowOff;
+                for (int i = 0; i < chunk; i++) {
+                    seg.set(F64, weightBase + (long) i * Double.BYTES, 1.0);
+                }
+                seg.asSlice(base + columnOffset(Column.TIMESTAMP) + (long) row * Long.BYTES, (long) chunk * Long.BYTES).fill((byte) 0);
+                seg.asSlice(base + columnOffset(Column.SOURCE_ID) + (long) row * Short.BYTES, (long) chunk * Short.BYTES).fill((byte) 0);
+                seg.asSlice(base + columnOffset(Column.FLAGS) + row, chunk).fill(ProvenanceFlags.ORIGINAL);
+                if (row == 0) resetSummary(block);
+                markUntimed(seg, block, row, chunk, true);
+                for (int i = 0; i < chunk; i++) {
+                    double y = ys[src + i];
+                    accumulate(block, xs[src + i], y, y);
+                }
+                updateSummaryHeader(seg, block);
+                n += chunk;
+                src += chunk;
+                remaining -= chunk;
+            }
+            commit(n);
+        }
+        invalidate();
+    }
+
+    /**
+     * Appends fully described rows in bulk with a single change notification.
+     *
+     * <p>Columns are copied block-wise straight into the mapped file; this is the recording path
+     * for stream captures.</p>
+     *
+     * @param xs         X values
+     * @param ys         Y values
+     * @param mins       per-point minimum values
+     * @param maxs       per-point maximum values
+     * @param weights    weight values
+     * @param flags      provenance flags
+     * @param sourceIds  source identifiers
+     * @param timestamps timestamps in nanoseconds
+     * @param offset     first source index
+     * @param length     number of rows
+     * @since 2.1.0
+     */
+    public void appendRows(double[] xs, double[] ys, double[] mins, double[] maxs, double[] weights,
+                           byte[] flags, short[] sourceIds, long[] timestamps, int offset, int length) {
+        if (xs == null || ys == null || mins == null || maxs == null || weights == null
+                || flags == null || sourceIds == null || timestamps == null) {
+            throw new IllegalArgumentException("columns must not be null");
+        }
+        int end = offset + length;
+        if (offset < 0 || length < 0 || end > xs.length || end > ys.length || end > mins.length
+                || end > maxs.length || end > weights.length || end > flags.length
+                || end > sourceIds.length || end > timestamps.length) {
+            throw new IndexOutOfBoundsException("offset/length out of bounds");
+        }
+        if (length == 0) return;
+        synchronized (writeLock) {
+            ensureWritable();
+            int n = count;
+            if ((long) n + length > Integer.MAX_VALUE) throw new IllegalStateException("Capture row limit reached");
+            int src = offset;
+            int remaining = length;
+            while (remaining > 0) {
+                int block = n >>> blockShift;
+                int row = n & blockMask;
+                int chunk = Math.min(remaining, blockRows - row);
+                MemorySegment seg = extentForWrite(block);
+                long base = blockBase(block) + BLOCK_HEADER_BYTES;
+                long rowOff = (long) row * Double.BYTES;
+                MemorySegment.copy(xs, src, seg, F64, base + columnOffset(Column.X) + rowOff, chunk);
+                MemorySegment.copy(ys, src, seg, F64, base + columnOffset(Column.Y) + rowOff, chunk);
+                MemorySegment.copy(mins, src, seg, F64, base + columnOffset(Column.MIN) + rowOff, chunk);
+                MemorySegment.copy(maxs, src, seg, F64, base + columnOffset(Column.MAX) + rowOff, chunk);
+                MemorySegment.copy(weights, src, seg, F64, base + columnOffset(Column.WEIGHT) + rowOff, chunk);
+                MemorySegment.copy(timestamps, src, seg, I64, base + columnOffset(Column.TIMESTAMP) + (long) row * Long.BYTES, chunk);
+                MemorySegment.copy(sourceIds, src, seg, I16, base + columnOffset(Column.SOURCE_ID) + (long) row * Short.BYTES, chunk);
+                MemorySegment.copy(flags, src, seg, ValueLayout.JAVA_BYTE, base + columnOffset(Column.FLAGS) + row, chunk);
+                if (row == 0) resetSummary(block);
+                markUntimed(seg, block, row, chunk, false);
+                for (int i = src, last = src + chunk; i < last; i++) {
+                    accumulate(block, xs[i], mins[i], maxs[i]);
+                    accumulateTimestamp(block, timestamps[i]);
+                }
+                updateSummaryHeader(seg, block);
+                n += chunk;
+                src += chunk;
+                remaining -= chunk;
+            }
+            commit(n);
+        }
+        invalidate();
+    }
+
+    /**
+     * Writes the committed row count and forces mapped pages to storage.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            if (closed || !writable) return;
+            header.force();
+            for (MemorySegment seg : extents) {
+                if (seg != null) seg.force();
+            }
+        }
+    }
+
+    /**
+     * Unmaps the file and trims unused trailing space. Readers must be detached first.
+     */
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            if (closed) return;
+            closed = true;
+            try {
+                if (writable) {
+                    header.force();
+                }
+                arena.close();
+                if (writable) {
+                    channel.truncate(HEADER_BYTES + (long) blockCountFor(count) * blockBytes);
+                }
+                channel.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private void commit(int newCount) {
+        header.set(I32, 12, (monotonicX ? FLAG_MONOTONIC_X : 0) | (monotonicTimestamps ? FLAG_MONOTONIC_TIMESTAMPS : 0));
+        header.set(I64, 16, newCount);
+        count = newCount; // volatile publish after rows and summaries
+    }
+
+    private void accumulate(int block, double x, double min, double max) {
+        if (x < lastX) monotonicX = false;
+        lastX = x;
+        if (Double.isFinite(x)) {
+            if (x < blockMinX[block]) blockMinX[block] = x;
+            if (x > blockMaxX[block]) blockMaxX[block] = x;
+        }
+        if (Double.isFinite(min) && min < blockMinY[block]) blockMinY[block] = min;
+        if (Double.isFinite(max) && max > blockMaxY[block]) blockMaxY[block] = max;
+    }
+
+    private void accumulateTimestamp(int block, long timestampNanos) {
+        if (timestampNanos < maxTimestamp) monotonicTimestamps = false;
+        else maxTimestamp = timestampNanos;
+        blockMaxTimestamp[block] = maxTimestamp;
+    }
+
+    /**
+     * Sets or clears the untimed bits of {@code [row, row + length)} and counts the set ones.
+     */
+    private void markUntimed(MemorySegment seg, int block, int row, int length, boolean untimed) {
+        long bitmap = blockBase(block) + BLOCK_HEADER_BYTES + untimedOffset();
+        for (int r = row, end = row + length; r < end; r++) {
+            long at = bitmap + (r >>> 3);
+            byte bits = seg.get(ValueLayout.JAVA_BYTE, at);
+            int mask = 1 << (r & 7);
+            bits = (byte) (untimed ? bits | mask : bits & ~mask);
+            seg.set(ValueLayout.JAVA_BYTE, at, bits);
+        }
+        if (untimed) blockUntimed[block] += length;
+    }
+
+    private boolean isUntimed(int index) {
+        int block = index >>> blockShift;
+        MemorySegment seg = extent(block / blocksPerExtent);
+        int row = index & blockMask;
+        byte bits = seg.get(ValueLayout.JAVA_BYTE, blockBase(block) + BLOCK_HEADER_BYTES + untimedOffset() + (row >>> 3));
+        return (bits & (1 << (row & 7))) != 0;
+    }
+
+    private void resetSummary(int block) {
+        ensureSummaryCapacity(block + 1);
+        blockMaxTimestamp[block] = maxTimestamp;
+        blockUntimed[block] = 0;
+        blockMinX[block] = Double.MAX_VALUE;
+        blockMaxX[block] = -Double.MAX_VALUE;
+        blockMinY[block] = Double.MAX_VALUE;
+        blockMaxY[block] = -Double.MAX_VALUE;
+    }
+
+    private void updateSummaryHeader(MemorySegment seg, int block) {
+        long base = blockBase(block);
+        seg.set(F64, base, blockMinX[block]);
+        seg.set(F64, base + 8, blockMaxX[block]);
+        seg.set(F64, base + 16, blockMinY[block]);
+        seg.set(F64, base + 24, blockMaxY[block]);
+        seg.set(I64, base + 32, blockMaxTimestamp[block]);
+        seg.set(I32, base + 40, blockUntimed[block]);
+    }
+
+    private void ensureSummaryCapacity(int blocks) {
+        if (blocks <= blockMinX.length) return;
+        int next = Math.max(blocks, blockMinX.length * 2);
+        blockMinX = Arrays.copyOf(blockMinX, next);
+        blockMaxX = Arrays.copyOf(blockMaxX, next);
+        blockMinY = Arrays.copyOf(blockMinY, next);
+        blockMaxY = Arrays.copyOf(blockMaxY, next);
+        blockMaxTimestamp = Arrays.copyOf(blockMaxTimestamp, next);
+        blockUntimed = Arrays.copyOf(blockUntimed, next);
+    }
+
+    private void ensureWritable() {
+        if (closed) throw new IllegalStateException("Model is closed");
+        if (!writable) throw new IllegalStateException("Model is read-only");
+    }
+
+    // === MAPPING ===
+
+    private MemorySegment extentForWrite(int block) {
+        return extent(block / blocksPerExtent);
+    }
+
+    private MemorySegment extent(int index) {
+        MemorySegment[] current = extents;
+        if (index < current.length) {
+            MemorySegment seg = current[index];
+            if (seg != null) return seg;
+        }
+        return mapExtent(index);
+    }
+
+    private synchronized MemorySegment mapExtent(int index) {
+        MemorySegment[] current = extents;
+        if (index < current.length && current[index] != null) return current[index];
+        if (closed) throw new IllegalStateException("Model is closed");
+        long offset = HEADER_BYTES + (long) index * extentBytes;
+        try {
+            long size = extentBytes;
+            if (!writable) {
+                size = Math.max(0L, Math.min(extentBytes, channel.size() - offset));
+            }
+            MemorySegment seg = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                    offset, size, arena);
+            MemorySegment[] next = index < current.length ? current.clone() : Arrays.copyOf(current, index + 1);
+            next[index] = seg;
+            extents = next;
+            return seg;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to map capture extent " + index + " of " + file, ex);
+        }
+    }
+
+    private long blockBase(int block) {
+        return (long) (block % blocksPerExtent) * blockBytes;
+    }
+
+    private long columnOffset(Column column) {
+        long n = blockRows;
+        return switch (column) {
+            case X -> 0L;
+            case Y -> n * Double.BYTES;
+            case MIN -> 2L * n * Double.BYTES;
+            case MAX -> 3L * n * Double.BYTES;
+            case WEIGHT -> 4L * n * Double.BYTES;
+            case TIMESTAMP -> 5L * n * Double.BYTES;
+            case SOURCE_ID -> 6L * n * Double.BYTES;
+            case FLAGS -> 6L * n * Double.BYTES + n * Short.BYTES;
+        };
+    }
+
+    private long untimedOffset() {
+        return columnOffset(Column.FLAGS) + blockRows;
+    }
+
+    private int blockCountFor(int rows) {
+        return (rows + blockMask) >>> blockShift;
+    }
+
+    private double readDouble(Column column, int index) {
+        int block = index >>> blockShift;
+        MemorySegment seg = extent(block / blocksPerExtent);
+        return seg.get(F64, blockBase(block) + BLOCK_HEADER_BYTES + columnOffset(column)
+                + (long) (index & blockMask) * Double.BYTES);
+    }
+
+    private long readTimestamp(int index) {
+        int block = index >>> blockShift;
+        MemorySegment seg = extent(block / blocksPerExtent);
+        return seg.get(I64, blockBase(block) + BLOCK_HEADER_BYTES + columnOffset(Column.TIMESTAMP)
+                + (long) (index & blockMask) * Long.BYTES);
+    }
+
+    // === ZERO-COPY AND BULK READS ===
+
+    /**
+     * Returns the number of rows per block.
+     */
+    public int getBlockRows() {
+        return blockRows;
+    }
+
+    /**
+     * Returns the number of blocks that contain committed rows.
+     */
+    public int getBlockCount() {
+        return blockCountFor(count);
+    }
+
+    /**
+     * Returns a read-only view of one column within a block, sized to its committed rows.
+     *
+     * <p>No data is copied; the returned segment is valid until {@link #close()}.</p>
+     *
+     * @param column column to expose
+     * @param block  block index in {@code [0, getBlockCount())}
+     * @return read-only segment over the mapped column
+     */
+    public MemorySegment columnSegment(Column column, int block) {
+        int n = count;
+        int blocks = blockCountFor(n);
+        if (block < 0 || block >= blocks) throw new IndexOutOfBoundsException("block " + block);
+        int rows = (block == blocks - 1) ? n - (block << blockShift) : blockRows;
+        long width = switch (column) {
+            case SOURCE_ID -> Short.BYTES;
+            case FLAGS -> Byte.BYTES;
+            default -> Double.BYTES;
+        };
+        MemorySegment seg = extent(block / blocksPerExtent);
+        return seg.asSlice(blockBase(block) + BLOCK_HEADER_BYTES + columnOffset(column), rows * width).asReadOnly();
+    }
+
+    /**
+     * Copies a range of a floating-point column into a caller-owned buffer.
+     *
+     * @param column    one of X, Y, MIN, MAX or WEIGHT
+     * @param from      first row
+     * @param dst       destination buffer
+     * @param dstOffset destination offset
+     * @param length    requested rows
+     * @return rows copied (clamped to the committed count)
+     */
+    public int read(Column column, int from, double[] dst, int dstOffset, int length) {
+        if (column == Column.TIMESTAMP || column == Column.SOURCE_ID || column == Column.FLAGS) {
+            throw new IllegalArgumentException("Column " + column + " is not a double column");
+        }
+        return copyColumn(column, F64, Double.BYTES, from, dst, dst == null ? 0 : dst.length, dstOffset, length);
+    }
+
+    /**
+     * Copies a range of the timestamp column into a caller-owned buffer.
+     *
+     * @return rows copied (clamped to the committed count)
+     * @since 2.1.0
+     */
+    public int readTimestamps(int from, long[] dst, int dstOffset, int length) {
+        return copyColumn(Column.TIMESTAMP, I64, Long.BYTES, from, dst, dst == null ? 0 : dst.length, dstOffset, length);
+    }
+
+    /**
+     * Copies a range of the source id column into a caller-owned buffer.
+     *
+     * @return rows copied (clamped to the committed count)
+     * @since 2.1.0
+     */
+    public int readSourceIds(int from, short[] dst, int dstOffset, int length) {
+        return copyColumn(Column.SOURCE_ID, I16, Short.BYTES, from, dst, dst == null ? 0 : dst.length, dstOffset, length);
+    }
+
+    /**
+     * Copies a range of the provenance flag column into a caller-owned buffer.
+     *
+     * @return rows copied (clamped to the committed count)
+     * @since 2.1.0
+     */
+    public int readFlags(int from, byte[] dst, int dstOffset, int length) {
+        return copyColumn(Column.FLAGS, ValueLayout.JAVA_BYTE, Byte.BYTES, from, dst, dst == null ? 0 : dst.length, dstOffset, length);
+    }
+
+    /**
+     * Copies X and Y of {@code [from, toExclusive)} block-wise straight from the mapped columns.
+     */
+    @Override
+    public int readXY(int from, int toExclusive, double[] xs, double[] ys, int offset) {
+        int start = Math.max(0, from);
+        int length = Math.min(count, toExclusive) - start;
+        int n = read(Column.X, start, xs, offset, length);
+        return read(Column.Y, start, ys, offset, n);
+    }
+
+    private int copyColumn(Column column, ValueLayout layout, long width, int from, Object dst, int dstLength,
+                           int dstOffset, int length) {
+        int n = count;
+        if (dst == null || from < 0 || from >= n || length <= 0 || dstOffset < 0 || dstOffset >= dstLength) return 0;
+        int total = Math.min(length, Math.min(n - from, dstLength - dstOffset));
+        int done = 0;
+        while (done < total) {
+            int index = from + done;
+            int block = index >>> blockShift;
+            int row = index & blockMask;
+            int chunk = Math.min(total - done, blockRows - row);
+            MemorySegment seg = extent(block / blocksPerExtent);
+            MemorySegment.copy(seg, layout, blockBase(block) + BLOCK_HEADER_BYTES + columnOffset(column)
+                    + row * width, dst, dstOffset + done, chunk);
+            done += chunk;
+        }
+        return total;
+    }
+
+    /**
+     * Hints the operating system to page in the blocks covering {@code [from, toExclusive)}.
+     */
+    public void prefetch(int from, int toExclusive) {
+        int n = count;
+        int start = Math.max(0, from);
+        int end = Math.min(n, toExclusive);
+        if (start >= end) return;
+        for (int b = start >>> blockShift, last = (end - 1) >>> blockShift; b <= last; b++) {
+            MemorySegment seg = extent(b / blocksPerExtent);
+            seg.asSlice(blockBase(b), Math.min(blockBytes, seg.byteSize() - blockBase(b))).load();
+        }
+    }
+
+    // === ChartModel ===
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public MappedChartModel setName(String name) {
+        this.name = (name == null || name.isBlank()) ? "Series" : name;
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public ArberColor getColor() {
+        return color;
+    }
+
+    @Override
+    public MappedChartModel setColor(ArberColor color) {
+        this.color = color;
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public int getPointCount() {
+        return count;
+    }
+
+    /**
+     * Returns a heap copy of the X column, extended by the rows appended since the last call.
+     */
+    @Override
+    public double[] getXData() {
+        synchronized (viewLock) {
+            syncViews();
+            return xView;
+        }
+    }
+
+    /**
+     * Returns a heap copy of the Y column, extended by the rows appended since the last call.
+     */
+    @Override
+    public double[] getYData() {
+        synchronized (viewLock) {
+            syncViews();
+            return yView;
+        }
+    }
+
+    private void syncViews() {
+        int n = count;
+        if (n <= viewCount) return;
+        if (xView.length < n) {
+            int cap = (int) Math.min(Integer.MAX_VALUE, Math.max(n, 2L * xView.length));
+            xView = Arrays.copyOf(xView, cap);
+            yView = Arrays.copyOf(yView, cap);
+        }
+        read(Column.X, viewCount, xView, viewCount, n - viewCount);
+        read(Column.Y, viewCount, yView, viewCount, n - viewCount);
+        viewCount = n;
+    }
+
+    @Override
+    public double getX(int index) {
+        if (index < 0 || index >= count) return 0.0;
+        return readDouble(Column.X, index);
+    }
+
+    @Override
+    public double getY(int index) {
+        if (index < 0 || index >= count) return 0.0;
+        return readDouble(Column.Y, index);
+    }
+
+    @Override
+    public double getMin(int index) {
+        if (index < 0 || index >= count) return 0.0;
+        return readDouble(Column.MIN, index);
+    }
+
+    @Override
+    public double getMax(int index) {
+        if (index < 0 || index >= count) return 0.0;
+        return readDouble(Column.MAX, index);
+    }
+
+    @Override
+    public double getWeight(int index) {
+        if (index < 0 || index >= count) return 0.0;
+        return readDouble(Column.WEIGHT, index);
+    }
+
+    /**
+     * Returns a component by index for multi-component renderers.
+     *
+     * <p>Component mapping: 0=x, 1=y, 2=weight, 3=min, 4=max.</p>
+     */
+    @Override
+    public double getValue(int index, int component) {
+        return switch (component) {
+            case 0 -> getX(index);
+            case 1 -> getY(index);
+            case 2 -> getWeight(index);
+            case 3 -> getMin(index);
+            case 4 -> getMax(index);
+            default -> 0.0;
+        };
+    }
+
+    @Override
+    public byte getProvenanceFlag(int index) {
+        if (index < 0 || index >= count) return ProvenanceFlags.ORIGINAL;
+        int block = index >>> blockShift;
+        MemorySegment seg = extent(block / blocksPerExtent);
+        return seg.get(ValueLayout.JAVA_BYTE, blockBase(block) + BLOCK_HEADER_BYTES + columnOffset(Column.FLAGS)
+                + (index & blockMask));
+    }
+
+    @Override
+    public short getSourceId(int index) {
+        if (index < 0 || index >= count) return 0;
+        int block = index >>> blockShift;
+        MemorySegment seg = extent(block / blocksPerExtent);
+        return seg.get(I16, blockBase(block) + BLOCK_HEADER_BYTES + columnOffset(Column.SOURCE_ID)
+                + (long) (index & blockMask) * Short.BYTES);
+    }
+
+    @Override
+    public long getTimestampNanos(int index) {
+        if (index < 0 || index >= count) return 0L;
+        return readTimestamp(index);
+    }
+
+    /**
+     * Returns the data range from block summaries without touching row pages.
+     */
+    @Override
+    public double[] getDataRange() {
+        int n = count;
+        if (n == 0) return new double[]{0, 0, 0, 0};
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int b = 0, blocks = blockCountFor(n); b < blocks; b++) {
+            if (blockMinX[b] < minX) minX = blockMinX[b];
+            if (blockMaxX[b] > maxX) maxX = blockMaxX[b];
+            if (blockMinY[b] < minY) minY = blockMinY[b];
+            if (blockMaxY[b] > maxY) maxY = blockMaxY[b];
+        }
+        if (minX == Double.MAX_VALUE || minY == Double.MAX_VALUE) return new double[]{0, 0, 0, 0};
+        return new double[]{minX, maxX, minY, maxY};
+    }
+
+    // === IndexedRangeModel ===
+
+    @Override
+    public boolean isMonotonicX() {
+        return monotonicX;
+    }
+
+    @Override
+    public int lowerBoundX(double x) {
+        return bound(x, false);
+    }
+
+    @Override
+    public int upperBoundX(double x) {
+        return bound(x, true);
+    }
+
+    private int bound(double x, boolean upper) {
+        int n = count;
+        if (n == 0) return 0;
+        if (!monotonicX) return upper ? n : 0;
+        int blocks = blockCountFor(n);
+        // First block whose max X passes the probe.
+        int lo = 0;
+        int hi = blocks;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            double bx = blockMaxX[mid];
+            if (upper ? bx <= x : bx < x) lo = mid + 1;
+            else hi = mid;
+        }
+        if (lo == blocks) return n;
+        int first = lo << blockShift;
+        int rowLo = first;
+        int rowHi = Math.min(n, first + blockRows);
+        while (rowLo < rowHi) {
+            int mid = (rowLo + rowHi) >>> 1;
+            double v = readDouble(Column.X, mid);
+            if (upper ? v <= x : v < x) rowLo = mid + 1;
+            else rowHi = mid;
+        }
+        return rowLo;
+    }
+
+    /**
+     * Returns whether timestamps have been non-decreasing across all committed rows.
+     *
+     * @since 2.1.0
+     */
+    public boolean isMonotonicTimestamps() {
+        return monotonicTimestamps;
+    }
+
+    /**
+     * Returns the first row whose timestamp, or that of any row before it, is at least
+     * {@code timestampNanos}; for non-decreasing timestamps this is the first row with a timestamp
+     * {@code >= timestampNanos}. Returns the point count if there is none.
+     *
+     * <p>The block summaries are binary-searched on heap, then a single block is searched, so a
+     * seek touches {@code O(log n)} pages. Untimed rows are never returned; a block that holds any,
+     * or out-of-order timestamps, falls back to a linear scan of that one block.</p>
+     *
+     * @since 2.1.0
+     */
+    public int lowerBoundTimestamp(long timestampNanos) {
+        int n = count;
+        if (n == 0) return 0;
+        int blocks = blockCountFor(n);
+        int lo = 0;
+        int hi = blocks;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (blockMaxTimestamp[mid] < timestampNanos) lo = mid + 1;
+            else hi = mid;
+        }
+        if (lo == blocks) return n;
+        int first = lo << blockShift;
+        int end = Math.min(n, first + blockRows);
+        if (monotonicTimestamps && blockUntimed[lo] == 0) {
+            int rowLo = first;
+            int rowHi = end;
+            while (rowLo < rowHi) {
+                int mid = (rowLo + rowHi) >>> 1;
+                if (readTimestamp(mid) < timestampNanos) rowLo = mid + 1;
+                else rowHi = mid;
+            }
+            return rowLo;
+        }
+        // The running maximum before this block is below the probe, so the answer is the first timed
+        // row that reaches it; that row lies in this block unless the block holds no timed rows.
+        for (int i = first; i < n; i++) {
+            if (readTimestamp(i) >= timestampNanos && !isUntimed(i)) return i;
+        }
+        return n;
+    }
+
+    // === LISTENERS ===
+
+    @Override
+    public long getUpdateStamp() {
+        return updateStamp.get();
+    }
+
+    /**
+     * Controls whether change listeners are notified via a configured dispatch executor.
+     */
+    public MappedChartModel setDispatchOnEdt(boolean enabled) {
+        this.dispatchOnEdt = enabled;
+        return this;
+    }
+
+    /**
+     * Sets the executor used when {@code dispatchOnEdt} is enabled.
+     *
+     * @param executor executor for listener dispatch (nullable)
+     * @return this model for chaining
+     */
+    public MappedChartModel setDispatchExecutor(Executor executor) {
+        this.dispatchExecutor = executor;
+        return this;
+    }
+
+    @Override
+    public void setChangeListener(ChartModelListener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ChartModelListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void invalidate() {
+        updateStamp.incrementAndGet();
+        fireModelChanged();
+    }
+
+    private void fireModelChanged() {
+        if (dispatchOnEdt && dispatchExecutor != null) {
+            try {
+                dispatchExecutor.execute(this::notifyListeners);
+                return;
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "Dispatch executor rejected listener notification; falling back to caller thread", ex);
+            }
+            notifyListeners();
+            return;
+        }
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        for (ChartModelListener listener : listeners) {
+            try {
+                listener.modelChanged();
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "ChartModel listener failed and was isolated", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,759 @@
+package com.arbergashi.charts.model;
+
+import com.arbergashi.charts.api.types.ArberColor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+/**
+ * Columnar container for many series sharing a single X column.
+ *
+ * <p>Designed for dashboards where dozens of channels are sampled on the same time base. The
+ * model stores one X column and one value column per series; min/max, weight, provenance,
+ * source-id, timestamp and label columns are allocated only when first written. Compared to one
+ * {@link DefaultChartModel} per channel this removes the duplicated X and metadata columns.</p>
+ *
+ * <p>Renderers consume the series through {@link #getSeries(int)}, which returns lightweight
+ * {@link IndexedRangeModel} views over the shared columns. All series share one visible-range
+ * lookup on X and one block extrema index (256 rows per block), so auto-scaling a window across
+ * every channel is a single pass over block summaries instead of one scan per series.</p>
+ *
+ * <p><b>Framework contract:</b> views return the backing arrays from {@link ChartModel#getXData()}
+ * and {@link ChartModel#getYData()}; their capacity may exceed {@link ChartModel#getPointCount()}.
+ * Writers are serialized by an internal lock; a row becomes visible only after all of its
+ * columns have been written.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public class MultiSeriesModel {
+    private static final Logger LOGGER = Logger.getLogger(MultiSeriesModel.class.getName());
+
+    private static final int INDEX_SHIFT = 8;
+    private static final int INDEX_ROWS = 1 << INDEX_SHIFT;
+
+    private final AtomicLong updateStamp = new AtomicLong(0);
+    private final Object dataLock = new Object();
+    private final List<ChartModel.ChartModelListener> listeners = new CopyOnWriteArrayList<>();
+    private final int seriesCount;
+    private final SeriesView[] views;
+    private final String[] names;
+    private final ArberColor[] colors;
+    private boolean dispatchOnEdt;
+    private Executor dispatchExecutor;
+
+    // --- SHARED COLUMNS ---
+    private double[] xData;
+    private final double[][] values;
+    private int size;
+    private boolean monotonicX = true;
+
+    // --- LAZY COLUMNS (null until first written) ---
+    private final double[][] minData;
+    private final double[][] maxData;
+    private final double[][] weightData;
+    private byte[] provenanceFlags;
+    private short[] sourceIds;
+    private long[] timestampNanos;
+    private String[] labels;
+
+    // --- SHARED EXTREMA INDEX ---
+    private double[] blockMinX = new double[8];
+    private double[] blockMaxX = new double[8];
+    private final double[][] blockMinY;
+    private final double[][] blockMaxY;
+
+    /**
+     * Creates a model with the given number of series and an initial row capacity.
+     *
+     * @param seriesCount number of value columns (&gt; 0)
+     * @param capacity    initial row capacity (&gt; 0)
+     */
+    public MultiSeriesModel(int seriesCount, int capacity) {
+        if (seriesCount <= 0) throw new IllegalArgumentException("seriesCount must be > 0");
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.seriesCount = seriesCount;
+        this.xData = new double[capacity];
+        this.values = new double[seriesCount][capacity];
+        this.minData = new double[seriesCount][];
+        this.maxData = new double[seriesCount][];
+        this.weightData = new double[seriesCount][];
+        this.blockMinY = new double[seriesCount][8];
+        this.blockMaxY = new double[seriesCount][8];
+        this.names = new String[seriesCount];
+        this.colors = new ArberColor[seriesCount];
+        this.views = new SeriesView[seriesCount];
+        for (int s = 0; s < seriesCount; s++) {
+            names[s] = "Series " + (s + 1);
+            views[s] = new SeriesView(s);
+        }
+    }
+
+    /**
+     * Returns the number of series.
+     */
+    public int getSeriesCount() {
+        return seriesCount;
+    }
+
+    /**
+     * Returns the renderer-facing view of one series.
+     *
+     * @param series series index
+     * @return view sharing this model's columns
+     */
+    public IndexedRangeModel getSeries(int series) {
+        return views[checkSeries(series)];
+    }
+
+    /**
+     * Returns the number of rows.
+     */
+    public int getPointCount() {
+        synchronized (dataLock) {
+            return size;
+        }
+    }
+
+    /**
+     * Returns the shared X value of a row.
+     */
+    public double getX(int index) {
+        synchronized (dataLock) {
+            if (index < 0 || index >= size) return 0.0;
+            return xData[index];
+        }
+    }
+
+    /**
+     * Returns the value of one series at a row.
+     */
+    public double getValue(int series, int index) {
+        synchronized (dataLock) {
+            if (series < 0 || series >= seriesCount || index < 0 || index >= size) return 0.0;
+            return values[series][index];
+        }
+    }
+
+    public long getUpdateStamp() {
+        return updateStamp.get();
+    }
+
+    // === DATA INGESTION ===
+
+    /**
+     * Appends one row across all series.
+     *
+     * @param x      shared X value
+     * @param values one value per series
+     */
+    public void appendRow(double x, double... values) {
+        appendRow(x, values, 0L);
+    }
+
+    /**
+     * Appends one row across all series with a timestamp.
+     *
+     * @param x              shared X value
+     * @param values         one value per series
+     * @param timestampNanos row timestamp (0 keeps the timestamp column unallocated)
+     */
+    public void appendRow(double x, double[] values, long timestampNanos) {
+        if (values == null || values.length != seriesCount) {
+            throw new IllegalArgumentException("values length must match series count");
+        }
+        synchronized (dataLock) {
+            ensureCapacity(size + 1);
+            int row = size;
+            xData[row] = x;
+            for (int s = 0; s < seriesCount; s++) {
+                this.values[s][row] = values[s];
+            }
+            if (timestampNanos != 0L) {
+                ensureTimestamps()[row] = timestampNanos;
+            }
+            indexRow(row);
+            size = row + 1;
+        }
+        invalidate();
+    }
+
+    /**
+     * Appends a batch of rows with a single change notification.
+     *
+     * @param xs      shared X values
+     * @param columns one column per series; {@code columns[s][offset + i]} is row {@code i}
+     * @param offset  first source index
+     * @param length  number of rows
+     */
+    public void appendRows(double[] xs, double[][] columns, int offset, int length) {
+        if (xs == null || columns == null || columns.length != seriesCount) {
+            throw new IllegalArgumentException("columns length must match series count");
+        }
+        if (length <= 0) return;
+        if (offset < 0 || offset + length > xs.length) throw new IndexOutOfBoundsException("offset/length out of bounds");
+        for (double[] column : columns) {
+            if (column == null || offset + length > column.length) {
+                throw new IndexOutOfBoundsException("offset/length out of bounds");
+            }
+        }
+        synchronized (dataLock) {
+            ensureCapacity(size + length);
+            int start = size;
+            System.arraycopy(xs, offset, xData, start, length);
+            for (int s = 0; s < seriesCount; s++) {
+                System.arraycopy(columns[s], offset, values[s], start, length);
+            }
+            for (int i = 0; i < length; i++) {
+                indexRow(start + i);
+            }
+            size = start + length;
+        }
+        invalidate();
+    }
+
+    /**
+     * Sets the per-point min/max of one series. Allocates the range columns on first use.
+     */
+    public MultiSeriesModel setRange(int series, int index, double min, double max) {
+        synchronized (dataLock) {
+            checkSeries(series);
+            if (index < 0 || index >= size) return this;
+            if (minData[series] == null) {
+                minData[series] = Arrays.copyOf(values[series], xData.length);
+                maxData[series] = Arrays.copyOf(values[series], xData.length);
+            }
+            minData[series][index] = min;
+            maxData[series][index] = max;
+            int block = index >>> INDEX_SHIFT;
+            if (Double.isFinite(min) && min < blockMinY[series][block]) blockMinY[series][block] = min;
+            if (Double.isFinite(max) && max > blockMaxY[series][block]) blockMaxY[series][block] = max;
+        }
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Sets the weight of one series at a row. Allocates the weight column on first use.
+     */
+    public MultiSeriesModel setWeight(int series, int index, double weight) {
+        synchronized (dataLock) {
+            checkSeries(series);
+            if (index < 0 || index >= size) return this;
+            if (weightData[series] == null) {
+                weightData[series] = Arrays.copyOf(values[series], xData.length);
+            }
+            weightData[series][index] = weight;
+        }
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Sets provenance metadata shared by all series at a row.
+     */
+    public MultiSeriesModel setProvenance(int index, byte provenanceFlag, short sourceId, long timestampNano) {
+        synchronized (dataLock) {
+            if (index < 0 || index >= size) return this;
+            if (provenanceFlags == null) provenanceFlags = new byte[xData.length];
+            if (sourceIds == null) sourceIds = new short[xData.length];
+            provenanceFlags[index] = provenanceFlag;
+            sourceIds[index] = sourceId;
+            ensureTimestamps()[index] = timestampNano;
+        }
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Sets a row label shared by all series.
+     */
+    public MultiSeriesModel setLabel(int index, String label) {
+        synchronized (dataLock) {
+            if (index < 0 || index >= size) return this;
+            if (labels == null) labels = new String[xData.length];
+            labels[index] = label;
+        }
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Removes all rows while keeping allocated columns.
+     */
+    public void clear() {
+        synchronized (dataLock) {
+            size = 0;
+            monotonicX = true;
+            if (labels != null) Arrays.fill(labels, null);
+            if (provenanceFlags != null) Arrays.fill(provenanceFlags, ProvenanceFlags.ORIGINAL);
+            if (sourceIds != null) Arrays.fill(sourceIds, (short) 0);
+            if (timestampNanos != null) Arrays.fill(timestampNanos, 0L);
+        }
+        invalidate();
+    }
+
+    private long[] ensureTimestamps() {
+        if (timestampNanos == null) timestampNanos = new long[xData.length];
+        return timestampNanos;
+    }
+
+    private void ensureCapacity(int minCap) {
+        if (minCap <= xData.length) return;
+        int newCap = Math.max(minCap, xData.length * 2);
+        xData = Arrays.copyOf(xData, newCap);
+        for (int s = 0; s < seriesCount; s++) {
+            values[s] = Arrays.copyOf(values[s], newCap);
+            if (minData[s] != null) {
+                minData[s] = Arrays.copyOf(minData[s], newCap);
+                maxData[s] = Arrays.copyOf(maxData[s], newCap);
+            }
+            if (weightData[s] != null) weightData[s] = Arrays.copyOf(weightData[s], newCap);
+        }
+        if (provenanceFlags != null) provenanceFlags = Arrays.copyOf(provenanceFlags, newCap);
+        if (sourceIds != null) sourceIds = Arrays.copyOf(sourceIds, newCap);
+        if (timestampNanos != null) timestampNanos = Arrays.copyOf(timestampNanos, newCap);
+        if (labels != null) labels = Arrays.copyOf(labels, newCap);
+    }
+
+    private void indexRow(int row) {
+        double x = xData[row];
+        if (row > 0 && x < xData[row - 1]) monotonicX = false;
+        int block = row >>> INDEX_SHIFT;
+        if ((row & (INDEX_ROWS - 1)) == 0) {
+            if (block >= blockMinX.length) {
+                int next = Math.max(block + 1, blockMinX.length * 2);
+                blockMinX = Arrays.copyOf(blockMinX, next);
+                blockMaxX = Arrays.copyOf(blockMaxX, next);
+                for (int s = 0; s < seriesCount; s++) {
+                    blockMinY[s] = Arrays.copyOf(blockMinY[s], next);
+                    blockMaxY[s] = Arrays.copyOf(blockMaxY[s], next);
+                }
+            }
+            blockMinX[block] = Double.MAX_VALUE;
+            blockMaxX[block] = -Double.MAX_VALUE;
+            for (int s = 0; s < seriesCount; s++) {
+                blockMinY[s][block] = Double.MAX_VALUE;
+                blockMaxY[s][block] = -Double.MAX_VALUE;
+            }
+        }
+        if (Double.isFinite(x)) {
+            if (x < blockMinX[block]) blockMinX[block] = x;
+            if (x > blockMaxX[block]) blockMaxX[block] = x;
+        }
+        for (int s = 0; s < seriesCount; s++) {
+            double v = values[s][row];
+            // Rows appended after a lazy column exists default to their value, like the fallback.
+            if (minData[s] != null) {
+                minData[s][row] = v;
+                maxData[s][row] = v;
+            }
+            if (weightData[s] != null) weightData[s][row] = v;
+            if (Double.isFinite(v)) {
+                if (v < blockMinY[s][block]) blockMinY[s][block] = v;
+                if (v > blockMaxY[s][block]) blockMaxY[s][block] = v;
+            }
+        }
+    }
+
+    // === SHARED RANGE INDEX ===
+
+    /**
+     * Returns whether the shared X column is non-decreasing.
+     */
+    public boolean isMonotonicX() {
+        synchronized (dataLock) {
+            return monotonicX;
+        }
+    }
+
+    /**
+     * Returns the first row whose X is {@code >= x}.
+     */
+    public int lowerBoundX(double x) {
+        synchronized (dataLock) {
+            return boundLocked(x, false);
+        }
+    }
+
+    /**
+     * Returns the first row whose X is {@code > x}.
+     */
+    public int upperBoundX(double x) {
+        synchronized (dataLock) {
+            return boundLocked(x, true);
+        }
+    }
+
+    private int boundLocked(double x, boolean upper) {
+        if (!monotonicX) return upper ? size : 0;
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            double v = xData[mid];
+            if (upper ? v <= x : v < x) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Computes the Y extent of one series over {@code [from, toExclusive)} using the block index.
+     *
+     * <p>Output order: minY, maxY. Returns {@code false} when the range holds no finite value.</p>
+     */
+    public boolean getYRange(int series, int from, int toExclusive, double[] out) {
+        synchronized (dataLock) {
+            checkSeries(series);
+            out[0] = Double.MAX_VALUE;
+            out[1] = -Double.MAX_VALUE;
+            accumulateYRange(series, Math.max(0, from), Math.min(size, toExclusive), out);
+            return out[0] <= out[1];
+        }
+    }
+
+    /**
+     * Computes the combined Y extent of every series over {@code [from, toExclusive)} in one pass.
+     *
+     * <p>Output order: minY, maxY. Returns {@code false} when the range holds no finite value.</p>
+     */
+    public boolean getYRange(int from, int toExclusive, double[] out) {
+        synchronized (dataLock) {
+            out[0] = Double.MAX_VALUE;
+            out[1] = -Double.MAX_VALUE;
+            int start = Math.max(0, from);
+            int end = Math.min(size, toExclusive);
+            for (int s = 0; s < seriesCount; s++) {
+                accumulateYRange(s, start, end, out);
+            }
+            return out[0] <= out[1];
+        }
+    }
+
+    private void accumulateYRange(int series, int start, int end, double[] out) {
+        int i = start;
+        while (i < end) {
+            int block = i >>> INDEX_SHIFT;
+            int blockStart = block << INDEX_SHIFT;
+            int blockEnd = blockStart + INDEX_ROWS;
+            if (i == blockStart && blockEnd <= end) {
+                if (blockMinY[series][block] < out[0]) out[0] = blockMinY[series][block];
+                if (blockMaxY[series][block] > out[1]) out[1] = blockMaxY[series][block];
+                i = blockEnd;
+                continue;
+            }
+            int stop = Math.min(end, blockEnd);
+            double[] lows = minData[series] != null ? minData[series] : values[series];
+            double[] highs = maxData[series] != null ? maxData[series] : values[series];
+            for (; i < stop; i++) {
+                double lo = lows[i];
+                double hi = highs[i];
+                if (Double.isFinite(lo) && lo < out[0]) out[0] = lo;
+                if (Double.isFinite(hi) && hi > out[1]) out[1] = hi;
+            }
+        }
+    }
+
+    private double[] dataRangeLocked(int series) {
+        if (size == 0) return new double[]{0, 0, 0, 0};
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int b = 0, blocks = ((size - 1) >>> INDEX_SHIFT) + 1; b < blocks; b++) {
+            if (blockMinX[b] < minX) minX = blockMinX[b];
+            if (blockMaxX[b] > maxX) maxX = blockMaxX[b];
+            if (blockMinY[series][b] < minY) minY = blockMinY[series][b];
+            if (blockMaxY[series][b] > maxY) maxY = blockMaxY[series][b];
+        }
+        if (minX == Double.MAX_VALUE || minY == Double.MAX_VALUE) return new double[]{0, 0, 0, 0};
+        return new double[]{minX, maxX, minY, maxY};
+    }
+
+    /**
+     * Returns the approximate heap retained by all columns in bytes.
+     */
+    public long getRetainedBytes() {
+        synchronized (dataLock) {
+            long cap = xData.length;
+            long bytes = cap * Double.BYTES * (1L + seriesCount);
+            for (int s = 0; s < seriesCount; s++) {
+                if (minData[s] != null) bytes += 2L * cap * Double.BYTES;
+                if (weightData[s] != null) bytes += cap * Double.BYTES;
+            }
+            if (provenanceFlags != null) bytes += cap;
+            if (sourceIds != null) bytes += cap * Short.BYTES;
+            if (timestampNanos != null) bytes += cap * Long.BYTES;
+            if (labels != null) bytes += cap * 4L;
+            bytes += (long) blockMinX.length * Double.BYTES * 2L * (1L + seriesCount);
+            return bytes;
+        }
+    }
+
+    private int checkSeries(int series) {
+        if (series < 0 || series >= seriesCount) {
+            throw new IndexOutOfBoundsException("series " + series + " of " + seriesCount);
+        }
+        return series;
+    }
+
+    // === LISTENERS ===
+
+    /**
+     * Controls whether change listeners are notified via a configured dispatch executor.
+     */
+    public MultiSeriesModel setDispatchOnEdt(boolean enabled) {
+        this.dispatchOnEdt = enabled;
+        return this;
+    }
+
+    /**
+     * Sets the executor used when {@code dispatchOnEdt} is enabled.
+     *
+     * @param executor executor for listener dispatch (nullable)
+     * @return this model for chaining
+     */
+    public MultiSeriesModel setDispatchExecutor(Executor executor) {
+        this.dispatchExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Registers a listener notified once per batch for all series.
+     */
+    public void setChangeListener(ChartModel.ChartModelListener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    public void removeChangeListener(ChartModel.ChartModelListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void invalidate() {
+        updateStamp.incrementAndGet();
+        fireModelChanged();
+    }
+
+    protected void fireModelChanged() {
+        if (dispatchOnEdt && dispatchExecutor != null) {
+            try {
+                dispatchExecutor.execute(this::notifyListeners);
+                return;
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "Dispatch executor rejected listener notification; falling back to caller thread", ex);
+            }
+            notifyListeners();
+            return;
+        }
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        for (var l : listeners) {
+            try {
+                l.modelChanged();
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "ChartModel listener failed and was isolated", ex);
+            }
+        }
+    }
+
+    /**
+     * Per-series view over the shared columns.
+     */
+    private final class SeriesView implements IndexedRangeModel {
+        private final int series;
+
+        SeriesView(int series) {
+            this.series = series;
+        }
+
+        @Override
+        public String getName() {
+            synchronized (dataLock) {
+                return names[series];
+            }
+        }
+
+        @Override
+        public ChartModel setName(String name) {
+            synchronized (dataLock) {
+                names[series] = (name == null || name.isBlank()) ? "Series " + (series + 1) : name;
+            }
+            invalidate();
+            return this;
+        }
+
+        @Override
+        public ArberColor getColor() {
+            synchronized (dataLock) {
+                return colors[series];
+            }
+        }
+
+        @Override
+        public ChartModel setColor(ArberColor color) {
+            synchronized (dataLock) {
+                colors[series] = color;
+            }
+            invalidate();
+            return this;
+        }
+
+        @Override
+        public int getPointCount() {
+            return MultiSeriesModel.this.getPointCount();
+        }
+
+        @Override
+        public double getX(int index) {
+            return MultiSeriesModel.this.getX(index);
+        }
+
+        @Override
+        public double getY(int index) {
+            return MultiSeriesModel.this.getValue(series, index);
+        }
+
+        @Override
+        public double getMin(int index) {
+            synchronized (dataLock) {
+                if (index < 0 || index >= size) return 0.0;
+                return minData[series] != null ? minData[series][index] : values[series][index];
+            }
+        }
+
+        @Override
+        public double getMax(int index) {
+            synchronized (dataLock) {
+                if (index < 0 || index >= size) return 0.0;
+                return maxData[series] != null ? maxData[series][index] : values[series][index];
+            }
+        }
+
+        @Override
+        public double getWeight(int index) {
+            synchronized (dataLock) {
+                if (index < 0 || index >= size) return 0.0;
+                return weightData[series] != null ? weightData[series][index] : values[series][index];
+            }
+        }
+
+        @Override
+        public double getValue(int index, int component) {
+            return switch (component) {
+                case 0 -> getX(index);
+                case 1 -> getY(index);
+                case 2 -> getWeight(index);
+                case 3 -> getMin(index);
+                case 4 -> getMax(index);
+                default -> 0.0;
+            };
+        }
+
+        @Override
+        public double[] getXData() {
+            synchronized (dataLock) {
+                return xData;
+            }
+        }
+
+        @Override
+        public double[] getYData() {
+            synchronized (dataLock) {
+                return values[series];
+            }
+        }
+
+        @Override
+        public double[] getLowData() {
+            synchronized (dataLock) {
+                return minData[series] != null ? minData[series] : values[series];
+            }
+        }
+
+        @Override
+        public double[] getHighData() {
+            synchronized (dataLock) {
+                return maxData[series] != null ? maxData[series] : values[series];
+            }
+        }
+
+        @Override
+        public double[] getWeightData() {
+            synchronized (dataLock) {
+                return weightData[series] != null ? weightData[series] : values[series];
+            }
+        }
+
+        @Override
+        public byte[] getProvenanceFlagsData() {
+            synchronized (dataLock) {
+                return provenanceFlags != null ? provenanceFlags : EMPTY_BYTE;
+            }
+        }
+
+        @Override
+        public short[] getSourceIdsData() {
+            synchronized (dataLock) {
+                return sourceIds != null ? sourceIds : EMPTY_SHORT;
+            }
+        }
+
+        @Override
+        public long[] getTimestampNanosData() {
+            synchronized (dataLock) {
+                return timestampNanos != null ? timestampNanos : EMPTY_LONG;
+            }
+        }
+
+        @Override
+        public String getLabel(int index) {
+            synchronized (dataLock) {
+                if (labels == null || index < 0 || index >= size) return null;
+                return labels[index];
+            }
+        }
+
+        @Override
+        public double[] getDataRange() {
+            synchronized (dataLock) {
+                return dataRangeLocked(series);
+            }
+        }
+
+        @Override
+        public boolean isMonotonicX() {
+            return MultiSeriesModel.this.isMonotonicX();
+        }
+
+        @Override
+        public int lowerBoundX(double x) {
+            return MultiSeriesModel.this.lowerBoundX(x);
+        }
+
+        @Override
+        public int upperBoundX(double x) {
+            return MultiSeriesModel.this.upperBoundX(x);
+        }
+
+        @Override
+        public long getUpdateStamp() {
+            return updateStamp.get();
+        }
+
+        @Override
+        public void setChangeListener(ChartModelListener listener) {
+            MultiSeriesModel.this.setChangeListener(listener);
+        }
+
+        @Override
+        public void removeChangeListener(ChartModelListener listener) {
+            MultiSeriesModel.this.removeChangeListener(listener);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.arbergashi.charts.model;
+
+import com.arbergashi.charts.api.types.ArberColor;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fixed-capacity XY ring buffer in off-heap memory that producers write directly.
+ *
+ * <p>Intended for native hosts: the bridge hands out the addresses of the X and Y
+ * {@linkplain #column(Column) columns}, the host stores row {@code r} at slot
+ * {@code r & (capacity - 1)} in native byte order and then {@linkplain #publish(long) publishes}
+ * the total number of rows written. No per-point call and no copy happen on the write side; the
+ * model exposes the newest {@code capacity} rows in write order.</p>
+ *
+ * <p><b>Threading contract:</b> one producer. Slots beyond the published window are never read,
+ * but the producer may overwrite the oldest visible rows while a reader walks them, so producers
+ * that race with rendering should stay one frame behind the capacity. A renderer brackets each
+ * frame with {@link #beginFrame()} and {@link #endFrame()}, so that every read of the frame sees the
+ * same published row count even if a publish lands mid-render. Min and max fall back to Y, weight
+ * to {@code 1.0}.</p>
+ *
+ * <p>{@link #getDataRange()} scans the off-heap columns directly and is cached per publish.
+ * {@link #getXData()} and {@link #getYData()} are heap copies for callers that need arrays; they
+ * are built on first use, sized to the published rows and, until the ring wraps, extended by the
+ * newly published rows only.</p>
+ *
+ * <p>Capacity is rounded to the next power of two. {@link #close()} frees the memory.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class OffHeapRingChartModel implements ChartModel, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(OffHeapRingChartModel.class.getName());
+    private static final ValueLayout.OfDouble F64 = ValueLayout.JAVA_DOUBLE_UNALIGNED;
+
+    /**
+     * Writable columns.
+     */
+    public enum Column {
+        X, Y
+    }
+
+    private final Arena arena;
+    private final MemorySegment xs;
+    private final MemorySegment ys;
+    private final int capacity;
+    private final int mask;
+    private volatile long head;
+    // head pinned by beginFrame(), or -1 to read the live head
+    private long frameHead = -1L;
+
+    private final AtomicLong updateStamp = new AtomicLong(0);
+    private final List<ChartModelListener> listeners = new CopyOnWriteArrayList<>();
+    private String name;
+    private ArberColor color;
+    private boolean dispatchOnEdt = false;
+    private Executor dispatchExecutor;
+
+    private double[] xSnapshot = new double[0];
+    private double[] ySnapshot = new double[0];
+    private long snapshotHead = 0L;
+    private final double[] range = new double[4];
+    private long rangeHead = -1L;
+
+    public OffHeapRingChartModel(int capacity) {
+        this("Series", capacity);
+    }
+
+    public OffHeapRingChartModel(String name, int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be in (0, 2^30]");
+        }
+        this.capacity = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.mask = this.capacity - 1;
+        this.name = name != null ? name : "Series";
+        this.arena = Arena.ofShared();
+        this.xs = arena.allocate((long) this.capacity * Double.BYTES, Double.BYTES);
+        this.ys = arena.allocate((long) this.capacity * Double.BYTES, Double.BYTES);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the whole ring for one column; row {@code r} lives at element {@code r & (capacity - 1)}.
+     */
+    public MemorySegment column(Column column) {
+        return column == Column.X ? xs : ys;
+    }
+
+    /**
+     * Total number of rows published so far.
+     */
+    public long getPublishedRows() {
+        return head;
+    }
+
+    /**
+     * Pins the rows visible to readers to those published now, until {@link #endFrame()}. Call it
+     * on the render thread before the frame's first read.
+     */
+    public void beginFrame() {
+        frameHead = head;
+    }
+
+    /**
+     * Releases the pin taken by {@link #beginFrame()}; reads see the live published rows again.
+     */
+    public void endFrame() {
+        frameHead = -1L;
+    }
+
+    /**
+     * Makes rows up to {@code rowsWritten} (exclusive, counted since creation) visible and fires
+     * one change notification.
+     *
+     * @throws IllegalArgumentException if {@code rowsWritten} moves backwards
+     */
+    public void publish(long rowsWritten) {
+        long h = head;
+        if (rowsWritten < h) {
+            throw new IllegalArgumentException("rowsWritten " + rowsWritten + " < published " + h);
+        }
+        if (rowsWritten == h) return;
+        head = rowsWritten;
+        updateStamp.incrementAndGet();
+        fireModelChanged();
+    }
+
+    @Override
+    public int getPointCount() {
+        return (int) Math.min(visibleHead(), capacity);
+    }
+
+    @Override
+    public long getFirstSequence() {
+        long h = visibleHead();
+        return h - Math.min(h, capacity);
+    }
+
+    @Override
+    public double getX(int index) {
+        return read(xs, index);
+    }
+
+    @Override
+    public double getY(int index) {
+        return read(ys, index);
+    }
+
+    @Override
+    public double getWeight(int index) {
+        return index >= 0 && index < getPointCount() ? 1.0 : 0.0;
+    }
+
+    @Override
+    public double getValue(int index, int component) {
+        return switch (component) {
+            case 0 -> getX(index);
+            case 1, 3, 4 -> getY(index);
+            case 2 -> getWeight(index);
+            default -> 0.0;
+        };
+    }
+
+    @Override
+    public synchronized double[] getXData() {
+        ensureSnapshot(visibleHead());
+        return xSnapshot;
+    }
+
+    @Override
+    public synchronized double[] getYData() {
+        ensureSnapshot(visibleHead());
+        return ySnapshot;
+    }
+
+    @Override
+    public synchronized double[] getDataRange() {
+        long h = visibleHead();
+        if (h != rangeHead) {
+            int count = (int) Math.min(h, capacity);
+            int start = (int) ((h - count) & mask);
+            int first = Math.min(count, capacity - start);
+            range[0] = Double.MAX_VALUE;
+            range[1] = -Double.MAX_VALUE;
+            range[2] = Double.MAX_VALUE;
+            range[3] = -Double.MAX_VALUE;
+            scanRange(start, first);
+            scanRange(0, count - first);
+            if (count == 0) Arrays.fill(range, 0.0);
+            rangeHead = h;
+        }
+        return range.clone();
+    }
+
+    @Override
+    public long getUpdateStamp() {
+        return updateStamp.get();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public OffHeapRingChartModel setName(String name) {
+        this.name = (name == null || name.isBlank()) ? "Series" : name;
+        return this;
+    }
+
+    @Override
+    public ArberColor getColor() {
+        return color;
+    }
+
+    @Override
+    public OffHeapRingChartModel setColor(ArberColor color) {
+        this.color = color;
+        return this;
+    }
+
+    public OffHeapRingChartModel setDispatchOnEdt(boolean enabled) {
+        this.dispatchOnEdt = enabled;
+        return this;
+    }
+
+    /**
+     * Sets the executor used when {@code dispatchOnEdt} is enabled.
+     *
+     * @param executor executor for listener dispatch (nullable)
+     * @return this model for chaining
+     */
+    public OffHeapRingChartModel setDispatchExecutor(Executor executor) {
+        this.dispatchExecutor = executor;
+        return this;
+    }
+
+    @Override
+    public void setChangeListener(ChartModelListener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ChartModelListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private long visibleHead() {
+        long h = frameHead;
+        return h >= 0L ? h : head;
+    }
+
+    private double read(MemorySegment column, int index) {
+        long h = visibleHead();
+        int count = (int) Math.min(h, capacity);
+        if (index < 0 || index >= count) return 0.0;
+        return column.getAtIndex(F64, (h - count + index) & mask);
+    }
+
+    private void scanRange(int fromSlot, int length) {
+        double minX = range[0], maxX = range[1], minY = range[2], maxY = range[3];
+        for (long i = fromSlot, end = (long) fromSlot + length; i < end; i++) {
+            double xv = xs.getAtIndex(F64, i);
+            double yv = ys.getAtIndex(F64, i);
+            if (xv < minX) minX = xv;
+            if (xv > maxX) maxX = xv;
+            if (yv < minY) minY = yv;
+            if (yv > maxY) maxY = yv;
+        }
+        range[0] = minX;
+        range[1] = maxX;
+        range[2] = minY;
+        range[3] = maxY;
+    }
+
+    private void ensureSnapshot(long h) {
+        if (h == snapshotHead) return;
+        int count = (int) Math.min(h, capacity);
+        if (xSnapshot.length < count) {
+            int cap = (int) Math.min(capacity, Math.max(count, 2L * xSnapshot.length));
+            xSnapshot = Arrays.copyOf(xSnapshot, cap);
+            ySnapshot = Arrays.copyOf(ySnapshot, cap);
+        }
+        // Before the ring wraps, row i stays at index i: copy only the rows published since.
+        int from = h <= capacity && snapshotHead <= h ? (int) snapshotHead : 0;
+        int start = (int) ((h - count + from) & mask);
+        int length = count - from;
+        int first = Math.min(length, capacity - start);
+        MemorySegment.copy(xs, F64, (long) start * Double.BYTES, xSnapshot, from, first);
+        MemorySegment.copy(ys, F64, (long) start * Double.BYTES, ySnapshot, from, first);
+        if (first < length) {
+            MemorySegment.copy(xs, F64, 0L, xSnapshot, from + first, length - first);
+            MemorySegment.copy(ys, F64, 0L, ySnapshot, from + first, length - first);
+        }
+        snapshotHead = h;
+    }
+
+    private void fireModelChanged() {
+        if (dispatchOnEdt && dispatchExecutor != null) {
+            try {
+                dispatchExecutor.execute(this::notifyListeners);
+                return;
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "Dispatch executor rejected listener notification; falling back to caller thread", ex);
+            }
+        }
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        for (ChartModelListener listener : listeners) {
+            try {
+                listener.modelChanged();
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "ChartModel listener failed and was isolated", ex);
+            }
+        }
+    }
+}
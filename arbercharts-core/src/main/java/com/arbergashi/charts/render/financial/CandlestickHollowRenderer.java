@@ -5,14 +5,13 @@ import com.arbergashi.charts.api.PlotContext;
 import com.arbergashi.charts.api.types.ArberColor;
 import com.arbergashi.charts.core.geometry.ArberRect;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.internal.OhlcPyramid;
 import com.arbergashi.charts.internal.RendererDescriptor;
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.platform.render.RendererRegistry;
 import com.arbergashi.charts.render.BaseRenderer;
 import com.arbergashi.charts.util.ChartScale;
 
-import java.util.Arrays;
-
 /**
  * Hollow Candlestick renderer (specialized variant).
  *
@@ -28,8 +27,8 @@ import java.util.Arrays;
  * <p>Performance policy:</p>
  * <ul>
  *   <li>No allocations in the hot drawing loop (no ArberPoint creation).</li>
- *   <li>For very dense datasets, switches to a level-of-detail (LOD) representation by aggregating
- *       into per-pixel OHLC buckets.</li>
+ *   <li>When bars outnumber pixel columns, merges each column into one synthetic OHLC bar
+ *       (first open, max high, min low, last close) via {@link OhlcPyramid}.</li>
  * </ul>
  *
  * @author Arber Gashi
@@ -55,12 +54,8 @@ public final class CandlestickHollowRenderer extends BaseRenderer {
     private final float[] lineX = new float[2];
     private final float[] lineY = new float[2];
 
-    // Reusable buffers for LOD aggregation (sized to plot width)
-    private int[] lodCount = new int[0];
-    private double[] lodOpen = new double[0];
-    private double[] lodHigh = new double[0];
-    private double[] lodLow = new double[0];
-    private double[] lodClose = new double[0];
+    // Per-column OHLC merging for dense data
+    private final OhlcPyramid pyramid = new OhlcPyramid();
 
     public CandlestickHollowRenderer() {
         super("candlestick_hollow");
@@ -81,8 +76,8 @@ public final class CandlestickHollowRenderer extends BaseRenderer {
         final double candleW = Math.max(2.0, bounds.getWidth() / (double) Math.max(1, n) * 0.8);
         canvas.setStroke((float) ChartScale.scale(1.1f));
 
-        if (n > Math.max(2000, bounds.getWidth())) {
-            renderLod(canvas, model, context, bounds, candleW, bullish, bearish);
+        if (pyramid.merge(model, context, false)) {
+            renderMerged(canvas, context, bullish, bearish);
             return;
         }
 
@@ -125,84 +120,29 @@ public final class CandlestickHollowRenderer extends BaseRenderer {
         }
     }
 
-    private void renderLod(ArberCanvas canvas, ChartModel model, PlotContext context, ArberRect bounds,
-                           double candleW, ArberColor bullish, ArberColor bearish) {
-        final int w = Math.max(1, (int) Math.round(bounds.getWidth()));
-        ensureLodCapacity(w);
-
-        Arrays.fill(lodCount, 0);
-
-        double minX = Double.POSITIVE_INFINITY;
-        double maxX = Double.NEGATIVE_INFINITY;
-        final int n = model.getPointCount();
-        for (int i = 0; i < n; i++) {
-            final double x = model.getX(i);
-            if (x < minX) minX = x;
-            if (x > maxX) maxX = x;
-        }
-        final double span = Math.max(1e-12, maxX - minX);
-
-        for (int i = 0; i < n; i++) {
-            final double pxv = model.getX(i);
-            final int xiRaw = (int) ((pxv - minX) / span * (w - 1));
-            final int xi = (xiRaw < 0) ? 0 : Math.min(xiRaw, w - 1);
-
-            final double o = model.getWeight(i);
-            final double h = model.getMax(i);
-            final double l = model.getMin(i);
-            final double c = model.getY(i);
-
-            if (lodCount[xi] == 0) {
-                lodOpen[xi] = o;
-                lodHigh[xi] = h;
-                lodLow[xi] = l;
-                lodClose[xi] = c;
-            } else {
-                lodOpen[xi] = (lodOpen[xi] + o) * 0.5;
-                lodClose[xi] = (lodClose[xi] + c) * 0.5;
-                if (h > lodHigh[xi]) lodHigh[xi] = h;
-                if (l < lodLow[xi]) lodLow[xi] = l;
-            }
-            lodCount[xi]++;
-        }
-
-        final double pixelStep = bounds.getWidth() / (double) w;
-        final double x0 = bounds.x();
-
-        for (int xi = 0; xi < w; xi++) {
-            if (lodCount[xi] == 0) continue;
-
-            final double cx = x0 + xi * pixelStep + pixelStep * 0.5;
-
-            final double open = lodOpen[xi];
-            final double close = lodClose[xi];
-            final double high = lodHigh[xi];
-            final double low = lodLow[xi];
-            final double top = Math.min(open, close);
-            final double bottom = Math.max(open, close);
+    private void renderMerged(ArberCanvas canvas, PlotContext context, ArberColor bullish, ArberColor bearish) {
+        for (int b = 0, bins = pyramid.getBinCount(); b < bins; b++) {
+            final double xVal = pyramid.getBinX(b);
+            final double open = pyramid.getBinOpen(b);
+            final double close = pyramid.getBinClose(b);
+            final double top = Math.max(open, close);
+            final double bottom = Math.min(open, close);
 
-            context.mapToPixel(cx, high, px);
-            context.mapToPixel(cx, low, px2);
-            context.mapToPixel(cx, top, px3);
-            context.mapToPixel(cx, bottom, px4);
-
-            final double yHigh = px[1];
-            final double yLow = px2[1];
-            final double yTop = px3[1];
-            final double yBottom = px4[1];
+            context.mapToPixel(xVal, pyramid.getBinHigh(b), px);
+            context.mapToPixel(xVal, pyramid.getBinLow(b), px2);
+            context.mapToPixel(xVal, top, px3);
+            context.mapToPixel(xVal, bottom, px4);
 
+            final double cx = pyramid.getBinPixelX(b);
             canvas.setColor(close >= open ? bullish : bearish);
-
-            drawLine(canvas, cx, yHigh, cx, yTop);
-            drawLine(canvas, cx, yBottom, cx, yLow);
-
-            float rx = (float) (cx - candleW / 2.0);
-            float ry = (float) yTop;
-            float rw = (float) candleW;
-            float rh = (float) Math.max(1.0, yBottom - yTop);
-
-            if (close >= open) canvas.drawRect(rx, ry, rw, rh);
-            else canvas.fillRect(rx, ry, rw, rh);
+            drawLine(canvas, cx, px[1], cx, px3[1]);
+            drawLine(canvas, cx, px4[1], cx, px2[1]);
+
+            // merged bodies keep the hollow/filled distinction of the per-bar path
+            float ry = (float) Math.min(px3[1], px4[1]);
+            float rh = (float) Math.max(1.0, Math.abs(px4[1] - px3[1]));
+            if (close >= open) canvas.drawRect((float) (cx - 0.5), ry, 1.0f, rh);
+            else canvas.fillRect((float) (cx - 0.5), ry, 1.0f, rh);
         }
     }
 
@@ -213,13 +153,4 @@ public final class CandlestickHollowRenderer extends BaseRenderer {
         lineY[1] = (float) y2;
         canvas.drawPolyline(lineX, lineY, 2);
     }
-
-    private void ensureLodCapacity(int w) {
-        if (lodCount.length >= w) return;
-        lodCount = new int[w];
-        lodOpen = new double[w];
-        lodHigh = new double[w];
-        lodLow = new double[w];
-        lodClose = new double[w];
-    }
 }
@@ -6,12 +6,15 @@ import com.arbergashi.charts.api.PlotContext;
 import com.arbergashi.charts.api.types.ArberColor;
 import com.arbergashi.charts.core.geometry.ArberRect;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.internal.OhlcPyramid;
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.model.FinancialChartModel;
 import com.arbergashi.charts.render.BaseRenderer;
 import com.arbergashi.charts.util.ChartScale;
 import com.arbergashi.charts.util.ColorRegistry;
 
+import java.util.Arrays;
+
 /**
  * Heikin-Ashi Renderer - modified candlestick visualization for trend readability.
  *
@@ -35,6 +38,14 @@ public final class HeikinAshiRenderer extends BaseRenderer {
     // Cached computed series
     private transient ChartModel cachedModel;
     private transient int cachedPointCount;
+    private transient long cachedStamp;
+    private transient long haVersion;
+    private transient int haDirtyFrom;
+
+    // x, open, high, low, close of source bar 0 and of bar count - 2 as of the last recompute
+    private final double[] firstBar = new double[5];
+    private final double[] settledBar = new double[5];
+    private final double[] probe = new double[5];
 
     private transient double[] xValues;
     private transient double[] haOpen;
@@ -42,6 +53,8 @@ public final class HeikinAshiRenderer extends BaseRenderer {
     private transient double[] haHigh;
     private transient double[] haLow;
 
+    private final OhlcPyramid pyramid = new OhlcPyramid();
+
     public HeikinAshiRenderer() {
         super("heikinashi");
     }
@@ -78,6 +91,12 @@ public final class HeikinAshiRenderer extends BaseRenderer {
 
         canvas.setStroke((float) ChartScale.scale(1.0f));
 
+        if (pyramid.merge(cachedModel, haVersion, cachedPointCount, haDirtyFrom,
+                xValues, haOpen, haHigh, haLow, haClose, context, false)) {
+            drawMerged(canvas, context, theme.getForeground(), colorBullish, colorBearish);
+            return;
+        }
+
         for (int i = start; i < endExclusive; i++) {
             context.mapToPixel(xValues[i], haHigh[i], pxHigh);
             context.mapToPixel(xValues[i], haLow[i], pxLow);
@@ -106,6 +125,31 @@ public final class HeikinAshiRenderer extends BaseRenderer {
         }
     }
 
+    /**
+     * Draws one pixel-wide candle per merged column of Heikin-Ashi bars.
+     */
+    private void drawMerged(ArberCanvas canvas, PlotContext context, ArberColor wickColor,
+                            ArberColor colorBullish, ArberColor colorBearish) {
+        for (int b = 0, bins = pyramid.getBinCount(); b < bins; b++) {
+            final double xVal = pyramid.getBinX(b);
+            final double open = pyramid.getBinOpen(b);
+            final double close = pyramid.getBinClose(b);
+            context.mapToPixel(xVal, pyramid.getBinHigh(b), pxHigh);
+            context.mapToPixel(xVal, pyramid.getBinLow(b), pxLow);
+            context.mapToPixel(xVal, open, pxOpen);
+            context.mapToPixel(xVal, close, pxClose);
+
+            final double x = pyramid.getBinPixelX(b);
+            canvas.setColor(wickColor);
+            drawLine(canvas, x, pxHigh[1], x, pxLow[1]);
+
+            final double bodyY = Math.min(pxOpen[1], pxClose[1]);
+            final double bodyH = Math.max(Math.abs(pxOpen[1] - pxClose[1]), 1.0);
+            canvas.setColor(close >= open ? colorBullish : colorBearish);
+            canvas.fillRect((float) (x - 0.5), (float) bodyY, 1.0f, (float) bodyH);
+        }
+    }
+
     private void drawLine(ArberCanvas canvas, double x1, double y1, double x2, double y2) {
         lineX[0] = (float) x1;
         lineX[1] = (float) x2;
@@ -114,6 +158,12 @@ public final class HeikinAshiRenderer extends BaseRenderer {
         canvas.drawPolyline(lineX, lineY, 2);
     }
 
+    /**
+     * Brings the Heikin-Ashi series up to date. A live feed appends bars and revises its last one,
+     * so when the first bar and the last settled bar (the one before the previous last) are
+     * unchanged, only the tail from the previous last bar is recomputed. Any other change to the
+     * model recomputes the whole series.
+     */
     private void ensureCache(ChartModel model) {
         final int n = model.getPointCount();
         if (n == 0) {
@@ -122,33 +172,51 @@ public final class HeikinAshiRenderer extends BaseRenderer {
             return;
         }
 
-        if (cachedModel == model && cachedPointCount == n && xValues != null) {
+        final long stamp = model.getUpdateStamp();
+        if (cachedModel == model && cachedPointCount == n && cachedStamp == stamp && xValues != null) {
             return;
         }
 
-        cachedModel = model;
-        cachedPointCount = n;
-
-        ensureCapacity(n);
-
         final FinancialChartModel fin = (model instanceof FinancialChartModel) ? (FinancialChartModel) model : null;
 
-        xValues[0] = model.getX(0);
+        int from = 0;
+        if (cachedModel == model && xValues != null && cachedPointCount > 1 && n >= cachedPointCount
+                && unchanged(model, fin, 0, firstBar) && unchanged(model, fin, cachedPointCount - 2, settledBar)) {
+            from = cachedPointCount - 1;
+        }
 
-        final double open0 = (fin != null) ? fin.getOpen(0) : model.getWeight(0);
-        final double high0 = (fin != null) ? fin.getHigh(0) : model.getMax(0);
-        final double low0 = (fin != null) ? fin.getLow(0) : model.getMin(0);
-        final double close0 = (fin != null) ? fin.getClose(0) : model.getY(0);
+        cachedModel = model;
+        cachedPointCount = n;
+        cachedStamp = stamp;
+        haVersion++;
+        haDirtyFrom = from;
 
-        double prevHaClose = (open0 + high0 + low0 + close0) * 0.25;
-        double prevHaOpen = (open0 + close0) * 0.5;
+        ensureCapacity(n);
 
-        haOpen[0] = prevHaOpen;
-        haClose[0] = prevHaClose;
-        haHigh[0] = Math.max(high0, Math.max(prevHaOpen, prevHaClose));
-        haLow[0] = Math.min(low0, Math.min(prevHaOpen, prevHaClose));
+        double prevHaOpen;
+        double prevHaClose;
+        if (from == 0) {
+            xValues[0] = model.getX(0);
+
+            final double open0 = (fin != null) ? fin.getOpen(0) : model.getWeight(0);
+            final double high0 = (fin != null) ? fin.getHigh(0) : model.getMax(0);
+            final double low0 = (fin != null) ? fin.getLow(0) : model.getMin(0);
+            final double close0 = (fin != null) ? fin.getClose(0) : model.getY(0);
+
+            prevHaClose = (open0 + high0 + low0 + close0) * 0.25;
+            prevHaOpen = (open0 + close0) * 0.5;
+
+            haOpen[0] = prevHaOpen;
+            haClose[0] = prevHaClose;
+            haHigh[0] = Math.max(high0, Math.max(prevHaOpen, prevHaClose));
+            haLow[0] = Math.min(low0, Math.min(prevHaOpen, prevHaClose));
+            from = 1;
+        } else {
+            prevHaOpen = haOpen[from - 1];
+            prevHaClose = haClose[from - 1];
+        }
 
-        for (int i = 1; i < n; i++) {
+        for (int i = from; i < n; i++) {
             xValues[i] = model.getX(i);
 
             final double open = (fin != null) ? fin.getOpen(i) : model.getWeight(i);
@@ -170,15 +238,33 @@ public final class HeikinAshiRenderer extends BaseRenderer {
             prevHaOpen = curHaOpen;
             prevHaClose = curHaClose;
         }
+
+        remember(model, fin, 0, firstBar);
+        remember(model, fin, Math.max(0, n - 2), settledBar);
+    }
+
+    private static void remember(ChartModel model, FinancialChartModel fin, int i, double[] bar) {
+        bar[0] = model.getX(i);
+        bar[1] = (fin != null) ? fin.getOpen(i) : model.getWeight(i);
+        bar[2] = (fin != null) ? fin.getHigh(i) : model.getMax(i);
+        bar[3] = (fin != null) ? fin.getLow(i) : model.getMin(i);
+        bar[4] = (fin != null) ? fin.getClose(i) : model.getY(i);
+    }
+
+    /** Compares source bar {@code i} bit-for-bit with a remembered bar. */
+    private boolean unchanged(ChartModel model, FinancialChartModel fin, int i, double[] bar) {
+        remember(model, fin, i, probe);
+        return Arrays.equals(probe, bar);
     }
 
     private void ensureCapacity(int n) {
         if (xValues == null || xValues.length < n) {
-            xValues = new double[n];
-            haOpen = new double[n];
-            haClose = new double[n];
-            haHigh = new double[n];
-            haLow = new double[n];
+            final int cap = (xValues == null) ? n : Math.max(n, xValues.length * 2);
+            xValues = (xValues == null) ? new double[cap] : Arrays.copyOf(xValues, cap);
+            haOpen = (haOpen == null) ? new double[cap] : Arrays.copyOf(haOpen, cap);
+            haClose = (haClose == null) ? new double[cap] : Arrays.copyOf(haClose, cap);
+            haHigh = (haHigh == null) ? new double[cap] : Arrays.copyOf(haHigh, cap);
+            haLow = (haLow == null) ? new double[cap] : Arrays.copyOf(haLow, cap);
         }
     }
 }
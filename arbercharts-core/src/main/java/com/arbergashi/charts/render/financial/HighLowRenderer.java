@@ -6,6 +6,7 @@ import com.arbergashi.charts.api.PlotContext;
 import com.arbergashi.charts.api.types.ArberColor;
 import com.arbergashi.charts.api.types.ArberPoint;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.internal.OhlcPyramid;
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.render.BaseRenderer;
 import com.arbergashi.charts.tools.RendererAllocationCache;
@@ -22,6 +23,7 @@ import java.util.Optional;
  *   <li>No allocations in the hot drawing loop.</li>
  *   <li>No usage of platform-specific geometry classes.</li>
  *   <li>Hit testing uses a reusable rectangle buffer.</li>
+ *   <li>Bars sharing a pixel column are merged into one high-low bar ({@link OhlcPyramid}).</li>
  * </ul>
  *
  * @author Arber Gashi
@@ -36,10 +38,12 @@ public final class HighLowRenderer extends BaseRenderer {
     private transient double[] hitY = new double[0];
     private transient double[] hitW = new double[0];
     private transient double[] hitH = new double[0];
+    private transient int[] hitIndex = new int[0];
     private transient int hitBoxCount;
 
     private final float[] lineX = new float[2];
     private final float[] lineY = new float[2];
+    private final OhlcPyramid pyramid = new OhlcPyramid();
 
     public HighLowRenderer() {
         super("highlow");
@@ -67,6 +71,20 @@ public final class HighLowRenderer extends BaseRenderer {
         final double[] pixHigh = pBuffer();
         final double[] pixLow = pBuffer4();
 
+        if (pyramid.merge(model, context, false)) {
+            canvas.setStroke(ChartScale.scale(1.0f));
+            for (int b = 0, bins = pyramid.getBinCount(); b < bins; b++) {
+                final double xData = pyramid.getBinX(b);
+                context.mapToPixel(xData, pyramid.getBinHigh(b), pixHigh);
+                context.mapToPixel(xData, pyramid.getBinLow(b), pixLow);
+                final double x = pyramid.getBinPixelX(b);
+                canvas.setColor(pyramid.getBinClose(b) >= pyramid.getBinOpen(b) ? bullish : bearish);
+                drawLine(canvas, x, pixHigh[1], x, pixLow[1]);
+                addHitBox(pyramid.getBinFirstIndex(b), x, pixHigh[1], pixLow[1], 1.0);
+            }
+            return;
+        }
+
         for (int i = 0; i < n; i++) {
             final double xData = model.getX(i);
 
@@ -93,14 +111,19 @@ public final class HighLowRenderer extends BaseRenderer {
             drawLine(canvas, x - tickHalfWidth, yHigh, x + tickHalfWidth, yHigh);
             drawLine(canvas, x - tickHalfWidth, yLow, x + tickHalfWidth, yLow);
 
-            int hb = hitBoxCount++;
-            hitX[hb] = x - hitWidth / 2.0;
-            hitY[hb] = Math.min(yHigh, yLow);
-            hitW[hb] = hitWidth;
-            hitH[hb] = Math.max(Math.abs(yLow - yHigh), 1.0);
+            addHitBox(i, x, yHigh, yLow, hitWidth);
         }
     }
 
+    private void addHitBox(int index, double x, double yHigh, double yLow, double hitWidth) {
+        int hb = hitBoxCount++;
+        hitX[hb] = x - hitWidth / 2.0;
+        hitY[hb] = Math.min(yHigh, yLow);
+        hitW[hb] = hitWidth;
+        hitH[hb] = Math.max(Math.abs(yLow - yHigh), 1.0);
+        hitIndex[hb] = index;
+    }
+
     private void drawLine(ArberCanvas canvas, double x1, double y1, double x2, double y2) {
         lineX[0] = (float) x1;
         lineX[1] = (float) x2;
@@ -122,7 +145,7 @@ public final class HighLowRenderer extends BaseRenderer {
             double x = hitX[i];
             double y = hitY[i];
             if (pixel.x() >= x && pixel.x() <= x + hitW[i] && pixel.y() >= y && pixel.y() <= y + hitH[i]) {
-                return Optional.of(i);
+                return Optional.of(hitIndex[i]);
             }
         }
         return Optional.empty();
@@ -134,5 +157,6 @@ public final class HighLowRenderer extends BaseRenderer {
         hitY = RendererAllocationCache.getDoubleArray(this, "highlow.hit.y", n);
         hitW = RendererAllocationCache.getDoubleArray(this, "highlow.hit.w", n);
         hitH = RendererAllocationCache.getDoubleArray(this, "highlow.hit.h", n);
+        hitIndex = RendererAllocationCache.getIntArray(this, "highlow.hit.index", n);
     }
 }
@@ -3,16 +3,25 @@ package com.arbergashi.charts.render.medical;
 import com.arbergashi.charts.api.PlotContext;
 import com.arbergashi.charts.api.types.ArberColor;
 import com.arbergashi.charts.api.types.ArberPoint;
+import com.arbergashi.charts.core.geometry.ArberRect;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.core.rendering.RasterBuffer;
+import com.arbergashi.charts.engine.spatial.PointIndex;
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.model.CircularFastMedicalModel;
 
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.function.Function;
 /**
  * Abstract base class for medical sweep renderers (ECG, PPG, IBP, NIRS).
  * Eliminates redundancy and encapsulates sweep-erase logic.
  *
+ * <p>With {@link #setIncrementalSweep(boolean)} the trace is kept in a persistent raster of the
+ * plot area: a frame projects only the newly arrived samples, clears the columns of the erase
+ * strip and rasterizes the affected segments, so the cost follows the sample rate rather than the
+ * ring capacity.</p>
+ *
  * @author Arber Gashi
  * @version 1.0.0
  * @since 2025-06-01
@@ -24,11 +33,24 @@ public abstract class AbstractMedicalSweepRenderer extends com.arbergashi.charts
      */
     private static Function<String, String> nameTranslator = key -> key;
     protected final double[] sharedCoord = new double[2];
+    private final int[] hitRange = new int[2];
+    private final CircularFastMedicalModel.Snapshot snapshot = new CircularFastMedicalModel.Snapshot();
     private final ArberColor fallbackColor;
     private final float strokeWidth;
     private final int gapWidth;
     private transient float[] pathX = new float[0];
     private transient float[] pathY = new float[0];
+    private boolean incrementalSweep;
+    // incremental sweep: plot-area raster, per-slot pixel positions and what they were built for
+    private transient final RasterBuffer sweepRaster = new RasterBuffer();
+    private transient final double[] sweepKey = new double[12];
+    private transient final double[] sweepKeyNow = new double[12];
+    private transient ChartModel sweepModel;
+    private transient long sweepEnd = -1;
+    private transient long sweepFirst = -1;
+    private transient boolean sweepOrdered;
+    private transient float[] slotX = new float[0];
+    private transient float[] slotY = new float[0];
 
     protected AbstractMedicalSweepRenderer(ArberColor color, float strokeWidth, int gapWidth) {
         super("medicalSweep");
@@ -45,20 +67,45 @@ public abstract class AbstractMedicalSweepRenderer extends com.arbergashi.charts
         nameTranslator = translator != null ? translator : key -> key;
     }
 
+    public boolean isIncrementalSweep() {
+        return incrementalSweep;
+    }
+
+    /**
+     * Enables the incremental sweep. Each frame then clears only the erase strip of a persistent
+     * raster and rasterizes the samples that arrived since the previous frame; the raster is
+     * rebuilt on resize, zoom, color change, or when the model was cleared or overran the ring.
+     * Models whose x values do not advance with the ring slot (no sweep layout) are rebuilt every
+     * frame. Raster traces are not anti-aliased.
+     *
+     * @since 2.1.0
+     */
+    public AbstractMedicalSweepRenderer setIncrementalSweep(boolean enabled) {
+        this.incrementalSweep = enabled;
+        this.sweepModel = null;
+        return this;
+    }
+
     @Override
     protected void drawData(ArberCanvas canvas, ChartModel model, PlotContext context) {
         if (!(model instanceof CircularFastMedicalModel circleModel)) return;
-        double[] rawX = circleModel.getXData();
-        double[] rawY = circleModel.getRawChannelArray(getChannelIndex());
-        int head = circleModel.getRawHeadIndex();
-        int capacity = circleModel.getRawCapacity();
+        CircularFastMedicalModel.Snapshot snap = circleModel.readSnapshot(snapshot, getChannelIndex(), 1);
+        if (snap.getSize() == 0) return;
+        if (incrementalSweep) {
+            drawIncremental(canvas, model, snap, context);
+            return;
+        }
+        double[] rawX = snap.getX();
+        double[] rawY = snap.getY(getChannelIndex());
+        int head = snap.getHead();
+        int capacity = snap.getCapacity();
         int gapEnd = (head + gapWidth) % capacity;
         boolean wrap = head > gapEnd;
         ensureBufferCapacity(capacity);
         boolean firstPointAfterGap = true;
         int count = 0;
         for (int i = 0; i < capacity; i++) {
-            if (wrap ? (i >= head || i < gapEnd) : (i >= head && i < gapEnd)) {
+            if ((wrap ? (i >= head || i < gapEnd) : (i >= head && i < gapEnd)) || !snap.isValid(i)) {
                 if (count > 1) {
                     canvas.setColor(getResolvedWaveColor(model, context));
                     canvas.setStroke(strokeWidth);
@@ -87,6 +134,136 @@ public abstract class AbstractMedicalSweepRenderer extends com.arbergashi.charts
         }
     }
 
+    private void drawIncremental(ArberCanvas canvas, ChartModel model, CircularFastMedicalModel.Snapshot snap,
+                                 PlotContext context) {
+        ArberRect bounds = context.getPlotBounds();
+        int ox = (int) Math.floor(bounds.x());
+        int oy = (int) Math.floor(bounds.y());
+        int w = (int) Math.ceil(bounds.x() + bounds.width()) - ox;
+        int h = (int) Math.ceil(bounds.y() + bounds.height()) - oy;
+        if (w <= 0 || h <= 0) return;
+        int argb = getResolvedWaveColor(model, context).argb();
+        int capacity = snap.getCapacity();
+        long first = snap.getFirstSequence();
+        long end = first + snap.getSize();
+
+        context.mapToPixel(context.getMinX(), context.getMinY(), sharedCoord);
+        double[] key = sweepKeyNow;
+        key[0] = bounds.x();
+        key[1] = bounds.y();
+        key[2] = bounds.width();
+        key[3] = bounds.height();
+        key[4] = context.getMinX();
+        key[5] = context.getMaxX();
+        key[6] = context.getMinY();
+        key[7] = context.getMaxY();
+        key[8] = sharedCoord[0];
+        key[9] = sharedCoord[1];
+        key[10] = context.isLogarithmicY() ? 1 : 0;
+        key[11] = argb;
+
+        boolean full = sweepRaster.resize(w, h) | slotX.length != capacity
+                || model != sweepModel || !Arrays.equals(sweepKey, key) || !sweepOrdered
+                || end < sweepEnd || sweepEnd < first
+                || end - sweepEnd + 1 + gapWidth >= capacity
+                || (first != sweepFirst && snap.getSize() < capacity); // cleared since the last frame
+        if (slotX.length != capacity) {
+            slotX = new float[capacity];
+            slotY = new float[capacity];
+        }
+        if (full) {
+            repaintSweep(snap, context, ox, oy, argb);
+        } else if (end > sweepEnd && !updateSweep(snap, context, ox, oy, argb, end)) {
+            repaintSweep(snap, context, ox, oy, argb);
+        }
+        System.arraycopy(key, 0, sweepKey, 0, key.length);
+        sweepModel = model;
+        sweepEnd = end;
+        sweepFirst = first;
+        canvas.drawRaster(sweepRaster, ox, oy);
+    }
+
+    private void repaintSweep(CircularFastMedicalModel.Snapshot snap, PlotContext context, int ox, int oy, int argb) {
+        sweepRaster.clear();
+        int capacity = snap.getCapacity();
+        boolean ordered = true;
+        float last = Float.NEGATIVE_INFINITY;
+        for (int j = 0; j < capacity; j++) {
+            if (!snap.isValid(j)) continue;
+            project(snap, context, j, ox, oy);
+            if (!(slotX[j] >= last)) ordered = false;
+            last = slotX[j];
+        }
+        sweepOrdered = ordered;
+        for (int j = 1; j < capacity; j++) drawSegment(snap, j, argb);
+    }
+
+    private boolean updateSweep(CircularFastMedicalModel.Snapshot snap, PlotContext context, int ox, int oy, int argb, long end) {
+        int capacity = snap.getCapacity();
+        for (long s = sweepEnd; s < end; s++) project(snap, context, (int) (s % capacity), ox, oy);
+        // slots whose segments change: the last old sample, the new ones, the erase gap and the slot after it
+        long startSeq = Math.max(snap.getFirstSequence(), sweepEnd - 1);
+        int start = (int) (startSeq % capacity);
+        int count = (int) (end - startSeq) + gapWidth + 1;
+        for (int k = 0; k < count; ) {
+            int a = (start + k) % capacity;
+            int len = Math.min(count - k, capacity - a);
+            if (!refreshRun(snap, a, a + len - 1, argb)) return false;
+            k += len;
+        }
+        return true;
+    }
+
+    /**
+     * Clears the columns covered by slots {@code a..b} and redraws every segment that can reach
+     * them. Returns {@code false} if the slots break the sweep layout (x not advancing with the slot).
+     */
+    private boolean refreshRun(CircularFastMedicalModel.Snapshot snap, int a, int b, int argb) {
+        int capacity = snap.getCapacity();
+        float lo = Float.POSITIVE_INFINITY;
+        float hi = Float.NEGATIVE_INFINITY;
+        for (int j = a; j <= b; j++) {
+            if (!snap.isValid(j)) continue;
+            float x = slotX[j];
+            if (!(x >= hi || hi == Float.NEGATIVE_INFINITY)) return false;
+            lo = Math.min(lo, x);
+            hi = Math.max(hi, x);
+        }
+        if (lo > hi) return true;
+        if (a > 0 && snap.isValid(a - 1) && !(slotX[a - 1] <= lo)) return false;
+        if (b < capacity - 1 && snap.isValid(b + 1) && !(slotX[b + 1] >= hi)) return false;
+
+        int margin = Math.round(strokeWidth) + 1;
+        int c0 = (int) Math.floor(lo) - margin;
+        int c1 = (int) Math.ceil(hi) + margin;
+        sweepRaster.clearColumns(c0, c1);
+        int jLo = Math.max(1, a);
+        while (jLo > 1 && snap.isValid(jLo - 1) && slotX[jLo - 1] + margin >= c0) jLo--;
+        int jHi = b;
+        while (jHi < capacity - 1 && snap.isValid(jHi + 1) && slotX[jHi] - margin <= c1) jHi++;
+        for (int j = jLo; j <= jHi; j++) drawSegment(snap, j, argb);
+        return true;
+    }
+
+    private void project(CircularFastMedicalModel.Snapshot snap, PlotContext context, int slot, int ox, int oy) {
+        context.mapToPixel(snap.getX()[slot], snap.getY(getChannelIndex())[slot], sharedCoord);
+        slotX[slot] = (float) (sharedCoord[0] - ox);
+        slotY[slot] = (float) (sharedCoord[1] - oy);
+    }
+
+    private void drawSegment(CircularFastMedicalModel.Snapshot snap, int j, int argb) {
+        if (!isTraced(snap, j - 1) || !isTraced(snap, j)) return;
+        sweepRaster.drawLine(slotX[j - 1], slotY[j - 1], slotX[j], slotY[j], argb, strokeWidth);
+    }
+
+    private boolean isTraced(CircularFastMedicalModel.Snapshot snap, int slot) {
+        int capacity = snap.getCapacity();
+        int head = snap.getHead();
+        int gapEnd = (head + gapWidth) % capacity;
+        boolean inGap = head > gapEnd ? (slot >= head || slot < gapEnd) : (slot >= head && slot < gapEnd);
+        return !inGap && snap.isValid(slot);
+    }
+
     protected ArberColor getResolvedWaveColor(ChartModel model, PlotContext context) {
         if (model != null && model.getColor() != null) return model.getColor();
         if (context != null) {
@@ -111,26 +288,36 @@ public abstract class AbstractMedicalSweepRenderer extends com.arbergashi.charts
     @Override
     public Optional<Integer> getPointAt(ArberPoint pixel, ChartModel model, PlotContext context) {
         if (!(model instanceof CircularFastMedicalModel circleModel)) return Optional.empty();
-        double[] rawX = circleModel.getXData();
-        double[] rawY = circleModel.getRawChannelArray(getChannelIndex());
-        int head = circleModel.getRawHeadIndex();
-        int capacity = circleModel.getRawCapacity();
+        int channel = getChannelIndex();
         int size = circleModel.getPointCount();
         if (size == 0) return Optional.empty();
         double minDistSq = Double.MAX_VALUE;
         int bestIdx = -1;
         // reuse sharedCoord buffer to avoid allocations
         double[] coord = this.sharedCoord;
-        for (int i = 0; i < size; i++) {
-            int idx = (head - size + i + capacity) % capacity;
-            context.mapToPixel(rawX[idx], rawY[idx], coord);
-            double dx = coord[0] - pixel.x();
-            double dy = coord[1] - pixel.y();
-            double distSq = dx * dx + dy * dy;
-            if (distSq < minDistSq) {
-                minDistSq = distSq;
-                bestIdx = i;
+        // time-ordered sweeps narrow the scan to the samples under the hit radius
+        int from = 0;
+        int to = size;
+        context.mapToData(pixel.x() - 16, pixel.y(), coord);
+        double xa = coord[0];
+        context.mapToData(pixel.x() + 16, pixel.y(), coord);
+        if (PointIndex.forModel(circleModel).xWindow(circleModel, xa, coord[0], hitRange)) {
+            from = hitRange[0];
+            to = Math.min(size, hitRange[1]);
+        }
+        try {
+            for (int i = from; i < to; i++) {
+                context.mapToPixel(circleModel.getX(i), circleModel.getY(i, channel), coord);
+                double dx = coord[0] - pixel.x();
+                double dy = coord[1] - pixel.y();
+                double distSq = dx * dx + dy * dy;
+                if (distSq < minDistSq) {
+                    minDistSq = distSq;
+                    bestIdx = i;
+                }
             }
+        } catch (IndexOutOfBoundsException clearedMeanwhile) {
+            return Optional.empty();
         }
         // Only return if within a reasonable pixel threshold (e.g., 16px)
         if (minDistSq < 16 * 16) {
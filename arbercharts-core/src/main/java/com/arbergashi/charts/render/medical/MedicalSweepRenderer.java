@@ -24,6 +24,7 @@ public class MedicalSweepRenderer extends BaseRenderer {
     private final double[] pixel = new double[2]; // allocation-free pixel buffer
     private transient float[] pathX = new float[0];
     private transient float[] pathY = new float[0];
+    private final CircularFastMedicalModel.Snapshot snapshot = new CircularFastMedicalModel.Snapshot();
     public MedicalSweepRenderer() {
         super("medical_sweep");
     }
@@ -35,13 +36,13 @@ public class MedicalSweepRenderer extends BaseRenderer {
         if (!(model instanceof CircularFastMedicalModel m)) {
             return; // Only accepts CircularFastMedicalModel
         }
-        int size = m.getRawSize();
-        int capacity = m.getRawCapacity();
-        int head = m.getRawHeadIndex();
-        if (size == 0) return;
+        CircularFastMedicalModel.Snapshot snap = m.readSnapshot(snapshot, 0, 2);
+        int capacity = snap.getCapacity();
+        int head = snap.getHead();
+        if (snap.getSize() == 0) return;
 
-        double[] xRaw = m.getRawChannelArray(0);
-        double[] yRaw = m.getRawChannelArray(1); // Channel 1 is standard for medical Y
+        double[] xRaw = snap.getY(0);
+        double[] yRaw = snap.getY(1); // Channel 1 is standard for medical Y
 
         ensureBufferCapacity(capacity);
         canvas.setStroke(1.5f);
@@ -51,7 +52,7 @@ public class MedicalSweepRenderer extends BaseRenderer {
         boolean firstPoint = true;
         int count = 0;
         for (int i = 0; i < capacity; i++) {
-            if (isInsideGap(i, head, capacity)) {
+            if (isInsideGap(i, head, capacity) || !snap.isValid(i)) {
                 if (count > 1) {
                     canvas.drawPolyline(pathX, pathY, count);
                 }
@@ -26,6 +26,7 @@ public class SpectrogramMedicalRenderer extends BaseRenderer {
     private final float[] lineY = new float[2];
     private final ArberColor[] colorPalette = new ArberColor[256];
     private transient int themeKey;
+    private final CircularFastMedicalModel.Snapshot snapshot = new CircularFastMedicalModel.Snapshot();
 
     public SpectrogramMedicalRenderer() {
         super("spectrogram_medical");
@@ -38,19 +39,22 @@ public class SpectrogramMedicalRenderer extends BaseRenderer {
         if (!(model instanceof CircularFastMedicalModel circleModel)) return;
         ChartTheme theme = getResolvedTheme(context);
         ensurePalette(theme);
-        double[] rawX = circleModel.getXData();
-        double[] rawY = circleModel.getRawChannelArray(0); // frequency/depth
-        int capacity = circleModel.getRawCapacity();
-        int head = circleModel.getRawHeadIndex();
+        CircularFastMedicalModel.Snapshot snap = circleModel.readSnapshot(snapshot, 0, 2);
+        if (snap.getSize() == 0) return;
+        double[] rawX = snap.getX();
+        double[] rawY = snap.getY(0); // frequency/depth
+        double[] intensity = snap.getY(1);
+        int capacity = snap.getCapacity();
+        int head = snap.getHead();
         int gapEnd = (head + 15) % capacity;
         boolean wrap = head > gapEnd;
         double minY = context.getMinY();
         canvas.setStroke(1.5f);
         for (int i = 0; i < capacity; i++) {
             // Sweep-erase gap check.
-            if (wrap ? (i >= head || i < gapEnd) : (i >= head && i < gapEnd)) continue;
+            if ((wrap ? (i >= head || i < gapEnd) : (i >= head && i < gapEnd)) || !snap.isValid(i)) continue;
             // Intensity from channel 1 (0-255).
-            double intensityVal = circleModel.getYRaw(i, 1);
+            double intensityVal = intensity[i];
             int colorIdx = (int) Math.max(0, Math.min(255, intensityVal));
             context.mapToPixel(rawX[i], minY, d1);
             context.mapToPixel(rawX[i], rawY[i], d2);
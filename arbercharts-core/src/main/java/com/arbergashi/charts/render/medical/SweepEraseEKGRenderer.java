@@ -19,6 +19,7 @@ public class SweepEraseEKGRenderer extends BaseRenderer {
     private final double[] sharedCoord = new double[2];
     private transient float[] pathX = new float[0];
     private transient float[] pathY = new float[0];
+    private final CircularFastMedicalModel.Snapshot snapshot = new CircularFastMedicalModel.Snapshot();
     private final float[] pointX = new float[1];
     private final float[] pointY = new float[1];
     public SweepEraseEKGRenderer() {
@@ -31,10 +32,12 @@ public class SweepEraseEKGRenderer extends BaseRenderer {
     protected void drawData(ArberCanvas canvas, com.arbergashi.charts.model.ChartModel model, PlotContext context) {
         if (!(model instanceof CircularFastMedicalModel circleModel)) return;
         // 1. Preparation (outside the loop).
-        double[] rawX = circleModel.getXData();
-        double[] rawY = circleModel.getRawChannelArray(0);
-        int head = circleModel.getRawHeadIndex();
-        int capacity = circleModel.getRawCapacity();
+        CircularFastMedicalModel.Snapshot snap = circleModel.readSnapshot(snapshot, 0, 1);
+        if (snap.getSize() == 0) return;
+        double[] rawX = snap.getX();
+        double[] rawY = snap.getY(0);
+        int head = snap.getHead();
+        int capacity = snap.getCapacity();
         int gapEnd = (head + GAP_WIDTH) % capacity;
         boolean wrap = head > gapEnd;
         ensureBufferCapacity(capacity);
@@ -43,7 +46,7 @@ public class SweepEraseEKGRenderer extends BaseRenderer {
         // 2. Der High-Speed Loop
         for (int i = 0; i < capacity; i++) {
             // Optimized O(1) check.
-            if (wrap ? (i >= head || i < gapEnd) : (i >= head && i < gapEnd)) {
+            if ((wrap ? (i >= head || i < gapEnd) : (i >= head && i < gapEnd)) || !snap.isValid(i)) {
                 if (count > 1) {
                     canvas.setStroke(2f);
                     canvas.setColor(getWaveColor(model, context));
@@ -74,12 +77,13 @@ public class SweepEraseEKGRenderer extends BaseRenderer {
             canvas.setColor(getWaveColor(model, context));
             canvas.drawPolyline(pathX, pathY, count);
         }
-        drawLeadingPoint(canvas, context, circleModel, head);
+        drawLeadingPoint(canvas, context, snap);
     }
 
-    private void drawLeadingPoint(ArberCanvas canvas, PlotContext context, CircularFastMedicalModel model, int head) {
-        int lastPoint = (head - 1 + model.getCapacity()) % model.getCapacity();
-        context.mapToPixel((double) lastPoint / model.getCapacity(), model.getYRaw(lastPoint, 0), sharedCoord);
+    private void drawLeadingPoint(ArberCanvas canvas, PlotContext context, CircularFastMedicalModel.Snapshot snap) {
+        int capacity = snap.getCapacity();
+        int lastPoint = (snap.getHead() - 1 + capacity) % capacity;
+        context.mapToPixel((double) lastPoint / capacity, snap.getY(0)[lastPoint], sharedCoord);
         canvas.setColor(themeForeground(context));
         float cx = (float) sharedCoord[0];
         float cy = (float) sharedCoord[1];
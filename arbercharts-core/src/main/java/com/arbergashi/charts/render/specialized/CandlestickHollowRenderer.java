@@ -6,6 +6,7 @@ import com.arbergashi.charts.api.types.ArberPoint;
 import com.arbergashi.charts.core.geometry.ArberRect;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
 import com.arbergashi.charts.internal.HitTestUtils;
+import com.arbergashi.charts.internal.OhlcPyramid;
 import com.arbergashi.charts.internal.RendererDescriptor;
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.platform.render.RendererRegistry;
@@ -15,7 +16,7 @@ import java.util.Optional;
 /**
  * Hollow Candlestick renderer: draws hollow (bullish) and filled (bearish) candlesticks optimized for Swing.
  * Reuses shape objects and scaled strokes to avoid allocations in the paint loop. For very dense datasets
- * it aggregates points into pixel-bins to drastically reduce draw operations and GC pressure.
+ * it merges the bars of each pixel column into one OHLC bar to drastically reduce draw operations.
  *
  * @author Arber Gashi
  * @version 1.0.0
@@ -30,9 +31,8 @@ public class CandlestickHollowRenderer extends BaseRenderer {
     }
 
     private final double[] pBuffer = new double[2];
-    // aggregation buffers when dataset is dense
-    private transient boolean[] hasBucket;
-    private transient double[] aggOpen, aggClose, aggHigh, aggLow, aggX;
+    // per-column OHLC merging when the dataset is dense
+    private final OhlcPyramid pyramid = new OhlcPyramid();
     private transient ArberColor bullishColor;
     private transient ArberColor bearishColor;
     private transient ArberColor outlineColor;
@@ -61,85 +61,34 @@ public class CandlestickHollowRenderer extends BaseRenderer {
 
         canvas.setStroke(getSeriesStrokeWidth());
 
-        // Decide whether to aggregate by pixel column
-        boolean aggregate = n > Math.max(2000, bounds.width() * 2);
-        if (aggregate) {
-            int buckets = Math.max(1, (int) bounds.width());
-            ensureAggBuffers(buckets);
-            // reset
-            for (int i = 0; i < buckets; i++) hasBucket[i] = false;
-
-            // accumulate OHLC per bucket
-            for (int i = 0; i < n; i++) {
-                context.mapToPixel(xData[i], closeData[i], pBuffer);
-                double c = pBuffer[1];
-                double x = pBuffer[0];
-
-                context.mapToPixel(xData[i], openData[i], pBuffer);
-                double o = pBuffer[1];
-
-                context.mapToPixel(xData[i], highData[i], pBuffer);
-                double h = pBuffer[1];
-
-                context.mapToPixel(xData[i], lowData[i], pBuffer);
-                double l = pBuffer[1];
-
-                int bi = (int) Math.round(x - bounds.x());
-                if (bi < 0) continue;
-                if (bi >= buckets) {
-                    bi = buckets - 1;
-                }
-
-
-                if (!hasBucket[bi]) {
-                    hasBucket[bi] = true;
-                    aggOpen[bi] = o;
-                    aggClose[bi] = c;
-                    aggHigh[bi] = h;
-                    aggLow[bi] = l;
-                    aggX[bi] = x;
-                } else {
-                    // open: keep first (leftmost) -> approximate by minimal x
-                    if (x < aggX[bi]) aggOpen[bi] = o;
-                    // close: keep last (rightmost)
-                    if (x >= aggX[bi]) aggClose[bi] = c;
-                    if (h < aggHigh[bi]) aggHigh[bi] = h; // y smaller means higher pixel? keep extreme conservatively
-                    if (l > aggLow[bi]) aggLow[bi] = l;
-                    aggX[bi] = x; // update last x
-                }
-            }
-
-            // draw aggregated buckets
-            for (int bi = 0; bi < aggX.length; bi++) {
-                if (!hasBucket[bi]) continue;
-                double cx = aggX[bi];
-                double left = cx - barWidth / 2.0;
-                double right = cx + barWidth / 2.0;
+        if (pyramid.merge(model, context, false)) {
+            // one synthetic OHLC bar per pixel column (first open, max high, min low, last close)
+            for (int b = 0, bins = pyramid.getBinCount(); b < bins; b++) {
+                double xVal = pyramid.getBinX(b);
+                double cx = pyramid.getBinPixelX(b);
+                context.mapToPixel(xVal, pyramid.getBinHigh(b), pBuffer);
+                double highY = pBuffer[1];
+                context.mapToPixel(xVal, pyramid.getBinLow(b), pBuffer);
+                double lowY = pBuffer[1];
+                context.mapToPixel(xVal, pyramid.getBinOpen(b), pBuffer);
+                double openY = pBuffer[1];
+                context.mapToPixel(xVal, pyramid.getBinClose(b), pBuffer);
+                double closeY = pBuffer[1];
 
-                double highY = aggHigh[bi];
-                double lowY = aggLow[bi];
                 canvas.setColor(outlineColor);
                 drawLine(canvas, cx, highY, cx, lowY);
 
-                double top = Math.min(aggOpen[bi], aggClose[bi]);
-                double height = Math.max(Math.abs(aggOpen[bi] - aggClose[bi]), ChartScale.scale(1.0f));
-                float rx = (float) left;
-                float ry = (float) top;
-                float rw = (float) Math.max(1.0, right - left);
-                float rh = (float) height;
-
-                boolean bullishCandle = aggClose[bi] < aggOpen[bi];
-                if (bullishCandle) {
+                float top = (float) Math.min(openY, closeY);
+                float height = (float) Math.max(Math.abs(openY - closeY), 1.0);
+                if (closeY < openY) {
+                    // hollow: stroke only, as in the per-point path
                     canvas.setColor(bullishColor);
-                    canvas.drawRect(rx, ry, rw, rh);
+                    canvas.drawRect((float) (cx - 0.5), top, 1.0f, height);
                 } else {
                     canvas.setColor(bearishColor);
-                    canvas.fillRect(rx, ry, rw, rh);
-                    canvas.setColor(outlineColor);
-                    canvas.drawRect(rx, ry, rw, rh);
+                    canvas.fillRect((float) (cx - 0.5), top, 1.0f, height);
                 }
             }
-
         } else {
             // original per-point rendering
             for (int i = 0; i < n; i++) {
@@ -190,17 +139,6 @@ public class CandlestickHollowRenderer extends BaseRenderer {
         }
     }
 
-    private void ensureAggBuffers(int buckets) {
-        if (hasBucket == null || hasBucket.length < buckets) {
-            hasBucket = new boolean[buckets];
-            aggOpen = new double[buckets];
-            aggClose = new double[buckets];
-            aggHigh = new double[buckets];
-            aggLow = new double[buckets];
-            aggX = new double[buckets];
-        }
-    }
-
     private void ensureUiColors(PlotContext context) {
         int key = System.identityHashCode(getResolvedTheme(context));
         if (key == themeKey && bullishColor != null) return;
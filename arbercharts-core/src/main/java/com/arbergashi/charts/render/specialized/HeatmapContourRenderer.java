@@ -1,17 +1,29 @@
 package com.arbergashi.charts.render.specialized;
 
+import com.arbergashi.charts.api.ChartTheme;
 import com.arbergashi.charts.api.PlotContext;
 import com.arbergashi.charts.api.types.ArberColor;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.engine.contour.ContourEngine;
+import com.arbergashi.charts.engine.contour.ContourGrid;
+import com.arbergashi.charts.engine.contour.ContourSet;
 import com.arbergashi.charts.internal.RendererDescriptor;
 import com.arbergashi.charts.platform.render.RendererRegistry;
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.render.BaseRenderer;
+import com.arbergashi.charts.tools.RendererAllocationCache;
+import com.arbergashi.charts.util.ChartScale;
 import com.arbergashi.charts.util.ColorUtils;
 
 /**
  * Heatmap Contour Renderer (headless).
- * Displays temperature or concentration distributions using a grid of colored rectangles.
+ * Displays temperature or concentration distributions as filled iso-bands with iso-lines on top.
+ *
+ * <p>Scattered {@code (x, y, weight)} samples are gridded once per model revision
+ * ({@link ContourGrid#fromScattered}); the iso-lines come from {@link ContourEngine}. Both are
+ * cached until the model's update stamp, the point count or the level count changes, so a
+ * steady frame only maps cached coordinates. Band colours are read from a precomputed LUT and
+ * equal neighbouring cells of a row are merged into one rectangle.</p>
  *
  * @author Arber Gashi
  * @version 1.0.0
@@ -24,7 +36,24 @@ public class HeatmapContourRenderer extends BaseRenderer {
         RendererRegistry.register("heatmap_contour", new RendererDescriptor("heatmap_contour", "renderer.heatmap_contour", "/icons/heatmap.svg"), HeatmapContourRenderer::new);
     }
 
+    private static final int MIN_RESOLUTION = 16;
+    private static final int MAX_RESOLUTION = 256;
+
+    private final ArberColor[] colorLut = new ArberColor[256];
+    private ChartTheme lastTheme;
+    private boolean lastMultiColor;
+    private ArberColor lineColor;
+
     private boolean interpolate = true;
+    private int contourLevels = 8;
+
+    private Object cachedModel;
+    private long cachedStamp = -1;
+    private int cachedCount = -1;
+    private int cachedLevels = -1;
+    private ContourGrid grid;
+    private ContourSet contours;
+    private final double[] zRange = new double[2];
 
     public HeatmapContourRenderer() {
         super("heatmap_contour");
@@ -34,11 +63,28 @@ public class HeatmapContourRenderer extends BaseRenderer {
         return interpolate;
     }
 
+    /**
+     * Smooth shading when {@code true}; one flat colour per iso-band otherwise.
+     */
     public HeatmapContourRenderer setInterpolate(boolean interpolate) {
         this.interpolate = interpolate;
         return this;
     }
 
+    public int getContourLevels() {
+        return contourLevels;
+    }
+
+    /**
+     * Sets the number of iso-lines, evenly spaced over the value range ({@code 0} disables them).
+     *
+     * @since 2.1.0
+     */
+    public HeatmapContourRenderer setContourLevels(int contourLevels) {
+        this.contourLevels = Math.max(0, contourLevels);
+        return this;
+    }
+
     /**
      * @since 1.5.0
      */
@@ -46,67 +92,127 @@ public class HeatmapContourRenderer extends BaseRenderer {
     protected void drawData(ArberCanvas canvas, ChartModel model, PlotContext context) {
         int count = model.getPointCount();
         if (count == 0) return;
+        ensureLut(context);
+        if (!ensureContours(model, count)) return;
+        fillBands(canvas, context);
+        drawContours(canvas, context);
+    }
 
-        double minZ = Double.POSITIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
-        for (int i = 0; i < count; i++) {
-            double v = model.getWeight(i);
-            if (v < minZ) minZ = v;
-            if (v > maxZ) maxZ = v;
+    private boolean ensureContours(ChartModel model, int count) {
+        long stamp = model.getUpdateStamp();
+        if (grid != null && cachedModel == model && cachedStamp == stamp && cachedCount == count
+                && cachedLevels == contourLevels) {
+            return true;
         }
-        double rangeZ = Math.max(1e-10, maxZ - minZ);
-
-        double avgStepX = context.rangeX() / Math.sqrt(Math.max(1, count));
-        double avgStepY = context.rangeY() / Math.sqrt(Math.max(1, count));
-
-        double[] pPixel = pBuffer();
-        double[] pSize = pBuffer4();
-
+        double[] xs = RendererAllocationCache.getDoubleArray(this, "contour.xs", count);
+        double[] ys = RendererAllocationCache.getDoubleArray(this, "contour.ys", count);
+        double[] zs = RendererAllocationCache.getDoubleArray(this, "contour.zs", count);
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
         for (int i = 0; i < count; i++) {
             double x = model.getX(i);
             double y = model.getY(i);
-            double intensity = (model.getWeight(i) - minZ) / rangeZ;
-            ArberColor c = getColorForIntensity(intensity, context);
-            canvas.setColor(c);
-
-            double x1 = x - avgStepX / 2.0;
-            double y1 = y - avgStepY / 2.0;
-
-            context.mapToPixel(x1, y1 + avgStepY, pPixel);
-            context.mapToPixel(x + avgStepX / 2.0, y1, pSize);
-
-            double w = Math.abs(pSize[0] - pPixel[0]);
-            double h = Math.abs(pSize[1] - pPixel[1]);
+            xs[i] = x;
+            ys[i] = y;
+            zs[i] = model.getWeight(i);
+            if (x < minX) minX = x;
+            if (x > maxX) maxX = x;
+            if (y < minY) minY = y;
+            if (y > maxY) maxY = y;
+        }
+        if (!(minX <= maxX) || !(minY <= maxY)) return false;
+        // Half a sample spacing of margin so border samples get full cells, like the old per-point rects.
+        int res = Math.clamp((int) Math.ceil(Math.sqrt(count)), MIN_RESOLUTION, MAX_RESOLUTION);
+        double padX = maxX > minX ? (maxX - minX) / (2.0 * res) : 0.5;
+        double padY = maxY > minY ? (maxY - minY) / (2.0 * res) : 0.5;
+        grid = ContourGrid.fromScattered(xs, ys, zs, count, res, res, minX - padX, maxX + padX, minY - padY, maxY + padY);
+        grid.getValueRange(zRange);
+        contours = ContourEngine.extract(grid, ContourEngine.evenLevels(zRange[0], zRange[1], contourLevels));
+        cachedModel = model;
+        cachedStamp = stamp;
+        cachedCount = count;
+        cachedLevels = contourLevels;
+        return true;
+    }
 
-            canvas.fillRect((float) pPixel[0], (float) pPixel[1], (float) Math.max(1.0, w), (float) Math.max(1.0, h));
+    private void fillBands(ArberCanvas canvas, PlotContext context) {
+        int cols = grid.getCols();
+        int rows = grid.getRows();
+        double minZ = zRange[0];
+        double rangeZ = Math.max(1e-10, zRange[1] - minZ);
+        int bands = contourLevels + 1;
+        double[] p0 = pBuffer();
+        double[] p1 = pBuffer4();
+        for (int r = 0; r < rows - 1; r++) {
+            double y0 = grid.getNodeY(r);
+            double y1 = grid.getNodeY(r + 1);
+            if (y1 < context.getMinY() || y0 > context.getMaxY()) continue;
+            int runStart = 0;
+            int runIdx = -1;
+            for (int c = 0; c <= cols - 1; c++) {
+                int idx = -1;
+                if (c < cols - 1) {
+                    double v = (grid.get(c, r) + grid.get(c + 1, r) + grid.get(c, r + 1) + grid.get(c + 1, r + 1)) * 0.25;
+                    if (!Double.isNaN(v)) {
+                        double t = Math.clamp((v - minZ) / rangeZ, 0.0, 1.0);
+                        if (interpolate) {
+                            idx = (int) (t * 255);
+                        } else {
+                            int band = Math.min(bands - 1, (int) (t * bands));
+                            idx = bands == 1 ? 0 : band * 255 / (bands - 1);
+                        }
+                    }
+                }
+                if (idx == runIdx) continue;
+                if (runIdx >= 0) {
+                    context.mapToPixel(grid.getNodeX(runStart), y0, p0);
+                    context.mapToPixel(grid.getNodeX(c), y1, p1);
+                    canvas.setColor(colorLut[runIdx]);
+                    float px = (float) Math.min(p0[0], p1[0]);
+                    float py = (float) Math.min(p0[1], p1[1]);
+                    canvas.fillRect(px, py, (float) Math.ceil(Math.abs(p1[0] - p0[0])), (float) Math.ceil(Math.abs(p1[1] - p0[1])));
+                }
+                runStart = c;
+                runIdx = idx;
+            }
         }
     }
 
-    private ArberColor getColorForIntensity(double intensity, PlotContext context) {
-        ArberColor c0;
-        ArberColor c1;
-        ArberColor c2;
-        ArberColor c3;
-        if (isMultiColor()) {
-            c0 = themeSeries(context, 0);
-            c1 = themeSeries(context, 1);
-            c2 = themeSeries(context, 2);
-            c3 = themeSeries(context, 3);
-        } else {
-            ArberColor base = themeAccent(context);
-            c0 = ColorUtils.applyAlpha(base, 0.25f);
-            c1 = ColorUtils.applyAlpha(base, 0.45f);
-            c2 = ColorUtils.applyAlpha(base, 0.65f);
-            c3 = ColorUtils.applyAlpha(base, 0.85f);
+    private void drawContours(ArberCanvas canvas, PlotContext context) {
+        int lines = contours.getLineCount();
+        if (lines == 0) return;
+        canvas.setColor(lineColor);
+        canvas.setStroke(ChartScale.scale(1.0f));
+        double[] p = pBuffer();
+        for (int l = 0; l < lines; l++) {
+            int start = contours.getLineStart(l);
+            int n = contours.getLineEnd(l) - start;
+            if (n < 2) continue;
+            float[] xs = RendererAllocationCache.getFloatArray(this, "contour.px", n);
+            float[] ys = RendererAllocationCache.getFloatArray(this, "contour.py", n);
+            for (int i = 0; i < n; i++) {
+                context.mapToPixel(contours.getX(start + i), contours.getY(start + i), p);
+                xs[i] = (float) p[0];
+                ys[i] = (float) p[1];
+            }
+            canvas.drawPolyline(xs, ys, n);
         }
-        if (intensity <= 0) return c0;
-        if (intensity >= 1) return c3;
+    }
 
-        if (intensity < 0.33) {
-            return ColorUtils.interpolate(c0, c1, (float) (intensity / 0.33));
-        } else if (intensity < 0.66) {
-            return ColorUtils.interpolate(c1, c2, (float) ((intensity - 0.33) / 0.33));
+    private void ensureLut(PlotContext context) {
+        ChartTheme theme = getResolvedTheme(context);
+        boolean multi = isMultiColor();
+        if (theme == lastTheme && multi == lastMultiColor) return;
+        lastTheme = theme;
+        lastMultiColor = multi;
+        if (multi) {
+            ColorUtils.fillGradientLut(colorLut, theme.getSeriesColor(0), theme.getSeriesColor(1),
+                    theme.getSeriesColor(2), theme.getSeriesColor(3));
         } else {
-            return ColorUtils.interpolate(c2, c3, (float) ((intensity - 0.66) / 0.34));
+            ArberColor base = theme.getAccentColor();
+            ColorUtils.fillGradientLut(colorLut, ColorUtils.applyAlpha(base, 0.25f), ColorUtils.applyAlpha(base, 0.45f),
+                    ColorUtils.applyAlpha(base, 0.65f), ColorUtils.applyAlpha(base, 0.85f));
         }
+        lineColor = ColorUtils.applyAlpha(theme.getForeground(), 0.55f);
     }
 }
@@ -3,6 +3,10 @@ package com.arbergashi.charts.render.specialized;
 import com.arbergashi.charts.api.types.ArberColor;
 import com.arbergashi.charts.api.types.ArberPoint;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.core.rendering.PrimitiveBatch;
+import com.arbergashi.charts.engine.contour.ContourEngine;
+import com.arbergashi.charts.engine.contour.ContourGrid;
+import com.arbergashi.charts.engine.contour.ContourSet;
 import com.arbergashi.charts.api.ChartTheme;
 import com.arbergashi.charts.api.PlotContext;
 import com.arbergashi.charts.internal.RendererDescriptor;
@@ -10,7 +14,9 @@ import com.arbergashi.charts.platform.render.RendererRegistry;
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.render.BaseRenderer;
 import com.arbergashi.charts.render.ChartRenderer;
+import com.arbergashi.charts.tools.RendererAllocationCache;
 import com.arbergashi.charts.util.ChartAssets;
+import com.arbergashi.charts.util.ChartScale;
 import com.arbergashi.charts.util.ColorUtils;
 import com.arbergashi.charts.util.MathUtils;
 /**
@@ -43,6 +49,7 @@ public class HeatmapRenderer extends BaseRenderer implements ChartRenderer {
     private final double[] p1 = new double[2];
     // Zero-Allocation: Color Lookup Table (LUT)
     private final ArberColor[] colorLut = new ArberColor[256];
+    private final PrimitiveBatch cells = new PrimitiveBatch();
     private ChartTheme lastTheme;
     private boolean lastMultiColor;
     private double[][] gridData;
@@ -53,6 +60,18 @@ public class HeatmapRenderer extends BaseRenderer implements ChartRenderer {
     private transient double lastHoverY;
     private transient double lastHoverValue;
     private transient boolean lastHoverValid;
+    // Density bins, reused while model revision and view bounds are unchanged
+    private Object densityModel;
+    private long densityStamp = -1;
+    private final double[] densityBounds = new double[4];
+    private double[][] densityBins;
+    private double densityMax;
+    // Optional iso-line overlay, invalidated whenever the underlying grid changes
+    private int contourLevels;
+    private double[][] contourSource;
+    private int contourSourceLevels = -1;
+    private ContourSet contours;
+    private ArberColor contourColor;
 
     public HeatmapRenderer() {
         super("heatmap");
@@ -162,6 +181,7 @@ public class HeatmapRenderer extends BaseRenderer implements ChartRenderer {
         this.gridMaxX = maxX;
         this.gridMinY = minY;
         this.gridMaxY = maxY;
+        this.contours = null;
 
         // Auto range for colors.
         minVal = Double.MAX_VALUE;
@@ -175,6 +195,21 @@ public class HeatmapRenderer extends BaseRenderer implements ChartRenderer {
         return this;
     }
 
+    public int getContourLevels() {
+        return contourLevels;
+    }
+
+    /**
+     * Enables an iso-line overlay with {@code levels} lines evenly spaced over the value range
+     * ({@code 0}, the default, disables it). Lines are extracted once per grid and cached.
+     *
+     * @since 2.1.0
+     */
+    public HeatmapRenderer setContourLevels(int levels) {
+        this.contourLevels = Math.max(0, levels);
+        return this;
+    }
+
     @Override/**
  * @since 1.5.0
  */
@@ -195,10 +230,6 @@ public class HeatmapRenderer extends BaseRenderer implements ChartRenderer {
         int cols = ChartAssets.getInt("chart.heatmap.cols", 64);
         int rows = ChartAssets.getInt("chart.heatmap.rows", 64);
 
-        // Temporary grid for binning (stack/heap, depends on resolution).
-        // For zero-allocation, this could be cached when cols/rows do not change.
-        double[][] bins = new double[rows][cols];
-
         double minX = context.getMinX();
         double maxX = context.getMaxX();
         double minY = context.getMinY();
@@ -208,36 +239,52 @@ public class HeatmapRenderer extends BaseRenderer implements ChartRenderer {
         double rangeY = maxY - minY;
         if (rangeX <= 0 || rangeY <= 0) return;
 
-        double[] xData = model.getXData();
-        double[] yData = model.getYData();
+        long stamp = model.getUpdateStamp();
+        boolean valid = densityBins != null && densityModel == model && densityStamp == stamp
+                && densityBins.length == rows && densityBins[0].length == cols
+                && densityBounds[0] == minX && densityBounds[1] == maxX
+                && densityBounds[2] == minY && densityBounds[3] == maxY;
+        if (!valid) {
+            double[][] bins = new double[rows][cols];
+            double[] xData = model.getXData();
+            double[] yData = model.getYData();
 
-        double maxBin = 0;
+            double maxBin = 0;
 
-        for (int i = 0; i < count; i++) {
-            double x = xData[i];
-            double y = yData[i];
+            for (int i = 0; i < count; i++) {
+                double x = xData[i];
+                double y = yData[i];
 
-            if (x < minX || x >= maxX || y < minY || y >= maxY) continue;
+                if (x < minX || x >= maxX || y < minY || y >= maxY) continue;
 
-            int c = (int) ((x - minX) / rangeX * cols);
-            int r = (int) ((y - minY) / rangeY * rows);
+                int c = (int) ((x - minX) / rangeX * cols);
+                int r = (int) ((y - minY) / rangeY * rows);
 
-            // Clamp indices
-            if (c >= cols) c = cols - 1;
-            if (r >= rows) r = rows - 1;
+                // Clamp indices
+                if (c >= cols) c = cols - 1;
+                if (r >= rows) r = rows - 1;
 
-            bins[r][c]++;
-            if (bins[r][c] > maxBin) maxBin = bins[r][c];
+                bins[r][c]++;
+                if (bins[r][c] > maxBin) maxBin = bins[r][c];
+            }
+            densityBins = bins;
+            densityMax = maxBin;
+            densityModel = model;
+            densityStamp = stamp;
+            densityBounds[0] = minX;
+            densityBounds[1] = maxX;
+            densityBounds[2] = minY;
+            densityBounds[3] = maxY;
         }
 
-        if (maxBin > 0) {
+        if (densityMax > 0) {
             // Temporarily override min/max for this render pass.
             double oldMin = this.minVal;
             double oldMax = this.maxVal;
             this.minVal = 0;
-            this.maxVal = maxBin;
+            this.maxVal = densityMax;
 
-            drawGrid(canvas, bins, minX, maxX, minY, maxY, context);
+            drawGrid(canvas, densityBins, minX, maxX, minY, maxY, context);
 
             this.minVal = oldMin;
             this.maxVal = oldMax;
@@ -257,7 +304,8 @@ public class HeatmapRenderer extends BaseRenderer implements ChartRenderer {
             return;
         }
 
-        // Iterate over the grid.
+        // Iterate over the grid, collecting cells into one batch.
+        cells.clear();
         for (int r = 0; r < rows; r++) {
             double y = minY + r * stepY;
             // Y-Culling
@@ -274,7 +322,6 @@ public class HeatmapRenderer extends BaseRenderer implements ChartRenderer {
                 // Compute color (simple heatmap gradient: blue -> green -> red).
                 float norm = (float) MathUtils.clamp((val - minVal) / (maxVal - minVal), 0, 1);
                 int colorIdx = (int) (norm * 255);
-                canvas.setColor(colorLut[colorIdx]);
 
                 // Pixel-Koordinaten berechnen
                 context.mapToPixel(x, y, p0);
@@ -285,9 +332,41 @@ public class HeatmapRenderer extends BaseRenderer implements ChartRenderer {
                 float pw = (float) Math.ceil(p1[0] - p0[0]);
                 float ph = (float) Math.ceil(p0[1] - p1[1]);
 
-                canvas.fillRect(px, py, pw, ph);
+                cells.addRect(px, py, pw, ph, colorLut[colorIdx]);
             }
         }
+        cells.fillRects(canvas);
+
+        if (contourLevels > 0) {
+            drawContours(canvas, data, minX, maxX, minY, maxY, context);
+        }
+    }
+
+    private void drawContours(ArberCanvas canvas, double[][] data, double minX, double maxX, double minY, double maxY, PlotContext context) {
+        if (data.length < 2 || data[0].length < 2) return;
+        if (contours == null || contourSource != data || contourSourceLevels != contourLevels) {
+            ContourGrid grid = ContourGrid.fromCells(data, minX, maxX, minY, maxY);
+            contours = ContourEngine.extract(grid, ContourEngine.evenLevels(minVal, maxVal, contourLevels));
+            contourSource = data;
+            contourSourceLevels = contourLevels;
+        }
+        int lines = contours.getLineCount();
+        if (lines == 0) return;
+        canvas.setColor(contourColor);
+        canvas.setStroke(ChartScale.scale(1.0f));
+        for (int l = 0; l < lines; l++) {
+            int start = contours.getLineStart(l);
+            int n = contours.getLineEnd(l) - start;
+            if (n < 2) continue;
+            float[] xs = RendererAllocationCache.getFloatArray(this, "heatmap.contourX", n);
+            float[] ys = RendererAllocationCache.getFloatArray(this, "heatmap.contourY", n);
+            for (int i = 0; i < n; i++) {
+                context.mapToPixel(contours.getX(start + i), contours.getY(start + i), p0);
+                xs[i] = (float) p0[0];
+                ys[i] = (float) p0[1];
+            }
+            canvas.drawPolyline(xs, ys, n);
+        }
     }
 
     private void ensureLut(PlotContext context) {
@@ -317,15 +396,7 @@ public class HeatmapRenderer extends BaseRenderer implements ChartRenderer {
             c3 = ColorUtils.applyAlpha(base, 0.85f);
         }
 
-        for (int i = 0; i < 256; i++) {
-            float t = i / 255.0f;
-            if (t < 0.33f) {
-                colorLut[i] = ColorUtils.interpolate(c0, c1, t / 0.33f);
-            } else if (t < 0.66f) {
-                colorLut[i] = ColorUtils.interpolate(c1, c2, (t - 0.33f) / 0.33f);
-            } else {
-                colorLut[i] = ColorUtils.interpolate(c2, c3, (t - 0.66f) / 0.34f);
-            }
-        }
+        ColorUtils.fillGradientLut(colorLut, c0, c1, c2, c3);
+        contourColor = ColorUtils.applyAlpha(theme.getForeground(), 0.55f);
     }
 }
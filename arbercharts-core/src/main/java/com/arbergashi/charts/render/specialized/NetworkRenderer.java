@@ -4,18 +4,21 @@ import com.arbergashi.charts.api.PlotContext;
 import com.arbergashi.charts.api.types.ArberColor;
 import com.arbergashi.charts.core.geometry.ArberRect;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.engine.graph.ForceDirectedLayout;
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.model.FlowChartModel;
 import com.arbergashi.charts.render.BaseRenderer;
 import com.arbergashi.charts.tools.RendererAllocationCache;
 import com.arbergashi.charts.util.ColorUtils;
 
-import java.util.List;
-
 /**
  * NetworkRenderer visualizes graph data (nodes and edges).
  * It expects a FlowChartModel.
  *
+ * <p>Node positions come from a {@link ForceDirectedLayout} owned by the renderer. The layout is
+ * advanced for at most {@link #setLayoutBudgetNanos(long) a small time budget} per frame until
+ * it converges and is cached afterwards; links are resolved through the layout's id index.</p>
+ *
  * @author Arber Gashi
  * @version 1.0.0
  * @since 2025-06-01
@@ -23,16 +26,39 @@ import java.util.List;
  */
 public final class NetworkRenderer extends BaseRenderer {
 
-    private String[] nodeIds = new String[8];
-    private int[] nodeX = new int[8];
-    private int[] nodeY = new int[8];
-    private ArberColor[] nodeColor = new ArberColor[8];
-    private int nodesCap = nodeIds.length;
+    private static final double PADDING = 20.0;
+
+    private final ForceDirectedLayout layout = new ForceDirectedLayout();
+    private final double[] layoutBounds = new double[4];
+    private float[] nodeX = new float[8];
+    private float[] nodeY = new float[8];
+    private long layoutBudgetNanos = 8_000_000L;
 
     public NetworkRenderer() {
         super("network");
     }
 
+    /**
+     * Sets the layout time spent per frame while the layout has not converged yet.
+     *
+     * @param layoutBudgetNanos the per-frame budget, in nanoseconds
+     * @throws IllegalArgumentException if {@code layoutBudgetNanos <= 0}; an unbounded budget
+     *                                  would block painting until the layout converges
+     */
+    public NetworkRenderer setLayoutBudgetNanos(long layoutBudgetNanos) {
+        if (layoutBudgetNanos <= 0) throw new IllegalArgumentException("layoutBudgetNanos must be > 0");
+        this.layoutBudgetNanos = layoutBudgetNanos;
+        return this;
+    }
+
+    /**
+     * Returns the layout engine, e.g. to pre-converge it off the render thread before the first
+     * paint. Callers must not use it concurrently with painting.
+     */
+    public ForceDirectedLayout getLayout() {
+        return layout;
+    }
+
     /**
      * @since 1.5.0
      */
@@ -42,43 +68,31 @@ public final class NetworkRenderer extends BaseRenderer {
             return;
         }
 
-        List<? extends FlowChartModel.Node> nodes = flowModel.getNodes();
-        List<? extends FlowChartModel.Link> links = flowModel.getLinks();
-        if (nodes.isEmpty()) return;
-
-        int n = nodes.size();
-        if (n > nodesCap) {
-            int newCap = Math.max(n, nodesCap * 2);
-            String[] nid = (String[]) RendererAllocationCache.getArray(this, "nodeIds", String.class, newCap);
-            System.arraycopy(nodeIds, 0, nid, 0, Math.min(nodeIds.length, nid.length));
-            nodeIds = nid;
-            int[] nx = RendererAllocationCache.getIntArray(this, "nodeX", newCap);
-            System.arraycopy(nodeX, 0, nx, 0, Math.min(nodeX.length, nx.length));
-            nodeX = nx;
-            int[] ny = RendererAllocationCache.getIntArray(this, "nodeY", newCap);
-            System.arraycopy(nodeY, 0, ny, 0, Math.min(nodeY.length, ny.length));
-            nodeY = ny;
-            ArberColor[] nc = (ArberColor[]) RendererAllocationCache.getArray(this, "nodeColor", ArberColor.class, newCap);
-            System.arraycopy(nodeColor, 0, nc, 0, Math.min(nodeColor.length, nc.length));
-            nodeColor = nc;
-            nodesCap = newCap;
+        layout.sync(flowModel);
+        int n = layout.getNodeCount();
+        if (n == 0) return;
+        if (!layout.isConverged()) {
+            layout.run(Integer.MAX_VALUE, layoutBudgetNanos);
         }
 
-        ArberRect bounds = context.getPlotBounds();
-        int w = Math.max(1, (int) bounds.width() - 40);
-        int h = Math.max(1, (int) bounds.height() - 40);
+        if (n > nodeX.length) {
+            int newCap = Math.max(n, nodeX.length * 2);
+            nodeX = RendererAllocationCache.getFloatArray(this, "net.nodeX", newCap);
+            nodeY = RendererAllocationCache.getFloatArray(this, "net.nodeY", newCap);
+        }
 
-        ArberColor baseColor = getSeriesColor(model);
+        ArberRect bounds = context.getPlotBounds();
+        double w = Math.max(1.0, bounds.width() - 2 * PADDING);
+        double h = Math.max(1.0, bounds.height() - 2 * PADDING);
+        layout.getBounds(layoutBounds);
+        double spanX = Math.max(1e-9, layoutBounds[1] - layoutBounds[0]);
+        double spanY = Math.max(1e-9, layoutBounds[3] - layoutBounds[2]);
+        double scale = Math.min(w / spanX, h / spanY);
+        double offX = bounds.x() + PADDING + (w - spanX * scale) * 0.5;
+        double offY = bounds.y() + PADDING + (h - spanY * scale) * 0.5;
         for (int i = 0; i < n; i++) {
-            FlowChartModel.Node node = nodes.get(i);
-            String id = node.getId();
-            nodeIds[i] = id;
-            int hash = id.hashCode();
-            int rx = Math.abs((hash * 31) ^ (hash >>> 16));
-            int ry = Math.abs((hash * 17) ^ (hash >>> 8));
-            nodeX[i] = (int) bounds.x() + 20 + (rx % w);
-            nodeY[i] = (int) bounds.y() + 20 + (ry % h);
-            nodeColor[i] = isMultiColor() ? getColorForId(id, context) : baseColor;
+            nodeX[i] = (float) (offX + (layout.getX(i) - layoutBounds[0]) * scale);
+            nodeY[i] = (float) (offY + (layout.getY(i) - layoutBounds[2]) * scale);
         }
 
         float[] lineX = RendererAllocationCache.getFloatArray(this, "net.line.x", 2);
@@ -86,29 +100,22 @@ public final class NetworkRenderer extends BaseRenderer {
         canvas.setColor(ColorUtils.applyAlpha(themeGrid(context), 0.4f));
         canvas.setStroke(getSeriesStrokeWidth());
 
-        for (FlowChartModel.Link link : links) {
-            String s = link.getSource();
-            String t = link.getTarget();
-            int si = -1, ti = -1;
-            for (int i = 0; i < n; i++) {
-                if (nodeIds[i].equals(s)) si = i;
-                if (nodeIds[i].equals(t)) ti = i;
-                if (si != -1 && ti != -1) break;
-            }
-            if (si != -1 && ti != -1) {
-                lineX[0] = nodeX[si];
-                lineY[0] = nodeY[si];
-                lineX[1] = nodeX[ti];
-                lineY[1] = nodeY[ti];
-                canvas.drawPolyline(lineX, lineY, 2);
-            }
+        for (int e = 0, edges = layout.getEdgeCount(); e < edges; e++) {
+            int si = layout.getEdgeSource(e);
+            int ti = layout.getEdgeTarget(e);
+            lineX[0] = nodeX[si];
+            lineY[0] = nodeY[si];
+            lineX[1] = nodeX[ti];
+            lineY[1] = nodeY[ti];
+            canvas.drawPolyline(lineX, lineY, 2);
         }
 
+        ArberColor baseColor = getSeriesColor(model);
+        boolean multiColor = isMultiColor();
         float[] nodePolyX = RendererAllocationCache.getFloatArray(this, "net.node.x", 8);
         float[] nodePolyY = RendererAllocationCache.getFloatArray(this, "net.node.y", 8);
         for (int i = 0; i < n; i++) {
-            ArberColor c = nodeColor[i];
-            canvas.setColor(c);
+            canvas.setColor(multiColor ? getColorForId(layout.getId(i), context) : baseColor);
             buildOctagon(nodeX[i], nodeY[i], 8, nodePolyX, nodePolyY);
             canvas.fillPolygon(nodePolyX, nodePolyY, 8);
         }
@@ -120,7 +127,7 @@ public final class NetworkRenderer extends BaseRenderer {
         return themeSeries(context, idx);
     }
 
-    private static void buildOctagon(int cx, int cy, int r, float[] xs, float[] ys) {
+    private static void buildOctagon(float cx, float cy, int r, float[] xs, float[] ys) {
         for (int i = 0; i < 8; i++) {
             double a = i * (Math.PI * 2.0 / 8.0);
             xs[i] = (float) (cx + Math.cos(a) * r);
@@ -5,6 +5,9 @@ import com.arbergashi.charts.api.PlotContext;
 import com.arbergashi.charts.api.types.ArberColor;
 import com.arbergashi.charts.api.types.ArberPoint;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.engine.contour.ContourEngine;
+import com.arbergashi.charts.engine.contour.ContourGrid;
+import com.arbergashi.charts.engine.contour.ContourSet;
 import com.arbergashi.charts.internal.RendererDescriptor;
 import com.arbergashi.charts.platform.render.RendererRegistry;
 import com.arbergashi.charts.model.ChartModel;
@@ -16,8 +19,11 @@ import com.arbergashi.charts.util.ColorUtils;
  * Ternary Contour Renderer - extends ternary plot with contour/heatmap characteristics.
  *
  * <p><b>Performance contract</b>:
- * The contour effect is rendered using a fixed number of bands and alpha compositing (no per-band Color allocation).
- * This ensures that even large datasets can be rendered efficiently without excessive memory usage.
+ * The samples are gridded in normalized triangle coordinates (nodes outside the triangle are
+ * masked) and contoured by {@link ContourEngine}; grid and iso-lines are cached until the model
+ * changes. Iso-bands are filled from a precomputed colour LUT with equal cells of a row merged,
+ * so a frame costs one fill per run plus one polyline per iso-line, independent of the point count.
+ * The heat value is the point's {@code max}; when it is constant, the point density is contoured instead.
  * </p>
  *
  * @author Arber Gashi
@@ -32,13 +38,44 @@ public class TernaryContourRenderer extends BaseRenderer {
         RendererRegistry.register("ternary_contour", new RendererDescriptor("ternary_contour", "renderer.ternary_contour", "/icons/ternary_contour.svg"), TernaryContourRenderer::new);
     }
 
+    private static final int MIN_RESOLUTION = 16;
+    private static final int MAX_RESOLUTION = 128;
+    private static final double SQRT3_2 = Math.sqrt(3) / 2.0;
+
     // reusable transform output to avoid ArberPoint allocations
     private transient final ArberPoint tmp = new ArberPoint();
 
+    private final ArberColor[] colorLut = new ArberColor[64];
+    private ArberColor lutBase;
+    private ArberColor lineColor;
+    private int contourLevels = 6;
+
+    private Object cachedModel;
+    private long cachedStamp = -1;
+    private int cachedCount = -1;
+    private int cachedLevels = -1;
+    private ContourGrid grid;
+    private ContourSet contours;
+    private final double[] zRange = new double[2];
+
     public TernaryContourRenderer() {
         super("ternaryContour");
     }
 
+    public int getContourLevels() {
+        return contourLevels;
+    }
+
+    /**
+     * Sets the number of iso-lines, evenly spaced over the value range ({@code 0} disables them).
+     *
+     * @since 2.1.0
+     */
+    public TernaryContourRenderer setContourLevels(int contourLevels) {
+        this.contourLevels = Math.max(0, contourLevels);
+        return this;
+    }
+
     private static void transformTernaryInto(double a, double b, double c, PlotContext context, ArberPoint out) {
         double sum = a + b + c;
         if (sum == 0) sum = 1.0;
@@ -60,8 +97,6 @@ public class TernaryContourRenderer extends BaseRenderer {
         final int n0 = model.getPointCount();
         if (n0 == 0) return;
 
-        drawTernaryTriangle(canvas, context);
-
         ArberColor baseColor = seriesOrBase(model, context, 0);
 
         // Bound work for huge datasets.
@@ -71,32 +106,12 @@ public class TernaryContourRenderer extends BaseRenderer {
         if (n > 50_000) step = Math.max(step, n / 10_000);
         if (n > 100_000) step = Math.max(step, n / 12_000);
 
-        // We approximate the contour heat with a single filled circle per point.
-        // The previous implementation used multiple bands (multiple fills) which is prohibitively expensive.
-        final double maxR = ChartScale.scale(28.0);
-        final double minR = ChartScale.scale(6.0);
-
-        // Draw heat layer.
-        for (int i = 0; i < n; i += step) {
-            double a = model.getX(i);
-            double b = model.getY(i);
-            double c = model.getWeight(i);
-            transformTernaryInto(a, b, c, context, tmp);
-
-            double intensity = (model.getMax(i) > 0) ? model.getMax(i) : 40.0;
-            double r = ChartScale.scale(intensity * 0.40);
-            if (r < minR) r = minR;
-            if (r > maxR) r = maxR;
-
-            // Alpha roughly proportional to radius. Clamp to a small range to avoid overdraw blowups.
-            float alpha = (float) (0.06 + (r / maxR) * 0.12);
-            alpha = Math.clamp(alpha, 0.06f, 0.20f);
-
-            ArberColor pointColor = isMultiColor() ? themeSeries(context, i) : baseColor;
-            if (pointColor == null) pointColor = baseColor;
-            canvas.setColor(ColorUtils.applyAlpha(pointColor, alpha));
-            fillCircle(canvas, tmp.x(), tmp.y(), r);
+        ensureLut(baseColor);
+        if (lutBase != null && ensureContours(model, n0)) {
+            fillBands(canvas, context);
+            drawContours(canvas, context);
         }
+        drawTernaryTriangle(canvas, context);
 
         // Draw the actual points on top (opaque).
         double size = ChartScale.scale(5.0);
@@ -114,6 +129,129 @@ public class TernaryContourRenderer extends BaseRenderer {
         }
     }
 
+    private boolean ensureContours(ChartModel model, int count) {
+        long stamp = model.getUpdateStamp();
+        if (grid != null && cachedModel == model && cachedStamp == stamp && cachedCount == count
+                && cachedLevels == contourLevels) {
+            return true;
+        }
+        // Normalized triangle coordinates: u in [0, 1] along the base, v in [0, 1] towards the apex.
+        double[] us = RendererAllocationCache.getDoubleArray(this, "ternary.u", count);
+        double[] vs = RendererAllocationCache.getDoubleArray(this, "ternary.v", count);
+        double[] zs = RendererAllocationCache.getDoubleArray(this, "ternary.z", count);
+        double minZ = Double.POSITIVE_INFINITY;
+        double maxZ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            double a = model.getX(i);
+            double b = model.getY(i);
+            double sum = a + b + model.getWeight(i);
+            if (sum == 0) sum = 1.0;
+            double na = a / sum;
+            double nb = b / sum;
+            us[i] = nb + na / 2.0;
+            vs[i] = na;
+            double z = model.getMax(i);
+            zs[i] = z;
+            if (z < minZ) minZ = z;
+            if (z > maxZ) maxZ = z;
+        }
+        int res = Math.clamp((int) Math.ceil(Math.sqrt(count)), MIN_RESOLUTION, MAX_RESOLUTION);
+        grid = maxZ > minZ
+                ? ContourGrid.fromScattered(us, vs, zs, count, res, res, 0.0, 1.0, 0.0, 1.0)
+                : ContourGrid.fromDensity(us, vs, null, count, res, res, 0.0, 1.0, 0.0, 1.0);
+        double eps = 0.5 / (res - 1);
+        for (int r = 0; r < res; r++) {
+            double v = grid.getNodeY(r);
+            for (int c = 0; c < res; c++) {
+                double u = grid.getNodeX(c);
+                if (v > 2.0 * u + eps || v > 2.0 * (1.0 - u) + eps) grid.set(c, r, Double.NaN);
+            }
+        }
+        grid.getValueRange(zRange);
+        contours = Double.isNaN(zRange[0])
+                ? ContourEngine.extract(grid, new double[0])
+                : ContourEngine.extract(grid, ContourEngine.evenLevels(zRange[0], zRange[1], contourLevels));
+        cachedModel = model;
+        cachedStamp = stamp;
+        cachedCount = count;
+        cachedLevels = contourLevels;
+        return !Double.isNaN(zRange[0]);
+    }
+
+    private void fillBands(ArberCanvas canvas, PlotContext context) {
+        int cols = grid.getCols();
+        int rows = grid.getRows();
+        double minZ = zRange[0];
+        double rangeZ = zRange[1] - minZ;
+        if (!(rangeZ > 0)) return;
+        double side = triangleSide(context);
+        double height = side * SQRT3_2;
+        double x0 = context.getPlotBounds().getCenterX() - side / 2.0;
+        double y0 = context.getPlotBounds().getCenterY() + height / 2.0;
+        int bands = contourLevels + 1;
+        int last = colorLut.length - 1;
+        for (int r = 0; r < rows - 1; r++) {
+            float top = (float) (y0 - grid.getNodeY(r + 1) * height);
+            float h = (float) Math.ceil((grid.getNodeY(r + 1) - grid.getNodeY(r)) * height);
+            int runStart = 0;
+            int runIdx = -1;
+            for (int c = 0; c <= cols - 1; c++) {
+                int idx = -1;
+                if (c < cols - 1) {
+                    double v = (grid.get(c, r) + grid.get(c + 1, r) + grid.get(c, r + 1) + grid.get(c + 1, r + 1)) * 0.25;
+                    if (!Double.isNaN(v)) {
+                        int band = Math.min(bands - 1, (int) ((v - minZ) / rangeZ * bands));
+                        idx = bands == 1 ? last : Math.max(0, band) * last / (bands - 1);
+                    }
+                }
+                if (idx == runIdx) continue;
+                if (runIdx >= 0) {
+                    float left = (float) (x0 + grid.getNodeX(runStart) * side);
+                    float w = (float) Math.ceil((grid.getNodeX(c) - grid.getNodeX(runStart)) * side);
+                    canvas.setColor(colorLut[runIdx]);
+                    canvas.fillRect(left, top, w, h);
+                }
+                runStart = c;
+                runIdx = idx;
+            }
+        }
+    }
+
+    private void drawContours(ArberCanvas canvas, PlotContext context) {
+        int lines = contours.getLineCount();
+        if (lines == 0) return;
+        double side = triangleSide(context);
+        double height = side * SQRT3_2;
+        double x0 = context.getPlotBounds().getCenterX() - side / 2.0;
+        double y0 = context.getPlotBounds().getCenterY() + height / 2.0;
+        canvas.setColor(lineColor);
+        canvas.setStroke(ChartScale.scale(1.0f));
+        for (int l = 0; l < lines; l++) {
+            int start = contours.getLineStart(l);
+            int n = contours.getLineEnd(l) - start;
+            if (n < 2) continue;
+            float[] xs = RendererAllocationCache.getFloatArray(this, "ternary.lx", n);
+            float[] ys = RendererAllocationCache.getFloatArray(this, "ternary.ly", n);
+            for (int i = 0; i < n; i++) {
+                xs[i] = (float) (x0 + contours.getX(start + i) * side);
+                ys[i] = (float) (y0 - contours.getY(start + i) * height);
+            }
+            canvas.drawPolyline(xs, ys, n);
+        }
+    }
+
+    private void ensureLut(ArberColor base) {
+        if (base == null || base.equals(lutBase)) return;
+        lutBase = base;
+        ColorUtils.fillGradientLut(colorLut, ColorUtils.applyAlpha(base, 0.06f), ColorUtils.applyAlpha(base, 0.14f),
+                ColorUtils.applyAlpha(base, 0.24f), ColorUtils.applyAlpha(base, 0.36f));
+        lineColor = ColorUtils.applyAlpha(base, 0.75f);
+    }
+
+    private static double triangleSide(PlotContext context) {
+        return Math.min(context.getPlotBounds().getWidth(), context.getPlotBounds().getHeight() * 1.15);
+    }
+
     private void drawTernaryTriangle(ArberCanvas canvas, PlotContext context) {
         double w = context.getPlotBounds().getWidth();
         double h = context.getPlotBounds().getHeight();
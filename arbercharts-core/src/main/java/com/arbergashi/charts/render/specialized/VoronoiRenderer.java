@@ -4,19 +4,32 @@ import com.arbergashi.charts.api.PlotContext;
 import com.arbergashi.charts.api.types.ArberColor;
 import com.arbergashi.charts.core.geometry.ArberRect;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.engine.delaunay.DelaunayTriangulation;
+import com.arbergashi.charts.engine.delaunay.JumpFloodVoronoi;
+import com.arbergashi.charts.engine.delaunay.ModelTriangulation;
 import com.arbergashi.charts.internal.RendererDescriptor;
 import com.arbergashi.charts.platform.render.RendererRegistry;
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.render.BaseRenderer;
 import com.arbergashi.charts.tools.RendererAllocationCache;
 
+import java.util.Arrays;
+
 /**
- * Voronoi renderer (optimized): uses a lower-resolution sampling buffer and renders as rectangles.
+ * Voronoi renderer.
+ * <p>
+ * Up to {@link #getExactLimit()} sites the cells are exact polygons: the dual of the Delaunay
+ * triangulation maintained by {@link ModelTriangulation}, clipped to the padded data extent and
+ * cached per model revision. Appends re-triangulate only around the new points and recompute just
+ * the cells the triangulation reports as changed. Larger site counts, or frames where the
+ * triangulation is still being built, fall back to a jump-flooding raster
+ * ({@link JumpFloodVoronoi}) whose cost does not depend on the site count.
  * <p>
  * Performance notes:
  * <ul>
  *   <li>No per-point allocations in the hot loop</li>
- *   <li>Sampling runs in buffer space directly</li>
+ *   <li>Raster cells of one site are merged into a single rectangle per row; runs are snapped to
+ *   whole pixels so neighbouring rectangles neither overlap nor leave gaps</li>
  * </ul>
  *
  * @author Arber Gashi
@@ -30,16 +43,44 @@ public final class VoronoiRenderer extends BaseRenderer {
         RendererRegistry.register("voronoi", new RendererDescriptor("voronoi", "renderer.voronoi", "/icons/voronoi.svg"), VoronoiRenderer::new);
     }
 
+    private static final double CLIP_PAD = 0.05;
+
     private final double[] pBuffer = new double[2];
-    private transient double[] sx;
-    private transient double[] sy;
-    private transient ArberColor[] palette;
-    private transient int[] cells;
+    private int exactLimit = 20_000;
+
+    private transient final ModelTriangulation triangulation = new ModelTriangulation();
+    private transient final JumpFloodVoronoi jumpFlood = new JumpFloodVoronoi();
+    // exact cells of the cached snapshot, interleaved data-space coordinates; cell i occupies
+    // cellLen[i] vertices of a cellCap[i]-vertex slot at cellStart[i]
+    private transient ModelTriangulation.Snapshot cellSnapshot;
+    private transient int cellCount = -1;
+    private transient int[] cellStart = new int[0];
+    private transient int[] cellLen = new int[0];
+    private transient int[] cellCap = new int[0];
+    private transient double[] cellXY = new double[0];
+    private transient int cellUsed;
+    private transient int cellWasted;
+    private transient double[] cellScratch = new double[32];
+    private transient int[] spanX = new int[0];
 
     public VoronoiRenderer() {
         super("voronoi");
     }
 
+    public int getExactLimit() {
+        return exactLimit;
+    }
+
+    /**
+     * Sets the largest site count drawn with exact cell polygons; above it the raster fallback is used.
+     *
+     * @since 2.1.0
+     */
+    public VoronoiRenderer setExactLimit(int exactLimit) {
+        this.exactLimit = Math.max(0, exactLimit);
+        return this;
+    }
+
     /**
      * @since 1.5.0
      */
@@ -47,78 +88,153 @@ public final class VoronoiRenderer extends BaseRenderer {
     protected void drawData(ArberCanvas canvas, ChartModel model, PlotContext context) {
         int count = model.getPointCount();
         if (count == 0) return;
-        double[] xData = model.getXData();
-        double[] yData = model.getYData();
+        ArberColor baseColor = getSeriesColor(model);
 
-        ArberRect bounds = context.getPlotBounds();
-        int w = Math.min(200, Math.max(120, (int) bounds.width()));
-        int h = Math.min(200, Math.max(120, (int) bounds.height()));
+        if (count <= exactLimit) {
+            ModelTriangulation.Snapshot snap = triangulation.ensure(model, count);
+            if (snap != null && snap.getModel() == model && snap.getCount() == count) {
+                ensureCells(snap);
+                drawCells(canvas, context, baseColor);
+                return;
+            }
+        }
+        drawRaster(canvas, model, context, count, baseColor);
+    }
 
-        int total = w * h;
-        if (cells == null || cells.length < total) {
-            cells = RendererAllocationCache.getIntArray(this, "cells", total);
+    private void ensureCells(ModelTriangulation.Snapshot snap) {
+        if (snap == cellSnapshot) return;
+        int n = snap.getCount();
+        int[] changed = snap.getChangedPoints();
+        boolean local = cellSnapshot != null && changed != null
+                && snap.getTriangulation() == cellSnapshot.getTriangulation()
+                && snap.getBaseCount() == cellCount
+                && cellWasted <= cellUsed / 2;
+        if (cellStart.length < n) {
+            int cap = Math.max(n, cellStart.length + (cellStart.length >> 1));
+            cellStart = Arrays.copyOf(cellStart, cap);
+            cellLen = Arrays.copyOf(cellLen, cap);
+            cellCap = Arrays.copyOf(cellCap, cap);
+        }
+        if (local) {
+            for (int i = cellCount; i < n; i++) {
+                cellLen[i] = 0;
+                cellCap[i] = 0;
+            }
+            for (int site : changed) computeCell(snap, site);
+        } else {
+            cellUsed = 0;
+            cellWasted = 0;
+            for (int i = 0; i < n; i++) {
+                cellCap[i] = 0;
+                computeCell(snap, i);
+            }
         }
+        cellSnapshot = snap;
+        cellCount = n;
+    }
 
-        int n = Math.min(count, 200); // limit candidate points
-        if (sx == null || sx.length < n) {
-            sx = RendererAllocationCache.getDoubleArray(this, "sx", n);
-            sy = RendererAllocationCache.getDoubleArray(this, "sy", n);
+    /**
+     * Recomputes the cell of {@code site}, in place when it still fits its slot.
+     */
+    private void computeCell(ModelTriangulation.Snapshot snap, int site) {
+        DelaunayTriangulation dt = snap.getTriangulation();
+        int v = dt.voronoiCell(site, -CLIP_PAD, -CLIP_PAD, 1 + CLIP_PAD, 1 + CLIP_PAD, cellScratch);
+        if (v < 0) {
+            cellScratch = new double[-v * 2];
+            v = dt.voronoiCell(site, -CLIP_PAD, -CLIP_PAD, 1 + CLIP_PAD, 1 + CLIP_PAD, cellScratch);
+        }
+        if (v > cellCap[site]) {
+            cellWasted += cellCap[site];
+            // a little slack so a cell that gains a vertex on the next append stays in place
+            int cap = v + 2;
+            if (2 * (cellUsed + cap) > cellXY.length) {
+                cellXY = Arrays.copyOf(cellXY, Math.max(2 * (cellUsed + cap), cellXY.length * 2));
+            }
+            cellStart[site] = 2 * cellUsed;
+            cellCap[site] = cap;
+            cellUsed += cap;
         }
-        if (palette == null || palette.length < n) {
-            palette = (ArberColor[]) RendererAllocationCache.getArray(this, "voronoi.palette", ArberColor.class, n);
+        int at = cellStart[site];
+        for (int k = 0; k < v; k++) {
+            cellXY[at++] = snap.dataX(cellScratch[2 * k]);
+            cellXY[at++] = snap.dataY(cellScratch[2 * k + 1]);
         }
+        cellLen[site] = v;
+    }
 
-        // Precompute candidate pixel positions + a stable palette.
-        ArberColor baseColor = getSeriesColor(model);
-        for (int i = 0; i < n; i++) {
-            context.mapToPixel(xData[i], yData[i], pBuffer);
-            sx[i] = pBuffer[0];
-            sy[i] = pBuffer[1];
-            ArberColor cellColor = isMultiColor() ? themeSeries(context, i) : baseColor;
-            if (cellColor == null) cellColor = baseColor;
-            palette[i] = cellColor;
+    private void drawCells(ArberCanvas canvas, PlotContext context, ArberColor baseColor) {
+        double minX = context.getMinX(), maxX = context.getMaxX();
+        double minY = context.getMinY(), maxY = context.getMaxY();
+        for (int i = 0; i < cellCount; i++) {
+            int from = cellStart[i];
+            int v = cellLen[i];
+            if (v < 3) continue;
+            double cMinX = Double.POSITIVE_INFINITY, cMaxX = Double.NEGATIVE_INFINITY;
+            double cMinY = Double.POSITIVE_INFINITY, cMaxY = Double.NEGATIVE_INFINITY;
+            for (int k = 0; k < v; k++) {
+                double x = cellXY[from + 2 * k];
+                double y = cellXY[from + 2 * k + 1];
+                if (x < cMinX) cMinX = x;
+                if (x > cMaxX) cMaxX = x;
+                if (y < cMinY) cMinY = y;
+                if (y > cMaxY) cMaxY = y;
+            }
+            if (cMaxX < minX || cMinX > maxX || cMaxY < minY || cMinY > maxY) continue;
+            float[] xs = RendererAllocationCache.getFloatArray(this, "voronoi.cellX", v);
+            float[] ys = RendererAllocationCache.getFloatArray(this, "voronoi.cellY", v);
+            for (int k = 0; k < v; k++) {
+                context.mapToPixel(cellXY[from + 2 * k], cellXY[from + 2 * k + 1], pBuffer);
+                xs[k] = (float) pBuffer[0];
+                ys[k] = (float) pBuffer[1];
+            }
+            canvas.setColor(cellColor(context, i, baseColor));
+            canvas.fillPolygon(xs, ys, v);
         }
+    }
 
-        // Precompute buffer-space mapping (avoid double divides in inner loop).
+    private void drawRaster(ArberCanvas canvas, ChartModel model, PlotContext context, int count, ArberColor baseColor) {
+        ArberRect bounds = context.getPlotBounds();
+        int w = Math.min(256, Math.max(120, (int) bounds.width()));
+        int h = Math.min(256, Math.max(120, (int) bounds.height()));
         double bx = bounds.x();
         double by = bounds.y();
-        double bw = bounds.width();
-        double bh = bounds.height();
-        double stepX = bw / (double) w;
-        double stepY = bh / (double) h;
+        double stepX = bounds.width() / (double) w;
+        double stepY = bounds.height() / (double) h;
 
-        // sample grid (tight hot loop)
-        int idx = 0;
-        for (int iy = 0; iy < h; iy++) {
-            double py = by + (iy + 0.5) * stepY;
-            for (int ix = 0; ix < w; ix++, idx++) {
-                double px = bx + (ix + 0.5) * stepX;
-                int best = 0;
-                double bestD = Double.POSITIVE_INFINITY;
-                for (int i = 0; i < n; i++) {
-                    double dx = sx[i] - px;
-                    double dy = sy[i] - py;
-                    double d = dx * dx + dy * dy;
-                    if (d < bestD) {
-                        bestD = d;
-                        best = i;
-                    }
-                }
-                cells[idx] = best;
-            }
+        double[] sx = RendererAllocationCache.getDoubleArray(this, "sx", count);
+        double[] sy = RendererAllocationCache.getDoubleArray(this, "sy", count);
+        for (int i = 0; i < count; i++) {
+            context.mapToPixel(model.getX(i), model.getY(i), pBuffer);
+            sx[i] = (pBuffer[0] - bx) / stepX;
+            sy[i] = (pBuffer[1] - by) / stepY;
         }
+        int[] cells = jumpFlood.compute(sx, sy, count, w, h);
 
-        // draw cells
-        idx = 0;
+        // Raster edges snapped to whole pixels: each run covers [spanX[a], spanX[b]) exactly.
+        if (spanX.length < w + 1) spanX = new int[w + 1];
+        for (int ix = 0; ix <= w; ix++) spanX[ix] = (int) Math.round(bx + ix * stepX);
+        int y0 = (int) Math.round(by);
         for (int iy = 0; iy < h; iy++) {
-            double y0 = by + iy * stepY;
-            for (int ix = 0; ix < w; ix++, idx++) {
-                ArberColor c = palette[cells[idx]];
-                if (c == null) continue;
-                canvas.setColor(c);
-                float x0 = (float) (bx + ix * stepX);
-                canvas.fillRect(x0, (float) y0, (float) stepX + 0.5f, (float) stepY + 0.5f);
+            int y1 = (int) Math.round(by + (iy + 1) * stepY);
+            if (y1 == y0) continue;
+            int row = iy * w;
+            int runStart = 0;
+            for (int ix = 1; ix <= w; ix++) {
+                if (ix < w && cells[row + ix] == cells[row + runStart]) continue;
+                int site = cells[row + runStart];
+                if (site >= 0 && spanX[ix] > spanX[runStart]) {
+                    canvas.setColor(cellColor(context, site, baseColor));
+                    canvas.fillRect(spanX[runStart], y0, spanX[ix] - spanX[runStart], y1 - y0);
+                }
+                runStart = ix;
             }
+            y0 = y1;
         }
     }
+
+    private ArberColor cellColor(PlotContext context, int site, ArberColor baseColor) {
+        if (!isMultiColor()) return baseColor;
+        ArberColor c = themeSeries(context, site);
+        return c != null ? c : baseColor;
+    }
 }
@@ -4,6 +4,7 @@ import com.arbergashi.charts.api.PlotContext;
 import com.arbergashi.charts.api.types.ArberColor;
 import com.arbergashi.charts.core.geometry.ArberRect;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.core.rendering.PrimitiveBatch;
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.render.BaseRenderer;
 import com.arbergashi.charts.util.ChartAssets;
@@ -22,6 +23,8 @@ import com.arbergashi.charts.util.MathUtils;
 public final class BarRenderer extends BaseRenderer {
 
     private final double[] p0 = new double[2];
+    private final PrimitiveBatch bars = new PrimitiveBatch();
+    private final PrimitiveBatch outlines = new PrimitiveBatch();
 
     public BarRenderer() {
         super("bar");
@@ -47,6 +50,10 @@ public final class BarRenderer extends BaseRenderer {
         context.mapToPixel(0, 0.0, p0);
         double baselineY = MathUtils.clamp(p0[1], bounds.minY(), bounds.maxY());
 
+        final boolean outline = ChartAssets.getBoolean("Chart.bar.outline", false);
+        final ArberColor outlineColor = outline ? ColorRegistry.adjustBrightness(seriesColor, 0.8) : seriesColor;
+        bars.clear();
+        outlines.clear();
         for (int i = 0; i < n; i++) {
             final double x = xData[i];
             final double y = yData[i];
@@ -64,16 +71,16 @@ public final class BarRenderer extends BaseRenderer {
             double height = Math.abs(p0[1] - baselineY);
             if (height < 1.0) height = 1.0;
 
-            canvas.setColor(seriesColor);
-            canvas.fillRect((float) bx, (float) by, (float) barWidth, (float) height);
-
-            if (ChartAssets.getBoolean("Chart.bar.outline", false)) {
-                canvas.setStroke(ChartScale.scale(1.0f));
-                canvas.setColor(ColorRegistry.adjustBrightness(seriesColor, 0.8));
-                float[] lineX = { (float) bx, (float) (bx + barWidth), (float) (bx + barWidth), (float) bx, (float) bx };
-                float[] lineY = { (float) by, (float) by, (float) (by + height), (float) (by + height), (float) by };
-                canvas.drawPolyline(lineX, lineY, 5);
+            bars.addRect((float) bx, (float) by, (float) barWidth, (float) height, seriesColor);
+            if (outline) {
+                outlines.addRectOutline((float) bx, (float) by, (float) barWidth, (float) height, outlineColor);
             }
         }
+
+        bars.fillRects(canvas);
+        if (outline) {
+            canvas.setStroke(ChartScale.scale(1.0f));
+            outlines.drawSegments(canvas);
+        }
     }
 }
@@ -5,6 +5,8 @@ import com.arbergashi.charts.api.PlotContext;
 import com.arbergashi.charts.api.types.ArberColor;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
 import com.arbergashi.charts.model.ChartModel;
+import com.arbergashi.charts.model.CompressedChartModel;
+import com.arbergashi.charts.model.IndexedRangeModel;
 import com.arbergashi.charts.render.BaseRenderer;
 import com.arbergashi.charts.render.TooltipContentProvider;
 import com.arbergashi.charts.render.TooltipContext;
@@ -20,9 +22,26 @@ import com.arbergashi.charts.render.TooltipValueWriter;
  */
 public final class LineRenderer extends BaseRenderer implements TooltipContentProvider {
 
+    private static final int RANGE_CHUNK = 4096;
+    // slots of the M4 column state
+    private static final int FIRST = 0;
+    private static final int MIN = 4;
+    private static final int MAX = 8;
+    private static final int LAST = 12;
+
     private final double[] p0 = new double[2];
     private final double[] prevBuf = new double[2];
     private final double[] currBuf = new double[2];
+    private final int[] visibleRange = new int[2];
+    private final double[] envelope = new double[8];
+    // M4 column state for compressed models: x, y and sequence per slot
+    private final double[] column4 = new double[16];
+    private double columnIndex;
+    private int columnSeq;
+    private boolean columnOpen;
+    private boolean pathMoved;
+    private double[] scratchX = new double[0];
+    private double[] scratchY = new double[0];
 
     public LineRenderer() {
         super("line");
@@ -47,22 +66,40 @@ public final class LineRenderer extends BaseRenderer implements TooltipContentPr
         final int n0 = model.getPointCount();
         if (n0 < 2) return;
 
+        if (model instanceof IndexedRangeModel indexed) {
+            // Range-indexed models (e.g. memory-mapped captures) only touch the visible window.
+            indexed.getVisibleRange(context.getMinX(), context.getMaxX(), visibleRange);
+            if (visibleRange[1] - visibleRange[0] < 2) return;
+            applyStyle(canvas, context);
+            if (indexed instanceof CompressedChartModel compressed) {
+                drawCompressed(canvas, compressed, context, visibleRange[0], visibleRange[1]);
+                return;
+            }
+            // Bulk-read the window in chunks instead of one accessor call per point.
+            if (scratchX.length < RANGE_CHUNK) {
+                scratchX = new double[RANGE_CHUNK];
+                scratchY = new double[RANGE_CHUNK];
+            }
+            boolean moved = false;
+            int i = visibleRange[0];
+            while (i < visibleRange[1]) {
+                int n = indexed.readXY(i, Math.min(visibleRange[1], i + RANGE_CHUNK), scratchX, scratchY, 0);
+                if (n <= 0) break;
+                for (int j = 0; j < n; j++) {
+                    context.mapToPixel(scratchX[j], scratchY[j], p0);
+                    moved = emit(canvas, p0, moved);
+                }
+                i += n;
+            }
+            return;
+        }
+
         double[] xData = model.getXData();
         double[] yData = model.getYData();
         final int n = Math.min(n0, Math.min(xData.length, yData.length));
         if (n < 2) return;
 
-        ChartTheme theme = getResolvedTheme(context);
-        ArberColor color = theme.getSeriesColor(getLayerIndex());
-        canvas.setColor(color);
-        float strokeWidth = 1.5f;
-        if (context != null && context.getRenderHints() != null) {
-            Float hinted = context.getRenderHints().getStrokeWidth();
-            if (hinted != null && Float.isFinite(hinted) && hinted > 0f) {
-                strokeWidth = hinted;
-            }
-        }
-        canvas.setStroke(strokeWidth);
+        applyStyle(canvas, context);
 
         boolean moved = false;
         for (int i = 0; i < n; i++) {
@@ -77,4 +114,131 @@ public final class LineRenderer extends BaseRenderer implements TooltipContentPr
             }
         }
     }
+
+    /**
+     * Block-wise path for compressed models, reduced M4-style per pixel column: each column keeps
+     * its first and last point and its Y extrema, which are drawn in time order so rising and
+     * falling segments connect to the right ends. Sealed blocks narrower than one pixel contribute
+     * their stored envelope without being decoded; all other points are decoded in bulk into the
+     * renderer's scratch buffers. A concurrent {@link CompressedChartModel#clear()} ends the frame
+     * early instead of mixing blocks of two generations.
+     */
+    private void drawCompressed(ArberCanvas canvas, CompressedChartModel model, PlotContext context, int start, int end) {
+        final int blockRows = model.getBlockRows();
+        final long generation = model.getGeneration();
+        final int sealed = model.getSealedBlockCount();
+        if (scratchX.length < blockRows) {
+            scratchX = new double[blockRows];
+            scratchY = new double[blockRows];
+        }
+        columnOpen = false;
+        pathMoved = false;
+        int i = start;
+        while (i < end) {
+            int block = i / blockRows;
+            int blockStart = block * blockRows;
+            int blockEnd = blockStart + blockRows;
+            if (block < sealed && i == blockStart && end >= blockEnd
+                    && model.readBlockEnvelope(block, generation, envelope)) {
+                context.mapToPixel(envelope[0], envelope[1], prevBuf);
+                context.mapToPixel(envelope[6], envelope[7], currBuf);
+                if (Math.abs(currBuf[0] - prevBuf[0]) < 1.0) {
+                    accumulate(canvas, prevBuf);
+                    context.mapToPixel(envelope[2], envelope[3], p0);
+                    accumulate(canvas, p0);
+                    context.mapToPixel(envelope[4], envelope[5], p0);
+                    accumulate(canvas, p0);
+                    accumulate(canvas, currBuf);
+                    i = blockEnd;
+                    continue;
+                }
+            }
+            if (block < sealed && model.getGeneration() != generation) break;
+            int n = model.decodeRange(i, Math.min(end, blockEnd), scratchX, scratchY, 0);
+            if (n <= 0) break;
+            for (int j = 0; j < n; j++) {
+                context.mapToPixel(scratchX[j], scratchY[j], p0);
+                accumulate(canvas, p0);
+            }
+            i += n;
+        }
+        flushColumn(canvas);
+    }
+
+    /**
+     * Adds the next point (in time order) to the current pixel column, flushing the previous
+     * column when the point starts a new one.
+     */
+    private void accumulate(ArberCanvas canvas, double[] px) {
+        double x = px[0];
+        double y = px[1];
+        double column = Math.floor(x);
+        if (!columnOpen || column != columnIndex) {
+            flushColumn(canvas);
+            columnOpen = true;
+            columnIndex = column;
+            columnSeq = 0;
+            setColumnPoint(FIRST, x, y, 0);
+            setColumnPoint(MIN, x, y, 0);
+            setColumnPoint(MAX, x, y, 0);
+            setColumnPoint(LAST, x, y, 0);
+            return;
+        }
+        int seq = ++columnSeq;
+        if (y < column4[MIN + 1]) setColumnPoint(MIN, x, y, seq);
+        if (y > column4[MAX + 1]) setColumnPoint(MAX, x, y, seq);
+        setColumnPoint(LAST, x, y, seq);
+    }
+
+    /**
+     * Emits the open column as first point, the two extrema in the order they occurred, then the
+     * last point; a point already emitted for this column is not repeated.
+     */
+    private void flushColumn(ArberCanvas canvas) {
+        if (!columnOpen) return;
+        columnOpen = false;
+        boolean minFirst = column4[MIN + 2] <= column4[MAX + 2];
+        double emitted = emitColumnPoint(canvas, FIRST, -1);
+        emitted = emitColumnPoint(canvas, minFirst ? MIN : MAX, emitted);
+        emitted = emitColumnPoint(canvas, minFirst ? MAX : MIN, emitted);
+        emitColumnPoint(canvas, LAST, emitted);
+    }
+
+    private double emitColumnPoint(ArberCanvas canvas, int slot, double emittedSeq) {
+        double seq = column4[slot + 2];
+        if (seq <= emittedSeq) return emittedSeq;
+        p0[0] = column4[slot];
+        p0[1] = column4[slot + 1];
+        pathMoved = emit(canvas, p0, pathMoved);
+        return seq;
+    }
+
+    private void setColumnPoint(int slot, double x, double y, int seq) {
+        column4[slot] = x;
+        column4[slot + 1] = y;
+        column4[slot + 2] = seq;
+    }
+
+    private static boolean emit(ArberCanvas canvas, double[] px, boolean moved) {
+        if (moved) {
+            canvas.lineTo((float) px[0], (float) px[1]);
+        } else {
+            canvas.moveTo((float) px[0], (float) px[1]);
+        }
+        return true;
+    }
+
+    private void applyStyle(ArberCanvas canvas, PlotContext context) {
+        ChartTheme theme = getResolvedTheme(context);
+        ArberColor color = theme.getSeriesColor(getLayerIndex());
+        canvas.setColor(color);
+        float strokeWidth = 1.5f;
+        if (context != null && context.getRenderHints() != null) {
+            Float hinted = context.getRenderHints().getStrokeWidth();
+            if (hinted != null && Float.isFinite(hinted) && hinted > 0f) {
+                strokeWidth = hinted;
+            }
+        }
+        canvas.setStroke(strokeWidth);
+    }
 }
@@ -51,4 +51,23 @@ public final class ColorUtils {
         if (a == null && b == null) return null;
         return ColorRegistry.interpolate(a, b, t);
     }
+
+    /**
+     * Fills {@code lut} with a four-stop gradient ({@code c0} at 0, {@code c1} at 0.33,
+     * {@code c2} at 0.66, {@code c3} at 1). Renderers index the table instead of interpolating
+     * per cell.
+     */
+    public static void fillGradientLut(ArberColor[] lut, ArberColor c0, ArberColor c1, ArberColor c2, ArberColor c3) {
+        int last = Math.max(1, lut.length - 1);
+        for (int i = 0; i < lut.length; i++) {
+            float t = i / (float) last;
+            if (t < 0.33f) {
+                lut[i] = interpolate(c0, c1, t / 0.33f);
+            } else if (t < 0.66f) {
+                lut[i] = interpolate(c1, c2, (t - 0.33f) / 0.33f);
+            } else {
+                lut[i] = interpolate(c2, c3, (t - 0.66f) / 0.34f);
+            }
+        }
+    }
 }
@@ -0,0 +1,406 @@
+package com.arbergashi.charts.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent log-linear latency histogram (HDR layout) for nanosecond timings.
+ *
+ * <p>Values are bucketed so that every recorded value is reproduced to the configured number of
+ * significant decimal digits over the whole trackable range, by default 1&nbsp;&micro;s to one
+ * hour. Recording is lock-free: counts live in a few {@link AtomicLongArray} stripes selected by
+ * thread, so concurrent producers rarely touch the same cache line. Readers take a
+ * {@link Snapshot}; percentile queries on a snapshot are a binary search over a fixed number of
+ * buckets, independent of how many values were recorded.</p>
+ *
+ * <p>{@link #intervalSnapshot()} returns and clears the counts since the previous interval, which
+ * is how rolling windows and periodic exporters are built. Histograms and snapshots with the same
+ * configuration merge bucket by bucket; others are merged value by value.</p>
+ *
+ * @author Arber Gashi
+ * @version 2.1.0
+ * @since 2.1.0
+ */
+public final class LatencyHistogram {
+    /** Default lowest discernible value: 1 microsecond. */
+    public static final long DEFAULT_LOWEST_NANOS = 1_000L;
+    /** Default highest trackable value: 1 hour. */
+    public static final long DEFAULT_HIGHEST_NANOS = 3_600_000_000_000L;
+    /** Default precision: two significant digits (1% value error). */
+    public static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+
+    private final Layout layout;
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+
+    /**
+     * Creates a histogram covering 1 µs to one hour with two significant digits.
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_LOWEST_NANOS, DEFAULT_HIGHEST_NANOS, DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * @param lowestDiscernibleNanos smallest value distinguished from zero, {@code >= 1}
+     * @param highestTrackableNanos  largest value recorded exactly; larger values are clamped
+     * @param significantDigits      decimal precision in {@code [0, 5]}
+     */
+    public LatencyHistogram(long lowestDiscernibleNanos, long highestTrackableNanos, int significantDigits) {
+        this.layout = new Layout(lowestDiscernibleNanos, highestTrackableNanos, significantDigits);
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int count = Math.min(8, Integer.highestOneBit(Math.max(1, cpus)));
+        this.stripes = new AtomicLongArray[count];
+        for (int i = 0; i < count; i++) stripes[i] = new AtomicLongArray(layout.countsLength);
+        this.stripeMask = count - 1;
+    }
+
+    /**
+     * Records one value in nanoseconds. Negative values are ignored.
+     */
+    public void record(long nanos) {
+        record(nanos, 1L);
+    }
+
+    /**
+     * Records {@code count} occurrences of a value in nanoseconds.
+     */
+    public void record(long nanos, long count) {
+        if (nanos < 0L || count <= 0L) return;
+        stripe().getAndAdd(layout.countsIndex(nanos), count);
+    }
+
+    /**
+     * Returns a snapshot of all counts recorded since creation or the last reset.
+     */
+    public Snapshot snapshot() {
+        return snapshot(null);
+    }
+
+    /**
+     * Fills {@code reuse} (or a new snapshot if it is {@code null} or differently configured)
+     * with the current counts, without clearing them.
+     */
+    public Snapshot snapshot(Snapshot reuse) {
+        Snapshot s = target(reuse);
+        long[] counts = s.counts;
+        java.util.Arrays.fill(counts, 0L);
+        addCountsTo(counts);
+        s.finish();
+        return s;
+    }
+
+    /**
+     * Returns the counts recorded since the previous interval snapshot and clears them. Values
+     * recorded concurrently land in either this interval or the next one, never in neither.
+     */
+    public Snapshot intervalSnapshot() {
+        return intervalSnapshot(null);
+    }
+
+    /**
+     * Allocation-free variant of {@link #intervalSnapshot()}.
+     */
+    public Snapshot intervalSnapshot(Snapshot reuse) {
+        Snapshot s = target(reuse);
+        long[] counts = s.counts;
+        java.util.Arrays.fill(counts, 0L);
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < counts.length; i++) {
+                if (stripe.getPlain(i) != 0L) counts[i] += stripe.getAndSet(i, 0L);
+            }
+        }
+        s.finish();
+        return s;
+    }
+
+    /**
+     * Adds the counts of this histogram into {@code snapshot} and refreshes its statistics.
+     */
+    public void addTo(Snapshot snapshot) {
+        if (snapshot.layout.equals(layout)) {
+            addCountsTo(snapshot.counts);
+            snapshot.finish();
+        } else {
+            snapshot.add(snapshot());
+        }
+    }
+
+    /**
+     * Clears all counts.
+     */
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < layout.countsLength; i++) stripe.set(i, 0L);
+        }
+    }
+
+    /**
+     * Adds all counts of {@code other} to this histogram.
+     */
+    public void add(LatencyHistogram other) {
+        if (other != null && other != this) add(other.snapshot());
+    }
+
+    /**
+     * Adds the counts of a snapshot to this histogram.
+     */
+    public void add(Snapshot snapshot) {
+        if (snapshot == null || snapshot.total == 0L) return;
+        AtomicLongArray stripe = stripe();
+        long[] counts = snapshot.counts;
+        boolean same = snapshot.layout.equals(layout);
+        for (int i = snapshot.minIndex; i <= snapshot.maxIndex; i++) {
+            long c = counts[i];
+            if (c == 0L) continue;
+            if (same) stripe.getAndAdd(i, c);
+            else record(snapshot.layout.medianEquivalentValue(i), c);
+        }
+    }
+
+    /**
+     * Returns the number of recorded values; sums all buckets.
+     */
+    public long getTotalCount() {
+        long total = 0L;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < layout.countsLength; i++) total += stripe.get(i);
+        }
+        return total;
+    }
+
+    public int getSignificantDigits() {
+        return layout.significantDigits;
+    }
+
+    public long getHighestTrackableNanos() {
+        return layout.highest;
+    }
+
+    private AtomicLongArray stripe() {
+        long id = Thread.currentThread().threadId();
+        int h = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32);
+        return stripes[h & stripeMask];
+    }
+
+    private void addCountsTo(long[] counts) {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < counts.length; i++) counts[i] += stripe.get(i);
+        }
+    }
+
+    private Snapshot target(Snapshot reuse) {
+        return reuse != null && reuse.layout.equals(layout) ? reuse : new Snapshot(layout);
+    }
+
+    /**
+     * Point-in-time view of a histogram's counts with precomputed cumulative totals.
+     *
+     * <p>Snapshots are not thread-safe for writing; a snapshot handed to several readers must not
+     * be refilled while they use it.</p>
+     */
+    public static final class Snapshot {
+        private final Layout layout;
+        private final long[] counts;
+        private final long[] cumulative;
+        private long total;
+        private int minIndex;
+        private int maxIndex;
+        private double mean;
+
+        private Snapshot(Layout layout) {
+            this.layout = layout;
+            this.counts = new long[layout.countsLength];
+            this.cumulative = new long[layout.countsLength];
+        }
+
+        /**
+         * Returns an empty snapshot with the default configuration.
+         */
+        public static Snapshot empty() {
+            return new LatencyHistogram(DEFAULT_LOWEST_NANOS, DEFAULT_HIGHEST_NANOS, DEFAULT_SIGNIFICANT_DIGITS).snapshot();
+        }
+
+        public long getTotalCount() {
+            return total;
+        }
+
+        /**
+         * Returns the value at the given quantile in {@code [0, 1]}, in nanoseconds: the highest
+         * value equivalent to the bucket that contains the quantile's rank. Zero when empty.
+         */
+        public long getValueAtQuantile(double quantile) {
+            if (total == 0L) return 0L;
+            double q = Math.min(1.0, Math.max(0.0, quantile));
+            long rank = Math.max(1L, (long) Math.ceil(q * total));
+            int lo = minIndex;
+            int hi = maxIndex;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cumulative[mid] < rank) lo = mid + 1;
+                else hi = mid;
+            }
+            return Math.min(layout.highest, layout.highestEquivalentValue(lo));
+        }
+
+        /**
+         * Returns {@link #getValueAtQuantile(double)} in milliseconds.
+         */
+        public double getQuantileMillis(double quantile) {
+            return getValueAtQuantile(quantile) / 1_000_000.0;
+        }
+
+        public long getMinNanos() {
+            return total == 0L ? 0L : layout.valueFromIndex(minIndex);
+        }
+
+        public long getMaxNanos() {
+            return total == 0L ? 0L : Math.min(layout.highest, layout.highestEquivalentValue(maxIndex));
+        }
+
+        public double getMeanNanos() {
+            return mean;
+        }
+
+        /**
+         * Returns a new snapshot holding the counts of both snapshots.
+         */
+        public Snapshot merge(Snapshot other) {
+            Snapshot out = new Snapshot(layout);
+            System.arraycopy(counts, 0, out.counts, 0, counts.length);
+            out.finish();
+            out.add(other);
+            return out;
+        }
+
+        /**
+         * Copies the counts of {@code source}, which must share this snapshot's configuration.
+         */
+        public void copyFrom(Snapshot source) {
+            if (!source.layout.equals(layout)) throw new IllegalArgumentException("Histogram configurations differ");
+            System.arraycopy(source.counts, 0, counts, 0, counts.length);
+            finish();
+        }
+
+        private void add(Snapshot other) {
+            if (other == null || other.total == 0L) return;
+            boolean same = other.layout.equals(layout);
+            for (int i = other.minIndex; i <= other.maxIndex; i++) {
+                long c = other.counts[i];
+                if (c == 0L) continue;
+                counts[same ? i : layout.countsIndex(other.layout.medianEquivalentValue(i))] += c;
+            }
+            finish();
+        }
+
+        private void finish() {
+            long acc = 0L;
+            double sum = 0.0;
+            int first = -1;
+            int last = 0;
+            for (int i = 0; i < counts.length; i++) {
+                long c = counts[i];
+                if (c != 0L) {
+                    if (first < 0) first = i;
+                    last = i;
+                    acc += c;
+                    sum += (double) c * layout.medianEquivalentValue(i);
+                }
+                cumulative[i] = acc;
+            }
+            total = acc;
+            minIndex = Math.max(0, first);
+            maxIndex = last;
+            mean = acc == 0L ? 0.0 : sum / acc;
+        }
+    }
+
+    /**
+     * Bucket geometry: {@code bucketCount} power-of-two ranges, each split into
+     * {@code subBucketHalfCount} linear sub-buckets (the first range uses all of them).
+     */
+    private static final class Layout {
+        final long lowest;
+        final long highest;
+        final int significantDigits;
+        final int unitMagnitude;
+        final int subBucketHalfCountMagnitude;
+        final int subBucketHalfCount;
+        final long subBucketMask;
+        final int leadingZeroCountBase;
+        final int countsLength;
+
+        Layout(long lowest, long highest, int significantDigits) {
+            if (lowest < 1L) throw new IllegalArgumentException("lowestDiscernibleNanos must be >= 1");
+            if (significantDigits < 0 || significantDigits > 5) {
+                throw new IllegalArgumentException("significantDigits must be in [0, 5]");
+            }
+            if (highest < 2L * lowest) throw new IllegalArgumentException("highestTrackableNanos must be >= 2 * lowest");
+            this.lowest = lowest;
+            this.highest = highest;
+            this.significantDigits = significantDigits;
+            long largestSingleUnit = 2L * (long) Math.pow(10, significantDigits);
+            int subBucketCountMagnitude = (int) Math.ceil(Math.log(largestSingleUnit) / Math.log(2));
+            this.subBucketHalfCountMagnitude = Math.max(subBucketCountMagnitude, 1) - 1;
+            int subBucketCount = 1 << (subBucketHalfCountMagnitude + 1);
+            this.subBucketHalfCount = subBucketCount / 2;
+            this.unitMagnitude = 63 - Long.numberOfLeadingZeros(lowest);
+            if (unitMagnitude + subBucketHalfCountMagnitude > 61) {
+                throw new IllegalArgumentException("Too many significant digits for lowestDiscernibleNanos");
+            }
+            this.subBucketMask = ((long) subBucketCount - 1L) << unitMagnitude;
+            this.leadingZeroCountBase = 64 - unitMagnitude - subBucketHalfCountMagnitude - 1;
+            long smallestUntrackable = (long) subBucketCount << unitMagnitude;
+            int buckets = 1;
+            while (smallestUntrackable <= highest) {
+                if (smallestUntrackable > Long.MAX_VALUE / 2) {
+                    buckets++;
+                    break;
+                }
+                smallestUntrackable <<= 1;
+                buckets++;
+            }
+            this.countsLength = (buckets + 1) * subBucketHalfCount;
+        }
+
+        int countsIndex(long value) {
+            long v = Math.min(value, highest);
+            int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(v | subBucketMask);
+            int subBucketIndex = (int) (v >>> (bucketIndex + unitMagnitude));
+            int index = ((bucketIndex + 1) << subBucketHalfCountMagnitude) + (subBucketIndex - subBucketHalfCount);
+            return Math.min(index, countsLength - 1);
+        }
+
+        long valueFromIndex(int index) {
+            int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+            int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+            if (bucketIndex < 0) {
+                subBucketIndex -= subBucketHalfCount;
+                bucketIndex = 0;
+            }
+            return (long) subBucketIndex << (bucketIndex + unitMagnitude);
+        }
+
+        long rangeSize(int index) {
+            int bucketIndex = Math.max(0, (index >> subBucketHalfCountMagnitude) - 1);
+            return 1L << (unitMagnitude + bucketIndex);
+        }
+
+        long highestEquivalentValue(int index) {
+            return valueFromIndex(index) + rangeSize(index) - 1L;
+        }
+
+        long medianEquivalentValue(int index) {
+            return valueFromIndex(index) + (rangeSize(index) >> 1);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Layout other && other.lowest == lowest && other.highest == highest
+                    && other.significantDigits == significantDigits;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(lowest) * 31 + Long.hashCode(highest) * 7 + significantDigits;
+        }
+    }
+}
@@ -1,67 +1,93 @@
 package com.arbergashi.charts.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Rolling latency tracker for render timings (zero-allocation).
+ *
+ * <p>Backed by a {@link LatencyHistogram}: recording is lock-free and safe from any thread,
+ * values from 1&nbsp;&micro;s to one hour are kept to two significant digits. The window rolls
+ * every {@code windowSize} samples, so percentiles cover the last {@code windowSize} to
+ * {@code 2 * windowSize} samples. Readers share a reusable snapshot that is refreshed only when
+ * new samples have arrived; rolling the window drains into a reused snapshot as well.</p>
   * @since 1.5.0
   * @author Arber Gashi
-  * @version 1.7.0
+  * @version 2.1.0
  */
 public final class LatencyTracker {
-    private static final long BIN_NS = 100_000L; // 0.1ms
-    private static final long MAX_NS = 50_000_000L; // 50ms
-    private static final int BIN_COUNT = (int) (MAX_NS / BIN_NS) + 1;
-
-    private final long[] samples;
-    private final int[] histogram;
-    private int index;
-    private int count;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final int windowSize;
+    private final AtomicLong recorded = new AtomicLong();
+    private final LatencyHistogram.Snapshot previousWindow;
+    private final LatencyHistogram.Snapshot view;
+    private long viewAt = -1L;
 
     public LatencyTracker(int windowSize) {
-        int size = Math.max(32, windowSize);
-        this.samples = new long[size];
-        this.histogram = new int[BIN_COUNT];
+        this.windowSize = Math.max(32, windowSize);
+        this.previousWindow = histogram.snapshot();
+        this.view = histogram.snapshot();
     }
 
     public void record(long nanos) {
         if (nanos < 0L) return;
-        long clipped = nanos > MAX_NS ? MAX_NS : nanos;
-        int bin = (int) (clipped / BIN_NS);
-        if (count == samples.length) {
-            long old = samples[index];
-            int oldBin = (int) (old / BIN_NS);
-            if (oldBin >= 0 && oldBin < histogram.length) {
-                histogram[oldBin]--;
-            }
-        } else {
-            count++;
+        histogram.record(nanos);
+        if (recorded.incrementAndGet() % windowSize == 0L) {
+            rollWindow();
         }
-        samples[index] = clipped;
-        histogram[bin]++;
-        index++;
-        if (index >= samples.length) index = 0;
+    }
+
+    // Once per window: drains into the reused snapshot under the readers' lock.
+    private synchronized void rollWindow() {
+        histogram.intervalSnapshot(previousWindow);
+        viewAt = -1L;
     }
 
     public int getSampleCount() {
-        return count;
+        return (int) Math.min(Integer.MAX_VALUE, getSnapshot().getTotalCount());
     }
 
     public double getP99Millis() {
-        return percentileMillis(0.99);
+        return getPercentileMillis(0.99);
     }
 
     public double getP999Millis() {
-        return percentileMillis(0.999);
+        return getPercentileMillis(0.999);
     }
 
-    private double percentileMillis(double quantile) {
-        if (count == 0) return 0.0;
-        int target = (int) Math.ceil(quantile * count);
-        int acc = 0;
-        for (int i = 0; i < histogram.length; i++) {
-            acc += histogram[i];
-            if (acc >= target) {
-                return (i * BIN_NS) / 1_000_000.0;
-            }
+    /**
+     * Returns the latency at {@code quantile} (in {@code [0, 1]}) over the rolling window.
+     *
+     * @since 2.1.0
+     */
+    public synchronized double getPercentileMillis(double quantile) {
+        return getSnapshot().getQuantileMillis(quantile);
+    }
+
+    /**
+     * Returns the rolling window as a snapshot. The instance is reused by later calls; copy it
+     * with {@link LatencyHistogram.Snapshot#merge} when it must outlive the next read.
+     *
+     * @since 2.1.0
+     */
+    public synchronized LatencyHistogram.Snapshot getSnapshot() {
+        long n = recorded.get();
+        if (n != viewAt) {
+            view.copyFrom(previousWindow);
+            histogram.addTo(view);
+            viewAt = n;
         }
-        return MAX_NS / 1_000_000.0;
+        return view;
+    }
+
+    /**
+     * Clears all samples.
+     *
+     * @since 2.1.0
+     */
+    public synchronized void reset() {
+        histogram.reset();
+        histogram.intervalSnapshot(previousWindow);
+        recorded.set(0L);
+        viewAt = -1L;
     }
 }
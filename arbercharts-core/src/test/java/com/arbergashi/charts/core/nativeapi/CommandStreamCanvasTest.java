@@ -37,6 +37,23 @@ class CommandStreamCanvasTest {
 
         int firstOpcode = buffer[8] & 0xFF;
         assertTrue(firstOpcode >= CommandStreamCanvas.OP_SET_COLOR && firstOpcode <= CommandStreamCanvas.OP_DRAW_TEXT);
+
+        // Batched renderers must still produce a stream an existing v1 decoder can walk.
+        int pos = 8;
+        while (pos < byteCount) {
+            int op = buffer[pos++] & 0xFF;
+            pos += switch (op) {
+                case CommandStreamCanvas.OP_SET_COLOR, CommandStreamCanvas.OP_SET_STROKE -> 4;
+                case CommandStreamCanvas.OP_MOVE_TO, CommandStreamCanvas.OP_LINE_TO -> 8;
+                case CommandStreamCanvas.OP_POLYLINE, CommandStreamCanvas.OP_FILL_POLYGON -> 4 + 8 * readU32(buffer, pos);
+                case CommandStreamCanvas.OP_DRAW_RECT, CommandStreamCanvas.OP_FILL_RECT,
+                     CommandStreamCanvas.OP_SET_CLIP -> 16;
+                case CommandStreamCanvas.OP_CLEAR_CLIP -> 0;
+                case CommandStreamCanvas.OP_DRAW_TEXT -> 10 + ((buffer[pos + 8] & 0xFF) | ((buffer[pos + 9] & 0xFF) << 8));
+                default -> throw new AssertionError("unknown v1 opcode 0x" + Integer.toHexString(op) + " at " + (pos - 1));
+            };
+        }
+        assertEquals(byteCount, pos);
     }
 
     private static int readU32(byte[] buffer, int offset) {
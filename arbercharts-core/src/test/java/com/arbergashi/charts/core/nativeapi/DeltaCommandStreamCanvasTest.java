@@ -0,0 +1,273 @@
+package com.arbergashi.charts.core.nativeapi;
+
+import com.arbergashi.charts.api.ChartThemes;
+import com.arbergashi.charts.api.DefaultPlotContext;
+import com.arbergashi.charts.api.types.ArberColor;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.core.rendering.ArberMatrices;
+import com.arbergashi.charts.core.rendering.ArberMatrix;
+import com.arbergashi.charts.core.rendering.MarkerShape;
+import com.arbergashi.charts.core.rendering.VoxelBuffer;
+import com.arbergashi.charts.core.testing.LargeScaleDataGenerator;
+import com.arbergashi.charts.model.ChartModel;
+import com.arbergashi.charts.model.DefaultChartModel;
+import com.arbergashi.charts.render.ChartRenderer;
+import com.arbergashi.charts.render.financial.CandlestickRenderer;
+import com.arbergashi.charts.render.standard.LineRenderer;
+import com.arbergashi.charts.util.ColorRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeltaCommandStreamCanvasTest {
+    private static final ArberRect BOUNDS = new ArberRect(40, 20, 800, 600);
+    private static final float TOLERANCE = 0.5f / (1 << DeltaCommandStreamCanvas.DEFAULT_FRACTION_BITS) + 1e-3f;
+
+    @Test
+    void renderedChartsRoundTripWithinQuantization() {
+        DeltaCommandStreamCanvas encoder = new DeltaCommandStreamCanvas(new CommandBuffer(16));
+        DeltaCommandStreamDecoder decoder = new DeltaCommandStreamDecoder();
+
+        ChartModel candles = LargeScaleDataGenerator.generateFinancialCandles("Candles", 5_000);
+        ChartModel line = LargeScaleDataGenerator.generateLineSeries("Line", 5_000);
+        for (Object[] chart : new Object[][]{{new CandlestickRenderer(), candles}, {new LineRenderer(), line}}) {
+            ChartRenderer renderer = (ChartRenderer) chart[0];
+            ChartModel model = (ChartModel) chart[1];
+            Recorder direct = new Recorder();
+            render(renderer, model, direct);
+
+            encoder.beginFrame((float) BOUNDS.x(), (float) BOUNDS.y(), false);
+            render(renderer, model, encoder);
+            int size = encoder.endFrame();
+
+            Recorder decoded = new Recorder();
+            decoder.decode(Arrays.copyOf(encoder.buffer().array(), size), decoded);
+            direct.assertMatches(decoded);
+        }
+    }
+
+    @Test
+    void everyPrimitiveRoundTrips() {
+        Recorder direct = new Recorder();
+        DeltaCommandStreamCanvas encoder = new DeltaCommandStreamCanvas(new CommandBuffer(16));
+        encoder.beginFrame(0f, 0f, true);
+        encoder.beginLayer(7);
+        for (ArberCanvas canvas : new ArberCanvas[]{direct, encoder}) {
+            float[] xs = {10f, 20.25f, 35.5f, 12f};
+            float[] ys = {5f, -3.125f, 40f, 18.75f};
+            int[] argb = {0xFF102030, 0xFF102030, 0x80FFFFFF, 0xFF102030};
+            canvas.setColor(ColorRegistry.ofArgb(0xFFAA0000));
+            canvas.setStroke(1.5f);
+            canvas.setClip(new ArberRect(1, 2, 300, 200));
+            canvas.moveTo(1f, 2f);
+            canvas.lineTo(-100000f, 70000.5f);
+            canvas.drawPolyline(xs, ys, 4);
+            canvas.fillPolygon(xs, ys, 3);
+            canvas.drawRect(3f, 4f, 5.5f, 6f);
+            canvas.setColor(ColorRegistry.ofArgb(0xFF00BB00));
+            canvas.fillRect(3f, 4f, -5.5f, 6f);
+            canvas.setColor(ColorRegistry.ofArgb(0xFFAA0000));
+            canvas.setStroke(2f);
+            canvas.setStroke(1.5f);
+            canvas.drawText(8f, 9f, "Δ price");
+            canvas.fillRects(xs, ys, ys, xs, argb, 4);
+            canvas.drawSegments(xs, ys, ys, xs, null, 4);
+            canvas.drawMarkers(MarkerShape.DIAMOND, xs, ys, 6f, argb, 4);
+            canvas.fillQuads(new float[]{0, 1, 2, 3, 4, 5, 6, 7}, new float[]{7, 6, 5, 4, 3, 2, 1, 0}, argb, 2);
+            canvas.setClip(null);
+        }
+        encoder.endLayer();
+        int size = encoder.endFrame();
+
+        Recorder decoded = new Recorder();
+        new DeltaCommandStreamDecoder().decode(Arrays.copyOf(encoder.buffer().array(), size), decoded);
+        direct.assertMatches(decoded);
+    }
+
+    @Test
+    void versionTwoIsMuchSmallerThanVersionOne() {
+        ChartModel model = LargeScaleDataGenerator.generateLineSeries("Line", 20_000);
+        CommandBuffer v1 = new CommandBuffer(1024);
+        v1.putInt(CommandStreamCanvas.VERSION);
+        v1.putInt(0);
+        render(new LineRenderer(), model, new CommandStreamCanvas(v1));
+
+        DeltaCommandStreamCanvas v2 = new DeltaCommandStreamCanvas(new CommandBuffer(1024));
+        v2.beginFrame((float) BOUNDS.x(), (float) BOUNDS.y(), true);
+        render(new LineRenderer(), model, v2);
+        int size = v2.endFrame();
+
+        assertTrue(size * 2 < v1.position(), "v2 " + size + " bytes vs v1 " + v1.position());
+    }
+
+    @Test
+    void unchangedLayersAreSentAsReuse() {
+        DefaultChartModel model = LargeScaleDataGenerator.generateLineSeries("Line", 2_000);
+        LineRenderer renderer = new LineRenderer();
+        DeltaCommandStreamCanvas encoder = new DeltaCommandStreamCanvas(new CommandBuffer(256));
+        encoder.setDiffing(true);
+        DeltaCommandStreamDecoder decoder = new DeltaCommandStreamDecoder();
+
+        // The keyframe teaches the palette; the next frame refers to it by index.
+        encodeLayer(encoder, renderer, model, decoder, new Recorder());
+        Recorder first = new Recorder();
+        int full = encodeLayer(encoder, renderer, model, decoder, first);
+
+        Recorder second = new Recorder();
+        int reused = encodeLayer(encoder, renderer, model, decoder, second);
+        assertTrue(reused <= DeltaCommandStreamCanvas.HEADER_BYTES + 2, "reuse frame is " + reused + " bytes");
+        first.assertMatches(second);
+
+        model.setXY(2_000, 500);
+        Recorder changed = new Recorder();
+        int resent = encodeLayer(encoder, renderer, model, decoder, changed);
+        assertTrue(resent > full / 2, "changed layer must be resent");
+        Recorder direct = new Recorder();
+        render(renderer, model, direct);
+        direct.assertMatches(changed);
+    }
+
+    private static int encodeLayer(DeltaCommandStreamCanvas encoder, ChartRenderer renderer, ChartModel model,
+                                   DeltaCommandStreamDecoder decoder, Recorder sink) {
+        encoder.beginFrame((float) BOUNDS.x(), (float) BOUNDS.y(), false);
+        encoder.beginLayer(0);
+        render(renderer, model, encoder);
+        encoder.endLayer();
+        int size = encoder.endFrame();
+        decoder.decode(Arrays.copyOf(encoder.buffer().array(), size), sink);
+        return size;
+    }
+
+    private static void render(ChartRenderer renderer, ChartModel model, ArberCanvas canvas) {
+        DefaultPlotContext context = new DefaultPlotContext(BOUNDS, model, Double.NaN, Double.NaN, Double.NaN, Double.NaN, ChartThemes.getDarkTheme());
+        renderer.render(canvas, model, context);
+    }
+
+    /**
+     * Flattens every call into an op name, its float arguments and its colors.
+     */
+    private static final class Recorder implements ArberCanvas {
+        final List<String> ops = new ArrayList<>();
+        final List<float[]> values = new ArrayList<>();
+        final List<int[]> colors = new ArrayList<>();
+
+        private void add(String op, int[] argb, int count, float... v) {
+            ops.add(op);
+            values.add(v);
+            colors.add(argb == null ? null : Arrays.copyOf(argb, count));
+        }
+
+        void assertMatches(Recorder other) {
+            assertEquals(ops, other.ops);
+            for (int i = 0; i < ops.size(); i++) {
+                float[] a = values.get(i);
+                float[] b = other.values.get(i);
+                assertEquals(a.length, b.length, ops.get(i));
+                for (int k = 0; k < a.length; k++) {
+                    assertEquals(a[k], b[k], TOLERANCE, ops.get(i) + " #" + i + " value " + k);
+                }
+                assertTrue(Arrays.equals(colors.get(i), other.colors.get(i)), ops.get(i) + " #" + i + " colors");
+            }
+        }
+
+        private static float[] concat(int count, float[]... arrays) {
+            float[] out = new float[count * arrays.length];
+            for (int a = 0; a < arrays.length; a++) System.arraycopy(arrays[a], 0, out, a * count, count);
+            return out;
+        }
+
+        @Override
+        public void setColor(ArberColor color) {
+            add("color", new int[]{color.argb()}, 1);
+        }
+
+        @Override
+        public void setStroke(float width) {
+            add("stroke", null, 0, width);
+        }
+
+        @Override
+        public void moveTo(float x, float y) {
+            add("moveTo", null, 0, x, y);
+        }
+
+        @Override
+        public void lineTo(float x, float y) {
+            add("lineTo", null, 0, x, y);
+        }
+
+        @Override
+        public void drawPolyline(float[] xs, float[] ys, int count) {
+            add("polyline", null, 0, concat(count, xs, ys));
+        }
+
+        @Override
+        public void drawRect(float x, float y, float w, float h) {
+            add("drawRect", null, 0, x, y, w, h);
+        }
+
+        @Override
+        public void fillRect(float x, float y, float w, float h) {
+            add("fillRect", null, 0, x, y, w, h);
+        }
+
+        @Override
+        public void fillPolygon(float[] xs, float[] ys, int count) {
+            add("polygon", null, 0, concat(count, xs, ys));
+        }
+
+        @Override
+        public void drawVoxelField(VoxelBuffer buffer) {
+        }
+
+        @Override
+        public ArberMatrix getTransform() {
+            return ArberMatrices.identity();
+        }
+
+        @Override
+        public void setClip(ArberRect clip) {
+            if (clip == null) add("clearClip", null, 0);
+            else add("clip", null, 0, (float) clip.x(), (float) clip.y(), (float) clip.width(), (float) clip.height());
+        }
+
+        @Override
+        public ArberRect getClip() {
+            return null;
+        }
+
+        @Override
+        public void drawText(float x, float y, String text) {
+            add("text:" + text, null, 0, x, y);
+        }
+
+        @Override
+        public void fillRects(float[] x, float[] y, float[] w, float[] h, int[] argb, int count) {
+            add("fillRects", argb, count, concat(count, x, y, w, h));
+        }
+
+        @Override
+        public void drawSegments(float[] x0, float[] y0, float[] x1, float[] y1, int[] argb, int count) {
+            add("segments", argb, count, concat(count, x0, y0, x1, y1));
+        }
+
+        @Override
+        public void drawMarkers(MarkerShape shape, float[] xs, float[] ys, float size, int[] argb, int count) {
+            float[] v = concat(count, xs, ys);
+            v = Arrays.copyOf(v, v.length + 1);
+            v[v.length - 1] = size;
+            add("markers:" + shape, argb, count, v);
+        }
+
+        @Override
+        public void fillQuads(float[] xs, float[] ys, int[] argb, int count) {
+            add("quads", argb, count, concat(count * 4, xs, ys));
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.arbergashi.charts.core.nativeapi;
+
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.core.rendering.MarkerShape;
+import com.arbergashi.charts.util.ColorRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.arbergashi.charts.core.nativeapi.DeltaCommandStreamCanvas.*;
+
+/**
+ * Reference decoder for version-2 command streams; replays frames onto an {@link ArberCanvas}.
+ * Keeps palettes and layer caches between frames like a native host would.
+ */
+final class DeltaCommandStreamDecoder {
+    private final int[] colors = new int[MAX_COLORS];
+    private int colorCount;
+    private final float[] strokes = new float[MAX_STROKES];
+    private int strokeCount;
+    private final Map<Integer, byte[]> layers = new HashMap<>();
+
+    private byte[] src;
+    private int pos;
+    private float originX;
+    private float originY;
+    private float invScale;
+    private int cursorX;
+    private int cursorY;
+    private ArberCanvas target;
+
+    void decode(byte[] frame, ArberCanvas target) {
+        this.src = frame;
+        this.pos = 0;
+        this.target = target;
+        int version = readInt();
+        if (version != VERSION) throw new IllegalArgumentException("version " + version);
+        int end = readInt();
+        int flags = src[pos++] & 0xFF;
+        int fractionBits = src[pos++] & 0xFF;
+        originX = Float.intBitsToFloat(readInt());
+        originY = Float.intBitsToFloat(readInt());
+        invScale = 1f / (1 << fractionBits);
+        if ((flags & FLAG_KEYFRAME) != 0) {
+            colorCount = 0;
+            strokeCount = 0;
+            layers.clear();
+        }
+        cursorX = 0;
+        cursorY = 0;
+        run(end);
+    }
+
+    private void run(int end) {
+        int bodyStart = -1;
+        int layerId = 0;
+        while (pos < end) {
+            int opStart = pos;
+            int op = readVarint();
+            switch (op) {
+                case OP_COLOR -> target.setColor(ColorRegistry.ofArgb(colors[readVarint()]));
+                case OP_COLOR_LITERAL -> target.setColor(ColorRegistry.ofArgb(learnColor(readInt())));
+                case OP_STROKE -> target.setStroke(strokes[readVarint()]);
+                case OP_STROKE_LITERAL -> {
+                    float w = Float.intBitsToFloat(readInt());
+                    if (strokeCount < MAX_STROKES) strokes[strokeCount++] = w;
+                    target.setStroke(w);
+                }
+                case OP_MOVE_TO -> {
+                    readPoint();
+                    target.moveTo(x(), y());
+                }
+                case OP_LINE_TO -> {
+                    readPoint();
+                    target.lineTo(x(), y());
+                }
+                case OP_POLYLINE, OP_FILL_POLYGON -> {
+                    int n = readVarint();
+                    float[] xs = new float[n];
+                    float[] ys = new float[n];
+                    for (int i = 0; i < n; i++) {
+                        readPoint();
+                        xs[i] = x();
+                        ys[i] = y();
+                    }
+                    if (op == OP_POLYLINE) target.drawPolyline(xs, ys, n);
+                    else target.fillPolygon(xs, ys, n);
+                }
+                case OP_DRAW_RECT, OP_FILL_RECT, OP_SET_CLIP -> {
+                    readPoint();
+                    float x = x();
+                    float y = y();
+                    float w = readSize();
+                    float h = readSize();
+                    if (op == OP_DRAW_RECT) target.drawRect(x, y, w, h);
+                    else if (op == OP_FILL_RECT) target.fillRect(x, y, w, h);
+                    else target.setClip(new ArberRect(x, y, w, h));
+                }
+                case OP_CLEAR_CLIP -> target.setClip(null);
+                case OP_DRAW_TEXT -> {
+                    readPoint();
+                    int len = readVarint();
+                    String text = new String(src, pos, len, StandardCharsets.UTF_8);
+                    pos += len;
+                    target.drawText(x(), y(), text);
+                }
+                case OP_FILL_RECTS, OP_DRAW_SEGMENTS -> {
+                    int n = readVarint();
+                    int[] argb = (src[pos++] & 0xFF) != 0 ? new int[n] : null;
+                    float[] a = new float[n];
+                    float[] b = new float[n];
+                    float[] c = new float[n];
+                    float[] d = new float[n];
+                    for (int i = 0; i < n; i++) {
+                        if (argb != null) argb[i] = readColorToken(argb, i);
+                        readPoint();
+                        a[i] = x();
+                        b[i] = y();
+                        if (op == OP_FILL_RECTS) {
+                            c[i] = readSize();
+                            d[i] = readSize();
+                        } else {
+                            readPoint();
+                            c[i] = x();
+                            d[i] = y();
+                        }
+                    }
+                    if (op == OP_FILL_RECTS) target.fillRects(a, b, c, d, argb, n);
+                    else target.drawSegments(a, b, c, d, argb, n);
+                }
+                case OP_DRAW_MARKERS -> {
+                    MarkerShape shape = MarkerShape.values()[src[pos++] & 0xFF];
+                    float size = Float.intBitsToFloat(readInt());
+                    int n = readVarint();
+                    int[] argb = (src[pos++] & 0xFF) != 0 ? new int[n] : null;
+                    float[] xs = new float[n];
+                    float[] ys = new float[n];
+                    for (int i = 0; i < n; i++) {
+                        if (argb != null) argb[i] = readColorToken(argb, i);
+                        readPoint();
+                        xs[i] = x();
+                        ys[i] = y();
+                    }
+                    target.drawMarkers(shape, xs, ys, size, argb, n);
+                }
+                case OP_FILL_QUADS -> {
+                    int n = readVarint();
+                    int[] argb = (src[pos++] & 0xFF) != 0 ? new int[n] : null;
+                    float[] xs = new float[n * 4];
+                    float[] ys = new float[n * 4];
+                    for (int i = 0; i < n; i++) {
+                        if (argb != null) argb[i] = readColorToken(argb, i);
+                        for (int k = i * 4; k < i * 4 + 4; k++) {
+                            readPoint();
+                            xs[k] = x();
+                            ys[k] = y();
+                        }
+                    }
+                    target.fillQuads(xs, ys, argb, n);
+                }
+                case OP_LAYER_BEGIN -> {
+                    layerId = readVarint();
+                    bodyStart = pos;
+                    cursorX = 0;
+                    cursorY = 0;
+                }
+                case OP_LAYER_END -> {
+                    layers.put(layerId, Arrays.copyOfRange(src, bodyStart, opStart));
+                    cursorX = 0;
+                    cursorY = 0;
+                }
+                case OP_LAYER_REUSE -> {
+                    byte[] body = layers.get(readVarint());
+                    if (body == null) throw new IllegalStateException("reuse of unknown layer");
+                    byte[] outer = src;
+                    int resume = pos;
+                    src = body;
+                    pos = 0;
+                    cursorX = 0;
+                    cursorY = 0;
+                    run(body.length);
+                    src = outer;
+                    pos = resume;
+                    cursorX = 0;
+                    cursorY = 0;
+                }
+                default -> throw new IllegalArgumentException("opcode " + op + " at " + opStart);
+            }
+        }
+    }
+
+    private int readColorToken(int[] argb, int i) {
+        int token = readVarint();
+        if (token == TOKEN_REPEAT) return argb[i - 1];
+        if (token == TOKEN_LITERAL) return learnColor(readInt());
+        return colors[token - TOKEN_PALETTE];
+    }
+
+    private int learnColor(int argb) {
+        if (colorCount < MAX_COLORS) colors[colorCount++] = argb;
+        return argb;
+    }
+
+    private void readPoint() {
+        cursorX += readZigZag();
+        cursorY += readZigZag();
+    }
+
+    private float x() {
+        return originX + cursorX * invScale;
+    }
+
+    private float y() {
+        return originY + cursorY * invScale;
+    }
+
+    private float readSize() {
+        return readZigZag() * invScale;
+    }
+
+    private int readZigZag() {
+        int v = readVarint();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private int readVarint() {
+        int result = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = src[pos++] & 0xFF;
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+    }
+
+    private int readInt() {
+        int v = (src[pos] & 0xFF) | ((src[pos + 1] & 0xFF) << 8) | ((src[pos + 2] & 0xFF) << 16) | ((src[pos + 3] & 0xFF) << 24);
+        pos += 4;
+        return v;
+    }
+}
@@ -0,0 +1,180 @@
+package com.arbergashi.charts.core.nativeapi;
+
+import com.arbergashi.charts.api.DefaultPlotContext;
+import com.arbergashi.charts.model.ChartModel;
+import com.arbergashi.charts.model.DefaultChartModel;
+import com.arbergashi.charts.model.OffHeapRingChartModel;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class NativeChartSessionTest {
+
+    @Test
+    void cachedContextMatchesFreshContextAcrossAppends() {
+        NativeChartSession session = NativeChartSession.financial();
+        session.setViewport(0, 0, 800, 600);
+        double price = 100;
+        for (int chunk = 0; chunk < 4; chunk++) {
+            int n = 250 + chunk;
+            double[] t = new double[n], o = new double[n], h = new double[n], l = new double[n], c = new double[n];
+            for (int i = 0; i < n; i++) {
+                t[i] = chunk * 1000 + i;
+                o[i] = price;
+                price += Math.sin(chunk * 7 + i * 0.1) * 3;
+                c[i] = price;
+                h[i] = Math.max(o[i], c[i]) + 1;
+                l[i] = Math.min(o[i], c[i]) - 1;
+            }
+            assertEquals(0, session.appendOHLC(seg(t), seg(o), seg(h), seg(l), seg(c), null, n));
+            assertMatchesFresh(session);
+        }
+        DefaultPlotContext cached = session.context();
+        assertSame(cached, session.context(), "unchanged model must reuse the context");
+
+        NativeChartSession line = NativeChartSession.line();
+        line.setViewport(10, 10, 400, 300);
+        for (int chunk = 0; chunk < 3; chunk++) {
+            assertEquals(0, line.appendXY(seg(new double[]{chunk * 3, chunk * 3 + 1, chunk * 3 + 2}),
+                    seg(new double[]{5 - chunk * 4, 2, 7 + chunk}), 3));
+            assertMatchesFresh(line);
+        }
+    }
+
+    @Test
+    void interleavedUpdateIsOneBulkAppend() {
+        NativeChartSession session = NativeChartSession.line();
+        AtomicInteger notifications = new AtomicInteger();
+        session.model.setChangeListener(notifications::incrementAndGet);
+        double[] interleaved = {0, 1.5, 1, -2, 2, 4, 3, 0.25};
+        assertEquals(0, session.appendInterleaved(seg(interleaved), interleaved.length));
+        assertEquals(1, notifications.get());
+
+        DefaultChartModel expected = new DefaultChartModel();
+        for (int i = 0; i < interleaved.length; i += 2) expected.setXY(interleaved[i], interleaved[i + 1]);
+        ChartModel actual = session.model;
+        assertEquals(expected.getPointCount(), actual.getPointCount());
+        for (int i = 0; i < expected.getPointCount(); i++) {
+            assertEquals(expected.getX(i), actual.getX(i));
+            assertEquals(expected.getY(i), actual.getY(i));
+            assertEquals(expected.getMin(i), actual.getMin(i));
+            assertEquals(expected.getMax(i), actual.getMax(i));
+            assertEquals(expected.getWeight(i), actual.getWeight(i));
+        }
+        assertEquals(-3, NativeChartSession.ring(4).appendInterleaved(seg(interleaved), interleaved.length));
+    }
+
+    @Test
+    void ringExposesDirectWritesAfterPublish() {
+        try (NativeChartSession session = NativeChartSession.ring(6)) {
+            session.setViewport(0, 0, 200, 100);
+            MemorySegment xs = session.ringColumn(OffHeapRingChartModel.Column.X);
+            MemorySegment ys = session.ringColumn(OffHeapRingChartModel.Column.Y);
+            assertNotNull(xs);
+            int capacity = (int) (xs.byteSize() / Double.BYTES);
+            assertEquals(8, capacity);
+            for (int row = 0; row < 12; row++) {
+                xs.setAtIndex(ValueLayout.JAVA_DOUBLE_UNALIGNED, row & (capacity - 1), row);
+                ys.setAtIndex(ValueLayout.JAVA_DOUBLE_UNALIGNED, row & (capacity - 1), row * 10.0);
+            }
+            assertEquals(0, session.model.getPointCount());
+            assertEquals(0, session.publish(12));
+
+            ChartModel model = session.model;
+            assertEquals(8, model.getPointCount());
+            assertEquals(4L, model.getFirstSequence());
+            for (int i = 0; i < 8; i++) {
+                assertEquals(4 + i, model.getX(i));
+                assertEquals((4 + i) * 10.0, model.getY(i));
+                assertEquals(4 + i, model.getXData()[i]);
+            }
+            assertMatchesFresh(session);
+            assertEquals(-2, session.publish(11));
+        }
+    }
+
+    @Test
+    void ringFramePinsPublishedRowsAndScansRangeOffHeap() {
+        try (OffHeapRingChartModel ring = new OffHeapRingChartModel(8)) {
+            MemorySegment xs = ring.column(OffHeapRingChartModel.Column.X);
+            MemorySegment ys = ring.column(OffHeapRingChartModel.Column.Y);
+            writeRows(xs, ys, 0, 5);
+            ring.publish(3);
+            assertEquals(3, ring.getXData().length, "heap copy sized to the published rows");
+            ring.publish(5);
+            assertArrayEquals(new double[]{0, 1, 2, 3, 4}, Arrays.copyOf(ring.getXData(), 5));
+
+            ring.beginFrame();
+            writeRows(xs, ys, 5, 8);
+            ring.publish(8);
+            assertEquals(5, ring.getPointCount(), "publish during a frame is not visible yet");
+            assertEquals(0.0, ring.getX(5));
+            assertArrayEquals(new double[]{0, 4, -4, 0}, ring.getDataRange());
+            ring.endFrame();
+            assertEquals(7.0, ring.getX(7));
+
+            writeRows(xs, ys, 8, 11);
+            ring.publish(11);
+            assertEquals(8, ring.getPointCount());
+            assertEquals(3.0, ring.getX(0));
+            assertArrayEquals(new double[]{3, 10, -10, -3}, ring.getDataRange());
+            assertArrayEquals(new double[]{3, 4, 5, 6, 7, 8, 9, 10}, ring.getXData());
+        }
+    }
+
+    private static void writeRows(MemorySegment xs, MemorySegment ys, int from, int to) {
+        for (int row = from; row < to; row++) {
+            xs.setAtIndex(ValueLayout.JAVA_DOUBLE_UNALIGNED, row & 7, row);
+            ys.setAtIndex(ValueLayout.JAVA_DOUBLE_UNALIGNED, row & 7, -row);
+        }
+    }
+
+    @Test
+    void encodedFrameIsReadInChunks() {
+        NativeChartSession session = NativeChartSession.line();
+        session.setViewport(0, 0, 640, 480);
+        double[] xs = new double[5000];
+        double[] ys = new double[5000];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = i;
+            ys[i] = Math.sin(i * 0.01) * 100;
+        }
+        session.appendXY(seg(xs), seg(ys), xs.length);
+        int size = session.encodeFrame(true, false);
+        assertEquals(size, session.stream().buffer().position());
+
+        byte[] read = new byte[size];
+        MemorySegment chunk = MemorySegment.ofArray(new byte[1000]);
+        int total = 0;
+        for (int n; (n = session.readFrame(chunk)) > 0; total += n) {
+            MemorySegment.copy(chunk, 0, MemorySegment.ofArray(read), total, n);
+        }
+        assertEquals(size, total);
+        byte[] expected = new byte[size];
+        System.arraycopy(session.stream().buffer().array(), 0, expected, 0, size);
+        assertArrayEquals(expected, read);
+    }
+
+    private static void assertMatchesFresh(NativeChartSession session) {
+        DefaultPlotContext cached = session.context();
+        DefaultPlotContext fresh = new DefaultPlotContext(session.bounds, session.model, Double.NaN, Double.NaN,
+                Double.NaN, Double.NaN, session.theme, session.hints);
+        assertEquals(fresh.getMinX(), cached.getMinX());
+        assertEquals(fresh.getMaxX(), cached.getMaxX());
+        assertEquals(fresh.getMinY(), cached.getMinY(), 1e-9);
+        assertEquals(fresh.getMaxY(), cached.getMaxY(), 1e-9);
+        assertEquals(fresh.getPlotBounds(), cached.getPlotBounds());
+    }
+
+    private static MemorySegment seg(double[] values) {
+        return MemorySegment.ofArray(values);
+    }
+}
@@ -0,0 +1,58 @@
+package com.arbergashi.charts.core.rendering;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntRasterizerTest {
+
+    @Test
+    void fillsRespectStrideOffsetAndClip() {
+        int[] pixels = new int[2 + 8 * 6];
+        IntRasterizer raster = new IntRasterizer(false).bind(pixels, 2, 8, 6, 6, true);
+        raster.setClip(1, 1, 5, 4);
+        raster.fillRect(-10, -10, 10, 10, 0xFF112233);
+
+        assertEquals(0, pixels[2 + 8 + 0]);
+        assertEquals(0xFF112233, pixels[2 + 8 + 1]);
+        assertEquals(0xFF112233, pixels[2 + 3 * 8 + 4]);
+        assertEquals(0, pixels[2 + 3 * 8 + 5]);
+        assertEquals(0, pixels[2 + 4 * 8 + 1]);
+        assertEquals(0, pixels[0]);
+    }
+
+    @Test
+    void linesIncludeBothEndpoints() {
+        int[] pixels = new int[10 * 10];
+        IntRasterizer raster = new IntRasterizer(false).bind(pixels, 0, 10, 10, 10, true);
+        raster.line(7, 2, 2, 2, 1);
+        raster.line(1, 5, 4, 8, 2);
+
+        for (int x = 2; x <= 7; x++) assertEquals(1, pixels[2 * 10 + x]);
+        assertEquals(0, pixels[2 * 10 + 8]);
+        assertEquals(2, pixels[5 * 10 + 1]);
+        assertEquals(2, pixels[8 * 10 + 4]);
+    }
+
+    @Test
+    void blendingComposesSrcOver() {
+        assertEquals(0xFF808080, IntRasterizer.srcOver(0xFF000000, 0x80FFFFFF, false));
+        assertEquals(0x00808080, IntRasterizer.srcOver(0x00000000, 0x80FFFFFF, true));
+        assertEquals(0x80FFFFFF, IntRasterizer.srcOver(0x00000000, 0x80FFFFFF, false));
+        assertEquals(0xFF0000FF, IntRasterizer.srcOver(0xFFFF0000, 0xFF0000FF, false));
+        assertEquals(0xFFFF0000, IntRasterizer.srcOver(0xFFFF0000, 0x000000FF, false));
+
+        int[] pixels = {0xFF000000};
+        new IntRasterizer(true).bind(pixels, 0, 1, 1, 1, true).fillRect(0, 0, 1, 1, 0x80FFFFFF);
+        assertEquals(0xFF808080, pixels[0]);
+    }
+
+    @Test
+    void mul8RoundsToNearest() {
+        for (int a = 0; a < 256; a++) {
+            for (int b = 0; b < 256; b++) {
+                assertEquals(Math.round(a * b / 255f), IntRasterizer.mul8(a, b));
+            }
+        }
+    }
+}
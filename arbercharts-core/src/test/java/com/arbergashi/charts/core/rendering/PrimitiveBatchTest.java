@@ -0,0 +1,74 @@
+package com.arbergashi.charts.core.rendering;
+
+import com.arbergashi.charts.api.types.ArberColor;
+import com.arbergashi.charts.render.testing.RasterTestCanvas;
+import com.arbergashi.charts.util.ColorRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PrimitiveBatchTest {
+    private static final ArberColor RED = ColorRegistry.ofArgb(0xFFFF0000);
+    private static final ArberColor BLUE = ColorRegistry.ofArgb(0xFF0000FF);
+
+    @Test
+    void fillRectsUsesPerElementColors() {
+        RasterTestCanvas canvas = new RasterTestCanvas(20, 10);
+        PrimitiveBatch batch = new PrimitiveBatch();
+        batch.addRect(1, 1, 3, 3, RED);
+        batch.addRect(10, 1, 3, 3, BLUE);
+        batch.fillRects(canvas);
+
+        assertEquals(0xFFFF0000, pixel(canvas, 2, 2));
+        assertEquals(0xFF0000FF, pixel(canvas, 11, 2));
+        assertEquals(0, pixel(canvas, 7, 2));
+    }
+
+    @Test
+    void batchGrowsAndClearKeepsNothing() {
+        RasterTestCanvas canvas = new RasterTestCanvas(200, 4);
+        PrimitiveBatch batch = new PrimitiveBatch();
+        for (int i = 0; i < 150; i++) {
+            batch.addSegment(i, 1, i, 2, i % 2 == 0 ? RED : BLUE);
+        }
+        assertEquals(150, batch.size());
+        batch.drawSegments(canvas);
+        assertEquals(0xFFFF0000, pixel(canvas, 148, 1));
+        assertEquals(0xFF0000FF, pixel(canvas, 149, 2));
+
+        batch.clear();
+        assertEquals(0, batch.size());
+    }
+
+    @Test
+    void markersAndQuadsFallBackToPolygons() {
+        RasterTestCanvas canvas = new RasterTestCanvas(40, 20);
+        PrimitiveBatch markers = new PrimitiveBatch();
+        markers.addPoint(5, 5, RED);
+        markers.drawMarkers(canvas, MarkerShape.SQUARE, 4f);
+        assertEquals(0xFFFF0000, pixel(canvas, 5, 5));
+
+        PrimitiveBatch quads = new PrimitiveBatch();
+        quads.addQuad(20, 2, 30, 2, 30, 12, 20, 12, BLUE);
+        quads.fillQuads(canvas);
+        // The test canvas strokes polygon outlines.
+        assertEquals(0xFF0000FF, pixel(canvas, 25, 2));
+    }
+
+    @Test
+    void countsAreClampedToArrayLengths() {
+        RasterTestCanvas canvas = new RasterTestCanvas(10, 10);
+        float[] one = {2f};
+        canvas.setColor(RED);
+        canvas.fillRects(one, one, one, one, null, 5);
+        canvas.drawSegments(one, one, one, one, new int[0], 3);
+        canvas.drawMarkers(MarkerShape.CIRCLE, one, one, 2f, null, -1);
+        canvas.fillQuads(one, one, null, 1);
+
+        assertEquals(0xFFFF0000, pixel(canvas, 3, 3));
+    }
+
+    private static int pixel(RasterTestCanvas canvas, int x, int y) {
+        return canvas.pixels()[y * canvas.width() + x];
+    }
+}
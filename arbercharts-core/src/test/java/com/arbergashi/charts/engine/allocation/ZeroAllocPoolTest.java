@@ -0,0 +1,73 @@
+package com.arbergashi.charts.engine.allocation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZeroAllocPoolTest {
+
+    @BeforeEach
+    void resetPool() {
+        ZeroAllocPool.reset();
+    }
+
+    @Test
+    void colorsAreSharedAcrossComponentAndArgbLookups() throws InterruptedException {
+        Color red = ZeroAllocPool.getColor(255, 0, 0);
+        assertSame(red, ZeroAllocPool.getColor(0xFFFF0000));
+        assertSame(red, ZeroAllocPool.getColor(255, 0, 0, 255));
+
+        Color[] fromOtherThread = new Color[1];
+        Thread t = new Thread(() -> fromOtherThread[0] = ZeroAllocPool.getColor(0xFFFF0000));
+        t.start();
+        t.join();
+        assertSame(red, fromOtherThread[0]);
+
+        Color translucent = ZeroAllocPool.getColor(0x80102030);
+        assertEquals(0x80, translucent.getAlpha());
+        assertEquals(0x10, translucent.getRed());
+
+        AllocationStats stats = ZeroAllocPool.getStats();
+        assertEquals(2, stats.colorMisses);
+        assertEquals(3, stats.colorHits);
+        assertEquals(2, stats.colorEntries);
+    }
+
+    @Test
+    void colorCacheStaysBoundedAndCountsEvictions() {
+        for (int i = 0; i < 100_000; i++) {
+            ZeroAllocPool.getColor(0xFF000000 | i * 7919);
+        }
+        AllocationStats stats = ZeroAllocPool.getStats();
+        assertEquals(100_000, stats.colorMisses);
+        assertTrue(stats.colorEntries <= ColorCache.CAPACITY);
+        assertTrue(stats.colorEvictions >= 100_000 - ColorCache.CAPACITY);
+    }
+
+    @Test
+    void strokesAreKeyedByWidthAndDashContents() {
+        BasicStroke solid = ZeroAllocPool.getStroke(1.5f);
+        assertSame(solid, ZeroAllocPool.getStroke(1.5f));
+
+        float[] dash = {4f, 2f};
+        BasicStroke dashed = ZeroAllocPool.getStroke(1.5f, dash);
+        assertNotSame(solid, dashed);
+        assertSame(dashed, ZeroAllocPool.getStroke(1.5f, new float[]{4f, 2f}));
+
+        dash[0] = 9f; // caller mutation must not corrupt the cached key
+        assertArrayEquals(new float[]{4f, 2f}, ZeroAllocPool.getStroke(1.5f, new float[]{4f, 2f}).getDashArray());
+        assertNotSame(dashed, ZeroAllocPool.getStroke(1.5f, dash));
+
+        AllocationStats stats = ZeroAllocPool.getStats();
+        assertEquals(3, stats.strokeMisses);
+        assertEquals(3, stats.strokeHits);
+    }
+}
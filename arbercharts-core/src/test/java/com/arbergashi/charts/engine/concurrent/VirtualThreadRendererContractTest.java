@@ -1,5 +1,6 @@
 package com.arbergashi.charts.engine.concurrent;
 
+import com.arbergashi.charts.model.DefaultChartModel;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.CompletionException;
@@ -22,13 +23,28 @@ class VirtualThreadRendererContractTest {
 
             UnsupportedOperationException pngCause =
                 assertInstanceOf(UnsupportedOperationException.class, pngFailure.getCause());
-            UnsupportedOperationException svgCause =
-                assertInstanceOf(UnsupportedOperationException.class, svgFailure.getCause());
+            assertInstanceOf(IllegalArgumentException.class, svgFailure.getCause());
 
             assertTrue(pngCause.getMessage().contains("2.0.0"));
-            assertTrue(svgCause.getMessage().contains("2.0.0"));
             assertFalse(pngCause.getMessage().contains("2.0.1"));
-            assertFalse(svgCause.getMessage().contains("2.0.1"));
+        } finally {
+            renderer.shutdown();
+        }
+    }
+
+    @Test
+    void rendersChartModelsToSvg() {
+        VirtualThreadRenderer renderer = VirtualThreadRenderer.createWithFallback();
+        try {
+            DefaultChartModel model = new DefaultChartModel("Series");
+            for (int i = 0; i < 100; i++) {
+                model.setXY(i, Math.sin(i * 0.1));
+            }
+            String svg = renderer.renderSvgAsync(model).join();
+            assertTrue(svg.startsWith("<svg "));
+            assertTrue(svg.contains("<g id=\"data\">"));
+            assertTrue(svg.contains("<path "));
+            assertTrue(svg.endsWith("</svg>\n"));
         } finally {
             renderer.shutdown();
         }
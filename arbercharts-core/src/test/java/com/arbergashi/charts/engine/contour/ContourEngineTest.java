@@ -0,0 +1,117 @@
+package com.arbergashi.charts.engine.contour;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContourEngineTest {
+
+    private static ContourGrid cone(int n) {
+        ContourGrid grid = new ContourGrid(n, n, -1.0, -1.0, 2.0 / (n - 1), 2.0 / (n - 1));
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                grid.set(c, r, Math.hypot(grid.getNodeX(c), grid.getNodeY(r)));
+            }
+        }
+        return grid;
+    }
+
+    @Test
+    void circleYieldsOneClosedRingOnTheIsoValue() {
+        ContourSet set = ContourEngine.extract(cone(65), new double[]{0.5});
+        assertEquals(1, set.getLineCount());
+        int start = set.getLineStart(0);
+        int end = set.getLineEnd(0);
+        assertTrue(end - start > 16);
+        assertEquals(set.getX(start), set.getX(end - 1), 1e-12);
+        assertEquals(set.getY(start), set.getY(end - 1), 1e-12);
+        for (int p = start; p < end; p++) {
+            assertEquals(0.5, Math.hypot(set.getX(p), set.getY(p)), 0.01);
+        }
+    }
+
+    @Test
+    void linesTouchingTheBorderStayOpen() {
+        ContourGrid grid = new ContourGrid(8, 8, 0, 0, 1, 1);
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) grid.set(c, r, c);
+        }
+        ContourSet set = ContourEngine.extract(grid, ContourEngine.evenLevels(0, 7, 3));
+        assertEquals(3, set.getLineCount());
+        for (int l = 0; l < 3; l++) {
+            assertEquals(8, set.getLineEnd(l) - set.getLineStart(l));
+            double x = set.getX(set.getLineStart(l));
+            for (int p = set.getLineStart(l); p < set.getLineEnd(l); p++) {
+                assertEquals(x, set.getX(p), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void saddleIsResolvedByCellCentre() {
+        ContourGrid grid = new ContourGrid(2, 2, 0, 0, 1, 1);
+        grid.set(0, 0, 1.0);
+        grid.set(1, 1, 1.0);
+        grid.set(1, 0, 0.0);
+        grid.set(0, 1, 0.0);
+        // centre 0.5 >= 0.4: high corners connected, the two low corners are cut off
+        ContourSet high = ContourEngine.extract(grid, new double[]{0.4});
+        assertEquals(2, high.getLineCount());
+        for (int l = 0; l < 2; l++) {
+            double mx = (high.getX(high.getLineStart(l)) + high.getX(high.getLineStart(l) + 1)) * 0.5;
+            double my = (high.getY(high.getLineStart(l)) + high.getY(high.getLineStart(l) + 1)) * 0.5;
+            assertTrue((mx > 0.5) != (my > 0.5), "segment must isolate a low corner");
+        }
+        // centre 0.5 < 0.6: low corners connected, the two high corners are cut off
+        ContourSet low = ContourEngine.extract(grid, new double[]{0.6});
+        assertEquals(2, low.getLineCount());
+        for (int l = 0; l < 2; l++) {
+            double mx = (low.getX(low.getLineStart(l)) + low.getX(low.getLineStart(l) + 1)) * 0.5;
+            double my = (low.getY(low.getLineStart(l)) + low.getY(low.getLineStart(l) + 1)) * 0.5;
+            assertTrue((mx > 0.5) == (my > 0.5), "segment must isolate a high corner");
+        }
+    }
+
+    @Test
+    void parallelBandsStitchAcrossBandBorders() {
+        ContourGrid grid = cone(300);
+        double[] levels = ContourEngine.evenLevels(0, 1.4, 5);
+        ContourSet set = ContourEngine.extract(grid, levels);
+        // levels below 1 are full circles, above 1 they are clipped into four open arcs
+        int closed = 0;
+        int open = 0;
+        for (int l = 0; l < set.getLineCount(); l++) {
+            int s = set.getLineStart(l);
+            int e = set.getLineEnd(l) - 1;
+            if (set.getX(s) == set.getX(e) && set.getY(s) == set.getY(e)) closed++;
+            else open++;
+        }
+        assertEquals(4, closed);
+        assertEquals(4, open);
+    }
+
+    @Test
+    void scatteredSamplesAreGriddedWithoutHoles() {
+        int n = 400;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        double[] zs = new double[n];
+        java.util.Random rnd = new java.util.Random(7);
+        for (int i = 0; i < n; i++) {
+            xs[i] = rnd.nextDouble() * 10;
+            ys[i] = rnd.nextDouble() * 10;
+            zs[i] = xs[i] + ys[i];
+        }
+        ContourGrid grid = ContourGrid.fromScattered(xs, ys, zs, n, 40, 40, 0, 10, 0, 10);
+        double[] range = new double[2];
+        grid.getValueRange(range);
+        for (double v : grid.getValues()) assertFalse(Double.isNaN(v));
+        assertTrue(range[0] >= 0 && range[1] <= 20);
+        assertEquals(grid.getNodeX(20) + grid.getNodeY(20), grid.get(20, 20), 1.5);
+
+        ContourGrid density = ContourGrid.fromDensity(xs, ys, null, n, 11, 11, 0, 10, 0, 10);
+        double total = 0;
+        for (double v : density.getValues()) total += v;
+        assertEquals(n, total, 1e-9);
+    }
+}
@@ -0,0 +1,158 @@
+package com.arbergashi.charts.engine.delaunay;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DelaunayTriangulationTest {
+
+    private static double[][] random(int n, long seed) {
+        Random rnd = new Random(seed);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = rnd.nextDouble();
+            ys[i] = rnd.nextDouble();
+        }
+        return new double[][]{xs, ys};
+    }
+
+    @Test
+    void satisfiesEmptyCircumcircleProperty() {
+        double[][] p = random(300, 1);
+        DelaunayTriangulation dt = DelaunayTriangulation.of(p[0], p[1], 300);
+        int[] tri = dt.getTriangles();
+        assertTrue(tri.length / 3 > 500);
+        for (int t = 0; t < tri.length; t += 3) {
+            int a = tri[t], b = tri[t + 1], c = tri[t + 2];
+            assertTrue(GeometryPredicates.orient(p[0][a], p[1][a], p[0][b], p[1][b], p[0][c], p[1][c]) > 0);
+            for (int i = 0; i < 300; i++) {
+                assertTrue(GeometryPredicates.inCircle(p[0][a], p[1][a], p[0][b], p[1][b], p[0][c], p[1][c],
+                        p[0][i], p[1][i]) <= 0);
+            }
+        }
+        // Euler: E = T + V - 1 for a triangulated convex hull
+        assertEquals(tri.length / 3 + 300 - 1, dt.getEdges().length / 2);
+    }
+
+    @Test
+    void handlesCocircularGridAndDuplicates() {
+        int side = 20;
+        double[] xs = new double[side * side + 1];
+        double[] ys = new double[side * side + 1];
+        for (int i = 0; i < side * side; i++) {
+            xs[i] = i % side;
+            ys[i] = i / side;
+        }
+        xs[side * side] = 3;
+        ys[side * side] = 4;
+        DelaunayTriangulation dt = DelaunayTriangulation.of(xs, ys, xs.length);
+        assertEquals(xs.length, dt.getPointCount());
+        assertEquals(2 * (side - 1) * (side - 1), dt.getTriangleCount());
+        double[] cell = new double[64];
+        assertEquals(0, dt.voronoiCell(side * side, 0, 0, side, side, cell));
+    }
+
+    @Test
+    void incrementalInsertionMatchesBatchBuild() {
+        double[][] p = random(500, 2);
+        DelaunayTriangulation batch = DelaunayTriangulation.of(p[0], p[1], 500);
+        DelaunayTriangulation inc = DelaunayTriangulation.of(p[0], p[1], 250);
+        for (int i = 250; i < 500; i++) {
+            assertTrue(inc.accepts(p[0][i], p[1][i]));
+            assertEquals(i, inc.insert(p[0][i], p[1][i]));
+        }
+        assertEquals(batch.getTriangleCount(), inc.getTriangleCount());
+        assertEquals(batch.getEdges().length, inc.getEdges().length);
+    }
+
+    @Test
+    void changedPointsCoverEveryCellAnInsertionMoved() {
+        double[][] p = random(400, 5);
+        DelaunayTriangulation dt = DelaunayTriangulation.of(p[0], p[1], 380);
+        assertEquals(0, dt.getChangedPoints().length, "a batch build starts with an empty change set");
+        double[][] before = new double[380][];
+        for (int i = 0; i < 380; i++) before[i] = cell(dt, i);
+
+        dt.clearChanges();
+        for (int i = 380; i < 400; i++) dt.insert(p[0][i], p[1][i]);
+        boolean[] changed = new boolean[400];
+        for (int i : dt.getChangedPoints()) changed[i] = true;
+        for (int i = 380; i < 400; i++) assertTrue(changed[i], "new point " + i);
+        int untouched = 0;
+        for (int i = 0; i < 380; i++) {
+            if (changed[i]) continue;
+            untouched++;
+            assertArrayEquals(before[i], cell(dt, i), "cell " + i + " moved without being reported");
+        }
+        assertTrue(untouched > 250, "only the neighbourhood is reported: " + untouched);
+    }
+
+    private static double[] cell(DelaunayTriangulation dt, int point) {
+        double[] out = new double[64];
+        int n = dt.voronoiCell(point, 0, 0, 1, 1, out);
+        if (n < 0) {
+            out = new double[-n];
+            n = dt.voronoiCell(point, 0, 0, 1, 1, out);
+        }
+        return Arrays.copyOf(out, 2 * n);
+    }
+
+    @Test
+    void voronoiCellsTileTheClipRectangle() {
+        double[][] p = random(200, 3);
+        DelaunayTriangulation dt = DelaunayTriangulation.of(p[0], p[1], 200);
+        double[] cell = new double[8];
+        double area = 0;
+        for (int i = 0; i < 200; i++) {
+            int n = dt.voronoiCell(i, 0, 0, 1, 1, cell);
+            if (n < 0) {
+                cell = new double[-n];
+                n = dt.voronoiCell(i, 0, 0, 1, 1, cell);
+            }
+            assertTrue(n >= 3);
+            double a = 0;
+            for (int k = 0; k < n; k++) {
+                int j = (k + 1) % n;
+                a += cell[2 * k] * cell[2 * j + 1] - cell[2 * j] * cell[2 * k + 1];
+            }
+            assertTrue(a > 0, "cells are counter-clockwise");
+            area += a / 2;
+        }
+        assertEquals(1.0, area, 1e-9);
+    }
+
+    @Test
+    void jumpFloodingAgreesWithBruteForce() {
+        int n = 150;
+        int w = 128;
+        int h = 96;
+        Random rnd = new Random(4);
+        double[] sx = new double[n];
+        double[] sy = new double[n];
+        for (int i = 0; i < n; i++) {
+            sx[i] = rnd.nextDouble() * w;
+            sy[i] = rnd.nextDouble() * h;
+        }
+        int[] owner = new JumpFloodVoronoi().compute(sx, sy, n, w, h);
+        int exact = 0;
+        for (int r = 0; r < h; r++) {
+            for (int c = 0; c < w; c++) {
+                int best = -1;
+                double bestD = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < n; i++) {
+                    double dx = sx[i] - (c + 0.5), dy = sy[i] - (r + 0.5);
+                    if (dx * dx + dy * dy < bestD) {
+                        bestD = dx * dx + dy * dy;
+                        best = i;
+                    }
+                }
+                if (owner[r * w + c] == best) exact++;
+            }
+        }
+        assertTrue(exact > 0.98 * w * h, "agreement " + exact);
+    }
+}
@@ -0,0 +1,112 @@
+package com.arbergashi.charts.engine.financial;
+
+import com.arbergashi.charts.model.DefaultFinancialChartModel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickAggregatorTest {
+
+    private static final long SEC = 1_000_000_000L;
+
+    @Test
+    void buildsBarsAtSeveralTimeframes() {
+        DefaultFinancialChartModel s1 = new DefaultFinancialChartModel("1s");
+        DefaultFinancialChartModel m1 = new DefaultFinancialChartModel("1m");
+        TickAggregator agg = new TickAggregator(1024)
+                .addTimeframe(Duration.ofSeconds(1), s1)
+                .addTimeframe(Duration.ofMinutes(1), m1);
+
+        agg.offer(10, 1, 0);
+        agg.offer(12, 2, SEC / 2);
+        agg.offer(9, 1, SEC - 1);
+        agg.offer(11, 5, SEC);
+        agg.offer(13, 1, 61 * SEC);
+        assertEquals(5, agg.drain());
+
+        assertEquals(3, s1.getPointCount());
+        assertEquals(10.0, s1.getOpen(0));
+        assertEquals(12.0, s1.getHigh(0));
+        assertEquals(9.0, s1.getLow(0));
+        assertEquals(9.0, s1.getClose(0));
+        assertEquals(4.0, s1.getVolume(0));
+        assertEquals(1000.0, s1.getX(1));
+
+        assertEquals(2, m1.getPointCount());
+        assertEquals(11.0, m1.getClose(0));
+        assertEquals(9.0, m1.getVolume(0));
+        assertEquals(60_000.0, m1.getX(1));
+    }
+
+    @Test
+    void formingBarIsUpdatedInPlaceWithOneNotificationPerDrain() {
+        DefaultFinancialChartModel model = new DefaultFinancialChartModel();
+        List<String> events = new ArrayList<>();
+        model.addBarChangeListener((index, appended) -> events.add(index + (appended ? "+" : "~")));
+        TickAggregator agg = new TickAggregator(64).addTimeframe(Duration.ofSeconds(1), model);
+
+        for (int i = 0; i < 10; i++) agg.offer(100 + i, 1, i);
+        agg.drain();
+        for (int i = 0; i < 10; i++) agg.offer(90 + i, 1, 100 + i);
+        agg.drain();
+
+        assertEquals(List.of("0+", "0~"), events);
+        assertEquals(1, model.getPointCount());
+        assertEquals(100.0, model.getOpen(0));
+        assertEquals(109.0, model.getHigh(0));
+        assertEquals(90.0, model.getLow(0));
+        assertEquals(99.0, model.getClose(0));
+        assertEquals(20.0, model.getVolume(0));
+    }
+
+    @Test
+    void lateTicksAndFullRingAreCounted() {
+        DefaultFinancialChartModel model = new DefaultFinancialChartModel();
+        TickAggregator agg = new TickAggregator(4).addTimeframe(Duration.ofSeconds(1), model);
+        assertTrue(agg.offer(1, 1, 5 * SEC));
+        assertTrue(agg.offer(2, 1, 2 * SEC));
+        assertTrue(agg.offer(3, 1, 5 * SEC));
+        assertTrue(agg.offer(4, 1, 5 * SEC));
+        assertFalse(agg.offer(5, 1, 5 * SEC));
+        assertEquals(1, agg.getRejectedCount());
+        assertEquals(4, agg.drain());
+        assertEquals(1, agg.getLateCount());
+        assertEquals(3.0, model.getVolume(0));
+    }
+
+    @Test
+    void concurrentProducersLoseNoTicks() throws Exception {
+        DefaultFinancialChartModel model = new DefaultFinancialChartModel();
+        TickAggregator agg = new TickAggregator(1 << 16).addTimeframe(Duration.ofHours(1), model);
+        int producers = 4;
+        int perProducer = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    assertTrue(agg.offer(50, 1, i));
+                }
+            });
+            threads[p].start();
+        }
+        start.countDown();
+        int drained = 0;
+        while (drained < producers * perProducer) {
+            drained += agg.drain();
+        }
+        for (Thread t : threads) t.join();
+        assertEquals(1, model.getPointCount());
+        assertEquals(producers * perProducer, model.getVolume(0));
+    }
+}
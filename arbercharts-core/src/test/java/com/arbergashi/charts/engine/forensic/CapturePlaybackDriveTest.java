@@ -0,0 +1,130 @@
+package com.arbergashi.charts.engine.forensic;
+
+import com.arbergashi.charts.api.forensic.PlaybackController;
+import com.arbergashi.charts.api.forensic.PlaybackDrive;
+import com.arbergashi.charts.api.forensic.PlaybackFactory;
+import com.arbergashi.charts.api.forensic.PlaybackSink;
+import com.arbergashi.charts.api.forensic.SeekablePlaybackDrive;
+import com.arbergashi.charts.api.forensic.StreamBufferStrategy;
+import com.arbergashi.charts.api.forensic.StreamPlaybackDrive;
+import com.arbergashi.charts.model.DefaultChartModel;
+import com.arbergashi.charts.model.MappedChartModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CapturePlaybackDriveTest {
+
+    private static final int SAMPLES = 20_000;
+    private static final long T0 = 1_000_000_000L;
+    private static final long STEP = 1_000_000L; // 1 kHz
+
+    @TempDir
+    Path tmp;
+
+    private Path record() throws Exception {
+        Path file = tmp.resolve("session.arbm");
+        DefaultChartModel live = new DefaultChartModel("live");
+        StreamPlaybackDrive drive = PlaybackFactory.ofStreamDrive(live, PlaybackFactory.ofController(), 1024);
+        drive.setBufferStrategy(StreamBufferStrategy.BLOCK).setBlockTimeoutNanos(10_000_000_000L);
+        drive.startRecording(file);
+        drive.connect("test://capture");
+        for (int i = 0; i < SAMPLES; i++) {
+            assertTrue(drive.offer(i, Math.sin(i * 0.01), -1, 1, 1.0, null, (byte) 0, (short) (i % 4), T0 + i * STEP));
+        }
+        drive.close();
+        assertFalse(drive.isRecording());
+        assertEquals(SAMPLES, live.getPointCount());
+        return file;
+    }
+
+    private static final class CountingSink implements PlaybackSink {
+        volatile int points;
+        volatile int batches;
+        volatile long firstTs = -1;
+        volatile boolean ordered = true;
+        private double lastX = Double.NEGATIVE_INFINITY;
+
+        @Override
+        public void setPoint(double x, double y, double min, double max, double weight, String label,
+                             byte flag, short sourceId, long ts) {
+            fail("capture playback should deliver batches");
+        }
+
+        @Override
+        public void setPoints(double[] x, double[] y, double[] min, double[] max, double[] weight,
+                              byte[] flags, short[] sourceIds, long[] ts, int offset, int length) {
+            if (firstTs < 0) firstTs = ts[offset];
+            for (int i = offset; i < offset + length; i++) {
+                if (!(x[i] > lastX)) ordered = false;
+                lastX = x[i];
+                if (sourceIds[i] != (short) ((int) x[i] % 4)) ordered = false;
+            }
+            points += length;
+            batches++;
+        }
+    }
+
+    @Test
+    void recordedCaptureSeeksAndReplaysInBatches() throws Exception {
+        Path file = record();
+        PlaybackController controller = PlaybackFactory.ofController();
+        controller.setSpeed(1000.0);
+        CountingSink sink = new CountingSink();
+        try (SeekablePlaybackDrive replay = PlaybackFactory.ofCaptureDrive(file, controller, sink)) {
+            assertEquals(SAMPLES, replay.getSampleCount());
+            assertEquals(T0, replay.getStartTimestampNanos());
+            assertEquals(T0 + (SAMPLES - 1) * STEP, replay.getEndTimestampNanos());
+
+            replay.seek(T0 + 12_345 * STEP - STEP / 2);
+            assertEquals(T0 + 12_345 * STEP, replay.getPositionNanos());
+
+            replay.start();
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (replay.isRunning() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertFalse(replay.isRunning(), "replay at 1000x should finish quickly");
+            assertEquals(T0 + 12_345 * STEP, sink.firstTs);
+            assertEquals(SAMPLES - 12_345, sink.points);
+            assertTrue(sink.batches < sink.points);
+            assertTrue(sink.ordered);
+            assertFalse(replay instanceof PlaybackDrive, "a capture drive has no array load");
+        }
+    }
+
+    @Test
+    void replayIntoDefaultModelUsesBulkAppend() throws Exception {
+        Path file = record();
+        PlaybackController controller = PlaybackFactory.ofController();
+        controller.setSpeed(1000.0);
+        DefaultChartModel model = new DefaultChartModel("replay");
+        try (SeekablePlaybackDrive replay = PlaybackFactory.ofCaptureDrive(file, model, controller)) {
+            replay.seek(T0 + (SAMPLES - 500) * STEP);
+            replay.start();
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (replay.isRunning() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+        assertEquals(500, model.getPointCount());
+        assertEquals(SAMPLES - 500, model.getX(0));
+        assertEquals(T0 + (SAMPLES - 1) * STEP, model.getTimestampNanos(499));
+    }
+
+    @Test
+    void emptyCaptureReportsZeroBounds() throws Exception {
+        Path file = tmp.resolve("empty.arbm");
+        MappedChartModel.create(file).close();
+        try (SeekablePlaybackDrive replay = PlaybackFactory.ofCaptureDrive(file, new DefaultChartModel("replay"),
+                PlaybackFactory.ofController())) {
+            assertEquals(0, replay.getSampleCount());
+            assertEquals(0L, replay.getStartTimestampNanos());
+            assertEquals(0L, replay.getEndTimestampNanos());
+            assertEquals(0L, replay.getPositionNanos());
+        }
+    }
+}
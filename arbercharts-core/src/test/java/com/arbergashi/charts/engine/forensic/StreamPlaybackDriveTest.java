@@ -0,0 +1,161 @@
+package com.arbergashi.charts.engine.forensic;
+
+import com.arbergashi.charts.api.forensic.PlaybackFactory;
+import com.arbergashi.charts.api.forensic.PlaybackSink;
+import com.arbergashi.charts.api.forensic.StreamBufferStrategy;
+import com.arbergashi.charts.model.ProvenanceFlags;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamPlaybackDriveTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    /** Records deliveries; blocks inside the sink until {@link #open()} is called. */
+    private static final class GatedSink implements PlaybackSink {
+        final CountDownLatch gate = new CountDownLatch(1);
+        int count;
+        double lastX = Double.NaN;
+        double maxSeen = Double.NEGATIVE_INFINITY;
+        double weight;
+        boolean ordered = true;
+        boolean smoothed;
+
+        @Override
+        public void setPoint(double x, double y, double min, double max, double w, String label,
+                             byte flag, short sourceId, long ts) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (count > 0 && !(x > lastX)) ordered = false;
+            lastX = x;
+            maxSeen = Math.max(maxSeen, max);
+            weight += w;
+            smoothed |= flag == ProvenanceFlags.SMOOTHED;
+            count++;
+        }
+
+        void open() {
+            gate.countDown();
+        }
+    }
+
+    private static StreamPlaybackDriveImpl drive(PlaybackSink sink, StreamBufferStrategy strategy) {
+        StreamPlaybackDriveImpl drive = new StreamPlaybackDriveImpl(PlaybackFactory.ofController(), sink);
+        drive.setCapacity(64).setBufferStrategy(strategy);
+        drive.connect("test://stream");
+        return drive;
+    }
+
+    @Test
+    void blockDeliversEverySampleInOrder() throws Exception {
+        GatedSink sink = new GatedSink();
+        sink.open();
+        StreamPlaybackDriveImpl drive = drive(sink, StreamBufferStrategy.BLOCK);
+        drive.setBlockTimeoutNanos(10 * SECOND);
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(drive.offer(i, i, i, i, 1.0, null, (byte) 0, (short) 1, 1_000L + i));
+        }
+        assertTrue(drive.awaitDrained(10 * SECOND));
+        assertEquals(20_000, sink.count);
+        assertTrue(sink.ordered);
+        assertEquals(0, drive.getDroppedCount());
+        drive.disconnect();
+    }
+
+    @Test
+    void coalesceKeepsPeaksAndLatestSample() throws Exception {
+        GatedSink sink = new GatedSink();
+        StreamPlaybackDriveImpl drive = drive(sink, StreamBufferStrategy.COALESCE);
+        drive.setCoalesceWindowNanos(10_000_000L);
+        for (int i = 0; i < 5_000; i++) {
+            double y = (i == 2_500) ? 1_000.0 : Math.sin(i * 0.1);
+            assertTrue(drive.offer(i, y, y, y, 1.0, null, (byte) 0, (short) 1, 1_000_000L * (i + 1)));
+        }
+        assertTrue(drive.getCoalescedCount() > 0);
+        assertEquals(0, drive.getDroppedCount());
+        sink.open();
+        assertTrue(drive.awaitDrained(10 * SECOND));
+        assertTrue(sink.count < 5_000);
+        assertEquals(1_000.0, sink.maxSeen, "peak lost while coalescing");
+        assertEquals(4_999.0, sink.lastX);
+        assertEquals(5_000.0, sink.weight, 1e-9, "merged weight must be conserved");
+        assertTrue(sink.ordered);
+        assertTrue(sink.smoothed);
+        drive.disconnect();
+    }
+
+    @Test
+    void blockTimesOutAndResumesWhenConsumerCatchesUp() throws Exception {
+        GatedSink sink = new GatedSink();
+        StreamPlaybackDriveImpl drive = drive(sink, StreamBufferStrategy.BLOCK);
+        drive.setBlockTimeoutNanos(20_000_000L);
+        int accepted = 0;
+        while (drive.offer(accepted, 0, 0, 0, 1.0, null, (byte) 0, (short) 1, accepted + 1L)) accepted++;
+        assertEquals(1, drive.getDroppedCount());
+        assertTrue(drive.getBlockedNanos() >= 20_000_000L);
+
+        drive.setBlockTimeoutNanos(10 * SECOND);
+        AtomicBoolean result = new AtomicBoolean();
+        Thread producer = Thread.ofVirtual().start(() ->
+                result.set(drive.offer(1e6, 0, 0, 0, 1.0, null, (byte) 0, (short) 1, 1_000_000L)));
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertTrue(producer.isAlive(), "producer should be waiting for space");
+        sink.open();
+        producer.join(10_000);
+        assertTrue(result.get());
+        assertTrue(drive.awaitDrained(10 * SECOND));
+        assertEquals(accepted + 1, sink.count);
+        drive.disconnect();
+    }
+
+    @Test
+    void reconnectAfterBlockingResizeRestartsConsumer() throws Exception {
+        GatedSink sink = new GatedSink();
+        StreamPlaybackDriveImpl drive = drive(sink, StreamBufferStrategy.BLOCK);
+        drive.setBlockTimeoutNanos(20_000_000L);
+        int accepted = 0;
+        while (drive.offer(accepted, 0, 0, 0, 1.0, null, (byte) 0, (short) 1, accepted + 1L)) accepted++;
+
+        Thread.ofVirtual().start(() -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sink.open();
+        });
+        drive.setCapacity(128);
+        assertFalse(drive.isConnected(), "resizing a full blocking ring disconnects");
+        int delivered = sink.count;
+
+        drive.connect("test://stream");
+        drive.setBlockTimeoutNanos(10 * SECOND);
+        for (int i = 0; i < 500; i++) {
+            assertTrue(drive.offer(1e6 + i, 0, 0, 0, 1.0, null, (byte) 0, (short) 1, 1_000_000L + i), "offer " + i);
+        }
+        assertTrue(drive.awaitDrained(10 * SECOND), "no consumer after reconnect");
+        assertEquals(delivered + 500, sink.count);
+        drive.disconnect();
+    }
+
+    @Test
+    void disconnectDeliversBufferedSamples() {
+        GatedSink sink = new GatedSink();
+        StreamPlaybackDriveImpl drive = drive(sink, StreamBufferStrategy.DROP_OLDEST);
+        for (int i = 0; i < 200; i++) drive.offer(i, 0, 0, 0, 1.0, null, (byte) 0, (short) 1, i + 1L);
+        assertTrue(drive.getDroppedCount() > 0);
+        sink.open();
+        drive.disconnect();
+        assertFalse(drive.isConnected());
+        assertEquals(199.0, sink.lastX);
+        assertFalse(drive.offer(1, 0, 0, 0, 1.0, null, (byte) 0, (short) 1, 1L));
+    }
+}
@@ -0,0 +1,92 @@
+package com.arbergashi.charts.engine.graph;
+
+import com.arbergashi.charts.model.DefaultFlowChartModel;
+import com.arbergashi.charts.model.DefaultFlowChartModel.DefaultLink;
+import com.arbergashi.charts.model.DefaultFlowChartModel.DefaultNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ForceDirectedLayoutTest {
+
+    private static DefaultFlowChartModel chain(int n) {
+        List<DefaultNode> nodes = new ArrayList<>();
+        List<DefaultLink> links = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            nodes.add(new DefaultNode("n" + i, "N" + i));
+            if (i > 0) links.add(new DefaultLink("n" + (i - 1), "n" + i, 1));
+        }
+        return new DefaultFlowChartModel(nodes, links);
+    }
+
+    private static double dist(ForceDirectedLayout l, int a, int b) {
+        return Math.hypot(l.getX(a) - l.getX(b), l.getY(a) - l.getY(b));
+    }
+
+    @Test
+    void resolvesLinksThroughIdIndex() {
+        List<DefaultNode> nodes = List.of(new DefaultNode("a", "A"), new DefaultNode("b", "B"));
+        List<DefaultLink> links = List.of(new DefaultLink("a", "b", 1), new DefaultLink("a", "missing", 1),
+                new DefaultLink("b", "b", 1));
+        ForceDirectedLayout layout = new ForceDirectedLayout();
+        assertTrue(layout.sync(new DefaultFlowChartModel(nodes, links)));
+        assertEquals(1, layout.getEdgeCount());
+        assertEquals(0, layout.getEdgeSource(0));
+        assertEquals(1, layout.getEdgeTarget(0));
+        assertEquals(1, layout.indexOf("b"));
+        assertEquals(-1, layout.indexOf("zz"));
+    }
+
+    @Test
+    void convergesAndPullsNeighboursTogether() {
+        DefaultFlowChartModel model = chain(200);
+        ForceDirectedLayout layout = new ForceDirectedLayout();
+        layout.sync(model);
+        layout.run(2000, 0);
+        assertTrue(layout.isConverged());
+        assertFalse(layout.sync(model), "unchanged topology keeps the cached layout");
+
+        double neighbour = 0;
+        for (int i = 1; i < 200; i++) neighbour += dist(layout, i - 1, i);
+        neighbour /= 199;
+        assertTrue(dist(layout, 0, 199) > 5 * neighbour, "chain should unfold");
+    }
+
+    @Test
+    void addingNodesWarmStartsFromPreviousPositions() {
+        ForceDirectedLayout layout = new ForceDirectedLayout();
+        layout.sync(chain(100));
+        int cold = layout.run(2000, 0);
+        double x50 = layout.getX(50);
+        double y50 = layout.getY(50);
+
+        assertTrue(layout.sync(chain(101)));
+        assertFalse(layout.isConverged());
+        assertEquals(x50, layout.getX(50));
+        assertEquals(y50, layout.getY(50));
+        assertTrue(dist(layout, 99, 100) < 1.0, "new node is seeded next to its neighbour");
+        int iterations = layout.run(2000, 0);
+        assertTrue(layout.isConverged());
+        assertTrue(iterations < cold, "warm start should converge quickly: " + iterations + " vs " + cold);
+    }
+
+    @Test
+    void parallelAndSequentialRepulsionAgree() {
+        ForceDirectedLayout seq = new ForceDirectedLayout().setParallelThreshold(Integer.MAX_VALUE);
+        ForceDirectedLayout par = new ForceDirectedLayout().setParallelThreshold(1);
+        DefaultFlowChartModel model = chain(3000);
+        seq.sync(model);
+        par.sync(model);
+        for (int i = 0; i < 5; i++) {
+            seq.step();
+            par.step();
+        }
+        for (int i = 0; i < 3000; i += 97) {
+            assertEquals(seq.getX(i), par.getX(i), 1e-9);
+            assertEquals(seq.getY(i), par.getY(i), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.arbergashi.charts.engine.spatial;
+
+import com.arbergashi.charts.api.ChartThemes;
+import com.arbergashi.charts.api.DefaultPlotContext;
+import com.arbergashi.charts.api.PlotContext;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.model.ChartModel;
+import com.arbergashi.charts.model.CircularChartModel;
+import com.arbergashi.charts.model.DefaultChartModel;
+import com.arbergashi.charts.util.NiceScale;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointIndexTest {
+
+    private static final double RADIUS = 15.0;
+
+    private static PlotContext context(double minX, double maxX, double minY, double maxY) {
+        return new DefaultPlotContext(new ArberRect(0, 0, 800, 600), minX, maxX, minY, maxY,
+                false, false, false, NiceScale.ScaleMode.LINEAR, NiceScale.ScaleMode.LINEAR,
+                ChartThemes.getDarkTheme(), null, null, null);
+    }
+
+    private static double pixelDistSq(ChartModel model, PlotContext ctx, int i, double px, double py) {
+        double[] p = new double[2];
+        ctx.mapToPixel(model.getX(i), model.getY(i), p);
+        double dx = p[0] - px, dy = p[1] - py;
+        return dx * dx + dy * dy;
+    }
+
+    private static double bruteNearest(ChartModel model, PlotContext ctx, double px, double py) {
+        double best = RADIUS * RADIUS;
+        for (int i = 0; i < model.getPointCount(); i++) best = Math.min(best, pixelDistSq(model, ctx, i, px, py));
+        return best;
+    }
+
+    private static int bruteCount(ChartModel model, PlotContext ctx, double px, double py) {
+        int c = 0;
+        for (int i = 0; i < model.getPointCount(); i++) if (pixelDistSq(model, ctx, i, px, py) < RADIUS * RADIUS) c++;
+        return c;
+    }
+
+    private static void assertMatchesBruteForce(PointIndex index, ChartModel model, PlotContext ctx, Random rnd) {
+        int[] out = new int[4096];
+        for (int q = 0; q < 200; q++) {
+            double px = rnd.nextDouble() * 800, py = rnd.nextDouble() * 600;
+            int hit = index.nearest(model, ctx, px, py, RADIUS);
+            double expected = bruteNearest(model, ctx, px, py);
+            if (hit < 0) {
+                assertEquals(RADIUS * RADIUS, expected, 0.0, "missed a point at " + px + "," + py);
+            } else {
+                assertEquals(expected, pixelDistSq(model, ctx, hit, px, py), 1e-9);
+            }
+            assertEquals(bruteCount(model, ctx, px, py), index.withinRadius(model, ctx, px, py, RADIUS, out));
+        }
+    }
+
+    @Test
+    void scatterQueriesMatchBruteForce() {
+        Random rnd = new Random(7);
+        DefaultChartModel model = new DefaultChartModel("scatter");
+        for (int i = 0; i < 20_000; i++) {
+            // clustered plus uniform, so cells are unevenly filled
+            double x = i % 3 == 0 ? 0.3 + rnd.nextGaussian() * 0.02 : rnd.nextDouble();
+            model.setPoint(x, rnd.nextDouble(), 0, 0, 1, null);
+        }
+        PointIndex index = new PointIndex();
+        PlotContext ctx = context(0, 1, 0, 1);
+        assertMatchesBruteForce(index, model, ctx, rnd);
+        assertFalse(index.isMonotonic());
+
+        // zoomed view exercises the data-space query box
+        assertMatchesBruteForce(index, model, context(0.25, 0.35, 0.4, 0.5), rnd);
+    }
+
+    @Test
+    void appendsAreIndexedIncrementally() {
+        Random rnd = new Random(11);
+        DefaultChartModel model = new DefaultChartModel("append");
+        PointIndex index = new PointIndex();
+        PlotContext ctx = context(-0.5, 1.5, -0.5, 1.5);
+        for (int round = 0; round < 6; round++) {
+            for (int i = 0; i < 3_000; i++) {
+                // later rounds drift outside the initial grid bounds
+                model.setPoint(rnd.nextDouble() + round * 0.1, rnd.nextDouble(), 0, 0, 1, null);
+            }
+            assertMatchesBruteForce(index, model, ctx, rnd);
+        }
+    }
+
+    @Test
+    void monotonicSeriesUsesBinarySearch() {
+        DefaultChartModel model = new DefaultChartModel("line");
+        for (int i = 0; i < 100_000; i++) model.setPoint(i * 0.01, Math.sin(i * 0.001), 0, 0, 1, null);
+        PointIndex index = new PointIndex();
+        Random rnd = new Random(3);
+        PlotContext ctx = context(400, 420, -1.2, 1.2);
+        assertMatchesBruteForce(index, model, ctx, rnd);
+        assertTrue(index.isMonotonic());
+
+        assertEquals(41_234, index.nearestX(model, 412.341));
+        assertEquals(0, index.nearestX(model, -5));
+        assertEquals(99_999, index.nearestX(model, 1e9));
+
+        int[] range = new int[2];
+        assertTrue(index.xWindow(model, 9.995, 10.055, range));
+        assertEquals(1_000, range[0]);
+        assertEquals(1_006, range[1]);
+
+        // a point that breaks the x order switches to the grid
+        model.setPoint(500.002, 0.0, 0, 0, 1, null);
+        assertEquals(100_000, index.nearestX(model, 500.002));
+        assertFalse(index.isMonotonic());
+        assertFalse(index.xWindow(model, 0, 1, range));
+    }
+
+    @Test
+    void ringEvictionIsFollowed() {
+        Random rnd = new Random(5);
+        CircularChartModel ring = new CircularChartModel(4_096);
+        PointIndex index = new PointIndex();
+        PlotContext ctx = context(0, 1, 0, 1);
+        for (int round = 0; round < 8; round++) {
+            for (int i = 0; i < 1_500; i++) ring.setXY(rnd.nextDouble(), rnd.nextDouble());
+            assertMatchesBruteForce(index, ring, ctx, rnd);
+        }
+        assertEquals(12_000 - 4_096, ring.getFirstSequence());
+    }
+
+    @Test
+    void inPlaceRewriteIsDetected() {
+        DefaultChartModel model = new DefaultChartModel("rewrite");
+        for (int i = 0; i < 100; i++) model.setPoint(i, i, 0, 0, 1, null);
+        PointIndex index = new PointIndex();
+        PlotContext ctx = context(0, 100, 0, 100);
+        assertEquals(50, index.nearest(model, ctx, 400, 300, RADIUS));
+
+        model.clear();
+        for (int i = 0; i < 100; i++) model.setPoint(99 - i, i, 0, 0, 1, null);
+        assertEquals(49, index.nearestX(model, 50.4));
+        assertFalse(index.isMonotonic());
+    }
+}
@@ -0,0 +1,139 @@
+package com.arbergashi.charts.engine.telemetry;
+
+import com.arbergashi.charts.api.DefaultPlotContext;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.internal.PixelDecimator;
+import com.arbergashi.charts.render.testing.RasterTestCanvas;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameProfilerTest {
+
+    @Test
+    void disabledProfilerHandsOutInertFrame() {
+        FrameProfiler profiler = new FrameProfiler("test", 4);
+        RasterTestCanvas canvas = new RasterTestCanvas(8, 8);
+
+        FrameProfiler.Frame frame = profiler.beginFrame();
+        assertFalse(frame.isRecording());
+        assertSame(canvas, frame.wrap(canvas));
+        frame.enter();
+        frame.exit(RenderStage.GRID, null, 0L);
+        frame.end();
+
+        assertTrue(profiler.getRecentFrames().isEmpty());
+    }
+
+    @Test
+    void recordsStagesPrimitivesAndNestedDecimation() {
+        FrameProfiler profiler = new FrameProfiler("test", 2);
+        profiler.setEnabled(true);
+        profiler.recordStage(RenderStage.HIT_TEST, null, 1_000L, 50L, 0L);
+
+        for (int f = 0; f < 3; f++) {
+            FrameProfiler.Frame frame = profiler.beginFrame();
+            try {
+                ArberCanvas canvas = frame.wrap(new RasterTestCanvas(100, 50));
+                assertTrue(canvas instanceof CountingCanvas);
+
+                frame.enter();
+                canvas.fillRect(0, 0, 10, 10);
+                canvas.drawLine(0, 0, 10, 10);
+                frame.exit(RenderStage.GRID, null, 0L);
+
+                frame.enter();
+                double[] x = new double[1_000];
+                double[] y = new double[1_000];
+                for (int i = 0; i < x.length; i++) {
+                    x[i] = i;
+                    y[i] = Math.sin(i * 0.1);
+                }
+                DefaultPlotContext ctx = new DefaultPlotContext(new ArberRect(0, 0, 100, 50), null, 0, 999, -1, 1);
+                PixelDecimator.decimate(x, y, x.length, ctx, new double[400], new double[400]);
+                canvas.drawPolyline(new float[]{0, 1}, new float[]{0, 1}, 2);
+                frame.exit(RenderStage.DATA_LAYER, "LineRenderer", x.length);
+            } finally {
+                frame.end();
+            }
+        }
+
+        List<FrameBreakdown> frames = profiler.getRecentFrames();
+        assertEquals(2, frames.size());
+        assertEquals(3L, frames.get(1).getFrameId());
+
+        FrameBreakdown first = profiler.getRecentFrames().get(0);
+        assertEquals(3, first.getStageCount());
+        FrameBreakdown last = profiler.getLastFrame();
+        assertEquals(3, last.getStageCount());
+        assertEquals(RenderStage.GRID, last.getStage(0));
+        assertEquals(2L, last.getPrimitives(0));
+        assertEquals(RenderStage.DECIMATION, last.getStage(1));
+        assertEquals(1_000L, last.getPoints(1));
+        assertEquals(RenderStage.DATA_LAYER, last.getStage(2));
+        assertEquals("LineRenderer", last.getLabel(2));
+        assertEquals(1L, last.getPrimitives(2));
+        assertTrue(last.getDurationNanos(2) >= last.getDurationNanos(1));
+        assertTrue(last.getTotalNanos() >= last.getStageNanos(RenderStage.DATA_LAYER));
+        assertSame(FrameProfiler.currentFrame(), FrameProfiler.currentFrame());
+        assertFalse(FrameProfiler.currentFrame().isRecording());
+    }
+
+    @Test
+    void stageBeforeFirstFrameIsReportedWithIt() {
+        FrameProfiler profiler = new FrameProfiler("test", 4);
+        profiler.setEnabled(true);
+        profiler.recordStage(RenderStage.HIT_TEST, null, 1_000L, 50L, 0L);
+        profiler.beginFrame().end();
+
+        FrameBreakdown frame = profiler.getLastFrame();
+        assertEquals(1, frame.getStageCount());
+        assertEquals(RenderStage.HIT_TEST, frame.getStage(0));
+        assertEquals(50L, frame.getPoints(0));
+    }
+
+    @Test
+    void publishesFlightRecorderEventsWhileRecording() throws Exception {
+        FrameProfiler profiler = new FrameProfiler("jfr-test", 4);
+        Path file = Files.createTempFile("arber-frames", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.arbergashi.charts.RenderFrame");
+            recording.enable("com.arbergashi.charts.RenderStage");
+            recording.start();
+
+            FrameProfiler.Frame frame = profiler.beginFrame();
+            assertTrue(frame.isRecording());
+            frame.enter();
+            frame.exit(RenderStage.DATA_LAYER, "BarRenderer", 42L);
+            frame.end();
+
+            recording.stop();
+            recording.dump(file);
+        }
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent stage = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("com.arbergashi.charts.RenderStage"))
+                    .findFirst().orElseThrow();
+            assertEquals("jfr-test", stage.getString("surface"));
+            assertEquals("DATA_LAYER", stage.getString("stage"));
+            assertEquals("BarRenderer", stage.getString("label"));
+            assertEquals(42L, stage.getLong("points"));
+            assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.arbergashi.charts.RenderFrame")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        assertTrue(profiler.getRecentFrames().isEmpty());
+    }
+}
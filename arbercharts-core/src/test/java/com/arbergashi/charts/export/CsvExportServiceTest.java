@@ -2,6 +2,7 @@ package com.arbergashi.charts.export;
 
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.model.CircularChartModel;
+import com.arbergashi.charts.model.DefaultChartModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -10,6 +11,10 @@ import java.io.File;
 import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -185,5 +190,33 @@ class CsvExportServiceTest {
         assertThrows(NullPointerException.class, () ->
             CsvExportService.export(model, (File) null));
     }
-}
 
+    @Test
+    void fixedPrecisionMatchesDecimalFormatOnTies() throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        DefaultChartModel ties = new DefaultChartModel("Ties");
+        double[] edge = {0.7439845, -0.0, -1e-9, -0.0000005, 0.0000005, 2.5e-6, 1234567.8912345, -98.7654325};
+        for (double v : edge) {
+            ties.setXY(v, v);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            // Decimal ties at the 7th digit, the cases a scaled floating-point product gets wrong.
+            double v = (random.nextLong(2_000_000_000L) * 10 + 5) / 1e7 - 1000;
+            ties.setXY(v, v / 1000);
+        }
+
+        for (int precision : new int[]{6, 2}) {
+            StringWriter out = new StringWriter();
+            CsvExportService.builder().includeHeader(false).precision(precision).export(ties, out);
+            String[] lines = out.toString().split(System.lineSeparator());
+            DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.US);
+            DecimalFormat reference = new DecimalFormat("0." + "#".repeat(precision), symbols);
+            assertEquals(ties.getPointCount(), lines.length);
+            for (int i = 0; i < lines.length; i++) {
+                String[] fields = lines[i].split(",", -1);
+                assertEquals(reference.format(ties.getX(i)), fields[0], "x " + ties.getX(i));
+                assertEquals(reference.format(ties.getY(i)), fields[1], "y " + ties.getY(i));
+            }
+        }
+    }
+}
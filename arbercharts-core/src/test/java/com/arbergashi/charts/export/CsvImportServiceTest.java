@@ -0,0 +1,116 @@
+package com.arbergashi.charts.export;
+
+import com.arbergashi.charts.model.DefaultChartModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link CsvImportService} and the bulk paths of {@link CsvExportService}.
+ *
+ * @since 2.1.0
+ */
+class CsvImportServiceTest {
+
+    @Test
+    void roundTripExportIsExact(@TempDir Path tempDir) throws Exception {
+        SplittableRandom random = new SplittableRandom(7);
+        DefaultChartModel model = new DefaultChartModel("Random");
+        double[] specials = {0.0, -0.0, 1e-300, 1.7976931348623157e308, 4.9e-324, 0.1, -123456.789, 1e22, 1e23};
+        for (double v : specials) {
+            model.setXY(v, -v);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            model.setXY(i * 0.001, random.nextDouble(-1e6, 1e6));
+        }
+        model.setPoint(1.5, 2.5, 1.5, 2.5, 0.25, "quoted, \"label\"\nwith newline");
+
+        Path file = tempDir.resolve("exact.csv");
+        CsvExportService.builder().roundTrip(true).export(model, file.toFile());
+        DefaultChartModel imported = CsvImportService.importXY(file);
+
+        assertEquals(model.getPointCount(), imported.getPointCount());
+        for (int i = 0; i < model.getPointCount(); i++) {
+            assertEquals(Double.doubleToLongBits(model.getX(i)), Double.doubleToLongBits(imported.getX(i)), "x " + i);
+            assertEquals(Double.doubleToLongBits(model.getY(i)), Double.doubleToLongBits(imported.getY(i)), "y " + i);
+            assertEquals(model.getWeight(i), imported.getWeight(i), "weight " + i);
+        }
+    }
+
+    @Test
+    void parallelExportMatchesSequential() throws Exception {
+        DefaultChartModel model = new DefaultChartModel("Large");
+        double[] xs = new double[100_000];
+        double[] ys = new double[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = i / 3.0;
+            ys[i] = Math.sin(i) * 1e4;
+        }
+        model.appendPoints(xs, ys, null, null, null, null, null, null, null, 0, xs.length);
+
+        StringWriter sequential = new StringWriter();
+        StringWriter parallel = new StringWriter();
+        CsvExportService.builder().delimiter(';').decimalSeparator(',').export(model, sequential);
+        CsvExportService.builder().delimiter(';').decimalSeparator(',').parallelism(4).export(model, parallel);
+
+        assertEquals(sequential.toString(), parallel.toString());
+        assertTrue(sequential.toString().contains("\n0,333333;8414,709848;1;"
+                .replace("\n", System.lineSeparator())), "fixed precision with custom separators");
+    }
+
+    @Test
+    void parallelImportSplitsOutsideQuotedFields(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("big.csv");
+        int rows = 300_000;
+        StringBuilder csv = new StringBuilder("\uFEFFX;Y;Weight;Label\r\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(i).append(';').append(i).append(",5;2;");
+            if (i % 7 == 0) csv.append("\"multi\nline; \"\"quoted\"\"\r\nlabel\"");
+            csv.append("\r\n");
+        }
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+        DefaultChartModel model = new DefaultChartModel();
+        int imported = CsvImportService.builder()
+                .delimiter(';')
+                .decimalSeparator(',')
+                .parallelism(4)
+                .importInto(model, file);
+
+        assertEquals(rows, imported);
+        assertEquals(rows, model.getPointCount());
+        for (int i = 0; i < rows; i += 997) {
+            assertEquals(i, model.getX(i), "x " + i);
+            assertEquals(i + 0.5, model.getY(i), "y " + i);
+            assertEquals(2.0, model.getWeight(i), "weight " + i);
+        }
+    }
+
+    @Test
+    void malformedAndMissingValues(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("odd.csv");
+        Files.writeString(file, "1,2\n\n 3 , -4.5e-1 ,,x\n\"5\",abc,7\n-Infinity,NaN,1e400\n");
+
+        DefaultChartModel model = CsvImportService.builder().includeHeader(false).importXY(file);
+
+        assertEquals(4, model.getPointCount());
+        assertEquals(1.0, model.getWeight(0));
+        assertEquals(3.0, model.getX(1));
+        assertEquals(-0.45, model.getY(1));
+        assertEquals(1.0, model.getWeight(1));
+        assertEquals(5.0, model.getX(2));
+        assertTrue(Double.isNaN(model.getY(2)));
+        assertEquals(7.0, model.getWeight(2));
+        assertEquals(Double.NEGATIVE_INFINITY, model.getX(3));
+        assertTrue(Double.isNaN(model.getY(3)));
+        assertEquals(Double.POSITIVE_INFINITY, model.getWeight(3));
+        assertEquals("odd.csv", model.getName());
+    }
+}
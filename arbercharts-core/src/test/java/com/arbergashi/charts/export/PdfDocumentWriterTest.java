@@ -0,0 +1,151 @@
+package com.arbergashi.charts.export;
+
+import com.arbergashi.charts.api.ChartThemes;
+import com.arbergashi.charts.api.DefaultPlotContext;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.core.testing.LargeScaleDataGenerator;
+import com.arbergashi.charts.model.ChartModel;
+import com.arbergashi.charts.render.standard.LineRenderer;
+import com.arbergashi.charts.util.ColorRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link PdfDocumentWriter} and {@link PdfCanvas}.
+ *
+ * @since 2.1.0
+ */
+class PdfDocumentWriterTest {
+
+    @Test
+    void writesVectorOperatorsWithSharedState() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PdfDocumentWriter pdf = new PdfDocumentWriter(bytes)) {
+            PdfCanvas page = pdf.beginPage(200, 100);
+            page.setColor(ColorRegistry.ofArgb(0xFFFF0000));
+            page.setStroke(2f);
+            page.moveTo(10f, 20f);
+            page.lineTo(15.25f, 20f);
+            page.lineTo(15.25f, 30f);
+            page.drawLine(0f, 0f, 5f, 5f);
+            page.setColor(ColorRegistry.ofArgb(0x80000000));
+            page.fillRect(1f, 2f, 3f, 4f);
+            page.drawText(5f, 90f, "Total (EUR) \\ 100%");
+            pdf.endPage();
+        }
+        String doc = new String(bytes.toByteArray(), StandardCharsets.ISO_8859_1);
+        assertXrefPointsAtObjects(doc);
+
+        List<String> pages = contentStreams(doc);
+        assertEquals(1, pages.size());
+        String content = pages.get(0);
+        assertTrue(content.contains("1 0 0 RG\n2 w\n10 20 m\n15.25 20 l\n15.25 30 l\n0 0 m\n5 5 l\nS\n"), content);
+        assertEquals(1, count(content, "RG"), "unchanged color is not re-emitted");
+        assertTrue(content.contains("/A128 gs"), content);
+        assertTrue(content.contains("(Total \\(EUR\\) \\\\ 100%) Tj"), content);
+        assertTrue(doc.contains("/A128 << /Type /ExtGState /CA 0.502 /ca 0.502 >>"));
+        assertTrue(doc.contains("/BaseFont /Helvetica"));
+    }
+
+    @Test
+    void largeChartsStayVectorAndCompact() throws Exception {
+        ChartModel model = LargeScaleDataGenerator.generateLineSeries("Line", 50_000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PdfDocumentWriter pdf = new PdfDocumentWriter(bytes)) {
+            PdfCanvas page = pdf.beginPage(1200, 800);
+            DefaultPlotContext context = new DefaultPlotContext(new ArberRect(0, 0, 1200, 800), model,
+                    Double.NaN, Double.NaN, Double.NaN, Double.NaN, ChartThemes.getDarkTheme());
+            new LineRenderer().render(page, model, context);
+            pdf.endPage();
+        }
+        String doc = new String(bytes.toByteArray(), StandardCharsets.ISO_8859_1);
+        assertXrefPointsAtObjects(doc);
+        String content = contentStreams(doc).get(0);
+        assertTrue(count(content, " l\n") > 1000, "line is drawn as path segments");
+        assertFalse(doc.contains("/Image"), "no raster is embedded");
+        assertTrue(bytes.size() < content.length() / 2, "content is Flate-compressed: " + bytes.size());
+    }
+
+    @Test
+    void reportsRenderInParallelAndKeepPageOrder() throws Exception {
+        int pages = 200;
+        AtomicInteger painting = new AtomicInteger();
+        AtomicInteger maxPainting = new AtomicInteger();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            PdfDocumentWriter.writeReport(bytes, pages, 400, 300, (canvas, index) -> {
+                maxPainting.accumulateAndGet(painting.incrementAndGet(), Math::max);
+                canvas.setColor(ColorRegistry.ofArgb(0xFF000000 | index));
+                canvas.drawText(10f, 20f, "Chart " + index);
+                canvas.drawRect(5f, 5f, 390f, 290f);
+                painting.decrementAndGet();
+            }, executor, 8);
+        }
+        String doc = new String(bytes.toByteArray(), StandardCharsets.ISO_8859_1);
+        assertXrefPointsAtObjects(doc);
+        assertTrue(doc.contains("/Type /Pages /Count " + pages));
+        List<String> contents = contentStreams(doc);
+        assertEquals(pages, contents.size());
+        for (int i = 0; i < pages; i++) {
+            assertTrue(contents.get(i).contains("(Chart " + i + ") Tj"), "page " + i);
+        }
+        assertTrue(maxPainting.get() <= 8, "in-flight pages are bounded");
+    }
+
+    private static void assertXrefPointsAtObjects(String doc) {
+        assertTrue(doc.startsWith("%PDF-1.4\n"));
+        assertTrue(doc.endsWith("%%EOF\n"));
+        int startxref = doc.lastIndexOf("startxref\n");
+        int xref = Integer.parseInt(doc.substring(startxref + 10, doc.indexOf('\n', startxref + 10)));
+        assertTrue(doc.startsWith("xref\n", xref));
+        Matcher header = Pattern.compile("xref\n0 (\\d+)\n").matcher(doc).region(xref, doc.length());
+        assertTrue(header.lookingAt());
+        int size = Integer.parseInt(header.group(1));
+        int entry = header.end() + 20;
+        for (int obj = 1; obj < size; obj++, entry += 20) {
+            int offset = Integer.parseInt(doc.substring(entry, entry + 10));
+            assertTrue(doc.startsWith(obj + " 0 obj\n", offset), "object " + obj);
+        }
+    }
+
+    private static List<String> contentStreams(String doc) throws Exception {
+        List<String> out = new ArrayList<>();
+        int at = 0;
+        while ((at = doc.indexOf("/Filter /FlateDecode >>\nstream\n", at)) >= 0) {
+            int start = doc.indexOf("stream\n", at) + 7;
+            int end = doc.indexOf("\nendstream", start);
+            byte[] compressed = doc.substring(start, end).getBytes(StandardCharsets.ISO_8859_1);
+            Inflater inflater = new Inflater();
+            inflater.setInput(compressed);
+            ByteArrayOutputStream plain = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(chunk);
+                assertFalse(n == 0 && inflater.needsInput(), "truncated stream");
+                plain.write(chunk, 0, n);
+            }
+            inflater.end();
+            out.add(plain.toString(StandardCharsets.ISO_8859_1));
+            at = end;
+        }
+        return out;
+    }
+
+    private static int count(String haystack, String needle) {
+        int n = 0;
+        for (int i = haystack.indexOf(needle); i >= 0; i = haystack.indexOf(needle, i + 1)) n++;
+        return n;
+    }
+}
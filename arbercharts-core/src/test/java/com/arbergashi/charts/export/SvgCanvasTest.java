@@ -0,0 +1,205 @@
+package com.arbergashi.charts.export;
+
+import com.arbergashi.charts.api.ChartThemes;
+import com.arbergashi.charts.api.DefaultPlotContext;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.core.rendering.MarkerShape;
+import com.arbergashi.charts.core.testing.LargeScaleDataGenerator;
+import com.arbergashi.charts.model.ChartModel;
+import com.arbergashi.charts.render.financial.CandlestickRenderer;
+import com.arbergashi.charts.render.standard.LineRenderer;
+import com.arbergashi.charts.util.ColorRegistry;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link SvgCanvas}.
+ *
+ * @since 2.1.0
+ */
+class SvgCanvasTest {
+
+    @Test
+    void mergesLineRunsIntoCompactRelativePaths() {
+        StringWriter out = new StringWriter();
+        SvgCanvas canvas = new SvgCanvas(out, 100, 50);
+        canvas.setColor(ColorRegistry.ofArgb(0xFFFF0000));
+        canvas.moveTo(10f, 20f);
+        canvas.lineTo(15.25f, 20f);
+        canvas.lineTo(15.25f, 30f);
+        canvas.drawPolyline(new float[]{0f, 2.5f}, new float[]{0f, 1f}, 2);
+        canvas.finish();
+
+        String svg = out.toString();
+        assertTrue(svg.contains(".s0{fill:none;stroke:#ff0000;stroke-width:1}"), svg);
+        assertTrue(svg.contains("<path class=\"s0\" d=\"m10 20 5.3 0 0 10m-15.3-30 2.5 1\"/>"), svg);
+    }
+
+    @Test
+    void deduplicatesStylesIntoClasses() throws Exception {
+        StringWriter out = new StringWriter();
+        SvgCanvas canvas = new SvgCanvas(out, 200, 200);
+        for (int i = 0; i < 50; i++) {
+            canvas.setColor(ColorRegistry.ofArgb(i % 2 == 0 ? 0xFF112233 : 0x80445566));
+            canvas.fillRect(i, i, 2f, 2f);
+            canvas.drawLine(i, 0f, i, 10f);
+        }
+        canvas.finish();
+
+        Document doc = parse(out.toString());
+        assertEquals(4, doc.getElementsByTagName("style").getLength() - 1, "one class per color and kind");
+        assertTrue(out.toString().contains("fill:#445566;fill-opacity:0.502"));
+    }
+
+    @Test
+    void emitsWellFormedLayersClipsTextAndMarkers() throws Exception {
+        StringWriter out = new StringWriter();
+        SvgCanvas canvas = new SvgCanvas(out, 300, 200);
+        canvas.beginLayer("grid");
+        canvas.setClip(new ArberRect(10, 10, 100, 50));
+        canvas.drawRect(10f, 10f, 20f, 5f);
+        canvas.drawText(5f, 5f, "a < b & \"c\"");
+        canvas.endLayer();
+        canvas.beginLayer("data");
+        canvas.drawMarkers(MarkerShape.CIRCLE, new float[]{1f, 2f, 3f}, new float[]{4f, 5f, 6f}, 4f,
+                new int[]{0xFF000000, 0xFF0000FF, 0xFF000000}, 3);
+        canvas.fillPolygon(new float[]{0f, 10f, 5f}, new float[]{0f, 0f, 8f}, 3);
+        canvas.setClip(null);
+        canvas.finish();
+
+        Document doc = parse(out.toString());
+        Element root = doc.getDocumentElement();
+        assertEquals("svg", root.getTagName());
+        assertEquals("a < b & \"c\"", doc.getElementsByTagName("text").item(0).getTextContent());
+        assertEquals(1, doc.getElementsByTagName("clipPath").getLength(), "identical clips share a definition");
+        assertEquals(1, doc.getElementsByTagName("defs").getLength(), "one marker definition per shape and size");
+        assertEquals(3, doc.getElementsByTagName("use").getLength());
+        NodeList groups = doc.getElementsByTagName("g");
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < groups.getLength(); i++) {
+            String id = ((Element) groups.item(i)).getAttribute("id");
+            if (!id.isEmpty()) ids.add(id);
+        }
+        assertEquals(List.of("grid", "data"), ids);
+        assertThrows(IllegalStateException.class, () -> canvas.fillRect(0f, 0f, 1f, 1f));
+    }
+
+    @Test
+    void relativeCoordinatesDoNotDrift() {
+        StringWriter out = new StringWriter();
+        SvgCanvas canvas = new SvgCanvas(out, 1000, 1000, 2);
+        Random random = new Random(7);
+        int n = 20_000;
+        float[] xs = new float[n];
+        float[] ys = new float[n];
+        float y = 500f;
+        for (int i = 0; i < n; i++) {
+            xs[i] = i * 0.05f;
+            y += (random.nextFloat() - 0.5f) * 3f;
+            ys[i] = y;
+        }
+        canvas.drawPolyline(xs, ys, n);
+        canvas.finish();
+
+        String svg = out.toString();
+        int start = svg.indexOf(" d=\"") + 4;
+        String d = svg.substring(start, svg.indexOf('"', start));
+        List<double[]> points = absolutePoints(d);
+        assertEquals(n, points.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(xs[i], points.get(i)[0], 0.005 + 1e-6, "x " + i);
+            assertEquals(ys[i], points.get(i)[1], 0.005 + 1e-3, "y " + i);
+        }
+    }
+
+    @Test
+    void streamsLargeChartsThroughTheWriter() throws Exception {
+        ChartModel line = LargeScaleDataGenerator.generateLineSeries("Line", 100_000);
+        ChartModel candles = LargeScaleDataGenerator.generateFinancialCandles("Candles", 20_000);
+        for (Object[] chart : new Object[][]{{new LineRenderer(), line}, {new CandlestickRenderer(), candles}}) {
+            CountingWriter out = new CountingWriter();
+            SvgCanvas canvas = new SvgCanvas(out, 1200, 800);
+            ChartModel model = (ChartModel) chart[1];
+            DefaultPlotContext context = new DefaultPlotContext(new ArberRect(0, 0, 1200, 800), model,
+                    Double.NaN, Double.NaN, Double.NaN, Double.NaN, ChartThemes.getDarkTheme());
+            canvas.beginLayer("data");
+            ((com.arbergashi.charts.render.ChartRenderer) chart[0]).render(canvas, model, context);
+            canvas.endLayer();
+            canvas.finish();
+
+            assertTrue(out.writes > 1, "output is streamed in chunks");
+            assertTrue(out.maxChunk <= 8192, "chunk " + out.maxChunk);
+            assertTrue(out.content.length() > 1000);
+            parse(out.content.toString());
+        }
+    }
+
+    private static Document parse(String svg) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Minimal decoder for the {@code m}/{@code l} subset the canvas writes for polylines.
+     */
+    private static List<double[]> absolutePoints(String d) {
+        List<double[]> points = new ArrayList<>();
+        double x = 0;
+        double y = 0;
+        int i = 0;
+        while (i < d.length()) {
+            char c = d.charAt(i);
+            if (c == 'm' || c == 'l' || c == ' ') {
+                i++;
+                continue;
+            }
+            int j = i + 1;
+            while (j < d.length() && (Character.isDigit(d.charAt(j)) || d.charAt(j) == '.')) j++;
+            double dx = Double.parseDouble(d.substring(i, j));
+            i = j;
+            while (d.charAt(i) == ' ') i++;
+            j = i + 1;
+            while (j < d.length() && (Character.isDigit(d.charAt(j)) || d.charAt(j) == '.')) j++;
+            double dy = Double.parseDouble(d.substring(i, j));
+            i = j;
+            x += dx;
+            y += dy;
+            points.add(new double[]{x, y});
+        }
+        return points;
+    }
+
+    private static final class CountingWriter extends Writer {
+        final StringBuilder content = new StringBuilder();
+        int writes;
+        int maxChunk;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            writes++;
+            maxChunk = Math.max(maxChunk, len);
+            content.append(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.arbergashi.charts.internal;
+
+import com.arbergashi.charts.api.ChartThemes;
+import com.arbergashi.charts.api.DefaultPlotContext;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.model.DefaultChartModel;
+import com.arbergashi.charts.model.DefaultFinancialChartModel;
+import com.arbergashi.charts.util.NiceScale;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OhlcPyramidTest {
+
+    private static DefaultPlotContext context(double width, double minX, double maxX) {
+        return new DefaultPlotContext(new ArberRect(0, 0, width, 100), minX, maxX, 0, 1000,
+                false, false, false, NiceScale.ScaleMode.LINEAR, NiceScale.ScaleMode.LINEAR,
+                ChartThemes.getDarkTheme(), null, null, null);
+    }
+
+    @Test
+    void mergesBarsPerPixelColumn() {
+        DefaultFinancialChartModel model = new DefaultFinancialChartModel();
+        for (int i = 0; i < 1000; i++) {
+            model.setOHLC(i, 100 + i, 200 + i, 50 + i, 101 + i, 1.0, null);
+        }
+        OhlcPyramid pyramid = new OhlcPyramid();
+        assertTrue(pyramid.merge(model, context(100, 0, 1000), false));
+        int bins = pyramid.getBinCount();
+        assertTrue(bins >= 99 && bins <= 101, "bins " + bins);
+
+        double volume = 0;
+        for (int b = 0; b < bins; b++) {
+            int first = pyramid.getBinFirstIndex(b);
+            int next = b + 1 < bins ? pyramid.getBinFirstIndex(b + 1) : 1000;
+            assertEquals(100 + first, pyramid.getBinOpen(b));
+            assertEquals(101 + next - 1, pyramid.getBinClose(b));
+            assertEquals(200 + next - 1, pyramid.getBinHigh(b));
+            assertEquals(50 + first, pyramid.getBinLow(b));
+            volume += pyramid.getBinVolume(b);
+        }
+        assertEquals(1000.0, volume);
+    }
+
+    @Test
+    void sparseDataIsNotMerged() {
+        DefaultFinancialChartModel model = new DefaultFinancialChartModel();
+        for (int i = 0; i < 50; i++) {
+            model.setOHLC(i, 1, 2, 0, 1);
+        }
+        assertFalse(new OhlcPyramid().merge(model, context(400, 0, 50), false));
+    }
+
+    @Test
+    void zoomedViewOnlyVisitsVisibleBars() {
+        DefaultFinancialChartModel model = new DefaultFinancialChartModel();
+        for (int i = 0; i < 100_000; i++) {
+            model.setOHLC(i, 10, 20, 5, 15, 2.0, null);
+        }
+        OhlcPyramid pyramid = new OhlcPyramid();
+        assertTrue(pyramid.merge(model, context(200, 50_000, 52_000), false));
+        assertTrue(pyramid.getBinFirstIndex(0) >= 49_990);
+        assertTrue(pyramid.getBinCount() <= 202);
+    }
+
+    @Test
+    void tailUpdateIsReflectedWithoutFullRebuild() {
+        DefaultFinancialChartModel model = new DefaultFinancialChartModel();
+        for (int i = 0; i < 500; i++) {
+            model.setOHLC(i, 10, 20, 5, 15, 1.0, null);
+        }
+        OhlcPyramid pyramid = new OhlcPyramid();
+        DefaultPlotContext ctx = context(50, 0, 500);
+        assertTrue(pyramid.merge(model, ctx, false));
+        model.updateLastOHLC(10, 999, 1, 12, 7.0);
+        assertTrue(pyramid.merge(model, ctx, false));
+        int last = pyramid.getBinCount() - 1;
+        assertEquals(999.0, pyramid.getBinHigh(last));
+        assertEquals(1.0, pyramid.getBinLow(last));
+        assertEquals(12.0, pyramid.getBinClose(last));
+    }
+
+    @Test
+    void genericModelsSyncTailAndDetectRewrites() {
+        DefaultChartModel model = new DefaultChartModel();
+        for (int i = 0; i < 500; i++) {
+            model.setPoint(i, 15, 5, 20, 10, null); // y=close, min=low, max=high, weight=open
+        }
+        OhlcPyramid pyramid = new OhlcPyramid();
+        DefaultPlotContext ctx = context(50, 0, 600);
+        assertTrue(pyramid.merge(model, ctx, false));
+
+        for (int i = 500; i < 600; i++) {
+            model.setPoint(i, 15, 5, i == 599 ? 777 : 20, 10, null);
+        }
+        assertTrue(pyramid.merge(model, ctx, false));
+        int last = pyramid.getBinCount() - 1;
+        assertEquals(777.0, pyramid.getBinHigh(last), "appended bars reach the merged output");
+
+        model.clear();
+        for (int i = 0; i < 600; i++) {
+            model.setPoint(i, -3, -4, 0, -2, null);
+        }
+        assertTrue(pyramid.merge(model, ctx, false));
+        for (int b = 0; b < pyramid.getBinCount(); b++) {
+            assertEquals(-3.0, pyramid.getBinClose(b), "a refill between frames forces a rebuild, bin " + b);
+        }
+
+        model.clear();
+        for (int i = 0; i < 300; i++) {
+            model.setPoint(i, 1, 0, 2, 1, null);
+        }
+        assertTrue(pyramid.merge(model, context(50, 0, 300), false));
+        assertEquals(1.0, pyramid.getBinClose(pyramid.getBinCount() - 1), "shrunk model is rebuilt");
+        assertEquals(2.0, pyramid.getBinHigh(0));
+    }
+
+    @Test
+    void derivedSeriesRebuildsOnlyTheReportedTail() {
+        int n = 500;
+        double[] x = new double[n];
+        double[] o = new double[n];
+        double[] h = new double[n];
+        double[] l = new double[n];
+        double[] c = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            o[i] = 10;
+            h[i] = 20;
+            l[i] = 5;
+            c[i] = 15;
+        }
+        Object key = new Object();
+        OhlcPyramid pyramid = new OhlcPyramid();
+        DefaultPlotContext ctx = context(50, 0, n);
+        assertTrue(pyramid.merge(key, 1, n, 0, x, o, h, l, c, ctx, false));
+
+        h[n - 1] = 999;
+        assertTrue(pyramid.merge(key, 2, n, n - 1, x, o, h, l, c, ctx, false));
+        assertEquals(999.0, pyramid.getBinHigh(pyramid.getBinCount() - 1));
+
+        h[0] = 555; // revision 3 is never shown to the pyramid
+        h[n - 1] = 20;
+        assertTrue(pyramid.merge(key, 4, n, n - 1, x, o, h, l, c, ctx, false));
+        assertEquals(555.0, pyramid.getBinHigh(0), "a skipped revision forces a full rebuild");
+        assertEquals(20.0, pyramid.getBinHigh(pyramid.getBinCount() - 1));
+    }
+}
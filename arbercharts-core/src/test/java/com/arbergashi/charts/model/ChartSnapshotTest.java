@@ -0,0 +1,231 @@
+package com.arbergashi.charts.model;
+
+import com.arbergashi.charts.api.types.ArberColor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ChartSnapshot}.
+ *
+ * @since 2.1.0
+ */
+class ChartSnapshotTest {
+
+    @Test
+    void roundTripsEverySupportedModel(@TempDir Path dir) throws Exception {
+        for (boolean compress : new boolean[]{false, true}) {
+            Path file = dir.resolve("session-" + compress + ".acsn");
+            ChartSnapshot.builder().compress(compress).write(file, sampleModels());
+            List<ChartModel> restored = ChartSnapshot.read(file);
+            assertEquals(7, restored.size());
+
+            DefaultChartModel series = (DefaultChartModel) restored.get(0);
+            assertEquals("Series A", series.getName());
+            assertEquals("sub", series.getSubtitle());
+            assertEquals(new ArberColor(0xFF112233), series.getColor());
+            assertEquals(10_000, series.getPointCount());
+            assertEquals(1234 * 0.5, series.getX(1234));
+            assertEquals(Math.sin(1234), series.getY(1234));
+            assertEquals(ProvenanceFlags.ORIGINAL, series.getProvenanceFlagsData()[7]);
+            assertEquals((short) 7, series.getSourceIdsData()[7]);
+            assertEquals(7_000L, series.getTimestampNanosData()[7]);
+            assertEquals("p7", series.getLabel(7));
+            assertNull(series.getLabel(8));
+            series.setXY(1, 1); // restored arrays keep growing
+            assertEquals(10_001, series.getPointCount());
+
+            DefaultFinancialChartModel bars = (DefaultFinancialChartModel) restored.get(1);
+            assertEquals(3, bars.getPointCount());
+            assertEquals(12.5, bars.getCloseData()[1]);
+            assertEquals(900.0, bars.getVolumeData()[2]);
+            assertEquals("b2", bars.getLabel(2));
+
+            DefaultSignalChartModel signal = (DefaultSignalChartModel) restored.get(2);
+            assertTrue(signal.isCircular());
+            assertEquals(8, signal.getCapacity());
+            assertEquals(8, signal.getPointCount());
+            assertEquals(250.0, signal.getSampleRateHz());
+            assertEquals(12.0, signal.getX(0), "oldest sample of the ring comes first");
+            assertEquals(-19.0, signal.getValue(7, 1));
+            signal.setSample(20, new double[]{1, 2});
+            assertEquals(13.0, signal.getX(0));
+
+            CircularChartModel ring = (CircularChartModel) restored.get(3);
+            assertEquals(16, ring.getCapacity());
+            assertEquals(16, ring.getPointCount());
+            assertEquals(4.0, ring.getX(0));
+            assertEquals("r19", ring.getLabel(15));
+
+            DefaultMatrixChartModel matrix = (DefaultMatrixChartModel) restored.get(4);
+            assertEquals(List.of("a", "b"), matrix.getEntityLabels());
+            assertArrayEquals(new double[]{3, 4}, matrix.getMatrix()[1]);
+
+            DefaultHierarchicalChartModel tree = (DefaultHierarchicalChartModel) restored.get(5);
+            assertEquals("root", tree.getRootNode().getLabel());
+            assertEquals(2, tree.getRootNode().getChildren().size());
+            assertEquals(6.0, tree.getRootNode().getValue(), "unset parent value still sums children");
+            assertEquals("leaf", tree.getRootNode().getChildren().get(1).getChildren().get(0).getLabel());
+
+            DefaultFlowChartModel flow = (DefaultFlowChartModel) restored.get(6);
+            assertEquals("Energy", flow.getName());
+            assertEquals("Coal", flow.getNodes().get(0).getLabel());
+            assertEquals("coal", flow.getLinks().get(0).getSource());
+            assertEquals(42.0, flow.getLinks().get(0).getValue());
+        }
+    }
+
+    @Test
+    void compressionShrinksRegularColumns(@TempDir Path dir) throws Exception {
+        DefaultChartModel model = new DefaultChartModel("Ramp");
+        for (int i = 0; i < 50_000; i++) {
+            model.setXY(i, 100.0);
+        }
+        Path raw = dir.resolve("raw.acsn");
+        Path packed = dir.resolve("packed.acsn");
+        ChartSnapshot.write(raw, List.of(model));
+        ChartSnapshot.builder().compress(true).write(packed, List.of(model));
+
+        assertTrue(Files.size(packed) * 10 < Files.size(raw), Files.size(packed) + " vs " + Files.size(raw));
+        DefaultChartModel restored = (DefaultChartModel) ChartSnapshot.read(packed).get(0);
+        assertEquals(49_999.0, restored.getX(49_999));
+        assertEquals(100.0, restored.getY(12_345));
+    }
+
+    @Test
+    void detectsCorruptionAndForeignFiles(@TempDir Path dir) throws Exception {
+        DefaultChartModel model = new DefaultChartModel("Check");
+        for (int i = 0; i < 1_000; i++) {
+            model.setXY(i, i);
+        }
+        Path file = dir.resolve("check.acsn");
+        ChartSnapshot.write(file, List.of(model));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F}), Files.size(file) / 2);
+        }
+        IOException checksum = assertThrows(IOException.class, () -> ChartSnapshot.read(file));
+        assertTrue(checksum.getMessage().contains("Checksum"), checksum.getMessage());
+
+        Path foreign = dir.resolve("foreign.acsn");
+        Files.writeString(foreign, "X,Y,Weight,Label\n1,2,1,\n0000000000000000");
+        assertThrows(IOException.class, () -> ChartSnapshot.read(foreign));
+
+        ChartModel custom = new ChartModel() {
+            @Override
+            public String getName() {
+                return "custom";
+            }
+
+            @Override
+            public int getPointCount() {
+                return 0;
+            }
+
+            @Override
+            public void setChangeListener(ChartModelListener listener) {
+            }
+
+            @Override
+            public void removeChangeListener(ChartModelListener listener) {
+            }
+        };
+        assertFalse(ChartSnapshot.isSupported(custom));
+        assertThrows(IllegalArgumentException.class,
+                () -> ChartSnapshot.write(dir.resolve("custom.acsn"), List.of(custom)));
+    }
+
+    @Test
+    void rejectsSubclassesAndInconsistentMatrices(@TempDir Path dir) {
+        DefaultChartModel subclass = new DefaultChartModel("sub") {
+        };
+        assertFalse(ChartSnapshot.isSupported(subclass));
+        IllegalArgumentException unsupported = assertThrows(IllegalArgumentException.class,
+                () -> ChartSnapshot.write(dir.resolve("sub.acsn"), List.of(subclass)));
+        assertTrue(unsupported.getMessage().contains("Unsupported"), unsupported.getMessage());
+
+        List<String> entities = new ArrayList<>(List.of("a", "b"));
+        DefaultMatrixChartModel matrix = new DefaultMatrixChartModel(new double[][]{{1, 2}, {3, 4}}, entities);
+        entities.remove(1); // the model keeps the caller's list
+        IllegalArgumentException labels = assertThrows(IllegalArgumentException.class,
+                () -> ChartSnapshot.write(dir.resolve("matrix.acsn"), List.of(matrix)));
+        assertTrue(labels.getMessage().contains("labels"), labels.getMessage());
+        assertFalse(Files.exists(dir.resolve("matrix.acsn")), "validated before the file is created");
+    }
+
+    @Test
+    void deepHierarchiesDoNotOverflowTheStack(@TempDir Path dir) throws Exception {
+        int depth = 200_000;
+        DefaultHierarchicalChartModel.DefaultNode root = new DefaultHierarchicalChartModel.DefaultNode("n0", 1);
+        DefaultHierarchicalChartModel.DefaultNode node = root;
+        for (int i = 1; i < depth; i++) {
+            DefaultHierarchicalChartModel.DefaultNode child = new DefaultHierarchicalChartModel.DefaultNode("n" + i, 1);
+            node.setChild(child);
+            if (i == 1) node.setChild(new DefaultHierarchicalChartModel.DefaultNode("side", 2));
+            node = child;
+        }
+        Path file = dir.resolve("deep.acsn");
+        ChartSnapshot.write(file, List.of(new DefaultHierarchicalChartModel(root)));
+
+        HierarchicalChartModel.Node<?> restored = ((DefaultHierarchicalChartModel) ChartSnapshot.read(file).get(0)).getRootNode();
+        assertEquals("side", restored.getChildren().get(1).getLabel(), "sibling order kept");
+        int levels = 1;
+        while (!restored.getChildren().isEmpty()) {
+            restored = restored.getChildren().get(0);
+            levels++;
+        }
+        assertEquals(depth, levels);
+        assertEquals("n" + (depth - 1), restored.getLabel());
+    }
+
+    private static List<ChartModel> sampleModels() {
+        DefaultChartModel series = new DefaultChartModel("Series A");
+        series.setSubtitle("sub");
+        series.setColor(new ArberColor(0xFF112233));
+        for (int i = 0; i < 10_000; i++) {
+            series.setPoint(i * 0.5, Math.sin(i), -1, 1, 2, i == 7 ? "p7" : null,
+                    ProvenanceFlags.ORIGINAL, (short) i, i * 1_000L);
+        }
+
+        DefaultFinancialChartModel bars = new DefaultFinancialChartModel("Bars");
+        for (int i = 0; i < 3; i++) {
+            bars.setOHLC(i, 10 + i, 15 + i, 9 + i, 11.5 + i, 300.0 * (i + 1), "b" + i);
+        }
+
+        DefaultSignalChartModel signal = new DefaultSignalChartModel(2, 8, true).setSampleRateHz(250);
+        for (int i = 0; i < 20; i++) {
+            signal.setSample(i, new double[]{i, -i});
+        }
+
+        CircularChartModel ring = new CircularChartModel("Ring", 16);
+        for (int i = 0; i < 20; i++) {
+            ring.setPoint(i, i * 2, i, i, 1, "r" + i);
+        }
+
+        DefaultMatrixChartModel matrix = new DefaultMatrixChartModel(new double[][]{{1, 2}, {3, 4}}, List.of("a", "b"));
+
+        DefaultHierarchicalChartModel.DefaultNode root = new DefaultHierarchicalChartModel.DefaultNode("root", 0);
+        DefaultHierarchicalChartModel.DefaultNode branch = new DefaultHierarchicalChartModel.DefaultNode("branch", 0);
+        root.setChild(new DefaultHierarchicalChartModel.DefaultNode("first", 1));
+        root.setChild(branch);
+        branch.setChild(new DefaultHierarchicalChartModel.DefaultNode("leaf", 5));
+        DefaultHierarchicalChartModel tree = new DefaultHierarchicalChartModel(root);
+
+        DefaultFlowChartModel flow = new DefaultFlowChartModel(
+                List.of(new DefaultFlowChartModel.DefaultNode("coal", "Coal"),
+                        new DefaultFlowChartModel.DefaultNode("grid", "Grid")),
+                List.of(new DefaultFlowChartModel.DefaultLink("coal", "grid", 42)))
+                .setName("Energy");
+
+        return List.of(series, bars, signal, ring, matrix, tree, flow);
+    }
+}
@@ -43,4 +43,92 @@ public class CircularFastMedicalModelTest {
         m.clear();
         assertEquals(0, m.getRawSize());
     }
+
+    @Test
+    public void addFrameWrapsAndSnapshotKeepsRingLayout() {
+        CircularFastMedicalModel m = new CircularFastMedicalModel(8, 2);
+        int[] notifications = new int[1];
+        m.setChangeListener(() -> notifications[0]++);
+        double[] xs = new double[11];
+        double[][] ch = new double[2][11];
+        for (int i = 0; i < 11; i++) {
+            xs[i] = i;
+            ch[0][i] = i * 10;
+            ch[1][i] = -i;
+        }
+        m.addFrame(xs, ch, 0, 5);
+        m.addFrame(xs, ch, 5, 6);
+        assertEquals(2, notifications[0]);
+        assertEquals(8, m.getPointCount());
+        assertEquals(3, m.getFirstSequence());
+        assertEquals(3.0, m.getX(0));
+        assertEquals(100.0, m.getY(7, 0));
+        assertEquals(-10.0, m.getY(7, 1));
+        assertEquals(3, m.getRawHeadIndex());
+
+        CircularFastMedicalModel.Snapshot snap = m.readSnapshot(new CircularFastMedicalModel.Snapshot(), 1, 1);
+        assertEquals(8, snap.getSize());
+        assertEquals(3, snap.getHead());
+        assertEquals(10.0, snap.getX()[2]);
+        assertEquals(-10.0, snap.getY(1)[2]);
+
+        // frames larger than the ring keep only the newest rows
+        m.addFrame(xs, ch, 0, 11);
+        assertEquals(3.0, m.getX(0));
+        assertEquals(10.0, m.getX(7));
+    }
+
+    @Test
+    public void snapshotsStayConsistentWhileProducing() throws Exception {
+        CircularFastMedicalModel m = new CircularFastMedicalModel(1024, 1);
+        Thread producer = new Thread(() -> {
+            double[] row = new double[1];
+            double[] xs = new double[64];
+            double[][] ch = new double[1][64];
+            long seq = 0;
+            for (int round = 0; round < 4_000; round++) {
+                if ((round & 1) == 0) {
+                    row[0] = seq * 2.0;
+                    m.add(seq, row);
+                    seq++;
+                } else {
+                    for (int k = 0; k < 64; k++, seq++) {
+                        xs[k] = seq;
+                        ch[0][k] = seq * 2.0;
+                    }
+                    m.addFrame(xs, ch, 0, 64);
+                }
+            }
+        });
+        producer.start();
+        CircularFastMedicalModel.Snapshot snap = new CircularFastMedicalModel.Snapshot();
+        while (producer.isAlive()) {
+            m.readSnapshot(snap, 0, 1);
+            int cap = snap.getCapacity();
+            for (int k = 0; k < snap.getSize(); k++) {
+                int slot = (int) ((snap.getFirstSequence() + k) % cap);
+                assertEquals(snap.getFirstSequence() + k, snap.getX()[slot]);
+                assertEquals(snap.getX()[slot] * 2.0, snap.getY(0)[slot]);
+            }
+        }
+        producer.join();
+    }
+
+    @Test
+    public void syncControllerPublishesAllModelsTogether() {
+        com.arbergashi.charts.engine.sync.MedicalSyncController sync =
+                new com.arbergashi.charts.engine.sync.MedicalSyncController(16);
+        CircularFastMedicalModel a = new CircularFastMedicalModel(16, 1);
+        CircularFastMedicalModel b = new CircularFastMedicalModel(16, 2);
+        sync.registerModel(a);
+        sync.registerModel(b);
+        int[] seenInB = new int[1];
+        // when a notifies, b must already hold the sample as well
+        a.setChangeListener(() -> seenInB[0] = b.getPointCount());
+        sync.tick(1.0, new double[][]{{1.0}, {2.0, 3.0}});
+        assertEquals(1, seenInB[0]);
+        sync.tickFrame(new double[]{2.0, 3.0}, new double[][][]{{{4.0, 5.0}}, {{6.0, 7.0}, {8.0, 9.0}}}, 0, 2);
+        assertEquals(3, a.getPointCount());
+        assertEquals(9.0, b.getY(2, 1));
+    }
 }
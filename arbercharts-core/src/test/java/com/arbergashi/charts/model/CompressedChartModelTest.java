@@ -0,0 +1,131 @@
+package com.arbergashi.charts.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedChartModelTest {
+
+    @Test
+    void roundTripsIntegralAndFractionalSeries() {
+        CompressedChartModel m = new CompressedChartModel("t", 64);
+        Random rnd = new Random(7);
+        double[] xs = new double[1000];
+        double[] ys = new double[1000];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = i < 500 ? 1_700_000_000_000.0 + i * 10 + (i % 3) : 500.25 + i * 0.37;
+            ys[i] = i % 5 == 0 ? Double.NaN : rnd.nextGaussian();
+        }
+        m.appendXY(xs, ys, 0, xs.length);
+        assertEquals(1000, m.getPointCount());
+        assertEquals(15, m.getSealedBlockCount());
+        for (int i = 0; i < xs.length; i++) {
+            assertEquals(Double.doubleToRawLongBits(xs[i]), Double.doubleToRawLongBits(m.getX(i)), "x@" + i);
+            assertEquals(Double.doubleToRawLongBits(ys[i]), Double.doubleToRawLongBits(m.getY(i)), "y@" + i);
+        }
+        assertArrayEquals(xs, m.getXData());
+    }
+
+    @Test
+    void slowTelemetryCompressesWell() {
+        CompressedChartModel m = new CompressedChartModel();
+        for (int i = 0; i < 100_000; i++) {
+            m.setXY(1_000L * i, 20.0 + (i / 500) * 0.5);
+        }
+        double ratio = (double) m.getUncompressedBytes() / m.getCompressedBytes();
+        assertTrue(ratio > 5.0, "compression ratio " + ratio);
+    }
+
+    @Test
+    void blockHeadersDriveRangeQueries() {
+        CompressedChartModel m = new CompressedChartModel("t", 16);
+        for (int i = 0; i < 100; i++) {
+            m.setXY(i, -i);
+        }
+        assertTrue(m.isMonotonicX());
+        assertEquals(16.0, m.getBlockMinX(1));
+        assertEquals(-31.0, m.getBlockMinY(1));
+        assertEquals(42, m.lowerBoundX(42));
+        assertEquals(43, m.upperBoundX(42));
+        assertEquals(98, m.lowerBoundX(97.5));
+        assertArrayEquals(new double[]{0, 99, -99, 0}, m.getDataRange());
+
+        double[] xs = new double[30];
+        double[] ys = new double[30];
+        assertEquals(30, m.decodeRange(10, 40, xs, ys, 0));
+        assertEquals(10.0, xs[0]);
+        assertEquals(-39.0, ys[29]);
+    }
+
+    @Test
+    void clearResetsState() {
+        CompressedChartModel m = new CompressedChartModel("t", 16);
+        for (int i = 0; i < 40; i++) {
+            m.setXY(40 - i, i);
+        }
+        assertFalse(m.isMonotonicX());
+        m.clear();
+        assertEquals(0, m.getPointCount());
+        assertTrue(m.isMonotonicX());
+        assertEquals(0, m.getSealedBlockCount());
+    }
+
+    @Test
+    void envelopeKeepsTimeOrderAndGeneration() {
+        CompressedChartModel m = new CompressedChartModel("t", 16);
+        for (int i = 0; i < 16; i++) {
+            m.setXY(i, i == 3 ? 50 : i == 12 ? -50 : 0); // peak, then trough
+        }
+        for (int i = 16; i < 32; i++) {
+            m.setXY(i, i == 20 ? -7 : i == 30 ? 9 : 1); // trough, then peak
+        }
+        long generation = m.getGeneration();
+        double[] env = new double[8];
+        assertTrue(m.readBlockEnvelope(0, generation, env));
+        assertArrayEquals(new double[]{0, 0, 3, 50, 12, -50, 15, 0}, env, "falling block keeps max before min");
+        assertTrue(m.readBlockEnvelope(1, generation, env));
+        assertArrayEquals(new double[]{16, 1, 20, -7, 30, 9, 31, 1}, env);
+
+        m.clear();
+        for (int i = 0; i < 32; i++) {
+            m.setXY(i, i);
+        }
+        assertNotEquals(generation, m.getGeneration());
+        assertFalse(m.readBlockEnvelope(0, generation, env), "indices from before clear() are stale");
+        assertTrue(m.readBlockEnvelope(0, m.getGeneration(), env));
+        assertEquals(15.0, env[7]);
+    }
+
+    @Test
+    void manyReaderThreadsShareTheDecodePool() throws Exception {
+        CompressedChartModel m = new CompressedChartModel("t", 64);
+        for (int i = 0; i < 4096; i++) {
+            m.setXY(i, i * 0.5);
+        }
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 200; t++) {
+                int seed = t;
+                results.add(pool.submit(() -> {
+                    Random rnd = new Random(seed);
+                    for (int k = 0; k < 500; k++) {
+                        int i = rnd.nextInt(4096);
+                        if (m.getX(i) != i || m.getY(i) != i * 0.5) return false;
+                        if (m.lowerBoundX(i) != i) return false;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> r : results) {
+                assertTrue(r.get());
+            }
+        }
+    }
+}
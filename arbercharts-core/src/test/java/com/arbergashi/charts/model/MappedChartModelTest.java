@@ -0,0 +1,244 @@
+package com.arbergashi.charts.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedChartModelTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void appendsAcrossBlocksAndReadsBack() throws Exception {
+        try (MappedChartModel m = MappedChartModel.create(tmp.resolve("a.arbm"), 64)) {
+            for (int i = 0; i < 1000; i++) {
+                m.append(i, i * 2.0, i - 1.0, i + 1.0, 3.0, ProvenanceFlags.ORIGINAL, (short) 7, 1000L + i);
+            }
+            assertEquals(1000, m.getPointCount());
+            assertEquals(16, m.getBlockCount());
+            assertEquals(500.0, m.getX(500));
+            assertEquals(1000.0, m.getY(500));
+            assertEquals(499.0, m.getMin(500));
+            assertEquals(501.0, m.getMax(500));
+            assertEquals(3.0, m.getWeight(500));
+            assertEquals(7, m.getSourceId(999));
+            assertEquals(1999L, m.getTimestampNanos(999));
+            assertEquals(0.0, m.getX(1000));
+            assertArrayEquals(new double[]{0, 999, -1, 1000}, m.getDataRange());
+        }
+    }
+
+    @Test
+    void visibleRangeUsesBinarySearch() throws Exception {
+        try (MappedChartModel m = MappedChartModel.create(tmp.resolve("b.arbm"), 64)) {
+            double[] xs = new double[5000];
+            double[] ys = new double[5000];
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = i * 0.5;
+                ys[i] = Math.sin(i);
+            }
+            m.appendXY(xs, ys, 0, xs.length);
+            assertTrue(m.isMonotonicX());
+            assertEquals(200, m.lowerBoundX(100.0));
+            assertEquals(201, m.upperBoundX(100.0));
+            int[] range = new int[2];
+            m.getVisibleRange(100.0, 200.0, range);
+            assertEquals(199, range[0]);
+            assertEquals(402, range[1]);
+            assertEquals(5000, m.lowerBoundX(1e9));
+            assertEquals(0, m.upperBoundX(-1));
+
+            m.getVisibleRange(-10.0, 1.0, range);
+            assertEquals(0, range[0], "no neighbour before the first point");
+            assertEquals(4, range[1]);
+            m.getVisibleRange(2_000.0, 3_000.0, range);
+            assertEquals(3_999, range[0]);
+            assertEquals(5_000, range[1], "no neighbour past the last point");
+            m.getVisibleRange(1e6, 2e6, range);
+            assertEquals(0, range[1] - range[0], "window right of the data");
+            m.getVisibleRange(-20.0, -10.0, range);
+            assertEquals(0, range[1] - range[0], "window left of the data");
+            m.getVisibleRange(100.1, 100.2, range);
+            assertEquals(200, range[0], "window between two points keeps the crossing segment");
+            assertEquals(202, range[1]);
+        }
+    }
+
+    @Test
+    void nonMonotonicFallsBackToFullRange() throws Exception {
+        try (MappedChartModel m = MappedChartModel.create(tmp.resolve("c.arbm"), 64)) {
+            m.setXY(5, 1);
+            m.setXY(1, 2);
+            m.setXY(9, 3);
+            assertFalse(m.isMonotonicX());
+            int[] range = new int[2];
+            m.getVisibleRange(4, 6, range);
+            assertEquals(0, range[0]);
+            assertEquals(3, range[1]);
+        }
+    }
+
+    @Test
+    void reopenRestoresRowsAndSummaries() throws Exception {
+        Path file = tmp.resolve("d.arbm");
+        try (MappedChartModel m = MappedChartModel.create(file, 64)) {
+            for (int i = 0; i < 130; i++) {
+                m.setXY(i, -i);
+            }
+        }
+        try (MappedChartModel m = MappedChartModel.openReadOnly(file)) {
+            assertEquals(130, m.getPointCount());
+            assertEquals(-129.0, m.getY(129));
+            assertArrayEquals(new double[]{0, 129, -129, 0}, m.getDataRange());
+            assertThrows(IllegalStateException.class, () -> m.setXY(1, 1));
+        }
+        try (MappedChartModel m = MappedChartModel.open(file)) {
+            m.setXY(130, -130);
+            assertEquals(131, m.getPointCount());
+            assertEquals(130, m.lowerBoundX(130));
+        }
+    }
+
+    @Test
+    void bulkReadAndZeroCopyViews() throws Exception {
+        try (MappedChartModel m = MappedChartModel.create(tmp.resolve("e.arbm"), 64)) {
+            double[] xs = new double[100];
+            double[] ys = new double[100];
+            for (int i = 0; i < 100; i++) {
+                xs[i] = i;
+                ys[i] = i * 10;
+            }
+            m.appendXY(xs, ys, 0, 100);
+            double[] out = new double[50];
+            assertEquals(50, m.read(MappedChartModel.Column.Y, 40, out, 0, 50));
+            assertEquals(400.0, out[0]);
+            assertEquals(890.0, out[49]);
+
+            MemorySegment tail = m.columnSegment(MappedChartModel.Column.X, 1);
+            assertEquals(36L * Double.BYTES, tail.byteSize());
+            assertTrue(tail.isReadOnly());
+            assertEquals(64.0, tail.get(ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN), 0));
+            double[] heapX = m.getXData();
+            assertTrue(heapX.length >= 100);
+            assertEquals(99.0, heapX[99]);
+            assertEquals(990.0, m.getYData()[99]);
+            m.setXY(100, 1000);
+            assertEquals(100.0, m.getXData()[100], "the heap copy is extended by appended rows");
+            assertEquals(1000.0, m.getYData()[100]);
+            assertEquals(42.0, m.getXData()[42]);
+
+            double[] bx = new double[80];
+            double[] by = new double[80];
+            assertEquals(70, m.readXY(30, 200, bx, by, 10));
+            assertEquals(30.0, bx[10]);
+            assertEquals(990.0, by[79]);
+        }
+    }
+
+    @Test
+    void bulkAppendNotifiesOnce() throws Exception {
+        try (MappedChartModel m = MappedChartModel.create(tmp.resolve("f.arbm"), 64)) {
+            AtomicInteger events = new AtomicInteger();
+            m.setChangeListener(events::incrementAndGet);
+            m.appendXY(new double[300], new double[300], 0, 300);
+            assertEquals(1, events.get());
+            assertEquals(300, m.getPointCount());
+        }
+    }
+
+    @Test
+    void timestampIndexSeeksAndSurvivesReopen() throws Exception {
+        Path file = tmp.resolve("ts.arbm");
+        int n = 10_000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        byte[] flags = new byte[n];
+        short[] sources = new short[n];
+        long[] ts = new long[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = i;
+            ys[i] = i * 0.5;
+            sources[i] = (short) (i % 3);
+            ts[i] = 1_000_000L + i * 1_000L;
+        }
+        try (MappedChartModel m = MappedChartModel.create(file, 64)) {
+            m.appendRows(xs, ys, ys, ys, ys, flags, sources, ts, 0, 4_000);
+            m.appendRows(xs, ys, ys, ys, ys, flags, sources, ts, 4_000, n - 4_000);
+            assertTrue(m.isMonotonicTimestamps());
+            assertEquals(0, m.lowerBoundTimestamp(0L));
+            assertEquals(4_321, m.lowerBoundTimestamp(ts[4_321]));
+            assertEquals(4_322, m.lowerBoundTimestamp(ts[4_321] + 1));
+            assertEquals(n, m.lowerBoundTimestamp(Long.MAX_VALUE));
+        }
+        try (MappedChartModel m = MappedChartModel.openReadOnly(file)) {
+            assertEquals(n, m.getPointCount());
+            assertEquals(7_777, m.lowerBoundTimestamp(ts[7_777]));
+            long[] tsOut = new long[100];
+            short[] srcOut = new short[100];
+            assertEquals(100, m.readTimestamps(9_000, tsOut, 0, 100));
+            assertEquals(100, m.readSourceIds(9_000, srcOut, 0, 100));
+            assertEquals(ts[9_050], tsOut[50]);
+            assertEquals(sources[9_050], srcOut[50]);
+        }
+    }
+
+    @Test
+    void untimedAppendsKeepTimestampSummaries() throws Exception {
+        try (MappedChartModel m = MappedChartModel.create(tmp.resolve("mixed.arbm"), 64)) {
+            for (int i = 0; i < 100; i++) {
+                m.append(i, 0, 0, 0, 1, ProvenanceFlags.ORIGINAL, (short) 0, 5_000L + i);
+            }
+            m.appendXY(new double[]{100, 101, 102}, new double[3], 0, 3);
+            m.setXY(103, 0);
+            m.append(104, 0, 0, 0, 1, ProvenanceFlags.ORIGINAL, (short) 0, 6_000L);
+            assertTrue(m.isMonotonicTimestamps());
+            assertEquals(0L, m.getTimestampNanos(101));
+            assertEquals(50, m.lowerBoundTimestamp(5_050L));
+            assertEquals(104, m.lowerBoundTimestamp(5_100L), "untimed rows are skipped, not compared as zero");
+            assertEquals(104, m.lowerBoundTimestamp(6_000L));
+            assertEquals(105, m.lowerBoundTimestamp(6_001L));
+        }
+    }
+
+    @Test
+    void untimedRowsAreFlaggedAcrossReopen() throws Exception {
+        Path file = tmp.resolve("lead.arbm");
+        try (MappedChartModel m = MappedChartModel.create(file, 64)) {
+            m.appendXY(new double[10], new double[10], 0, 10);
+            for (int i = 0; i < 100; i++) {
+                m.append(10 + i, 0, 0, 0, 1, ProvenanceFlags.ORIGINAL, (short) 0, 0L);
+            }
+        }
+        try (MappedChartModel m = MappedChartModel.openReadOnly(file)) {
+            assertTrue(m.isMonotonicTimestamps());
+            assertEquals(10, m.lowerBoundTimestamp(0L), "the first timed row, even at timestamp zero");
+            assertEquals(10, m.lowerBoundTimestamp(Long.MIN_VALUE));
+            assertEquals(110, m.lowerBoundTimestamp(1L));
+        }
+    }
+
+    @Test
+    void outOfOrderTimestampsSeekByRunningMaximum() throws Exception {
+        try (MappedChartModel m = MappedChartModel.create(tmp.resolve("jitter.arbm"), 64)) {
+            for (int i = 0; i < 1_000; i++) {
+                // pairs arrive swapped, as from two sources with slight clock skew
+                long t = 1_000L * (i % 2 == 0 ? i + 1 : i - 1);
+                m.append(i, 0, 0, 0, 1, ProvenanceFlags.ORIGINAL, (short) 0, t);
+            }
+            assertFalse(m.isMonotonicTimestamps());
+            for (long t = 0; t < 1_000_000L; t += 777L) {
+                int expected = 0;
+                while (expected < 1_000 && m.getTimestampNanos(expected) < t) expected++;
+                assertEquals(expected, m.lowerBoundTimestamp(t), "t=" + t);
+            }
+        }
+    }
+}
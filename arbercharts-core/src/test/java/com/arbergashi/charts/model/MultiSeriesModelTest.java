@@ -0,0 +1,82 @@
+package com.arbergashi.charts.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiSeriesModelTest {
+
+    @Test
+    void viewsShareXColumn() {
+        MultiSeriesModel m = new MultiSeriesModel(3, 4);
+        for (int i = 0; i < 10; i++) {
+            m.appendRow(i, i, -i, i * 10.0);
+        }
+        ChartModel s2 = m.getSeries(2);
+        assertEquals(10, s2.getPointCount());
+        assertEquals(7.0, s2.getX(7));
+        assertEquals(70.0, s2.getY(7));
+        assertSame(m.getSeries(0).getXData(), s2.getXData());
+        assertEquals(-5.0, m.getSeries(1).getMin(5));
+        assertArrayEquals(new double[]{0, 9, -9, 0}, m.getSeries(1).getDataRange());
+    }
+
+    @Test
+    void batchedAppendNotifiesOnceAndIndexesExtrema() {
+        MultiSeriesModel m = new MultiSeriesModel(2, 16);
+        AtomicInteger events = new AtomicInteger();
+        m.getSeries(0).setChangeListener(events::incrementAndGet);
+        int n = 1000;
+        double[] xs = new double[n];
+        double[][] cols = new double[2][n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = i;
+            cols[0][i] = Math.sin(i * 0.01);
+            cols[1][i] = i == 700 ? 99.0 : 0.0;
+        }
+        m.appendRows(xs, cols, 0, n);
+        assertEquals(1, events.get());
+
+        double[] out = new double[2];
+        assertTrue(m.getYRange(1, 0, n, out));
+        assertEquals(0.0, out[0]);
+        assertEquals(99.0, out[1]);
+        assertTrue(m.getYRange(1, 0, 700, out));
+        assertEquals(0.0, out[1]);
+        assertTrue(m.getYRange(0, n, out));
+        assertEquals(99.0, out[1]);
+
+        int[] range = new int[2];
+        m.getSeries(1).getVisibleRange(100, 200, range);
+        assertEquals(99, range[0]);
+        assertEquals(202, range[1]);
+    }
+
+    @Test
+    void optionalColumnsAreLazy() {
+        MultiSeriesModel m = new MultiSeriesModel(4, 1024);
+        for (int i = 0; i < 100; i++) {
+            m.appendRow(i, 1, 2, 3, 4);
+        }
+        long plain = m.getRetainedBytes();
+        assertEquals(0, m.getSeries(0).getTimestampNanosData().length);
+        assertNull(m.getSeries(0).getLabel(3));
+
+        m.setRange(2, 10, -5, 5);
+        m.setLabel(3, "mark");
+        assertTrue(m.getRetainedBytes() > plain);
+        assertEquals(-5.0, m.getSeries(2).getMin(10));
+        assertEquals(3.0, m.getSeries(2).getMin(11));
+        assertEquals("mark", m.getSeries(1).getLabel(3));
+        assertArrayEquals(new double[]{0, 99, -5, 5}, m.getSeries(2).getDataRange());
+    }
+
+    @Test
+    void rejectsMismatchedRows() {
+        MultiSeriesModel m = new MultiSeriesModel(2, 4);
+        assertThrows(IllegalArgumentException.class, () -> m.appendRow(0, 1.0));
+        assertThrows(IndexOutOfBoundsException.class, () -> m.getSeries(2));
+    }
+}
@@ -0,0 +1,116 @@
+package com.arbergashi.charts.render.medical;
+
+import com.arbergashi.charts.api.ChartThemes;
+import com.arbergashi.charts.api.DefaultPlotContext;
+import com.arbergashi.charts.api.PlotContext;
+import com.arbergashi.charts.api.types.ArberColor;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.core.rendering.ArberMatrices;
+import com.arbergashi.charts.core.rendering.ArberMatrix;
+import com.arbergashi.charts.core.rendering.RasterBuffer;
+import com.arbergashi.charts.core.rendering.VoxelBuffer;
+import com.arbergashi.charts.model.CircularFastMedicalModel;
+import com.arbergashi.charts.util.NiceScale;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalSweepTest {
+
+    private static final int CAPACITY = 600;
+
+    private static PlotContext context(double maxY) {
+        return new DefaultPlotContext(new ArberRect(10.5, 20.25, 400, 200), 0, CAPACITY, -maxY, maxY,
+                false, false, false, NiceScale.ScaleMode.LINEAR, NiceScale.ScaleMode.LINEAR,
+                ChartThemes.getDarkTheme(), null, null, null);
+    }
+
+    /** Feeds samples in sweep layout: x is the position within the sweep window. */
+    private static void feed(CircularFastMedicalModel model, Random rnd, long[] seq, int n) {
+        for (int i = 0; i < n; i++) {
+            long s = seq[0]++;
+            model.add(s % CAPACITY, new double[]{Math.sin(s * 0.07) * 80 + rnd.nextGaussian() * 5});
+        }
+    }
+
+    private static int[] render(ECGRenderer renderer, CircularFastMedicalModel model, PlotContext ctx) {
+        CaptureCanvas canvas = new CaptureCanvas();
+        renderer.render(canvas, model, ctx);
+        assertNotNull(canvas.pixels, "raster was not drawn");
+        return canvas.pixels;
+    }
+
+    @Test
+    void incrementalFramesMatchFullRepaint() {
+        Random rnd = new Random(17);
+        CircularFastMedicalModel model = new CircularFastMedicalModel(CAPACITY, 1);
+        ECGRenderer incremental = new ECGRenderer();
+        incremental.setIncrementalSweep(true);
+        PlotContext ctx = context(100);
+        long[] seq = new long[1];
+        for (int frame = 0; frame < 120; frame++) {
+            feed(model, rnd, seq, 1 + rnd.nextInt(15));
+            int[] actual = render(incremental, model, ctx);
+            if (frame % 7 == 0 || frame == 119) {
+                ECGRenderer fresh = new ECGRenderer();
+                fresh.setIncrementalSweep(true);
+                assertArrayEquals(render(fresh, model, ctx), actual, "frame " + frame);
+            }
+        }
+        assertTrue(seq[0] > CAPACITY, "sweep should have wrapped");
+        assertTrue(Arrays.stream(render(incremental, model, ctx)).anyMatch(p -> p != 0), "trace is empty");
+    }
+
+    @Test
+    void scaleChangeAndClearRepaint() {
+        Random rnd = new Random(23);
+        CircularFastMedicalModel model = new CircularFastMedicalModel(CAPACITY, 1);
+        ECGRenderer incremental = new ECGRenderer();
+        incremental.setIncrementalSweep(true);
+        long[] seq = new long[1];
+        feed(model, rnd, seq, 400);
+        render(incremental, model, context(100));
+
+        feed(model, rnd, seq, 10);
+        int[] zoomed = render(incremental, model, context(150));
+        ECGRenderer fresh = new ECGRenderer();
+        fresh.setIncrementalSweep(true);
+        assertArrayEquals(render(fresh, model, context(150)), zoomed);
+
+        model.clear();
+        seq[0] = 0;
+        feed(model, rnd, seq, 50);
+        int[] cleared = render(incremental, model, context(150));
+        fresh = new ECGRenderer();
+        fresh.setIncrementalSweep(true);
+        assertArrayEquals(render(fresh, model, context(150)), cleared);
+    }
+
+    /** Records the blitted raster and ignores vector output. */
+    private static final class CaptureCanvas implements ArberCanvas {
+        int[] pixels;
+        private ArberRect clip;
+
+        @Override
+        public void drawRaster(RasterBuffer raster, float x, float y) {
+            pixels = Arrays.copyOf(raster.getPixels(), raster.getWidth() * raster.getHeight());
+        }
+
+        @Override public void setColor(ArberColor color) { }
+        @Override public void setStroke(float width) { }
+        @Override public void moveTo(float x, float y) { }
+        @Override public void lineTo(float x, float y) { }
+        @Override public void drawPolyline(float[] xs, float[] ys, int count) { }
+        @Override public void drawRect(float x, float y, float w, float h) { }
+        @Override public void fillRect(float x, float y, float w, float h) { }
+        @Override public void fillPolygon(float[] xs, float[] ys, int count) { }
+        @Override public void drawVoxelField(VoxelBuffer buffer) { }
+        @Override public ArberMatrix getTransform() { return ArberMatrices.identity(); }
+        @Override public void setClip(ArberRect clip) { this.clip = clip; }
+        @Override public ArberRect getClip() { return clip; }
+    }
+}
@@ -0,0 +1,95 @@
+package com.arbergashi.charts.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentilesKeepSignificantDigitsAcrossRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000L); // 1 µs .. 10 ms
+        }
+        histogram.record(120_000_000_000L); // 2 minutes
+        LatencyHistogram.Snapshot s = histogram.snapshot();
+
+        assertEquals(10_001L, s.getTotalCount());
+        assertWithin(5_000_000L, s.getValueAtQuantile(0.5), 0.01);
+        assertWithin(9_900_000L, s.getValueAtQuantile(0.99), 0.01);
+        assertWithin(120_000_000_000L, s.getMaxNanos(), 0.01);
+        assertEquals(1_000L, s.getMinNanos(), 512L); // resolution near the lowest discernible value
+    }
+
+    @Test
+    void concurrentRecordingLosesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 4;
+        int perThread = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) histogram.record(2_000_000L);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread w : workers) w.join();
+
+        assertEquals((long) threads * perThread, histogram.getTotalCount());
+    }
+
+    @Test
+    void intervalSnapshotResetsCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3_000_000L);
+        histogram.record(4_000_000L);
+
+        assertEquals(2L, histogram.intervalSnapshot().getTotalCount());
+        assertEquals(0L, histogram.snapshot().getTotalCount());
+
+        histogram.record(5_000_000L);
+        LatencyHistogram.Snapshot next = histogram.intervalSnapshot();
+        assertEquals(1L, next.getTotalCount());
+        assertWithin(5_000_000L, next.getValueAtQuantile(1.0), 0.01);
+    }
+
+    @Test
+    void mergesHistogramsWithDifferentPrecision() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram(1_000L, 60_000_000_000L, 3);
+        for (int i = 0; i < 90; i++) a.record(1_000_000L);
+        for (int i = 0; i < 10; i++) b.record(50_000_000L);
+
+        a.add(b);
+        LatencyHistogram.Snapshot merged = a.snapshot();
+        assertEquals(100L, merged.getTotalCount());
+        assertWithin(1_000_000L, merged.getValueAtQuantile(0.9), 0.01);
+        assertWithin(50_000_000L, merged.getValueAtQuantile(0.95), 0.01);
+    }
+
+    @Test
+    void trackerRollsWindow() {
+        LatencyTracker tracker = new LatencyTracker(32);
+        for (int i = 0; i < 64; i++) tracker.record(40_000_000L);
+        for (int i = 0; i < 64; i++) tracker.record(1_000_000L);
+
+        assertTrue(tracker.getSampleCount() >= 32 && tracker.getSampleCount() <= 64);
+        assertEquals(1.0, tracker.getP999Millis(), 0.02);
+    }
+
+    private static void assertWithin(long expected, long actual, double relative) {
+        assertTrue(Math.abs(actual - expected) <= expected * relative,
+                () -> "expected ~" + expected + " but was " + actual);
+    }
+}
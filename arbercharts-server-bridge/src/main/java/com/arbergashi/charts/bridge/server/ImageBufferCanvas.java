@@ -3,17 +3,23 @@ package com.arbergashi.charts.bridge.server;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
 import com.arbergashi.charts.core.rendering.ArberMatrix;
 import com.arbergashi.charts.core.rendering.ArberMatrices;
+import com.arbergashi.charts.core.rendering.IntRasterizer;
+import com.arbergashi.charts.core.rendering.MarkerShape;
+import com.arbergashi.charts.core.rendering.RasterBuffer;
 import com.arbergashi.charts.core.rendering.VoxelBuffer;
 import com.arbergashi.charts.api.types.ArberColor;
 import com.arbergashi.charts.core.geometry.ArberRect;
 
 /**
  * Headless pixel buffer canvas (ARGB int[]).
+ *
+ * <p>Colors overwrite; spans and lines go through the shared {@link IntRasterizer}.</p>
  */
 public final class ImageBufferCanvas implements ArberCanvas {
     private final int width;
     private final int height;
     private final int[] pixels;
+    private final IntRasterizer raster = new IntRasterizer(false);
     private int color = 0xFF000000;
     private float stroke = 1f;
     private float lastX;
@@ -24,11 +30,14 @@ public final class ImageBufferCanvas implements ArberCanvas {
     private int clipY0;
     private int clipX1;
     private int clipY1;
+    private final float[] outlineX = new float[MarkerShape.MAX_OUTLINE_VERTICES];
+    private final float[] outlineY = new float[MarkerShape.MAX_OUTLINE_VERTICES];
 
     public ImageBufferCanvas(int width, int height) {
         this.width = Math.max(1, width);
         this.height = Math.max(1, height);
         this.pixels = new int[this.width * this.height];
+        raster.bind(pixels, 0, this.width, this.width, this.height, true);
     }
 
     public int[] pixels() { return pixels; }
@@ -87,22 +96,12 @@ public final class ImageBufferCanvas implements ArberCanvas {
 
     @Override
     public void fillRect(float x, float y, float w, float h) {
-        int x0 = Math.max(0, Math.round(x));
-        int y0 = Math.max(0, Math.round(y));
-        int x1 = Math.min(width - 1, Math.round(x + w));
-        int y1 = Math.min(height - 1, Math.round(y + h));
-        if (clipEnabled) {
-            x0 = Math.max(x0, clipX0);
-            y0 = Math.max(y0, clipY0);
-            x1 = Math.min(x1, clipX1);
-            y1 = Math.min(y1, clipY1);
-        }
-        for (int yy = y0; yy <= y1; yy++) {
-            int row = yy * width;
-            for (int xx = x0; xx <= x1; xx++) {
-                pixels[row + xx] = color;
-            }
-        }
+        fillRect(x, y, w, h, color);
+    }
+
+    private void fillRect(float x, float y, float w, float h, int argb) {
+        // Inclusive of the far edge, unlike Java2D.
+        raster.fillRect(Math.round(x), Math.round(y), Math.round(x + w) + 1, Math.round(y + h) + 1, argb);
     }
 
     @Override
@@ -150,14 +149,104 @@ public final class ImageBufferCanvas implements ArberCanvas {
         int[] argb = buffer.argb();
         int n = buffer.count();
         for (int i = 0; i < n; i++) {
-            int x = Math.round(xs[i]);
-            int y = Math.round(ys[i]);
-            if (x < 0 || y < 0 || x >= width || y >= height) continue;
-            if (clipEnabled && (x < clipX0 || x > clipX1 || y < clipY0 || y > clipY1)) continue;
-            pixels[y * width + x] = (argb != null && i < argb.length) ? argb[i] : color;
+            raster.plot(Math.round(xs[i]), Math.round(ys[i]), (argb != null && i < argb.length) ? argb[i] : color);
+        }
+    }
+
+    @Override
+    public void drawRaster(RasterBuffer raster, float x, float y) {
+        if (raster == null) return;
+        int rw = raster.getWidth();
+        int rh = raster.getHeight();
+        int[] src = raster.getPixels();
+        int ox = Math.round(x);
+        int oy = Math.round(y);
+        int x0 = Math.max(0, ox);
+        int y0 = Math.max(0, oy);
+        int x1 = Math.min(width - 1, ox + rw - 1);
+        int y1 = Math.min(height - 1, oy + rh - 1);
+        if (clipEnabled) {
+            x0 = Math.max(x0, clipX0);
+            y0 = Math.max(y0, clipY0);
+            x1 = Math.min(x1, clipX1);
+            y1 = Math.min(y1, clipY1);
+        }
+        for (int yy = y0; yy <= y1; yy++) {
+            int row = yy * width;
+            int srcRow = (yy - oy) * rw - ox;
+            for (int xx = x0; xx <= x1; xx++) {
+                int argb = src[srcRow + xx];
+                if ((argb >>> 24) != 0) pixels[row + xx] = argb;
+            }
         }
     }
 
+    @Override
+    public void fillRects(float[] x, float[] y, float[] w, float[] h, int[] argb, int count) {
+        if (x == null || y == null || w == null || h == null || count <= 0) return;
+        int n = Math.min(Math.min(count, x.length), Math.min(y.length, Math.min(w.length, h.length)));
+        if (argb != null) n = Math.min(n, argb.length);
+        for (int i = 0; i < n; i++) {
+            fillRect(x[i], y[i], w[i], h[i], argb != null ? argb[i] : color);
+        }
+    }
+
+    @Override
+    public void drawSegments(float[] x0, float[] y0, float[] x1, float[] y1, int[] argb, int count) {
+        if (x0 == null || y0 == null || x1 == null || y1 == null || count <= 0) return;
+        int n = Math.min(Math.min(count, x0.length), Math.min(y0.length, Math.min(x1.length, y1.length)));
+        if (argb != null) n = Math.min(n, argb.length);
+        int saved = color;
+        for (int i = 0; i < n; i++) {
+            if (argb != null) color = argb[i];
+            drawLine(Math.round(x0[i]), Math.round(y0[i]), Math.round(x1[i]), Math.round(y1[i]));
+        }
+        color = saved;
+    }
+
+    @Override
+    public void drawMarkers(MarkerShape shape, float[] xs, float[] ys, float size, int[] argb, int count) {
+        if (shape == null || xs == null || ys == null || count <= 0 || !(size > 0f)) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length));
+        if (argb != null) n = Math.min(n, argb.length);
+        float r = size * 0.5f;
+        int saved = color;
+        for (int i = 0; i < n; i++) {
+            if (argb != null) color = argb[i];
+            float cx = xs[i];
+            float cy = ys[i];
+            switch (shape) {
+                case SQUARE -> fillRect(cx - r, cy - r, size, size, color);
+                case CIRCLE -> fillDisc(cx, cy, r);
+                case CROSS -> {
+                    drawLine(Math.round(cx - r), Math.round(cy - r), Math.round(cx + r), Math.round(cy + r));
+                    drawLine(Math.round(cx - r), Math.round(cy + r), Math.round(cx + r), Math.round(cy - r));
+                }
+                case PLUS -> {
+                    drawLine(Math.round(cx - r), Math.round(cy), Math.round(cx + r), Math.round(cy));
+                    drawLine(Math.round(cx), Math.round(cy - r), Math.round(cx), Math.round(cy + r));
+                }
+                default -> fillPolygon(outlineX, outlineY, shape.outline(cx, cy, r, outlineX, outlineY));
+            }
+        }
+        color = saved;
+    }
+
+    @Override
+    public void fillQuads(float[] xs, float[] ys, int[] argb, int count) {
+        if (xs == null || ys == null || count <= 0) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length) / 4);
+        if (argb != null) n = Math.min(n, argb.length);
+        int saved = color;
+        for (int i = 0; i < n; i++) {
+            if (argb != null) color = argb[i];
+            System.arraycopy(xs, i * 4, outlineX, 0, 4);
+            System.arraycopy(ys, i * 4, outlineY, 0, 4);
+            fillPolygon(outlineX, outlineY, 4);
+        }
+        color = saved;
+    }
+
     @Override
     public ArberMatrix getTransform() {
         return ArberMatrices.identity();
@@ -168,6 +257,7 @@ public final class ImageBufferCanvas implements ArberCanvas {
         this.clip = clip;
         if (clip == null) {
             clipEnabled = false;
+            raster.resetClip();
             return;
         }
         clipEnabled = true;
@@ -175,6 +265,7 @@ public final class ImageBufferCanvas implements ArberCanvas {
         clipY0 = (int) Math.floor(clip.y());
         clipX1 = (int) Math.ceil(clip.x() + clip.width()) - 1;
         clipY1 = (int) Math.ceil(clip.y() + clip.height()) - 1;
+        raster.setClip(clipX0, clipY0, clipX1 + 1, clipY1 + 1);
     }
 
     @Override
@@ -183,23 +274,16 @@ public final class ImageBufferCanvas implements ArberCanvas {
     }
 
     private void drawLine(int x0, int y0, int x1, int y1) {
-        int dx = Math.abs(x1 - x0);
-        int dy = Math.abs(y1 - y0);
-        int sx = x0 < x1 ? 1 : -1;
-        int sy = y0 < y1 ? 1 : -1;
-        int err = dx - dy;
-        int x = x0;
-        int y = y0;
-        while (true) {
-            if (x >= 0 && y >= 0 && x < width && y < height) {
-                if (!clipEnabled || (x >= clipX0 && x <= clipX1 && y >= clipY0 && y <= clipY1)) {
-                pixels[y * width + x] = color;
-                }
-            }
-            if (x == x1 && y == y1) break;
-            int e2 = 2 * err;
-            if (e2 > -dy) { err -= dy; x += sx; }
-            if (e2 < dx) { err += dx; y += sy; }
+        raster.line(x0, y0, x1, y1, color);
+    }
+
+    private void fillDisc(float cx, float cy, float r) {
+        int yTop = Math.max(0, (int) Math.ceil(cy - r - 0.5f));
+        int yBottom = Math.min(height - 1, (int) Math.floor(cy + r - 0.5f));
+        for (int yy = yTop; yy <= yBottom; yy++) {
+            float dy = yy + 0.5f - cy;
+            float half = (float) Math.sqrt(Math.max(0f, r * r - dy * dy));
+            raster.fillRect(Math.round(cx - half), yy, Math.round(cx + half), yy + 1, color);
         }
     }
 
@@ -4,11 +4,17 @@ import com.arbergashi.charts.api.ChartTheme;
 import com.arbergashi.charts.api.ChartThemes;
 import com.arbergashi.charts.api.DefaultPlotContext;
 import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.core.rendering.ArberCanvas;
 import com.arbergashi.charts.api.types.ArberColor;
+import com.arbergashi.charts.engine.telemetry.FrameProfiler;
+import com.arbergashi.charts.engine.telemetry.RenderStage;
 import com.arbergashi.charts.engine.spatial.SpatialFillConsumer;
 import com.arbergashi.charts.engine.spatial.SpatialPathBatch;
 import com.arbergashi.charts.engine.spatial.SpatialPathBatchBuilder;
 import com.arbergashi.charts.engine.spatial.SpatialStyleDescriptor;
+import com.arbergashi.charts.export.PdfCanvas;
+import com.arbergashi.charts.export.PdfDocumentWriter;
+import com.arbergashi.charts.export.SvgCanvas;
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.model.DefaultFinancialChartModel;
 import com.arbergashi.charts.model.FinancialChartModel;
@@ -16,6 +22,7 @@ import com.arbergashi.charts.render.ChartRenderer;
 import com.arbergashi.charts.render.SpatialChunkRenderer;
 import com.arbergashi.charts.render.financial.CandlestickRenderer;
 import com.arbergashi.charts.render.standard.LineRenderer;
+import com.arbergashi.charts.util.LatencyHistogram;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -26,8 +33,16 @@ import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferInt;
 import java.awt.image.DirectColorModel;
 import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Headless render service with a lightweight session pool.
@@ -39,6 +54,8 @@ public final class ServerRenderService {
     private final Timer renderTimer;
     private final Counter renderSuccess;
     private final Counter renderFailure;
+    private final LatencyHistogram renderLatency = new LatencyHistogram();
+    private final FrameProfiler frameProfiler = new FrameProfiler("ServerRenderService");
 
     public ServerRenderService() {
         this(Math.max(1, Runtime.getRuntime().availableProcessors()), true, null);
@@ -75,26 +92,38 @@ public final class ServerRenderService {
     }
 
     public byte[] renderToPng(ChartModel model, Dimension size) {
-        BufferedImage image = renderToImage(model, size);
-        try (java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream()) {
-            javax.imageio.ImageIO.write(image, "png", out);
-            return out.toByteArray();
-        } catch (java.io.IOException e) {
-            throw new IllegalStateException("Failed to encode PNG", e);
-        }
+        return renderToPng(model, size, ChartThemes.getDarkTheme(), null);
     }
 
     public byte[] renderToPng(ChartModel model, Dimension size, ChartTheme theme, ChartRenderer renderer) {
-        BufferedImage image = renderToImage(model, size, theme, renderer);
-        try (java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream()) {
-            javax.imageio.ImageIO.write(image, "png", out);
-            return out.toByteArray();
-        } catch (java.io.IOException e) {
-            throw new IllegalStateException("Failed to encode PNG", e);
+        FrameProfiler.Frame frame = frameProfiler.beginFrame();
+        try {
+            BufferedImage image = renderImage(model, size, theme, renderer, frame);
+            frame.enter();
+            try (java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream()) {
+                javax.imageio.ImageIO.write(image, "png", out);
+                return out.toByteArray();
+            } catch (java.io.IOException e) {
+                throw new IllegalStateException("Failed to encode PNG", e);
+            } finally {
+                frame.exit(RenderStage.ENCODE, "png", (long) image.getWidth() * image.getHeight());
+            }
+        } finally {
+            frame.end();
         }
     }
 
     public BufferedImage renderToImage(ChartModel model, Dimension size, ChartTheme theme, ChartRenderer renderer) {
+        FrameProfiler.Frame frame = frameProfiler.beginFrame();
+        try {
+            return renderImage(model, size, theme, renderer, frame);
+        } finally {
+            frame.end();
+        }
+    }
+
+    private BufferedImage renderImage(ChartModel model, Dimension size, ChartTheme theme, ChartRenderer renderer,
+                                      FrameProfiler.Frame frame) {
         if (model == null || size == null) {
             throw new IllegalArgumentException("model and size are required");
         }
@@ -107,70 +136,129 @@ public final class ServerRenderService {
             session.ensureCanvas(width, height);
             Arrays.fill(session.canvas.pixels(), 0);
 
-            ArberRect bounds = new ArberRect(0, 0, width, height);
-            double viewMinY = Double.NaN;
-            double viewMaxY = Double.NaN;
-            if (model instanceof FinancialChartModel fin) {
-                double[] lows = fin.getLowData();
-                double[] highs = fin.getHighData();
-                int count = Math.min(fin.getPointCount(), Math.min(lows.length, highs.length));
-                double min = Double.POSITIVE_INFINITY;
-                double max = Double.NEGATIVE_INFINITY;
-                for (int i = 0; i < count; i++) {
-                    double low = lows[i];
-                    double high = highs[i];
-                    if (Double.isFinite(low)) {
-                        min = Math.min(min, low);
-                    }
-                    if (Double.isFinite(high)) {
-                        max = Math.max(max, high);
-                    }
-                }
-                if (min != Double.POSITIVE_INFINITY && max != Double.NEGATIVE_INFINITY) {
-                    if (min == max) {
-                        double pad = Math.abs(min) * 0.01 + 1e-6;
-                        min -= pad;
-                        max += pad;
-                    }
-                    viewMinY = min;
-                    viewMaxY = max;
-                }
+            frame.enter();
+            DefaultPlotContext context = createContext(model, width, height, theme);
+            frame.exit(RenderStage.CONTEXT, null, 0L);
+
+            ChartRenderer resolved = renderer != null ? renderer : selectRenderer(model);
+            frame.enter();
+            if (resolved instanceof SpatialChunkRenderer spatialRenderer) {
+                renderSpatial(session, session.canvas, spatialRenderer, model, context);
+            } else {
+                resolved.render(frame.wrap(session.canvas), model, context);
             }
+            frame.exit(RenderStage.DATA_LAYER, frame.isRecording() ? resolved.getClass().getSimpleName() : null,
+                    model.getPointCount());
 
-            DefaultPlotContext context = new DefaultPlotContext(
-                    bounds,
-                    model,
-                    Double.NaN,
-                    Double.NaN,
-                    viewMinY,
-                    viewMaxY,
-                    theme != null ? theme : ChartThemes.getDarkTheme(),
-                    null
-            );
+            frame.enter();
+            BufferedImage image = toImage(session.canvas);
+            frame.exit(RenderStage.ENCODE, "image", (long) width * height);
+            recordSuccess(start, model);
+            return image;
+        } catch (RuntimeException e) {
+            if (metricsEnabled && renderFailure != null) {
+                renderFailure.increment();
+            }
+            throw e;
+        } finally {
+            pool.release(session);
+        }
+    }
+
+    /**
+     * Renders the chart as SVG into a string; see {@link #renderToSvg(ChartModel, Dimension, ChartTheme, ChartRenderer, Writer)}.
+     *
+     * @since 2.1.0
+     */
+    public String renderToSvg(ChartModel model, Dimension size) {
+        StringWriter out = new StringWriter();
+        renderToSvg(model, size, ChartThemes.getDarkTheme(), null, out);
+        return out.toString();
+    }
+
+    /**
+     * Streams the chart as SVG to {@code out} without AWT or an intermediate image: the renderer
+     * draws straight into an {@link SvgCanvas}, whose data layer is one {@code <g id="data">}.
+     * The writer is flushed but not closed.
+     *
+     * @throws UncheckedIOException if writing fails
+     * @since 2.1.0
+     */
+    public void renderToSvg(ChartModel model, Dimension size, ChartTheme theme, ChartRenderer renderer, Writer out) {
+        if (model == null || size == null || out == null) {
+            throw new IllegalArgumentException("model, size and out are required");
+        }
+        FrameProfiler.Frame frame = frameProfiler.beginFrame();
+        long start = metricsEnabled ? System.nanoTime() : 0L;
+        int width = Math.max(1, size.width);
+        int height = Math.max(1, size.height);
+        RenderSession session = pool.acquire();
+        try {
+            frame.enter();
+            DefaultPlotContext context = createContext(model, width, height, theme);
+            frame.exit(RenderStage.CONTEXT, null, 0L);
 
+            SvgCanvas canvas = new SvgCanvas(out, width, height);
             ChartRenderer resolved = renderer != null ? renderer : selectRenderer(model);
+            frame.enter();
+            canvas.beginLayer("data");
             if (resolved instanceof SpatialChunkRenderer spatialRenderer) {
-                renderSpatial(session, spatialRenderer, model, context);
+                renderSpatial(session, canvas, spatialRenderer, model, context);
             } else {
-                resolved.render(session.canvas, model, context);
+                resolved.render(frame.wrap(canvas), model, context);
+            }
+            canvas.endLayer();
+            frame.exit(RenderStage.DATA_LAYER, frame.isRecording() ? resolved.getClass().getSimpleName() : null,
+                    model.getPointCount());
+
+            frame.enter();
+            canvas.finish();
+            frame.exit(RenderStage.ENCODE, "svg", model.getPointCount());
+            recordSuccess(start, model);
+        } catch (RuntimeException e) {
+            if (metricsEnabled && renderFailure != null) {
+                renderFailure.increment();
             }
+            throw e;
+        } finally {
+            pool.release(session);
+            frame.end();
+        }
+    }
 
-            BufferedImage image = toImage(session.canvas);
-            if (metricsEnabled) {
-                long elapsed = System.nanoTime() - start;
-                double millis = elapsed / 1_000_000.0;
-                int points = model.getPointCount();
-                LOGGER.log(System.Logger.Level.DEBUG,
-                        "[Arber] Rendered {0} points in {1,number,0.###}ms",
-                        points, millis);
-                if (renderTimer != null) {
-                    renderTimer.record(elapsed, java.util.concurrent.TimeUnit.NANOSECONDS);
-                }
-                if (renderSuccess != null) {
-                    renderSuccess.increment();
-                }
+    /**
+     * Writes a vector PDF with one page per model to {@code out}. Pages are painted in parallel
+     * on virtual threads into {@link PdfCanvas} content streams and written in order; at most
+     * twice the pool size of rendered pages wait in memory. The stream is flushed but not closed.
+     *
+     * @since 2.1.0
+     */
+    public void renderToPdf(List<? extends ChartModel> models, Dimension size, ChartTheme theme, OutputStream out)
+            throws IOException {
+        if (models == null || size == null || out == null) {
+            throw new IllegalArgumentException("models, size and out are required");
+        }
+        int width = Math.max(1, size.width);
+        int height = Math.max(1, size.height);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            PdfDocumentWriter.writeReport(out, models.size(), width, height,
+                    (canvas, index) -> renderPdfPage(canvas, models.get(index), width, height, theme),
+                    executor, Math.max(2, pool.capacity() * 2));
+        }
+    }
+
+    private void renderPdfPage(PdfCanvas canvas, ChartModel model, int width, int height, ChartTheme theme) {
+        long start = metricsEnabled ? System.nanoTime() : 0L;
+        RenderSession session = pool.acquire();
+        try {
+            DefaultPlotContext context = createContext(model, width, height, theme);
+            ChartRenderer resolved = selectRenderer(model);
+            if (resolved instanceof SpatialChunkRenderer spatialRenderer) {
+                renderSpatial(session, canvas, spatialRenderer, model, context);
+            } else {
+                resolved.render(canvas, model, context);
             }
-            return image;
+            recordSuccess(start, model);
         } catch (RuntimeException e) {
             if (metricsEnabled && renderFailure != null) {
                 renderFailure.increment();
@@ -193,6 +281,87 @@ public final class ServerRenderService {
         return pool.contentionCount();
     }
 
+    /**
+     * Returns the render-time histogram (nanoseconds) of all successful renders while metrics
+     * are enabled. Exporters typically drain it with {@link LatencyHistogram#intervalSnapshot()}.
+     *
+     * @since 2.1.0
+     */
+    public LatencyHistogram getRenderLatency() {
+        return renderLatency;
+    }
+
+    /**
+     * Returns the per-stage profiler shared by all render threads of this service.
+     *
+     * @since 2.1.0
+     */
+    public FrameProfiler getFrameProfiler() {
+        return frameProfiler;
+    }
+
+    private static DefaultPlotContext createContext(ChartModel model, int width, int height, ChartTheme theme) {
+        ArberRect bounds = new ArberRect(0, 0, width, height);
+        double viewMinY = Double.NaN;
+        double viewMaxY = Double.NaN;
+        if (model instanceof FinancialChartModel fin) {
+            double[] lows = fin.getLowData();
+            double[] highs = fin.getHighData();
+            int count = Math.min(fin.getPointCount(), Math.min(lows.length, highs.length));
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                double low = lows[i];
+                double high = highs[i];
+                if (Double.isFinite(low)) {
+                    min = Math.min(min, low);
+                }
+                if (Double.isFinite(high)) {
+                    max = Math.max(max, high);
+                }
+            }
+            if (min != Double.POSITIVE_INFINITY && max != Double.NEGATIVE_INFINITY) {
+                if (min == max) {
+                    double pad = Math.abs(min) * 0.01 + 1e-6;
+                    min -= pad;
+                    max += pad;
+                }
+                viewMinY = min;
+                viewMaxY = max;
+            }
+        }
+
+        return new DefaultPlotContext(
+                bounds,
+                model,
+                Double.NaN,
+                Double.NaN,
+                viewMinY,
+                viewMaxY,
+                theme != null ? theme : ChartThemes.getDarkTheme(),
+                null
+        );
+    }
+
+    private void recordSuccess(long start, ChartModel model) {
+        if (!metricsEnabled) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        double millis = elapsed / 1_000_000.0;
+        renderLatency.record(elapsed);
+        int points = model.getPointCount();
+        LOGGER.log(System.Logger.Level.DEBUG,
+                "[Arber] Rendered {0} points in {1,number,0.###}ms",
+                points, millis);
+        if (renderTimer != null) {
+            renderTimer.record(elapsed, java.util.concurrent.TimeUnit.NANOSECONDS);
+        }
+        if (renderSuccess != null) {
+            renderSuccess.increment();
+        }
+    }
+
     private static ChartRenderer selectRenderer(ChartModel model) {
         if (model instanceof DefaultFinancialChartModel) {
             return new CandlestickRenderer();
@@ -201,6 +370,7 @@ public final class ServerRenderService {
     }
 
     private static void renderSpatial(RenderSession session,
+                                      ArberCanvas canvas,
                                       SpatialChunkRenderer renderer,
                                       ChartModel model,
                                       DefaultPlotContext context) {
@@ -211,7 +381,7 @@ public final class ServerRenderService {
             builder.reset();
         }
 
-        SpatialServerConsumer consumer = new SpatialServerConsumer(session.canvas, builder, session);
+        SpatialServerConsumer consumer = new SpatialServerConsumer(canvas, builder, session);
         renderer.renderSpatial(model, context, consumer);
 
         SpatialPathBatch batch = builder.getBatch();
@@ -231,33 +401,33 @@ public final class ServerRenderService {
 
         for (int i = 0; i < count; i++) {
             if (!batch.isVisible(i)) {
-                outCount = flushSpatial(session.canvas, outX, outY, outCount);
+                outCount = flushSpatial(canvas, outX, outY, outCount);
                 continue;
             }
             if (builder.isMoveTo(i)) {
-                outCount = flushSpatial(session.canvas, outX, outY, outCount);
+                outCount = flushSpatial(canvas, outX, outY, outCount);
             }
             long style = batch.getStyleKey(i);
             if (style != currentStyle) {
-                outCount = flushSpatial(session.canvas, outX, outY, outCount);
-                applySpatialStyle(session.canvas, style);
+                outCount = flushSpatial(canvas, outX, outY, outCount);
+                applySpatialStyle(canvas, style);
                 currentStyle = style;
             }
             outX[outCount] = (float) xs[i];
             outY[outCount] = (float) ys[i];
             outCount++;
         }
-        flushSpatial(session.canvas, outX, outY, outCount);
+        flushSpatial(canvas, outX, outY, outCount);
     }
 
-    private static void applySpatialStyle(ImageBufferCanvas canvas, long styleKey) {
+    private static void applySpatialStyle(ArberCanvas canvas, long styleKey) {
         int argb = SpatialStyleDescriptor.unpackArgb(styleKey);
         float stroke = SpatialStyleDescriptor.unpackStrokeWidth(styleKey);
         canvas.setColor(new ArberColor(argb));
         canvas.setStroke(stroke);
     }
 
-    private static int flushSpatial(ImageBufferCanvas canvas, float[] xs, float[] ys, int count) {
+    private static int flushSpatial(ArberCanvas canvas, float[] xs, float[] ys, int count) {
         if (count > 1) {
             canvas.drawPolyline(xs, ys, count);
         }
@@ -317,11 +487,11 @@ public final class ServerRenderService {
     }
 
     private static final class SpatialServerConsumer implements com.arbergashi.charts.engine.spatial.SpatialChunkConsumer, SpatialFillConsumer {
-        private final ImageBufferCanvas canvas;
+        private final ArberCanvas canvas;
         private final SpatialPathBatchBuilder builder;
         private final RenderSession session;
 
-        private SpatialServerConsumer(ImageBufferCanvas canvas, SpatialPathBatchBuilder builder, RenderSession session) {
+        private SpatialServerConsumer(ArberCanvas canvas, SpatialPathBatchBuilder builder, RenderSession session) {
             this.canvas = canvas;
             this.builder = builder;
             this.session = session;
@@ -360,6 +530,10 @@ public final class ServerRenderService {
             this.queue = new ArrayBlockingQueue<>(size);
         }
 
+        int capacity() {
+            return queue.size() + queue.remainingCapacity();
+        }
+
         RenderSession acquire() {
             RenderSession session = queue.poll();
             if (session == null) {
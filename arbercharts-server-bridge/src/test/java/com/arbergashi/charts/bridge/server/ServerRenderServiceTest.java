@@ -6,7 +6,12 @@ import org.junit.jupiter.api.Test;
 import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ServerRenderServiceTest {
@@ -25,6 +30,38 @@ class ServerRenderServiceTest {
         assertTrue(sum > 0, "rendered image should contain non-zero pixels");
     }
 
+    @Test
+    void rendersSvgWithoutAnImage() {
+        DefaultFinancialChartModel model = generateFinancialCandles(2_000);
+        ServerRenderService service = new ServerRenderService(1);
+
+        String svg = service.renderToSvg(model, new Dimension(800, 600));
+
+        assertTrue(svg.startsWith("<svg "), "document should start with the svg root");
+        assertTrue(svg.contains("<g id=\"data\">"), "data layer should be a group");
+        assertTrue(svg.contains("<path class=\"s"), "candles should be emitted as styled paths");
+        assertTrue(svg.endsWith("</svg>\n"), "document should be complete");
+        assertEquals(0, service.getPoolActive());
+    }
+
+    @Test
+    void rendersPdfReportWithOnePagePerModel() throws Exception {
+        List<DefaultFinancialChartModel> models = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            models.add(generateFinancialCandles(500 + i));
+        }
+        ServerRenderService service = new ServerRenderService(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.renderToPdf(models, new Dimension(600, 400), null, out);
+
+        String pdf = out.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(pdf.startsWith("%PDF-"), "document should start with a PDF header");
+        assertTrue(pdf.contains("/Type /Pages /Count 12"), "one page per model");
+        assertTrue(pdf.endsWith("%%EOF\n"), "document should be complete");
+        assertEquals(0, service.getPoolActive());
+    }
+
     private static DefaultFinancialChartModel generateFinancialCandles(int points) {
         DefaultFinancialChartModel model = new DefaultFinancialChartModel("ServerTest");
         double price = 100.0;
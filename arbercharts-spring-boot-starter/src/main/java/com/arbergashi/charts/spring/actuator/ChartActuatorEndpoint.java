@@ -1,5 +1,6 @@
 package com.arbergashi.charts.spring.actuator;
 
+import com.arbergashi.charts.util.LatencyHistogram;
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
 import org.springframework.boot.actuate.endpoint.annotation.Selector;
@@ -61,14 +62,12 @@ import java.util.Map;
 public class ChartActuatorEndpoint {
 
     /**
-     * v2.0.0: Placeholder values until metrics collector is integrated in v2.0.1.
-     * These fields will be populated by a proper metrics service.
+     * Render timings; percentiles come from the histogram, so concurrent renders may record
+     * without coordination.
      */
-    private long totalRenders = 0;
-    private double avgRenderTimeMs = 0.0;
-    private double p99RenderTimeMs = 0.0;
-    private long currentMemoryBytes = 0;
-    private long peakMemoryBytes = 0;
+    private final LatencyHistogram renderTimes = new LatencyHistogram();
+    private volatile long currentMemoryBytes = 0;
+    private volatile long peakMemoryBytes = 0;
 
     /**
      * Main endpoint - returns comprehensive chart status.
@@ -89,10 +88,11 @@ public class ChartActuatorEndpoint {
         result.put("renderers", renderers);
 
         // Performance metrics
+        LatencyHistogram.Snapshot times = renderTimes.snapshot();
         Map<String, Object> performance = new LinkedHashMap<>();
-        performance.put("avgRenderTime", String.format("%.1fms", avgRenderTimeMs));
-        performance.put("p99RenderTime", String.format("%.1fms", p99RenderTimeMs));
-        performance.put("totalRenders", totalRenders);
+        performance.put("avgRenderTime", String.format("%.1fms", times.getMeanNanos() / 1_000_000.0));
+        performance.put("p99RenderTime", String.format("%.1fms", times.getQuantileMillis(0.99)));
+        performance.put("totalRenders", times.getTotalCount());
         result.put("performance", performance);
 
         // Memory metrics
@@ -130,19 +130,20 @@ public class ChartActuatorEndpoint {
     /**
      * Gets detailed performance metrics.
      *
-     * <p><strong>v2.0.0:</strong> Returns placeholder values.
-     * v2.0.1 will integrate with actual metrics collector.
+     * <p>Times are in milliseconds, read from one histogram snapshot so that all
+     * percentiles describe the same set of renders.
      */
     private Map<String, Object> getPerformanceMetrics() {
         Map<String, Object> metrics = new LinkedHashMap<>();
 
-        // Placeholder values - v2.0.1 will use real metrics
-        metrics.put("avgRenderTime", avgRenderTimeMs);
-        metrics.put("p50RenderTime", 1.5);
-        metrics.put("p95RenderTime", 3.2);
-        metrics.put("p99RenderTime", p99RenderTimeMs);
-        metrics.put("p999RenderTime", 8.7);
-        metrics.put("totalRenders", totalRenders);
+        LatencyHistogram.Snapshot times = renderTimes.snapshot();
+        metrics.put("avgRenderTime", times.getMeanNanos() / 1_000_000.0);
+        metrics.put("p50RenderTime", times.getQuantileMillis(0.50));
+        metrics.put("p95RenderTime", times.getQuantileMillis(0.95));
+        metrics.put("p99RenderTime", times.getQuantileMillis(0.99));
+        metrics.put("p999RenderTime", times.getQuantileMillis(0.999));
+        metrics.put("maxRenderTime", times.getMaxNanos() / 1_000_000.0);
+        metrics.put("totalRenders", times.getTotalCount());
         metrics.put("failedRenders", 0);
         metrics.put("concurrentRenders", 0);
 
@@ -216,10 +217,7 @@ public class ChartActuatorEndpoint {
      * @param memoryBytes memory used in bytes
      */
     public void recordRender(double renderTimeMs, long memoryBytes) {
-        totalRenders++;
-
-        // Update running average
-        avgRenderTimeMs = (avgRenderTimeMs * (totalRenders - 1) + renderTimeMs) / totalRenders;
+        renderTimes.record((long) (renderTimeMs * 1_000_000.0));
 
         // Update peak memory
         if (memoryBytes > peakMemoryBytes) {
@@ -227,9 +225,17 @@ public class ChartActuatorEndpoint {
         }
 
         currentMemoryBytes = memoryBytes;
+    }
 
-        // v2.0.1: Will update p99 using HdrHistogram for accurate percentiles
-        // For now, using simple running average which is acceptable for v2.0.0
-        p99RenderTimeMs = Math.max(p99RenderTimeMs, renderTimeMs);
+    /**
+     * Merges render timings collected elsewhere into this endpoint. Pass an interval snapshot,
+     * e.g. {@code service.getRenderLatency().intervalSnapshot()}, so that every render is counted
+     * once however often this is called.
+     *
+     * @param interval timings recorded since the previous call
+     * @since 2.1.0
+     */
+    public void recordRenders(LatencyHistogram.Snapshot interval) {
+        renderTimes.add(interval);
     }
 }
@@ -5,10 +5,28 @@ import com.arbergashi.charts.core.geometry.ArberRect;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
 import com.arbergashi.charts.core.rendering.ArberMatrix;
 import com.arbergashi.charts.core.rendering.ArberMatrices;
+import com.arbergashi.charts.core.rendering.IntRasterizer;
+import com.arbergashi.charts.core.rendering.MarkerShape;
+import com.arbergashi.charts.core.rendering.RasterBuffer;
 import com.arbergashi.charts.core.rendering.VoxelBuffer;
 import com.arbergashi.charts.engine.allocation.ZeroAllocPool;
 
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
 import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.Path2D;
 
@@ -18,20 +36,37 @@ import java.awt.geom.Path2D;
  * <p><strong>ZERO-GC Implementation:</strong> This adapter uses thread-local
  * caches and ZeroAllocPool to eliminate all allocations in the hot path.
  *
+ * <p><strong>Direct raster path:</strong> When created with the {@link BufferedImage} the graphics
+ * draws into ({@code TYPE_INT_ARGB} or {@code TYPE_INT_RGB}), voxel fields, batched rectangles and
+ * batched axis-aligned hairlines are written straight into the image's {@link DataBufferInt}.
+ * The graphics state is checked on every such call, since callers may change clip or composite
+ * between calls; the direct path is only taken where it produces the same pixels as Java2D
+ * (integer scale and translation, SrcOver, rectangular clip, hairlines only without
+ * antialiasing) and everything else is drawn through Java2D.</p>
+ *
  * @since 2.0.0
  */
 public final class AwtCanvasAdapter implements ArberCanvas {
 
-    /** Maximum polyline/polygon size for pre-allocated buffers. */
-    private static final int MAX_POLY_POINTS = 65536;
+    /**
+     * Vertices per Java2D call when streaming polylines. Longer polylines are drawn in chunks that
+     * share their joint vertex, so per-thread buffers stay small and nothing is truncated.
+     */
+    private static final int POLY_CHUNK = 4096;
+
+    /** Antialiased polyline vertices closer than this to the previous one (in both axes) are dropped. */
+    private static final float SAME_PIXEL = 0.5f;
+
+    /** Maximum distance of a dropped vertex from the line through its neighbours. */
+    private static final float COLLINEAR_EPSILON = 1.0e-3f;
 
     /** Thread-local int buffer for polyline X coordinates. */
     private static final ThreadLocal<int[]> INT_BUF_X =
-            ThreadLocal.withInitial(() -> new int[MAX_POLY_POINTS]);
+            ThreadLocal.withInitial(() -> new int[POLY_CHUNK]);
 
     /** Thread-local int buffer for polyline Y coordinates. */
     private static final ThreadLocal<int[]> INT_BUF_Y =
-            ThreadLocal.withInitial(() -> new int[MAX_POLY_POINTS]);
+            ThreadLocal.withInitial(() -> new int[POLY_CHUNK]);
 
     /** Thread-local reusable Path2D for polygon fills. */
     private static final ThreadLocal<Path2D.Float> PATH_CACHE =
@@ -41,7 +76,31 @@ public final class AwtCanvasAdapter implements ArberCanvas {
     private static final ThreadLocal<Rectangle2D.Float> CLIP_RECT_CACHE =
             ThreadLocal.withInitial(Rectangle2D.Float::new);
 
+    /** Thread-local segment coordinates for inspecting non-rectangle clips. */
+    private static final ThreadLocal<double[]> SEGMENT_CACHE =
+            ThreadLocal.withInitial(() -> new double[6]);
+
+    /** Thread-local reusable Ellipse2D for circle markers. */
+    private static final ThreadLocal<Ellipse2D.Float> ELLIPSE_CACHE =
+            ThreadLocal.withInitial(Ellipse2D.Float::new);
+
+    /** Thread-local scratch for marker outlines. */
+    private static final ThreadLocal<float[][]> OUTLINE_CACHE =
+            ThreadLocal.withInitial(() -> new float[2][MarkerShape.MAX_OUTLINE_VERTICES]);
+
+    /** Thread-local image wrapping the most recently drawn {@link RasterBuffer} array. */
+    private static final ThreadLocal<RasterImage> RASTER_IMAGE_CACHE =
+            ThreadLocal.withInitial(RasterImage::new);
+
     private final Graphics2D g2;
+    private final BufferedImage target;
+    private IntRasterizer direct;
+    private boolean directUnsupported;
+    private int directScaleX;
+    private int directScaleY;
+    private int directTransX;
+    private int directTransY;
+    private int directAlpha;
     private float strokeWidth = 1f;
     private ArberRect clip;
     private float lastX;
@@ -53,17 +112,24 @@ public final class AwtCanvasAdapter implements ArberCanvas {
      * @param g2 the AWT graphics context (non-null)
      */
     public AwtCanvasAdapter(Graphics2D g2) {
+        this(g2, null);
+    }
+
+    /**
+     * Creates an adapter that may write bulk primitives directly into {@code target}.
+     *
+     * @param g2     the AWT graphics context drawing into {@code target} (non-null)
+     * @param target the image behind {@code g2}, or {@code null} to always use Java2D
+     * @since 2.1.0
+     */
+    public AwtCanvasAdapter(Graphics2D g2, BufferedImage target) {
         this.g2 = g2;
+        this.target = target;
     }
 
     @Override
     public void setColor(ArberColor color) {
-        int argb = color.argb();
-        int a = (argb >> 24) & 0xFF;
-        int r = (argb >> 16) & 0xFF;
-        int g = (argb >> 8) & 0xFF;
-        int b = argb & 0xFF;
-        g2.setColor(ZeroAllocPool.getColor(r, g, b, a));
+        g2.setColor(ZeroAllocPool.getColor(color.argb()));
     }
 
     @Override
@@ -85,21 +151,123 @@ public final class AwtCanvasAdapter implements ArberCanvas {
         lastY = y;
     }
 
+    /**
+     * Streams the polyline to Java2D in chunks of {@value #POLY_CHUNK} vertices. Repeated and
+     * collinear vertices are collapsed first. With antialiasing on, vertices keep sub-pixel
+     * precision through a reusable {@link Path2D.Float}; otherwise they are rounded and drawn with
+     * the integer polyline call.
+     */
     @Override
     public void drawPolyline(float[] xs, float[] ys, int count) {
         if (xs == null || ys == null || count <= 1) return;
         int n = Math.min(count, Math.min(xs.length, ys.length));
-        n = Math.min(n, MAX_POLY_POINTS);
+        if (n <= 1) return;
+        if (g2.getRenderingHint(RenderingHints.KEY_ANTIALIASING) == RenderingHints.VALUE_ANTIALIAS_ON) {
+            drawPolylinePath(xs, ys, n);
+        } else {
+            drawPolylineInts(xs, ys, n);
+        }
+    }
 
+    private void drawPolylineInts(float[] xs, float[] ys, int n) {
         // Use thread-local pre-allocated buffers - ZERO ALLOCATION
         int[] xi = INT_BUF_X.get();
         int[] yi = INT_BUF_Y.get();
-
+        int m = 0;
         for (int i = 0; i < n; i++) {
-            xi[i] = Math.round(xs[i]);
-            yi[i] = Math.round(ys[i]);
+            int x = Math.round(xs[i]);
+            int y = Math.round(ys[i]);
+            if (m > 0) {
+                int bx = xi[m - 1];
+                int by = yi[m - 1];
+                if (x == bx && y == by) continue;
+                if (m > 1) {
+                    long abx = bx - xi[m - 2];
+                    long aby = by - yi[m - 2];
+                    long bcx = x - bx;
+                    long bcy = y - by;
+                    if (abx * bcy == aby * bcx && abx * bcx + aby * bcy > 0) {
+                        xi[m - 1] = x;
+                        yi[m - 1] = y;
+                        continue;
+                    }
+                }
+                if (m == POLY_CHUNK) {
+                    g2.drawPolyline(xi, yi, m);
+                    xi[0] = bx;
+                    yi[0] = by;
+                    m = 1;
+                }
+            }
+            xi[m] = x;
+            yi[m] = y;
+            m++;
         }
-        g2.drawPolyline(xi, yi, n);
+        if (m == 1) {
+            g2.drawLine(xi[0], yi[0], xi[0], yi[0]);
+        } else {
+            g2.drawPolyline(xi, yi, m);
+        }
+    }
+
+    private void drawPolylinePath(float[] xs, float[] ys, int n) {
+        // Use thread-local reusable Path2D - ZERO ALLOCATION
+        Path2D.Float path = PATH_CACHE.get();
+        path.reset();
+        // a = last emitted vertex, b = pending vertex that may still be replaced by a collinear successor
+        float ax = xs[0];
+        float ay = ys[0];
+        float bx = ax;
+        float by = ay;
+        boolean pending = false;
+        int emitted = 1;
+        path.moveTo(ax, ay);
+        for (int i = 1; i < n; i++) {
+            float cx = xs[i];
+            float cy = ys[i];
+            float px = pending ? bx : ax;
+            float py = pending ? by : ay;
+            if (Math.abs(cx - px) < SAME_PIXEL && Math.abs(cy - py) < SAME_PIXEL) continue;
+            if (pending) {
+                if (collinear(ax, ay, bx, by, cx, cy)) {
+                    bx = cx;
+                    by = cy;
+                    continue;
+                }
+                path.lineTo(bx, by);
+                ax = bx;
+                ay = by;
+                if (++emitted == POLY_CHUNK) {
+                    g2.draw(path);
+                    path.reset();
+                    path.moveTo(ax, ay);
+                    emitted = 1;
+                }
+            }
+            bx = cx;
+            by = cy;
+            pending = true;
+        }
+        if (pending) {
+            path.lineTo(bx, by);
+        } else {
+            path.lineTo(ax, ay);
+        }
+        g2.draw(path);
+        path.reset();
+    }
+
+    /**
+     * Returns whether {@code b} lies on the line from {@code a} to {@code c}, between them.
+     */
+    private static boolean collinear(float ax, float ay, float bx, float by, float cx, float cy) {
+        float acx = cx - ax;
+        float acy = cy - ay;
+        float abx = bx - ax;
+        float aby = by - ay;
+        float cross = abx * acy - aby * acx;
+        float dot = abx * (cx - bx) + aby * (cy - by);
+        return dot > 0f && cross * cross <= COLLINEAR_EPSILON * COLLINEAR_EPSILON * (acx * acx + acy * acy);
     }
 
     @Override
@@ -137,19 +305,168 @@ public final class AwtCanvasAdapter implements ArberCanvas {
         int n = buffer.count();
         int size = Math.max(1, Math.round(strokeWidth));
 
+        IntRasterizer raster = directRaster();
+        if (raster != null) {
+            int current = g2.getColor().getRGB();
+            for (int i = 0; i < n; i++) {
+                int x = Math.round(xs[i]);
+                int y = Math.round(ys[i]);
+                directFill(raster, x, y, x + size, y + size, colors != null && i < colors.length ? colors[i] : current);
+            }
+            return;
+        }
+
+        int last = 0;
         for (int i = 0; i < n; i++) {
-            if (colors != null && i < colors.length) {
-                int argb = colors[i];
-                int a = (argb >> 24) & 0xFF;
-                int r = (argb >> 16) & 0xFF;
-                int gb = (argb >> 8) & 0xFF;
-                int b = argb & 0xFF;
-                g2.setColor(ZeroAllocPool.getColor(r, gb, b, a));
+            if (colors != null && i < colors.length && (i == 0 || colors[i] != last)) {
+                last = colors[i];
+                g2.setColor(ZeroAllocPool.getColor(last));
             }
             g2.fillRect(Math.round(xs[i]), Math.round(ys[i]), size, size);
         }
     }
 
+    @Override
+    public void drawRaster(RasterBuffer raster, float x, float y) {
+        if (raster == null || raster.getWidth() == 0 || raster.getHeight() == 0) return;
+        BufferedImage image = RASTER_IMAGE_CACHE.get().wrap(raster);
+        g2.drawImage(image, Math.round(x), Math.round(y), null);
+    }
+
+    /**
+     * Issues plain {@code fillRect} calls, touching the graphics color only when it changes.
+     */
+    @Override
+    public void fillRects(float[] x, float[] y, float[] w, float[] h, int[] argb, int count) {
+        if (x == null || y == null || w == null || h == null || count <= 0) return;
+        int n = Math.min(Math.min(count, x.length), Math.min(y.length, Math.min(w.length, h.length)));
+        if (argb != null) n = Math.min(n, argb.length);
+        IntRasterizer raster = directRaster();
+        if (raster != null) {
+            int current = g2.getColor().getRGB();
+            for (int i = 0; i < n; i++) {
+                int rx = Math.round(x[i]);
+                int ry = Math.round(y[i]);
+                int rw = Math.round(w[i]);
+                int rh = Math.round(h[i]);
+                if (rw > 0 && rh > 0) directFill(raster, rx, ry, rx + rw, ry + rh, argb != null ? argb[i] : current);
+            }
+            return;
+        }
+        int last = 0;
+        for (int i = 0; i < n; i++) {
+            if (argb != null && (i == 0 || argb[i] != last)) {
+                last = argb[i];
+                g2.setColor(awtColor(last));
+            }
+            g2.fillRect(Math.round(x[i]), Math.round(y[i]), Math.round(w[i]), Math.round(h[i]));
+        }
+    }
+
+    /**
+     * Collects each run of equally colored segments into one path and strokes it once.
+     */
+    @Override
+    public void drawSegments(float[] x0, float[] y0, float[] x1, float[] y1, int[] argb, int count) {
+        if (x0 == null || y0 == null || x1 == null || y1 == null || count <= 0) return;
+        int n = Math.min(Math.min(count, x0.length), Math.min(y0.length, Math.min(x1.length, y1.length)));
+        if (argb != null) n = Math.min(n, argb.length);
+        if (directSegments(x0, y0, x1, y1, argb, n)) return;
+        Path2D.Float path = PATH_CACHE.get();
+        path.reset();
+        int last = 0;
+        for (int i = 0; i < n; i++) {
+            if (argb != null && (i == 0 || argb[i] != last)) {
+                flush(path, false);
+                last = argb[i];
+                g2.setColor(awtColor(last));
+            }
+            path.moveTo(Math.round(x0[i]), Math.round(y0[i]));
+            path.lineTo(Math.round(x1[i]), Math.round(y1[i]));
+        }
+        flush(path, false);
+    }
+
+    /**
+     * Collects each run of equally colored markers into one path and fills (or strokes) it once.
+     */
+    @Override
+    public void drawMarkers(MarkerShape shape, float[] xs, float[] ys, float size, int[] argb, int count) {
+        if (shape == null || xs == null || ys == null || count <= 0 || !(size > 0f)) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length));
+        if (argb != null) n = Math.min(n, argb.length);
+        boolean fill = !shape.isStroked();
+        float r = size * 0.5f;
+        Path2D.Float path = PATH_CACHE.get();
+        path.reset();
+        Ellipse2D.Float ellipse = ELLIPSE_CACHE.get();
+        float[][] outline = OUTLINE_CACHE.get();
+        int last = 0;
+        for (int i = 0; i < n; i++) {
+            if (argb != null && (i == 0 || argb[i] != last)) {
+                flush(path, fill);
+                last = argb[i];
+                g2.setColor(awtColor(last));
+            }
+            float cx = xs[i];
+            float cy = ys[i];
+            switch (shape) {
+                case CIRCLE -> {
+                    ellipse.setFrame(cx - r, cy - r, size, size);
+                    path.append(ellipse, false);
+                }
+                case CROSS -> {
+                    path.moveTo(cx - r, cy - r);
+                    path.lineTo(cx + r, cy + r);
+                    path.moveTo(cx - r, cy + r);
+                    path.lineTo(cx + r, cy - r);
+                }
+                case PLUS -> {
+                    path.moveTo(cx - r, cy);
+                    path.lineTo(cx + r, cy);
+                    path.moveTo(cx, cy - r);
+                    path.lineTo(cx, cy + r);
+                }
+                default -> {
+                    float[] px = outline[0];
+                    float[] py = outline[1];
+                    int v = shape.outline(cx, cy, r, px, py);
+                    path.moveTo(px[0], py[0]);
+                    for (int k = 1; k < v; k++) path.lineTo(px[k], py[k]);
+                    path.closePath();
+                }
+            }
+        }
+        flush(path, fill);
+    }
+
+    /**
+     * Collects each run of equally colored quads into one path and fills it once.
+     */
+    @Override
+    public void fillQuads(float[] xs, float[] ys, int[] argb, int count) {
+        if (xs == null || ys == null || count <= 0) return;
+        int n = Math.min(count, Math.min(xs.length, ys.length) / 4);
+        if (argb != null) n = Math.min(n, argb.length);
+        Path2D.Float path = PATH_CACHE.get();
+        path.reset();
+        int last = 0;
+        for (int i = 0; i < n; i++) {
+            if (argb != null && (i == 0 || argb[i] != last)) {
+                flush(path, true);
+                last = argb[i];
+                g2.setColor(awtColor(last));
+            }
+            int k = i * 4;
+            path.moveTo(xs[k], ys[k]);
+            path.lineTo(xs[k + 1], ys[k + 1]);
+            path.lineTo(xs[k + 2], ys[k + 2]);
+            path.lineTo(xs[k + 3], ys[k + 3]);
+            path.closePath();
+        }
+        flush(path, true);
+    }
+
     @Override
     public ArberMatrix getTransform() {
         return ArberMatrices.identity();
@@ -173,4 +490,172 @@ public final class AwtCanvasAdapter implements ArberCanvas {
     public ArberRect getClip() {
         return clip;
     }
+
+    private void flush(Path2D.Float path, boolean fill) {
+        if (path.getCurrentPoint() == null) return;
+        if (fill) {
+            g2.fill(path);
+        } else {
+            g2.draw(path);
+        }
+        path.reset();
+    }
+
+    private static Color awtColor(int argb) {
+        return ZeroAllocPool.getColor(argb);
+    }
+
+    /**
+     * Draws the batch as aliased hairlines if every segment is axis-aligned and Java2D would draw
+     * them aliased and one pixel wide.
+     */
+    private boolean directSegments(float[] x0, float[] y0, float[] x1, float[] y1, int[] argb, int n) {
+        if (target == null || directUnsupported) return false;
+        if (!(g2.getStroke() instanceof BasicStroke bs) || bs.getLineWidth() > 1f || bs.getDashArray() != null) {
+            return false;
+        }
+        if (g2.getRenderingHint(RenderingHints.KEY_ANTIALIASING) == RenderingHints.VALUE_ANTIALIAS_ON
+                || g2.getRenderingHint(RenderingHints.KEY_STROKE_CONTROL) == RenderingHints.VALUE_STROKE_PURE) {
+            return false;
+        }
+        for (int i = 0; i < n; i++) {
+            if (Math.round(x0[i]) != Math.round(x1[i]) && Math.round(y0[i]) != Math.round(y1[i])) return false;
+        }
+        IntRasterizer raster = directRaster();
+        if (raster == null || directScaleX != 1 || directScaleY != 1) return false;
+        int current = g2.getColor().getRGB();
+        for (int i = 0; i < n; i++) {
+            int ax = Math.round(x0[i]) + directTransX;
+            int ay = Math.round(y0[i]) + directTransY;
+            int bx = Math.round(x1[i]) + directTransX;
+            int by = Math.round(y1[i]) + directTransY;
+            raster.line(ax, ay, bx, by, withAlpha(argb != null ? argb[i] : current));
+        }
+        return true;
+    }
+
+    /** Fills the user-space integer rectangle {@code [x0, x1) x [y0, y1)}. */
+    private void directFill(IntRasterizer raster, int x0, int y0, int x1, int y1, int argb) {
+        raster.fillRect(x0 * directScaleX + directTransX, y0 * directScaleY + directTransY,
+                x1 * directScaleX + directTransX, y1 * directScaleY + directTransY, withAlpha(argb));
+    }
+
+    private int withAlpha(int argb) {
+        if (directAlpha == 0xFF) return argb;
+        return (IntRasterizer.mul8(argb >>> 24, directAlpha) << 24) | (argb & 0x00FFFFFF);
+    }
+
+    /**
+     * Returns the rasterizer bound to the target image, with the clip and transform of the current
+     * graphics state, or {@code null} if Java2D must draw.
+     */
+    private IntRasterizer directRaster() {
+        if (target == null || directUnsupported) return null;
+        if (direct == null && !bindTarget()) return null;
+
+        AffineTransform at = g2.getTransform();
+        if (at.getShearX() != 0.0 || at.getShearY() != 0.0) return null;
+        int sx = (int) at.getScaleX();
+        int sy = (int) at.getScaleY();
+        int tx = (int) at.getTranslateX();
+        int ty = (int) at.getTranslateY();
+        if (sx < 1 || sy < 1 || sx != at.getScaleX() || sy != at.getScaleY()
+                || tx != at.getTranslateX() || ty != at.getTranslateY()) {
+            return null;
+        }
+        Composite composite = g2.getComposite();
+        if (!(composite instanceof AlphaComposite ac) || ac.getRule() != AlphaComposite.SRC_OVER) return null;
+        if (!(g2.getPaint() instanceof Color)) return null;
+
+        Shape clip = g2.getClip();
+        if (clip == null) {
+            direct.resetClip();
+        } else {
+            Rectangle2D.Float bounds = CLIP_RECT_CACHE.get();
+            if (!rectangularBounds(clip, bounds)) return null;
+            // Java2D rounds rectangular clips to pixel centers.
+            direct.setClip(clipRound(bounds.x * sx + tx), clipRound(bounds.y * sy + ty),
+                    clipRound((bounds.x + bounds.width) * sx + tx), clipRound((bounds.y + bounds.height) * sy + ty));
+        }
+        directScaleX = sx;
+        directScaleY = sy;
+        directTransX = tx;
+        directTransY = ty;
+        directAlpha = (int) (ac.getAlpha() * 255f + 0.5f);
+        return direct;
+    }
+
+    private boolean bindTarget() {
+        int type = target.getType();
+        WritableRaster raster = target.getRaster();
+        if ((type != BufferedImage.TYPE_INT_ARGB && type != BufferedImage.TYPE_INT_RGB)
+                || raster.getParent() != null
+                || !(raster.getDataBuffer() instanceof DataBufferInt data)
+                || !(raster.getSampleModel() instanceof SinglePixelPackedSampleModel sm)) {
+            directUnsupported = true;
+            return false;
+        }
+        direct = new IntRasterizer(true).bind(data.getData(), data.getOffset(), sm.getScanlineStride(),
+                target.getWidth(), target.getHeight(), type == BufferedImage.TYPE_INT_ARGB);
+        return true;
+    }
+
+    private static int clipRound(double v) {
+        return (int) Math.ceil(v - 0.5);
+    }
+
+    /**
+     * Stores the bounds of {@code shape} if it is an axis-aligned rectangle. Clips come back from
+     * {@link Graphics2D#getClip()} as rectangles, or as four-corner paths under a scale.
+     */
+    private static boolean rectangularBounds(Shape shape, Rectangle2D.Float out) {
+        if (shape instanceof Rectangle2D r) {
+            out.setRect(r);
+            return true;
+        }
+        Rectangle2D b = shape.getBounds2D();
+        double[] c = SEGMENT_CACHE.get();
+        double px = Double.NaN;
+        double py = Double.NaN;
+        int vertices = 0;
+        for (PathIterator it = shape.getPathIterator(null); !it.isDone(); it.next()) {
+            int seg = it.currentSegment(c);
+            if (seg == PathIterator.SEG_CLOSE) continue;
+            if (seg != (vertices == 0 ? PathIterator.SEG_MOVETO : PathIterator.SEG_LINETO)) return false;
+            if ((c[0] != b.getMinX() && c[0] != b.getMaxX()) || (c[1] != b.getMinY() && c[1] != b.getMaxY())) return false;
+            if (vertices > 0 && c[0] != px && c[1] != py) return false;
+            px = c[0];
+            py = c[1];
+            if (++vertices > 5) return false;
+        }
+        out.setRect(b);
+        return vertices >= 4;
+    }
+
+    /**
+     * Shares the raster's pixel array with a {@link BufferedImage}, so blitting copies nothing on
+     * the Java side. Rebuilt only when the raster reallocates or resizes.
+     */
+    private static final class RasterImage {
+        private int[] pixels;
+        private int width;
+        private int height;
+        private BufferedImage image;
+
+        BufferedImage wrap(RasterBuffer raster) {
+            int[] px = raster.getPixels();
+            int w = raster.getWidth();
+            int h = raster.getHeight();
+            if (image == null || px != pixels || w != width || h != height) {
+                DataBufferInt data = new DataBufferInt(px, w * h);
+                WritableRaster wr = Raster.createPackedRaster(data, w, h, w,
+                        new int[]{0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000}, null);
+                image = new BufferedImage(ColorModel.getRGBdefault(), wr, false, null);
+                pixels = px;
+                width = w;
+                height = h;
+            }
+            return image;
+        }
+    }
 }
@@ -64,7 +64,7 @@ public final class ChartExportService {
             g2.scale(geo.getScale(), geo.getScale());
 
             // printAll() includes children (tooltip/crosshair). This is desirable for exports.
-            panel.printAll(g2);
+            panel.printToImage(g2, img);
 
             writePng(img, geo.getOutputFile());
         } catch (Exception e) {
@@ -163,7 +163,7 @@ public final class ChartExportService {
             try {
                 ChartEngine.prepareGraphics(g2, false);
                 g2.scale(geo.scale, geo.scale);
-                panel.printAll(g2);
+                panel.printToImage(g2, img);
             } finally {
                 g2.dispose();
             }
@@ -15,6 +15,8 @@ import com.arbergashi.charts.core.geometry.TextAnchor;
 import com.arbergashi.charts.api.PlotContext;
 import com.arbergashi.charts.api.ChartRenderHints;
 import com.arbergashi.charts.core.rendering.ArberCanvas;
+import com.arbergashi.charts.engine.telemetry.FrameProfiler;
+import com.arbergashi.charts.engine.telemetry.RenderStage;
 import com.arbergashi.charts.model.ChartModel;
 import com.arbergashi.charts.model.ChartModel.ChartModelListener;
 import com.arbergashi.charts.render.AbstractSpatialLayer;
@@ -60,6 +62,7 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseWheelEvent;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.List;
 import java.util.Locale;
@@ -101,11 +104,13 @@ public class ArberChartPanel extends JPanel {
         final ChartModel model;
         final ChartRenderer renderer;
         final ChartModelListener listener;
+        final String label;
 
         RenderLayer(ChartModel model, ChartRenderer renderer, ChartModelListener listener) {
             this.model = model;
             this.renderer = renderer;
             this.listener = listener;
+            this.label = renderer != null ? renderer.getClass().getSimpleName() : null;
         }
     }
 
@@ -157,6 +162,7 @@ public class ArberChartPanel extends JPanel {
     private int lastSnapIndex = -1;
     private Point lastSnapPoint;
     private boolean externalRenderSurface = false;
+    private transient BufferedImage rasterTarget;
     private boolean crosshairEnabled = true;
     private boolean legendVisible = true;
     private boolean animationsEnabled = true;
@@ -171,6 +177,7 @@ public class ArberChartPanel extends JPanel {
     private transient Composite soloComposite;
     private transient float soloCompositeAlpha = Float.NaN;
     private final LatencyTracker latencyTracker = new LatencyTracker(600);
+    private transient FrameProfiler frameProfiler;
     private final Map<Class<?>, Boolean> canvasSupportCache = new ConcurrentHashMap<>();
     private volatile double physicalPixelsPerMm = Double.NaN;
     private boolean frozen;
@@ -321,6 +328,21 @@ public class ArberChartPanel extends JPanel {
         return latencyTracker;
     }
 
+    /**
+     * Returns the per-stage frame profiler of this panel. Enable it to retain recent frame
+     * breakdowns; Flight Recorder events are emitted whenever a recording runs.
+     *
+     * @since 2.1.0
+     */
+    public FrameProfiler getFrameProfiler() {
+        FrameProfiler profiler = frameProfiler;
+        if (profiler == null) {
+            profiler = new FrameProfiler("ArberChartPanel");
+            frameProfiler = profiler;
+        }
+        return profiler;
+    }
+
     /**
      * Overrides the secondary Y-axis configuration.
      */
@@ -855,8 +877,27 @@ public class ArberChartPanel extends JPanel {
         renderChart((Graphics2D) g2.create());
     }
 
+    /**
+     * Prints the panel, including child overlays, through {@code g2} into {@code image}. Bulk
+     * primitives (voxels, batched rectangles) are written straight into the image's pixel buffer
+     * where its type and the graphics state allow.
+     *
+     * @param g2    graphics created from {@code image}; may be scaled
+     * @param image the image behind {@code g2}
+     * @since 2.1.0
+     */
+    public void printToImage(Graphics2D g2, BufferedImage image) {
+        rasterTarget = image;
+        try {
+            printAll(g2);
+        } finally {
+            rasterTarget = null;
+        }
+    }
+
     private void renderChart(Graphics2D g2) {
         long frameStart = System.nanoTime();
+        FrameProfiler.Frame frame = getFrameProfiler().beginFrame();
         try {
             if (layers.isEmpty()) {
                 drawEmptyState(g2);
@@ -878,8 +919,10 @@ public class ArberChartPanel extends JPanel {
             }
             
             // 2. Build Context (View Matrix)
+            frame.enter();
             PlotContext ctx = getOrBuildContext();
-            ArberCanvas canvas = tryCreateCanvasAdapter(g2);
+            frame.exit(RenderStage.CONTEXT, null, 0L);
+            ArberCanvas canvas = frame.wrap(tryCreateCanvasAdapter(g2));
 
             // 2.5 Fill panel background from theme (ensures consistent theming for transparent renderers)
             ChartTheme bgTheme = ctx.getTheme() != null ? ctx.getTheme() : theme;
@@ -895,7 +938,9 @@ public class ArberChartPanel extends JPanel {
             boolean showGrid = (xAxisConfig == null || xAxisConfig.isShowGrid())
                     || (yAxisConfig == null || yAxisConfig.isShowGrid());
             if (gridLayer != null && showGrid && canvas != null) {
+                frame.enter();
                 gridLayer.renderGrid(canvas, ctx);
+                frame.exit(RenderStage.GRID, null, 0L);
             }
 
             // 3.5 Render Pre-Data Layers (predictive/analysis overlays below data)
@@ -922,6 +967,7 @@ public class ArberChartPanel extends JPanel {
                 if (layer.renderer instanceof BaseRenderer br && layerVisibility.isDimmed(br.getId())) {
                     g2.setComposite(getSoloComposite());
                 }
+                frame.enter();
                 if (layer.renderer instanceof SpatialChunkRenderer spatialRenderer) {
                     renderSpatialLayer(spatialRenderer, layer.model, ctx, g2, 0);
                 } else {
@@ -929,12 +975,14 @@ public class ArberChartPanel extends JPanel {
                         layer.renderer.render(canvas, layer.model, ctx);
                     }
                 }
+                frame.exit(RenderStage.PRE_DATA_LAYER, layer.label, layer.model.getPointCount());
                 g2.setComposite(oldComposite);
                 g2.setClip(oldClip);
             }
 
             // 4. Render Layers (Z-Order: First added is bottom)
             // We iterate normally so first layer is drawn first, others on top.
+            RenderLayer primary = layers.getFirst();
             for (RenderLayer layer : layers) {
                 if (layer.renderer instanceof BaseRenderer br) {
                     if (!layerVisibility.isVisible(br.getId())) {
@@ -959,6 +1007,7 @@ public class ArberChartPanel extends JPanel {
                 if (layer.renderer instanceof BaseRenderer br && layerVisibility.isDimmed(br.getId())) {
                     g2.setComposite(getSoloComposite());
                 }
+                frame.enter();
                 if (layer.renderer instanceof SpatialChunkRenderer spatialRenderer) {
                     renderSpatialLayer(spatialRenderer, layer.model, ctx, g2, 0);
                 } else {
@@ -966,18 +1015,23 @@ public class ArberChartPanel extends JPanel {
                         layer.renderer.render(canvas, layer.model, ctx);
                     }
                 }
+                frame.exit(layer != primary && layer.model == primary.model
+                        ? RenderStage.OVERLAY_LAYER : RenderStage.DATA_LAYER, layer.label, layer.model.getPointCount());
                 g2.setComposite(oldComposite);
                 g2.setClip(oldClip);
             }
 
             // 5. Render Axes (Foreground)
+            frame.enter();
             drawAxisLabels(g2, ctx);
+            frame.exit(RenderStage.AXES, null, 0L);
 
             // 6. Render Legend (Overlay)
             // Legend is rendered by InteractiveLegendOverlay (single source of truth).
 
         } finally {
             latencyTracker.record(System.nanoTime() - frameStart);
+            frame.end();
             long frameMicros = (System.nanoTime() - frameStart) / 1_000L;
             if (frameMicros > Integer.MAX_VALUE) frameMicros = Integer.MAX_VALUE;
             com.arbergashi.charts.util.ChartAssets.setProperty("Chart.render.lastFrameMicros",
@@ -1290,6 +1344,8 @@ public class ArberChartPanel extends JPanel {
         double bestDataY = Double.NaN;
         RenderLayer bestLayer = null;
         int bestIndex = -1;
+        long hitTestStart = getFrameProfiler().isActive() ? System.nanoTime() : 0L;
+        long hitTestPoints = 0L;
 
         if (snapEnabled) {
             for (RenderLayer layer : layers) {
@@ -1298,6 +1354,7 @@ public class ArberChartPanel extends JPanel {
                         continue;
                     }
                 }
+                hitTestPoints += layer.model.getPointCount();
 
                 Optional<Integer> idxOpt = layer.renderer.getPointAt(new ArberPoint(position.x, position.y), layer.model, context);
                 if (idxOpt.isEmpty() && layer.model.getPointCount() > 0) {
@@ -1329,6 +1386,9 @@ public class ArberChartPanel extends JPanel {
                 }
             }
         }
+        if (hitTestStart != 0L) {
+            getFrameProfiler().recordStage(RenderStage.HIT_TEST, null, System.nanoTime() - hitTestStart, hitTestPoints, 0L);
+        }
 
         if (snapped) {
             String labelX = formatAxisValueX(bestDataX);
@@ -1362,6 +1422,10 @@ public class ArberChartPanel extends JPanel {
     private ArberCanvas tryCreateCanvasAdapter(Graphics2D g2) {
         try {
             Class<?> cls = Class.forName("com.arbergashi.charts.bridge.swing.AwtCanvasAdapter");
+            if (rasterTarget != null) {
+                Constructor<?> ctor = cls.getConstructor(Graphics2D.class, BufferedImage.class);
+                return (ArberCanvas) ctor.newInstance(g2, rasterTarget);
+            }
             Constructor<?> ctor = cls.getConstructor(Graphics2D.class);
             return (ArberCanvas) ctor.newInstance(g2);
         } catch (Throwable ignored) {
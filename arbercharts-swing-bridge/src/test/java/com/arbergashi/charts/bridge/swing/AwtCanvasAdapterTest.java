@@ -1,11 +1,15 @@
 package com.arbergashi.charts.bridge.swing;
 
 import com.arbergashi.charts.api.types.ArberColor;
+import com.arbergashi.charts.core.geometry.ArberRect;
+import com.arbergashi.charts.core.rendering.VoxelBuffer;
 import org.junit.jupiter.api.Test;
 
+import java.awt.AlphaComposite;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -40,4 +44,152 @@ class AwtCanvasAdapterTest {
         assertEquals(red, image.getRGB(1, 1));
         assertEquals(red, image.getRGB(8, 1));
     }
+
+    @Test
+    void directPathWritesIntoTargetImage() {
+        BufferedImage target = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage other = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = other.createGraphics();
+        AwtCanvasAdapter canvas = new AwtCanvasAdapter(g2, target);
+        canvas.fillRects(new float[]{2f}, new float[]{3f}, new float[]{4f}, new float[]{2f}, new int[]{0xFF00FF00}, 1);
+        g2.dispose();
+
+        assertEquals(0xFF00FF00, target.getRGB(2, 3));
+        assertEquals(0xFF00FF00, target.getRGB(5, 4));
+        assertEquals(0, target.getRGB(6, 4));
+        assertEquals(0, target.getRGB(5, 5));
+        assertEquals(0, other.getRGB(2, 3));
+    }
+
+    @Test
+    void directRectsMatchJava2DUnderTranslateClipAndAntialiasing() {
+        float[] x = {-3f, 4.4f, 10f, 20f, 33f};
+        float[] y = {1f, 5.6f, 12f, -2f, 30f};
+        float[] w = {8f, 6f, 15f, 4f, 9f};
+        float[] h = {4f, 7f, 3f, 40f, 0f};
+        int[] argb = {0xFFFF0000, 0x8000FF00, 0xFF0000FF, 0x40FFFFFF, 0xFF000000};
+        assertSameRaster(BufferedImage.TYPE_INT_ARGB, g2 -> {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.translate(3, 2);
+        }, canvas -> {
+            canvas.setClip(new ArberRect(0.4, 0.0, 25.2, 30.0));
+            canvas.fillRects(x, y, w, h, argb, x.length);
+        });
+    }
+
+    @Test
+    void directVoxelsMatchJava2DUnderScaleAndComposite() {
+        float[] vx = new float[64];
+        float[] vy = new float[64];
+        int[] colors = new int[64];
+        for (int i = 0; i < 64; i++) {
+            vx[i] = (i * 7) % 20;
+            vy[i] = (i * 3) % 17;
+            colors[i] = i % 3 == 0 ? 0xFFFF8800 : 0xC0224466;
+        }
+        VoxelBuffer voxels = new VoxelBuffer(vx, vy, new float[64], colors, 64);
+        assertSameRaster(BufferedImage.TYPE_INT_RGB, g2 -> {
+            g2.scale(2, 2);
+            g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.5f));
+        }, canvas -> {
+            canvas.setStroke(2f);
+            canvas.setClip(new ArberRect(1, 1, 15, 12));
+            canvas.drawVoxelField(voxels);
+        });
+    }
+
+    @Test
+    void directHairlinesMatchJava2DWithoutAntialiasing() {
+        float[] x0 = {1f, 5f, 30f, 12f};
+        float[] y0 = {1f, 2f, 8f, 20f};
+        float[] x1 = {25f, 5f, 2f, 12f};
+        float[] y1 = {1f, 18f, 8f, 3f};
+        assertSameRaster(BufferedImage.TYPE_INT_ARGB, g2 -> {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            g2.translate(1, 1);
+        }, canvas -> {
+            canvas.setStroke(1f);
+            canvas.drawSegments(x0, y0, x1, y1, new int[]{0xFFFF0000, 0xFF00FF00, 0x800000FF, 0xFF000000}, 4);
+        });
+    }
+
+    @Test
+    void longPolylinesAreNotTruncated() {
+        for (Object aa : new Object[]{RenderingHints.VALUE_ANTIALIAS_OFF, RenderingHints.VALUE_ANTIALIAS_ON}) {
+            // 150k vertices: a jittering run along the top edge, then a diagonal tail to (30, 30).
+            int n = 150_000;
+            float[] xs = new float[n];
+            float[] ys = new float[n];
+            for (int i = 0; i < 100_000; i++) {
+                xs[i] = 2f + (i % 7) * 0.1f + (i * 20f / 100_000);
+                ys[i] = 2f + (i % 3);
+            }
+            for (int i = 100_000; i < n; i++) {
+                float t = (i - 100_000) / (float) (n - 100_001);
+                xs[i] = 22f + 8f * t;
+                ys[i] = 4f + 26f * t;
+            }
+
+            BufferedImage image = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = image.createGraphics();
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, aa);
+            AwtCanvasAdapter canvas = new AwtCanvasAdapter(g2);
+            canvas.setColor(new ArberColor(0xFF0000FF));
+            canvas.setStroke(1f);
+            canvas.drawPolyline(xs, ys, n);
+            g2.dispose();
+
+            assertTrue(rowDrawn(image, 29, 27, 31), "end of the polyline must be drawn (" + aa + ")");
+            assertTrue(rowDrawn(image, 17, 24, 28), "middle of the tail must be drawn (" + aa + ")");
+        }
+    }
+
+    @Test
+    void collapsedPolylineStillDrawsAPoint() {
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        AwtCanvasAdapter canvas = new AwtCanvasAdapter(g2);
+        canvas.setColor(new ArberColor(0xFFFF0000));
+        canvas.drawPolyline(new float[]{4.2f, 4.4f, 3.9f}, new float[]{5f, 5.1f, 4.8f}, 3);
+        g2.dispose();
+
+        assertEquals(0xFFFF0000, image.getRGB(4, 5));
+    }
+
+    private static boolean rowDrawn(BufferedImage image, int y, int x0, int x1) {
+        for (int x = x0; x <= x1; x++) {
+            if ((image.getRGB(x, y) >>> 24) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Draws the same content through Java2D and through the direct path; channels may differ by
+     * one level where translucent colors are blended.
+     */
+    private static void assertSameRaster(int type, Consumer<Graphics2D> setup, Consumer<AwtCanvasAdapter> draw) {
+        BufferedImage expected = new BufferedImage(40, 40, type);
+        BufferedImage actual = new BufferedImage(40, 40, type);
+        for (BufferedImage image : new BufferedImage[]{expected, actual}) {
+            Graphics2D g2 = image.createGraphics();
+            g2.setColor(java.awt.Color.DARK_GRAY);
+            g2.fillRect(0, 0, 40, 20);
+            setup.accept(g2);
+            draw.accept(image == actual ? new AwtCanvasAdapter(g2, image) : new AwtCanvasAdapter(g2));
+            g2.dispose();
+        }
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                int e = expected.getRGB(x, y);
+                int a = actual.getRGB(x, y);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int d = Math.abs(((e >>> shift) & 0xFF) - ((a >>> shift) & 0xFF));
+                    if (d > 1) {
+                        throw new AssertionError(String.format("pixel (%d,%d): expected %08x but was %08x", x, y, e, a));
+                    }
+                }
+            }
+        }
+    }
 }